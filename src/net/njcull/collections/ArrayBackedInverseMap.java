@@ -0,0 +1,164 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+
+/**
+ * An inverse view of an array-backed bi-map, where the keys of the view are
+ * the values of the backing map, and vice-versa. The view shares the arrays
+ * of the backing map; no data is copied.
+ * <p>
+ * Searches by key in this view are delegated to the value search of the
+ * backing map, so their cost is determined by how the backing map indexes
+ * its values.
+ * </p>
+ *
+ * @param <K> the type of keys maintained by this view
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+final class ArrayBackedInverseMap<K,V> extends AbstractMap<K,V>
+        implements ArrayBackedMap<K,V>, Serializable {
+
+    private final ArrayBackedMap<V,K> m_Map;
+
+    // Serialization
+    private static final long serialVersionUID = 4311570437521870961L;
+
+    /**
+     * Create a new inverse view of the given bi-map.
+     *
+     * @param map the backing bi-map, where all values are unique
+     */
+    ArrayBackedInverseMap(ArrayBackedMap<V,K> map) {
+        this.m_Map = Objects.requireNonNull(map, "map must not be null");
+    }
+
+    /**
+     * Returns the backing map, of which this map is the inverse.
+     *
+     * @return the backing map of this inverse view
+     */
+    public ArrayBackedMap<V,K> inverse() {
+        return m_Map;
+    }
+
+    @Override
+    public int size() {
+        return m_Map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return m_Map.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return m_Map.indexOfValue(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return m_Map.indexOfKey(value) >= 0;
+    }
+
+    @Override
+    public V get(Object key) {
+        int idx = m_Map.indexOfValue(key);
+        if(idx >= 0) {
+            return m_Map.keyAt(idx);
+        }
+        return null;
+    }
+
+    @Override
+    public Entry<K,V> entryAt(int index) {
+        return new SimpleImmutableEntry<>(m_Map.valueAt(index), m_Map.keyAt(index));
+    }
+
+    @Override
+    public K keyAt(int index) {
+        return m_Map.valueAt(index);
+    }
+
+    @Override
+    public V valueAt(int index) {
+        return m_Map.keyAt(index);
+    }
+
+    @Override
+    public int indexOfKey(Object key) {
+        return m_Map.indexOfValue(key);
+    }
+
+    @Override
+    public int indexOfValue(Object value) {
+        return m_Map.indexOfKey(value);
+    }
+
+    @Override
+    public ArrayBackedSet<Entry<K,V>> entrySet() {
+        return Views.setView(
+                new ArrayBackedImmutableList<>(
+                        Views.mapEntryIndexer(this), size(),
+                        Spliterator.DISTINCT | Spliterator.NONNULL));
+    }
+
+    @Override
+    public ArrayBackedSet<K> keySet() {
+        return Views.setView(
+                new ArrayBackedImmutableList<>(
+                        Views.mapKeyIndexer(this), size(), Spliterator.DISTINCT));
+    }
+
+    @Override
+    public ArrayBackedCollection<V> values() {
+        return Views.setView(
+                new ArrayBackedImmutableList<>(
+                        Views.mapValueIndexer(this), size(), Spliterator.DISTINCT));
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        return ArrayBackedMap.getOrDefault(this, key, defaultValue);
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        ArrayBackedMap.forEach(this, action);
+    }
+
+    @Override
+    public String toString() {
+        return ArrayBackedMap.toString(this);
+    }
+
+    @Override
+    public int hashCode() {
+        return ArrayBackedMap.hashCode(this);
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @param stream the object stream to be deserialized
+     * @throws ClassNotFoundException the class or descendants could not be found
+     * @throws IOException there was a problem reading the object stream
+     */
+    private void readObject(ObjectInputStream stream) throws ClassNotFoundException, IOException {
+        stream.defaultReadObject();
+
+        // Perform validation
+        if (m_Map == null) {
+            throw new InvalidObjectException("Map must not be null");
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable view over a contiguous range of the entries of an
+ * {@link ArrayBackedMap}, without copying. Entries are indexed from the
+ * start of the range.
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+final class ArrayBackedSubMap<K,V> extends AbstractMap<K,V>
+        implements ArrayBackedMap<K,V>, Serializable {
+
+    private final ArrayBackedMap<K,V> m_Map;
+    private final int m_FromIndex;
+    private final int m_ToIndex;
+
+    // Serialization
+    private static final long serialVersionUID = -1570239620946104733L;
+
+    ArrayBackedSubMap(ArrayBackedMap<K,V> map, int fromIndex, int toIndex) {
+        this.m_Map = Objects.requireNonNull(map, "map must not be null");
+        if((fromIndex < 0) || (toIndex < fromIndex) || (toIndex > map.size())) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex);
+        }
+        this.m_FromIndex = fromIndex;
+        this.m_ToIndex = toIndex;
+    }
+
+    @Override
+    public int size() {
+        return m_ToIndex - m_FromIndex;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return m_ToIndex == m_FromIndex;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOfKey(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return indexOfValue(value) >= 0;
+    }
+
+    @Override
+    public V get(Object key) {
+        return ArrayBackedMap.getOrDefault(this, key, null);
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        return ArrayBackedMap.getOrDefault(this, key, defaultValue);
+    }
+
+    private int checkIndex(int index) {
+        if((index < 0) || (index >= m_ToIndex - m_FromIndex)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return m_FromIndex + index;
+    }
+
+    @Override
+    public Entry<K,V> entryAt(int index) {
+        return m_Map.entryAt(checkIndex(index));
+    }
+
+    @Override
+    public K keyAt(int index) {
+        return m_Map.keyAt(checkIndex(index));
+    }
+
+    @Override
+    public V valueAt(int index) {
+        return m_Map.valueAt(checkIndex(index));
+    }
+
+    /**
+     * Returns the index of the given key within this range, searching the
+     * underlying map.
+     *
+     * @param key the key to be found in the map
+     * @return a zero or positive integer if the key is in the range,
+     * otherwise {@code -1} to indicate its absence
+     */
+    @Override
+    public int indexOfKey(Object key) {
+        final int idx = m_Map.indexOfKey(key);
+        return ((idx >= m_FromIndex) && (idx < m_ToIndex)) ? idx - m_FromIndex : -1;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the given value within
+     * this range. This operation requires time linear in the size of the
+     * range.
+     *
+     * @param value the value to be found in the map
+     * @return a zero or positive integer if the value is in the range,
+     * otherwise {@code -1} to indicate its absence
+     */
+    @Override
+    public int indexOfValue(Object value) {
+        for(int i = m_FromIndex; i < m_ToIndex; i++) {
+            if(Objects.equals(value, m_Map.valueAt(i))) {
+                return i - m_FromIndex;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public ArrayBackedSet<Entry<K,V>> entrySet() {
+        return Views.setView(
+                new ArrayBackedImmutableList<>(
+                        Views.mapEntryIndexer(this), size(),
+                        Spliterator.DISTINCT | Spliterator.NONNULL));
+    }
+
+    @Override
+    public ArrayBackedSet<K> keySet() {
+        return Views.setView(
+                new ArrayBackedImmutableList<>(
+                        Views.mapKeyIndexer(this), size(), Spliterator.DISTINCT));
+    }
+
+    @Override
+    public ArrayBackedCollection<V> values() {
+        return Views.collectionView(
+                new ArrayBackedImmutableList<>(Views.mapValueIndexer(this), size()));
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        ArrayBackedMap.forEach(this, action);
+    }
+
+    @Override
+    public int hashCode() {
+        return ArrayBackedMap.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return ArrayBackedMap.toString(this);
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @param stream the object stream to be deserialized
+     * @throws ClassNotFoundException the class or descendants could not be found
+     * @throws IOException there was a problem reading the object stream
+     */
+    private void readObject(ObjectInputStream stream) throws ClassNotFoundException, IOException {
+        stream.defaultReadObject();
+
+        // Perform validation
+        if(m_Map == null) {
+            throw new InvalidObjectException("map must not be null");
+        }
+        if((m_FromIndex < 0) || (m_ToIndex < m_FromIndex) || (m_ToIndex > m_Map.size())) {
+            throw new InvalidObjectException("range out of bounds");
+        }
+    }
+}
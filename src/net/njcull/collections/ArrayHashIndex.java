@@ -0,0 +1,168 @@
+package net.njcull.collections;
+
+import java.util.Objects;
+
+/**
+ * An open-addressed hash index over a range of an array of elements. The
+ * index is a table of ints, where each non-zero slot holds one more than
+ * the position of an element within the indexed range. The elements
+ * themselves are never copied.
+ * <p>
+ * Where the indexed range contains equal elements, only the first of them
+ * is indexed, so searches return the lowest matching position.
+ * </p>
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+final class ArrayHashIndex {
+
+    /**
+     * Ranges smaller than this are faster to scan linearly than to index.
+     */
+    static final int MIN_INDEXED_SIZE = 8;
+
+    private ArrayHashIndex() {
+    }
+
+    /**
+     * Build a hash index over the given range of the array. The table is
+     * sized to the next power of two at least twice the number of elements,
+     * keeping the load factor at or below one half.
+     *
+     * @param elements the array containing the elements to be indexed
+     * @param offset the position of the first element to be indexed
+     * @param size the number of elements to be indexed
+     * @return a hash table of positions relative to {@code offset}
+     */
+    static int[] build(Object[] elements, int offset, int size) {
+        final int capacity = tableSizeFor(size);
+        final int mask = capacity - 1;
+        final int[] table = new int[capacity];
+
+        for(int i = 0; i < size; i++) {
+            final Object o = elements[offset + i];
+            int slot = spread(Objects.hashCode(o)) & mask;
+            int entry;
+            while((entry = table[slot]) != 0) {
+                if(Objects.equals(o, elements[offset + entry - 1])) {
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if(entry == 0) {
+                table[slot] = i + 1;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Search the hash index for the given element.
+     *
+     * @param table the hash table previously built over the elements
+     * @param elements the array containing the indexed elements
+     * @param offset the position of the first indexed element
+     * @param o the element to be found
+     * @return the position of the element relative to {@code offset} if
+     * found, otherwise {@code -1}
+     */
+    static int indexOf(int[] table, Object[] elements, int offset, Object o) {
+        return indexOf(table, elements, offset, o, Objects.hashCode(o));
+    }
+
+    /**
+     * Search the hash index for the given element, whose hash code has
+     * already been calculated.
+     *
+     * @param table the hash table previously built over the elements
+     * @param elements the array containing the indexed elements
+     * @param offset the position of the first indexed element
+     * @param o the element to be found
+     * @param hashCode the hash code of the element
+     * @return the position of the element relative to {@code offset} if
+     * found, otherwise {@code -1}
+     */
+    static int indexOf(int[] table, Object[] elements, int offset, Object o, int hashCode) {
+        final int mask = table.length - 1;
+        int slot = spread(hashCode) & mask;
+        int entry;
+        while((entry = table[slot]) != 0) {
+            if(Objects.equals(o, elements[offset + entry - 1])) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Build a hash index over the given range of an array held in chunks,
+     * as for {@link #build(Object[], int, int)}. The table is held in
+     * chunks as well, since it is larger than the range it indexes.
+     *
+     * @param chunks the chunks containing the elements to be indexed
+     * @param offset the position of the first element to be indexed
+     * @param size the number of elements to be indexed
+     * @return a hash table of positions relative to {@code offset}, in
+     * chunks
+     */
+    static int[][] build(Object[][] chunks, int offset, int size) {
+        final int capacity = tableSizeFor(size);
+        final int mask = capacity - 1;
+        final int[][] table = ChunkedArrays.newIntChunks(capacity);
+
+        for(int i = 0; i < size; i++) {
+            final Object o = ChunkedArrays.get(chunks, offset + i);
+            int slot = spread(Objects.hashCode(o)) & mask;
+            int entry;
+            while((entry = ChunkedArrays.get(table, slot)) != 0) {
+                if(Objects.equals(o, ChunkedArrays.get(chunks, offset + entry - 1))) {
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if(entry == 0) {
+                ChunkedArrays.set(table, slot, i + 1);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Search the hash index held in chunks for the given element, in an
+     * array held in chunks.
+     *
+     * @param table the hash table previously built over the elements
+     * @param chunks the chunks containing the indexed elements
+     * @param offset the position of the first indexed element
+     * @param o the element to be found
+     * @return the position of the element relative to {@code offset} if
+     * found, otherwise {@code -1}
+     */
+    static int indexOf(int[][] table, Object[][] chunks, int offset, Object o) {
+        final int mask = ChunkedArrays.length(table) - 1;
+        int slot = spread(Objects.hashCode(o)) & mask;
+        int entry;
+        while((entry = ChunkedArrays.get(table, slot)) != 0) {
+            if(Objects.equals(o, ChunkedArrays.get(chunks, offset + entry - 1))) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Spread the high bits of the hash code into the low bits, since the
+     * table index is masked by a power of two.
+     */
+    static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int size) {
+        int capacity = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+        return Math.max(capacity, 2);
+    }
+}
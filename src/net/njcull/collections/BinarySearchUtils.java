@@ -1,5 +1,6 @@
 package net.njcull.collections;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Objects;
 import java.util.function.IntFunction;
@@ -13,6 +14,12 @@ import java.util.function.IntFunction;
  */
 public final class BinarySearchUtils {
 
+    /**
+     * The number of searches advanced together by
+     * {@link #interleavedSearch(Object[], int, int, Object[], int[], Comparator)}.
+     */
+    static final int INTERLEAVED_GROUP_SIZE = 16;
+
     private BinarySearchUtils() {
     }
 
@@ -218,4 +225,316 @@ public final class BinarySearchUtils {
         }
         return -(low + 1);  // key not found.
     }
+
+    /**
+     * Searches a range of the specified array for the specified object
+     * using the binary search algorithm, ordered by the given comparator.
+     * This is equivalent to
+     * {@link #indexedSearch(IntFunction, int, int, Object, Comparator)}
+     * with an indexer over the array, but reads the array directly so that
+     * no indexer function need be allocated.
+     *
+     * @param  <T> the class of the objects in the array
+     * @param array the array to be searched
+     * @param fromIndex the index of the first element (inclusive) to be
+     *          searched
+     * @param toIndex the index of the last element (exclusive) to be searched
+     * @param key the key to be found
+     * @param comparator the comparator to determine the order of the elements
+     * @return index of the search key, if it is contained in the array
+     *         within the specified range;
+     *         otherwise, {@code (-(insertion point) - 1)}, as for
+     *         {@link #indexedSearch(IntFunction, int, int, Object, Comparator)}
+     * @throws NullPointerException the {@code array} is null, or
+     *         {@code comparator} is null
+     * @throws IndexOutOfBoundsException {@code fromIndex} is less than 0,
+     *         {@code toIndex} is less than {@code fromIndex}, or
+     *         {@code toIndex} is greater than the array length
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> int arraySearch(Object[] array, int fromIndex, int toIndex, T key,
+                                      Comparator<? super T> comparator) {
+        int low = fromIndex;
+        int high = toIndex - 1;
+
+        Objects.requireNonNull(array, "array must not be null");
+        if(fromIndex < 0) {
+            throw new IndexOutOfBoundsException("fromIndex must be >= 0");
+        }
+        if((toIndex < fromIndex) || (toIndex > array.length)) {
+            throw new IndexOutOfBoundsException("toIndex must be >= fromIndex and <= length");
+        }
+        Objects.requireNonNull(comparator, "comparator must not be null");
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = comparator.compare((T) array[mid], key);
+
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid; // key found
+            }
+        }
+        return -(low + 1);  // key not found.
+    }
+
+    /**
+     * Searches a range of the specified array for the specified object
+     * using a galloping (exponential) search from the start of the range,
+     * followed by a binary search within the bracketed run. This requires
+     * time logarithmic in the distance of the key from {@code fromIndex}
+     * rather than in the length of the range, so a sorted batch of keys may
+     * be found in a single forward pass by starting each search from the
+     * position of the previous key.
+     *
+     * @param  <T> the class of the objects in the array
+     * @param array the array to be searched
+     * @param fromIndex the index of the first element (inclusive) to be
+     *          searched
+     * @param toIndex the index of the last element (exclusive) to be searched
+     * @param key the key to be found
+     * @param comparator the comparator to determine the order of the elements
+     * @return index of the search key, if it is contained in the array
+     *         within the specified range;
+     *         otherwise, {@code (-(insertion point) - 1)}, as for
+     *         {@link #indexedSearch(IntFunction, int, int, Object, Comparator)}
+     * @throws NullPointerException the {@code array} is null, or
+     *         {@code comparator} is null
+     * @throws IndexOutOfBoundsException {@code fromIndex} is less than 0,
+     *         {@code toIndex} is less than {@code fromIndex}, or
+     *         {@code toIndex} is greater than the array length
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> int gallopingSearch(Object[] array, int fromIndex, int toIndex, T key,
+                                          Comparator<? super T> comparator) {
+        Objects.requireNonNull(array, "array must not be null");
+        if(fromIndex < 0) {
+            throw new IndexOutOfBoundsException("fromIndex must be >= 0");
+        }
+        if((toIndex < fromIndex) || (toIndex > array.length)) {
+            throw new IndexOutOfBoundsException("toIndex must be >= fromIndex and <= length");
+        }
+        Objects.requireNonNull(comparator, "comparator must not be null");
+
+        // Probe at fromIndex + 0, 1, 3, 7, ... until the key is bracketed
+        int low = fromIndex;
+        int probe = fromIndex;
+        int step = 1;
+        while((probe < toIndex) && (comparator.compare((T) array[probe], key) < 0)) {
+            low = probe + 1;
+            probe = (toIndex - probe > step) ? probe + step : toIndex;
+            step <<= 1;
+        }
+        return arraySearch(array, low, Math.min(probe + 1, toIndex), key, comparator);
+    }
+
+    /**
+     * Searches a range of the specified array for each of a batch of keys,
+     * in no particular order, advancing a group of searches in lock-step.
+     * <p>
+     * Each search is an ordinary binary search whose next probe depends
+     * only on its own previous comparison, so the searches of a group are
+     * independent of one another. Advancing a small group of them one level
+     * at a time lets the processor issue their memory loads together, so
+     * the cache misses of a large array can overlap rather than being
+     * taken one after another. The keys need not be sorted.
+     * </p>
+     *
+     * @param  <T> the class of the objects in the array
+     * @param array the array to be searched
+     * @param fromIndex the index of the first element (inclusive) to be
+     *          searched
+     * @param toIndex the index of the last element (exclusive) to be searched
+     * @param keys the keys to be found
+     * @param out receives, at the position of each key, the index of the
+     *          key if it is contained in the array within the specified
+     *          range; otherwise, {@code (-(insertion point) - 1)}, as for
+     *          {@link #arraySearch(Object[], int, int, Object, Comparator)}
+     * @param comparator the comparator to determine the order of the elements
+     * @return the number of keys found
+     * @throws NullPointerException the {@code array}, {@code keys},
+     *         {@code out} or {@code comparator} is null
+     * @throws IllegalArgumentException {@code out} is shorter than
+     *         {@code keys}
+     * @throws IndexOutOfBoundsException {@code fromIndex} is less than 0,
+     *         {@code toIndex} is less than {@code fromIndex}, or
+     *         {@code toIndex} is greater than the array length
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> int interleavedSearch(Object[] array, int fromIndex, int toIndex,
+                                            Object[] keys, int[] out,
+                                            Comparator<? super T> comparator) {
+        Objects.requireNonNull(array, "array must not be null");
+        if(fromIndex < 0) {
+            throw new IndexOutOfBoundsException("fromIndex must be >= 0");
+        }
+        if((toIndex < fromIndex) || (toIndex > array.length)) {
+            throw new IndexOutOfBoundsException("toIndex must be >= fromIndex and <= length");
+        }
+        if(out.length < keys.length) {
+            throw new IllegalArgumentException("output array is shorter than keys");
+        }
+        Objects.requireNonNull(comparator, "comparator must not be null");
+
+        final int count = keys.length;
+        final int length = toIndex - fromIndex;
+        if(length == 0) {
+            Arrays.fill(out, 0, count, -(fromIndex + 1));
+            return 0;
+        }
+
+        final int[] base = new int[Math.min(count, INTERLEAVED_GROUP_SIZE)];
+        int found = 0;
+        for(int start = 0; start < count; start += INTERLEAVED_GROUP_SIZE) {
+            final int group = Math.min(INTERLEAVED_GROUP_SIZE, count - start);
+            Arrays.fill(base, 0, group, fromIndex);
+
+            // Narrow every search in the group by one level per pass
+            int n = length;
+            while(n > 1) {
+                final int half = n >>> 1;
+                for(int j = 0; j < group; j++) {
+                    final int probe = base[j] + half;
+                    if(comparator.compare((T) array[probe], (T) keys[start + j]) <= 0) {
+                        base[j] = probe;
+                    }
+                }
+                n -= half;
+            }
+
+            for(int j = 0; j < group; j++) {
+                final int cmp = comparator.compare((T) array[base[j]], (T) keys[start + j]);
+                if(cmp == 0) {
+                    out[start + j] = base[j];
+                    found++;
+                } else {
+                    out[start + j] = -((cmp < 0 ? base[j] + 1 : base[j]) + 1);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Converts the result of a binary search over distinct elements into
+     * the index of a range boundary. A missing key gives its insertion
+     * point; a found key gives its own index, or the following index if
+     * {@code afterMatch} is {@code true}.
+     *
+     * @param searchResult the result of a binary search
+     * @param afterMatch {@code true} if the boundary falls after a
+     *          matching element, otherwise {@code false}
+     * @return the index of the boundary
+     */
+    static int boundaryIndex(int searchResult, boolean afterMatch) {
+        if(searchResult < 0) {
+            return -(searchResult + 1);
+        }
+        return afterMatch ? searchResult + 1 : searchResult;
+    }
+
+    /**
+     * Searches a range of the specified indexer for the first element that
+     * starts with the given prefix, using the binary search algorithm. The
+     * range must be sorted into ascending lexicographic order of its
+     * characters, as for the natural ordering of {@code String}, with any
+     * {@code null} elements first. Elements starting with the prefix are
+     * then contiguous within the range.
+     *
+     * @param indexer an int function that takes an index and returns the
+     *                element at the given index. Indexes must be &gt;= 0.
+     * @param fromIndex the index of the first element (inclusive) to be
+     *          searched
+     * @param toIndex the index of the last element (exclusive) to be searched
+     * @param prefix the prefix to be found
+     * @return the index of the first element in the range starting with the
+     *         prefix; otherwise the index of the first element greater than
+     *         the prefix, or {@code toIndex} if all elements in the range are
+     *         less than the prefix
+     * @throws NullPointerException the {@code indexer} or {@code prefix} is null
+     * @throws IndexOutOfBoundsException {@code fromIndex} is less than 0,
+     *         or {@code toIndex} is less than {@code fromIndex}
+     */
+    public static int prefixStart(IntFunction<? extends CharSequence> indexer,
+                                  int fromIndex, int toIndex, CharSequence prefix) {
+        return prefixSearch(indexer, fromIndex, toIndex, prefix, 0);
+    }
+
+    /**
+     * Searches a range of the specified indexer for the end of the elements
+     * that start with the given prefix, using the binary search algorithm.
+     * The range must be sorted as for
+     * {@link #prefixStart(IntFunction, int, int, CharSequence)}.
+     *
+     * @param indexer an int function that takes an index and returns the
+     *                element at the given index. Indexes must be &gt;= 0.
+     * @param fromIndex the index of the first element (inclusive) to be
+     *          searched
+     * @param toIndex the index of the last element (exclusive) to be searched
+     * @param prefix the prefix to be found
+     * @return the index of the first element in the range greater than every
+     *         element starting with the prefix, or {@code toIndex} if there
+     *         is no such element
+     * @throws NullPointerException the {@code indexer} or {@code prefix} is null
+     * @throws IndexOutOfBoundsException {@code fromIndex} is less than 0,
+     *         or {@code toIndex} is less than {@code fromIndex}
+     */
+    public static int prefixEnd(IntFunction<? extends CharSequence> indexer,
+                                int fromIndex, int toIndex, CharSequence prefix) {
+        return prefixSearch(indexer, fromIndex, toIndex, prefix, 1);
+    }
+
+    /**
+     * Returns the index of the first element in the range that compares
+     * to the prefix at or above the given bound.
+     */
+    private static int prefixSearch(IntFunction<? extends CharSequence> indexer,
+                                    int fromIndex, int toIndex, CharSequence prefix, int bound) {
+        int low = fromIndex;
+        int high = toIndex - 1;
+
+        Objects.requireNonNull(indexer, "indexer function must not be null");
+        Objects.requireNonNull(prefix, "prefix must not be null");
+        if(fromIndex < 0) {
+            throw new IndexOutOfBoundsException("fromIndex must be >= 0");
+        }
+        if(toIndex < fromIndex) {
+            throw new IndexOutOfBoundsException("toIndex must be >= fromIndex");
+        }
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (compareToPrefix(indexer.apply(mid), prefix) < bound) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares the given characters with the given prefix. Returns zero if
+     * the characters start with the prefix, otherwise less than or greater
+     * than zero if the characters are lexicographically less than or
+     * greater than the prefix. A {@code null} is less than any prefix.
+     */
+    static int compareToPrefix(CharSequence chars, CharSequence prefix) {
+        if(chars == null) {
+            return -1;
+        }
+        final int len = Math.min(chars.length(), prefix.length());
+        for(int i = 0; i < len; i++) {
+            final char c1 = chars.charAt(i);
+            final char c2 = prefix.charAt(i);
+            if(c1 != c2) {
+                return c1 - c2;
+            }
+        }
+        // Shorter characters are a proper prefix of the prefix, so are less
+        return (chars.length() < prefix.length()) ? -1 : 0;
+    }
 }
@@ -0,0 +1,113 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Buffered, sequential writes to a file channel, starting at a given
+ * position. Values are written in big-endian order. Several writers may
+ * write to separate areas of the same channel, since each writes at its
+ * own position.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+final class ChannelWriter {
+
+    private final FileChannel m_Channel;
+    private final ByteBuffer m_Buffer;
+    private long m_Position;
+
+    /**
+     * Create a new writer to the given channel.
+     *
+     * @param channel the channel to be written
+     * @param position the position in the channel of the first byte written
+     * @param bufferSize the size of the write buffer in bytes
+     */
+    ChannelWriter(FileChannel channel, long position, int bufferSize) {
+        this.m_Channel = channel;
+        this.m_Buffer = ByteBuffer.allocate(bufferSize);
+        this.m_Position = position;
+    }
+
+    /**
+     * Returns the position in the channel of the next byte to be written.
+     *
+     * @return the position of the next byte to be written
+     */
+    long position() {
+        return m_Position + m_Buffer.position();
+    }
+
+    void putInt(int value) throws IOException {
+        if(m_Buffer.remaining() < Integer.BYTES) {
+            flush();
+        }
+        m_Buffer.putInt(value);
+    }
+
+    void putLong(long value) throws IOException {
+        if(m_Buffer.remaining() < Long.BYTES) {
+            flush();
+        }
+        m_Buffer.putLong(value);
+    }
+
+    void put(byte[] bytes) throws IOException {
+        int done = 0;
+        while(done < bytes.length) {
+            if(!m_Buffer.hasRemaining()) {
+                flush();
+            }
+            final int len = Math.min(bytes.length - done, m_Buffer.remaining());
+            m_Buffer.put(bytes, done, len);
+            done += len;
+        }
+    }
+
+    /**
+     * Write any buffered bytes to the channel.
+     *
+     * @throws IOException the bytes could not be written
+     */
+    void flush() throws IOException {
+        m_Buffer.flip();
+        while(m_Buffer.hasRemaining()) {
+            m_Position += m_Channel.write(m_Buffer, m_Position);
+        }
+        m_Buffer.clear();
+    }
+
+    /**
+     * Create a new empty file in the same directory as the given file, in
+     * which a replacement for the file can be written before being moved
+     * into place by {@link #replace(Path, Path)}.
+     *
+     * @param file the file to be replaced
+     * @return the new empty file
+     * @throws IOException the file could not be created
+     */
+    static Path createSibling(Path file) throws IOException {
+        return Files.createFile(file.resolveSibling("." + file.getFileName() + "." +
+                Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp"));
+    }
+
+    /**
+     * Atomically move a completely written file over the given file. A map
+     * that still has the old file mapped keeps reading the old contents,
+     * rather than having the file truncated under it.
+     *
+     * @param written the file that has been written
+     * @param file the file to be replaced
+     * @throws IOException the file could not be moved
+     */
+    static void replace(Path written, Path file) throws IOException {
+        Files.move(written, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,521 @@
+package net.njcull.collections;
+
+import java.util.Comparator;
+
+/**
+ * Utilities for large arrays held as a sequence of fixed-size chunks, each
+ * of which is small enough to be allocated normally by the G1 collector.
+ * <p>
+ * G1 allocates any array of at least half a region as a humongous object,
+ * in a run of contiguous regions of its own. Regions are at least 1 MiB, so
+ * a chunk of {@value #CHUNK_SIZE} elements, 256 KiB even with uncompressed
+ * references, is never humongous. An element is found by shifting and
+ * masking its index, at the cost of one further array load.
+ * </p>
+ * <p>
+ * Every chunk but the last holds exactly {@value #CHUNK_SIZE} elements;
+ * the last holds the remainder, so the total length is implied by the
+ * chunks themselves.
+ * </p>
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+final class ChunkedArrays {
+
+    static final int CHUNK_SHIFT = 15;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * Maps hold arrays of at least this length in chunks. An array of
+     * this many compressed references is 512 KiB, which is humongous in
+     * the smallest G1 regions.
+     */
+    static final int MIN_CHUNKED_LENGTH = 1 << 17;
+
+    private static final Object[] EMPTY_ELEMENTS = new Object[0];
+    private static final int[] EMPTY_INTS = new int[0];
+
+    private ChunkedArrays() {
+    }
+
+    /**
+     * Allocate chunks for the given number of elements, so that a large
+     * array can be filled without first being allocated flat.
+     *
+     * @param length the total number of elements
+     * @return the new chunks, initialized to {@code null}
+     */
+    static Object[][] newObjectChunks(int length) {
+        final Object[][] chunks = new Object[chunkCount(length)][];
+        for(int c = 0; c < chunks.length; c++) {
+            chunks[c] = new Object[chunkLength(length, c)];
+        }
+        return chunks;
+    }
+
+    /**
+     * Allocate chunks for the given number of ints.
+     *
+     * @param length the total number of elements
+     * @return the new chunks, initialized to zero
+     */
+    static int[][] newIntChunks(int length) {
+        final int[][] chunks = new int[chunkCount(length)][];
+        for(int c = 0; c < chunks.length; c++) {
+            chunks[c] = new int[chunkLength(length, c)];
+        }
+        return chunks;
+    }
+
+    /**
+     * Allocate chunks for the given number of shorts.
+     *
+     * @param length the total number of elements
+     * @return the new chunks, initialized to zero
+     */
+    static short[][] newShortChunks(int length) {
+        final short[][] chunks = new short[chunkCount(length)][];
+        for(int c = 0; c < chunks.length; c++) {
+            chunks[c] = new short[chunkLength(length, c)];
+        }
+        return chunks;
+    }
+
+    /**
+     * Allocate chunks for the given number of bytes.
+     *
+     * @param length the total number of elements
+     * @return the new chunks, initialized to zero
+     */
+    static byte[][] newByteChunks(int length) {
+        final byte[][] chunks = new byte[chunkCount(length)][];
+        for(int c = 0; c < chunks.length; c++) {
+            chunks[c] = new byte[chunkLength(length, c)];
+        }
+        return chunks;
+    }
+
+    private static int chunkCount(int length) {
+        return (int) (((long) length + CHUNK_MASK) >>> CHUNK_SHIFT);
+    }
+
+    private static int chunkLength(int length, int chunk) {
+        return Math.min(CHUNK_SIZE, length - (chunk << CHUNK_SHIFT));
+    }
+
+    /**
+     * Copy the chunks into a single array, for an array short enough to be
+     * held flat. A single chunk is returned as it is, without copying.
+     *
+     * @param chunks the chunks to be joined
+     * @return an array holding the elements of the chunks
+     */
+    static Object[] join(Object[][] chunks) {
+        if(chunks.length == 0) {
+            return EMPTY_ELEMENTS;
+        }
+        if(chunks.length == 1) {
+            return chunks[0];
+        }
+        final Object[] array = new Object[length(chunks)];
+        copy(chunks, 0, array, 0, array.length);
+        return array;
+    }
+
+    /**
+     * Copy the chunks into a single array, for an array short enough to be
+     * held flat. A single chunk is returned as it is, without copying.
+     *
+     * @param chunks the chunks to be joined
+     * @return an array holding the elements of the chunks
+     */
+    static int[] join(int[][] chunks) {
+        if(chunks.length == 0) {
+            return EMPTY_INTS;
+        }
+        if(chunks.length == 1) {
+            return chunks[0];
+        }
+        final int[] array = new int[length(chunks)];
+        for(int c = 0; c < chunks.length; c++) {
+            System.arraycopy(chunks[c], 0, array, c << CHUNK_SHIFT, chunks[c].length);
+        }
+        return array;
+    }
+
+    /**
+     * Returns the total number of elements in the chunks.
+     *
+     * @param chunks the chunks of the array
+     * @return the length of the array
+     */
+    static int length(Object[][] chunks) {
+        final int count = chunks.length;
+        return (count == 0) ? 0 : ((count - 1) << CHUNK_SHIFT) + chunks[count - 1].length;
+    }
+
+    /**
+     * Returns the total number of elements in the chunks.
+     *
+     * @param chunks the chunks of the array
+     * @return the length of the array
+     */
+    static int length(int[][] chunks) {
+        final int count = chunks.length;
+        return (count == 0) ? 0 : ((count - 1) << CHUNK_SHIFT) + chunks[count - 1].length;
+    }
+
+    /**
+     * Returns the total number of elements in the chunks.
+     *
+     * @param chunks the chunks of the array
+     * @return the length of the array
+     */
+    static int length(short[][] chunks) {
+        final int count = chunks.length;
+        return (count == 0) ? 0 : ((count - 1) << CHUNK_SHIFT) + chunks[count - 1].length;
+    }
+
+    /**
+     * Returns the total number of elements in the chunks.
+     *
+     * @param chunks the chunks of the array
+     * @return the length of the array
+     */
+    static int length(byte[][] chunks) {
+        final int count = chunks.length;
+        return (count == 0) ? 0 : ((count - 1) << CHUNK_SHIFT) + chunks[count - 1].length;
+    }
+
+    /**
+     * Returns {@code true} if every chunk but the last is full, and the
+     * last is neither empty nor overfull, as for deserialization.
+     *
+     * @param chunks the chunks to be tested
+     * @return {@code true} if the chunks are well formed
+     */
+    static boolean isWellFormed(Object[][] chunks) {
+        for(int c = 0; c < chunks.length; c++) {
+            final Object[] chunk = chunks[c];
+            if((chunk == null) || (chunk.length > CHUNK_SIZE) || (chunk.length == 0) ||
+                    ((c < chunks.length - 1) && (chunk.length != CHUNK_SIZE))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if every chunk but the last is full, and the
+     * last is neither empty nor overfull, as for deserialization.
+     *
+     * @param chunks the chunks to be tested
+     * @return {@code true} if the chunks are well formed
+     */
+    static boolean isWellFormed(int[][] chunks) {
+        for(int c = 0; c < chunks.length; c++) {
+            final int[] chunk = chunks[c];
+            if((chunk == null) || (chunk.length > CHUNK_SIZE) || (chunk.length == 0) ||
+                    ((c < chunks.length - 1) && (chunk.length != CHUNK_SIZE))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if every chunk but the last is full, and the
+     * last is neither empty nor overfull, as for deserialization.
+     *
+     * @param chunks the chunks to be tested
+     * @return {@code true} if the chunks are well formed
+     */
+    static boolean isWellFormed(short[][] chunks) {
+        for(int c = 0; c < chunks.length; c++) {
+            final short[] chunk = chunks[c];
+            if((chunk == null) || (chunk.length > CHUNK_SIZE) || (chunk.length == 0) ||
+                    ((c < chunks.length - 1) && (chunk.length != CHUNK_SIZE))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if every chunk but the last is full, and the
+     * last is neither empty nor overfull, as for deserialization.
+     *
+     * @param chunks the chunks to be tested
+     * @return {@code true} if the chunks are well formed
+     */
+    static boolean isWellFormed(byte[][] chunks) {
+        for(int c = 0; c < chunks.length; c++) {
+            final byte[] chunk = chunks[c];
+            if((chunk == null) || (chunk.length > CHUNK_SIZE) || (chunk.length == 0) ||
+                    ((c < chunks.length - 1) && (chunk.length != CHUNK_SIZE))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the total number of elements in the chunks, which may exceed
+     * the range of an {@code int}.
+     *
+     * @param chunks the chunks of the array
+     * @return the length of the array
+     */
+    static long length(long[][] chunks) {
+        final int count = chunks.length;
+        return (count == 0) ? 0L : ((long) (count - 1) << CHUNK_SHIFT) + chunks[count - 1].length;
+    }
+
+    /**
+     * Returns {@code true} if every chunk but the last is full, and the
+     * last is neither empty nor overfull, as for deserialization.
+     *
+     * @param chunks the chunks to be tested
+     * @return {@code true} if the chunks are well formed
+     */
+    static boolean isWellFormed(long[][] chunks) {
+        for(int c = 0; c < chunks.length; c++) {
+            final long[] chunk = chunks[c];
+            if((chunk == null) || (chunk.length > CHUNK_SIZE) || (chunk.length == 0) ||
+                    ((c < chunks.length - 1) && (chunk.length != CHUNK_SIZE))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Allocate chunks for the given number of longs, which may exceed the
+     * range of an {@code int}.
+     *
+     * @param length the total number of elements
+     * @return the new chunks, initialized to zero
+     */
+    static long[][] newLongChunks(long length) {
+        final long count = (length + CHUNK_MASK) >>> CHUNK_SHIFT;
+        if(count > Integer.MAX_VALUE - 8) {
+            throw new OutOfMemoryError("too many chunks: " + count);
+        }
+        final long[][] chunks = new long[(int) count][];
+        for(int c = 0; c < chunks.length; c++) {
+            chunks[c] = new long[(int) Math.min(CHUNK_SIZE, length - ((long) c << CHUNK_SHIFT))];
+        }
+        return chunks;
+    }
+
+    static Object get(Object[][] chunks, int index) {
+        return chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    static int get(int[][] chunks, int index) {
+        return chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    static void set(Object[][] chunks, int index, Object value) {
+        chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK] = value;
+    }
+
+    static void set(int[][] chunks, int index, int value) {
+        chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK] = value;
+    }
+
+    static long get(long[][] chunks, long index) {
+        return chunks[(int) (index >>> CHUNK_SHIFT)][(int) index & CHUNK_MASK];
+    }
+
+    static void swap(Object[][] chunks, int i, int j) {
+        final Object[] ci = chunks[i >>> CHUNK_SHIFT];
+        final Object[] cj = chunks[j >>> CHUNK_SHIFT];
+        final Object tmp = ci[i & CHUNK_MASK];
+        ci[i & CHUNK_MASK] = cj[j & CHUNK_MASK];
+        cj[j & CHUNK_MASK] = tmp;
+    }
+
+    /**
+     * Copy a range of elements from the chunks into a flat array, as for
+     * {@link System#arraycopy(Object, int, Object, int, int)}.
+     *
+     * @param src the chunks to be copied from
+     * @param srcPos the index of the first element to be copied
+     * @param dest the array to be copied into
+     * @param destPos the position in the array of the first copied element
+     * @param length the number of elements to be copied
+     */
+    static void copy(Object[][] src, int srcPos, Object[] dest, int destPos, int length) {
+        while(length > 0) {
+            final int offset = srcPos & CHUNK_MASK;
+            final int len = Math.min(length, CHUNK_SIZE - offset);
+            System.arraycopy(src[srcPos >>> CHUNK_SHIFT], offset, dest, destPos, len);
+            srcPos += len;
+            destPos += len;
+            length -= len;
+        }
+    }
+
+    /**
+     * Copy a range of elements from a flat array into the chunks, as for
+     * {@link System#arraycopy(Object, int, Object, int, int)}.
+     *
+     * @param src the array to be copied from
+     * @param srcPos the position in the array of the first element to be
+     *               copied
+     * @param dest the chunks to be copied into
+     * @param destPos the index of the first copied element
+     * @param length the number of elements to be copied
+     */
+    static void copy(Object[] src, int srcPos, Object[][] dest, int destPos, int length) {
+        while(length > 0) {
+            final int offset = destPos & CHUNK_MASK;
+            final int len = Math.min(length, CHUNK_SIZE - offset);
+            System.arraycopy(src, srcPos, dest[destPos >>> CHUNK_SHIFT], offset, len);
+            srcPos += len;
+            destPos += len;
+            length -= len;
+        }
+    }
+
+    /**
+     * Copy a range of longs from a flat array into the chunks, which may
+     * hold more than {@code Integer.MAX_VALUE} elements, as for
+     * {@link System#arraycopy(Object, int, Object, int, int)}.
+     *
+     * @param src the array to be copied from
+     * @param srcPos the position in the array of the first element to be
+     *               copied
+     * @param dest the chunks to be copied into
+     * @param destPos the index of the first copied element
+     * @param length the number of elements to be copied
+     */
+    static void copy(long[] src, int srcPos, long[][] dest, long destPos, int length) {
+        while(length > 0) {
+            final int offset = (int) destPos & CHUNK_MASK;
+            final int len = Math.min(length, CHUNK_SIZE - offset);
+            System.arraycopy(src, srcPos, dest[(int) (destPos >>> CHUNK_SHIFT)], offset, len);
+            srcPos += len;
+            destPos += len;
+            length -= len;
+        }
+    }
+
+    /**
+     * Copy a range of elements from one sequence of chunks into another,
+     * as for {@link System#arraycopy(Object, int, Object, int, int)}.
+     *
+     * @param src the chunks to be copied from
+     * @param srcPos the index of the first element to be copied
+     * @param dest the chunks to be copied into
+     * @param destPos the index of the first copied element
+     * @param length the number of elements to be copied
+     */
+    static void copy(Object[][] src, int srcPos, Object[][] dest, int destPos, int length) {
+        while(length > 0) {
+            final int srcOffset = srcPos & CHUNK_MASK;
+            final int destOffset = destPos & CHUNK_MASK;
+            final int len = Math.min(length, CHUNK_SIZE - Math.max(srcOffset, destOffset));
+            System.arraycopy(src[srcPos >>> CHUNK_SHIFT], srcOffset, dest[destPos >>> CHUNK_SHIFT], destOffset, len);
+            srcPos += len;
+            destPos += len;
+            length -= len;
+        }
+    }
+
+    /**
+     * Searches a range of the chunks for the specified object using the
+     * binary search algorithm, as for
+     * {@link BinarySearchUtils#arraySearch(Object[], int, int, Object, Comparator)}.
+     *
+     * @param <T> the class of the objects in the chunks
+     * @param chunks the chunks to be searched
+     * @param fromIndex the index of the first element (inclusive) to be
+     *          searched
+     * @param toIndex the index of the last element (exclusive) to be searched
+     * @param key the key to be found
+     * @param comparator the comparator to determine the order of the elements
+     * @return index of the search key, if it is contained within the
+     *         specified range; otherwise, {@code (-(insertion point) - 1)}
+     */
+    @SuppressWarnings("unchecked")
+    static <T> int arraySearch(Object[][] chunks, int fromIndex, int toIndex, T key,
+                               Comparator<? super T> comparator) {
+        int low = fromIndex;
+        int high = toIndex - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = comparator.compare((T) chunks[mid >>> CHUNK_SHIFT][mid & CHUNK_MASK], key);
+
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid; // key found
+            }
+        }
+        return -(low + 1);  // key not found.
+    }
+
+    /**
+     * Searches a range of the chunks for the specified object using a
+     * galloping search from the start of the range, as for
+     * {@link BinarySearchUtils#gallopingSearch(Object[], int, int, Object, Comparator)}.
+     *
+     * @param <T> the class of the objects in the chunks
+     * @param chunks the chunks to be searched
+     * @param fromIndex the index of the first element (inclusive) to be
+     *          searched
+     * @param toIndex the index of the last element (exclusive) to be searched
+     * @param key the key to be found
+     * @param comparator the comparator to determine the order of the elements
+     * @return index of the search key, if it is contained within the
+     *         specified range; otherwise, {@code (-(insertion point) - 1)}
+     */
+    @SuppressWarnings("unchecked")
+    static <T> int gallopingSearch(Object[][] chunks, int fromIndex, int toIndex, T key,
+                                   Comparator<? super T> comparator) {
+        int low = fromIndex;
+        int probe = fromIndex;
+        int step = 1;
+        while((probe < toIndex) && (comparator.compare((T) get(chunks, probe), key) < 0)) {
+            low = probe + 1;
+            probe = (toIndex - probe > step) ? probe + step : toIndex;
+            step <<= 1;
+        }
+        return arraySearch(chunks, low, Math.min(probe + 1, toIndex), key, comparator);
+    }
+
+    /**
+     * Returns the index of the first occurrence of the hash code within the
+     * given range of the chunks, scanning each chunk with
+     * {@link HashCodeScan}.
+     *
+     * @param chunks the chunks of hash codes to be scanned
+     * @param fromIndex the index of the first hash code (inclusive) to be
+     *          scanned
+     * @param toIndex the index of the last hash code (exclusive) to be scanned
+     * @param hashCode the hash code to be found
+     * @return the index of the first matching hash code in the range,
+     * otherwise {@code -1}
+     */
+    static int indexOf(int[][] chunks, int fromIndex, int toIndex, int hashCode) {
+        int from = fromIndex;
+        while(from < toIndex) {
+            final int c = from >>> CHUNK_SHIFT;
+            final int base = c << CHUNK_SHIFT;
+            final int to = Math.min(toIndex - base, CHUNK_SIZE);
+            final int i = HashCodeScan.indexOf(chunks[c], from - base, to, hashCode);
+            if(i >= 0) {
+                return base + i;
+            }
+            from = base + to;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,66 @@
+package net.njcull.collections;
+
+/**
+ * Converts keys or values to and from bytes, for collections held in files
+ * rather than on the heap. Encoding must be deterministic, so that equal
+ * objects are encoded to equal bytes, and decoding the bytes must return an
+ * object equal to the one encoded.
+ * <p>
+ * Codecs for strings in UTF-8, and for {@code Long} and {@code Integer} in
+ * big-endian order, are provided by {@link #utf8()}, {@link #longs()} and
+ * {@link #ints()}.
+ * </p>
+ *
+ * @param <T> the type of object encoded
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public interface Codec<T> {
+
+    /**
+     * Encode the given object into a new array of bytes.
+     *
+     * @param value the object to be encoded, never {@code null}
+     * @return the encoded bytes of the object
+     */
+    byte[] encode(T value);
+
+    /**
+     * Decode an object from a range of the given array of bytes.
+     *
+     * @param bytes the array holding the encoded bytes
+     * @param offset the offset of the first encoded byte
+     * @param length the number of encoded bytes
+     * @return the decoded object
+     */
+    T decode(byte[] bytes, int offset, int length);
+
+    /**
+     * Returns a codec encoding strings in UTF-8.
+     *
+     * @return a codec for strings
+     */
+    static Codec<String> utf8() {
+        return StandardCodecs.UTF8;
+    }
+
+    /**
+     * Returns a codec encoding {@code Long} values in eight big-endian
+     * bytes.
+     *
+     * @return a codec for {@code Long} values
+     */
+    static Codec<Long> longs() {
+        return StandardCodecs.LONGS;
+    }
+
+    /**
+     * Returns a codec encoding {@code Integer} values in four big-endian
+     * bytes.
+     *
+     * @return a codec for {@code Integer} values
+     */
+    static Codec<Integer> ints() {
+        return StandardCodecs.INTS;
+    }
+}
@@ -488,4 +488,293 @@ public final class Collectors {
                 ImmutableSortedArrayPropertyMapBuilder::merge,
                 ImmutableSortedArrayPropertyMapBuilder::build);
     }
+
+    /**
+     * Returns a {@code Collector} that accumulates the input strings into a
+     * new front-coded {@code ImmutableSortedStringSet}, in natural sort order.
+     *
+     * @return a {@code Collector} which collects all the input strings into a
+     * {@code ImmutableSortedStringSet}, in natural sort order
+     */
+    public static Collector<String, ?, ImmutableSortedStringSet> toImmutableSortedStringSet() {
+        return Collector.<String, ImmutableSortedStringSetBuilder, ImmutableSortedStringSet>of(
+                ImmutableSortedStringSetBuilder::new,
+                ImmutableSortedStringSetBuilder::with,
+                ImmutableSortedStringSetBuilder::merge,
+                ImmutableSortedStringSetBuilder::build);
+    }
+
+    /**
+     * Returns a {@code Collector} that accumulates the input values into a
+     * new Elias-Fano encoded {@code ImmutableSortedLongSet}, in ascending
+     * order.
+     *
+     * @return a {@code Collector} which collects all the input values into a
+     * {@code ImmutableSortedLongSet}, in ascending order
+     */
+    public static Collector<Long, ?, ImmutableSortedLongSet> toImmutableSortedLongSet() {
+        return Collector.<Long, ImmutableSortedLongSetBuilder, ImmutableSortedLongSet>of(
+                ImmutableSortedLongSetBuilder::new,
+                ImmutableSortedLongSetBuilder::with,
+                ImmutableSortedLongSetBuilder::merge,
+                ImmutableSortedLongSetBuilder::build);
+    }
+
+    /**
+     * Returns a {@code Collector} that accumulates the input values into a
+     * new compressed {@code ImmutableIntSet}, in ascending order.
+     *
+     * @return a {@code Collector} which collects all the input values into a
+     * {@code ImmutableIntSet}, in ascending order
+     */
+    public static Collector<Integer, ?, ImmutableIntSet> toImmutableIntSet() {
+        return Collector.<Integer, ImmutableIntSetBuilder, ImmutableIntSet>of(
+                ImmutableIntSetBuilder::new,
+                ImmutableIntSetBuilder::with,
+                ImmutableIntSetBuilder::merge,
+                ImmutableIntSetBuilder::build);
+    }
+
+    /**
+     * Returns a {@code Collector} that accumulates the input elements into a
+     * new {@code ImmutableSortedStringMap}, with front-coded keys ordered by
+     * their natural order.
+     *
+     * @param <V> the type of values in the resulting map
+     * @return a {@code Collector} which collects all the input keys and values
+     * into a {@code ImmutableSortedStringMap}, with keys ordered by their
+     * natural order
+     */
+    public static <V> Collector<Map.Entry<? extends String,? extends V>, ?, ImmutableSortedStringMap<V>> toImmutableSortedStringMap() {
+        return Collector.<Map.Entry<? extends String,? extends V>, ImmutableSortedStringMapBuilder<V>, ImmutableSortedStringMap<V>>of(
+                ImmutableSortedStringMapBuilder<V>::new,
+                ImmutableSortedStringMapBuilder::with,
+                ImmutableSortedStringMapBuilder::merge,
+                ImmutableSortedStringMapBuilder::build);
+    }
+
+    /**
+     * Returns a {@code Collector} that groups the input elements into a new
+     * {@code ImmutableArrayListMultimap}, with keys and values generated by
+     * the given mapping functions, and keys ordered by their natural order.
+     * The values of each key are kept in encounter order.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of keys in the resulting multimap
+     * @param <V> the type of values in the resulting multimap
+     * @param keyMapper a function for generating a key from an input element
+     * @param valueMapper a function for generating a value from an input element
+     * @return a {@code Collector} which groups all the input elements into a
+     * {@code ImmutableArrayListMultimap}, with keys ordered by their natural
+     * order
+     */
+    public static <T,K,V> Collector<T, ?, ImmutableArrayListMultimap<K,V>> toImmutableArrayListMultimap(
+            final Function<? super T,? extends K> keyMapper, final Function<? super T,? extends V> valueMapper) {
+        return Collector.<T, ImmutableArrayListMultimapBuilder<K,V>, ImmutableArrayListMultimap<K,V>>of(
+                ImmutableArrayListMultimapBuilder::newMultimap,
+                (b, t) -> b.with(keyMapper.apply(t), valueMapper.apply(t)),
+                ImmutableArrayListMultimapBuilder::merge,
+                ImmutableArrayListMultimapBuilder::build);
+    }
+
+    /**
+     * Returns a {@code Collector} that groups the input elements into a new
+     * {@code ImmutableArrayListMultimap}, with keys and values generated by
+     * the given mapping functions, and keys ordered by the given
+     * {@code Comparator}. The values of each key are kept in encounter order.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of keys in the resulting multimap
+     * @param <V> the type of values in the resulting multimap
+     * @param keyMapper a function for generating a key from an input element
+     * @param valueMapper a function for generating a value from an input element
+     * @param keyCmp a comparator for ordering keys, or {@code null} to indicate
+     * natural key ordering
+     * @return a {@code Collector} which groups all the input elements into a
+     * {@code ImmutableArrayListMultimap}, with keys ordered by the given
+     * comparator
+     */
+    public static <T,K,V> Collector<T, ?, ImmutableArrayListMultimap<K,V>> toImmutableArrayListMultimapComparingKeys(
+            final Function<? super T,? extends K> keyMapper, final Function<? super T,? extends V> valueMapper,
+            final Comparator<? super K> keyCmp) {
+        return Collector.<T, ImmutableArrayListMultimapBuilder<K,V>, ImmutableArrayListMultimap<K,V>>of(
+                () -> ImmutableArrayListMultimapBuilder.<K,V>newMultimapComparingKeys(keyCmp),
+                (b, t) -> b.with(keyMapper.apply(t), valueMapper.apply(t)),
+                ImmutableArrayListMultimapBuilder::merge,
+                ImmutableArrayListMultimapBuilder::build);
+    }
+
+    /**
+     * Returns a {@code Collector} that groups the input elements into a new
+     * {@code ImmutableSortedSetMultimap}, with keys and values generated by
+     * the given mapping functions, and keys and values ordered by their
+     * natural order.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of keys in the resulting multimap
+     * @param <V> the type of values in the resulting multimap
+     * @param keyMapper a function for generating a key from an input element
+     * @param valueMapper a function for generating a value from an input element
+     * @return a {@code Collector} which groups all the input elements into a
+     * {@code ImmutableSortedSetMultimap}, with keys and values ordered by
+     * their natural order
+     */
+    public static <T,K,V> Collector<T, ?, ImmutableSortedSetMultimap<K,V>> toImmutableSortedSetMultimap(
+            final Function<? super T,? extends K> keyMapper, final Function<? super T,? extends V> valueMapper) {
+        return Collector.<T, ImmutableSortedSetMultimapBuilder<K,V>, ImmutableSortedSetMultimap<K,V>>of(
+                ImmutableSortedSetMultimapBuilder::newMultimap,
+                (b, t) -> b.with(keyMapper.apply(t), valueMapper.apply(t)),
+                ImmutableSortedSetMultimapBuilder::merge,
+                ImmutableSortedSetMultimapBuilder::build);
+    }
+
+    /**
+     * Returns a {@code Collector} that groups the input elements into a new
+     * {@code ImmutableSortedSetMultimap}, with keys and values generated by
+     * the given mapping functions, and keys and values ordered by the given
+     * {@code Comparator}s.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of keys in the resulting multimap
+     * @param <V> the type of values in the resulting multimap
+     * @param keyMapper a function for generating a key from an input element
+     * @param valueMapper a function for generating a value from an input element
+     * @param keyCmp a comparator for ordering keys, or {@code null} to indicate
+     * natural key ordering
+     * @param valueCmp a comparator for ordering values, or {@code null} to
+     * indicate natural value ordering
+     * @return a {@code Collector} which groups all the input elements into a
+     * {@code ImmutableSortedSetMultimap}, with keys and values ordered by the
+     * given comparators
+     */
+    public static <T,K,V> Collector<T, ?, ImmutableSortedSetMultimap<K,V>> toImmutableSortedSetMultimapComparing(
+            final Function<? super T,? extends K> keyMapper, final Function<? super T,? extends V> valueMapper,
+            final Comparator<? super K> keyCmp, final Comparator<? super V> valueCmp) {
+        return Collector.<T, ImmutableSortedSetMultimapBuilder<K,V>, ImmutableSortedSetMultimap<K,V>>of(
+                () -> ImmutableSortedSetMultimapBuilder.<K,V>newMultimapComparing(keyCmp, valueCmp),
+                (b, t) -> b.with(keyMapper.apply(t), valueMapper.apply(t)),
+                ImmutableSortedSetMultimapBuilder::merge,
+                ImmutableSortedSetMultimapBuilder::build);
+    }
+
+    /**
+     * Returns a {@code Collector} that accumulates the input elements into a
+     * new {@code ImmutableRangeMap}, with closed ranges and values generated
+     * by the given mapping functions, and bounds ordered by their natural
+     * order.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the range bounds in the resulting map
+     * @param <V> the type of values in the resulting map
+     * @param lowerMapper a function for generating a lower bound from an input element
+     * @param upperMapper a function for generating an upper bound from an input element
+     * @param valueMapper a function for generating a value from an input element
+     * @return a {@code Collector} which collects all the input elements into a
+     * {@code ImmutableRangeMap}, with bounds ordered by their natural order
+     */
+    public static <T,K,V> Collector<T, ?, ImmutableRangeMap<K,V>> toImmutableRangeMap(
+            final Function<? super T,? extends K> lowerMapper, final Function<? super T,? extends K> upperMapper,
+            final Function<? super T,? extends V> valueMapper) {
+        return Collector.<T, ImmutableRangeMapBuilder<K,V>, ImmutableRangeMap<K,V>>of(
+                ImmutableRangeMapBuilder::newMap,
+                (b, t) -> b.with(lowerMapper.apply(t), upperMapper.apply(t), valueMapper.apply(t)),
+                ImmutableRangeMapBuilder::merge,
+                ImmutableRangeMapBuilder::build);
+    }
+
+    /**
+     * Returns a {@code Collector} that accumulates the input elements into a
+     * new {@code ImmutableRangeMap}, with closed ranges and values generated
+     * by the given mapping functions, and bounds ordered by the given
+     * {@code Comparator}.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the range bounds in the resulting map
+     * @param <V> the type of values in the resulting map
+     * @param lowerMapper a function for generating a lower bound from an input element
+     * @param upperMapper a function for generating an upper bound from an input element
+     * @param valueMapper a function for generating a value from an input element
+     * @param cmp a comparator for ordering bounds, or {@code null} to indicate
+     * natural ordering
+     * @return a {@code Collector} which collects all the input elements into a
+     * {@code ImmutableRangeMap}, with bounds ordered by the given comparator
+     */
+    public static <T,K,V> Collector<T, ?, ImmutableRangeMap<K,V>> toImmutableRangeMapComparing(
+            final Function<? super T,? extends K> lowerMapper, final Function<? super T,? extends K> upperMapper,
+            final Function<? super T,? extends V> valueMapper, final Comparator<? super K> cmp) {
+        return Collector.<T, ImmutableRangeMapBuilder<K,V>, ImmutableRangeMap<K,V>>of(
+                () -> ImmutableRangeMapBuilder.<K,V>newMapComparing(cmp),
+                (b, t) -> b.with(lowerMapper.apply(t), upperMapper.apply(t), valueMapper.apply(t)),
+                ImmutableRangeMapBuilder::merge,
+                ImmutableRangeMapBuilder::build);
+    }
+
+    /**
+     * Returns a {@code Collector} that accumulates the input elements into a
+     * new {@code ImmutableIntervalIndex}, with closed intervals and values
+     * generated by the given mapping functions, and bounds ordered by their
+     * natural order.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the interval bounds in the resulting index
+     * @param <V> the type of values in the resulting index
+     * @param lowerMapper a function for generating a lower bound from an input element
+     * @param upperMapper a function for generating an upper bound from an input element
+     * @param valueMapper a function for generating a value from an input element
+     * @return a {@code Collector} which collects all the input elements into a
+     * {@code ImmutableIntervalIndex}, with bounds ordered by their natural order
+     */
+    public static <T,K,V> Collector<T, ?, ImmutableIntervalIndex<K,V>> toImmutableIntervalIndex(
+            final Function<? super T,? extends K> lowerMapper, final Function<? super T,? extends K> upperMapper,
+            final Function<? super T,? extends V> valueMapper) {
+        return Collector.<T, ImmutableIntervalIndexBuilder<K,V>, ImmutableIntervalIndex<K,V>>of(
+                ImmutableIntervalIndexBuilder::newIndex,
+                (b, t) -> b.with(lowerMapper.apply(t), upperMapper.apply(t), valueMapper.apply(t)),
+                ImmutableIntervalIndexBuilder::merge,
+                ImmutableIntervalIndexBuilder::build);
+    }
+
+    /**
+     * Returns a {@code Collector} that accumulates the input elements into a
+     * new {@code ImmutableIntervalIndex}, with closed intervals and values
+     * generated by the given mapping functions, and bounds ordered by the
+     * given {@code Comparator}.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the interval bounds in the resulting index
+     * @param <V> the type of values in the resulting index
+     * @param lowerMapper a function for generating a lower bound from an input element
+     * @param upperMapper a function for generating an upper bound from an input element
+     * @param valueMapper a function for generating a value from an input element
+     * @param cmp a comparator for ordering bounds, or {@code null} to indicate
+     * natural ordering
+     * @return a {@code Collector} which collects all the input elements into a
+     * {@code ImmutableIntervalIndex}, with bounds ordered by the given comparator
+     */
+    public static <T,K,V> Collector<T, ?, ImmutableIntervalIndex<K,V>> toImmutableIntervalIndexComparing(
+            final Function<? super T,? extends K> lowerMapper, final Function<? super T,? extends K> upperMapper,
+            final Function<? super T,? extends V> valueMapper, final Comparator<? super K> cmp) {
+        return Collector.<T, ImmutableIntervalIndexBuilder<K,V>, ImmutableIntervalIndex<K,V>>of(
+                () -> ImmutableIntervalIndexBuilder.<K,V>newIndexComparing(cmp),
+                (b, t) -> b.with(lowerMapper.apply(t), upperMapper.apply(t), valueMapper.apply(t)),
+                ImmutableIntervalIndexBuilder::merge,
+                ImmutableIntervalIndexBuilder::build);
+    }
+
+    /**
+     * Returns a {@code Collector} that accumulates the input elements into a
+     * new {@code ImmutableRadixTreeMap}, with keys ordered by their natural
+     * order.
+     *
+     * @param <V> the type of values in the resulting map
+     * @return a {@code Collector} which collects all the input keys and values
+     * into a {@code ImmutableRadixTreeMap}
+     */
+    public static <V> Collector<Map.Entry<? extends String,? extends V>, ?, ImmutableRadixTreeMap<V>> toImmutableRadixTreeMap() {
+        return Collector.<Map.Entry<? extends String,? extends V>, ImmutableRadixTreeMapBuilder<V>, ImmutableRadixTreeMap<V>>of(
+                ImmutableRadixTreeMapBuilder<V>::new,
+                ImmutableRadixTreeMapBuilder::with,
+                ImmutableRadixTreeMapBuilder::merge,
+                ImmutableRadixTreeMapBuilder::build);
+    }
 }
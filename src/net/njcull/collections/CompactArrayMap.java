@@ -0,0 +1,1105 @@
+package net.njcull.collections;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Compact {@link ArrayBackedMap} implementations for small maps, holding
+ * their keys and values in fields rather than in a backing array. There is
+ * one implementation for each size from one to {@link #MAX_SIZE} entries.
+ * <p>
+ * Without the backing array, each map occupies a single object, and lookups
+ * are unrolled comparisons against each key in turn. Keys and values are
+ * tested using a linear search, as for {@link ImmutableArrayMap}.
+ * </p>
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+abstract class CompactArrayMap<K,V> extends AbstractMap<K,V>
+        implements ArrayBackedMap<K,V>, Serializable {
+
+    /**
+     * The largest number of entries held by a compact map.
+     */
+    static final int MAX_SIZE = 8;
+
+    private final boolean m_BiMap;
+
+    // Serialization
+    private static final long serialVersionUID = -3127400951884061215L;
+
+    CompactArrayMap(boolean biMap) {
+        this.m_BiMap = biMap;
+    }
+
+    /**
+     * Create a compact map containing the given keys and values, in order.
+     * Empty maps are returned as the empty {@link ImmutableArrayMap}.
+     *
+     * @param keys the array containing the keys of the map
+     * @param values the array containing the values of the map
+     * @param size the number of keys and values, no more than {@link #MAX_SIZE}
+     * @param biMap {@code true} if the values must also be unique
+     * @param <K> the type of keys maintained by the map
+     * @param <V> the type of mapped values
+     * @return a compact map containing the given keys and values
+     * @throws IllegalStateException there was a duplicate key, or a duplicate
+     * value for a bi-map
+     */
+    @SuppressWarnings("unchecked")
+    static <K,V> ArrayBackedMap<K,V> of(Object[] keys, Object[] values, int size, boolean biMap) {
+        if((size < 0) || (size > MAX_SIZE)) {
+            throw new IllegalArgumentException("size: " + size);
+        }
+        for(int i = 1; i < size; i++) {
+            for(int j = 0; j < i; j++) {
+                if(Objects.equals(keys[i], keys[j])) {
+                    throw new IllegalStateException("duplicate key");
+                }
+                if(biMap && Objects.equals(values[i], values[j])) {
+                    throw new IllegalStateException("duplicate value");
+                }
+            }
+        }
+
+        switch(size) {
+            case 0:
+                return ImmutableArrayMap.emptyMap();
+            case 1:
+                return new Map1<>((K) keys[0], (V) values[0], biMap);
+            case 2:
+                return new Map2<>((K) keys[0], (V) values[0], (K) keys[1], (V) values[1], biMap);
+            case 3:
+                return new Map3<>((K) keys[0], (V) values[0], (K) keys[1], (V) values[1], (K) keys[2], (V) values[2], biMap);
+            case 4:
+                return new Map4<>((K) keys[0], (V) values[0], (K) keys[1], (V) values[1], (K) keys[2], (V) values[2], (K) keys[3], (V) values[3], biMap);
+            case 5:
+                return new Map5<>((K) keys[0], (V) values[0], (K) keys[1], (V) values[1], (K) keys[2], (V) values[2], (K) keys[3], (V) values[3], (K) keys[4], (V) values[4], biMap);
+            case 6:
+                return new Map6<>((K) keys[0], (V) values[0], (K) keys[1], (V) values[1], (K) keys[2], (V) values[2], (K) keys[3], (V) values[3], (K) keys[4], (V) values[4], (K) keys[5], (V) values[5], biMap);
+            case 7:
+                return new Map7<>((K) keys[0], (V) values[0], (K) keys[1], (V) values[1], (K) keys[2], (V) values[2], (K) keys[3], (V) values[3], (K) keys[4], (V) values[4], (K) keys[5], (V) values[5], (K) keys[6], (V) values[6], biMap);
+            case 8:
+                return new Map8<>((K) keys[0], (V) values[0], (K) keys[1], (V) values[1], (K) keys[2], (V) values[2], (K) keys[3], (V) values[3], (K) keys[4], (V) values[4], (K) keys[5], (V) values[5], (K) keys[6], (V) values[6], (K) keys[7], (V) values[7], biMap);
+            default:
+                throw new AssertionError();
+        }
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     * Compact maps always contain at least one mapping.
+     *
+     * @return {@code false}, since this map contains at least one mapping
+     */
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the specified
+     * key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the specified
+     *         key, otherwise {@code false}
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOfKey(key) >= 0;
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if this map maps one or more keys to the
+     *         specified value, otherwise {@code false}
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        return indexOfValue(value) >= 0;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@code null} if this map contains no mapping for the key
+     */
+    @Override
+    public V get(Object key) {
+        final int idx = indexOfKey(key);
+        return (idx >= 0) ? valueAt(idx) : null;
+    }
+
+    /**
+     * Returns an {@code Entry} object for the map entry at the given
+     * index.
+     *
+     * @param index the index of the entry to be retrieved
+     * @return an {@code Entry} object corresponding to the given index
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * index is greater than or equal to the map size
+     */
+    @Override
+    public Map.Entry<K,V> entryAt(int index) {
+        return new SimpleImmutableEntry<K, V>(keyAt(index), valueAt(index));
+    }
+
+    /**
+     * Returns the index of the given key in the map.
+     *
+     * @param key the key to be found in the map
+     * @return a zero or positive integer if the key is in the map,
+     * otherwise less than zero to indicate its absence
+     */
+    @Override
+    public abstract int indexOfKey(Object key);
+
+    /**
+     * Returns the index of the given value in the map. If there is
+     * more than one value, the first index is returned.
+     *
+     * @param value the value to be found in the map
+     * @return a zero or positive integer if the value is in the map,
+     * otherwise less than zero to indicate its absence
+     */
+    @Override
+    public abstract int indexOfValue(Object value);
+
+    /**
+     * Returns {@code true} if this map was built as a bi-map, where both
+     * keys and values are unique.
+     *
+     * @return {@code true} if this map is a bi-map, otherwise {@code false}
+     */
+    public boolean isBiMap() {
+        return m_BiMap;
+    }
+
+    /**
+     * Returns an {@link ArrayBackedSet} view of the mappings contained in this
+     * map. The set is backed by the map.
+     *
+     * @return an array-backed set view of the mappings contained in this map
+     */
+    @Override
+    public ArrayBackedSet<Entry<K, V>> entrySet() {
+        return Views.setView(
+                new ArrayBackedImmutableList<>(
+                        Views.mapEntryIndexer(this), size(),
+                        Spliterator.DISTINCT | Spliterator.NONNULL));
+    }
+
+    /**
+     * Returns an {@link ArrayBackedSet} view of the keys contained in this
+     * map. The set is backed by the map.
+     *
+     * @return an array-backed set view of the keys contained in this map
+     */
+    @Override
+    public ArrayBackedSet<K> keySet() {
+        return Views.setView(
+                new ArrayBackedImmutableList<>(
+                        Views.mapKeyIndexer(this), size(), Spliterator.DISTINCT));
+    }
+
+    /**
+     * Returns an {@link ArrayBackedCollection} view of the values contained
+     * in this map. The collection is backed by the map.
+     *
+     * @return an array-backed collection view of the values contained in this
+     * map
+     */
+    @Override
+    public ArrayBackedCollection<V> values() {
+        if(m_BiMap) {
+            return Views.setView(
+                    new ArrayBackedImmutableList<>(
+                            Views.mapValueIndexer(this), size(), Spliterator.DISTINCT));
+        } else {
+            return Views.collectionView(
+                    new ArrayBackedImmutableList<>(
+                            Views.mapValueIndexer(this), size()));
+        }
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key
+     */
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        return ArrayBackedMap.getOrDefault(this, key, defaultValue);
+    }
+
+    /**
+     * Performs the given action for each entry in this map until all entries
+     * have been processed or the action throws an exception. Actions are
+     * performed in the order of its {@code entryAt(int)} method.
+     * Exceptions thrown by the action are relayed to the caller.
+     *
+     * @param action The action to be performed for each entry
+     * @throws NullPointerException if the specified action is null
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        ArrayBackedMap.forEach(this, action);
+    }
+
+    /**
+     * Returns a string representation of this map, with key-value mappings
+     * in the order returned by the map's {@code entryAt(int)} method.
+     *
+     * @return a string representation of this map
+     */
+    @Override
+    public String toString() {
+        return ArrayBackedMap.toString(this);
+    }
+
+    /**
+     * Returns the hash code value for this map, being the sum of the hash
+     * codes of each entry in the map's {@code entrySet()} view.
+     *
+     * @return the hash code value for this map
+     */
+    @Override
+    public int hashCode() {
+        return ArrayBackedMap.hashCode(this);
+    }
+
+    static final class Map1<K,V> extends CompactArrayMap<K,V> {
+        private final K m_K0;
+        private final V m_V0;
+
+        private static final long serialVersionUID = -6202751113469135121L;
+
+        Map1(K k0, V v0, boolean biMap) {
+            super(biMap);
+            this.m_K0 = k0;
+            this.m_V0 = v0;
+        }
+
+        @Override
+        public int size() {
+            return 1;
+        }
+
+        @Override
+        public K keyAt(int index) {
+            if(index != 0) {
+                throw new IndexOutOfBoundsException("index: " + index);
+            }
+            return m_K0;
+        }
+
+        @Override
+        public V valueAt(int index) {
+            if(index != 0) {
+                throw new IndexOutOfBoundsException("index: " + index);
+            }
+            return m_V0;
+        }
+
+        @Override
+        public int indexOfKey(Object key) {
+            if(Objects.equals(key, m_K0)) {
+                return 0;
+            }
+            return -1;
+        }
+
+        @Override
+        public int indexOfValue(Object value) {
+            if(Objects.equals(value, m_V0)) {
+                return 0;
+            }
+            return -1;
+        }
+    }
+
+    static final class Map2<K,V> extends CompactArrayMap<K,V> {
+        private final K m_K0;
+        private final K m_K1;
+        private final V m_V0;
+        private final V m_V1;
+
+        private static final long serialVersionUID = 4553083624710390827L;
+
+        Map2(K k0, V v0, K k1, V v1, boolean biMap) {
+            super(biMap);
+            this.m_K0 = k0;
+            this.m_V0 = v0;
+            this.m_K1 = k1;
+            this.m_V1 = v1;
+        }
+
+        @Override
+        public int size() {
+            return 2;
+        }
+
+        @Override
+        public K keyAt(int index) {
+            switch(index) {
+                case 0:
+                    return m_K0;
+                case 1:
+                    return m_K1;
+                default:
+                    throw new IndexOutOfBoundsException("index: " + index);
+            }
+        }
+
+        @Override
+        public V valueAt(int index) {
+            switch(index) {
+                case 0:
+                    return m_V0;
+                case 1:
+                    return m_V1;
+                default:
+                    throw new IndexOutOfBoundsException("index: " + index);
+            }
+        }
+
+        @Override
+        public int indexOfKey(Object key) {
+            if(Objects.equals(key, m_K0)) {
+                return 0;
+            }
+            if(Objects.equals(key, m_K1)) {
+                return 1;
+            }
+            return -1;
+        }
+
+        @Override
+        public int indexOfValue(Object value) {
+            if(Objects.equals(value, m_V0)) {
+                return 0;
+            }
+            if(Objects.equals(value, m_V1)) {
+                return 1;
+            }
+            return -1;
+        }
+    }
+
+    static final class Map3<K,V> extends CompactArrayMap<K,V> {
+        private final K m_K0;
+        private final K m_K1;
+        private final K m_K2;
+        private final V m_V0;
+        private final V m_V1;
+        private final V m_V2;
+
+        private static final long serialVersionUID = -1863530458046618309L;
+
+        Map3(K k0, V v0, K k1, V v1, K k2, V v2, boolean biMap) {
+            super(biMap);
+            this.m_K0 = k0;
+            this.m_V0 = v0;
+            this.m_K1 = k1;
+            this.m_V1 = v1;
+            this.m_K2 = k2;
+            this.m_V2 = v2;
+        }
+
+        @Override
+        public int size() {
+            return 3;
+        }
+
+        @Override
+        public K keyAt(int index) {
+            switch(index) {
+                case 0:
+                    return m_K0;
+                case 1:
+                    return m_K1;
+                case 2:
+                    return m_K2;
+                default:
+                    throw new IndexOutOfBoundsException("index: " + index);
+            }
+        }
+
+        @Override
+        public V valueAt(int index) {
+            switch(index) {
+                case 0:
+                    return m_V0;
+                case 1:
+                    return m_V1;
+                case 2:
+                    return m_V2;
+                default:
+                    throw new IndexOutOfBoundsException("index: " + index);
+            }
+        }
+
+        @Override
+        public int indexOfKey(Object key) {
+            if(Objects.equals(key, m_K0)) {
+                return 0;
+            }
+            if(Objects.equals(key, m_K1)) {
+                return 1;
+            }
+            if(Objects.equals(key, m_K2)) {
+                return 2;
+            }
+            return -1;
+        }
+
+        @Override
+        public int indexOfValue(Object value) {
+            if(Objects.equals(value, m_V0)) {
+                return 0;
+            }
+            if(Objects.equals(value, m_V1)) {
+                return 1;
+            }
+            if(Objects.equals(value, m_V2)) {
+                return 2;
+            }
+            return -1;
+        }
+    }
+
+    static final class Map4<K,V> extends CompactArrayMap<K,V> {
+        private final K m_K0;
+        private final K m_K1;
+        private final K m_K2;
+        private final K m_K3;
+        private final V m_V0;
+        private final V m_V1;
+        private final V m_V2;
+        private final V m_V3;
+
+        private static final long serialVersionUID = 7706195302231580402L;
+
+        Map4(K k0, V v0, K k1, V v1, K k2, V v2, K k3, V v3, boolean biMap) {
+            super(biMap);
+            this.m_K0 = k0;
+            this.m_V0 = v0;
+            this.m_K1 = k1;
+            this.m_V1 = v1;
+            this.m_K2 = k2;
+            this.m_V2 = v2;
+            this.m_K3 = k3;
+            this.m_V3 = v3;
+        }
+
+        @Override
+        public int size() {
+            return 4;
+        }
+
+        @Override
+        public K keyAt(int index) {
+            switch(index) {
+                case 0:
+                    return m_K0;
+                case 1:
+                    return m_K1;
+                case 2:
+                    return m_K2;
+                case 3:
+                    return m_K3;
+                default:
+                    throw new IndexOutOfBoundsException("index: " + index);
+            }
+        }
+
+        @Override
+        public V valueAt(int index) {
+            switch(index) {
+                case 0:
+                    return m_V0;
+                case 1:
+                    return m_V1;
+                case 2:
+                    return m_V2;
+                case 3:
+                    return m_V3;
+                default:
+                    throw new IndexOutOfBoundsException("index: " + index);
+            }
+        }
+
+        @Override
+        public int indexOfKey(Object key) {
+            if(Objects.equals(key, m_K0)) {
+                return 0;
+            }
+            if(Objects.equals(key, m_K1)) {
+                return 1;
+            }
+            if(Objects.equals(key, m_K2)) {
+                return 2;
+            }
+            if(Objects.equals(key, m_K3)) {
+                return 3;
+            }
+            return -1;
+        }
+
+        @Override
+        public int indexOfValue(Object value) {
+            if(Objects.equals(value, m_V0)) {
+                return 0;
+            }
+            if(Objects.equals(value, m_V1)) {
+                return 1;
+            }
+            if(Objects.equals(value, m_V2)) {
+                return 2;
+            }
+            if(Objects.equals(value, m_V3)) {
+                return 3;
+            }
+            return -1;
+        }
+    }
+
+    static final class Map5<K,V> extends CompactArrayMap<K,V> {
+        private final K m_K0;
+        private final K m_K1;
+        private final K m_K2;
+        private final K m_K3;
+        private final K m_K4;
+        private final V m_V0;
+        private final V m_V1;
+        private final V m_V2;
+        private final V m_V3;
+        private final V m_V4;
+
+        private static final long serialVersionUID = -2941617085330761776L;
+
+        Map5(K k0, V v0, K k1, V v1, K k2, V v2, K k3, V v3, K k4, V v4, boolean biMap) {
+            super(biMap);
+            this.m_K0 = k0;
+            this.m_V0 = v0;
+            this.m_K1 = k1;
+            this.m_V1 = v1;
+            this.m_K2 = k2;
+            this.m_V2 = v2;
+            this.m_K3 = k3;
+            this.m_V3 = v3;
+            this.m_K4 = k4;
+            this.m_V4 = v4;
+        }
+
+        @Override
+        public int size() {
+            return 5;
+        }
+
+        @Override
+        public K keyAt(int index) {
+            switch(index) {
+                case 0:
+                    return m_K0;
+                case 1:
+                    return m_K1;
+                case 2:
+                    return m_K2;
+                case 3:
+                    return m_K3;
+                case 4:
+                    return m_K4;
+                default:
+                    throw new IndexOutOfBoundsException("index: " + index);
+            }
+        }
+
+        @Override
+        public V valueAt(int index) {
+            switch(index) {
+                case 0:
+                    return m_V0;
+                case 1:
+                    return m_V1;
+                case 2:
+                    return m_V2;
+                case 3:
+                    return m_V3;
+                case 4:
+                    return m_V4;
+                default:
+                    throw new IndexOutOfBoundsException("index: " + index);
+            }
+        }
+
+        @Override
+        public int indexOfKey(Object key) {
+            if(Objects.equals(key, m_K0)) {
+                return 0;
+            }
+            if(Objects.equals(key, m_K1)) {
+                return 1;
+            }
+            if(Objects.equals(key, m_K2)) {
+                return 2;
+            }
+            if(Objects.equals(key, m_K3)) {
+                return 3;
+            }
+            if(Objects.equals(key, m_K4)) {
+                return 4;
+            }
+            return -1;
+        }
+
+        @Override
+        public int indexOfValue(Object value) {
+            if(Objects.equals(value, m_V0)) {
+                return 0;
+            }
+            if(Objects.equals(value, m_V1)) {
+                return 1;
+            }
+            if(Objects.equals(value, m_V2)) {
+                return 2;
+            }
+            if(Objects.equals(value, m_V3)) {
+                return 3;
+            }
+            if(Objects.equals(value, m_V4)) {
+                return 4;
+            }
+            return -1;
+        }
+    }
+
+    static final class Map6<K,V> extends CompactArrayMap<K,V> {
+        private final K m_K0;
+        private final K m_K1;
+        private final K m_K2;
+        private final K m_K3;
+        private final K m_K4;
+        private final K m_K5;
+        private final V m_V0;
+        private final V m_V1;
+        private final V m_V2;
+        private final V m_V3;
+        private final V m_V4;
+        private final V m_V5;
+
+        private static final long serialVersionUID = 3377146028410273150L;
+
+        Map6(K k0, V v0, K k1, V v1, K k2, V v2, K k3, V v3, K k4, V v4, K k5, V v5, boolean biMap) {
+            super(biMap);
+            this.m_K0 = k0;
+            this.m_V0 = v0;
+            this.m_K1 = k1;
+            this.m_V1 = v1;
+            this.m_K2 = k2;
+            this.m_V2 = v2;
+            this.m_K3 = k3;
+            this.m_V3 = v3;
+            this.m_K4 = k4;
+            this.m_V4 = v4;
+            this.m_K5 = k5;
+            this.m_V5 = v5;
+        }
+
+        @Override
+        public int size() {
+            return 6;
+        }
+
+        @Override
+        public K keyAt(int index) {
+            switch(index) {
+                case 0:
+                    return m_K0;
+                case 1:
+                    return m_K1;
+                case 2:
+                    return m_K2;
+                case 3:
+                    return m_K3;
+                case 4:
+                    return m_K4;
+                case 5:
+                    return m_K5;
+                default:
+                    throw new IndexOutOfBoundsException("index: " + index);
+            }
+        }
+
+        @Override
+        public V valueAt(int index) {
+            switch(index) {
+                case 0:
+                    return m_V0;
+                case 1:
+                    return m_V1;
+                case 2:
+                    return m_V2;
+                case 3:
+                    return m_V3;
+                case 4:
+                    return m_V4;
+                case 5:
+                    return m_V5;
+                default:
+                    throw new IndexOutOfBoundsException("index: " + index);
+            }
+        }
+
+        @Override
+        public int indexOfKey(Object key) {
+            if(Objects.equals(key, m_K0)) {
+                return 0;
+            }
+            if(Objects.equals(key, m_K1)) {
+                return 1;
+            }
+            if(Objects.equals(key, m_K2)) {
+                return 2;
+            }
+            if(Objects.equals(key, m_K3)) {
+                return 3;
+            }
+            if(Objects.equals(key, m_K4)) {
+                return 4;
+            }
+            if(Objects.equals(key, m_K5)) {
+                return 5;
+            }
+            return -1;
+        }
+
+        @Override
+        public int indexOfValue(Object value) {
+            if(Objects.equals(value, m_V0)) {
+                return 0;
+            }
+            if(Objects.equals(value, m_V1)) {
+                return 1;
+            }
+            if(Objects.equals(value, m_V2)) {
+                return 2;
+            }
+            if(Objects.equals(value, m_V3)) {
+                return 3;
+            }
+            if(Objects.equals(value, m_V4)) {
+                return 4;
+            }
+            if(Objects.equals(value, m_V5)) {
+                return 5;
+            }
+            return -1;
+        }
+    }
+
+    static final class Map7<K,V> extends CompactArrayMap<K,V> {
+        private final K m_K0;
+        private final K m_K1;
+        private final K m_K2;
+        private final K m_K3;
+        private final K m_K4;
+        private final K m_K5;
+        private final K m_K6;
+        private final V m_V0;
+        private final V m_V1;
+        private final V m_V2;
+        private final V m_V3;
+        private final V m_V4;
+        private final V m_V5;
+        private final V m_V6;
+
+        private static final long serialVersionUID = -8817425406011593764L;
+
+        Map7(K k0, V v0, K k1, V v1, K k2, V v2, K k3, V v3, K k4, V v4, K k5, V v5, K k6, V v6, boolean biMap) {
+            super(biMap);
+            this.m_K0 = k0;
+            this.m_V0 = v0;
+            this.m_K1 = k1;
+            this.m_V1 = v1;
+            this.m_K2 = k2;
+            this.m_V2 = v2;
+            this.m_K3 = k3;
+            this.m_V3 = v3;
+            this.m_K4 = k4;
+            this.m_V4 = v4;
+            this.m_K5 = k5;
+            this.m_V5 = v5;
+            this.m_K6 = k6;
+            this.m_V6 = v6;
+        }
+
+        @Override
+        public int size() {
+            return 7;
+        }
+
+        @Override
+        public K keyAt(int index) {
+            switch(index) {
+                case 0:
+                    return m_K0;
+                case 1:
+                    return m_K1;
+                case 2:
+                    return m_K2;
+                case 3:
+                    return m_K3;
+                case 4:
+                    return m_K4;
+                case 5:
+                    return m_K5;
+                case 6:
+                    return m_K6;
+                default:
+                    throw new IndexOutOfBoundsException("index: " + index);
+            }
+        }
+
+        @Override
+        public V valueAt(int index) {
+            switch(index) {
+                case 0:
+                    return m_V0;
+                case 1:
+                    return m_V1;
+                case 2:
+                    return m_V2;
+                case 3:
+                    return m_V3;
+                case 4:
+                    return m_V4;
+                case 5:
+                    return m_V5;
+                case 6:
+                    return m_V6;
+                default:
+                    throw new IndexOutOfBoundsException("index: " + index);
+            }
+        }
+
+        @Override
+        public int indexOfKey(Object key) {
+            if(Objects.equals(key, m_K0)) {
+                return 0;
+            }
+            if(Objects.equals(key, m_K1)) {
+                return 1;
+            }
+            if(Objects.equals(key, m_K2)) {
+                return 2;
+            }
+            if(Objects.equals(key, m_K3)) {
+                return 3;
+            }
+            if(Objects.equals(key, m_K4)) {
+                return 4;
+            }
+            if(Objects.equals(key, m_K5)) {
+                return 5;
+            }
+            if(Objects.equals(key, m_K6)) {
+                return 6;
+            }
+            return -1;
+        }
+
+        @Override
+        public int indexOfValue(Object value) {
+            if(Objects.equals(value, m_V0)) {
+                return 0;
+            }
+            if(Objects.equals(value, m_V1)) {
+                return 1;
+            }
+            if(Objects.equals(value, m_V2)) {
+                return 2;
+            }
+            if(Objects.equals(value, m_V3)) {
+                return 3;
+            }
+            if(Objects.equals(value, m_V4)) {
+                return 4;
+            }
+            if(Objects.equals(value, m_V5)) {
+                return 5;
+            }
+            if(Objects.equals(value, m_V6)) {
+                return 6;
+            }
+            return -1;
+        }
+    }
+
+    static final class Map8<K,V> extends CompactArrayMap<K,V> {
+        private final K m_K0;
+        private final K m_K1;
+        private final K m_K2;
+        private final K m_K3;
+        private final K m_K4;
+        private final K m_K5;
+        private final K m_K6;
+        private final K m_K7;
+        private final V m_V0;
+        private final V m_V1;
+        private final V m_V2;
+        private final V m_V3;
+        private final V m_V4;
+        private final V m_V5;
+        private final V m_V6;
+        private final V m_V7;
+
+        private static final long serialVersionUID = 1068837714322560955L;
+
+        Map8(K k0, V v0, K k1, V v1, K k2, V v2, K k3, V v3, K k4, V v4, K k5, V v5, K k6, V v6, K k7, V v7, boolean biMap) {
+            super(biMap);
+            this.m_K0 = k0;
+            this.m_V0 = v0;
+            this.m_K1 = k1;
+            this.m_V1 = v1;
+            this.m_K2 = k2;
+            this.m_V2 = v2;
+            this.m_K3 = k3;
+            this.m_V3 = v3;
+            this.m_K4 = k4;
+            this.m_V4 = v4;
+            this.m_K5 = k5;
+            this.m_V5 = v5;
+            this.m_K6 = k6;
+            this.m_V6 = v6;
+            this.m_K7 = k7;
+            this.m_V7 = v7;
+        }
+
+        @Override
+        public int size() {
+            return 8;
+        }
+
+        @Override
+        public K keyAt(int index) {
+            switch(index) {
+                case 0:
+                    return m_K0;
+                case 1:
+                    return m_K1;
+                case 2:
+                    return m_K2;
+                case 3:
+                    return m_K3;
+                case 4:
+                    return m_K4;
+                case 5:
+                    return m_K5;
+                case 6:
+                    return m_K6;
+                case 7:
+                    return m_K7;
+                default:
+                    throw new IndexOutOfBoundsException("index: " + index);
+            }
+        }
+
+        @Override
+        public V valueAt(int index) {
+            switch(index) {
+                case 0:
+                    return m_V0;
+                case 1:
+                    return m_V1;
+                case 2:
+                    return m_V2;
+                case 3:
+                    return m_V3;
+                case 4:
+                    return m_V4;
+                case 5:
+                    return m_V5;
+                case 6:
+                    return m_V6;
+                case 7:
+                    return m_V7;
+                default:
+                    throw new IndexOutOfBoundsException("index: " + index);
+            }
+        }
+
+        @Override
+        public int indexOfKey(Object key) {
+            if(Objects.equals(key, m_K0)) {
+                return 0;
+            }
+            if(Objects.equals(key, m_K1)) {
+                return 1;
+            }
+            if(Objects.equals(key, m_K2)) {
+                return 2;
+            }
+            if(Objects.equals(key, m_K3)) {
+                return 3;
+            }
+            if(Objects.equals(key, m_K4)) {
+                return 4;
+            }
+            if(Objects.equals(key, m_K5)) {
+                return 5;
+            }
+            if(Objects.equals(key, m_K6)) {
+                return 6;
+            }
+            if(Objects.equals(key, m_K7)) {
+                return 7;
+            }
+            return -1;
+        }
+
+        @Override
+        public int indexOfValue(Object value) {
+            if(Objects.equals(value, m_V0)) {
+                return 0;
+            }
+            if(Objects.equals(value, m_V1)) {
+                return 1;
+            }
+            if(Objects.equals(value, m_V2)) {
+                return 2;
+            }
+            if(Objects.equals(value, m_V3)) {
+                return 3;
+            }
+            if(Objects.equals(value, m_V4)) {
+                return 4;
+            }
+            if(Objects.equals(value, m_V5)) {
+                return 5;
+            }
+            if(Objects.equals(value, m_V6)) {
+                return 6;
+            }
+            if(Objects.equals(value, m_V7)) {
+                return 7;
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,760 @@
+package net.njcull.collections;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Compact {@link ArrayBackedSet} implementations for small sets, holding
+ * their elements in fields rather than in a backing array. There is one
+ * implementation for each size from one to {@link #MAX_SIZE} elements.
+ * <p>
+ * Without the backing array, each set occupies a single object, and lookups
+ * are unrolled comparisons against each element in turn.
+ * </p>
+ *
+ * @param <E> the type of elements maintained by this set and backing list
+ * @author run2000
+ * @version 19/10/2026.
+ */
+abstract class CompactArraySet<E> extends AbstractSet<E>
+        implements ArrayBackedSet<E>, Serializable {
+
+    /**
+     * The largest number of elements held by a compact set.
+     */
+    static final int MAX_SIZE = 8;
+
+    // Serializable
+    private static final long serialVersionUID = 2871624907391265330L;
+
+    CompactArraySet() {
+    }
+
+    /**
+     * Create a compact set containing the given elements, in order.
+     * Duplicate elements are removed, retaining the first of them. Empty
+     * sets are returned as the empty {@link ImmutableArraySet}.
+     *
+     * @param elements the array containing the elements of the set
+     * @param size the number of elements, no more than {@link #MAX_SIZE}
+     * @param <E> the type of elements maintained by the set
+     * @return a compact set containing the given elements
+     */
+    @SuppressWarnings("unchecked")
+    static <E> ArrayBackedSet<E> of(Object[] elements, int size) {
+        if((size < 0) || (size > MAX_SIZE)) {
+            throw new IllegalArgumentException("size: " + size);
+        }
+        Object[] e = new Object[size];
+        int count = 0;
+
+        for(int i = 0; i < size; i++) {
+            Object o = elements[i];
+            boolean dup = false;
+            for(int j = 0; j < count; j++) {
+                if(Objects.equals(o, e[j])) {
+                    dup = true;
+                    break;
+                }
+            }
+            if(!dup) {
+                e[count++] = o;
+            }
+        }
+
+        switch(count) {
+            case 0:
+                return ImmutableArraySet.emptySet();
+            case 1:
+                return new Set1<>((E) e[0]);
+            case 2:
+                return new Set2<>((E) e[0], (E) e[1]);
+            case 3:
+                return new Set3<>((E) e[0], (E) e[1], (E) e[2]);
+            case 4:
+                return new Set4<>((E) e[0], (E) e[1], (E) e[2], (E) e[3]);
+            case 5:
+                return new Set5<>((E) e[0], (E) e[1], (E) e[2], (E) e[3], (E) e[4]);
+            case 6:
+                return new Set6<>((E) e[0], (E) e[1], (E) e[2], (E) e[3], (E) e[4], (E) e[5]);
+            case 7:
+                return new Set7<>((E) e[0], (E) e[1], (E) e[2], (E) e[3], (E) e[4], (E) e[5], (E) e[6]);
+            case 8:
+                return new Set8<>((E) e[0], (E) e[1], (E) e[2], (E) e[3], (E) e[4], (E) e[5], (E) e[6], (E) e[7]);
+            default:
+                throw new AssertionError();
+        }
+    }
+
+    /**
+     * Adds all of the elements in the specified collection to this set.
+     *
+     * @param c collection containing elements to be added to this set
+     * @return {@code false} this set is not changed as a result of the call
+     * @throws UnsupportedOperationException the {@code addAll} operation
+     *         is not supported by this set
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        if(!c.isEmpty()) {
+            throw new UnsupportedOperationException("No adding");
+        }
+        return false;
+    }
+
+    /**
+     * Retains only the elements in this set that are contained in the
+     * specified collection (optional operation).
+     *
+     * @param  c collection containing elements to be retained in this set
+     * @return {@code false} this set is not changed as a result of the call
+     * @throws UnsupportedOperationException the retainAll operation
+     *         is not supported by this set
+     */
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        final int size = size();
+        for(int i = 0; i < size; i++) {
+            if(!c.contains(getAtIndex(i))) {
+                throw new UnsupportedOperationException("No removals");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes from this set all of its elements that are contained in the
+     * specified collection (optional operation).
+     *
+     * @param  c collection containing elements to be removed from this set
+     * @return {@code false} this set is not changed as a result of the call
+     * @throws UnsupportedOperationException the {@code removeAll} operation
+     *         is not supported by this set
+     */
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        if(!c.isEmpty()) {
+            final int size = size();
+            for(int i = 0; i < size; i++) {
+                if(c.contains(getAtIndex(i))) {
+                    throw new UnsupportedOperationException("No removals");
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all of the elements of this set that satisfy the given
+     * predicate.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be
+     *        removed
+     * @return {@code false} no elements were removed
+     * @throws NullPointerException if the specified filter is null
+     * @throws UnsupportedOperationException elements cannot be removed
+     *         from this set.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        Objects.requireNonNull(filter);
+
+        for (int i = size() - 1; i >= 0; i--) {
+            if (filter.test(getAtIndex(i))) {
+                throw new UnsupportedOperationException("No removals");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all of the elements from this set (optional operation).
+     *
+     * @throws UnsupportedOperationException the {@code clear} method
+     *         is not supported by this set
+     */
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("No removals");
+    }
+
+    /**
+     * Returns {@code true} if this set contains the specified element.
+     *
+     * @param element the element whose presence in this set is to be tested
+     * @return {@code true} if this set contains the specified element,
+     * otherwise {@code false}
+     */
+    @Override
+    public boolean contains(Object element) {
+        return indexOf(element) >= 0;
+    }
+
+    /**
+     * Determine the index of the given element, if it exists in this
+     * set.
+     *
+     * @param element the element to be found
+     * @return a zero or positive integer if the element is in the
+     * set, otherwise less than zero to indicate its absence
+     */
+    @Override
+    public abstract int indexOf(Object element);
+
+    /**
+     * Returns {@code true} if this set contains no elements. Compact sets
+     * always contain at least one element.
+     *
+     * @return {@code false}, since this set contains at least one element
+     */
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    /**
+     * Returns an iterator over the elements contained in this set.
+     * The elements are returned in the order in which they were added.
+     *
+     * @return an iterator over the elements contained in this set
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new ArrayBackedCollectionIterator<>(this);
+    }
+
+    /**
+     * Returns an array containing all of the elements in this set, in the
+     * same order as the {@code getAtIndex(int)} method.
+     *
+     * @return an array containing all the elements in this set
+     */
+    @Override
+    public Object[] toArray() {
+        return ArrayBackedCollection.toArray(this);
+    }
+
+    /**
+     * Returns an array containing all of the elements in this set, in the
+     * same order as the {@code getAtIndex(int)} method; the runtime type of
+     * the returned array is that of the specified array.
+     *
+     * @param a the array into which the elements of this set are to be
+     *        stored, if it is big enough; otherwise, a new array of the same
+     *        runtime type is allocated for this purpose.
+     * @return an array containing all the elements in this set
+     * @throws ArrayStoreException if the runtime type of the specified array
+     *         is not a supertype of the runtime type of every element in this
+     *         set
+     * @throws NullPointerException if the specified array is null
+     */
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return ArrayBackedCollection.toArray(this, a);
+    }
+
+    /**
+     * Returns a string representation of this set, with elements in the
+     * order they are returned by its {@code getAtIndex(int)} method.
+     *
+     * @return a string representation of this set
+     */
+    @Override
+    public String toString() {
+        return ArrayBackedCollection.toString(this);
+    }
+
+    /**
+     * Returns the hash code value for this set, being the sum of the hash
+     * codes of the elements in the set.
+     *
+     * @return the hash code value for this set
+     */
+    @Override
+    public int hashCode() {
+        return ArrayBackedSet.hashCode(this);
+    }
+
+    /**
+     * Creates a {@code Spliterator} over the elements in this set.
+     *
+     * <p>The {@code Spliterator} reports {@code Spliterator.DISTINCT},
+     * {@code Spliterator.ORDERED}, {@code Spliterator.IMMUTABLE},
+     * {@code Spliterator.SIZED}, and {@code Spliterator.SUBSIZED}.
+     *
+     * @return a {@code Spliterator} over the elements in this set
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new ImmutableIndexerSpliterator<E>(this::getAtIndex, size(), Spliterator.DISTINCT);
+    }
+
+    /**
+     * Return a backing list view for this set.
+     *
+     * @return a list view containing all the elements of this {@code Set}
+     */
+    @Override
+    public List<E> asList() {
+        return Views.listView(this);
+    }
+
+    static final class Set1<E> extends CompactArraySet<E> {
+        private final E m_E0;
+
+        private static final long serialVersionUID = 5119287445034873716L;
+
+        Set1(E e0) {
+            this.m_E0 = e0;
+        }
+
+        @Override
+        public int size() {
+            return 1;
+        }
+
+        @Override
+        public E getAtIndex(int index) {
+            if(index != 0) {
+                throw new IndexOutOfBoundsException("index: " + index);
+            }
+            return m_E0;
+        }
+
+        @Override
+        public int indexOf(Object element) {
+            if(Objects.equals(element, m_E0)) {
+                return 0;
+            }
+            return -1;
+        }
+    }
+
+    static final class Set2<E> extends CompactArraySet<E> {
+        private final E m_E0;
+        private final E m_E1;
+
+        private static final long serialVersionUID = -7436240934511781509L;
+
+        Set2(E e0, E e1) {
+            this.m_E0 = e0;
+            this.m_E1 = e1;
+        }
+
+        @Override
+        public int size() {
+            return 2;
+        }
+
+        @Override
+        public E getAtIndex(int index) {
+            switch(index) {
+                case 0:
+                    return m_E0;
+                case 1:
+                    return m_E1;
+                default:
+                    throw new IndexOutOfBoundsException("index: " + index);
+            }
+        }
+
+        @Override
+        public int indexOf(Object element) {
+            if(Objects.equals(element, m_E0)) {
+                return 0;
+            }
+            if(Objects.equals(element, m_E1)) {
+                return 1;
+            }
+            return -1;
+        }
+    }
+
+    static final class Set3<E> extends CompactArraySet<E> {
+        private final E m_E0;
+        private final E m_E1;
+        private final E m_E2;
+
+        private static final long serialVersionUID = 1651019372842357830L;
+
+        Set3(E e0, E e1, E e2) {
+            this.m_E0 = e0;
+            this.m_E1 = e1;
+            this.m_E2 = e2;
+        }
+
+        @Override
+        public int size() {
+            return 3;
+        }
+
+        @Override
+        public E getAtIndex(int index) {
+            switch(index) {
+                case 0:
+                    return m_E0;
+                case 1:
+                    return m_E1;
+                case 2:
+                    return m_E2;
+                default:
+                    throw new IndexOutOfBoundsException("index: " + index);
+            }
+        }
+
+        @Override
+        public int indexOf(Object element) {
+            if(Objects.equals(element, m_E0)) {
+                return 0;
+            }
+            if(Objects.equals(element, m_E1)) {
+                return 1;
+            }
+            if(Objects.equals(element, m_E2)) {
+                return 2;
+            }
+            return -1;
+        }
+    }
+
+    static final class Set4<E> extends CompactArraySet<E> {
+        private final E m_E0;
+        private final E m_E1;
+        private final E m_E2;
+        private final E m_E3;
+
+        private static final long serialVersionUID = -4071928874630125657L;
+
+        Set4(E e0, E e1, E e2, E e3) {
+            this.m_E0 = e0;
+            this.m_E1 = e1;
+            this.m_E2 = e2;
+            this.m_E3 = e3;
+        }
+
+        @Override
+        public int size() {
+            return 4;
+        }
+
+        @Override
+        public E getAtIndex(int index) {
+            switch(index) {
+                case 0:
+                    return m_E0;
+                case 1:
+                    return m_E1;
+                case 2:
+                    return m_E2;
+                case 3:
+                    return m_E3;
+                default:
+                    throw new IndexOutOfBoundsException("index: " + index);
+            }
+        }
+
+        @Override
+        public int indexOf(Object element) {
+            if(Objects.equals(element, m_E0)) {
+                return 0;
+            }
+            if(Objects.equals(element, m_E1)) {
+                return 1;
+            }
+            if(Objects.equals(element, m_E2)) {
+                return 2;
+            }
+            if(Objects.equals(element, m_E3)) {
+                return 3;
+            }
+            return -1;
+        }
+    }
+
+    static final class Set5<E> extends CompactArraySet<E> {
+        private final E m_E0;
+        private final E m_E1;
+        private final E m_E2;
+        private final E m_E3;
+        private final E m_E4;
+
+        private static final long serialVersionUID = 8526601399134517032L;
+
+        Set5(E e0, E e1, E e2, E e3, E e4) {
+            this.m_E0 = e0;
+            this.m_E1 = e1;
+            this.m_E2 = e2;
+            this.m_E3 = e3;
+            this.m_E4 = e4;
+        }
+
+        @Override
+        public int size() {
+            return 5;
+        }
+
+        @Override
+        public E getAtIndex(int index) {
+            switch(index) {
+                case 0:
+                    return m_E0;
+                case 1:
+                    return m_E1;
+                case 2:
+                    return m_E2;
+                case 3:
+                    return m_E3;
+                case 4:
+                    return m_E4;
+                default:
+                    throw new IndexOutOfBoundsException("index: " + index);
+            }
+        }
+
+        @Override
+        public int indexOf(Object element) {
+            if(Objects.equals(element, m_E0)) {
+                return 0;
+            }
+            if(Objects.equals(element, m_E1)) {
+                return 1;
+            }
+            if(Objects.equals(element, m_E2)) {
+                return 2;
+            }
+            if(Objects.equals(element, m_E3)) {
+                return 3;
+            }
+            if(Objects.equals(element, m_E4)) {
+                return 4;
+            }
+            return -1;
+        }
+    }
+
+    static final class Set6<E> extends CompactArraySet<E> {
+        private final E m_E0;
+        private final E m_E1;
+        private final E m_E2;
+        private final E m_E3;
+        private final E m_E4;
+        private final E m_E5;
+
+        private static final long serialVersionUID = -2233984411096724591L;
+
+        Set6(E e0, E e1, E e2, E e3, E e4, E e5) {
+            this.m_E0 = e0;
+            this.m_E1 = e1;
+            this.m_E2 = e2;
+            this.m_E3 = e3;
+            this.m_E4 = e4;
+            this.m_E5 = e5;
+        }
+
+        @Override
+        public int size() {
+            return 6;
+        }
+
+        @Override
+        public E getAtIndex(int index) {
+            switch(index) {
+                case 0:
+                    return m_E0;
+                case 1:
+                    return m_E1;
+                case 2:
+                    return m_E2;
+                case 3:
+                    return m_E3;
+                case 4:
+                    return m_E4;
+                case 5:
+                    return m_E5;
+                default:
+                    throw new IndexOutOfBoundsException("index: " + index);
+            }
+        }
+
+        @Override
+        public int indexOf(Object element) {
+            if(Objects.equals(element, m_E0)) {
+                return 0;
+            }
+            if(Objects.equals(element, m_E1)) {
+                return 1;
+            }
+            if(Objects.equals(element, m_E2)) {
+                return 2;
+            }
+            if(Objects.equals(element, m_E3)) {
+                return 3;
+            }
+            if(Objects.equals(element, m_E4)) {
+                return 4;
+            }
+            if(Objects.equals(element, m_E5)) {
+                return 5;
+            }
+            return -1;
+        }
+    }
+
+    static final class Set7<E> extends CompactArraySet<E> {
+        private final E m_E0;
+        private final E m_E1;
+        private final E m_E2;
+        private final E m_E3;
+        private final E m_E4;
+        private final E m_E5;
+        private final E m_E6;
+
+        private static final long serialVersionUID = 6042178815593810427L;
+
+        Set7(E e0, E e1, E e2, E e3, E e4, E e5, E e6) {
+            this.m_E0 = e0;
+            this.m_E1 = e1;
+            this.m_E2 = e2;
+            this.m_E3 = e3;
+            this.m_E4 = e4;
+            this.m_E5 = e5;
+            this.m_E6 = e6;
+        }
+
+        @Override
+        public int size() {
+            return 7;
+        }
+
+        @Override
+        public E getAtIndex(int index) {
+            switch(index) {
+                case 0:
+                    return m_E0;
+                case 1:
+                    return m_E1;
+                case 2:
+                    return m_E2;
+                case 3:
+                    return m_E3;
+                case 4:
+                    return m_E4;
+                case 5:
+                    return m_E5;
+                case 6:
+                    return m_E6;
+                default:
+                    throw new IndexOutOfBoundsException("index: " + index);
+            }
+        }
+
+        @Override
+        public int indexOf(Object element) {
+            if(Objects.equals(element, m_E0)) {
+                return 0;
+            }
+            if(Objects.equals(element, m_E1)) {
+                return 1;
+            }
+            if(Objects.equals(element, m_E2)) {
+                return 2;
+            }
+            if(Objects.equals(element, m_E3)) {
+                return 3;
+            }
+            if(Objects.equals(element, m_E4)) {
+                return 4;
+            }
+            if(Objects.equals(element, m_E5)) {
+                return 5;
+            }
+            if(Objects.equals(element, m_E6)) {
+                return 6;
+            }
+            return -1;
+        }
+    }
+
+    static final class Set8<E> extends CompactArraySet<E> {
+        private final E m_E0;
+        private final E m_E1;
+        private final E m_E2;
+        private final E m_E3;
+        private final E m_E4;
+        private final E m_E5;
+        private final E m_E6;
+        private final E m_E7;
+
+        private static final long serialVersionUID = -957411360729438826L;
+
+        Set8(E e0, E e1, E e2, E e3, E e4, E e5, E e6, E e7) {
+            this.m_E0 = e0;
+            this.m_E1 = e1;
+            this.m_E2 = e2;
+            this.m_E3 = e3;
+            this.m_E4 = e4;
+            this.m_E5 = e5;
+            this.m_E6 = e6;
+            this.m_E7 = e7;
+        }
+
+        @Override
+        public int size() {
+            return 8;
+        }
+
+        @Override
+        public E getAtIndex(int index) {
+            switch(index) {
+                case 0:
+                    return m_E0;
+                case 1:
+                    return m_E1;
+                case 2:
+                    return m_E2;
+                case 3:
+                    return m_E3;
+                case 4:
+                    return m_E4;
+                case 5:
+                    return m_E5;
+                case 6:
+                    return m_E6;
+                case 7:
+                    return m_E7;
+                default:
+                    throw new IndexOutOfBoundsException("index: " + index);
+            }
+        }
+
+        @Override
+        public int indexOf(Object element) {
+            if(Objects.equals(element, m_E0)) {
+                return 0;
+            }
+            if(Objects.equals(element, m_E1)) {
+                return 1;
+            }
+            if(Objects.equals(element, m_E2)) {
+                return 2;
+            }
+            if(Objects.equals(element, m_E3)) {
+                return 3;
+            }
+            if(Objects.equals(element, m_E4)) {
+                return 4;
+            }
+            if(Objects.equals(element, m_E5)) {
+                return 5;
+            }
+            if(Objects.equals(element, m_E6)) {
+                return 6;
+            }
+            if(Objects.equals(element, m_E7)) {
+                return 7;
+            }
+            return -1;
+        }
+    }
+}
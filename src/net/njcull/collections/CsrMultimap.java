@@ -0,0 +1,433 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Base class for immutable multimaps in compressed sparse row layout. Keys
+ * are held in a single sorted array. The values of all keys are held
+ * together in a single array, in key order, and an array of offsets marks
+ * the start of the values of each key, with a final offset marking the end
+ * of the values of the last key.
+ * <p>
+ * Every key has at least one value. The values of a key are presented as
+ * a view over its range of the value array, without copying.
+ * </p>
+ *
+ * @param <K> the type of keys maintained by this multimap
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+abstract class CsrMultimap<K,V> implements Serializable {
+
+    final Object[] m_Keys;
+    final int[] m_Offsets;
+    final Object[] m_Values;
+    private final Comparator<? super K> m_KeyComparator;
+    transient Comparator m_NullsKeyComparator;
+
+    // Serialization
+    private static final long serialVersionUID = 4412809926185264087L;
+
+    @SuppressWarnings("unchecked")
+    private static final Comparator<Comparable> naturalOrder = Comparator.nullsFirst(Comparator.<Comparable>naturalOrder());
+
+    CsrMultimap(Object[] keys, int[] offsets, Object[] values, Comparator<? super K> keyComparator) {
+        this.m_Keys = Objects.requireNonNull(keys, "keys must not be null");
+        this.m_Offsets = Objects.requireNonNull(offsets, "offsets must not be null");
+        this.m_Values = Objects.requireNonNull(values, "values must not be null");
+        if(offsets.length != keys.length + 1) {
+            throw new IllegalArgumentException("offsets must be one more than the number of keys");
+        }
+        if((offsets[0] != 0) || (offsets[keys.length] != values.length)) {
+            throw new IllegalArgumentException("offsets must span the values");
+        }
+        this.m_KeyComparator = keyComparator;
+        this.m_NullsKeyComparator = nullsComparator(keyComparator);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Comparator nullsComparator(Comparator<?> comparator) {
+        return (comparator == null) ? naturalOrder : Comparator.nullsFirst(comparator);
+    }
+
+    /**
+     * Returns the number of key-value pairs in this multimap.
+     *
+     * @return the number of key-value pairs in this multimap
+     */
+    public int size() {
+        return m_Values.length;
+    }
+
+    /**
+     * Returns the number of distinct keys in this multimap.
+     *
+     * @return the number of distinct keys in this multimap
+     */
+    public int keyCount() {
+        return m_Keys.length;
+    }
+
+    /**
+     * Returns {@code true} if this multimap contains no key-value pairs.
+     *
+     * @return {@code true} if this multimap contains no key-value pairs
+     */
+    public boolean isEmpty() {
+        return m_Values.length == 0;
+    }
+
+    /**
+     * Returns the comparator used to order the keys in this multimap, or
+     * {@code null} if this multimap uses the natural ordering of its keys.
+     *
+     * @return the comparator used to order the keys in this multimap, or
+     * {@code null} for natural ordering
+     */
+    public Comparator<? super K> comparator() {
+        return m_KeyComparator;
+    }
+
+    /**
+     * Returns the index of the given key, using a binary search.
+     *
+     * @param key the key to be found
+     * @return the index of the key, otherwise {@code -1} if the key is
+     * not present
+     */
+    @SuppressWarnings("unchecked")
+    public int indexOfKey(Object key) {
+        final int idx = BinarySearchUtils.indexedSearch(this::keyAt, m_Keys.length, (K) key, m_NullsKeyComparator);
+        return (idx >= 0) ? idx : -1;
+    }
+
+    /**
+     * Returns {@code true} if this multimap contains at least one value for
+     * the given key. This operation requires time log(n) in the number of
+     * keys.
+     *
+     * @param key the key whose presence is to be tested
+     * @return {@code true} if the key is present, otherwise {@code false}
+     */
+    public boolean containsKey(Object key) {
+        return indexOfKey(key) >= 0;
+    }
+
+    /**
+     * Returns {@code true} if this multimap contains the given value for any
+     * key. This operation requires time linear in the number of values.
+     *
+     * @param value the value whose presence is to be tested
+     * @return {@code true} if the value is present, otherwise {@code false}
+     */
+    public boolean containsValue(Object value) {
+        for(Object v : m_Values) {
+            if(Objects.equals(value, v)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns {@code true} if this multimap contains the given key-value
+     * pair.
+     *
+     * @param key the key of the pair to be found
+     * @param value the value of the pair to be found
+     * @return {@code true} if the pair is present, otherwise {@code false}
+     */
+    public boolean containsEntry(Object key, Object value) {
+        final int idx = indexOfKey(key);
+        return (idx >= 0) && (indexOfValueAt(idx, value) >= 0);
+    }
+
+    /**
+     * Returns the position of the given value among the values of the key
+     * at the given index, or less than zero if the value is not present.
+     */
+    int indexOfValueAt(int keyIndex, Object value) {
+        final int start = m_Offsets[keyIndex];
+        final int end = m_Offsets[keyIndex + 1];
+        for(int i = start; i < end; i++) {
+            if(Objects.equals(value, m_Values[i])) {
+                return i - start;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the key at the given index.
+     *
+     * @param index the index of the key
+     * @return the key at the given index
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * greater than or equal to the number of keys
+     */
+    @SuppressWarnings("unchecked")
+    public K keyAt(int index) {
+        if((index < 0) || (index >= m_Keys.length)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return (K) m_Keys[index];
+    }
+
+    /**
+     * Returns the number of values of the key at the given index.
+     *
+     * @param index the index of the key
+     * @return the number of values of the key
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * greater than or equal to the number of keys
+     */
+    public int valueCountAt(int index) {
+        if((index < 0) || (index >= m_Keys.length)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return m_Offsets[index + 1] - m_Offsets[index];
+    }
+
+    /**
+     * Returns the values of the key at the given index, as a view over the
+     * value array.
+     *
+     * @param index the index of the key
+     * @return a view of the values of the key
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * greater than or equal to the number of keys
+     */
+    public abstract ArrayBackedCollection<V> valuesAt(int index);
+
+    /**
+     * Returns the values mapped to the given key, as a view over the value
+     * array. If the key is not present, the view is empty.
+     *
+     * @param key the key whose values are to be returned
+     * @return a view of the values of the key
+     */
+    public abstract ArrayBackedCollection<V> get(Object key);
+
+    /**
+     * Returns a list view over a range of the value array.
+     */
+    final ArrayBackedImmutableList<V> slice(int keyIndex, int flags, Comparator<? super V> comparator) {
+        final int start = m_Offsets[keyIndex];
+        final int size = m_Offsets[keyIndex + 1] - start;
+        return new ArrayBackedImmutableList<>(new ArrayIndexer<>(m_Values, start), size, flags, comparator);
+    }
+
+    /**
+     * Returns an {@link ArrayBackedSet} view of the distinct keys of this
+     * multimap, in key order.
+     *
+     * @return an array-backed set view of the keys of this multimap
+     */
+    public ArrayBackedSet<K> keySet() {
+        return Views.setView(
+                new ArrayBackedImmutableList<>(new ArrayIndexer<>(m_Keys, 0), m_Keys.length,
+                        Spliterator.DISTINCT | Spliterator.SORTED, m_KeyComparator));
+    }
+
+    /**
+     * Returns an {@link ArrayBackedCollection} view of every value in this
+     * multimap, in key order.
+     *
+     * @return an array-backed collection view of the values of this multimap
+     */
+    public ArrayBackedCollection<V> values() {
+        return Views.collectionView(
+                new ArrayBackedImmutableList<>(new ArrayIndexer<>(m_Values, 0), m_Values.length));
+    }
+
+    /**
+     * Performs the given action for each key-value pair in this multimap,
+     * in key order, until all pairs have been processed or the action throws
+     * an exception.
+     *
+     * @param action The action to be performed for each key-value pair
+     * @throws NullPointerException if the specified action is null
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        for(int k = 0; k < m_Keys.length; k++) {
+            final K key = (K) m_Keys[k];
+            for(int i = m_Offsets[k]; i < m_Offsets[k + 1]; i++) {
+                action.accept(key, (V) m_Values[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if the values of the key at the given index
+     * equal the values of the key at the other index of the other multimap,
+     * which is of the same class.
+     */
+    abstract boolean valuesEqual(int keyIndex, CsrMultimap<?,?> other, int otherIndex);
+
+    /**
+     * Returns the hash code of the values of the key at the given index,
+     * as a collection.
+     */
+    abstract int valuesHashCode(int keyIndex);
+
+    /**
+     * Compares the specified object with this multimap for equality.
+     * Multimaps of the same class are equal if they map equal keys to equal
+     * values.
+     *
+     * @param o object to be compared for equality with this multimap
+     * @return {@code true} if the specified object is equal to this multimap
+     */
+    @Override
+    public boolean equals(Object o) {
+        if(o == this) {
+            return true;
+        }
+        if((o == null) || (o.getClass() != getClass())) {
+            return false;
+        }
+        final CsrMultimap<?,?> other = (CsrMultimap<?,?>) o;
+        if((other.m_Keys.length != m_Keys.length) || (other.m_Values.length != m_Values.length)) {
+            return false;
+        }
+        try {
+            for(int k = 0; k < m_Keys.length; k++) {
+                final int otherIndex = other.indexOfKey(m_Keys[k]);
+                if((otherIndex < 0) || !valuesEqual(k, other, otherIndex)) {
+                    return false;
+                }
+            }
+        } catch (ClassCastException | NullPointerException unused) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this multimap, being the sum over
+     * each key of the hash code of the key, exclusive-or the hash code of
+     * its values.
+     *
+     * @return the hash code value for this multimap
+     */
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for(int k = 0; k < m_Keys.length; k++) {
+            h += Objects.hashCode(m_Keys[k]) ^ valuesHashCode(k);
+        }
+        return h;
+    }
+
+    /**
+     * Returns a string representation of this multimap, with each key
+     * followed by its values in square brackets.
+     *
+     * @return a string representation of this multimap
+     */
+    @Override
+    public String toString() {
+        if(m_Keys.length == 0) {
+            return "{}";
+        }
+        final StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        for(int k = 0; k < m_Keys.length; k++) {
+            if(k > 0) {
+                sb.append(',').append(' ');
+            }
+            sb.append(m_Keys[k]).append('=').append('[');
+            for(int i = m_Offsets[k]; i < m_Offsets[k + 1]; i++) {
+                if(i > m_Offsets[k]) {
+                    sb.append(',').append(' ');
+                }
+                sb.append(m_Values[i]);
+            }
+            sb.append(']');
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @param stream the object stream to be deserialized
+     * @throws ClassNotFoundException the class or descendants could not be found
+     * @throws IOException there was a problem reading the object stream
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream stream) throws ClassNotFoundException, IOException {
+        stream.defaultReadObject();
+
+        // Perform validation
+        if((m_Keys == null) || (m_Offsets == null) || (m_Values == null)) {
+            throw new InvalidObjectException("multimap must have keys, offsets, and values");
+        }
+        if(m_Offsets.length != m_Keys.length + 1) {
+            throw new InvalidObjectException("offsets must be one more than the number of keys");
+        }
+        if((m_Offsets[0] != 0) || (m_Offsets[m_Keys.length] != m_Values.length)) {
+            throw new InvalidObjectException("offsets must span the values");
+        }
+        for(int k = 0; k < m_Keys.length; k++) {
+            if(m_Offsets[k] >= m_Offsets[k + 1]) {
+                throw new InvalidObjectException("every key must have a value");
+            }
+        }
+
+        // Regenerate the nulls comparator
+        m_NullsKeyComparator = nullsComparator(m_KeyComparator);
+
+        // Scan keys to ensure ordering is consistent, using the key comparator
+        for(int k = 1; k < m_Keys.length; k++) {
+            if(m_NullsKeyComparator.compare(m_Keys[k], m_Keys[k - 1]) <= 0) {
+                throw new InvalidObjectException("multimap keys not ordered by the comparator");
+            }
+        }
+    }
+
+    /**
+     * Indexes a range of an array, starting at the given offset.
+     */
+    private static final class ArrayIndexer<E> implements IntFunction<E>, Serializable {
+        private final Object[] m_Array;
+        private final int m_Offset;
+
+        // Serialization
+        private static final long serialVersionUID = -2419716306412930184L;
+
+        ArrayIndexer(Object[] array, int offset) {
+            this.m_Array = array;
+            this.m_Offset = offset;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public E apply(int idx) {
+            return (E) m_Array[m_Offset + idx];
+        }
+
+        /**
+         * Deserialization.
+         */
+        private void readObject(ObjectInputStream stream) throws ClassNotFoundException, IOException {
+            stream.defaultReadObject();
+
+            // Perform validation
+            if((m_Array == null) || (m_Offset < 0) || (m_Offset > m_Array.length)) {
+                throw new InvalidObjectException("array must not be null, and offset within the array");
+            }
+        }
+    }
+}
@@ -0,0 +1,474 @@
+package net.njcull.collections;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts records that may not fit on the heap. Each record is a key, with
+ * its encoded bytes, and an opaque payload of bytes. Records are buffered
+ * until their approximate size reaches the memory budget, then sorted and
+ * spilled as a run to a temporary file. Once every record has been added,
+ * the runs are merged, reading each run sequentially.
+ * <p>
+ * Each run being merged holds an open file and a read buffer, so the
+ * number of runs merged at once is bounded by the memory budget, and by a
+ * fixed limit well below the usual limit on open files. While there are
+ * more runs than that, consecutive runs are merged into longer runs in
+ * intermediate passes, before the final merge.
+ * </p>
+ * <p>
+ * Records with equal keys are returned in the order they were added, so
+ * the caller may detect and report duplicates. Closing the sorter deletes
+ * its temporary files.
+ * </p>
+ *
+ * @param <T> the type of the keys being sorted
+ * @author run2000
+ * @version 19/10/2026.
+ */
+final class ExternalRunSorter<T> implements Closeable {
+
+    /**
+     * An estimate of the heap used by each buffered record beyond its
+     * bytes, for the key object and the array headers.
+     */
+    private static final int RECORD_OVERHEAD = 64;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The fewest runs merged at once, however small the memory budget.
+     */
+    private static final int MIN_FAN_IN = 8;
+
+    /**
+     * The most runs merged at once, however large the memory budget, to
+     * keep the number of open files modest.
+     */
+    private static final int MAX_FAN_IN = 256;
+    private static final Object[] EMPTY_ELEMENTS = new Object[0];
+    private static final byte[][] EMPTY_BYTES = new byte[0][];
+
+    private final Codec<T> m_Codec;
+    private final Comparator<? super T> m_Comparator;
+    private final long m_MemoryBudget;
+    private final Path m_TempDirectory;
+    private final int m_MaxFanIn;
+    private final List<Path> m_Runs = new ArrayList<>();
+    private final List<FileChannel> m_OpenChannels = new ArrayList<>();
+
+    private Object[] m_Keys = EMPTY_ELEMENTS;
+    private byte[][] m_KeyBytes = EMPTY_BYTES;
+    private byte[][] m_Payloads = EMPTY_BYTES;
+    private int m_Count = 0;
+    private long m_BufferedBytes = 0L;
+    private long m_Size = 0L;
+
+    /**
+     * Create a new sorter.
+     *
+     * @param codec the codec for decoding keys read back from a run
+     * @param comparator the order of the keys
+     * @param memoryBudget the approximate number of bytes of records to be
+     *                     buffered before spilling a run
+     * @param tempDirectory the directory for the temporary run files
+     */
+    ExternalRunSorter(Codec<T> codec, Comparator<? super T> comparator, long memoryBudget, Path tempDirectory) {
+        this.m_Codec = codec;
+        this.m_Comparator = comparator;
+        this.m_MemoryBudget = memoryBudget;
+        this.m_TempDirectory = tempDirectory;
+        this.m_MaxFanIn = (int) Math.max(MIN_FAN_IN, Math.min(MAX_FAN_IN, memoryBudget / BUFFER_SIZE));
+    }
+
+    /**
+     * Add a record to be sorted.
+     *
+     * @param key the key of the record
+     * @param keyBytes the key, as encoded by the codec
+     * @param payload the payload of the record
+     * @throws IOException a run could not be spilled
+     */
+    void add(T key, byte[] keyBytes, byte[] payload) throws IOException {
+        if(m_Count == m_Keys.length) {
+            if(m_Count >= Integer.MAX_VALUE - 8) {
+                spill();
+            } else {
+                final int newLength = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(16L, m_Count + ((long) m_Count >> 1)));
+                m_Keys = Arrays.copyOf(m_Keys, newLength);
+                m_KeyBytes = Arrays.copyOf(m_KeyBytes, newLength);
+                m_Payloads = Arrays.copyOf(m_Payloads, newLength);
+            }
+        }
+        m_Keys[m_Count] = key;
+        m_KeyBytes[m_Count] = keyBytes;
+        m_Payloads[m_Count++] = payload;
+        m_BufferedBytes += keyBytes.length + payload.length + RECORD_OVERHEAD;
+        m_Size++;
+        if(m_BufferedBytes >= m_MemoryBudget) {
+            spill();
+        }
+    }
+
+    /**
+     * Returns the number of records added.
+     *
+     * @return the number of records added
+     */
+    long size() {
+        return m_Size;
+    }
+
+    /**
+     * Returns the number of runs spilled to temporary files.
+     *
+     * @return the number of runs spilled
+     */
+    int runCount() {
+        return m_Runs.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private int[] sortBuffer() {
+        final int[] order = new int[m_Count];
+        for(int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        SortUtils.sortIndexes(order, (a, b) -> m_Comparator.compare((T) m_Keys[a], (T) m_Keys[b]));
+        return order;
+    }
+
+    private void spill() throws IOException {
+        if(m_Count == 0) {
+            return;
+        }
+        final int[] order = sortBuffer();
+        final Path run = Files.createTempFile(m_TempDirectory, "run", ".tmp");
+        m_Runs.add(run);
+        try (FileChannel channel = FileChannel.open(run, StandardOpenOption.WRITE)) {
+            final ChannelWriter writer = new ChannelWriter(channel, 0L, BUFFER_SIZE);
+            for(int i : order) {
+                writeRecord(writer, m_KeyBytes[i], m_Payloads[i]);
+            }
+            writer.flush();
+        }
+        clearBuffer();
+    }
+
+    private static void writeRecord(ChannelWriter writer, byte[] keyBytes, byte[] payload) throws IOException {
+        writer.putInt(keyBytes.length);
+        writer.put(keyBytes);
+        writer.putInt(payload.length);
+        writer.put(payload);
+    }
+
+    private void clearBuffer() {
+        m_Keys = EMPTY_ELEMENTS;
+        m_KeyBytes = EMPTY_BYTES;
+        m_Payloads = EMPTY_BYTES;
+        m_Count = 0;
+        m_BufferedBytes = 0L;
+    }
+
+    /**
+     * Returns a cursor over every record added, in key order. Records
+     * still buffered are merged with the spilled runs without being
+     * spilled themselves. No further records may be added.
+     *
+     * @return a cursor over the sorted records
+     * @throws IOException a run could not be opened
+     */
+    Cursor<T> sorted() throws IOException {
+        while(m_Runs.size() > m_MaxFanIn) {
+            mergePass();
+        }
+        final PriorityQueue<Cursor<T>> queue = openRuns(m_Runs, m_Runs.size() + 1);
+        if(m_Count > 0) {
+            final Cursor<T> buffer = new BufferCursor<>(m_Runs.size(), m_Keys, m_KeyBytes, m_Payloads, sortBuffer());
+            if(buffer.next()) {
+                queue.add(buffer);
+            }
+        }
+        return new MergeCursor<>(queue);
+    }
+
+    /**
+     * Merge each group of consecutive runs, up to the maximum fan-in, into
+     * a single run in its place. Runs are merged in the order they were
+     * spilled, so equal keys stay in the order they were added.
+     */
+    private void mergePass() throws IOException {
+        for(int i = 0; i < m_Runs.size(); i++) {
+            final int count = Math.min(m_MaxFanIn, m_Runs.size() - i);
+            if(count > 1) {
+                // The merged run is listed first, so it is deleted on failure
+                final Path merged = Files.createTempFile(m_TempDirectory, "run", ".tmp");
+                m_Runs.add(i, merged);
+                mergeRuns(m_Runs.subList(i + 1, i + 1 + count), merged);
+            }
+        }
+    }
+
+    /**
+     * Merge the given runs into the given file, then close and delete the
+     * runs, removing them from the list.
+     */
+    private void mergeRuns(List<Path> runs, Path merged) throws IOException {
+        final int channelCount = m_OpenChannels.size();
+        try (FileChannel channel = FileChannel.open(merged, StandardOpenOption.WRITE)) {
+            final ChannelWriter writer = new ChannelWriter(channel, 0L, BUFFER_SIZE);
+            final Cursor<T> cursor = new MergeCursor<>(openRuns(runs, runs.size()));
+            while(cursor.next()) {
+                writeRecord(writer, cursor.keyBytes(), cursor.payload());
+            }
+            writer.flush();
+        }
+        final List<FileChannel> channels = m_OpenChannels.subList(channelCount, m_OpenChannels.size());
+        for(FileChannel channel : channels) {
+            channel.close();
+        }
+        channels.clear();
+        for(Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+        runs.clear();
+    }
+
+    /**
+     * Open the given runs for reading, each ordered by its position in the
+     * list, and queue those that are not empty.
+     */
+    private PriorityQueue<Cursor<T>> openRuns(List<Path> runs, int capacity) throws IOException {
+        final PriorityQueue<Cursor<T>> queue = new PriorityQueue<>(Math.max(1, capacity), (a, b) -> {
+            final int cmp = m_Comparator.compare(a.key(), b.key());
+            return (cmp != 0) ? cmp : Integer.compare(a.m_Ordinal, b.m_Ordinal);
+        });
+        for(int i = 0; i < runs.size(); i++) {
+            final FileChannel channel = FileChannel.open(runs.get(i), StandardOpenOption.READ);
+            m_OpenChannels.add(channel);
+            final Cursor<T> run = new RunCursor<>(i, channel, m_Codec);
+            if(run.next()) {
+                queue.add(run);
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * Close any runs being read, and delete the temporary files.
+     *
+     * @throws IOException a file could not be closed or deleted
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for(FileChannel channel : m_OpenChannels) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        m_OpenChannels.clear();
+        for(Path run : m_Runs) {
+            try {
+                Files.deleteIfExists(run);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        m_Runs.clear();
+        clearBuffer();
+        if(failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * A position in a sequence of sorted records. The record is undefined
+     * until {@link #next()} first returns {@code true}.
+     *
+     * @param <T> the type of the keys
+     */
+    abstract static class Cursor<T> {
+        final int m_Ordinal;
+
+        Cursor(int ordinal) {
+            this.m_Ordinal = ordinal;
+        }
+
+        /**
+         * Move to the next record.
+         *
+         * @return {@code true} if there is a next record, otherwise
+         * {@code false}
+         * @throws IOException the record could not be read
+         */
+        abstract boolean next() throws IOException;
+
+        abstract T key();
+
+        abstract byte[] keyBytes();
+
+        abstract byte[] payload();
+    }
+
+    private static final class BufferCursor<T> extends Cursor<T> {
+        private final Object[] m_Keys;
+        private final byte[][] m_KeyBytes;
+        private final byte[][] m_Payloads;
+        private final int[] m_Order;
+        private int m_Index = -1;
+
+        BufferCursor(int ordinal, Object[] keys, byte[][] keyBytes, byte[][] payloads, int[] order) {
+            super(ordinal);
+            this.m_Keys = keys;
+            this.m_KeyBytes = keyBytes;
+            this.m_Payloads = payloads;
+            this.m_Order = order;
+        }
+
+        @Override
+        boolean next() {
+            return ++m_Index < m_Order.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        T key() {
+            return (T) m_Keys[m_Order[m_Index]];
+        }
+
+        @Override
+        byte[] keyBytes() {
+            return m_KeyBytes[m_Order[m_Index]];
+        }
+
+        @Override
+        byte[] payload() {
+            return m_Payloads[m_Order[m_Index]];
+        }
+    }
+
+    private static final class RunCursor<T> extends Cursor<T> {
+        private final FileChannel m_Channel;
+        private final Codec<T> m_Codec;
+        private final ByteBuffer m_Buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private T m_Key;
+        private byte[] m_KeyBytes;
+        private byte[] m_Payload;
+
+        RunCursor(int ordinal, FileChannel channel, Codec<T> codec) {
+            super(ordinal);
+            this.m_Channel = channel;
+            this.m_Codec = codec;
+            m_Buffer.flip();
+        }
+
+        @Override
+        boolean next() throws IOException {
+            if(!fill(Integer.BYTES)) {
+                m_Channel.close();
+                return false;
+            }
+            m_KeyBytes = readBytes(m_Buffer.getInt());
+            if(!fill(Integer.BYTES)) {
+                throw new EOFException("truncated run");
+            }
+            m_Payload = readBytes(m_Buffer.getInt());
+            m_Key = m_Codec.decode(m_KeyBytes, 0, m_KeyBytes.length);
+            return true;
+        }
+
+        /**
+         * Ensure the buffer holds at least the given number of bytes, up to
+         * its capacity, unless the end of the run has been reached.
+         */
+        private boolean fill(int required) throws IOException {
+            if(m_Buffer.remaining() < required) {
+                m_Buffer.compact();
+                while(m_Buffer.position() < required) {
+                    if(m_Channel.read(m_Buffer) < 0) {
+                        break;
+                    }
+                }
+                m_Buffer.flip();
+            }
+            return m_Buffer.remaining() >= required;
+        }
+
+        private byte[] readBytes(int length) throws IOException {
+            final byte[] bytes = new byte[length];
+            int done = 0;
+            while(done < length) {
+                if(!fill(1)) {
+                    throw new EOFException("truncated run");
+                }
+                final int len = Math.min(length - done, m_Buffer.remaining());
+                m_Buffer.get(bytes, done, len);
+                done += len;
+            }
+            return bytes;
+        }
+
+        @Override
+        T key() {
+            return m_Key;
+        }
+
+        @Override
+        byte[] keyBytes() {
+            return m_KeyBytes;
+        }
+
+        @Override
+        byte[] payload() {
+            return m_Payload;
+        }
+    }
+
+    private static final class MergeCursor<T> extends Cursor<T> {
+        private final PriorityQueue<Cursor<T>> m_Queue;
+        private Cursor<T> m_Current;
+
+        MergeCursor(PriorityQueue<Cursor<T>> queue) {
+            super(0);
+            this.m_Queue = queue;
+        }
+
+        @Override
+        boolean next() throws IOException {
+            if((m_Current != null) && m_Current.next()) {
+                m_Queue.add(m_Current);
+            }
+            m_Current = m_Queue.poll();
+            return m_Current != null;
+        }
+
+        @Override
+        T key() {
+            return m_Current.key();
+        }
+
+        @Override
+        byte[] keyBytes() {
+            return m_Current.keyBytes();
+        }
+
+        @Override
+        byte[] payload() {
+            return m_Current.payload();
+        }
+    }
+}
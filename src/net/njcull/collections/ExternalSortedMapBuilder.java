@@ -0,0 +1,383 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Builder for the {@link ImmutableMappedSortedMap} class, for maps too
+ * large to be built on the heap. Entries are encoded by the given codecs
+ * as they are added, and buffered until they reach the memory budget. Each
+ * full buffer is sorted and spilled as a run to a temporary file. Building
+ * the map merges the runs into the map file, checking for duplicate keys,
+ * and for a bi-map sorts the values the same way to check for duplicate
+ * values.
+ * <p>
+ * The temporary files and the map file should be on a local disk. The
+ * temporary directory defaults to the {@code java.io.tmpdir} directory.
+ * When there are many runs, they are merged in several passes, each
+ * writing longer runs back to temporary files. Temporary files are deleted
+ * when the map is built, or when the builder is cleared.
+ * </p>
+ *
+ * @param <K> the type of keys maintained by the map
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ExternalSortedMapBuilder<K,V> {
+    private final Codec<K> m_KeyCodec;
+    private final Codec<V> m_ValueCodec;
+    private Comparator<? super K> m_KeyComparator;
+    private Comparator<? super V> m_ValueComparator;
+    private long m_MemoryBudget = DEFAULT_MEMORY_BUDGET;
+    private Path m_TempDirectory;
+    private boolean m_Bimap = false;
+    private ExternalRunSorter<K> m_Sorter;
+
+    private static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Create a new builder instance that writes a new sorted map file.
+     *
+     * @param <K> the key type of the map
+     * @param <V> the value type of the map
+     * @param keyCodec the codec for encoding the keys
+     * @param valueCodec the codec for encoding the values
+     * @return a new builder for writing a new map file
+     */
+    public static <K,V> ExternalSortedMapBuilder<K,V> newMap(Codec<K> keyCodec, Codec<V> valueCodec) {
+        return new ExternalSortedMapBuilder<>(keyCodec, valueCodec);
+    }
+
+    /**
+     * Create a new builder instance that writes a new sorted bi-map file.
+     *
+     * @param <K> the key type of the map
+     * @param <V> the value type of the map
+     * @param keyCodec the codec for encoding the keys
+     * @param valueCodec the codec for encoding the values
+     * @return a new builder for writing a new bi-map file
+     */
+    public static <K,V> ExternalSortedMapBuilder<K,V> newBiMap(Codec<K> keyCodec, Codec<V> valueCodec) {
+        return new ExternalSortedMapBuilder<>(keyCodec, valueCodec).asBiMap();
+    }
+
+    /**
+     * Create a new builder instance for writing a new sorted map file.
+     *
+     * @param keyCodec the codec for encoding the keys
+     * @param valueCodec the codec for encoding the values
+     */
+    public ExternalSortedMapBuilder(Codec<K> keyCodec, Codec<V> valueCodec) {
+        this.m_KeyCodec = Objects.requireNonNull(keyCodec, "keyCodec must not be null");
+        this.m_ValueCodec = Objects.requireNonNull(valueCodec, "valueCodec must not be null");
+    }
+
+    /**
+     * Use the supplied comparator to sort the keys in the resulting map.
+     * Entries must not yet have been added.
+     *
+     * @param cmp the comparator for sorting the keys in the map
+     * @return this builder, for chaining purposes
+     */
+    public ExternalSortedMapBuilder<K,V> byComparingKeys(Comparator<? super K> cmp) {
+        checkNotStarted();
+        this.m_KeyComparator = cmp;
+        return this;
+    }
+
+    /**
+     * Sort the keys for the resulting map using the keys' natural order.
+     * Entries must not yet have been added.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public ExternalSortedMapBuilder<K,V> byNaturalKeyOrder() {
+        checkNotStarted();
+        this.m_KeyComparator = null;
+        return this;
+    }
+
+    /**
+     * Use the supplied comparator to sort the values in a resulting bi-map.
+     *
+     * @param cmp the comparator for sorting the values in the map
+     * @return this builder, for chaining purposes
+     */
+    public ExternalSortedMapBuilder<K,V> byComparingValues(Comparator<? super V> cmp) {
+        this.m_ValueComparator = cmp;
+        return this;
+    }
+
+    /**
+     * Sort the values for a resulting bi-map using the values' natural
+     * order.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public ExternalSortedMapBuilder<K,V> byNaturalValueOrder() {
+        this.m_ValueComparator = null;
+        return this;
+    }
+
+    /**
+     * The approximate number of bytes of entries to be held on the heap
+     * before they are spilled to a temporary file. Entries must not yet have
+     * been added.
+     *
+     * @param bytes the memory budget in bytes
+     * @return this builder, for chaining purposes
+     * @throws IllegalArgumentException if the budget is not positive
+     */
+    public ExternalSortedMapBuilder<K,V> memoryBudget(long bytes) {
+        if(bytes <= 0L) {
+            throw new IllegalArgumentException("memory budget must be positive");
+        }
+        checkNotStarted();
+        this.m_MemoryBudget = bytes;
+        return this;
+    }
+
+    /**
+     * The directory in which temporary files are created, which should be
+     * on a local disk. Entries must not yet have been added.
+     *
+     * @param directory the directory for temporary files
+     * @return this builder, for chaining purposes
+     */
+    public ExternalSortedMapBuilder<K,V> tempDirectory(Path directory) {
+        checkNotStarted();
+        this.m_TempDirectory = directory;
+        return this;
+    }
+
+    /**
+     * The builder will build the resulting map as a map, not a bi-map.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public ExternalSortedMapBuilder<K,V> asMap() {
+        m_Bimap = false;
+        return this;
+    }
+
+    /**
+     * The builder will build the resulting map as a bi-map.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public ExternalSortedMapBuilder<K,V> asBiMap() {
+        m_Bimap = true;
+        return this;
+    }
+
+    private void checkNotStarted() {
+        if(m_Sorter != null) {
+            throw new IllegalStateException("entries have already been added");
+        }
+    }
+
+    /**
+     * Add the given key and value pair to the resulting map.
+     *
+     * @param key the key to be added
+     * @param value the value to be added
+     * @return this builder, for chaining purposes
+     * @throws NullPointerException if the key or value is {@code null}
+     * @throws UncheckedIOException if a run could not be spilled
+     */
+    public ExternalSortedMapBuilder<K,V> with(K key, V value) {
+        Objects.requireNonNull(key, "key must not be null");
+        Objects.requireNonNull(value, "value must not be null");
+        if(m_Sorter == null) {
+            m_Sorter = new ExternalRunSorter<>(m_KeyCodec, keyComparator(), m_MemoryBudget, tempDirectory());
+        }
+        try {
+            m_Sorter.add(key, m_KeyCodec.encode(key), m_ValueCodec.encode(value));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    /**
+     * Add the given key and value pair to the resulting map.
+     *
+     * @param entry the key and value pair to be added
+     * @return this builder, for chaining purposes
+     * @throws NullPointerException if the key or value is {@code null}
+     * @throws UncheckedIOException if a run could not be spilled
+     */
+    public ExternalSortedMapBuilder<K,V> with(Map.Entry<? extends K, ? extends V> entry) {
+        return with(entry.getKey(), entry.getValue());
+    }
+
+    /**
+     * All the key and value pairs of the supplied map will be added to the
+     * resulting map.
+     *
+     * @param map the map of keys and values to be added
+     * @return this builder, for chaining purposes
+     * @throws NullPointerException if a key or value is {@code null}
+     * @throws UncheckedIOException if a run could not be spilled
+     */
+    public ExternalSortedMapBuilder<K,V> with(Map<? extends K, ? extends V> map) {
+        map.forEach(this::with);
+        return this;
+    }
+
+    /**
+     * Returns the number of entries in this builder.
+     *
+     * @return the number of entries in this builder
+     */
+    public long size() {
+        return (m_Sorter == null) ? 0L : m_Sorter.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Comparator<? super K> keyComparator() {
+        return (m_KeyComparator == null) ? (Comparator<? super K>) Comparator.naturalOrder() : m_KeyComparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Comparator<? super V> valueComparator() {
+        return (m_ValueComparator == null) ? (Comparator<? super V>) Comparator.naturalOrder() : m_ValueComparator;
+    }
+
+    private Path tempDirectory() {
+        return (m_TempDirectory == null) ? Paths.get(System.getProperty("java.io.tmpdir")) : m_TempDirectory;
+    }
+
+    /**
+     * Write the map file, and open it as a map. The runs are merged into
+     * the file, checking for duplicate keys, and for a bi-map duplicate
+     * values. The temporary files are deleted, and the builder is cleared,
+     * whether or not the file is written successfully. The map is written
+     * to a new file beside the given file, then moved over it, so an
+     * existing file is left unchanged if the map cannot be written, and a
+     * map still open on it keeps its contents.
+     *
+     * @param file the map file to be written, replacing any existing file
+     * @return the map held in the new file
+     * @throws IOException the file could not be written
+     * @throws IllegalStateException there was a duplicate key or value
+     * specified in the builder, or more than {@code Integer.MAX_VALUE}
+     * entries
+     */
+    public ImmutableMappedSortedMap<K,V> build(Path file) throws IOException {
+        final long count = size();
+        if(count > Integer.MAX_VALUE) {
+            clear();
+            throw new IllegalStateException("too many entries: " + count);
+        }
+        final int size = (int) count;
+        final Comparator<? super K> keyComparator = keyComparator();
+        final Comparator<? super V> valueComparator = valueComparator();
+        Path temp = null;
+        boolean written = false;
+        try {
+            temp = ChannelWriter.createSibling(file);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                writeMap(channel, size, keyComparator, valueComparator);
+            }
+            ChannelWriter.replace(temp, file);
+            written = true;
+        } finally {
+            clear();
+            if(!written && (temp != null)) {
+                Files.deleteIfExists(temp);
+            }
+        }
+        return ImmutableMappedSortedMap.open(file, m_KeyCodec, m_ValueCodec, m_KeyComparator, m_ValueComparator);
+    }
+
+    private void writeMap(FileChannel channel, int size, Comparator<? super K> keyComparator,
+                          Comparator<? super V> valueComparator) throws IOException {
+        final ChannelWriter offsets = new ChannelWriter(channel, ImmutableMappedSortedMap.HEADER_SIZE, BUFFER_SIZE);
+        final ChannelWriter records = new ChannelWriter(channel,
+                ImmutableMappedSortedMap.HEADER_SIZE + ((long) size + 1L) * Long.BYTES, BUFFER_SIZE);
+        long valueIndexOffset = 0L;
+
+        try (ExternalRunSorter<V> values = m_Bimap ?
+                new ExternalRunSorter<>(m_ValueCodec, valueComparator, m_MemoryBudget, tempDirectory()) : null) {
+            if(m_Sorter != null) {
+                final ExternalRunSorter.Cursor<K> cursor = m_Sorter.sorted();
+                K prev = null;
+                for(int i = 0; cursor.next(); i++) {
+                    final K key = cursor.key();
+                    if((prev != null) && (keyComparator.compare(key, prev) == 0)) {
+                        throw new IllegalStateException("duplicate key");
+                    }
+                    final byte[] keyBytes = cursor.keyBytes();
+                    final byte[] valueBytes = cursor.payload();
+                    offsets.putLong(records.position());
+                    records.putInt(keyBytes.length);
+                    records.put(keyBytes);
+                    records.put(valueBytes);
+                    if(values != null) {
+                        values.add(m_ValueCodec.decode(valueBytes, 0, valueBytes.length), valueBytes,
+                                new byte[] { (byte) (i >>> 24), (byte) (i >>> 16), (byte) (i >>> 8), (byte) i });
+                    }
+                    prev = key;
+                }
+            }
+            offsets.putLong(records.position());
+            offsets.flush();
+
+            if(values != null) {
+                valueIndexOffset = records.position();
+                final ExternalRunSorter.Cursor<V> cursor = values.sorted();
+                V prev = null;
+                while(cursor.next()) {
+                    final V value = cursor.key();
+                    if((prev != null) && (valueComparator.compare(value, prev) == 0)) {
+                        throw new IllegalStateException("duplicate value");
+                    }
+                    records.put(cursor.payload());
+                    prev = value;
+                }
+            }
+            records.flush();
+        }
+
+        final ChannelWriter header = new ChannelWriter(channel, 0L, ImmutableMappedSortedMap.HEADER_SIZE);
+        header.putInt(ImmutableMappedSortedMap.MAGIC);
+        header.putInt(ImmutableMappedSortedMap.VERSION);
+        header.putInt(m_Bimap ? ImmutableMappedSortedMap.FLAG_BIMAP : 0);
+        header.putInt(size);
+        header.putLong(ImmutableMappedSortedMap.HEADER_SIZE + ((long) size + 1L) * Long.BYTES);
+        header.putLong(valueIndexOffset);
+        header.flush();
+        channel.force(true);
+    }
+
+    /**
+     * Discard the entries in this builder, deleting any temporary files.
+     * The codecs and options are kept.
+     *
+     * @return this builder, for chaining purposes
+     * @throws UncheckedIOException if a temporary file could not be deleted
+     */
+    public ExternalSortedMapBuilder<K,V> clear() {
+        final ExternalRunSorter<K> sorter = m_Sorter;
+        m_Sorter = null;
+        if(sorter != null) {
+            try {
+                sorter.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return this;
+    }
+}
@@ -0,0 +1,44 @@
+package net.njcull.collections;
+
+/**
+ * Scans an array of hash codes for a given hash code. The hashed array
+ * collections keep the hash codes of their elements in a separate array of
+ * ints, and test candidate elements for equality only where the hash codes
+ * match.
+ * <p>
+ * This is the scalar implementation, one int at a time. The library is
+ * packaged as a multi-release JAR, and on Java 17 and later this class is
+ * replaced by one that compares several hash codes per instruction using
+ * the incubating Vector API, when the {@code jdk.incubator.vector} module
+ * has been added to the runtime.
+ * </p>
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+final class HashCodeScan {
+
+    private HashCodeScan() {
+    }
+
+    /**
+     * Returns the index of the first occurrence of the hash code within the
+     * given range of the array.
+     *
+     * @param hashCodes the array of hash codes to be scanned
+     * @param fromIndex the index of the first hash code (inclusive) to be
+     *          scanned
+     * @param toIndex the index of the last hash code (exclusive) to be scanned
+     * @param hashCode the hash code to be found
+     * @return the index of the first matching hash code in the range,
+     * otherwise {@code -1}
+     */
+    static int indexOf(int[] hashCodes, int fromIndex, int toIndex, int hashCode) {
+        for(int i = fromIndex; i < toIndex; i++) {
+            if(hashCodes[i] == hashCode) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
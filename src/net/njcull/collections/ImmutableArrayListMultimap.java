@@ -0,0 +1,134 @@
+package net.njcull.collections;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * An immutable multimap in compressed sparse row layout, where each key
+ * maps to a list of values. Keys are held in a single sorted array, and
+ * the values of every key are held together in a single array, with an
+ * array of offsets marking where the values of each key start. This avoids
+ * a collection object and array for every key, as would be needed for a
+ * map of keys to collections.
+ * <p>
+ * The values of each key are kept in the order they were added, and may
+ * contain duplicates. Getting the values of a key returns a view over its
+ * range of the value array, without copying. Keys are searched using a
+ * binary search implementation.
+ * </p>
+ *
+ * @param <K> the type of keys maintained by this multimap
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableArrayListMultimap<K,V> extends CsrMultimap<K,V> {
+
+    // Singleton, as an optimization only
+    private static final ImmutableArrayListMultimap<?,?> EMPTY =
+            new ImmutableArrayListMultimap<>(new Object[0], new int[1], new Object[0], null);
+
+    // Serialization
+    private static final long serialVersionUID = -6219436357340190281L;
+
+    /**
+     * Returns an immutable empty multimap. Each call to this method will
+     * return the same empty multimap.
+     *
+     * @param <K> the type of keys maintained by this multimap
+     * @param <V> the type of mapped values
+     * @return an immutable empty multimap
+     */
+    @SuppressWarnings("unchecked")
+    public static <K,V> ImmutableArrayListMultimap<K,V> emptyMultimap() {
+        return (ImmutableArrayListMultimap<K,V>) EMPTY;
+    }
+
+    ImmutableArrayListMultimap(Object[] keys, int[] offsets, Object[] values, Comparator<? super K> keyComparator) {
+        super(keys, offsets, values, keyComparator);
+    }
+
+    /**
+     * Returns the values of the key at the given index, in the order they
+     * were added, as a view over the value array.
+     *
+     * @param index the index of the key
+     * @return a view of the values of the key
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * greater than or equal to the number of keys
+     */
+    @Override
+    public ArrayBackedCollection<V> valuesAt(int index) {
+        if((index < 0) || (index >= m_Keys.length)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return slice(index, 0, null);
+    }
+
+    /**
+     * Returns the values mapped to the given key, in the order they were
+     * added, as a view over the value array. If the key is not present, the
+     * view is empty. The view may also be viewed as a {@link java.util.List}.
+     *
+     * @param key the key whose values are to be returned
+     * @return a view of the values of the key
+     */
+    @Override
+    public ArrayBackedCollection<V> get(Object key) {
+        final int idx = indexOfKey(key);
+        if(idx < 0) {
+            return ImmutableArraySet.emptySet();
+        }
+        return slice(idx, 0, null);
+    }
+
+    @Override
+    boolean valuesEqual(int keyIndex, CsrMultimap<?,?> other, int otherIndex) {
+        final int start = m_Offsets[keyIndex];
+        final int size = m_Offsets[keyIndex + 1] - start;
+        final int otherStart = other.m_Offsets[otherIndex];
+        if(other.m_Offsets[otherIndex + 1] - otherStart != size) {
+            return false;
+        }
+        for(int i = 0; i < size; i++) {
+            if(!Objects.equals(m_Values[start + i], other.m_Values[otherStart + i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    int valuesHashCode(int keyIndex) {
+        // As for List.hashCode()
+        int h = 1;
+        for(int i = m_Offsets[keyIndex]; i < m_Offsets[keyIndex + 1]; i++) {
+            h = 31 * h + Objects.hashCode(m_Values[i]);
+        }
+        return h;
+    }
+
+    /**
+     * Create a builder object for this immutable multimap.
+     *
+     * @param <K> the type of keys in the resulting multimap
+     * @param <V> the type of values in the resulting multimap
+     * @return a new builder object
+     */
+    public static <K,V> ImmutableArrayListMultimapBuilder<K,V> builder() {
+        return new ImmutableArrayListMultimapBuilder<>();
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @return the resolved object
+     */
+    private Object readResolve() {
+        if(m_Keys.length == 0) {
+            // optimization only
+            return EMPTY;
+        }
+        return this;
+    }
+}
@@ -0,0 +1,231 @@
+package net.njcull.collections;
+
+import java.util.*;
+
+/**
+ * Builder for the {@link ImmutableArrayListMultimap} class.
+ *
+ * @param <K> the type of keys maintained by the resulting multimap
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableArrayListMultimapBuilder<K,V> {
+    private Comparator<? super K> m_KeyComparator;
+    private Object[] m_Keys = EMPTY_ELEMENTS;
+    private Object[] m_Values = EMPTY_ELEMENTS;
+    private int m_Size = 0;
+
+    private static final Object[] EMPTY_ELEMENTS = new Object[0];
+
+    /**
+     * Create a new builder instance that builds a new immutable multimap,
+     * with keys in their natural order.
+     *
+     * @param <K> the key type of the multimap
+     * @param <V> the value type of the multimap
+     * @return a new builder for building a new multimap
+     */
+    public static <K,V> ImmutableArrayListMultimapBuilder<K,V> newMultimap() {
+        return new ImmutableArrayListMultimapBuilder<>();
+    }
+
+    /**
+     * Create a new builder instance that builds a new immutable multimap,
+     * using the supplied comparator for sorting the keys.
+     *
+     * @param <K> the key type of the multimap
+     * @param <V> the value type of the multimap
+     * @param cmp the comparator for sorting the keys
+     * @return a new builder for building a new multimap
+     */
+    public static <K,V> ImmutableArrayListMultimapBuilder<K,V> newMultimapComparingKeys(Comparator<? super K> cmp) {
+        ImmutableArrayListMultimapBuilder<K,V> builder = new ImmutableArrayListMultimapBuilder<>();
+        return builder.byComparingKeys(cmp);
+    }
+
+    /**
+     * Create a new builder instance for constructing a new immutable
+     * array list multimap.
+     */
+    public ImmutableArrayListMultimapBuilder() {
+    }
+
+    /**
+     * Use the supplied comparator to sort the keys in the resulting multimap.
+     *
+     * @param cmp the comparator for sorting the keys in the multimap
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableArrayListMultimapBuilder<K,V> byComparingKeys(Comparator<? super K> cmp) {
+        this.m_KeyComparator = cmp;
+        return this;
+    }
+
+    /**
+     * Sort the keys for the resulting multimap using the keys' natural order.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableArrayListMultimapBuilder<K,V> byNaturalKeyOrder() {
+        this.m_KeyComparator = null;
+        return this;
+    }
+
+    /**
+     * Add the given key and value pair to the resulting multimap.
+     *
+     * @param key the key to be added
+     * @param val the value to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableArrayListMultimapBuilder<K,V> with(K key, V val) {
+        ensureCapacity(1);
+        m_Keys[m_Size] = key;
+        m_Values[m_Size++] = val;
+        return this;
+    }
+
+    /**
+     * Add the given key and value pair to the resulting multimap.
+     *
+     * @param entry the key and value pair to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableArrayListMultimapBuilder<K,V> with(Map.Entry<? extends K, ? extends V> entry) {
+        return with(entry.getKey(), entry.getValue());
+    }
+
+    /**
+     * Add the given key with each of the given values to the resulting
+     * multimap.
+     *
+     * @param key the key to be added
+     * @param values the values to be added for the key
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableArrayListMultimapBuilder<K,V> withAll(K key, Iterable<? extends V> values) {
+        if(values instanceof Collection) {
+            ensureCapacity(((Collection<?>) values).size());
+        }
+        for(V val : values) {
+            with(key, val);
+        }
+        return this;
+    }
+
+    /**
+     * All the key and value pairs of the supplied map of collections will be
+     * added to the resulting multimap.
+     *
+     * @param map the map of keys to the collections of values to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableArrayListMultimapBuilder<K,V> withAll(Map<? extends K, ? extends Iterable<? extends V>> map) {
+        for(Map.Entry<? extends K, ? extends Iterable<? extends V>> entry : map.entrySet()) {
+            withAll(entry.getKey(), entry.getValue());
+        }
+        return this;
+    }
+
+    /**
+     * For the stream combiner, merge the entries from the supplied builder
+     * to this builder.
+     *
+     * @param entries the builder containing the entries to be merged into
+     * this builder
+     * @return this builder containing the merged items
+     */
+    public ImmutableArrayListMultimapBuilder<K,V> merge(ImmutableArrayListMultimapBuilder<? extends K, ? extends V> entries) {
+        int len = entries.m_Size;
+        ensureCapacity(len);
+        System.arraycopy(entries.m_Keys, 0, m_Keys, m_Size, len);
+        System.arraycopy(entries.m_Values, 0, m_Values, m_Size, len);
+        m_Size += len;
+        return this;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if(m_Keys.length - m_Size < capacity) {
+            // grow geometrically, since multimaps often have many entries
+            int newLength = Math.max(m_Size + capacity, m_Keys.length + (m_Keys.length >> 1));
+            // round up to divisible by 8
+            newLength += (8 - (newLength % 8)) % 8;
+            m_Keys = Arrays.copyOf(m_Keys, newLength);
+            m_Values = Arrays.copyOf(m_Values, newLength);
+        }
+    }
+
+    /**
+     * Returns the number of key and value pairs in this builder.
+     *
+     * @return the number of key and value pairs in this builder
+     */
+    public int size() {
+        return m_Size;
+    }
+
+    /**
+     * Build the immutable multimap. Keys are sorted, and the values of each
+     * key are kept in the order they were added, including any duplicate
+     * values.
+     * <p>
+     * Repeated calls to a builder containing a non-zero number of entries
+     * will return distinct multimap instances.
+     *
+     * @return an ImmutableArrayListMultimap containing the entries in the
+     * builder
+     */
+    @SuppressWarnings("unchecked")
+    public ImmutableArrayListMultimap<K,V> build() {
+        if(m_Size == 0) {
+            return ImmutableArrayListMultimap.<K,V>emptyMultimap();
+        }
+
+        final Object[] keys = m_Keys;
+        final Comparator nullsKeyComparator = CsrMultimap.nullsComparator(m_KeyComparator);
+
+        // Stable sort, so the values of each key keep their order
+        final int[] order = new int[m_Size];
+        for(int i = 0; i < m_Size; i++) {
+            order[i] = i;
+        }
+        SortUtils.sortIndexes(order, (a, b) -> nullsKeyComparator.compare(keys[a], keys[b]));
+
+        int keyCount = 1;
+        for(int i = 1; i < m_Size; i++) {
+            if(nullsKeyComparator.compare(keys[order[i]], keys[order[i - 1]]) != 0) {
+                keyCount++;
+            }
+        }
+
+        final Object[] resultKeys = new Object[keyCount];
+        final int[] offsets = new int[keyCount + 1];
+        final Object[] values = new Object[m_Size];
+        int k = 0;
+        resultKeys[0] = keys[order[0]];
+        for(int i = 0; i < m_Size; i++) {
+            if((i > 0) && (nullsKeyComparator.compare(keys[order[i]], keys[order[i - 1]]) != 0)) {
+                offsets[++k] = i;
+                resultKeys[k] = keys[order[i]];
+            }
+            values[i] = m_Values[order[i]];
+        }
+        offsets[keyCount] = m_Size;
+
+        return new ImmutableArrayListMultimap<>(resultKeys, offsets, values, m_KeyComparator);
+    }
+
+    /**
+     * Reset this builder to its initial state.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableArrayListMultimapBuilder<K,V> clear() {
+        m_Keys = EMPTY_ELEMENTS;
+        m_Values = EMPTY_ELEMENTS;
+        m_KeyComparator = null;
+        m_Size = 0;
+        return this;
+    }
+}
@@ -13,6 +13,7 @@ import java.util.function.BiConsumer;
  * stored together in key order.
  * <p>
  * Keys and values are tested using a linear search implementation.
+ * For a bi-map, values are tested using a hash index, built on first use.
  * The map's keyset and entryset views may also be viewed as a {@link List}.
  * </p>
  *
@@ -26,6 +27,7 @@ public final class ImmutableArrayMap<K,V> extends AbstractMap<K,V>
 
     private final Object[] m_Map;
     private final boolean m_BiMap;
+    private transient volatile int[] m_ValueIndex;
 
     // Singleton, as an optimization only
     private static final ImmutableArrayMap<?,?> EMPTY = new ImmutableArrayMap<>(new Object[0], true);
@@ -109,7 +111,8 @@ public final class ImmutableArrayMap<K,V> extends AbstractMap<K,V>
      * specified value.  More formally, returns {@code true} if and only if
      * this map contains at least one mapping to a value {@code v} such that
      * {@code (value==null ? v==null : value.equals(v))}.  This operation
-     * requires time linear in the map size for this implementation.
+     * requires time linear in the map size for this implementation, unless
+     * the map is a bi-map, when it requires constant time.
      *
      * @param value value whose presence in this map is to be tested
      * @return {@code true} if this map maps one or more keys to the
@@ -118,6 +121,9 @@ public final class ImmutableArrayMap<K,V> extends AbstractMap<K,V>
     @Override
     public boolean containsValue(Object value) {
         final int size = m_Map.length / 2;
+        if(m_BiMap && (size >= ArrayHashIndex.MIN_INDEXED_SIZE)) {
+            return ArrayHashIndex.indexOf(valueIndex(), m_Map, size, value) >= 0;
+        }
         if(value == null) {
             for(int i = 0; i < size; i++) {
                 if(value == m_Map[size + i]) {
@@ -262,6 +268,9 @@ public final class ImmutableArrayMap<K,V> extends AbstractMap<K,V>
     @Override
     public int indexOfValue(Object value) {
         final int size = m_Map.length / 2;
+        if(m_BiMap && (size >= ArrayHashIndex.MIN_INDEXED_SIZE)) {
+            return ArrayHashIndex.indexOf(valueIndex(), m_Map, size, value);
+        }
         if(value == null) {
             for(int i = 0; i < size; i++) {
                 if(value == m_Map[size + i]) {
@@ -288,6 +297,9 @@ public final class ImmutableArrayMap<K,V> extends AbstractMap<K,V>
      */
     public int lastIndexOfValue(Object value) {
         final int size = m_Map.length / 2;
+        if(m_BiMap && (size >= ArrayHashIndex.MIN_INDEXED_SIZE)) {
+            return ArrayHashIndex.indexOf(valueIndex(), m_Map, size, value);
+        }
         if(value == null) {
             for(int i = size - 1; i >= 0; i--) {
                 if(value == m_Map[size + i]) {
@@ -304,6 +316,47 @@ public final class ImmutableArrayMap<K,V> extends AbstractMap<K,V>
         return -1;
     }
 
+    /**
+     * Returns {@code true} if this map was built as a bi-map, where both
+     * keys and values are unique.
+     *
+     * @return {@code true} if this map is a bi-map, otherwise {@code false}
+     */
+    public boolean isBiMap() {
+        return m_BiMap;
+    }
+
+    /**
+     * Returns an inverse view of this bi-map, which maps each value of this
+     * map to its associated key. The view shares the arrays of this map, so
+     * no data is copied. Searches by key in the inverse view use a hash
+     * index over the values of this map, built on first use.
+     *
+     * @return an inverse view of this bi-map
+     * @throws UnsupportedOperationException this map is not a bi-map
+     */
+    public ArrayBackedMap<V,K> inverse() {
+        if(!m_BiMap) {
+            throw new UnsupportedOperationException("not a bi-map");
+        }
+        return new ArrayBackedInverseMap<>(this);
+    }
+
+    /**
+     * Returns the hash index over the values of this bi-map, building it
+     * if required. Races to build the index are benign, since any thread
+     * builds an identical index.
+     */
+    private int[] valueIndex() {
+        int[] index = m_ValueIndex;
+        if(index == null) {
+            final int size = m_Map.length / 2;
+            index = ArrayHashIndex.build(m_Map, size, size);
+            m_ValueIndex = index;
+        }
+        return index;
+    }
+
     /**
      * Returns an {@link ArrayBackedSet} view of the mappings contained in this
      * map. The set is backed by the map.
@@ -464,6 +517,29 @@ public final class ImmutableArrayMap<K,V> extends AbstractMap<K,V>
         return ImmutableArrayMapBuilder.<K,V>newBiMap().with(map).build();
     }
 
+    /**
+     * Returns an {@code ArrayBackedMap} that contains the data supplied by
+     * the given map. Maps of up to eight entries are copied into a compact
+     * representation that holds its keys and values in fields; larger maps
+     * are copied as for {@link #copyOf(Map)}.
+     *
+     * @param map the map to be copied
+     * @param <K> the key type of the map
+     * @param <V> the value type of the map
+     * @return an {@code ArrayBackedMap} containing the data from the given
+     * map
+     */
+    @SuppressWarnings("unchecked")
+    public static <K,V> ArrayBackedMap<K,V> copyOfCompact(Map<? extends K, ? extends V> map) {
+        if(map instanceof CompactArrayMap) {
+            return (ArrayBackedMap<K,V>)map;
+        }
+        if(map.size() > CompactArrayMap.MAX_SIZE) {
+            return copyOf(map);
+        }
+        return ImmutableArrayMapBuilder.<K,V>newMap().with(map).buildCompact();
+    }
+
     /**
      * Deserialization.
      *
@@ -301,6 +301,26 @@ public final class ImmutableArrayMapBuilder<K,V> {
         return new ImmutableArrayMap<>(elements, m_Bimap);
     }
 
+    /**
+     * Build an immutable map, using a compact representation for small maps.
+     * Maps of up to eight entries hold their keys and values in fields
+     * rather than arrays, reducing their memory footprint. Larger maps are
+     * built as for {@link #build()}.
+     * <p>
+     * Repeated calls to a builder containing a non-zero number of entries
+     * will return distinct map instances.
+     *
+     * @return an array-backed map containing the elements in the builder
+     * @throws IllegalStateException there was a duplicate key or value
+     * specified in the builder
+     */
+    public ArrayBackedMap<K,V> buildCompact() {
+        if(m_Size > CompactArrayMap.MAX_SIZE) {
+            return build();
+        }
+        return CompactArrayMap.of(m_Keys, m_Values, m_Size, m_Bimap);
+    }
+
     /**
      * Reset this builder to its initial state.
      *
@@ -22,6 +22,7 @@ public final class ImmutableArraySet<E> extends AbstractSet<E>
         implements ArrayBackedSet<E>, Serializable {
 
     private final Object[] m_Elements;
+    private transient int m_HashCode;
 
     // Singleton, as an optimization only
     private static final ImmutableArraySet<?> EMPTY = new ImmutableArraySet<>(new Object[0]);
@@ -374,12 +375,20 @@ public final class ImmutableArraySet<E> extends AbstractSet<E>
      * {@code s1.hashCode()==s2.hashCode()} for any two sets {@code s1}
      * and {@code s2}, as required by the general contract of
      * {@link Object#hashCode}.
+     * <p>
+     * The hash code is calculated on first use, and remembered thereafter.
+     * </p>
      *
      * @return the hash code value for the given set
      */
     @Override
     public int hashCode() {
-        return ArrayBackedSet.hashCode(this);
+        int h = m_HashCode;
+        if((h == 0) && (m_Elements.length > 0)) {
+            h = ArrayBackedSet.hashCode(this);
+            m_HashCode = h;
+        }
+        return h;
     }
 
     /**
@@ -436,6 +445,24 @@ public final class ImmutableArraySet<E> extends AbstractSet<E>
         return new ImmutableArraySetBuilder<E>().with(it).build();
     }
 
+    /**
+     * Returns an {@code ArrayBackedSet} that contains the elements supplied
+     * by the given {@code Iterable}. Sets of up to eight elements are held
+     * in a compact representation that keeps its elements in fields; larger
+     * sets are built as for {@link #copyOf(Iterable)}.
+     *
+     * @param it the elements to be copied
+     * @param <E> the element type of the set
+     * @return an {@code ArrayBackedSet} containing the elements from the
+     * given {@code Iterable}
+     */
+    public static <E> ArrayBackedSet<E> copyOfCompact(Iterable<E> it) {
+        if(it instanceof CompactArraySet) {
+            return (CompactArraySet<E>) it;
+        }
+        return new ImmutableArraySetBuilder<E>().with(it).buildCompact();
+    }
+
     /**
      * Deserialization.
      *
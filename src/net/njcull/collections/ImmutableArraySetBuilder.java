@@ -12,6 +12,7 @@ import java.util.*;
 public final class ImmutableArraySetBuilder<E> {
     private Object[] m_Elements = EMPTY_ELEMENTS;
     private int m_Size = 0;
+    private ImmutableCollectionInterner<? super ImmutableArraySet<E>> m_Interner;
 
     private static final Object[] EMPTY_ELEMENTS = new Object[0];
 
@@ -177,12 +178,27 @@ public final class ImmutableArraySetBuilder<E> {
         return m_Size;
     }
 
+    /**
+     * Use the supplied interner to return a canonical instance from
+     * {@link #build()}. Where an equivalent set has already been interned,
+     * that set is returned in place of the newly built set, which may then
+     * be garbage collected.
+     *
+     * @param interner the interner for canonicalising built sets, or
+     *                 {@code null} to return each set as built
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableArraySetBuilder<E> interner(ImmutableCollectionInterner<? super ImmutableArraySet<E>> interner) {
+        this.m_Interner = interner;
+        return this;
+    }
+
     /**
      * Build the immutable set. Validates all elements added, including
      * checking and removing duplicate elements as necessary.
      * <p>
      * Repeated calls to a builder containing a non-zero number of elements
-     * will return distinct set instances.
+     * will return distinct set instances, unless an interner is in use.
      *
      * @return an ImmutableArraySet containing the elements in the builder
      */
@@ -195,7 +211,7 @@ public final class ImmutableArraySetBuilder<E> {
         Object[] elements = Arrays.copyOf(m_Elements, m_Size);
 
         if (elements.length == 1) {
-            return new ImmutableArraySet<E>(elements);
+            return intern(new ImmutableArraySet<E>(elements));
         }
 
         Set<Object> dups = new HashSet<>(m_Size);
@@ -218,7 +234,35 @@ public final class ImmutableArraySetBuilder<E> {
         if(prev + 1 < elements.length) {
             Arrays.fill(elements, prev + 1, elements.length, null);
         }
-        return new ImmutableArraySet<E>(elements, 0, prev + 1);
+        return intern(new ImmutableArraySet<E>(elements, 0, prev + 1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ImmutableArraySet<E> intern(ImmutableArraySet<E> set) {
+        return (m_Interner == null) ? set : (ImmutableArraySet<E>) m_Interner.intern(set);
+    }
+
+    /**
+     * Build an immutable set, using a compact representation for small sets.
+     * Sets of up to eight elements hold their elements in fields rather than
+     * an array. Larger sets are built as for {@link #build()}. Duplicate
+     * elements are removed as necessary.
+     * <p>
+     * Repeated calls to a builder containing a non-zero number of elements
+     * will return distinct set instances.
+     *
+     * @return an array-backed set containing the elements in the builder
+     */
+    public ArrayBackedSet<E> buildCompact() {
+        if(m_Size > CompactArraySet.MAX_SIZE) {
+            ImmutableArraySet<E> set = build();
+            if(set.size() > CompactArraySet.MAX_SIZE) {
+                return set;
+            }
+            // Small enough once duplicates were removed
+            return CompactArraySet.of(set.toArray(), set.size());
+        }
+        return CompactArraySet.of(m_Elements, m_Size);
     }
 
     /**
@@ -229,6 +273,7 @@ public final class ImmutableArraySetBuilder<E> {
     public ImmutableArraySetBuilder<E> clear() {
         m_Elements = EMPTY_ELEMENTS;
         m_Size = 0;
+        m_Interner = null;
         return this;
     }
 }
@@ -0,0 +1,589 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A {@link SortedSet} of primitive {@code long} values, held in chunks so
+ * that it may contain more than {@code Integer.MAX_VALUE} elements. Elements
+ * are located by index and by value using {@code long} indexes, and values
+ * are tested using a binary search over the chunks.
+ * <p>
+ * Since the {@link Set} interface counts elements with an {@code int},
+ * {@link #size()} saturates at {@code Integer.MAX_VALUE}; {@link #longSize()}
+ * returns the exact count. The spliterator is sized with a {@code long}, so
+ * bulk operations through {@link #longStream()} see every element, and
+ * split evenly for parallel processing.
+ * </p>
+ * <p>
+ * Sub-sets are views that share the chunks of this set.
+ * </p>
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableBigSortedLongSet extends AbstractSet<Long>
+        implements SortedSet<Long>, Serializable {
+    private final long[][] m_Chunks;
+    private final long m_FromIndex;
+    private final long m_Size;
+    private transient int m_HashCode;
+
+    // Singleton, as an optimization only
+    private static final ImmutableBigSortedLongSet EMPTY = new ImmutableBigSortedLongSet(new long[0][], 0L, 0L);
+
+    // Serializable
+    private static final long serialVersionUID = -3061835452309658313L;
+
+    /**
+     * Returns an immutable empty big sorted long set. Each call to this
+     * method will return the same empty set.
+     *
+     * @return an immutable empty big sorted long set
+     */
+    public static ImmutableBigSortedLongSet emptySet() {
+        return EMPTY;
+    }
+
+    /**
+     * Create a new builder instance that builds a new big sorted long set.
+     *
+     * @return a new builder for building a new set
+     */
+    public static ImmutableBigSortedLongSetBuilder builder() {
+        return ImmutableBigSortedLongSetBuilder.newSet();
+    }
+
+    /**
+     * Returns an immutable big sorted long set containing the elements of
+     * the given collection. Duplicate elements are collapsed.
+     *
+     * @param coll the collection of elements to be copied
+     * @return an immutable big sorted long set of the given elements
+     * @throws NullPointerException if an element is {@code null}
+     */
+    public static ImmutableBigSortedLongSet copyOf(Collection<? extends Long> coll) {
+        if(coll instanceof ImmutableBigSortedLongSet) {
+            return (ImmutableBigSortedLongSet) coll;
+        }
+        ImmutableBigSortedLongSetBuilder builder = ImmutableBigSortedLongSetBuilder.newSet();
+        for(Long element : coll) {
+            builder.with(Objects.requireNonNull(element, "element must not be null").longValue());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates a new set over the given sorted, distinct chunks.
+     *
+     * @param chunks the chunks of sorted, distinct elements
+     */
+    ImmutableBigSortedLongSet(long[][] chunks) {
+        this(chunks, 0L, ChunkedArrays.length(chunks));
+    }
+
+    private ImmutableBigSortedLongSet(long[][] chunks, long fromIndex, long toIndex) {
+        this.m_Chunks = chunks;
+        this.m_FromIndex = fromIndex;
+        this.m_Size = toIndex - fromIndex;
+    }
+
+    /**
+     * Returns the number of elements in this set, or
+     * {@code Integer.MAX_VALUE} if it contains more elements than that.
+     *
+     * @return the number of elements in this set, saturated to an {@code int}
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(m_Size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the exact number of elements in this set.
+     *
+     * @return the number of elements in this set
+     */
+    public long longSize() {
+        return m_Size;
+    }
+
+    /**
+     * Returns {@code true} if this set contains no elements.
+     *
+     * @return {@code true} if this set contains no elements
+     */
+    @Override
+    public boolean isEmpty() {
+        return m_Size == 0L;
+    }
+
+    /**
+     * Returns {@code true} if this set contains the specified element.
+     *
+     * @param o element whose presence in this set is to be tested
+     * @return {@code true} if this set contains the specified element
+     */
+    @Override
+    public boolean contains(Object o) {
+        return (o instanceof Long) && contains(((Long) o).longValue());
+    }
+
+    /**
+     * Returns {@code true} if this set contains the specified value.
+     *
+     * @param value value whose presence in this set is to be tested
+     * @return {@code true} if this set contains the specified value
+     */
+    public boolean contains(long value) {
+        return search(value) >= 0L;
+    }
+
+    /**
+     * Returns the element at the given index.
+     *
+     * @param index the index of the element to be returned
+     * @return the element at the given index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public long getAtIndex(long index) {
+        if((index < 0L) || (index >= m_Size)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + m_Size);
+        }
+        return ChunkedArrays.get(m_Chunks, m_FromIndex + index);
+    }
+
+    /**
+     * Returns the index of the given value in this set, or {@code -1} if
+     * this set does not contain the value.
+     *
+     * @param value the value to be found
+     * @return the index of the value, otherwise {@code -1}
+     */
+    public long indexOf(long value) {
+        final long index = search(value);
+        return (index < 0L) ? -1L : index;
+    }
+
+    /**
+     * Returns the rank of the given value, being the number of elements in
+     * this set that are strictly less than it. This is a single binary
+     * search, and does not allocate.
+     *
+     * @param value the value to be ranked
+     * @return the number of elements in this set less than the given value
+     */
+    public long rank(long value) {
+        return boundaryIndex(search(value), false);
+    }
+
+    /**
+     * Returns the number of elements in this set that lie within the
+     * given range, without creating a sub-set. This requires two binary
+     * searches, and does not allocate.
+     *
+     * @param fromValue low endpoint of the range
+     * @param fromInclusive {@code true} if the low endpoint is to be
+     *        included in the count
+     * @param toValue high endpoint of the range
+     * @param toInclusive {@code true} if the high endpoint is to be
+     *        included in the count
+     * @return the number of elements in this set within the given range
+     * @throws IllegalArgumentException if {@code fromValue} is greater than
+     *         {@code toValue}
+     */
+    public long countInRange(long fromValue, boolean fromInclusive, long toValue, boolean toInclusive) {
+        if(fromValue > toValue) {
+            throw new IllegalArgumentException("toValue is less than fromValue");
+        }
+        final long fromIndex = boundaryIndex(search(fromValue), !fromInclusive);
+        final long toIndex = boundaryIndex(search(toValue), toInclusive);
+        return Math.max(0L, toIndex - fromIndex);
+    }
+
+    private static long boundaryIndex(long index, boolean inclusive) {
+        if(index < 0L) {
+            return -(index + 1L);
+        }
+        return inclusive ? index + 1L : index;
+    }
+
+    /**
+     * Binary search over the range of this set.
+     *
+     * @return the index of the value relative to this set, if present;
+     * otherwise {@code (-(insertion point) - 1)}
+     */
+    private long search(long value) {
+        long low = m_FromIndex;
+        long high = m_FromIndex + m_Size - 1L;
+
+        while (low <= high) {
+            final long mid = (low + high) >>> 1;
+            final long midVal = ChunkedArrays.get(m_Chunks, mid);
+
+            if (midVal < value) {
+                low = mid + 1L;
+            } else if (midVal > value) {
+                high = mid - 1L;
+            } else {
+                return mid - m_FromIndex; // key found
+            }
+        }
+        return -(low - m_FromIndex + 1L);  // key not found.
+    }
+
+    /**
+     * Returns an iterator over the elements in this set, in ascending order.
+     *
+     * @return an iterator over the elements in this set
+     */
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * Creates a {@code Spliterator} over the elements in this set.
+     *
+     * <p>The {@code Spliterator} reports {@code Spliterator.DISTINCT},
+     * {@code Spliterator.SORTED}, {@code Spliterator.ORDERED},
+     * {@code Spliterator.SIZED}, {@code Spliterator.SUBSIZED},
+     * {@code Spliterator.NONNULL}, and {@code Spliterator.IMMUTABLE}.
+     * Sizes are exact even beyond {@code Integer.MAX_VALUE} elements.
+     *
+     * @return a {@code Spliterator} over the elements in this set
+     */
+    @Override
+    public Spliterator.OfLong spliterator() {
+        return new ChunkSpliterator(m_Chunks, m_FromIndex, m_FromIndex + m_Size);
+    }
+
+    /**
+     * Returns a sequential {@code LongStream} over the elements in this set.
+     *
+     * @return a stream of the elements in this set
+     */
+    public LongStream longStream() {
+        return StreamSupport.longStream(spliterator(), false);
+    }
+
+    /**
+     * Returns {@code null}, since this set uses the natural ordering of its
+     * elements.
+     *
+     * @return {@code null}
+     */
+    @Override
+    public Comparator<? super Long> comparator() {
+        return null;
+    }
+
+    /**
+     * Returns the first (lowest) element currently in this set.
+     *
+     * @return the first (lowest) element currently in this set
+     * @throws NoSuchElementException if this set is empty
+     */
+    @Override
+    public Long first() {
+        if(m_Size == 0L) {
+            throw new NoSuchElementException("Empty set");
+        }
+        return ChunkedArrays.get(m_Chunks, m_FromIndex);
+    }
+
+    /**
+     * Returns the last (highest) element currently in this set.
+     *
+     * @return the last (highest) element currently in this set
+     * @throws NoSuchElementException if this set is empty
+     */
+    @Override
+    public Long last() {
+        if(m_Size == 0L) {
+            throw new NoSuchElementException("Empty set");
+        }
+        return ChunkedArrays.get(m_Chunks, m_FromIndex + m_Size - 1L);
+    }
+
+    /**
+     * Returns a view of the portion of this set whose elements are
+     * strictly less than {@code toElement}.
+     *
+     * @param toElement high endpoint (exclusive) of the returned set
+     * @return a view of the portion of this set whose elements are strictly
+     *         less than {@code toElement}
+     * @throws NullPointerException if {@code toElement} is null
+     */
+    @Override
+    public ImmutableBigSortedLongSet headSet(Long toElement) {
+        return subSetByIndex(0L, rank(toElement.longValue()));
+    }
+
+    /**
+     * Returns a view of the portion of this set whose elements are
+     * greater than or equal to {@code fromElement}.
+     *
+     * @param fromElement low endpoint (inclusive) of the returned set
+     * @return a view of the portion of this set whose elements are greater
+     *         than or equal to {@code fromElement}
+     * @throws NullPointerException if {@code fromElement} is null
+     */
+    @Override
+    public ImmutableBigSortedLongSet tailSet(Long fromElement) {
+        return subSetByIndex(rank(fromElement.longValue()), m_Size);
+    }
+
+    /**
+     * Returns a view of the portion of this set whose elements range
+     * from {@code fromElement}, inclusive, to {@code toElement},
+     * exclusive.
+     *
+     * @param fromElement low endpoint (inclusive) of the returned set
+     * @param toElement high endpoint (exclusive) of the returned set
+     * @return a view of the portion of this set whose elements range from
+     *         {@code fromElement}, inclusive, to {@code toElement}, exclusive
+     * @throws NullPointerException if {@code fromElement} or
+     *         {@code toElement} is null
+     * @throws IllegalArgumentException if {@code fromElement} is
+     *         greater than {@code toElement}
+     */
+    @Override
+    public ImmutableBigSortedLongSet subSet(Long fromElement, Long toElement) {
+        if(fromElement.longValue() > toElement.longValue()) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        return subSetByIndex(rank(fromElement.longValue()), rank(toElement.longValue()));
+    }
+
+    /**
+     * Returns a view of the portion of this set between the given indexes.
+     *
+     * @param fromIndex the index of the first element (inclusive)
+     * @param toIndex the index of the last element (exclusive)
+     * @return a view of the portion of this set between the given indexes
+     * @throws IndexOutOfBoundsException if either index is out of range
+     */
+    public ImmutableBigSortedLongSet subSetByIndex(long fromIndex, long toIndex) {
+        if((fromIndex < 0L) || (toIndex > m_Size) || (fromIndex > toIndex)) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", Size: " + m_Size);
+        }
+        if(fromIndex == toIndex) {
+            return EMPTY;
+        }
+        if((fromIndex == 0L) && (toIndex == m_Size)) {
+            return this;
+        }
+        return new ImmutableBigSortedLongSet(m_Chunks, m_FromIndex + fromIndex, m_FromIndex + toIndex);
+    }
+
+    /**
+     * Performs the given action for each element of this set, in ascending
+     * order.
+     *
+     * @param action the action to be performed for each element
+     */
+    public void forEachLong(LongConsumer action) {
+        spliterator().forEachRemaining(action);
+    }
+
+    /**
+     * Compares the specified object with this set for equality. Another
+     * big sorted long set is compared element by element, without boxing.
+     *
+     * @param o object to be compared for equality with this set
+     * @return {@code true} if the specified object is equal to this set
+     */
+    @Override
+    public boolean equals(Object o) {
+        if(o == this) {
+            return true;
+        }
+        if(o instanceof ImmutableBigSortedLongSet) {
+            final ImmutableBigSortedLongSet other = (ImmutableBigSortedLongSet) o;
+            if(other.m_Size != m_Size) {
+                return false;
+            }
+            for(long i = 0L; i < m_Size; i++) {
+                if(ChunkedArrays.get(m_Chunks, m_FromIndex + i) !=
+                        ChunkedArrays.get(other.m_Chunks, other.m_FromIndex + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if(!(o instanceof Set)) {
+            return false;
+        }
+        final Set<?> other = (Set<?>) o;
+        if(other.size() != m_Size) {
+            return false;
+        }
+        for(Object element : other) {
+            if(!contains(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this set, being the sum of the hash
+     * codes of its elements.
+     *
+     * @return the hash code value for this set
+     */
+    @Override
+    public int hashCode() {
+        int result = m_HashCode;
+        if(result == 0) {
+            for(long i = 0L; i < m_Size; i++) {
+                result += Long.hashCode(ChunkedArrays.get(m_Chunks, m_FromIndex + i));
+            }
+            m_HashCode = result;
+        }
+        return result;
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @param stream the object stream to be deserialized
+     * @throws ClassNotFoundException the class or descendants could not be found
+     * @throws IOException there was a problem reading the object stream
+     */
+    private void readObject(ObjectInputStream stream) throws ClassNotFoundException, IOException {
+        stream.defaultReadObject();
+
+        // Perform validation
+        if (m_Chunks == null) {
+            throw new InvalidObjectException("set must have elements");
+        }
+        if (!ChunkedArrays.isWellFormed(m_Chunks)) {
+            throw new InvalidObjectException("set chunks are malformed");
+        }
+        final long length = ChunkedArrays.length(m_Chunks);
+        if ((m_FromIndex < 0L) || (m_Size < 0L) || (m_FromIndex > length - m_Size)) {
+            throw new InvalidObjectException("set range is out of bounds");
+        }
+
+        // Scan to ensure ordering is strictly ascending
+        for (long i = 1L; i < m_Size; i++) {
+            if (ChunkedArrays.get(m_Chunks, m_FromIndex + i - 1L) >= ChunkedArrays.get(m_Chunks, m_FromIndex + i)) {
+                throw new InvalidObjectException("set is not strictly ascending");
+            }
+        }
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @return the resolved object
+     */
+    private Object readResolve() {
+        if(m_Size == 0L) {
+            // optimization only
+            return EMPTY;
+        }
+        return this;
+    }
+
+    /**
+     * Spliterator over a range of the chunks, addressed with {@code long}
+     * indexes. Splits halve the remaining range.
+     */
+    private static final class ChunkSpliterator implements Spliterator.OfLong {
+        private final long[][] m_Chunks;
+        private long m_Index;
+        private final long m_End;
+
+        ChunkSpliterator(long[][] chunks, long index, long end) {
+            this.m_Chunks = chunks;
+            this.m_Index = index;
+            this.m_End = end;
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            final long lo = m_Index;
+            final long mid = (lo + m_End) >>> 1;
+            if(lo >= mid) {
+                return null;
+            }
+            m_Index = mid;
+            return new ChunkSpliterator(m_Chunks, lo, mid);
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            Objects.requireNonNull(action);
+            if(m_Index < m_End) {
+                action.accept(ChunkedArrays.get(m_Chunks, m_Index++));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Long> action) {
+            if(action instanceof LongConsumer) {
+                return tryAdvance((LongConsumer) action);
+            }
+            Objects.requireNonNull(action);
+            return tryAdvance((LongConsumer) action::accept);
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            Objects.requireNonNull(action);
+            long index = m_Index;
+            final long end = m_End;
+            m_Index = end;
+            // Walk each chunk directly, rather than shifting every index
+            while(index < end) {
+                final long[] chunk = m_Chunks[(int) (index >>> ChunkedArrays.CHUNK_SHIFT)];
+                final int from = (int) index & ChunkedArrays.CHUNK_MASK;
+                final int to = (int) Math.min(chunk.length, from + (end - index));
+                for(int i = from; i < to; i++) {
+                    action.accept(chunk[i]);
+                }
+                index += to - from;
+            }
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Long> action) {
+            if(action instanceof LongConsumer) {
+                forEachRemaining((LongConsumer) action);
+            } else {
+                Objects.requireNonNull(action);
+                forEachRemaining((LongConsumer) action::accept);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return m_End - m_Index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.ORDERED |
+                    Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL |
+                    Spliterator.IMMUTABLE;
+        }
+
+        @Override
+        public Comparator<? super Long> getComparator() {
+            return null;
+        }
+    }
+}
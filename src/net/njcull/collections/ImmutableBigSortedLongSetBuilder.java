@@ -0,0 +1,334 @@
+package net.njcull.collections;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Builder for the {@link ImmutableBigSortedLongSet} class. Values are
+ * gathered into chunks, so that more than {@code Integer.MAX_VALUE} values
+ * may be added. Duplicate values are collapsed when the set is built.
+ * <p>
+ * Building sorts each chunk in place in parallel, then merges the sorted
+ * chunks directly into the chunks of the new set. The merge is split into
+ * partitions of values, merged in parallel on the common
+ * {@link ForkJoinPool}, so building needs no memory beyond the gathered
+ * values and the new set.
+ * </p>
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableBigSortedLongSetBuilder {
+    private long[][] m_Chunks = EMPTY_CHUNKS;
+    private long m_Size = 0L;
+
+    private static final long[][] EMPTY_CHUNKS = new long[0][];
+
+    /**
+     * The number of merge partitions for each thread of the common pool,
+     * so that uneven partitions still keep every thread busy.
+     */
+    private static final int PARTITIONS_PER_THREAD = 4;
+
+    /**
+     * Create a new builder instance that builds a new big sorted long set.
+     *
+     * @return a new builder for building a new set
+     */
+    public static ImmutableBigSortedLongSetBuilder newSet() {
+        return new ImmutableBigSortedLongSetBuilder();
+    }
+
+    /**
+     * Create a new builder instance for constructing a new big sorted long
+     * set.
+     */
+    public ImmutableBigSortedLongSetBuilder() {
+    }
+
+    /**
+     * Add the given value to the resulting set.
+     *
+     * @param value the value to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableBigSortedLongSetBuilder with(long value) {
+        final int offset = (int) m_Size & ChunkedArrays.CHUNK_MASK;
+        if(offset == 0) {
+            addChunk();
+        }
+        m_Chunks[(int) (m_Size >>> ChunkedArrays.CHUNK_SHIFT)][offset] = value;
+        m_Size++;
+        return this;
+    }
+
+    /**
+     * Add the given values to the resulting set.
+     *
+     * @param values the values to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableBigSortedLongSetBuilder with(long... values) {
+        for(long value : values) {
+            with(value);
+        }
+        return this;
+    }
+
+    private void addChunk() {
+        final int count = (int) (m_Size >>> ChunkedArrays.CHUNK_SHIFT);
+        if(count == m_Chunks.length) {
+            if(count >= Integer.MAX_VALUE - 8) {
+                throw new OutOfMemoryError("too many chunks: " + count);
+            }
+            m_Chunks = Arrays.copyOf(m_Chunks, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(8L, count + ((long) count >> 1))));
+        }
+        if(m_Chunks[count] == null) {
+            m_Chunks[count] = new long[ChunkedArrays.CHUNK_SIZE];
+        }
+    }
+
+    /**
+     * For the stream combiner, merge the values from the supplied builder
+     * to this builder.
+     *
+     * @param values the builder containing the values to be merged into
+     * this builder
+     * @return this builder containing the merged items
+     */
+    public ImmutableBigSortedLongSetBuilder merge(ImmutableBigSortedLongSetBuilder values) {
+        final long size = values.m_Size;
+        for(long i = 0L; i < size; i++) {
+            with(ChunkedArrays.get(values.m_Chunks, i));
+        }
+        return this;
+    }
+
+    /**
+     * Returns the number of values in this builder.
+     *
+     * @return the number of values in this builder
+     */
+    public long size() {
+        return m_Size;
+    }
+
+    /**
+     * Build a new big sorted long set from the values added to this
+     * builder. Duplicate values are collapsed. The builder may be reused
+     * afterward, although the values it holds will have been sorted.
+     *
+     * @return a new big sorted long set
+     */
+    public ImmutableBigSortedLongSet build() {
+        final long size = m_Size;
+        if(size == 0L) {
+            return ImmutableBigSortedLongSet.emptySet();
+        }
+
+        // Each chunk of the builder is sorted in place, as a run of its own
+        final long[][] runs = m_Chunks;
+        final int runCount = (int) ((size + ChunkedArrays.CHUNK_MASK) >>> ChunkedArrays.CHUNK_SHIFT);
+        final int[] runLengths = new int[runCount];
+        for(int r = 0; r < runCount; r++) {
+            runLengths[r] = (int) Math.min(ChunkedArrays.CHUNK_SIZE, size - ((long) r << ChunkedArrays.CHUNK_SHIFT));
+        }
+        IntStream.range(0, runCount).parallel().forEach(r -> Arrays.sort(runs[r], 0, runLengths[r]));
+
+        // Merge the runs into the result, one partition of values per task
+        final long[][] dest = ChunkedArrays.newLongChunks(size);
+        final int parts = (int) Math.min(Math.min(runCount, (long) PARTITIONS_PER_THREAD * ForkJoinPool.getCommonPoolParallelism()),
+                1L + (Integer.MAX_VALUE - 8) / runCount);
+        final int[][] bounds = partition(runs, runLengths, parts);
+        IntStream.range(0, parts).parallel().forEach(p -> mergeRuns(runs, bounds[p], bounds[p + 1], dest));
+
+        return new ImmutableBigSortedLongSet(distinct(dest, size));
+    }
+
+    /**
+     * Split the sorted runs into partitions of roughly equal size that can
+     * be merged independently, by splitting values sampled evenly from
+     * every run. Returns the start of each partition within every run,
+     * followed by the length of every run.
+     */
+    private static int[][] partition(long[][] runs, int[] runLengths, int parts) {
+        final int runCount = runLengths.length;
+        final long[] samples = new long[runCount * (parts - 1)];
+        int n = 0;
+        for(int r = 0; r < runCount; r++) {
+            for(int s = 1; s < parts; s++) {
+                samples[n++] = runs[r][(int) ((long) runLengths[r] * s / parts)];
+            }
+        }
+        Arrays.sort(samples);
+
+        final int[][] bounds = new int[parts + 1][];
+        bounds[0] = new int[runCount];
+        for(int p = 1; p < parts; p++) {
+            final long splitter = samples[(int) ((long) samples.length * p / parts)];
+            bounds[p] = new int[runCount];
+            for(int r = 0; r < runCount; r++) {
+                bounds[p][r] = lowerBound(runs[r], bounds[p - 1][r], runLengths[r], splitter);
+            }
+        }
+        bounds[parts] = runLengths;
+        return bounds;
+    }
+
+    /**
+     * Merge the given range of every run into the destination, at the
+     * position following every value before the range. The run with the
+     * smallest next value is kept at the top of a heap, and its values up
+     * to the next value of any other run are copied as a block.
+     */
+    private static void mergeRuns(long[][] runs, int[] from, int[] to, long[][] dest) {
+        final int runCount = from.length;
+        final int[] pos = from.clone();
+        final int[] heap = new int[runCount];
+        long out = 0L;
+        int count = 0;
+        for(int r = 0; r < runCount; r++) {
+            out += from[r];
+            if(from[r] < to[r]) {
+                heap[count++] = r;
+            }
+        }
+        for(int i = (count >>> 1) - 1; i >= 0; i--) {
+            siftDown(runs, pos, heap, count, i);
+        }
+
+        while(count > 0) {
+            final int r = heap[0];
+            final int start = pos[r];
+            int end = to[r];
+            if(count > 1) {
+                long bound = runs[heap[1]][pos[heap[1]]];
+                if(count > 2) {
+                    bound = Math.min(bound, runs[heap[2]][pos[heap[2]]]);
+                }
+                end = upperBound(runs[r], start, end, bound);
+            }
+            ChunkedArrays.copy(runs[r], start, dest, out, end - start);
+            out += end - start;
+            pos[r] = end;
+            if(end == to[r]) {
+                heap[0] = heap[--count];
+            }
+            if(count > 0) {
+                siftDown(runs, pos, heap, count, 0);
+            }
+        }
+    }
+
+    private static void siftDown(long[][] runs, int[] pos, int[] heap, int count, int i) {
+        final int r = heap[i];
+        final long value = runs[r][pos[r]];
+        int child;
+        while((child = (i << 1) + 1) < count) {
+            if((child + 1 < count) && (runs[heap[child + 1]][pos[heap[child + 1]]] < runs[heap[child]][pos[heap[child]]])) {
+                child++;
+            }
+            if(value <= runs[heap[child]][pos[heap[child]]]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = r;
+    }
+
+    /**
+     * Returns the index of the first value in the range that is not
+     * less than the given value.
+     */
+    private static int lowerBound(long[] run, int from, int to, long value) {
+        int low = from;
+        int high = to;
+        while(low < high) {
+            final int mid = (low + high) >>> 1;
+            if(run[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first value in the range that is greater
+     * than the given value, where the first value in the range is known
+     * not to be. Galloping forward first keeps the search short when only
+     * a few values are to be copied.
+     */
+    private static int upperBound(long[] run, int from, int to, long value) {
+        int low = from;
+        int high = from + 1;
+        int step = 1;
+        while((high < to) && (run[high] <= value)) {
+            low = high;
+            step <<= 1;
+            high = low + step;
+        }
+        high = Math.min(high, to);
+        low++;
+        while(low < high) {
+            final int mid = (low + high) >>> 1;
+            if(run[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Collapse duplicate values in place, and trim the chunks to the
+     * remaining length.
+     */
+    private static long[][] distinct(long[][] chunks, long size) {
+        long[] out = chunks[0];
+        int outChunk = 0;
+        int outIndex = 1;
+        long count = 1L;
+        long prev = out[0];
+        for(int c = 0; c < chunks.length; c++) {
+            final long[] chunk = chunks[c];
+            for(int i = (c == 0) ? 1 : 0; i < chunk.length; i++) {
+                final long value = chunk[i];
+                if(value != prev) {
+                    if(outIndex == ChunkedArrays.CHUNK_SIZE) {
+                        out = chunks[++outChunk];
+                        outIndex = 0;
+                    }
+                    out[outIndex++] = value;
+                    count++;
+                    prev = value;
+                }
+            }
+        }
+        if(count == size) {
+            return chunks;
+        }
+        final int chunkCount = (int) ((count + ChunkedArrays.CHUNK_MASK) >>> ChunkedArrays.CHUNK_SHIFT);
+        final long[][] result = Arrays.copyOf(chunks, chunkCount);
+        final int last = (int) (count - ((long) (chunkCount - 1) << ChunkedArrays.CHUNK_SHIFT));
+        if(last != result[chunkCount - 1].length) {
+            result[chunkCount - 1] = Arrays.copyOf(result[chunkCount - 1], last);
+        }
+        return result;
+    }
+
+    /**
+     * Clears this builder, allowing it to be reused.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableBigSortedLongSetBuilder clear() {
+        m_Chunks = EMPTY_CHUNKS;
+        m_Size = 0L;
+        return this;
+    }
+}
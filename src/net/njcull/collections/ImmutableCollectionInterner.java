@@ -0,0 +1,209 @@
+package net.njcull.collections;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An interner for immutable collections, returning a single canonical
+ * instance for each group of equivalent collections. Where many objects hold
+ * structurally identical collections, interning them lets the duplicates be
+ * garbage collected.
+ * <p>
+ * Two collections are equivalent for interning when they are of the same
+ * class, are equal, and, for array-backed collections, hold their elements
+ * in the same order. Sorted sets must also have equal comparators. This
+ * ensures the canonical instance behaves identically to the collection it
+ * replaces, including its iteration order and indexed access.
+ * </p>
+ * <p>
+ * Canonical instances are held by weak references in a concurrent table,
+ * searched by the hash code of the collection. The immutable sets in this
+ * package remember their hash codes, so a collection is hashed only once.
+ * A canonical instance is removed from the table once it is no longer
+ * referenced elsewhere. The interner is safe for use by multiple threads.
+ * </p>
+ * <p>
+ * Only immutable collections should be interned, since a canonical instance
+ * is shared by every caller that interned an equivalent collection.
+ * </p>
+ *
+ * @param <C> the type of collections to be interned
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableCollectionInterner<C extends Collection<?>> {
+
+    private final ConcurrentHashMap<Object, WeakKey<C>> m_Table = new ConcurrentHashMap<>();
+    private final ReferenceQueue<C> m_Queue = new ReferenceQueue<>();
+
+    private ImmutableCollectionInterner() {
+    }
+
+    /**
+     * Create a new, empty interner.
+     *
+     * @param <C> the type of collections to be interned
+     * @return a new interner
+     */
+    public static <C extends Collection<?>> ImmutableCollectionInterner<C> newInterner() {
+        return new ImmutableCollectionInterner<>();
+    }
+
+    /**
+     * Returns the canonical instance of the given collection. If an
+     * equivalent collection has already been interned and is still
+     * referenced, that collection is returned. Otherwise the given
+     * collection becomes the canonical instance and is returned.
+     *
+     * @param collection the collection to be interned
+     * @return the canonical instance equivalent to the given collection
+     */
+    public C intern(C collection) {
+        Objects.requireNonNull(collection, "collection must not be null");
+        expunge();
+
+        final StrongKey probe = new StrongKey(collection);
+        WeakKey<C> key = null;
+        while(true) {
+            final WeakKey<C> existing = m_Table.get(probe);
+            if(existing != null) {
+                final C canonical = existing.get();
+                if(canonical != null) {
+                    return canonical;
+                }
+                // Cleared but not yet expunged
+                m_Table.remove(existing, existing);
+                continue;
+            }
+            if(key == null) {
+                key = new WeakKey<>(collection, probe.m_Hash, m_Queue);
+            }
+            if(m_Table.putIfAbsent(key, key) == null) {
+                return collection;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of canonical instances held by this interner.
+     * Instances that are no longer referenced elsewhere may be included
+     * until they are removed.
+     *
+     * @return the number of canonical instances
+     */
+    public int size() {
+        expunge();
+        return m_Table.size();
+    }
+
+    /**
+     * Remove all canonical instances from this interner.
+     */
+    public void clear() {
+        m_Table.clear();
+        expunge();
+    }
+
+    private void expunge() {
+        Reference<? extends C> ref;
+        while((ref = m_Queue.poll()) != null) {
+            m_Table.remove(ref, ref);
+        }
+    }
+
+    /**
+     * Returns {@code true} if the two collections are equivalent for
+     * interning purposes.
+     */
+    private static boolean equivalent(Collection<?> a, Collection<?> b) {
+        if(a == b) {
+            return true;
+        }
+        if(a.getClass() != b.getClass()) {
+            return false;
+        }
+        if((a instanceof SortedSet) &&
+                !Objects.equals(((SortedSet<?>) a).comparator(), ((SortedSet<?>) b).comparator())) {
+            return false;
+        }
+        if(a instanceof ArrayBackedCollection) {
+            return ((ArrayBackedCollection<?>) a).asList().equals(((ArrayBackedCollection<?>) b).asList());
+        }
+        return a.equals(b);
+    }
+
+    /**
+     * A weakly held canonical instance, used as both key and value in the
+     * table. Once cleared, it is equal only to itself.
+     */
+    private static final class WeakKey<C extends Collection<?>> extends WeakReference<C> {
+        private final int m_Hash;
+
+        WeakKey(C collection, int hash, ReferenceQueue<C> queue) {
+            super(collection, queue);
+            this.m_Hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return m_Hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(obj == this) {
+                return true;
+            }
+            final Collection<?> other;
+            if(obj instanceof WeakKey) {
+                if(((WeakKey<?>) obj).m_Hash != m_Hash) {
+                    return false;
+                }
+                other = ((WeakKey<?>) obj).get();
+            } else if(obj instanceof StrongKey) {
+                if(((StrongKey) obj).m_Hash != m_Hash) {
+                    return false;
+                }
+                other = ((StrongKey) obj).m_Collection;
+            } else {
+                return false;
+            }
+            final C collection = get();
+            return (collection != null) && (other != null) && equivalent(collection, other);
+        }
+    }
+
+    /**
+     * A strongly held collection, used for searching the table.
+     */
+    private static final class StrongKey {
+        private final Collection<?> m_Collection;
+        private final int m_Hash;
+
+        StrongKey(Collection<?> collection) {
+            this.m_Collection = collection;
+            this.m_Hash = collection.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return m_Hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(obj == this) {
+                return true;
+            }
+            if(obj instanceof WeakKey) {
+                return obj.equals(this);
+            }
+            return false;
+        }
+    }
+}
@@ -5,6 +5,8 @@ import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -14,14 +16,39 @@ import java.util.function.BiConsumer;
 /**
  * A {@link Map} backed by an array of elements, and a separate array of
  * hash codes. The arrays are the exact length required to contain the keys and
- * values, and their corresponding hash codes. Keys and values are stored
- * together in key order. Both keys and values are indexed with their hash codes
- * in a separate array of ints.
+ * values, and the hash codes of the keys. Keys and values are stored
+ * together in key order. Keys are indexed with their hash codes in a separate
+ * array of ints.
+ * <p>
+ * Values are indexed with their hash codes only when the map is first
+ * searched by value, since many maps are never searched by value, and
+ * hashing large values can be expensive.
+ * </p>
  * <p>
  * Keys and values are tested using a linear search implementation.
  * Searches are performed by testing the hash codes. If the hash codes match,
  * the key or value is then tested for equality. This allows for a fast,
- * cache-friendly, linear scan of elements in the map.
+ * cache-friendly, linear scan of elements in the map. For a bi-map, values
+ * are tested using a hash index, built on first use.
+ * </p>
+ * <p>
+ * A map may instead be built with a minimal perfect hash function over its
+ * keys, in which case the key hash codes are not kept. Searching by key then
+ * requires a single hash evaluation and a single equality test, in constant
+ * time, using about three bits per key. Entries of such a map are stored in
+ * hash order rather than insertion order.
+ * </p>
+ * <p>
+ * A map that is not a bi-map may also be built with its values dictionary
+ * encoded. Each distinct value is stored once, and each entry holds a byte,
+ * short, or int code for its value, depending on the number of distinct
+ * values. Searching by value then requires constant time.
+ * </p>
+ * <p>
+ * The builder holds the keys, values and key hash codes of a large map in
+ * fixed-size chunks, so that the G1 collector need not allocate them as
+ * humongous objects. They are then found by index arithmetic over the
+ * chunks, behind the same methods.
  * </p>
  * <p>
  * The map's keyset and entryset views may also be viewed as a {@link List}.
@@ -36,8 +63,23 @@ public final class ImmutableHashedArrayMap<K,V> extends AbstractMap<K,V>
         implements ArrayBackedMap<K,V>, Serializable {
 
     private final Object[] m_Map;
+    private final Object[][] m_MapChunks;
+    private final ValueDictionary m_Dictionary;
     private transient int[] m_HashCodes;
+    private transient int[][] m_HashCodeChunks;
+    private transient volatile int[] m_ValueHashCodes;
+    private transient volatile int[][] m_ValueHashCodeChunks;
     private final boolean m_BiMap;
+    private final boolean m_PerfectHash;
+    private transient MinimalPerfectHash m_HashFunction;
+    private transient volatile int[] m_ValueIndex;
+    private transient volatile int[][] m_ValueIndexChunks;
+
+    // Batched perfect hash searches place this many keys before comparing
+    private static final int PROBE_GROUP_SIZE = 16;
+
+    // Placeholder for the flat array of a chunked map
+    private static final Object[] EMPTY_ELEMENTS = new Object[0];
 
     // Singleton, as an optimization only
     private static final ImmutableHashedArrayMap<?,?> EMPTY = new ImmutableHashedArrayMap<>(new Object[0], new int[0], true);
@@ -58,16 +100,88 @@ public final class ImmutableHashedArrayMap<K,V> extends AbstractMap<K,V>
         return (ImmutableHashedArrayMap<K,V>) EMPTY;
     }
 
-    ImmutableHashedArrayMap(Object[] map, int[] hashCodes, boolean biMap) {
+    ImmutableHashedArrayMap(Object[] map, int[] keyHashCodes, boolean biMap) {
+        this(map, null, keyHashCodes, biMap);
+    }
+
+    ImmutableHashedArrayMap(Object[] map, ValueDictionary dictionary, int[] keyHashCodes, boolean biMap) {
         this.m_Map = Objects.requireNonNull(map, "map must not be null");
-        if((map.length % 2) != 0) {
-            throw new IllegalArgumentException("map must contain same number of keys and values");
+        this.m_MapChunks = null;
+        this.m_Dictionary = dictionary;
+        checkLayout(map.length, dictionary);
+        this.m_HashCodes = Objects.requireNonNull(keyHashCodes, "hashcodes must not be null");
+        if(size() != keyHashCodes.length) {
+            throw new IllegalArgumentException("map must contain same number of keys and hashcodes");
         }
-        this.m_HashCodes = Objects.requireNonNull(hashCodes, "hashcodes must not be null");
-        if(map.length != hashCodes.length) {
-            throw new IllegalArgumentException("map must contain same number of entries and hashcodes");
+        this.m_BiMap = biMap;
+        this.m_PerfectHash = false;
+    }
+
+    ImmutableHashedArrayMap(Object[][] mapChunks, ValueDictionary dictionary, int[][] keyHashCodeChunks, boolean biMap) {
+        this.m_Map = EMPTY_ELEMENTS;
+        this.m_MapChunks = Objects.requireNonNull(mapChunks, "map must not be null");
+        this.m_Dictionary = dictionary;
+        checkLayout(ChunkedArrays.length(mapChunks), dictionary);
+        this.m_HashCodeChunks = Objects.requireNonNull(keyHashCodeChunks, "hashcodes must not be null");
+        if(size() != ChunkedArrays.length(keyHashCodeChunks)) {
+            throw new IllegalArgumentException("map must contain same number of keys and hashcodes");
         }
         this.m_BiMap = biMap;
+        this.m_PerfectHash = false;
+    }
+
+    ImmutableHashedArrayMap(Object[] map, MinimalPerfectHash hashFunction, boolean biMap) {
+        this(map, null, hashFunction, biMap);
+    }
+
+    ImmutableHashedArrayMap(Object[] map, ValueDictionary dictionary, MinimalPerfectHash hashFunction, boolean biMap) {
+        this.m_Map = Objects.requireNonNull(map, "map must not be null");
+        this.m_MapChunks = null;
+        this.m_Dictionary = dictionary;
+        checkLayout(map.length, dictionary);
+        this.m_HashFunction = Objects.requireNonNull(hashFunction, "hash function must not be null");
+        this.m_BiMap = biMap;
+        this.m_PerfectHash = true;
+    }
+
+    ImmutableHashedArrayMap(Object[][] mapChunks, ValueDictionary dictionary, MinimalPerfectHash hashFunction, boolean biMap) {
+        this.m_Map = EMPTY_ELEMENTS;
+        this.m_MapChunks = Objects.requireNonNull(mapChunks, "map must not be null");
+        this.m_Dictionary = dictionary;
+        checkLayout(ChunkedArrays.length(mapChunks), dictionary);
+        this.m_HashFunction = Objects.requireNonNull(hashFunction, "hash function must not be null");
+        this.m_BiMap = biMap;
+        this.m_PerfectHash = true;
+    }
+
+    private static void checkLayout(int length, ValueDictionary dictionary) {
+        if(dictionary == null) {
+            if((length % 2) != 0) {
+                throw new IllegalArgumentException("map must contain same number of keys and values");
+            }
+        } else if(length != dictionary.size()) {
+            throw new IllegalArgumentException("map must contain same number of keys and values");
+        }
+    }
+
+    /**
+     * Create a map over the given chunks, keeping them as chunks if they
+     * are long enough that a single array would be allocated as a humongous
+     * object, and otherwise joining them into single arrays. The key hash
+     * codes are kept only if there is no perfect hash function.
+     */
+    static <K,V> ImmutableHashedArrayMap<K,V> fromChunks(Object[][] map, ValueDictionary dictionary,
+                int[][] keyHashCodes, MinimalPerfectHash hashFunction, boolean biMap) {
+        if(ChunkedArrays.length(map) >= ChunkedArrays.MIN_CHUNKED_LENGTH) {
+            if(hashFunction != null) {
+                return new ImmutableHashedArrayMap<>(map, dictionary, hashFunction, biMap);
+            }
+            return new ImmutableHashedArrayMap<>(map, dictionary, keyHashCodes, biMap);
+        }
+        if(hashFunction != null) {
+            return new ImmutableHashedArrayMap<>(ChunkedArrays.join(map), dictionary, hashFunction, biMap);
+        }
+        return new ImmutableHashedArrayMap<>(ChunkedArrays.join(map), dictionary, ChunkedArrays.join(keyHashCodes), biMap);
     }
 
     /**
@@ -77,7 +191,7 @@ public final class ImmutableHashedArrayMap<K,V> extends AbstractMap<K,V>
      */
     @Override
     public int size() {
-        return m_Map.length / 2;
+        return (m_Dictionary == null) ? mapLength() / 2 : mapLength();
     }
 
     /**
@@ -87,7 +201,7 @@ public final class ImmutableHashedArrayMap<K,V> extends AbstractMap<K,V>
      */
     @Override
     public boolean isEmpty() {
-        return m_Map.length == 0;
+        return mapLength() == 0;
     }
 
     /**
@@ -95,7 +209,9 @@ public final class ImmutableHashedArrayMap<K,V> extends AbstractMap<K,V>
      * key.  More formally, returns {@code true} if and only if
      * this map contains a mapping for a key {@code k} such that
      * {@code (key==null ? k==null : key.equals(k))}.  This operation
-     * requires time linear in the map size for this implementation.
+     * requires time linear in the map size for this implementation, unless
+     * the map was built with a perfect hash function, when it requires
+     * constant time.
      *
      * @param key key whose presence in this map is to be tested
      * @return {@code true} if this map contains a mapping for the specified
@@ -103,16 +219,10 @@ public final class ImmutableHashedArrayMap<K,V> extends AbstractMap<K,V>
      */
     @Override
     public boolean containsKey(Object key) {
-        final int size = m_Map.length / 2;
-        final int hc = Objects.hashCode(key);
-        for(int i = 0; i < size; i++) {
-            if(hc == m_HashCodes[i]) {
-                if(Objects.equals(key, m_Map[i])) {
-                    return true;
-                }
-            }
+        if(m_HashFunction != null) {
+            return indexOfKeyPerfect(key) >= 0;
         }
-        return false;
+        return indexOfKeyScan(key) >= 0;
     }
 
     /**
@@ -120,7 +230,9 @@ public final class ImmutableHashedArrayMap<K,V> extends AbstractMap<K,V>
      * specified value.  More formally, returns {@code true} if and only if
      * this map contains at least one mapping to a value {@code v} such that
      * {@code (value==null ? v==null : value.equals(v))}.  This operation
-     * requires time linear in the map size for this implementation.
+     * requires time linear in the map size for this implementation, unless
+     * the map is a bi-map, or has a value dictionary, when it requires
+     * constant time.
      *
      * @param value value whose presence in this map is to be tested
      * @return {@code true} if this map maps one or more keys to the
@@ -128,17 +240,14 @@ public final class ImmutableHashedArrayMap<K,V> extends AbstractMap<K,V>
      */
     @Override
     public boolean containsValue(Object value) {
-        final int size = m_Map.length / 2;
-        final int hc = Objects.hashCode(value);
-
-        for(int i = 0; i < size; i++) {
-            if(hc == m_HashCodes[size + i]) {
-                if(Objects.equals(value, m_Map[size + i])) {
-                    return true;
-                }
-            }
+        if(m_Dictionary != null) {
+            return m_Dictionary.containsValue(value);
         }
-        return false;
+        final int size = size();
+        if(m_BiMap && (size >= ArrayHashIndex.MIN_INDEXED_SIZE)) {
+            return indexOfValueIndexed(value, size) >= 0;
+        }
+        return indexOfValueScan(value, size) >= 0;
     }
 
     /**
@@ -157,19 +266,12 @@ public final class ImmutableHashedArrayMap<K,V> extends AbstractMap<K,V>
     @SuppressWarnings("unchecked")
     @Override
     public V get(Object key) {
-        final int size = m_Map.length / 2;
-        final int hc = Objects.hashCode(key);
-
-        for(int i = 0; i < size; i++) {
-            if(hc == m_HashCodes[i]) {
-                if (key == m_Map[i]) {
-                    return (V) m_Map[size + i];
-                } else if ((key != null) && (key.equals(m_Map[i]))) {
-                    return (V) m_Map[size + i];
-                }
-            }
+        if(m_HashFunction != null) {
+            final int idx = indexOfKeyPerfect(key);
+            return (idx >= 0) ? (V) value(idx) : null;
         }
-        return null;
+        final int idx = indexOfKeyScan(key);
+        return (idx >= 0) ? (V) value(idx) : null;
     }
 
     /**
@@ -184,12 +286,12 @@ public final class ImmutableHashedArrayMap<K,V> extends AbstractMap<K,V>
     @SuppressWarnings("unchecked")
     @Override
     public Entry<K,V> entryAt(int index) {
-        final int size = m_Map.length / 2;
+        final int size = size();
         if((index < 0) || (index >= size)) {
             throw new IndexOutOfBoundsException("index: " + index);
         }
-        K key = (K) m_Map[index];
-        V value = (V) m_Map[size + index];
+        K key = (K) element(index);
+        V value = (V) value(index);
         return new SimpleImmutableEntry<K, V>(key, value);
     }
 
@@ -204,10 +306,10 @@ public final class ImmutableHashedArrayMap<K,V> extends AbstractMap<K,V>
     @SuppressWarnings("unchecked")
     @Override
     public K keyAt(int index) {
-        if((index < 0) || (index >= m_Map.length / 2)) {
+        if((index < 0) || (index >= size())) {
             throw new IndexOutOfBoundsException("index: " + index);
         }
-        K key = (K) m_Map[index];
+        K key = (K) element(index);
         return key;
     }
 
@@ -222,11 +324,11 @@ public final class ImmutableHashedArrayMap<K,V> extends AbstractMap<K,V>
     @SuppressWarnings("unchecked")
     @Override
     public V valueAt(int index) {
-        final int size = m_Map.length / 2;
+        final int size = size();
         if((index < 0) || (index >= size)) {
             throw new IndexOutOfBoundsException("index: " + index);
         }
-        V value = (V) m_Map[size + index];
+        V value = (V) value(index);
         return value;
     }
 
@@ -239,12 +341,57 @@ public final class ImmutableHashedArrayMap<K,V> extends AbstractMap<K,V>
      */
     @Override
     public int indexOfKey(Object key) {
-        final int size = m_Map.length / 2;
+        if(m_HashFunction != null) {
+            return indexOfKeyPerfect(key);
+        }
+        return indexOfKeyScan(key);
+    }
+
+    /**
+     * Search for the key by scanning the key hash codes, testing the keys
+     * whose hash codes match for equality.
+     */
+    private int indexOfKeyScan(Object key) {
+        final int size = size();
+        final int hc = Objects.hashCode(key);
+        if(m_HashCodeChunks != null) {
+            int i = ChunkedArrays.indexOf(m_HashCodeChunks, 0, size, hc);
+            while(i >= 0) {
+                if(Objects.equals(key, ChunkedArrays.get(m_MapChunks, i))) {
+                    return i;
+                }
+                i = ChunkedArrays.indexOf(m_HashCodeChunks, i + 1, size, hc);
+            }
+            return -1;
+        }
+        int i = HashCodeScan.indexOf(m_HashCodes, 0, size, hc);
+        while(i >= 0) {
+            if(Objects.equals(key, m_Map[i])) {
+                return i;
+            }
+            i = HashCodeScan.indexOf(m_HashCodes, i + 1, size, hc);
+        }
+        return -1;
+    }
+
+    /**
+     * Search for the key using the perfect hash function. Keys that were not
+     * placed by the function are in the overflow positions at the end of the
+     * map, ordered by hash code, where a binary search finds the keys with
+     * the same hash code.
+     */
+    private int indexOfKeyPerfect(Object key) {
         final int hc = Objects.hashCode(key);
+        final int pos = m_HashFunction.positionOf(hc);
+        if(pos >= 0) {
+            return Objects.equals(key, element(pos)) ? pos : -1;
+        }
 
-        for(int i = 0; i < size; i++) {
-            if(hc == m_HashCodes[i]) {
-                if(Objects.equals(key, m_Map[i])) {
+        final int size = size();
+        int i = m_HashFunction.overflowPositionOf(hc);
+        if(i >= 0) {
+            for(; (i < size) && (m_HashFunction.overflowHashCodeAt(i) == hc); i++) {
+                if(Objects.equals(key, element(i))) {
                     return i;
                 }
             }
@@ -252,6 +399,167 @@ public final class ImmutableHashedArrayMap<K,V> extends AbstractMap<K,V>
         return -1;
     }
 
+    /**
+     * Finds the array index of each of the given keys in a single batch.
+     * <p>
+     * Rather than scanning the key hash codes once for each key, a hash
+     * index is built over the batch of keys, and the key hash codes of this
+     * map are scanned once, probing the index for each. The scan stops as
+     * soon as every distinct key has been found. A small batch is searched
+     * one key at a time.
+     * </p>
+     * <p>
+     * A map with a perfect hash function is searched in groups of keys,
+     * in stages: every key in the group is hashed and placed, and only then
+     * are the keys in the placed positions compared. The memory accesses
+     * within each stage are independent, so their cache misses overlap.
+     * </p>
+     *
+     * @param keys the keys to be found in the map
+     * @param out receives, at the position of each key, its index in the
+     * map, or {@code -1} if the key is absent
+     * @return the number of keys found in the map
+     * @throws IllegalArgumentException if {@code out} is shorter than
+     * {@code keys}
+     */
+    public int indexOfKeys(Object[] keys, int[] out) {
+        final int count = keys.length;
+        if(out.length < count) {
+            throw new IllegalArgumentException("output array is shorter than keys");
+        }
+        if(m_HashFunction != null) {
+            return indexOfKeysPerfect(keys, out);
+        }
+        int found = 0;
+        if(count < ArrayHashIndex.MIN_INDEXED_SIZE) {
+            for(int i = 0; i < count; i++) {
+                final int idx = indexOfKey(keys[i]);
+                out[i] = idx;
+                if(idx >= 0) {
+                    found++;
+                }
+            }
+            return found;
+        }
+
+        // Repeated keys are marked with the position of their first
+        // occurrence, encoded below -1, and resolved after the scan
+        final int[] table = ArrayHashIndex.build(keys, 0, count);
+        int remaining = 0;
+        for(int i = 0; i < count; i++) {
+            final int first = ArrayHashIndex.indexOf(table, keys, 0, keys[i]);
+            if(first == i) {
+                out[i] = -1;
+                remaining++;
+            } else {
+                out[i] = -2 - first;
+            }
+        }
+
+        final int size = size();
+        for(int i = 0; (i < size) && (remaining > 0); i++) {
+            final int k = ArrayHashIndex.indexOf(table, keys, 0, element(i), keyHashCode(i));
+            if(k >= 0) {
+                out[k] = i;
+                remaining--;
+            }
+        }
+
+        for(int i = 0; i < count; i++) {
+            if(out[i] < -1) {
+                out[i] = out[-2 - out[i]];
+            }
+            if(out[i] >= 0) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Search for a batch of keys using the perfect hash function, a group
+     * of keys at a time.
+     */
+    private int indexOfKeysPerfect(Object[] keys, int[] out) {
+        final int count = keys.length;
+        final int[] positions = new int[Math.min(count, PROBE_GROUP_SIZE)];
+        int found = 0;
+        for(int start = 0; start < count; start += PROBE_GROUP_SIZE) {
+            final int group = Math.min(PROBE_GROUP_SIZE, count - start);
+            for(int j = 0; j < group; j++) {
+                positions[j] = m_HashFunction.positionOf(Objects.hashCode(keys[start + j]));
+            }
+            for(int j = 0; j < group; j++) {
+                final Object key = keys[start + j];
+                final int pos = positions[j];
+                final int idx;
+                if(pos >= 0) {
+                    idx = Objects.equals(key, element(pos)) ? pos : -1;
+                } else {
+                    idx = indexOfKeyPerfect(key);
+                }
+                out[start + j] = idx;
+                if(idx >= 0) {
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns a map of the given keys that are present in this map to their
+     * values, looked up in a single batch as for
+     * {@link #indexOfKeys(Object[], int[])}. Entries of the returned map are
+     * in the same order as in this map.
+     *
+     * @param keys the keys to be found in the map
+     * @return a map of the keys present in this map to their values
+     */
+    public ImmutableHashedArrayMap<K,V> getAll(Collection<?> keys) {
+        final Object[] probes = keys.toArray();
+        final int[] indexes = new int[probes.length];
+        if(indexOfKeys(probes, indexes) == 0) {
+            return emptyMap();
+        }
+
+        // The keys and values of this map are already distinct, so the
+        // entries found are copied directly, without checking again
+        Arrays.sort(indexes);
+        int count = 0;
+        int previous = -1;
+        for(int idx : indexes) {
+            if(idx > previous) {
+                indexes[count++] = idx;
+                previous = idx;
+            }
+        }
+
+        final int size = size();
+        final Object[][] subMap = ChunkedArrays.newObjectChunks((m_Dictionary == null) ? count * 2 : count);
+        final int[][] hashCodes = ChunkedArrays.newIntChunks(count);
+        for(int i = 0; i < count; i++) {
+            final Object key = element(indexes[i]);
+            ChunkedArrays.set(subMap, i, key);
+            ChunkedArrays.set(hashCodes, i, m_PerfectHash ? Objects.hashCode(key) : keyHashCode(indexes[i]));
+            if(m_Dictionary == null) {
+                ChunkedArrays.set(subMap, count + i, element(size + indexes[i]));
+            }
+        }
+        final ValueDictionary subDictionary = (m_Dictionary == null) ? null : m_Dictionary.select(indexes, count);
+
+        MinimalPerfectHash hashFunction = null;
+        if(m_PerfectHash) {
+            hashFunction = MinimalPerfectHash.build(hashCodes);
+            if(subDictionary == null) {
+                MinimalPerfectHash.permute(subMap, hashFunction.positions(hashCodes));
+            } else {
+                MinimalPerfectHash.permute(subMap, subDictionary, hashFunction.positions(hashCodes));
+            }
+        }
+        return fromChunks(subMap, subDictionary, hashCodes, hashFunction, m_BiMap);
+    }
+
     /**
      * Returns the array index of the given value in the map. If there is
      * more than one value, the first index is returned.
@@ -262,15 +570,50 @@ public final class ImmutableHashedArrayMap<K,V> extends AbstractMap<K,V>
      */
     @Override
     public int indexOfValue(Object value) {
-        final int size = m_Map.length / 2;
-        final int hc = Objects.hashCode(value);
+        if(m_Dictionary != null) {
+            return m_Dictionary.indexOf(value);
+        }
+        final int size = size();
+        if(m_BiMap && (size >= ArrayHashIndex.MIN_INDEXED_SIZE)) {
+            return indexOfValueIndexed(value, size);
+        }
+        return indexOfValueScan(value, size);
+    }
 
-        for(int i = 0; i < size; i++) {
-            if(hc == m_HashCodes[size + i]) {
-                if (Objects.equals(value, m_Map[size + i])) {
+    /**
+     * Search for the value of a bi-map using the value hash index.
+     */
+    private int indexOfValueIndexed(Object value, int size) {
+        if(m_MapChunks != null) {
+            return ArrayHashIndex.indexOf(valueIndexChunks(), m_MapChunks, size, value);
+        }
+        return ArrayHashIndex.indexOf(valueIndex(), m_Map, size, value);
+    }
+
+    /**
+     * Search for the value by scanning the value hash codes, testing the
+     * values whose hash codes match for equality.
+     */
+    private int indexOfValueScan(Object value, int size) {
+        final int hc = Objects.hashCode(value);
+        if(m_MapChunks != null) {
+            final int[][] valueHashCodes = valueHashCodeChunks();
+            int i = ChunkedArrays.indexOf(valueHashCodes, 0, size, hc);
+            while(i >= 0) {
+                if(Objects.equals(value, value(i))) {
                     return i;
                 }
+                i = ChunkedArrays.indexOf(valueHashCodes, i + 1, size, hc);
             }
+            return -1;
+        }
+        final int[] valueHashCodes = valueHashCodes();
+        int i = HashCodeScan.indexOf(valueHashCodes, 0, size, hc);
+        while(i >= 0) {
+            if(Objects.equals(value, value(i))) {
+                return i;
+            }
+            i = HashCodeScan.indexOf(valueHashCodes, i + 1, size, hc);
         }
         return -1;
     }
@@ -284,12 +627,30 @@ public final class ImmutableHashedArrayMap<K,V> extends AbstractMap<K,V>
      * backing array, otherwise less than zero to indicate its absence
      */
     public int lastIndexOfValue(Object value) {
-        final int size = m_Map.length / 2;
+        if(m_Dictionary != null) {
+            return m_Dictionary.lastIndexOf(value);
+        }
+        final int size = size();
+        if(m_BiMap && (size >= ArrayHashIndex.MIN_INDEXED_SIZE)) {
+            return indexOfValueIndexed(value, size);
+        }
         final int hc = Objects.hashCode(value);
+        if(m_MapChunks != null) {
+            final int[][] valueHashCodes = valueHashCodeChunks();
+            for(int i = size - 1; i >= 0; i--) {
+                if(hc == ChunkedArrays.get(valueHashCodes, i)) {
+                    if (Objects.equals(value, value(i))) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+        final int[] valueHashCodes = valueHashCodes();
 
         for(int i = size - 1; i >= 0; i--) {
-            if(hc == m_HashCodes[size + i]) {
-                if (Objects.equals(value, m_Map[size + i])) {
+            if(hc == valueHashCodes[i]) {
+                if (Objects.equals(value, value(i))) {
                     return i;
                 }
             }
@@ -297,6 +658,154 @@ public final class ImmutableHashedArrayMap<K,V> extends AbstractMap<K,V>
         return -1;
     }
 
+    /**
+     * Returns {@code true} if this map was built as a bi-map, where both
+     * keys and values are unique.
+     *
+     * @return {@code true} if this map is a bi-map, otherwise {@code false}
+     */
+    public boolean isBiMap() {
+        return m_BiMap;
+    }
+
+    /**
+     * Returns an inverse view of this bi-map, which maps each value of this
+     * map to its associated key. The view shares the arrays of this map, so
+     * no data is copied. Searches by key in the inverse view use a hash
+     * index over the values of this map, built on first use.
+     *
+     * @return an inverse view of this bi-map
+     * @throws UnsupportedOperationException this map is not a bi-map
+     */
+    public ArrayBackedMap<V,K> inverse() {
+        if(!m_BiMap) {
+            throw new UnsupportedOperationException("not a bi-map");
+        }
+        return new ArrayBackedInverseMap<>(this);
+    }
+
+    /**
+     * Returns {@code true} if this map was built with a minimal perfect hash
+     * function over its keys, otherwise {@code false} if keys are searched
+     * by their hash codes.
+     *
+     * @return {@code true} if this map uses a perfect hash function,
+     * otherwise {@code false}
+     */
+    public boolean hasPerfectHash() {
+        return m_PerfectHash;
+    }
+
+    /**
+     * Returns {@code true} if the values of this map are dictionary encoded,
+     * where each distinct value is stored once, and each entry holds a code
+     * for its value.
+     *
+     * @return {@code true} if this map has a value dictionary, otherwise
+     * {@code false}
+     */
+    public boolean hasValueDictionary() {
+        return m_Dictionary != null;
+    }
+
+    /**
+     * Returns {@code true} if this map holds its arrays in fixed-size
+     * chunks, as the builder does for large maps, rather than in single
+     * arrays.
+     *
+     * @return {@code true} if this map is held in chunks, otherwise
+     * {@code false}
+     */
+    public boolean isChunked() {
+        return m_MapChunks != null;
+    }
+
+    /**
+     * Returns the value at the given index, from the dictionary if present,
+     * otherwise from the second half of the map array.
+     */
+    private Object value(int index) {
+        return (m_Dictionary == null) ? element(size() + index) : m_Dictionary.get(index);
+    }
+
+    // Accessors hiding whether the arrays are held flat or in chunks
+
+    private int mapLength() {
+        return (m_MapChunks == null) ? m_Map.length : ChunkedArrays.length(m_MapChunks);
+    }
+
+    private Object element(int index) {
+        return (m_MapChunks == null) ? m_Map[index] : ChunkedArrays.get(m_MapChunks, index);
+    }
+
+    private int keyHashCode(int index) {
+        return (m_HashCodeChunks == null) ? m_HashCodes[index] : ChunkedArrays.get(m_HashCodeChunks, index);
+    }
+
+    /**
+     * Returns the hash codes of the values of this map, calculating them
+     * if required. Races to calculate the hash codes are benign, since any
+     * thread calculates identical hash codes.
+     */
+    private int[] valueHashCodes() {
+        int[] hashCodes = m_ValueHashCodes;
+        if(hashCodes == null) {
+            final int size = size();
+            hashCodes = new int[size];
+            for(int i = 0; i < size; i++) {
+                hashCodes[i] = Objects.hashCode(value(i));
+            }
+            m_ValueHashCodes = hashCodes;
+        }
+        return hashCodes;
+    }
+
+    /**
+     * Returns the hash codes of the values of this map held in chunks,
+     * calculating them if required, as for {@link #valueHashCodes()}.
+     */
+    private int[][] valueHashCodeChunks() {
+        int[][] hashCodes = m_ValueHashCodeChunks;
+        if(hashCodes == null) {
+            final int size = size();
+            hashCodes = ChunkedArrays.newIntChunks(size);
+            for(int i = 0; i < size; i++) {
+                ChunkedArrays.set(hashCodes, i, Objects.hashCode(value(i)));
+            }
+            m_ValueHashCodeChunks = hashCodes;
+        }
+        return hashCodes;
+    }
+
+    /**
+     * Returns the hash index over the values of this bi-map, building it
+     * if required. Races to build the index are benign, since any thread
+     * builds an identical index.
+     */
+    private int[] valueIndex() {
+        int[] index = m_ValueIndex;
+        if(index == null) {
+            final int size = size();
+            index = ArrayHashIndex.build(m_Map, size, size);
+            m_ValueIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the hash index over the values of this bi-map held in
+     * chunks, building it if required, as for {@link #valueIndex()}.
+     */
+    private int[][] valueIndexChunks() {
+        int[][] index = m_ValueIndexChunks;
+        if(index == null) {
+            final int size = size();
+            index = ArrayHashIndex.build(m_MapChunks, size, size);
+            m_ValueIndexChunks = index;
+        }
+        return index;
+    }
+
     /**
      * Returns an {@link ArrayBackedSet} view of the mappings contained in this
      * map. The set is backed by the map.
@@ -457,6 +966,29 @@ public final class ImmutableHashedArrayMap<K,V> extends AbstractMap<K,V>
         return ImmutableHashedArrayMapBuilder.<K,V>newBiMap().with(map).build();
     }
 
+    /**
+     * Returns an {@code ArrayBackedMap} that contains the data supplied by
+     * the given map. Maps of up to eight entries are copied into a compact
+     * representation that holds its keys and values in fields; larger maps
+     * are copied as for {@link #copyOf(Map)}.
+     *
+     * @param map the map to be copied
+     * @param <K> the key type of the map
+     * @param <V> the value type of the map
+     * @return an {@code ArrayBackedMap} containing the data from the given
+     * map
+     */
+    @SuppressWarnings("unchecked")
+    public static <K,V> ArrayBackedMap<K,V> copyOfCompact(Map<? extends K, ? extends V> map) {
+        if(map instanceof CompactArrayMap) {
+            return (ArrayBackedMap<K,V>)map;
+        }
+        if(map.size() > CompactArrayMap.MAX_SIZE) {
+            return copyOf(map);
+        }
+        return ImmutableHashedArrayMapBuilder.<K,V>newMap().with(map).buildCompact();
+    }
+
     /**
      * Deserialization.
      *
@@ -469,17 +1001,47 @@ public final class ImmutableHashedArrayMap<K,V> extends AbstractMap<K,V>
         stream.defaultReadObject();
 
         // Perform validation
-        if ((m_Map == null) || ((m_Map.length % 2) != 0)) {
+        if (m_Map == null) {
+            throw new InvalidObjectException("map must be an equal number of keys and values");
+        }
+        if ((m_MapChunks != null) && ((m_Map.length != 0) || !ChunkedArrays.isWellFormed(m_MapChunks))) {
+            throw new InvalidObjectException("map chunks must be well formed");
+        }
+        if ((m_Dictionary == null) && ((mapLength() % 2) != 0)) {
             throw new InvalidObjectException("map must be an equal number of keys and values");
         }
+        if ((m_Dictionary != null) && (m_BiMap || (m_Dictionary.size() != mapLength()))) {
+            throw new InvalidObjectException("map must be an equal number of keys and dictionary codes");
+        }
 
-        // Regenerate hashcodes
-        m_HashCodes = new int[m_Map.length];
-        final int sz = m_Map.length / 2;
+        // Regenerate key hashcodes, value hashcodes are calculated on demand
+        final int sz = size();
+        final int[][] hashCodes = ChunkedArrays.newIntChunks(sz);
 
         for(int i = 0; i < sz; i++) {
-            m_HashCodes[i] = Objects.hashCode((K)m_Map[i]);
-            m_HashCodes[sz + i] = Objects.hashCode((V)m_Map[sz + i]);
+            ChunkedArrays.set(hashCodes, i, Objects.hashCode((K)element(i)));
+        }
+
+        if(m_PerfectHash) {
+            // Hash codes may differ between virtual machines, so rebuild the
+            // hash function and move entries to their new positions
+            m_HashFunction = MinimalPerfectHash.build(hashCodes);
+            int[][] positions = m_HashFunction.positions(hashCodes);
+            if(m_MapChunks != null) {
+                if(m_Dictionary == null) {
+                    MinimalPerfectHash.permute(m_MapChunks, positions);
+                } else {
+                    MinimalPerfectHash.permute(m_MapChunks, m_Dictionary, positions);
+                }
+            } else if(m_Dictionary == null) {
+                MinimalPerfectHash.permute(m_Map, positions);
+            } else {
+                MinimalPerfectHash.permute(m_Map, m_Dictionary, positions);
+            }
+        } else if(m_MapChunks != null) {
+            m_HashCodeChunks = hashCodes;
+        } else {
+            m_HashCodes = ChunkedArrays.join(hashCodes);
         }
     }
 
@@ -489,7 +1051,7 @@ public final class ImmutableHashedArrayMap<K,V> extends AbstractMap<K,V>
      * @return the resolved object
      */
     private Object readResolve() {
-        if(m_Map.length == 0) {
+        if(mapLength() == 0) {
             // optimization only
             return EMPTY;
         }
@@ -1,5 +1,7 @@
 package net.njcull.collections;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -20,6 +22,8 @@ public final class ImmutableHashedArrayMapBuilder<K,V> {
     private Object[] m_Values = EMPTY_ELEMENTS;
     private int m_Size = 0;
     private boolean m_Bimap = false;
+    private boolean m_PerfectHash = false;
+    private boolean m_ValueDictionary = false;
 
     private static final Object[] EMPTY_ELEMENTS = new Object[0];
 
@@ -74,6 +78,48 @@ public final class ImmutableHashedArrayMapBuilder<K,V> {
         return this;
     }
 
+    /**
+     * Determine whether the resulting map is built with a minimal perfect
+     * hash function over its keys. Searching such a map by key requires a
+     * single hash evaluation and a single equality test, and the function
+     * requires about three bits per key rather than a hash code per key.
+     * <p>
+     * This is useful for large, static maps that are built once and searched
+     * many times. The trade-off is a longer build time, and entries are
+     * stored in hash order rather than the order in which they were added.
+     * </p>
+     *
+     * @param perfectHash {@code true} if the map is to be built with a
+     *                    perfect hash function, otherwise {@code false} if
+     *                    keys are searched by their hash codes
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableHashedArrayMapBuilder<K,V> perfectHash(boolean perfectHash) {
+        this.m_PerfectHash = perfectHash;
+        return this;
+    }
+
+    /**
+     * Build the map with its values dictionary encoded. Each distinct value
+     * is stored once, and each entry holds a byte, short, or int code for
+     * its value, depending on the number of distinct values.
+     * <p>
+     * This is useful for large maps where many keys share a small number of
+     * distinct values, such as enumerated states or categories. Testing
+     * whether a value is present then searches only the distinct values.
+     * This option is ignored when building a bi-map, since every value is
+     * distinct.
+     * </p>
+     *
+     * @param valueDictionary {@code true} if the map values are to be
+     *                        dictionary encoded, otherwise {@code false}
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableHashedArrayMapBuilder<K,V> valueDictionary(boolean valueDictionary) {
+        this.m_ValueDictionary = valueDictionary;
+        return this;
+    }
+
     /**
      * All the map entries from the supplied iterable will be added to the
      * resulting map.
@@ -268,8 +314,13 @@ public final class ImmutableHashedArrayMapBuilder<K,V> {
      * Build the immutable map. Validates all keys and values added, including
      * checking for duplicate keys and values as necessary.
      * <p>
+     * A large map is held in fixed-size chunks rather than in single arrays,
+     * so that the G1 collector need not allocate it as humongous objects.
+     * </p>
+     * <p>
      * Repeated calls to a builder containing a non-zero number of entries
      * will return distinct map instances.
+     * </p>
      *
      * @return an ImmutableHashedArrayMap containing the elements in the builder
      * @throws IllegalStateException there was a duplicate key or value
@@ -280,8 +331,9 @@ public final class ImmutableHashedArrayMapBuilder<K,V> {
             return ImmutableHashedArrayMap.<K,V>emptyMap();
         }
 
-        Object[] elements = new Object[m_Size * 2];
-        int[] hashCodes = new int[m_Size * 2];
+        final boolean dictionaryEncoded = m_ValueDictionary && !m_Bimap;
+        final Object[][] elements = ChunkedArrays.newObjectChunks(dictionaryEncoded ? m_Size : m_Size * 2);
+        final int[][] hashCodes = ChunkedArrays.newIntChunks(m_Size);
         Set<Object> dups = new HashSet<>(m_Size);
         for(int i = 0; i < m_Size; i++) {
             Object o = m_Keys[i];
@@ -289,24 +341,88 @@ public final class ImmutableHashedArrayMapBuilder<K,V> {
                 throw new IllegalStateException("duplicate key");
             }
             dups.add(o);
-            elements[i] = o;
-            hashCodes[i] = Objects.hashCode(o);
+            ChunkedArrays.set(elements, i, o);
+            ChunkedArrays.set(hashCodes, i, Objects.hashCode(o));
         }
         dups.clear();
-        for (int i = 0; i < m_Size; i++) {
-            Object o = m_Values[i];
-            if(m_Bimap) {
-                if(dups.contains(o)) {
-                    throw new IllegalStateException("duplicate value");
+        ValueDictionary dictionary = null;
+        if(dictionaryEncoded) {
+            dictionary = ValueDictionary.encode(i -> m_Values[i], m_Size);
+        } else {
+            for (int i = 0; i < m_Size; i++) {
+                Object o = m_Values[i];
+                if(m_Bimap) {
+                    if(dups.contains(o)) {
+                        throw new IllegalStateException("duplicate value");
+                    }
+                    dups.add(o);
                 }
-                dups.add(o);
+                ChunkedArrays.set(elements, m_Size + i, o);
             }
-            elements[m_Size + i] = o;
-            hashCodes[m_Size + i] = Objects.hashCode(o);
+            dups.clear();
         }
-        dups.clear();
 
-        return new ImmutableHashedArrayMap<>(elements, hashCodes, m_Bimap);
+        MinimalPerfectHash hashFunction = null;
+        if(m_PerfectHash) {
+            hashFunction = MinimalPerfectHash.build(hashCodes);
+            if(dictionary == null) {
+                MinimalPerfectHash.permute(elements, hashFunction.positions(hashCodes));
+            } else {
+                MinimalPerfectHash.permute(elements, dictionary, hashFunction.positions(hashCodes));
+            }
+        }
+        return ImmutableHashedArrayMap.fromChunks(elements, dictionary, hashCodes, hashFunction, m_Bimap);
+    }
+
+    /**
+     * Build an immutable map, using a compact representation for small maps.
+     * Maps of up to eight entries hold their keys and values in fields
+     * rather than arrays, reducing their memory footprint. Larger maps are
+     * built as for {@link #build()}.
+     * <p>
+     * Compact maps do not keep the hash codes of their keys, since the cost
+     * of hashing the search key outweighs a linear scan of so few entries.
+     * </p>
+     * <p>
+     * Repeated calls to a builder containing a non-zero number of entries
+     * will return distinct map instances.
+     *
+     * @return an array-backed map containing the elements in the builder
+     * @throws IllegalStateException there was a duplicate key or value
+     * specified in the builder
+     */
+    public ArrayBackedMap<K,V> buildCompact() {
+        if(m_Size > CompactArrayMap.MAX_SIZE) {
+            return build();
+        }
+        return CompactArrayMap.of(m_Keys, m_Values, m_Size, m_Bimap);
+    }
+
+    /**
+     * Write the entries of this builder to a static hash table file, and
+     * open it as a map held outside the heap. Keys and values are encoded by
+     * the given codecs, and keys are hashed by their encoded bytes. The
+     * file is replaced if it exists, by writing a new file beside it and
+     * moving it into place, so the existing file is left unchanged if the
+     * new one cannot be written, and a map still open on it keeps its
+     * contents.
+     * <p>
+     * The perfect hash and value dictionary options do not apply to the
+     * file, whose slot table gives lookups touching one or two pages.
+     * </p>
+     *
+     * @param file the map file to be written
+     * @param keyCodec the codec for encoding the keys
+     * @param valueCodec the codec for encoding the values
+     * @return the map held in the new file
+     * @throws IOException the file could not be written
+     * @throws IllegalStateException there was a duplicate key or value
+     * specified in the builder
+     * @throws NullPointerException if a key or value is {@code null}
+     */
+    public ImmutableMappedHashedMap<K,V> buildMapped(Path file, Codec<K> keyCodec, Codec<V> valueCodec) throws IOException {
+        MappedHashedMapWriter.write(file, m_Keys, m_Values, m_Size, m_Bimap, keyCodec, valueCodec);
+        return ImmutableMappedHashedMap.open(file, keyCodec, valueCodec);
     }
 
     /**
@@ -319,6 +435,8 @@ public final class ImmutableHashedArrayMapBuilder<K,V> {
         m_Values = EMPTY_ELEMENTS;
         m_Size = 0;
         m_Bimap = false;
+        m_PerfectHash = false;
+        m_ValueDictionary = false;
         return this;
     }
 }
@@ -37,6 +37,7 @@ public final class ImmutableHashedArraySet<E> extends AbstractSet<E>
 
     private final Object[] m_Elements;
     private transient int[] m_HashCodes;
+    private transient int m_HashCode;
 
     // Singleton, as an optimization only
     private static final ImmutableHashedArraySet<?> EMPTY = new ImmutableHashedArraySet<>(new Object[0], new int[0]);
@@ -226,17 +227,7 @@ public final class ImmutableHashedArraySet<E> extends AbstractSet<E>
      */
     @Override
     public int indexOf(Object element) {
-        final int size = m_Elements.length;
-        final int hc = Objects.hashCode(element);
-
-        for(int i = 0; i < size; i++) {
-            if(hc == m_HashCodes[i]) {
-                if (Objects.equals(element, m_Elements[i])) {
-                    return i;
-                }
-            }
-        }
-        return -1;
+        return indexOfScan(element, 0, m_Elements.length);
     }
 
     @Override
@@ -248,13 +239,21 @@ public final class ImmutableHashedArraySet<E> extends AbstractSet<E>
             throw new IndexOutOfBoundsException("toIndex: " + toIndex);
         }
 
+        return indexOfScan(element, fromIndex, toIndex);
+    }
+
+    /**
+     * Search the range for the element by scanning the hash codes, testing
+     * the elements whose hash codes match for equality.
+     */
+    private int indexOfScan(Object element, int fromIndex, int toIndex) {
         final int hc = Objects.hashCode(element);
-        for (int i = fromIndex; i < toIndex; i++) {
-            if(hc == m_HashCodes[i]) {
-                if (Objects.equals(element, m_Elements[i])) {
-                    return i;
-                }
+        int i = HashCodeScan.indexOf(m_HashCodes, fromIndex, toIndex, hc);
+        while(i >= 0) {
+            if(Objects.equals(element, m_Elements[i])) {
+                return i;
             }
+            i = HashCodeScan.indexOf(m_HashCodes, i + 1, toIndex, hc);
         }
         return -1;
     }
@@ -387,12 +386,20 @@ public final class ImmutableHashedArraySet<E> extends AbstractSet<E>
      * {@code s1.hashCode()==s2.hashCode()} for any two sets {@code s1}
      * and {@code s2}, as required by the general contract of
      * {@link Object#hashCode}.
+     * <p>
+     * The hash code is calculated on first use, and remembered thereafter.
+     * </p>
      *
      * @return the hash code value for the given set
      */
     @Override
     public int hashCode() {
-        return ArrayBackedSet.hashCode(this);
+        int h = m_HashCode;
+        if((h == 0) && (m_Elements.length > 0)) {
+            h = ArrayBackedSet.hashCode(this);
+            m_HashCode = h;
+        }
+        return h;
     }
 
     /**
@@ -435,6 +442,24 @@ public final class ImmutableHashedArraySet<E> extends AbstractSet<E>
         return new ImmutableHashedArraySetBuilder<E>().with(it).build();
     }
 
+    /**
+     * Returns an {@code ArrayBackedSet} that contains the elements supplied
+     * by the given {@code Iterable}. Sets of up to eight elements are held
+     * in a compact representation that keeps its elements in fields; larger
+     * sets are built as for {@link #copyOf(Iterable)}.
+     *
+     * @param it the elements to be copied
+     * @param <E> the element type of the set
+     * @return an {@code ArrayBackedSet} containing the elements from the
+     * given {@code Iterable}
+     */
+    public static <E> ArrayBackedSet<E> copyOfCompact(Iterable<E> it) {
+        if(it instanceof CompactArraySet) {
+            return (CompactArraySet<E>) it;
+        }
+        return new ImmutableHashedArraySetBuilder<E>().with(it).buildCompact();
+    }
+
     /**
      * Deserialization.
      *
@@ -19,6 +19,7 @@ import java.util.Set;
 public final class ImmutableHashedArraySetBuilder<E> {
     private Object[] m_Elements = EMPTY_ELEMENTS;
     private int m_Size = 0;
+    private ImmutableCollectionInterner<? super ImmutableHashedArraySet<E>> m_Interner;
 
     private static final Object[] EMPTY_ELEMENTS = new Object[0];
 
@@ -184,12 +185,27 @@ public final class ImmutableHashedArraySetBuilder<E> {
         return m_Size;
     }
 
+    /**
+     * Use the supplied interner to return a canonical instance from
+     * {@link #build()}. Where an equivalent set has already been interned,
+     * that set is returned in place of the newly built set, which may then
+     * be garbage collected.
+     *
+     * @param interner the interner for canonicalising built sets, or
+     *                 {@code null} to return each set as built
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableHashedArraySetBuilder<E> interner(ImmutableCollectionInterner<? super ImmutableHashedArraySet<E>> interner) {
+        this.m_Interner = interner;
+        return this;
+    }
+
     /**
      * Build the immutable set. Validates all elements added, including
      * checking and removing duplicate elements as necessary.
      * <p>
      * Repeated calls to a builder containing a non-zero number of elements
-     * will return distinct set instances.
+     * will return distinct set instances, unless an interner is in use.
      *
      * @return an ImmutableHashedArraySet containing the elements in the builder
      */
@@ -206,7 +222,7 @@ public final class ImmutableHashedArraySetBuilder<E> {
         }
 
         if (elements.length == 1) {
-            return new ImmutableHashedArraySet<E>(elements, hashCodes);
+            return intern(new ImmutableHashedArraySet<E>(elements, hashCodes));
         }
 
         Set<Object> dups = new HashSet<>(m_Size);
@@ -231,7 +247,40 @@ public final class ImmutableHashedArraySetBuilder<E> {
             Arrays.fill(elements, prev + 1, elements.length, null);
             Arrays.fill(hashCodes, prev + 1, elements.length, 0);
         }
-        return new ImmutableHashedArraySet<E>(elements, hashCodes, 0, prev + 1);
+        return intern(new ImmutableHashedArraySet<E>(elements, hashCodes, 0, prev + 1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ImmutableHashedArraySet<E> intern(ImmutableHashedArraySet<E> set) {
+        return (m_Interner == null) ? set : (ImmutableHashedArraySet<E>) m_Interner.intern(set);
+    }
+
+    /**
+     * Build an immutable set, using a compact representation for small sets.
+     * Sets of up to eight elements hold their elements in fields rather than
+     * an array. Larger sets are built as for {@link #build()}. Duplicate
+     * elements are removed as necessary.
+     * <p>
+     * Compact sets do not keep the hash codes of their elements, since the
+     * cost of hashing the search element outweighs a linear scan of so few
+     * elements.
+     * </p>
+     * <p>
+     * Repeated calls to a builder containing a non-zero number of elements
+     * will return distinct set instances.
+     *
+     * @return an array-backed set containing the elements in the builder
+     */
+    public ArrayBackedSet<E> buildCompact() {
+        if(m_Size > CompactArraySet.MAX_SIZE) {
+            ImmutableHashedArraySet<E> set = build();
+            if(set.size() > CompactArraySet.MAX_SIZE) {
+                return set;
+            }
+            // Small enough once duplicates were removed
+            return CompactArraySet.of(set.toArray(), set.size());
+        }
+        return CompactArraySet.of(m_Elements, m_Size);
     }
 
     /**
@@ -242,6 +291,7 @@ public final class ImmutableHashedArraySetBuilder<E> {
     public ImmutableHashedArraySetBuilder<E> clear() {
         m_Elements = EMPTY_ELEMENTS;
         m_Size = 0;
+        m_Interner = null;
         return this;
     }
 }
@@ -0,0 +1,786 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A {@link Set} of {@code int} values, compressed in the manner of a Roaring
+ * bitmap. Values are divided into chunks of 65536 by their high sixteen bits,
+ * and the low sixteen bits of each chunk are held in a container. A container
+ * is an array of up to 4096 sorted values, a bitmap of 65536 bits, or a list
+ * of runs of consecutive values, whichever is smallest.
+ * <p>
+ * Values are held in ascending order. Tests for a value perform a binary
+ * search of the chunks, followed by a search of the container. The
+ * cumulative count of values before each chunk is held, so that values may
+ * also be accessed by index.
+ * </p>
+ * <p>
+ * The {@code and}, {@code or} and {@code andNot} methods combine two sets
+ * chunk by chunk, a word at a time where both containers are bitmaps, into a
+ * new set. The {@code andCardinality} method counts the intersection without
+ * creating it. The set may also be viewed as a {@link List}.
+ * </p>
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableIntSet extends AbstractSet<Integer>
+        implements ArrayBackedSet<Integer>, Serializable {
+
+    // High sixteen bits of each chunk, with the sign bit flipped for ordering
+    private final char[] m_Keys;
+    private final IntSetContainer[] m_Containers;
+    private transient int[] m_Ranks;
+    private transient int m_Size;
+
+    // Singleton, as an optimization only
+    private static final ImmutableIntSet EMPTY = new ImmutableIntSet(new char[0], new IntSetContainer[0]);
+
+    // Serializable
+    private static final long serialVersionUID = 3349104427591270852L;
+
+    /**
+     * Returns an immutable empty int set. Each call to this method
+     * will return the same empty set.
+     *
+     * @return an immutable empty int set
+     */
+    public static ImmutableIntSet emptySet() {
+        return EMPTY;
+    }
+
+    ImmutableIntSet(char[] keys, IntSetContainer[] containers) {
+        this.m_Keys = Objects.requireNonNull(keys, "keys must not be null");
+        this.m_Containers = Objects.requireNonNull(containers, "containers must not be null");
+        if(keys.length != containers.length) {
+            throw new IllegalArgumentException("keys do not match containers");
+        }
+        buildRanks();
+    }
+
+    /**
+     * Create a set from the given sorted, distinct values.
+     *
+     * @param values the sorted, distinct values
+     * @param size the number of values
+     * @return a set containing the given values
+     */
+    static ImmutableIntSet ofSorted(int[] values, int size) {
+        if(size == 0) {
+            return EMPTY;
+        }
+        int chunks = 1;
+        for(int i = 1; i < size; i++) {
+            if((values[i] >>> 16) != (values[i - 1] >>> 16)) {
+                chunks++;
+            }
+        }
+        final char[] keys = new char[chunks];
+        final IntSetContainer[] containers = new IntSetContainer[chunks];
+        int from = 0;
+        for(int c = 0; c < chunks; c++) {
+            final int high = values[from] >>> 16;
+            int to = from + 1;
+            while((to < size) && ((values[to] >>> 16) == high)) {
+                to++;
+            }
+            keys[c] = key(values[from]);
+            containers[c] = IntSetContainer.ofSorted(values, from, to);
+            from = to;
+        }
+        return new ImmutableIntSet(keys, containers);
+    }
+
+    private void buildRanks() {
+        final int[] ranks = new int[m_Containers.length];
+        int count = 0;
+        for(int c = 0; c < m_Containers.length; c++) {
+            ranks[c] = count;
+            count += m_Containers[c].cardinality();
+        }
+        m_Ranks = ranks;
+        m_Size = count;
+    }
+
+    private static char key(int value) {
+        return (char) ((value >>> 16) ^ 0x8000);
+    }
+
+    private static int value(char key, int low) {
+        return ((key ^ 0x8000) << 16) | low;
+    }
+
+    /**
+     * Adds all of the elements in the specified collection to this set.
+     *
+     * @param c collection containing elements to be added to this set
+     * @return {@code false} this set is not changed as a result of the call
+     * @throws UnsupportedOperationException the {@code addAll} operation
+     *         is not supported by this set
+     */
+    @Override
+    public boolean addAll(Collection<? extends Integer> c) {
+        if(!c.isEmpty()) {
+            throw new UnsupportedOperationException("No adding");
+        }
+        return false;
+    }
+
+    /**
+     * Retains only the elements in this set that are contained in the
+     * specified collection (optional operation).
+     *
+     * @param  c collection containing elements to be retained in this set
+     * @return {@code false} this set is not changed as a result of the call
+     * @throws UnsupportedOperationException the retainAll operation
+     *         is not supported by this set
+     */
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        for(Integer e : this) {
+            if(!c.contains(e)) {
+                throw new UnsupportedOperationException("No removals");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes from this set all of its elements that are contained in the
+     * specified collection (optional operation).
+     *
+     * @param  c collection containing elements to be removed from this set
+     * @return {@code false} this set is not changed as a result of the call
+     * @throws UnsupportedOperationException the {@code removeAll} operation
+     *         is not supported by this set
+     */
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        if(!c.isEmpty()) {
+            for(Object o : c) {
+                if(contains(o)) {
+                    throw new UnsupportedOperationException("No removals");
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all of the elements of this set that satisfy the given
+     * predicate.  Errors or runtime exceptions thrown during iteration or by
+     * the predicate are relayed to the caller.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be
+     *        removed
+     * @return {@code false} no elements were removed
+     * @throws NullPointerException if the specified filter is null
+     * @throws UnsupportedOperationException elements cannot be removed
+     *         from this set.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Integer> filter) {
+        Objects.requireNonNull(filter);
+
+        for(Integer e : this) {
+            if(filter.test(e)) {
+                throw new UnsupportedOperationException("No removals");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all of the elements from this set (optional operation).
+     * The set will be empty after this call returns.
+     *
+     * @throws UnsupportedOperationException the {@code clear} method
+     *         is not supported by this set
+     */
+    @Override
+    public void clear() {
+        if(m_Size > 0) {
+            throw new UnsupportedOperationException("No removals");
+        }
+    }
+
+    /**
+     * Returns the number of elements in this set (its cardinality).
+     *
+     * @return the number of elements in this set (its cardinality)
+     */
+    @Override
+    public int size() {
+        return m_Size;
+    }
+
+    /**
+     * Returns {@code true} if this set contains no elements.
+     *
+     * @return {@code true} if this set contains no elements
+     */
+    @Override
+    public boolean isEmpty() {
+        return m_Size == 0;
+    }
+
+    /**
+     * Returns {@code true} if this set contains the specified element.
+     *
+     * @param element the element whose presence in this set is to be tested
+     * @return {@code true} if this set contains the specified element,
+     * otherwise {@code false}
+     */
+    @Override
+    public boolean contains(Object element) {
+        return (element instanceof Integer) && contains(((Integer) element).intValue());
+    }
+
+    /**
+     * Returns {@code true} if this set contains the specified value.
+     *
+     * @param value the value whose presence in this set is to be tested
+     * @return {@code true} if this set contains the specified value,
+     * otherwise {@code false}
+     */
+    public boolean contains(int value) {
+        int c = Arrays.binarySearch(m_Keys, key(value));
+        return (c >= 0) && m_Containers[c].contains(value & 0xFFFF);
+    }
+
+    /**
+     * Get the element at the specified index.
+     *
+     * @param index the index of the item to be retrieved
+     * @return the item at the specified index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    @Override
+    public Integer getAtIndex(int index) {
+        return getInt(index);
+    }
+
+    /**
+     * Get the value at the specified index, without boxing.
+     *
+     * @param index the index of the value to be retrieved
+     * @return the value at the specified index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public int getInt(int index) {
+        if((index < 0) || (index >= m_Size)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        // Find the last chunk starting at or before the index
+        int lo = 0;
+        int hi = m_Ranks.length - 1;
+        while(lo < hi) {
+            final int mid = (lo + hi + 1) >>> 1;
+            if(m_Ranks[mid] <= index) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return value(m_Keys[lo], m_Containers[lo].select(index - m_Ranks[lo]));
+    }
+
+    /**
+     * Determine the index of the given element, if it exists in this
+     * set.
+     *
+     * @param element the element to be found
+     * @return a zero or positive integer if the element is in the
+     * set, otherwise less than zero to indicate its absence
+     */
+    @Override
+    public int indexOf(Integer element) {
+        if(element == null) {
+            return -1;
+        }
+        return indexOf(element.intValue());
+    }
+
+    /**
+     * Determine the index of the given value, if it exists in this set.
+     *
+     * @param value the value to be found
+     * @return a zero or positive integer if the value is in the
+     * set, otherwise less than zero to indicate its absence
+     */
+    public int indexOf(int value) {
+        int c = Arrays.binarySearch(m_Keys, key(value));
+        if((c >= 0) && m_Containers[c].contains(value & 0xFFFF)) {
+            return m_Ranks[c] + m_Containers[c].rank(value & 0xFFFF);
+        }
+        return -1;
+    }
+
+    /**
+     * Determine the index of the given element, if it exists within the
+     * specified range in this set.
+     *
+     * @param element the element to be found
+     * @param fromIndex the start index, must be zero or greater
+     * @param toIndex the exclusive end index, must be greater than or equal to
+     *                the start index
+     * @return a zero or positive integer if the element is in the specified
+     * range of the set, otherwise less than zero to indicate its absence
+     * @throws IndexOutOfBoundsException if fromIndex or toIndex is out of range
+     *         ({@code index < 0 || index >= size()}), or toIndex
+     *         is less than fromIndex
+     */
+    @Override
+    public int indexOfRange(Integer element, int fromIndex, int toIndex) {
+        if(fromIndex < 0 || fromIndex >= m_Size) {
+            throw new IndexOutOfBoundsException("fromIndex: "+ fromIndex);
+        }
+        if(toIndex < fromIndex || toIndex > m_Size) {
+            throw new IndexOutOfBoundsException("toIndex: " + toIndex);
+        }
+        int idx = indexOf(element);
+        return ((idx >= fromIndex) && (idx < toIndex)) ? idx : -1;
+    }
+
+    // Set operations
+
+    /**
+     * Returns a new set containing the values in both this set and the
+     * given set.
+     *
+     * @param other the set to be intersected with this set
+     * @return the intersection of this set and the given set
+     */
+    public ImmutableIntSet and(ImmutableIntSet other) {
+        final int max = Math.min(m_Keys.length, other.m_Keys.length);
+        final char[] keys = new char[max];
+        final IntSetContainer[] containers = new IntSetContainer[max];
+        int count = 0;
+        int i = 0, j = 0;
+        while((i < m_Keys.length) && (j < other.m_Keys.length)) {
+            if(m_Keys[i] < other.m_Keys[j]) {
+                i++;
+            } else if(m_Keys[i] > other.m_Keys[j]) {
+                j++;
+            } else {
+                IntSetContainer c = IntSetContainer.and(m_Containers[i], other.m_Containers[j]);
+                if(c != null) {
+                    keys[count] = m_Keys[i];
+                    containers[count++] = c;
+                }
+                i++;
+                j++;
+            }
+        }
+        return of(keys, containers, count);
+    }
+
+    /**
+     * Returns a new set containing the values in either this set or the
+     * given set.
+     *
+     * @param other the set to be combined with this set
+     * @return the union of this set and the given set
+     */
+    public ImmutableIntSet or(ImmutableIntSet other) {
+        if(other.isEmpty()) {
+            return this;
+        }
+        if(isEmpty()) {
+            return other;
+        }
+        final int max = m_Keys.length + other.m_Keys.length;
+        final char[] keys = new char[max];
+        final IntSetContainer[] containers = new IntSetContainer[max];
+        int count = 0;
+        int i = 0, j = 0;
+        while((i < m_Keys.length) || (j < other.m_Keys.length)) {
+            if((j == other.m_Keys.length) || ((i < m_Keys.length) && (m_Keys[i] < other.m_Keys[j]))) {
+                keys[count] = m_Keys[i];
+                containers[count++] = m_Containers[i++];
+            } else if((i == m_Keys.length) || (m_Keys[i] > other.m_Keys[j])) {
+                keys[count] = other.m_Keys[j];
+                containers[count++] = other.m_Containers[j++];
+            } else {
+                keys[count] = m_Keys[i];
+                containers[count++] = IntSetContainer.or(m_Containers[i++], other.m_Containers[j++]);
+            }
+        }
+        return of(keys, containers, count);
+    }
+
+    /**
+     * Returns a new set containing the values in this set that are not in
+     * the given set.
+     *
+     * @param other the set whose values are to be excluded
+     * @return the difference between this set and the given set
+     */
+    public ImmutableIntSet andNot(ImmutableIntSet other) {
+        if(isEmpty() || other.isEmpty()) {
+            return this;
+        }
+        final char[] keys = new char[m_Keys.length];
+        final IntSetContainer[] containers = new IntSetContainer[m_Keys.length];
+        int count = 0;
+        int j = 0;
+        for(int i = 0; i < m_Keys.length; i++) {
+            while((j < other.m_Keys.length) && (other.m_Keys[j] < m_Keys[i])) {
+                j++;
+            }
+            IntSetContainer c = m_Containers[i];
+            if((j < other.m_Keys.length) && (other.m_Keys[j] == m_Keys[i])) {
+                c = IntSetContainer.andNot(c, other.m_Containers[j]);
+            }
+            if(c != null) {
+                keys[count] = m_Keys[i];
+                containers[count++] = c;
+            }
+        }
+        return of(keys, containers, count);
+    }
+
+    /**
+     * Returns the number of values in both this set and the given set,
+     * without creating the intersection.
+     *
+     * @param other the set to be intersected with this set
+     * @return the number of values in the intersection
+     */
+    public int andCardinality(ImmutableIntSet other) {
+        int count = 0;
+        int i = 0, j = 0;
+        while((i < m_Keys.length) && (j < other.m_Keys.length)) {
+            if(m_Keys[i] < other.m_Keys[j]) {
+                i++;
+            } else if(m_Keys[i] > other.m_Keys[j]) {
+                j++;
+            } else {
+                count += IntSetContainer.andCardinality(m_Containers[i++], other.m_Containers[j++]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of values in either this set or the given set,
+     * without creating the union.
+     *
+     * @param other the set to be combined with this set
+     * @return the number of values in the union
+     */
+    public int orCardinality(ImmutableIntSet other) {
+        return m_Size + other.m_Size - andCardinality(other);
+    }
+
+    /**
+     * Returns the number of values in this set that are not in the given
+     * set, without creating the difference.
+     *
+     * @param other the set whose values are to be excluded
+     * @return the number of values in the difference
+     */
+    public int andNotCardinality(ImmutableIntSet other) {
+        return m_Size - andCardinality(other);
+    }
+
+    private static ImmutableIntSet of(char[] keys, IntSetContainer[] containers, int count) {
+        if(count == 0) {
+            return EMPTY;
+        }
+        if(count < keys.length) {
+            keys = Arrays.copyOf(keys, count);
+            containers = Arrays.copyOf(containers, count);
+        }
+        return new ImmutableIntSet(keys, containers);
+    }
+
+    /**
+     * Returns an iterator over the elements in this set, in ascending order.
+     *
+     * @return an iterator over the elements in this set
+     */
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Returns an iterator over the values in this set, in ascending order,
+     * without boxing.
+     *
+     * @return an iterator over the values in this set
+     */
+    public PrimitiveIterator.OfInt intIterator() {
+        return new Itr();
+    }
+
+    /**
+     * Performs the given action for each element of the set, in ascending
+     * order.
+     *
+     * @param action The action to be performed for each element
+     * @throws NullPointerException if the specified action is null
+     */
+    @Override
+    public void forEach(Consumer<? super Integer> action) {
+        Objects.requireNonNull(action);
+        Itr it = new Itr();
+        while(it.hasNext()) {
+            action.accept(it.nextInt());
+        }
+    }
+
+    /**
+     * Returns an array containing all of the values in this set, in
+     * ascending order.
+     *
+     * @return an array containing all the values in this set
+     */
+    public int[] toIntArray() {
+        int[] result = new int[m_Size];
+        Itr it = new Itr();
+        for(int i = 0; i < m_Size; i++) {
+            result[i] = it.nextInt();
+        }
+        return result;
+    }
+
+    /**
+     * Returns an array containing all of the elements in this set, in
+     * ascending order.
+     *
+     * @return an array containing all the elements in this set
+     */
+    @Override
+    public Object[] toArray() {
+        Object[] result = new Object[m_Size];
+        Itr it = new Itr();
+        for(int i = 0; i < m_Size; i++) {
+            result[i] = it.next();
+        }
+        return result;
+    }
+
+    /**
+     * Returns an array containing all of the elements in this set, in
+     * ascending order. The runtime type of the returned array is that of
+     * the specified array.
+     *
+     * @param a the array into which the elements of this set are to be
+     *        stored, if it is big enough; otherwise, a new array of the same
+     *        runtime type is allocated for this purpose.
+     * @param <T> the runtime type of the array to contain the collection
+     * @return an array containing all the elements in this set
+     */
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return ArrayBackedCollection.toArray(this, a);
+    }
+
+    /**
+     * Creates a {@code Spliterator} over the elements in this set.
+     *
+     * <p>The {@code Spliterator} reports {@code Spliterator.DISTINCT},
+     * {@code Spliterator.ORDERED}, {@code Spliterator.IMMUTABLE},
+     * {@code Spliterator.SIZED}, {@code Spliterator.SUBSIZED},
+     * {@code Spliterator.NONNULL}, and {@code Spliterator.SORTED}.
+     *
+     * @return a {@code Spliterator} over the elements in this set
+     */
+    @Override
+    public Spliterator<Integer> spliterator() {
+        return new ImmutableIndexerSpliterator<Integer>(this::getAtIndex, 0, m_Size, null,
+                Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.SORTED);
+    }
+
+    /**
+     * Compares the specified object with this set for equality. Two
+     * {@code ImmutableIntSet} instances are compared chunk by chunk.
+     *
+     * @param o object to be compared for equality with this set
+     * @return {@code true} if the specified object is equal to this set
+     */
+    @Override
+    public boolean equals(Object o) {
+        if(o == this) {
+            return true;
+        }
+        if(o instanceof ImmutableIntSet) {
+            ImmutableIntSet other = (ImmutableIntSet) o;
+            return (m_Size == other.m_Size) && Arrays.equals(m_Keys, other.m_Keys) &&
+                    (andCardinality(other) == m_Size);
+        }
+        return super.equals(o);
+    }
+
+    /**
+     * Returns a string representation of this set, with elements in
+     * ascending order.
+     *
+     * @return a string representation of this set
+     */
+    @Override
+    public String toString() {
+        if(m_Size == 0) {
+            return "[]";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        Itr it = new Itr();
+        while(it.hasNext()) {
+            sb.append(it.nextInt());
+            if(it.hasNext()) {
+                sb.append(',').append(' ');
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Returns the hash code value for this set, being the sum of the
+     * elements in the set.
+     *
+     * @return the hash code value for this set
+     */
+    @Override
+    public int hashCode() {
+        int h = 0;
+        Itr it = new Itr();
+        while(it.hasNext()) {
+            h += it.nextInt();
+        }
+        return h;
+    }
+
+    /**
+     * Return a backing list view for this set.
+     *
+     * @return a list view containing all the elements of this {@code Set}
+     */
+    @Override
+    public List<Integer> asList() {
+        return Views.listView(this);
+    }
+
+    /**
+     * Create a builder object for this immutable int set.
+     *
+     * @return a new builder object
+     */
+    public static ImmutableIntSetBuilder builder() {
+        return new ImmutableIntSetBuilder();
+    }
+
+    /**
+     * Returns an {@code ImmutableIntSet} that contains the elements
+     * supplied by the given {@code Iterable}.
+     * <p>
+     * If the given iterable is itself an immutable int set, then
+     * it will be returned.
+     * </p>
+     *
+     * @param it the elements to be copied
+     * @return an {@code ImmutableIntSet} containing the elements
+     * from the given {@code Iterable}
+     * @throws NullPointerException the iterable contains a null element
+     */
+    public static ImmutableIntSet copyOf(Iterable<Integer> it) {
+        if(it instanceof ImmutableIntSet) {
+            return (ImmutableIntSet) it;
+        }
+        return new ImmutableIntSetBuilder().with(it).build();
+    }
+
+    /**
+     * Returns an {@code ImmutableIntSet} that contains the values in the
+     * given array.
+     *
+     * @param values the values to be copied
+     * @return an {@code ImmutableIntSet} containing the values from the
+     * given array
+     */
+    public static ImmutableIntSet copyOf(int[] values) {
+        return new ImmutableIntSetBuilder().with(values).build();
+    }
+
+    /**
+     * An iterator that scans each container in turn.
+     */
+    private final class Itr implements PrimitiveIterator.OfInt {
+        private int m_Index;
+        private int m_Chunk;
+        private int m_Next;
+
+        @Override
+        public boolean hasNext() {
+            return m_Index < m_Size;
+        }
+
+        @Override
+        public int nextInt() {
+            if(m_Index >= m_Size) {
+                throw new NoSuchElementException();
+            }
+            int low = m_Containers[m_Chunk].nextValue(m_Next);
+            if(low < 0) {
+                m_Chunk++;
+                low = m_Containers[m_Chunk].nextValue(0);
+            }
+            m_Next = low + 1;
+            m_Index++;
+            return value(m_Keys[m_Chunk], low);
+        }
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @param stream the object stream to be deserialized
+     * @throws ClassNotFoundException the class or descendants could not be found
+     * @throws IOException there was a problem reading the object stream
+     */
+    private void readObject(ObjectInputStream stream) throws ClassNotFoundException, IOException {
+        stream.defaultReadObject();
+
+        // Perform validation
+        if((m_Keys == null) || (m_Containers == null) || (m_Keys.length != m_Containers.length)) {
+            throw new InvalidObjectException("set must have consistent keys and containers");
+        }
+        long count = 0L;
+        for(int c = 0; c < m_Keys.length; c++) {
+            if((c > 0) && (m_Keys[c - 1] >= m_Keys[c])) {
+                throw new InvalidObjectException("set keys are not ordered");
+            }
+            if((m_Containers[c] == null) || !m_Containers[c].isValid()) {
+                throw new InvalidObjectException("set container is malformed");
+            }
+            count += m_Containers[c].cardinality();
+        }
+        if(count > Integer.MAX_VALUE) {
+            throw new InvalidObjectException("set is too large");
+        }
+        buildRanks();
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @return the resolved object
+     */
+    private Object readResolve() {
+        if(m_Size == 0) {
+            // optimization only
+            return EMPTY;
+        }
+        return this;
+    }
+}
@@ -0,0 +1,179 @@
+package net.njcull.collections;
+
+import java.util.*;
+
+/**
+ * Builder for the {@link ImmutableIntSet} class.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableIntSetBuilder {
+    private int[] m_Elements = EMPTY_ELEMENTS;
+    private int m_Size = 0;
+
+    private static final int[] EMPTY_ELEMENTS = new int[0];
+
+    /**
+     * Create a new builder instance for constructing a new immutable
+     * int set.
+     */
+    public ImmutableIntSetBuilder() {
+    }
+
+    /**
+     * All the elements from the supplied iterable will be added to the
+     * resulting set.
+     *
+     * @param it the iterable containing elements to be added
+     * @return this builder, for chaining purposes
+     * @throws NullPointerException the iterable contains a null element
+     */
+    public ImmutableIntSetBuilder with(Iterable<Integer> it) {
+        int count = 0;
+
+        for(Iterator<Integer> iIt = it.iterator(); iIt.hasNext(); count++) {
+            if((count % 8) == 0) {
+                ensureCapacity(8);
+            }
+            m_Elements[m_Size++] = iIt.next();
+        }
+
+        return this;
+    }
+
+    /**
+     * All the elements from the supplied collection will be added to the
+     * resulting set.
+     *
+     * @param coll the collection containing elements to be added
+     * @return this builder, for chaining purposes
+     * @throws NullPointerException the collection contains a null element
+     */
+    public ImmutableIntSetBuilder with(Collection<Integer> coll) {
+        if(coll instanceof ImmutableIntSet) {
+            return with(((ImmutableIntSet) coll).toIntArray());
+        }
+        int size = coll.size();
+        ensureCapacity(size);
+        int count = 0;
+        for(Iterator<Integer> iColl = coll.iterator(); iColl.hasNext() && count < size; count++) {
+            m_Elements[m_Size++] = iColl.next();
+        }
+        return this;
+    }
+
+    /**
+     * Add the given element to the resulting set.
+     *
+     * @param elem the element to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableIntSetBuilder with(int elem) {
+        ensureCapacity(1);
+        m_Elements[m_Size++] = elem;
+        return this;
+    }
+
+    /**
+     * Add the given elements to the resulting set.
+     *
+     * @param e1 the first element to be added
+     * @param e2 the second element to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableIntSetBuilder with(int e1, int e2) {
+        ensureCapacity(2);
+        m_Elements[m_Size++] = e1;
+        m_Elements[m_Size++] = e2;
+        return this;
+    }
+
+    /**
+     * Add the given elements to the resulting set.
+     *
+     * @param elements the elements to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableIntSetBuilder with(int... elements) {
+        int len = elements.length;
+        ensureCapacity(len);
+        System.arraycopy(elements, 0, m_Elements, m_Size, len);
+        m_Size += len;
+        return this;
+    }
+
+    /**
+     * For the stream combiner, merge the elements from the supplied builder
+     * to this builder.
+     *
+     * @param elements the builder containing the elements to be merged into
+     * this builder
+     * @return this builder containing the merged items
+     */
+    public ImmutableIntSetBuilder merge(ImmutableIntSetBuilder elements) {
+        int len = elements.m_Size;
+        ensureCapacity(len);
+        System.arraycopy(elements.m_Elements, 0, m_Elements, m_Size, len);
+        m_Size += len;
+        return this;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if(m_Elements.length - m_Size < capacity) {
+            // grow geometrically, since int sets are expected to be large
+            int newLength = Math.max(m_Size + capacity, m_Elements.length + (m_Elements.length >> 1));
+            // round up to divisible by 8
+            newLength += (8 - (newLength % 8)) % 8;
+            m_Elements = Arrays.copyOf(m_Elements, newLength);
+        }
+    }
+
+    /**
+     * Returns the number of elements in this builder.
+     *
+     * @return the number of elements in this builder
+     */
+    public int size() {
+        return m_Size;
+    }
+
+    /**
+     * Build the immutable set. Sorts the elements, and removes duplicate
+     * elements as necessary. The sorted elements are then divided
+     * into chunks, each held in the smallest container.
+     * <p>
+     * Repeated calls to a builder containing a non-zero number of elements
+     * will return distinct set instances.
+     *
+     * @return an ImmutableIntSet containing the elements in the builder
+     */
+    public ImmutableIntSet build() {
+        if(m_Size == 0) {
+            return ImmutableIntSet.emptySet();
+        }
+
+        int[] elements = Arrays.copyOf(m_Elements, m_Size);
+        Arrays.sort(elements);
+
+        // Remove duplicates, which are adjacent once sorted
+        int size = 1;
+        for(int i = 1; i < elements.length; i++) {
+            if(elements[i] != elements[size - 1]) {
+                elements[size++] = elements[i];
+            }
+        }
+        return ImmutableIntSet.ofSorted(elements, size);
+    }
+
+    /**
+     * Reset this builder to its initial state.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableIntSetBuilder clear() {
+        m_Elements = EMPTY_ELEMENTS;
+        m_Size = 0;
+        return this;
+    }
+}
@@ -0,0 +1,511 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * An immutable index of possibly overlapping closed intervals, each mapped
+ * to a value, answering stabbing queries (which intervals contain a point)
+ * and overlap queries (which intervals overlap a span).
+ * <p>
+ * Intervals are held in arrays sorted by lower bound, then upper bound.
+ * The sorted array is treated as an implicit balanced binary search tree,
+ * where the root of any range of the array is its midpoint. An additional
+ * array holds, for each node, the greatest upper bound within its subtree.
+ * A query descends the tree, pruning subtrees whose greatest upper bound
+ * falls before the query, and subtrees whose lower bounds fall after it.
+ * A query takes time log(n) plus the number of intervals reported, and the
+ * index-based query methods do not allocate.
+ * </p>
+ * <p>
+ * Intervals are reported in sorted order. Bounds may not be {@code null},
+ * but values may. The same interval may appear more than once.
+ * </p>
+ *
+ * @param <K> the type of the interval bounds
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableIntervalIndex<K,V> implements Serializable {
+
+    private final Object[] m_Lower;
+    private final Object[] m_Upper;
+    private final Object[] m_Values;
+    private final Comparator<? super K> m_Comparator;
+    private transient Comparator m_BoundComparator;
+    private transient Object[] m_MaxUpper;
+
+    // Singleton, as an optimization only
+    private static final ImmutableIntervalIndex<?,?> EMPTY =
+            new ImmutableIntervalIndex<>(new Object[0], new Object[0], new Object[0], null);
+
+    // Serialization
+    private static final long serialVersionUID = 2781945105318856357L;
+
+    /**
+     * Returns an immutable empty interval index. Each call to this method
+     * will return the same empty interval index.
+     *
+     * @param <K> the type of the interval bounds
+     * @param <V> the type of mapped values
+     * @return an immutable empty interval index
+     */
+    @SuppressWarnings("unchecked")
+    public static <K,V> ImmutableIntervalIndex<K,V> emptyIndex() {
+        return (ImmutableIntervalIndex<K,V>) EMPTY;
+    }
+
+    ImmutableIntervalIndex(Object[] lower, Object[] upper, Object[] values, Comparator<? super K> comparator) {
+        this.m_Lower = Objects.requireNonNull(lower, "lower bounds must not be null");
+        this.m_Upper = Objects.requireNonNull(upper, "upper bounds must not be null");
+        this.m_Values = Objects.requireNonNull(values, "values must not be null");
+        if((upper.length != lower.length) || (values.length != lower.length)) {
+            throw new IllegalArgumentException("bounds and values must be the same length");
+        }
+        this.m_Comparator = comparator;
+        this.m_BoundComparator = ImmutableRangeMap.boundComparator(comparator);
+        this.m_MaxUpper = buildMaxUpper();
+    }
+
+    private Object[] buildMaxUpper() {
+        final Object[] maxUpper = new Object[m_Upper.length];
+        if(maxUpper.length > 0) {
+            buildMaxUpper(maxUpper, 0, maxUpper.length);
+        }
+        return maxUpper;
+    }
+
+    /**
+     * Fill in the greatest upper bound of the subtree rooted at the midpoint
+     * of the given range, returning it.
+     */
+    @SuppressWarnings("unchecked")
+    private Object buildMaxUpper(Object[] maxUpper, int lo, int hi) {
+        final int mid = (lo + hi) >>> 1;
+        Object max = m_Upper[mid];
+        if(lo < mid) {
+            final Object left = buildMaxUpper(maxUpper, lo, mid);
+            if(m_BoundComparator.compare(left, max) > 0) {
+                max = left;
+            }
+        }
+        if(mid + 1 < hi) {
+            final Object right = buildMaxUpper(maxUpper, mid + 1, hi);
+            if(m_BoundComparator.compare(right, max) > 0) {
+                max = right;
+            }
+        }
+        maxUpper[mid] = max;
+        return max;
+    }
+
+    /**
+     * Returns the number of intervals in this index.
+     *
+     * @return the number of intervals in this index
+     */
+    public int size() {
+        return m_Lower.length;
+    }
+
+    /**
+     * Returns {@code true} if this index contains no intervals.
+     *
+     * @return {@code true} if this index contains no intervals
+     */
+    public boolean isEmpty() {
+        return m_Lower.length == 0;
+    }
+
+    /**
+     * Returns the comparator used to order the interval bounds, or
+     * {@code null} if this index uses the natural ordering of its bounds.
+     *
+     * @return the comparator used to order the bounds, or {@code null} for
+     * natural ordering
+     */
+    public Comparator<? super K> comparator() {
+        return m_Comparator;
+    }
+
+    /**
+     * Performs the given action with the index of each interval containing
+     * the given point, in sorted order.
+     *
+     * @param point the point to be stabbed
+     * @param action the action to be performed with each interval index
+     * @throws NullPointerException if the point or action is {@code null}
+     */
+    public void forEachStabbing(K point, IntConsumer action) {
+        forEachOverlapping(point, point, action);
+    }
+
+    /**
+     * Performs the given action with the index of each interval overlapping
+     * the span from {@code from} to {@code to} inclusive, in sorted order.
+     *
+     * @param from the lower bound of the span, inclusive
+     * @param to the upper bound of the span, inclusive
+     * @param action the action to be performed with each interval index
+     * @throws NullPointerException if either bound or the action is {@code null}
+     * @throws IllegalArgumentException if {@code from} is greater than {@code to}
+     */
+    public void forEachOverlapping(K from, K to, IntConsumer action) {
+        Objects.requireNonNull(action, "action must not be null");
+        checkSpan(from, to);
+        search(0, m_Lower.length, from, to, action, Integer.MAX_VALUE, 0);
+    }
+
+    /**
+     * Returns the number of intervals containing the given point.
+     *
+     * @param point the point to be stabbed
+     * @return the number of intervals containing the point
+     * @throws NullPointerException if the point is {@code null}
+     */
+    public int countStabbing(K point) {
+        return countOverlapping(point, point);
+    }
+
+    /**
+     * Returns the number of intervals overlapping the span from {@code from}
+     * to {@code to} inclusive.
+     *
+     * @param from the lower bound of the span, inclusive
+     * @param to the upper bound of the span, inclusive
+     * @return the number of intervals overlapping the span
+     * @throws NullPointerException if either bound is {@code null}
+     * @throws IllegalArgumentException if {@code from} is greater than {@code to}
+     */
+    public int countOverlapping(K from, K to) {
+        checkSpan(from, to);
+        return search(0, m_Lower.length, from, to, null, Integer.MAX_VALUE, 0);
+    }
+
+    /**
+     * Returns {@code true} if any interval contains the given point.
+     *
+     * @param point the point to be stabbed
+     * @return {@code true} if an interval contains the point
+     * @throws NullPointerException if the point is {@code null}
+     */
+    public boolean anyStabbing(K point) {
+        return anyOverlapping(point, point);
+    }
+
+    /**
+     * Returns {@code true} if any interval overlaps the span from
+     * {@code from} to {@code to} inclusive. The search stops at the first
+     * overlapping interval.
+     *
+     * @param from the lower bound of the span, inclusive
+     * @param to the upper bound of the span, inclusive
+     * @return {@code true} if an interval overlaps the span
+     * @throws NullPointerException if either bound is {@code null}
+     * @throws IllegalArgumentException if {@code from} is greater than {@code to}
+     */
+    public boolean anyOverlapping(K from, K to) {
+        checkSpan(from, to);
+        return search(0, m_Lower.length, from, to, null, 1, 0) > 0;
+    }
+
+    /**
+     * Returns the values of the intervals containing the given point, in
+     * sorted order of their intervals.
+     *
+     * @param point the point to be stabbed
+     * @return a collection of the values of the intervals containing the point
+     * @throws NullPointerException if the point is {@code null}
+     */
+    public ArrayBackedCollection<V> valuesStabbing(K point) {
+        return valuesOverlapping(point, point);
+    }
+
+    /**
+     * Returns the values of the intervals overlapping the span from
+     * {@code from} to {@code to} inclusive, in sorted order of their
+     * intervals.
+     *
+     * @param from the lower bound of the span, inclusive
+     * @param to the upper bound of the span, inclusive
+     * @return a collection of the values of the intervals overlapping the span
+     * @throws NullPointerException if either bound is {@code null}
+     * @throws IllegalArgumentException if {@code from} is greater than {@code to}
+     */
+    public ArrayBackedCollection<V> valuesOverlapping(K from, K to) {
+        final int count = countOverlapping(from, to);
+        final Object[] result = new Object[count];
+        if(count > 0) {
+            final int[] pos = new int[1];
+            search(0, m_Lower.length, from, to, i -> result[pos[0]++] = m_Values[i], count, 0);
+        }
+        return Views.collectionView(
+                new ArrayBackedImmutableList<>(new ArrayIndexer<>(result), count));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void checkSpan(K from, K to) {
+        Objects.requireNonNull(from, "from must not be null");
+        Objects.requireNonNull(to, "to must not be null");
+        if(m_BoundComparator.compare(from, to) > 0) {
+            throw new IllegalArgumentException("from must not be greater than to");
+        }
+    }
+
+    /**
+     * Search the subtree rooted at the midpoint of the given range for
+     * intervals overlapping the span, reporting each to the action if
+     * present, and stopping once the count reaches the limit.
+     *
+     * @return the count of intervals found so far
+     */
+    @SuppressWarnings("unchecked")
+    private int search(int lo, int hi, Object from, Object to, IntConsumer action, int limit, int count) {
+        while(lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if(m_BoundComparator.compare(m_MaxUpper[mid], from) < 0) {
+                // Every interval in this subtree ends before the span
+                return count;
+            }
+            count = search(lo, mid, from, to, action, limit, count);
+            if(count >= limit) {
+                return count;
+            }
+            if(m_BoundComparator.compare(m_Lower[mid], to) > 0) {
+                // This interval, and every interval to its right, starts after the span
+                return count;
+            }
+            if(m_BoundComparator.compare(m_Upper[mid], from) >= 0) {
+                if(action != null) {
+                    action.accept(mid);
+                }
+                if(++count >= limit) {
+                    return count;
+                }
+            }
+            lo = mid + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the lower bound of the interval at the given index.
+     *
+     * @param index the index of the interval
+     * @return the lower bound of the interval
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * greater than or equal to the number of intervals
+     */
+    @SuppressWarnings("unchecked")
+    public K lowerAt(int index) {
+        if((index < 0) || (index >= m_Lower.length)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return (K) m_Lower[index];
+    }
+
+    /**
+     * Returns the upper bound of the interval at the given index.
+     *
+     * @param index the index of the interval
+     * @return the upper bound of the interval
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * greater than or equal to the number of intervals
+     */
+    @SuppressWarnings("unchecked")
+    public K upperAt(int index) {
+        if((index < 0) || (index >= m_Upper.length)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return (K) m_Upper[index];
+    }
+
+    /**
+     * Returns the value of the interval at the given index.
+     *
+     * @param index the index of the interval
+     * @return the value of the interval
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * greater than or equal to the number of intervals
+     */
+    @SuppressWarnings("unchecked")
+    public V valueAt(int index) {
+        if((index < 0) || (index >= m_Values.length)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return (V) m_Values[index];
+    }
+
+    /**
+     * Returns an {@link ArrayBackedCollection} view of the values of this
+     * index, in sorted order of their intervals.
+     *
+     * @return an array-backed collection view of the values of this index
+     */
+    public ArrayBackedCollection<V> values() {
+        return Views.collectionView(
+                new ArrayBackedImmutableList<>(new ArrayIndexer<>(m_Values), m_Values.length));
+    }
+
+    /**
+     * Compares the specified object with this interval index for equality.
+     * Interval indexes are equal if they have equal intervals, in the same
+     * order, mapped to equal values.
+     *
+     * @param o object to be compared for equality with this interval index
+     * @return {@code true} if the specified object is equal to this index
+     */
+    @Override
+    public boolean equals(Object o) {
+        if(o == this) {
+            return true;
+        }
+        if(!(o instanceof ImmutableIntervalIndex)) {
+            return false;
+        }
+        final ImmutableIntervalIndex<?,?> other = (ImmutableIntervalIndex<?,?>) o;
+        return Arrays.equals(m_Lower, other.m_Lower) &&
+                Arrays.equals(m_Upper, other.m_Upper) &&
+                Arrays.equals(m_Values, other.m_Values);
+    }
+
+    /**
+     * Returns the hash code value for this interval index.
+     *
+     * @return the hash code value for this interval index
+     */
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for(int i = 0; i < m_Lower.length; i++) {
+            h += (31 * m_Lower[i].hashCode() + m_Upper[i].hashCode()) ^ Objects.hashCode(m_Values[i]);
+        }
+        return h;
+    }
+
+    /**
+     * Returns a string representation of this interval index, with each
+     * interval shown in interval notation followed by its value.
+     *
+     * @return a string representation of this interval index
+     */
+    @Override
+    public String toString() {
+        if(m_Lower.length == 0) {
+            return "{}";
+        }
+        final StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        for(int i = 0; i < m_Lower.length; i++) {
+            if(i > 0) {
+                sb.append(',').append(' ');
+            }
+            sb.append('[').append(m_Lower[i]).append("..").append(m_Upper[i]).append(']')
+                    .append('=').append(m_Values[i]);
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Create a builder object for this immutable interval index.
+     *
+     * @param <K> the type of the interval bounds in the resulting index
+     * @param <V> the type of values in the resulting index
+     * @return a new builder object
+     */
+    public static <K,V> ImmutableIntervalIndexBuilder<K,V> builder() {
+        return new ImmutableIntervalIndexBuilder<>();
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @param stream the object stream to be deserialized
+     * @throws ClassNotFoundException the class or descendants could not be found
+     * @throws IOException there was a problem reading the object stream
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream stream) throws ClassNotFoundException, IOException {
+        stream.defaultReadObject();
+
+        // Perform validation
+        if((m_Lower == null) || (m_Upper == null) || (m_Values == null)) {
+            throw new InvalidObjectException("interval index must have bounds and values");
+        }
+        if((m_Upper.length != m_Lower.length) || (m_Values.length != m_Lower.length)) {
+            throw new InvalidObjectException("bounds and values must be the same length");
+        }
+
+        // Regenerate the bound comparator
+        m_BoundComparator = ImmutableRangeMap.boundComparator(m_Comparator);
+
+        // Scan the bounds to ensure the intervals are valid and ordered
+        for(int i = 0; i < m_Lower.length; i++) {
+            if((m_Lower[i] == null) || (m_Upper[i] == null)) {
+                throw new InvalidObjectException("interval bounds must not be null");
+            }
+            if(m_BoundComparator.compare(m_Lower[i], m_Upper[i]) > 0) {
+                throw new InvalidObjectException("inverted interval");
+            }
+            if((i > 0) && (m_BoundComparator.compare(m_Lower[i], m_Lower[i - 1]) < 0)) {
+                throw new InvalidObjectException("intervals not ordered by the comparator");
+            }
+        }
+
+        // Regenerate the implicit tree
+        m_MaxUpper = buildMaxUpper();
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @return the resolved object
+     */
+    private Object readResolve() {
+        if(m_Lower.length == 0) {
+            // optimization only
+            return EMPTY;
+        }
+        return this;
+    }
+
+    /**
+     * Indexes an array of values.
+     */
+    private static final class ArrayIndexer<E> implements IntFunction<E>, Serializable {
+        private final Object[] m_Array;
+
+        // Serialization
+        private static final long serialVersionUID = -3346402390818224981L;
+
+        ArrayIndexer(Object[] array) {
+            this.m_Array = array;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public E apply(int idx) {
+            return (E) m_Array[idx];
+        }
+
+        /**
+         * Deserialization.
+         */
+        private void readObject(ObjectInputStream stream) throws ClassNotFoundException, IOException {
+            stream.defaultReadObject();
+
+            // Perform validation
+            if(m_Array == null) {
+                throw new InvalidObjectException("array must not be null");
+            }
+        }
+    }
+}
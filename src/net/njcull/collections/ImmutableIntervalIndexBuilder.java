@@ -0,0 +1,195 @@
+package net.njcull.collections;
+
+import java.util.*;
+
+/**
+ * Builder for the {@link ImmutableIntervalIndex} class.
+ *
+ * @param <K> the type of the interval bounds
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableIntervalIndexBuilder<K,V> {
+    private Comparator<? super K> m_Comparator;
+    private Object[] m_Lower = EMPTY_ELEMENTS;
+    private Object[] m_Upper = EMPTY_ELEMENTS;
+    private Object[] m_Values = EMPTY_ELEMENTS;
+    private int m_Size = 0;
+
+    private static final Object[] EMPTY_ELEMENTS = new Object[0];
+
+    /**
+     * Create a new builder instance that builds a new immutable interval
+     * index, with bounds in their natural order.
+     *
+     * @param <K> the type of the interval bounds
+     * @param <V> the value type of the index
+     * @return a new builder for building a new interval index
+     */
+    public static <K,V> ImmutableIntervalIndexBuilder<K,V> newIndex() {
+        return new ImmutableIntervalIndexBuilder<>();
+    }
+
+    /**
+     * Create a new builder instance that builds a new immutable interval
+     * index, using the supplied comparator for ordering the bounds.
+     *
+     * @param <K> the type of the interval bounds
+     * @param <V> the value type of the index
+     * @param cmp the comparator for ordering the bounds
+     * @return a new builder for building a new interval index
+     */
+    public static <K,V> ImmutableIntervalIndexBuilder<K,V> newIndexComparing(Comparator<? super K> cmp) {
+        ImmutableIntervalIndexBuilder<K,V> builder = new ImmutableIntervalIndexBuilder<>();
+        return builder.byComparing(cmp);
+    }
+
+    /**
+     * Create a new builder instance for constructing a new immutable
+     * interval index.
+     */
+    public ImmutableIntervalIndexBuilder() {
+    }
+
+    /**
+     * Use the supplied comparator to order the bounds in the resulting index.
+     *
+     * @param cmp the comparator for ordering the bounds in the index
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableIntervalIndexBuilder<K,V> byComparing(Comparator<? super K> cmp) {
+        this.m_Comparator = cmp;
+        return this;
+    }
+
+    /**
+     * Order the bounds for the resulting index using the bounds' natural
+     * order.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableIntervalIndexBuilder<K,V> byNaturalOrder() {
+        this.m_Comparator = null;
+        return this;
+    }
+
+    /**
+     * Add the given closed interval and value to the resulting index.
+     *
+     * @param lower the lower bound of the interval, inclusive
+     * @param upper the upper bound of the interval, inclusive
+     * @param value the value of the interval
+     * @return this builder, for chaining purposes
+     * @throws NullPointerException if either bound is {@code null}
+     */
+    public ImmutableIntervalIndexBuilder<K,V> with(K lower, K upper, V value) {
+        Objects.requireNonNull(lower, "lower bound must not be null");
+        Objects.requireNonNull(upper, "upper bound must not be null");
+        ensureCapacity(1);
+        m_Lower[m_Size] = lower;
+        m_Upper[m_Size] = upper;
+        m_Values[m_Size++] = value;
+        return this;
+    }
+
+    /**
+     * For the stream combiner, merge the intervals from the supplied builder
+     * to this builder.
+     *
+     * @param intervals the builder containing the intervals to be merged
+     * into this builder
+     * @return this builder containing the merged items
+     */
+    public ImmutableIntervalIndexBuilder<K,V> merge(ImmutableIntervalIndexBuilder<? extends K, ? extends V> intervals) {
+        int len = intervals.m_Size;
+        ensureCapacity(len);
+        System.arraycopy(intervals.m_Lower, 0, m_Lower, m_Size, len);
+        System.arraycopy(intervals.m_Upper, 0, m_Upper, m_Size, len);
+        System.arraycopy(intervals.m_Values, 0, m_Values, m_Size, len);
+        m_Size += len;
+        return this;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if(m_Lower.length - m_Size < capacity) {
+            int newLength = Math.max(m_Size + capacity, m_Lower.length + (m_Lower.length >> 1));
+            // round up to divisible by 8
+            newLength += (8 - (newLength % 8)) % 8;
+            m_Lower = Arrays.copyOf(m_Lower, newLength);
+            m_Upper = Arrays.copyOf(m_Upper, newLength);
+            m_Values = Arrays.copyOf(m_Values, newLength);
+        }
+    }
+
+    /**
+     * Returns the number of intervals in this builder.
+     *
+     * @return the number of intervals in this builder
+     */
+    public int size() {
+        return m_Size;
+    }
+
+    /**
+     * Build the immutable interval index. Intervals are sorted by lower
+     * bound, then by upper bound, with equal intervals kept in the order
+     * they were added.
+     * <p>
+     * Repeated calls to a builder containing a non-zero number of intervals
+     * will return distinct index instances.
+     *
+     * @return an ImmutableIntervalIndex containing the intervals in the builder
+     * @throws IllegalStateException an interval is inverted
+     */
+    @SuppressWarnings("unchecked")
+    public ImmutableIntervalIndex<K,V> build() {
+        if(m_Size == 0) {
+            return ImmutableIntervalIndex.<K,V>emptyIndex();
+        }
+
+        final Object[] lower = m_Lower;
+        final Object[] upper = m_Upper;
+        final Comparator cmp = ImmutableRangeMap.boundComparator(m_Comparator);
+        for(int i = 0; i < m_Size; i++) {
+            if(cmp.compare(lower[i], upper[i]) > 0) {
+                throw new IllegalStateException("inverted interval");
+            }
+        }
+
+        final int[] order = new int[m_Size];
+        for(int i = 0; i < m_Size; i++) {
+            order[i] = i;
+        }
+        SortUtils.sortIndexes(order, (a, b) -> {
+            int c = cmp.compare(lower[a], lower[b]);
+            return (c != 0) ? c : cmp.compare(upper[a], upper[b]);
+        });
+
+        final Object[] resultLower = new Object[m_Size];
+        final Object[] resultUpper = new Object[m_Size];
+        final Object[] values = new Object[m_Size];
+        for(int i = 0; i < m_Size; i++) {
+            final int j = order[i];
+            resultLower[i] = lower[j];
+            resultUpper[i] = upper[j];
+            values[i] = m_Values[j];
+        }
+
+        return new ImmutableIntervalIndex<>(resultLower, resultUpper, values, m_Comparator);
+    }
+
+    /**
+     * Reset this builder to its initial state.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableIntervalIndexBuilder<K,V> clear() {
+        m_Lower = EMPTY_ELEMENTS;
+        m_Upper = EMPTY_ELEMENTS;
+        m_Values = EMPTY_ELEMENTS;
+        m_Comparator = null;
+        m_Size = 0;
+        return this;
+    }
+}
@@ -0,0 +1,322 @@
+package net.njcull.collections;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * A reference to an immutable map snapshot, published to reader threads,
+ * and updated by writer threads with copy-on-write semantics.
+ * <p>
+ * Reading the snapshot is a single volatile read, and never blocks. Each
+ * snapshot is immutable, so readers may use it for as long as they like,
+ * while writers publish newer snapshots.
+ * </p>
+ * <p>
+ * Concurrent updates are combined into batches. Each writer places its
+ * update in a queue, then either becomes the combiner, or waits for the
+ * current combiner to finish. The combiner applies every queued update to a
+ * single working copy of the snapshot, builds one new map from it, and
+ * publishes that map for all the updates in the batch. Under bursty
+ * updates, this replaces a full rebuild per update with a single rebuild per
+ * batch. Updates from a single writer are always applied in order.
+ * </p>
+ * <p>
+ * There is no batch window: a writer never waits for more updates to
+ * arrive. A batch holds the updates queued while the previous combiner was
+ * rebuilding, so updates are only combined while writers contend for the
+ * combiner, and an uncontended writer rebuilds for its update alone.
+ * </p>
+ * <p>
+ * If building a batch fails, such as a duplicate value in a bi-map, each
+ * update in the batch is retried alone, so that only the failing updates
+ * throw an exception. If an error is thrown, such as running out of memory,
+ * every update in the batch not yet completed throws that error.
+ * </p>
+ *
+ * @param <K> the type of keys maintained by the maps
+ * @param <V> the type of mapped values
+ * @param <M> the type of map snapshots
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableMapRef<K,V,M extends Map<K,V>> {
+
+    private volatile M m_Snapshot;
+    private final Function<? super Map<K,V>, ? extends M> m_SnapshotBuilder;
+    private final ConcurrentLinkedQueue<Update<K,V,M>> m_Pending = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock m_CombinerLock = new ReentrantLock();
+    private final AtomicLong m_Rebuilds = new AtomicLong();
+
+    private ImmutableMapRef(M initial, Function<? super Map<K,V>, ? extends M> snapshotBuilder) {
+        this.m_Snapshot = Objects.requireNonNull(initial, "initial map must not be null");
+        this.m_SnapshotBuilder = Objects.requireNonNull(snapshotBuilder, "snapshot builder must not be null");
+    }
+
+    /**
+     * Create a reference to the given initial map. New snapshots are built
+     * from the updated mappings by the supplied function.
+     *
+     * @param initial the initial map snapshot
+     * @param snapshotBuilder the function building an immutable snapshot from
+     * the updated mappings
+     * @param <K> the type of keys maintained by the maps
+     * @param <V> the type of mapped values
+     * @param <M> the type of map snapshots
+     * @return a new map reference
+     */
+    public static <K,V,M extends Map<K,V>> ImmutableMapRef<K,V,M> of(M initial,
+                Function<? super Map<K,V>, ? extends M> snapshotBuilder) {
+        return new ImmutableMapRef<>(initial, snapshotBuilder);
+    }
+
+    /**
+     * Create a reference to the given hashed array map. New snapshots are
+     * built with the same bi-map, perfect hash, and value dictionary options
+     * as the initial map.
+     * An empty initial map is treated as not being a bi-map, since the
+     * shared empty map reports itself as a bi-map. Use
+     * {@link #of(Map, Function)} to build bi-maps from an empty map.
+     *
+     * @param initial the initial map snapshot
+     * @param <K> the type of keys maintained by the maps
+     * @param <V> the type of mapped values
+     * @return a new map reference
+     */
+    public static <K,V> ImmutableMapRef<K,V,ImmutableHashedArrayMap<K,V>> of(ImmutableHashedArrayMap<K,V> initial) {
+        final boolean biMap = initial.isBiMap() && !initial.isEmpty();
+        final boolean perfectHash = initial.hasPerfectHash();
+        final boolean valueDictionary = initial.hasValueDictionary();
+        return new ImmutableMapRef<>(initial, map -> {
+            ImmutableHashedArrayMapBuilder<K,V> builder = biMap ?
+                    ImmutableHashedArrayMapBuilder.<K,V>newBiMap() :
+                    ImmutableHashedArrayMap.<K,V>builder();
+            return builder.perfectHash(perfectHash).valueDictionary(valueDictionary).with(map).build();
+        });
+    }
+
+    /**
+     * Create a reference to the given sorted array map. New snapshots are
+     * built with the same comparators, bi-map, and value dictionary options
+     * as the initial map.
+     * An empty initial map is treated as not being a bi-map, since the
+     * shared empty map reports itself as a bi-map. Use
+     * {@link #of(Map, Function)} to build bi-maps from an empty map.
+     *
+     * @param initial the initial map snapshot
+     * @param <K> the type of keys maintained by the maps
+     * @param <V> the type of mapped values
+     * @return a new map reference
+     */
+    public static <K,V> ImmutableMapRef<K,V,ImmutableSortedArrayMap<K,V>> of(ImmutableSortedArrayMap<K,V> initial) {
+        final boolean biMap = initial.isBiMap() && !initial.isEmpty();
+        final boolean valueDictionary = initial.hasValueDictionary();
+        final Comparator<? super K> keyComparator = initial.comparator();
+        final Comparator<? super V> valueComparator = initial.valueComparator();
+        return new ImmutableMapRef<>(initial, map -> {
+            ImmutableSortedArrayMapBuilder<K,V> builder = biMap ?
+                    ImmutableSortedArrayMapBuilder.<K,V>newBiMap() :
+                    ImmutableSortedArrayMap.<K,V>builder();
+            return builder.byComparingKeys(keyComparator).byComparingValues(valueComparator)
+                    .valueDictionary(valueDictionary).with(map).build();
+        });
+    }
+
+    /**
+     * Returns the current map snapshot. This is a single volatile read,
+     * and never blocks.
+     *
+     * @return the current map snapshot
+     */
+    public M get() {
+        return m_Snapshot;
+    }
+
+    /**
+     * Associate the given value with the given key.
+     *
+     * @param key the key with which the value is to be associated
+     * @param value the value to be associated with the key
+     * @return the first snapshot containing the mapping
+     */
+    public M put(K key, V value) {
+        return apply(new Update<>(Update.PUT, key, value, null, null));
+    }
+
+    /**
+     * Copy all the mappings from the given map.
+     *
+     * @param map the mappings to be copied
+     * @return the first snapshot containing the mappings
+     */
+    public M putAll(Map<? extends K, ? extends V> map) {
+        return apply(new Update<>(Update.PUT_ALL, null, null, new LinkedHashMap<>(map), null));
+    }
+
+    /**
+     * Remove the mapping for the given key, if present.
+     *
+     * @param key the key whose mapping is to be removed
+     * @return the first snapshot without the mapping
+     */
+    public M remove(Object key) {
+        return apply(new Update<>(Update.REMOVE, key, null, null, null));
+    }
+
+    /**
+     * Remove the mappings for all the given keys, where present.
+     *
+     * @param keys the keys whose mappings are to be removed
+     * @return the first snapshot without the mappings
+     */
+    public M removeAll(Collection<?> keys) {
+        return apply(new Update<>(Update.REMOVE_ALL, null, null, null, new ArrayList<>(keys)));
+    }
+
+    /**
+     * Returns the number of snapshots built by this reference, as an
+     * indication of how effectively updates are being combined.
+     *
+     * @return the number of snapshots built
+     */
+    public long rebuildCount() {
+        return m_Rebuilds.get();
+    }
+
+    private M apply(Update<K,V,M> update) {
+        m_Pending.add(update);
+        m_CombinerLock.lock();
+        try {
+            // Another combiner may already have applied this update
+            if(!update.m_Done) {
+                combine();
+            }
+        } finally {
+            m_CombinerLock.unlock();
+        }
+        final Throwable failure = update.m_Failure;
+        if(failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if(failure instanceof Error) {
+            throw (Error) failure;
+        }
+        return update.m_Result;
+    }
+
+    private void combine() {
+        final List<Update<K,V,M>> batch = new ArrayList<>();
+        Update<K,V,M> update;
+        while((update = m_Pending.poll()) != null) {
+            batch.add(update);
+        }
+        if(batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            combine(batch);
+        } catch (Throwable t) {
+            // Fail the rest of the batch rather than lose it, since the
+            // writers are waiting for their updates to be completed
+            for(Update<K,V,M> u : batch) {
+                if(!u.m_Done) {
+                    u.complete(null, t);
+                }
+            }
+        }
+    }
+
+    private void combine(List<Update<K,V,M>> batch) {
+        M snapshot = m_Snapshot;
+        try {
+            final Map<K,V> working = new LinkedHashMap<>(snapshot);
+            for(Update<K,V,M> u : batch) {
+                u.applyTo(working);
+            }
+            snapshot = rebuild(working);
+            for(Update<K,V,M> u : batch) {
+                u.complete(snapshot, null);
+            }
+        } catch (RuntimeException e) {
+            // Retry each update alone, so only the failing updates fail
+            for(Update<K,V,M> u : batch) {
+                try {
+                    final Map<K,V> working = new LinkedHashMap<>(snapshot);
+                    u.applyTo(working);
+                    snapshot = rebuild(working);
+                    u.complete(snapshot, null);
+                } catch (RuntimeException ue) {
+                    u.complete(null, ue);
+                }
+            }
+        }
+    }
+
+    private M rebuild(Map<K,V> working) {
+        final M snapshot = Objects.requireNonNull(m_SnapshotBuilder.apply(working), "snapshot must not be null");
+        m_Rebuilds.incrementAndGet();
+        m_Snapshot = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * A single queued update, completed by the combiner.
+     */
+    private static final class Update<K,V,M> {
+        static final int PUT = 0;
+        static final int PUT_ALL = 1;
+        static final int REMOVE = 2;
+        static final int REMOVE_ALL = 3;
+
+        private final int m_Op;
+        private final Object m_Key;
+        private final V m_Value;
+        private final Map<? extends K, ? extends V> m_Entries;
+        private final Collection<?> m_Keys;
+        private volatile boolean m_Done;
+        private M m_Result;
+        private Throwable m_Failure;
+
+        Update(int op, Object key, V value, Map<? extends K, ? extends V> entries, Collection<?> keys) {
+            this.m_Op = op;
+            this.m_Key = key;
+            this.m_Value = value;
+            this.m_Entries = entries;
+            this.m_Keys = keys;
+        }
+
+        @SuppressWarnings("unchecked")
+        void applyTo(Map<K,V> working) {
+            switch(m_Op) {
+                case PUT:
+                    working.put((K) m_Key, m_Value);
+                    break;
+                case PUT_ALL:
+                    working.putAll(m_Entries);
+                    break;
+                case REMOVE:
+                    working.remove(m_Key);
+                    break;
+                default:
+                    working.keySet().removeAll(m_Keys);
+                    break;
+            }
+        }
+
+        void complete(M result, Throwable failure) {
+            this.m_Result = result;
+            this.m_Failure = failure;
+            // Volatile write publishes the result and failure
+            this.m_Done = true;
+        }
+    }
+}
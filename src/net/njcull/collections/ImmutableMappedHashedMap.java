@@ -0,0 +1,446 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable map held in a static hash table file, mapped into memory,
+ * in the manner of a constant database. The file is written from the
+ * content of an {@link ImmutableHashedArrayMapBuilder} by its
+ * {@link ImmutableHashedArrayMapBuilder#buildMapped buildMapped} method.
+ * Opening a map maps the file without reading it, so opening even a very
+ * large file is immediate.
+ * <p>
+ * The file starts with a header, followed by a table of the offset of
+ * each record in insertion order, then a table of hash slots, then the
+ * records themselves. Each record holds the lengths of its key and value,
+ * then the key and value, encoded by the codecs given when the file was
+ * written. Keys are hashed by their encoded bytes, so the file does not
+ * depend on the {@code hashCode} of the key class.
+ * </p>
+ * <p>
+ * Each slot holds a hash, the index of its entry, and the offset of its
+ * record, and the slot table is at most half full. A lookup reads the
+ * slot for the hash of the key, and usually its neighbours on the same
+ * page, then reads the record to compare the key bytes, so touching one
+ * or two pages. A bi-map has a second slot table for its values, so that
+ * values are found the same way. Keys and values are decoded on each
+ * access, and the same codecs must be supplied when the map is opened as
+ * when it was written.
+ * </p>
+ * <p>
+ * Closing the map drops its mapping, so that any further access fails with
+ * an {@code IllegalStateException}. The mapping itself is removed when it
+ * is collected. The file should be on a local disk. Since the map has an
+ * explicit lifetime, it is not serializable.
+ * </p>
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableMappedHashedMap<K,V> extends AbstractMap<K,V>
+        implements ArrayBackedMap<K,V>, AutoCloseable {
+
+    // File layout
+    static final int MAGIC = 0x4E4A484D;
+    static final int VERSION = 1;
+    static final int FLAG_BIMAP = 1;
+    static final int HEADER_SIZE = 32;
+    static final int SLOT_SIZE = 16;
+
+    private final MappedFileRegion m_Region;
+    private final Codec<K> m_KeyCodec;
+    private final Codec<V> m_ValueCodec;
+    private final int m_Size;
+    private final int m_Mask;
+    private final long m_SlotsOffset;
+    private final long m_ValueSlotsOffset;
+
+    private ImmutableMappedHashedMap(MappedFileRegion region, Codec<K> keyCodec, Codec<V> valueCodec,
+                                     int size, int capacity, long slotsOffset, boolean biMap) {
+        this.m_Region = region;
+        this.m_KeyCodec = keyCodec;
+        this.m_ValueCodec = valueCodec;
+        this.m_Size = size;
+        this.m_Mask = capacity - 1;
+        this.m_SlotsOffset = slotsOffset;
+        this.m_ValueSlotsOffset = biMap ? slotsOffset + (long) capacity * SLOT_SIZE : -1L;
+    }
+
+    /**
+     * Open a hashed map file.
+     *
+     * @param <K> the type of keys maintained by the map
+     * @param <V> the type of mapped values
+     * @param file the map file
+     * @param keyCodec the codec the keys were encoded with
+     * @param valueCodec the codec the values were encoded with
+     * @return the map held in the file
+     * @throws IOException the file could not be mapped, or is not a hashed
+     * map file
+     */
+    public static <K,V> ImmutableMappedHashedMap<K,V> open(Path file, Codec<K> keyCodec, Codec<V> valueCodec) throws IOException {
+        final MappedFileRegion region = MappedFileRegion.map(file);
+        try {
+            final long byteSize = region.byteSize();
+            if((byteSize < HEADER_SIZE) || (region.getInt(0L) != MAGIC)) {
+                throw new IOException("not a hashed map file: " + file);
+            }
+            if(region.getInt(4L) != VERSION) {
+                throw new IOException("unsupported hashed map file version: " + region.getInt(4L));
+            }
+            final boolean biMap = (region.getInt(8L) & FLAG_BIMAP) != 0;
+            final int size = region.getInt(12L);
+            final int capacity = region.getInt(16L);
+            final long slotsOffset = region.getLong(24L);
+            if((size < 0) || (capacity != slotCapacity(size)) ||
+                    (slotsOffset != HEADER_SIZE + (long) size * Long.BYTES) ||
+                    (slotsOffset + (long) capacity * SLOT_SIZE * (biMap ? 2L : 1L) > byteSize)) {
+                throw new IOException("truncated hashed map file: " + file);
+            }
+            return new ImmutableMappedHashedMap<>(region, keyCodec, valueCodec, size, capacity, slotsOffset, biMap);
+        } catch (IOException | RuntimeException e) {
+            region.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of slots for a table of the given size, being a
+     * power of two at least twice the size.
+     */
+    static int slotCapacity(int size) {
+        if(size > (1 << 29)) {
+            throw new IllegalArgumentException("too many keys: " + size);
+        }
+        return Math.max(2, Integer.highestOneBit(Math.max(1, size * 2 - 1)) << 1);
+    }
+
+    /**
+     * Hash the encoded bytes of a key or value, with FNV-1a followed by
+     * the MurmurHash3 finalizer, so that the low bits used to choose a slot
+     * are well mixed.
+     */
+    static int hash(byte[] bytes) {
+        int h = 0x811C9DC5;
+        for(byte b : bytes) {
+            h ^= b & 0xFF;
+            h *= 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    @Override
+    public int size() {
+        return m_Size;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     *
+     * @return {@code true} if this map contains no key-value mappings
+     */
+    @Override
+    public boolean isEmpty() {
+        return m_Size == 0;
+    }
+
+    /**
+     * Returns {@code true} if this map is a bi-map, holding distinct values
+     * that may be found by hash.
+     *
+     * @return {@code true} if this map is a bi-map, otherwise {@code false}
+     */
+    public boolean isBiMap() {
+        return m_ValueSlotsOffset >= 0L;
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the specified
+     * key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the specified
+     *         key, otherwise {@code false}
+     * @throws ClassCastException if the key cannot be encoded by the key codec
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOfKey(key) >= 0;
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value. In a bi-map this is a hash lookup; otherwise it
+     * requires time linear in the map size.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if this map maps one or more keys to the
+     *         specified value
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        return indexOfValue(value) >= 0;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code null} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@code null} if this map contains no mapping for the key
+     * @throws ClassCastException if the key cannot be encoded by the key codec
+     */
+    @Override
+    public V get(Object key) {
+        final int index = indexOfKey(key);
+        return (index < 0) ? null : valueAt(index);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the value to which the specified key is mapped, or
+     *         {@code defaultValue} if this map contains no mapping for the key
+     */
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        final int index = indexOfKey(key);
+        return (index < 0) ? defaultValue : valueAt(index);
+    }
+
+    /**
+     * Returns the array index of the given key, found by hashing its
+     * encoded bytes.
+     *
+     * @param key the key to be found in the map
+     * @return a zero or positive integer if the key is in the map,
+     * otherwise {@code -1} to indicate its absence
+     * @throws ClassCastException if the key cannot be encoded by the key codec
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int indexOfKey(Object key) {
+        if(key == null) {
+            return -1;
+        }
+        return probe(m_SlotsOffset, m_KeyCodec.encode((K) key), true);
+    }
+
+    /**
+     * Returns the array index of the given value. In a bi-map this is found
+     * by hashing its encoded bytes; otherwise it requires time linear in the
+     * map size.
+     *
+     * @param value the value to be found in the map
+     * @return a zero or positive integer if the value is in the map,
+     * otherwise {@code -1} to indicate its absence
+     * @throws ClassCastException if the map is a bi-map, and the value
+     * cannot be encoded by the value codec
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int indexOfValue(Object value) {
+        if(value == null) {
+            return -1;
+        }
+        if(!isBiMap()) {
+            for(int i = 0; i < m_Size; i++) {
+                if(value.equals(valueAt(i))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        return probe(m_ValueSlotsOffset, m_ValueCodec.encode((V) value), false);
+    }
+
+    /**
+     * Probe a slot table for the given encoded key or value, comparing the
+     * bytes of the record for each slot whose hash matches.
+     */
+    private int probe(long slotsOffset, byte[] bytes, boolean isKey) {
+        final int hash = hash(bytes);
+        int slot = hash & m_Mask;
+        while(true) {
+            final long slotOffset = slotsOffset + (long) slot * SLOT_SIZE;
+            final int index = m_Region.getInt(slotOffset + Integer.BYTES) - 1;
+            if(index < 0) {
+                return -1;
+            }
+            if(m_Region.getInt(slotOffset) == hash) {
+                final long record = m_Region.getLong(slotOffset + Integer.BYTES * 2);
+                final int keyLength = m_Region.getInt(record);
+                final int length = isKey ? keyLength : m_Region.getInt(record + Integer.BYTES);
+                if(length == bytes.length) {
+                    final long start = record + Integer.BYTES * 2 + (isKey ? 0 : keyLength);
+                    if(Arrays.equals(bytes, m_Region.getBytes(start, length))) {
+                        return index;
+                    }
+                }
+            }
+            slot = (slot + 1) & m_Mask;
+        }
+    }
+
+    /**
+     * Returns an {@code Entry} object for the map entry at the given array
+     * index.
+     *
+     * @param index the index in the array of the entry to be retrieved
+     * @return an immutable entry for the given array index
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * index is greater than or equal to the map size
+     */
+    @Override
+    public Entry<K,V> entryAt(int index) {
+        return new AbstractMap.SimpleImmutableEntry<>(keyAt(index), valueAt(index));
+    }
+
+    /**
+     * Returns the key of the map entry at the given array index.
+     *
+     * @param index the index in the array of the key to be retrieved
+     * @return the key at the given array index
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * index is greater than or equal to the map size
+     */
+    @Override
+    public K keyAt(int index) {
+        final long record = recordOffset(index);
+        final int keyLength = m_Region.getInt(record);
+        final byte[] bytes = m_Region.getBytes(record + Integer.BYTES * 2, keyLength);
+        return m_KeyCodec.decode(bytes, 0, keyLength);
+    }
+
+    /**
+     * Returns the value of the map entry at the given array index.
+     *
+     * @param index the index in the array of the value to be retrieved
+     * @return the value at the given array index
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * index is greater than or equal to the map size
+     */
+    @Override
+    public V valueAt(int index) {
+        final long record = recordOffset(index);
+        final int keyLength = m_Region.getInt(record);
+        final int valueLength = m_Region.getInt(record + Integer.BYTES);
+        final byte[] bytes = m_Region.getBytes(record + Integer.BYTES * 2 + keyLength, valueLength);
+        return m_ValueCodec.decode(bytes, 0, valueLength);
+    }
+
+    private long recordOffset(int index) {
+        if((index < 0) || (index >= m_Size)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return m_Region.getLong(HEADER_SIZE + (long) index * Long.BYTES);
+    }
+
+    /**
+     * Returns a {@link ArrayBackedSet} view of the mappings contained in
+     * this map, in insertion order.
+     *
+     * @return a set view of the mappings contained in this map
+     */
+    @Override
+    public ArrayBackedSet<Entry<K,V>> entrySet() {
+        return Views.setView(
+                new ArrayBackedImmutableList<>(
+                        Views.mapEntryIndexer(this), size(),
+                        Spliterator.DISTINCT | Spliterator.NONNULL));
+    }
+
+    /**
+     * Returns a {@link ArrayBackedSet} view of the keys contained in this
+     * map, in insertion order.
+     *
+     * @return a set view of the keys contained in this map
+     */
+    @Override
+    public ArrayBackedSet<K> keySet() {
+        return Views.setView(
+                new ArrayBackedImmutableList<>(
+                        Views.mapKeyIndexer(this), size(),
+                        Spliterator.DISTINCT | Spliterator.NONNULL));
+    }
+
+    /**
+     * Returns a {@link ArrayBackedCollection} view of the values contained
+     * in this map, in insertion order.
+     *
+     * @return a collection view of the values contained in this map
+     */
+    @Override
+    public ArrayBackedCollection<V> values() {
+        return Views.collectionView(
+                new ArrayBackedImmutableList<>(
+                        Views.mapValueIndexer(this), size(), Spliterator.NONNULL));
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        ArrayBackedMap.forEach(this, action);
+    }
+
+    /**
+     * Returns the hash code value for this map. The hash code of a map is
+     * defined to be the sum of the hash codes of each entry in the map.
+     *
+     * @return the hash code value for this map
+     */
+    @Override
+    public int hashCode() {
+        return ArrayBackedMap.hashCode(this);
+    }
+
+    /**
+     * Returns a string representation of this map, in insertion order.
+     *
+     * @return a string representation of this map
+     */
+    @Override
+    public String toString() {
+        return ArrayBackedMap.toString(this);
+    }
+
+    /**
+     * Returns {@code true} if this map has been closed.
+     *
+     * @return {@code true} if this map has been closed, otherwise
+     * {@code false}
+     */
+    public boolean isClosed() {
+        return m_Region.isReleased();
+    }
+
+    /**
+     * Close this map, dropping its mapping of the file. Any further access
+     * to the map fails with an {@code IllegalStateException}. Closing a map
+     * more than once has no further effect.
+     */
+    @Override
+    public void close() {
+        m_Region.release();
+    }
+}
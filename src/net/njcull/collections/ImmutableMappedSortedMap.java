@@ -0,0 +1,469 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable map held in a file, mapped into memory, with keys in
+ * ascending order. The file is written by an
+ * {@link ExternalSortedMapBuilder}, which can build maps far larger than
+ * the heap. Opening a map maps the file without reading it, and only the
+ * pages touched by a lookup are loaded.
+ * <p>
+ * The file starts with a header, followed by a table of the offsets of each
+ * record, then the records themselves in key order. Each record holds the
+ * length of its key, the key, and the value, encoded by the codecs given
+ * when the file was built. A bi-map adds a table of record indexes in value
+ * order, so that values are also found by binary search. Keys and values
+ * are decoded on each access, and the same codecs and comparators must be
+ * supplied when the map is opened as when it was built.
+ * </p>
+ * <p>
+ * Closing the map drops its mapping, so that any further access fails with
+ * an {@code IllegalStateException}. The mapping itself is removed when it
+ * is collected. The file should be on a local disk. Since the map has an
+ * explicit lifetime, it is not serializable.
+ * </p>
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableMappedSortedMap<K,V> extends AbstractMap<K,V>
+        implements ArrayBackedMap<K,V>, AutoCloseable {
+
+    // File layout
+    static final int MAGIC = 0x4E4A534D;
+    static final int VERSION = 1;
+    static final int FLAG_BIMAP = 1;
+    static final int HEADER_SIZE = 32;
+
+    private final MappedFileRegion m_Region;
+    private final Codec<K> m_KeyCodec;
+    private final Codec<V> m_ValueCodec;
+    private final Comparator<? super K> m_KeyComparator;
+    private final Comparator<? super V> m_ValueComparator;
+    private final int m_Size;
+    private final long m_ValueIndexOffset;
+
+    private ImmutableMappedSortedMap(MappedFileRegion region, Codec<K> keyCodec, Codec<V> valueCodec,
+                                     Comparator<? super K> keyComparator, Comparator<? super V> valueComparator,
+                                     int size, long valueIndexOffset) {
+        this.m_Region = region;
+        this.m_KeyCodec = keyCodec;
+        this.m_ValueCodec = valueCodec;
+        this.m_KeyComparator = keyComparator;
+        this.m_ValueComparator = valueComparator;
+        this.m_Size = size;
+        this.m_ValueIndexOffset = valueIndexOffset;
+    }
+
+    /**
+     * Open a map file whose keys and values are in their natural order.
+     *
+     * @param <K> the type of keys maintained by the map
+     * @param <V> the type of mapped values
+     * @param file the map file
+     * @param keyCodec the codec the keys were encoded with
+     * @param valueCodec the codec the values were encoded with
+     * @return the map held in the file
+     * @throws IOException the file could not be mapped, or is not a sorted
+     * map file
+     */
+    public static <K,V> ImmutableMappedSortedMap<K,V> open(Path file, Codec<K> keyCodec, Codec<V> valueCodec) throws IOException {
+        return open(file, keyCodec, valueCodec, null, null);
+    }
+
+    /**
+     * Open a map file whose keys and values are ordered by the given
+     * comparators.
+     *
+     * @param <K> the type of keys maintained by the map
+     * @param <V> the type of mapped values
+     * @param file the map file
+     * @param keyCodec the codec the keys were encoded with
+     * @param valueCodec the codec the values were encoded with
+     * @param keyComparator the comparator the keys were sorted with, or
+     *                      {@code null} for their natural order
+     * @param valueComparator the comparator the values were sorted with, or
+     *                        {@code null} for their natural order
+     * @return the map held in the file
+     * @throws IOException the file could not be mapped, or is not a sorted
+     * map file
+     */
+    public static <K,V> ImmutableMappedSortedMap<K,V> open(Path file, Codec<K> keyCodec, Codec<V> valueCodec,
+                                                           Comparator<? super K> keyComparator,
+                                                           Comparator<? super V> valueComparator) throws IOException {
+        final MappedFileRegion region = MappedFileRegion.map(file);
+        try {
+            final long byteSize = region.byteSize();
+            if((byteSize < HEADER_SIZE) || (region.getInt(0L) != MAGIC)) {
+                throw new IOException("not a sorted map file: " + file);
+            }
+            if(region.getInt(4L) != VERSION) {
+                throw new IOException("unsupported sorted map file version: " + region.getInt(4L));
+            }
+            final int flags = region.getInt(8L);
+            final int size = region.getInt(12L);
+            final long valueIndexOffset = region.getLong(24L);
+            final long dataOffset = HEADER_SIZE + ((long) size + 1L) * Long.BYTES;
+            if((size < 0) || (dataOffset > byteSize) ||
+                    (region.getLong(HEADER_SIZE + (long) size * Long.BYTES) > byteSize)) {
+                throw new IOException("truncated sorted map file: " + file);
+            }
+            final boolean biMap = (flags & FLAG_BIMAP) != 0;
+            if(biMap && ((valueIndexOffset < dataOffset) || (valueIndexOffset + (long) size * Integer.BYTES > byteSize))) {
+                throw new IOException("truncated sorted map file: " + file);
+            }
+            return new ImmutableMappedSortedMap<>(region, keyCodec, valueCodec,
+                    keyComparator, valueComparator, size, biMap ? valueIndexOffset : -1L);
+        } catch (IOException | RuntimeException e) {
+            region.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    @Override
+    public int size() {
+        return m_Size;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     *
+     * @return {@code true} if this map contains no key-value mappings
+     */
+    @Override
+    public boolean isEmpty() {
+        return m_Size == 0;
+    }
+
+    /**
+     * Returns {@code true} if this map is a bi-map, holding distinct values
+     * that may be found by binary search.
+     *
+     * @return {@code true} if this map is a bi-map, otherwise {@code false}
+     */
+    public boolean isBiMap() {
+        return m_ValueIndexOffset >= 0L;
+    }
+
+    /**
+     * Returns the comparator used to order the keys in this map, or
+     * {@code null} if this map uses the natural ordering of its keys.
+     *
+     * @return the comparator used to order the keys in this map
+     */
+    public Comparator<? super K> comparator() {
+        return m_KeyComparator;
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the specified
+     * key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the specified
+     *         key, otherwise {@code false}
+     * @throws ClassCastException if the key cannot be compared with the
+     *         keys in the map
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOfKey(key) >= 0;
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value. In a bi-map this is a binary search; otherwise it
+     * requires time linear in the map size.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if this map maps one or more keys to the
+     *         specified value
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        return indexOfValue(value) >= 0;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code null} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@code null} if this map contains no mapping for the key
+     * @throws ClassCastException if the key cannot be compared with the
+     *         keys in the map
+     */
+    @Override
+    public V get(Object key) {
+        final int index = indexOfKey(key);
+        return (index < 0) ? null : valueAt(index);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the value to which the specified key is mapped, or
+     *         {@code defaultValue} if this map contains no mapping for the key
+     */
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        final int index = indexOfKey(key);
+        return (index < 0) ? defaultValue : valueAt(index);
+    }
+
+    /**
+     * Returns the array index of the given key, found by binary search.
+     * Each step of the search decodes one key.
+     *
+     * @param key the key to be found in the map
+     * @return a zero or positive integer if the key is in the map,
+     * otherwise {@code -1} to indicate its absence
+     * @throws ClassCastException if the key cannot be compared with the
+     *         keys in the map
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int indexOfKey(Object key) {
+        if(key == null) {
+            return -1;
+        }
+        final Comparator<Object> cmp = (Comparator<Object>) comparatorOrNatural(m_KeyComparator);
+        int low = 0;
+        int high = m_Size - 1;
+
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int c = cmp.compare(keyAt(mid), key);
+
+            if (c < 0) {
+                low = mid + 1;
+            } else if (c > 0) {
+                high = mid - 1;
+            } else {
+                return mid; // key found
+            }
+        }
+        return -1;  // key not found.
+    }
+
+    /**
+     * Returns the array index of the given value. In a bi-map this is a
+     * binary search of the value index; otherwise it requires time linear
+     * in the map size.
+     *
+     * @param value the value to be found in the map
+     * @return a zero or positive integer if the value is in the map,
+     * otherwise {@code -1} to indicate its absence
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int indexOfValue(Object value) {
+        if(value == null) {
+            return -1;
+        }
+        if(!isBiMap()) {
+            for(int i = 0; i < m_Size; i++) {
+                if(value.equals(valueAt(i))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        final Comparator<Object> cmp = (Comparator<Object>) comparatorOrNatural(m_ValueComparator);
+        int low = 0;
+        int high = m_Size - 1;
+
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int index = m_Region.getInt(m_ValueIndexOffset + (long) mid * Integer.BYTES);
+            final int c = cmp.compare(valueAt(index), value);
+
+            if (c < 0) {
+                low = mid + 1;
+            } else if (c > 0) {
+                high = mid - 1;
+            } else {
+                return index; // value found
+            }
+        }
+        return -1;  // value not found.
+    }
+
+    private static Comparator<?> comparatorOrNatural(Comparator<?> cmp) {
+        return (cmp == null) ? Comparator.naturalOrder() : cmp;
+    }
+
+    /**
+     * Returns an {@code Entry} object for the map entry at the given array
+     * index.
+     *
+     * @param index the index in the array of the entry to be retrieved
+     * @return an immutable entry for the given array index
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * index is greater than or equal to the map size
+     */
+    @Override
+    public Entry<K,V> entryAt(int index) {
+        return new AbstractMap.SimpleImmutableEntry<>(keyAt(index), valueAt(index));
+    }
+
+    /**
+     * Returns the key of the map entry at the given array index.
+     *
+     * @param index the index in the array of the key to be retrieved
+     * @return the key at the given array index
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * index is greater than or equal to the map size
+     */
+    @Override
+    public K keyAt(int index) {
+        final long start = recordOffset(index);
+        final int keyLength = m_Region.getInt(start);
+        final byte[] bytes = m_Region.getBytes(start + Integer.BYTES, keyLength);
+        return m_KeyCodec.decode(bytes, 0, keyLength);
+    }
+
+    /**
+     * Returns the value of the map entry at the given array index.
+     *
+     * @param index the index in the array of the value to be retrieved
+     * @return the value at the given array index
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * index is greater than or equal to the map size
+     */
+    @Override
+    public V valueAt(int index) {
+        final long start = recordOffset(index);
+        final long end = m_Region.getLong(HEADER_SIZE + ((long) index + 1L) * Long.BYTES);
+        final long valueStart = start + Integer.BYTES + m_Region.getInt(start);
+        final int valueLength = (int) (end - valueStart);
+        final byte[] bytes = m_Region.getBytes(valueStart, valueLength);
+        return m_ValueCodec.decode(bytes, 0, valueLength);
+    }
+
+    private long recordOffset(int index) {
+        if((index < 0) || (index >= m_Size)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return m_Region.getLong(HEADER_SIZE + (long) index * Long.BYTES);
+    }
+
+    /**
+     * Returns a {@link ArrayBackedSet} view of the mappings contained in
+     * this map, in ascending key order.
+     *
+     * @return a set view of the mappings contained in this map
+     */
+    @Override
+    public ArrayBackedSet<Entry<K,V>> entrySet() {
+        return Views.setView(
+                new ArrayBackedImmutableList<>(
+                        Views.mapEntryIndexer(this), size(),
+                        Spliterator.DISTINCT | Spliterator.NONNULL));
+    }
+
+    /**
+     * Returns a {@link ArrayBackedSet} view of the keys contained in this
+     * map, in ascending order.
+     *
+     * @return a set view of the keys contained in this map
+     */
+    @Override
+    public ArrayBackedSet<K> keySet() {
+        return Views.setView(
+                new ArrayBackedImmutableList<K>(
+                        Views.mapKeyIndexer(this), size(),
+                        Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.SORTED,
+                        m_KeyComparator));
+    }
+
+    /**
+     * Returns a {@link ArrayBackedCollection} view of the values contained
+     * in this map, in ascending order of their keys.
+     *
+     * @return a collection view of the values contained in this map
+     */
+    @Override
+    public ArrayBackedCollection<V> values() {
+        return Views.collectionView(
+                new ArrayBackedImmutableList<>(
+                        Views.mapValueIndexer(this), size(), Spliterator.NONNULL));
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        ArrayBackedMap.forEach(this, action);
+    }
+
+    /**
+     * Returns the hash code value for this map. The hash code of a map is
+     * defined to be the sum of the hash codes of each entry in the map.
+     *
+     * @return the hash code value for this map
+     */
+    @Override
+    public int hashCode() {
+        return ArrayBackedMap.hashCode(this);
+    }
+
+    /**
+     * Returns a string representation of this map, in ascending key order.
+     *
+     * @return a string representation of this map
+     */
+    @Override
+    public String toString() {
+        return ArrayBackedMap.toString(this);
+    }
+
+    /**
+     * Returns {@code true} if this map has been closed.
+     *
+     * @return {@code true} if this map has been closed, otherwise
+     * {@code false}
+     */
+    public boolean isClosed() {
+        return m_Region.isReleased();
+    }
+
+    /**
+     * Close this map, dropping its mapping of the file. Any further access
+     * to the map fails with an {@code IllegalStateException}. Closing a map
+     * more than once has no further effect.
+     */
+    @Override
+    public void close() {
+        m_Region.release();
+    }
+
+    /**
+     * Create a new builder for writing a sorted map file, with keys and
+     * values encoded by the given codecs.
+     *
+     * @param <K> the type of keys maintained by the map
+     * @param <V> the type of mapped values
+     * @param keyCodec the codec for encoding the keys
+     * @param valueCodec the codec for encoding the values
+     * @return a new builder for writing a map file
+     */
+    public static <K,V> ExternalSortedMapBuilder<K,V> builder(Codec<K> keyCodec, Codec<V> valueCodec) {
+        return ExternalSortedMapBuilder.newMap(keyCodec, valueCodec);
+    }
+}
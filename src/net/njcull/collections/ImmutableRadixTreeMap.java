@@ -0,0 +1,795 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable map of {@code String} keys, held as a radix tree packed
+ * into arrays. Each edge of the tree is labelled with a run of characters,
+ * and keys sharing a prefix share the edges spelling out that prefix, so
+ * dictionaries with many shared prefixes need far fewer characters than the
+ * keys themselves.
+ * <p>
+ * The edge labels are held in a single character array, and the nodes in a
+ * single int array, with the children of each node held contiguously and
+ * ordered by the first character of their labels. Each node also records
+ * the range of key indexes within its subtree. Keys are indexed in their
+ * natural order, and values are held in a single array in key order.
+ * </p>
+ * <p>
+ * Finding a key, the longest key that is a prefix of a given string, or the
+ * range of keys starting with a given prefix, each take time proportional
+ * to the length of the string, and do not allocate. Retrieving a key by
+ * index rebuilds the key from its edge labels.
+ * </p>
+ *
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableRadixTreeMap<V> extends AbstractMap<String,V>
+        implements ArrayBackedMap<String,V>, Serializable {
+
+    // Node layout within the node array
+    private static final int LABEL_START = 0;
+    private static final int LABEL_LENGTH = 1;
+    private static final int FIRST_CHILD = 2;
+    private static final int CHILD_COUNT = 3;
+    private static final int KEY_START = 4;
+    private static final int KEY_END = 5;
+    private static final int NODE_SIZE = 6;
+
+    private final char[] m_Labels;
+    private final int[] m_Nodes;
+    private final Object[] m_Values;
+
+    // Singleton, as an optimization only
+    private static final ImmutableRadixTreeMap<?> EMPTY =
+            new ImmutableRadixTreeMap<>(new char[0], new int[NODE_SIZE], new Object[0]);
+
+    // Serialization
+    private static final long serialVersionUID = 4950316822739146287L;
+
+    /**
+     * Returns an immutable empty radix tree map. Each call to this method
+     * will return the same empty map.
+     *
+     * @param <V> the type of mapped values
+     * @return an immutable empty radix tree map
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> ImmutableRadixTreeMap<V> emptyMap() {
+        return (ImmutableRadixTreeMap<V>) EMPTY;
+    }
+
+    ImmutableRadixTreeMap(char[] labels, int[] nodes, Object[] values) {
+        this.m_Labels = Objects.requireNonNull(labels, "labels must not be null");
+        this.m_Nodes = Objects.requireNonNull(nodes, "nodes must not be null");
+        this.m_Values = Objects.requireNonNull(values, "values must not be null");
+    }
+
+    /**
+     * Create a radix tree map from the given keys, which must be distinct
+     * and sorted in their natural order, and their values.
+     */
+    static <V> ImmutableRadixTreeMap<V> fromSortedKeys(String[] keys, Object[] values) {
+        if(keys.length == 0) {
+            return emptyMap();
+        }
+
+        // Nodes are appended in breadth first order, so the node array also
+        // serves as the queue of nodes whose children are still to be added
+        final TreeBuffer tree = new TreeBuffer(keys.length);
+        tree.addNode(0, 0, 0, keys.length, 0);
+        for(int node = 0; node < tree.m_NodeCount; node += NODE_SIZE) {
+            final int lo = tree.m_Nodes[node + KEY_START];
+            final int hi = tree.m_Nodes[node + KEY_END];
+            final int depth = tree.m_Depths[node / NODE_SIZE];
+
+            // The node's own key sorts before its children's keys
+            int i = (keys[lo].length() == depth) ? lo + 1 : lo;
+            final int firstChild = tree.m_NodeCount;
+            int childCount = 0;
+            while(i < hi) {
+                final int j = groupEnd(keys, i, hi, depth);
+                final int lcp = commonPrefix(keys[i], keys[j - 1], depth + 1);
+                final int labelStart = tree.addLabel(keys[i], depth, lcp);
+                tree.addNode(labelStart, lcp - depth, i, j, lcp);
+                childCount++;
+                i = j;
+            }
+            if(childCount > 0) {
+                tree.m_Nodes[node + FIRST_CHILD] = firstChild;
+                tree.m_Nodes[node + CHILD_COUNT] = childCount;
+            }
+        }
+
+        return new ImmutableRadixTreeMap<>(
+                Arrays.copyOf(tree.m_Labels, tree.m_LabelCount),
+                Arrays.copyOf(tree.m_Nodes, tree.m_NodeCount),
+                values);
+    }
+
+    /**
+     * Returns the end of the run of keys starting at {@code from} that have
+     * the same character at the given depth, using a binary search.
+     */
+    private static int groupEnd(String[] keys, int from, int to, int depth) {
+        final char c = keys[from].charAt(depth);
+        int low = from + 1;
+        int high = to - 1;
+        while(low <= high) {
+            final int mid = (low + high) >>> 1;
+            if(keys[mid].charAt(depth) == c) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the length of the common prefix of the given keys, which are
+     * known to share at least the given number of characters.
+     */
+    private static int commonPrefix(String first, String last, int from) {
+        final int max = Math.min(first.length(), last.length());
+        int i = from;
+        while((i < max) && (first.charAt(i) == last.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    @Override
+    public int size() {
+        return m_Values.length;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     *
+     * @return {@code true} if this map contains no key-value mappings
+     */
+    @Override
+    public boolean isEmpty() {
+        return m_Values.length == 0;
+    }
+
+    /**
+     * Returns the number of nodes in the radix tree, including the root.
+     *
+     * @return the number of nodes in the radix tree
+     */
+    public int nodeCount() {
+        return m_Nodes.length / NODE_SIZE;
+    }
+
+    /**
+     * Returns the total number of characters held in the edge labels of
+     * the radix tree.
+     *
+     * @return the number of characters in the edge labels
+     */
+    public int labelLength() {
+        return m_Labels.length;
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the specified
+     * key. This operation requires time proportional to the length of the
+     * key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the specified
+     *         key, otherwise {@code false}
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOfKey(key) >= 0;
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value. This operation requires time linear in the size of
+     * the map.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if this map maps one or more keys to the
+     *         specified value, otherwise {@code false}
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        return indexOfValue(value) >= 0;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@code null} if this map contains no mapping for the key
+     */
+    @Override
+    public V get(Object key) {
+        return getOrDefault(key, null);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        final int idx = indexOfKey(key);
+        return (idx >= 0) ? (V) m_Values[idx] : defaultValue;
+    }
+
+    /**
+     * Returns the index of the given key in the map, found by descending
+     * the radix tree.
+     *
+     * @param key the key to be found in the map
+     * @return a zero or positive integer if the key is in the map,
+     * otherwise {@code -1} to indicate its absence
+     */
+    @Override
+    public int indexOfKey(Object key) {
+        if(!(key instanceof String)) {
+            return -1;
+        }
+        final String chars = (String) key;
+        final int length = chars.length();
+        int node = 0;
+        int pos = 0;
+        while(pos < length) {
+            node = findChild(node, chars.charAt(pos));
+            if(node < 0) {
+                return -1;
+            }
+            final int labelLength = m_Nodes[node + LABEL_LENGTH];
+            if((pos + labelLength > length) || !labelMatches(node, chars, pos, labelLength)) {
+                return -1;
+            }
+            pos += labelLength;
+        }
+        return isTerminal(node) ? m_Nodes[node + KEY_START] : -1;
+    }
+
+    /**
+     * Returns the index of the longest key in this map that is a prefix of
+     * the given characters. This operation requires time proportional to
+     * the length of the matching prefix.
+     *
+     * @param chars the characters to be matched
+     * @return the index of the longest key that is a prefix of the
+     * characters, otherwise {@code -1} if no key is a prefix
+     * @throws NullPointerException if the characters are {@code null}
+     */
+    public int indexOfLongestPrefix(CharSequence chars) {
+        final int length = chars.length();
+        int node = 0;
+        int pos = 0;
+        int best = isTerminal(node) ? m_Nodes[KEY_START] : -1;
+        while(pos < length) {
+            node = findChild(node, chars.charAt(pos));
+            if(node < 0) {
+                break;
+            }
+            final int labelLength = m_Nodes[node + LABEL_LENGTH];
+            if((pos + labelLength > length) || !labelMatches(node, chars, pos, labelLength)) {
+                break;
+            }
+            pos += labelLength;
+            if(isTerminal(node)) {
+                best = m_Nodes[node + KEY_START];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the longest key in this map that is a prefix of the given
+     * characters.
+     *
+     * @param chars the characters to be matched
+     * @return the longest key that is a prefix of the characters, otherwise
+     * {@code null} if no key is a prefix
+     * @throws NullPointerException if the characters are {@code null}
+     */
+    public String longestPrefixOf(CharSequence chars) {
+        final int idx = indexOfLongestPrefix(chars);
+        return (idx >= 0) ? keyAt(idx) : null;
+    }
+
+    /**
+     * Returns the index of the first key starting with the given prefix.
+     * The keys starting with the prefix are those from
+     * {@code prefixFromIndex(prefix)} inclusive to
+     * {@code prefixToIndex(prefix)} exclusive.
+     *
+     * @param prefix the prefix of the keys to be found
+     * @return the index of the first key starting with the prefix, otherwise
+     * the index at which such a key would be inserted
+     * @throws NullPointerException if the prefix is {@code null}
+     */
+    public int prefixFromIndex(CharSequence prefix) {
+        return prefixIndex(prefix, KEY_START);
+    }
+
+    /**
+     * Returns the index following the last key starting with the given
+     * prefix.
+     *
+     * @param prefix the prefix of the keys to be found
+     * @return the index following the last key starting with the prefix,
+     * otherwise the index at which such a key would be inserted
+     * @throws NullPointerException if the prefix is {@code null}
+     */
+    public int prefixToIndex(CharSequence prefix) {
+        return prefixIndex(prefix, KEY_END);
+    }
+
+    /**
+     * Returns a view of the portion of this map whose keys start with the
+     * given prefix, without copying.
+     *
+     * @param prefix the prefix of the keys in the returned map
+     * @return a view of the portion of this map whose keys start with the
+     * prefix
+     * @throws NullPointerException if the prefix is {@code null}
+     */
+    public ArrayBackedMap<String,V> prefixMap(CharSequence prefix) {
+        final int fromIndex = prefixIndex(prefix, KEY_START);
+        final int toIndex = prefixIndex(prefix, KEY_END);
+        if((fromIndex == 0) && (toIndex == m_Values.length)) {
+            return this;
+        }
+        return new ArrayBackedSubMap<>(this, fromIndex, toIndex);
+    }
+
+    /**
+     * Descend the tree along the prefix, returning the given bound of the
+     * key range of the subtree it ends in. If the prefix leaves the tree,
+     * returns the index at which it would be inserted.
+     */
+    private int prefixIndex(CharSequence prefix, int bound) {
+        final int length = prefix.length();
+        int node = 0;
+        int pos = 0;
+        while(pos < length) {
+            final char c = prefix.charAt(pos);
+            final int child = findChild(node, c);
+            if(child < 0) {
+                return insertionPoint(node, c);
+            }
+            final int labelStart = m_Nodes[child + LABEL_START];
+            final int labelLength = m_Nodes[child + LABEL_LENGTH];
+            final int len = Math.min(labelLength, length - pos);
+            for(int i = 0; i < len; i++) {
+                final char lc = m_Labels[labelStart + i];
+                final char pc = prefix.charAt(pos + i);
+                if(lc != pc) {
+                    return (pc < lc) ? m_Nodes[child + KEY_START] : m_Nodes[child + KEY_END];
+                }
+            }
+            // The prefix may end part way along the label
+            pos += len;
+            node = child;
+        }
+        return m_Nodes[node + bound];
+    }
+
+    /**
+     * Returns the index at which a key leaving the given node by a missing
+     * child starting with the given character would be inserted.
+     */
+    private int insertionPoint(int node, char c) {
+        final int first = m_Nodes[node + FIRST_CHILD];
+        final int count = m_Nodes[node + CHILD_COUNT];
+        for(int i = 0; i < count; i++) {
+            final int child = first + i * NODE_SIZE;
+            if(m_Labels[m_Nodes[child + LABEL_START]] > c) {
+                return m_Nodes[child + KEY_START];
+            }
+        }
+        return m_Nodes[node + KEY_END];
+    }
+
+    /**
+     * Returns the offset of the child of the given node whose label starts
+     * with the given character, otherwise {@code -1}, using a binary search.
+     */
+    private int findChild(int node, char c) {
+        final int first = m_Nodes[node + FIRST_CHILD];
+        int low = 0;
+        int high = m_Nodes[node + CHILD_COUNT] - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int child = first + mid * NODE_SIZE;
+            char midVal = m_Labels[m_Nodes[child + LABEL_START]];
+
+            if (midVal < c) {
+                low = mid + 1;
+            } else if (midVal > c) {
+                high = mid - 1;
+            } else {
+                return child; // child found
+            }
+        }
+        return -1;  // child not found.
+    }
+
+    private boolean labelMatches(int node, CharSequence chars, int pos, int labelLength) {
+        final int labelStart = m_Nodes[node + LABEL_START];
+        for(int i = 0; i < labelLength; i++) {
+            if(m_Labels[labelStart + i] != chars.charAt(pos + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A node ends a key if it has no children, or if its first child's keys
+     * do not start at the node's first key.
+     */
+    private boolean isTerminal(int node) {
+        final int keyStart = m_Nodes[node + KEY_START];
+        if(keyStart == m_Nodes[node + KEY_END]) {
+            return false;
+        }
+        return (m_Nodes[node + CHILD_COUNT] == 0) ||
+                (m_Nodes[m_Nodes[node + FIRST_CHILD] + KEY_START] != keyStart);
+    }
+
+    /**
+     * Returns an {@code Entry} object for the map entry at the given
+     * index.
+     *
+     * @param index the index of the entry to be retrieved
+     * @return an {@code Entry} object corresponding to the given index
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * index is greater than or equal to the map size
+     */
+    @Override
+    public Entry<String,V> entryAt(int index) {
+        return new AbstractMap.SimpleImmutableEntry<>(keyAt(index), valueAt(index));
+    }
+
+    /**
+     * Returns the key of the map entry at the given index, rebuilt from the
+     * edge labels along its path in the radix tree.
+     *
+     * @param index the index of the key to be retrieved
+     * @return the key at the given index
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * index is greater than or equal to the map size
+     */
+    @Override
+    public String keyAt(int index) {
+        if((index < 0) || (index >= m_Values.length)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        final StringBuilder sb = new StringBuilder();
+        int node = 0;
+        while((m_Nodes[node + KEY_START] != index) || !isTerminal(node)) {
+            node = childContaining(node, index);
+            sb.append(m_Labels, m_Nodes[node + LABEL_START], m_Nodes[node + LABEL_LENGTH]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the offset of the child of the given node whose key range
+     * contains the given index, using a binary search.
+     */
+    private int childContaining(int node, int index) {
+        final int first = m_Nodes[node + FIRST_CHILD];
+        int low = 0;
+        int high = m_Nodes[node + CHILD_COUNT] - 1;
+
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (m_Nodes[first + mid * NODE_SIZE + KEY_START] <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return first + low * NODE_SIZE;
+    }
+
+    /**
+     * Returns the value of the map entry at the given index.
+     *
+     * @param index the index of the value to be retrieved
+     * @return the value at the given index
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * index is greater than or equal to the map size
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public V valueAt(int index) {
+        if((index < 0) || (index >= m_Values.length)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return (V) m_Values[index];
+    }
+
+    /**
+     * Returns the index of the first occurrence of the given value in
+     * the map. This operation requires time linear in the size of the map.
+     *
+     * @param value the value to be found in the map
+     * @return a zero or positive integer if the value is in the map,
+     * otherwise {@code -1} to indicate its absence
+     */
+    @Override
+    public int indexOfValue(Object value) {
+        for(int i = 0; i < m_Values.length; i++) {
+            if(Objects.equals(value, m_Values[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns an {@link ArrayBackedSet} view of the mappings contained in
+     * this map, in key order.
+     *
+     * @return an array-backed set view of the mappings contained in this map
+     */
+    @Override
+    public ArrayBackedSet<Entry<String,V>> entrySet() {
+        return Views.setView(
+                new ArrayBackedImmutableList<>(
+                        Views.mapEntryIndexer(this), size(),
+                        Spliterator.DISTINCT | Spliterator.NONNULL));
+    }
+
+    /**
+     * Returns an {@link ArrayBackedSet} view of the keys contained in this
+     * map, in their natural order.
+     *
+     * @return an array-backed set view of the keys contained in this map
+     */
+    @Override
+    public ArrayBackedSet<String> keySet() {
+        return Views.setView(
+                new ArrayBackedImmutableList<>(
+                        Views.mapKeyIndexer(this), size(),
+                        Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.SORTED, null));
+    }
+
+    /**
+     * Returns an {@link ArrayBackedCollection} view of the values contained
+     * in this map, in key order.
+     *
+     * @return an array-backed collection view of the values contained in
+     * this map
+     */
+    @Override
+    public ArrayBackedCollection<V> values() {
+        return Views.collectionView(
+                new ArrayBackedImmutableList<>(Views.mapValueIndexer(this), size()));
+    }
+
+    /**
+     * Performs the given action for each entry in this map, in key order,
+     * until all entries have been processed or the action throws an
+     * exception. Keys are rebuilt incrementally while walking the tree.
+     *
+     * @param action The action to be performed for each entry
+     * @throws NullPointerException if the specified action is null
+     */
+    @Override
+    public void forEach(BiConsumer<? super String, ? super V> action) {
+        Objects.requireNonNull(action);
+        if(m_Values.length > 0) {
+            forEach(0, new StringBuilder(), action);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void forEach(int node, StringBuilder sb, BiConsumer<? super String, ? super V> action) {
+        final int length = sb.length();
+        sb.append(m_Labels, m_Nodes[node + LABEL_START], m_Nodes[node + LABEL_LENGTH]);
+        if(isTerminal(node)) {
+            action.accept(sb.toString(), (V) m_Values[m_Nodes[node + KEY_START]]);
+        }
+        final int first = m_Nodes[node + FIRST_CHILD];
+        final int count = m_Nodes[node + CHILD_COUNT];
+        for(int i = 0; i < count; i++) {
+            forEach(first + i * NODE_SIZE, sb, action);
+        }
+        sb.setLength(length);
+    }
+
+    /**
+     * Returns the hash code value for this map.
+     *
+     * @return the hash code value for this map
+     */
+    @Override
+    public int hashCode() {
+        final int[] h = new int[1];
+        forEach((k, v) -> h[0] += k.hashCode() ^ Objects.hashCode(v));
+        return h[0];
+    }
+
+    /**
+     * Returns a string representation of this map.
+     *
+     * @return a string representation of this map
+     */
+    @Override
+    public String toString() {
+        return ArrayBackedMap.toString(this);
+    }
+
+    /**
+     * Create a builder object for this immutable radix tree map.
+     *
+     * @param <V> the type of values in the resulting map
+     * @return a new builder object
+     */
+    public static <V> ImmutableRadixTreeMapBuilder<V> builder() {
+        return new ImmutableRadixTreeMapBuilder<>();
+    }
+
+    /**
+     * Create an immutable radix tree map with the contents of the given map.
+     *
+     * @param <V> the type of values in the resulting map
+     * @param map the map to be copied
+     * @return an immutable radix tree map with the contents of the given map
+     */
+    public static <V> ImmutableRadixTreeMap<V> copyOf(Map<String, ? extends V> map) {
+        ImmutableRadixTreeMapBuilder<V> builder = new ImmutableRadixTreeMapBuilder<>();
+        return builder.with(map).build();
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @param stream the object stream to be deserialized
+     * @throws ClassNotFoundException the class or descendants could not be found
+     * @throws IOException there was a problem reading the object stream
+     */
+    private void readObject(ObjectInputStream stream) throws ClassNotFoundException, IOException {
+        stream.defaultReadObject();
+
+        // Perform validation
+        if((m_Labels == null) || (m_Nodes == null) || (m_Values == null)) {
+            throw new InvalidObjectException("radix tree must have labels, nodes, and values");
+        }
+        if((m_Nodes.length < NODE_SIZE) || (m_Nodes.length % NODE_SIZE != 0)) {
+            throw new InvalidObjectException("radix tree nodes are malformed");
+        }
+        if((m_Nodes[KEY_START] != 0) || (m_Nodes[KEY_END] != m_Values.length)) {
+            throw new InvalidObjectException("radix tree root must span the values");
+        }
+        for(int node = 0; node < m_Nodes.length; node += NODE_SIZE) {
+            final int labelStart = m_Nodes[node + LABEL_START];
+            final int labelLength = m_Nodes[node + LABEL_LENGTH];
+            if((labelStart < 0) || (labelLength < 0) || (labelLength > m_Labels.length - labelStart)) {
+                throw new InvalidObjectException("radix tree label out of range");
+            }
+            if((node > 0) && (labelLength == 0)) {
+                throw new InvalidObjectException("radix tree edge must have a label");
+            }
+            final int keyStart = m_Nodes[node + KEY_START];
+            final int keyEnd = m_Nodes[node + KEY_END];
+            if((keyStart < 0) || (keyEnd < keyStart) || (keyEnd > m_Values.length)) {
+                throw new InvalidObjectException("radix tree key range out of range");
+            }
+        }
+        for(int node = 0; node < m_Nodes.length; node += NODE_SIZE) {
+            final int keyStart = m_Nodes[node + KEY_START];
+            final int keyEnd = m_Nodes[node + KEY_END];
+            final int first = m_Nodes[node + FIRST_CHILD];
+            final int count = m_Nodes[node + CHILD_COUNT];
+            if(count == 0) {
+                continue;
+            }
+            // Children follow their parent, and partition the parent's keys
+            if((first <= node) || (first % NODE_SIZE != 0) || (count < 0) ||
+                    (count > (m_Nodes.length - first) / NODE_SIZE)) {
+                throw new InvalidObjectException("radix tree children out of range");
+            }
+            int expected = m_Nodes[first + KEY_START];
+            if((expected != keyStart) && (expected != keyStart + 1)) {
+                throw new InvalidObjectException("radix tree key ranges are inconsistent");
+            }
+            for(int i = 0; i < count; i++) {
+                final int child = first + i * NODE_SIZE;
+                if((m_Nodes[child + KEY_START] != expected) ||
+                        ((i > 0) && (m_Labels[m_Nodes[child + LABEL_START]] <=
+                                m_Labels[m_Nodes[child - NODE_SIZE + LABEL_START]]))) {
+                    throw new InvalidObjectException("radix tree children are inconsistent");
+                }
+                expected = m_Nodes[child + KEY_END];
+            }
+            if(expected != keyEnd) {
+                throw new InvalidObjectException("radix tree key ranges are inconsistent");
+            }
+        }
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @return the resolved object
+     */
+    private Object readResolve() {
+        if(m_Values.length == 0) {
+            // optimization only
+            return EMPTY;
+        }
+        return this;
+    }
+
+    /**
+     * Growable buffers for the labels and nodes of the tree under
+     * construction, with the depth of each node.
+     */
+    private static final class TreeBuffer {
+        char[] m_Labels;
+        int m_LabelCount;
+        int[] m_Nodes;
+        int m_NodeCount;
+        int[] m_Depths;
+
+        TreeBuffer(int keyCount) {
+            // A radix tree has at most two nodes per key, plus the root
+            final int nodes = Math.min(2 * keyCount + 1, 1024);
+            m_Labels = new char[16 * nodes];
+            m_Nodes = new int[nodes * NODE_SIZE];
+            m_Depths = new int[nodes];
+        }
+
+        int addLabel(String key, int from, int to) {
+            final int length = to - from;
+            if(m_Labels.length - m_LabelCount < length) {
+                m_Labels = Arrays.copyOf(m_Labels, Math.max(m_LabelCount + length, m_Labels.length * 2));
+            }
+            key.getChars(from, to, m_Labels, m_LabelCount);
+            final int start = m_LabelCount;
+            m_LabelCount += length;
+            return start;
+        }
+
+        void addNode(int labelStart, int labelLength, int keyStart, int keyEnd, int depth) {
+            if(m_NodeCount == m_Nodes.length) {
+                m_Nodes = Arrays.copyOf(m_Nodes, m_Nodes.length * 2);
+                m_Depths = Arrays.copyOf(m_Depths, m_Depths.length * 2);
+            }
+            m_Nodes[m_NodeCount + LABEL_START] = labelStart;
+            m_Nodes[m_NodeCount + LABEL_LENGTH] = labelLength;
+            m_Nodes[m_NodeCount + KEY_START] = keyStart;
+            m_Nodes[m_NodeCount + KEY_END] = keyEnd;
+            m_Depths[m_NodeCount / NODE_SIZE] = depth;
+            m_NodeCount += NODE_SIZE;
+        }
+    }
+}
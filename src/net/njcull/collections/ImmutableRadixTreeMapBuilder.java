@@ -0,0 +1,163 @@
+package net.njcull.collections;
+
+import java.util.*;
+
+/**
+ * Builder for the {@link ImmutableRadixTreeMap} class.
+ *
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableRadixTreeMapBuilder<V> {
+    private String[] m_Keys = EMPTY_KEYS;
+    private Object[] m_Values = EMPTY_ELEMENTS;
+    private int m_Size = 0;
+
+    private static final String[] EMPTY_KEYS = new String[0];
+    private static final Object[] EMPTY_ELEMENTS = new Object[0];
+
+    /**
+     * Create a new builder instance that builds a new immutable radix tree
+     * map.
+     *
+     * @param <V> the value type of the map
+     * @return a new builder for building a new map
+     */
+    public static <V> ImmutableRadixTreeMapBuilder<V> newMap() {
+        return new ImmutableRadixTreeMapBuilder<>();
+    }
+
+    /**
+     * Create a new builder instance for constructing a new immutable
+     * radix tree map.
+     */
+    public ImmutableRadixTreeMapBuilder() {
+    }
+
+    /**
+     * Add the given key and value pair to the resulting map.
+     *
+     * @param key the key to be added
+     * @param value the value to be added
+     * @return this builder, for chaining purposes
+     * @throws NullPointerException if the key is {@code null}
+     */
+    public ImmutableRadixTreeMapBuilder<V> with(String key, V value) {
+        Objects.requireNonNull(key, "key must not be null");
+        ensureCapacity(1);
+        m_Keys[m_Size] = key;
+        m_Values[m_Size++] = value;
+        return this;
+    }
+
+    /**
+     * Add the given key and value pair to the resulting map.
+     *
+     * @param entry the key and value pair to be added
+     * @return this builder, for chaining purposes
+     * @throws NullPointerException if the key is {@code null}
+     */
+    public ImmutableRadixTreeMapBuilder<V> with(Map.Entry<? extends String, ? extends V> entry) {
+        return with(entry.getKey(), entry.getValue());
+    }
+
+    /**
+     * All the key and value pairs of the supplied map will be added to the
+     * resulting map.
+     *
+     * @param map the map of keys and values to be added
+     * @return this builder, for chaining purposes
+     * @throws NullPointerException if a key is {@code null}
+     */
+    public ImmutableRadixTreeMapBuilder<V> with(Map<? extends String, ? extends V> map) {
+        ensureCapacity(map.size());
+        for(Map.Entry<? extends String, ? extends V> entry : map.entrySet()) {
+            with(entry.getKey(), entry.getValue());
+        }
+        return this;
+    }
+
+    /**
+     * For the stream combiner, merge the entries from the supplied builder
+     * to this builder.
+     *
+     * @param entries the builder containing the entries to be merged into
+     * this builder
+     * @return this builder containing the merged items
+     */
+    public ImmutableRadixTreeMapBuilder<V> merge(ImmutableRadixTreeMapBuilder<? extends V> entries) {
+        int len = entries.m_Size;
+        ensureCapacity(len);
+        System.arraycopy(entries.m_Keys, 0, m_Keys, m_Size, len);
+        System.arraycopy(entries.m_Values, 0, m_Values, m_Size, len);
+        m_Size += len;
+        return this;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if(m_Keys.length - m_Size < capacity) {
+            int newLength = Math.max(m_Size + capacity, m_Keys.length + (m_Keys.length >> 1));
+            // round up to divisible by 8
+            newLength += (8 - (newLength % 8)) % 8;
+            m_Keys = Arrays.copyOf(m_Keys, newLength);
+            m_Values = Arrays.copyOf(m_Values, newLength);
+        }
+    }
+
+    /**
+     * Returns the number of key and value pairs in this builder.
+     *
+     * @return the number of key and value pairs in this builder
+     */
+    public int size() {
+        return m_Size;
+    }
+
+    /**
+     * Build the immutable radix tree map.
+     * <p>
+     * Repeated calls to a builder containing a non-zero number of entries
+     * will return distinct map instances.
+     *
+     * @return an ImmutableRadixTreeMap containing the entries in the builder
+     * @throws IllegalStateException a key was added more than once
+     */
+    public ImmutableRadixTreeMap<V> build() {
+        if(m_Size == 0) {
+            return ImmutableRadixTreeMap.<V>emptyMap();
+        }
+
+        // Sort the keys, carrying the values along
+        final String[] unsorted = m_Keys;
+        final int[] order = new int[m_Size];
+        for(int i = 0; i < m_Size; i++) {
+            order[i] = i;
+        }
+        SortUtils.sortIndexes(order, (a, b) -> unsorted[a].compareTo(unsorted[b]));
+
+        final String[] keys = new String[m_Size];
+        final Object[] values = new Object[m_Size];
+        for(int i = 0; i < m_Size; i++) {
+            keys[i] = unsorted[order[i]];
+            values[i] = m_Values[order[i]];
+            if((i > 0) && keys[i].equals(keys[i - 1])) {
+                throw new IllegalStateException("duplicate key");
+            }
+        }
+
+        return ImmutableRadixTreeMap.fromSortedKeys(keys, values);
+    }
+
+    /**
+     * Reset this builder to its initial state.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableRadixTreeMapBuilder<V> clear() {
+        m_Keys = EMPTY_KEYS;
+        m_Values = EMPTY_ELEMENTS;
+        m_Size = 0;
+        return this;
+    }
+}
@@ -0,0 +1,461 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * An immutable map from non-overlapping ranges to values. The lower bounds,
+ * upper bounds, and values of the ranges are held in three arrays, in
+ * ascending order of their bounds. Finding the range containing a point
+ * is a binary search over the lower bounds, followed by a single comparison
+ * with the upper bound, and does not allocate.
+ * <p>
+ * Lower bounds are always inclusive. Upper bounds are inclusive by default,
+ * suiting ranges of discrete values such as IP addresses, or may be made
+ * exclusive for every range in the map, suiting ranges such as versions.
+ * Bounds may not be {@code null}, but values may.
+ * </p>
+ *
+ * @param <K> the type of the range bounds
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableRangeMap<K,V> implements Serializable {
+
+    private final Object[] m_Lower;
+    private final Object[] m_Upper;
+    private final Object[] m_Values;
+    private final boolean m_UpperExclusive;
+    private final Comparator<? super K> m_Comparator;
+    private transient Comparator m_BoundComparator;
+
+    // Singleton, as an optimization only
+    private static final ImmutableRangeMap<?,?> EMPTY =
+            new ImmutableRangeMap<>(new Object[0], new Object[0], new Object[0], false, null);
+
+    // Serialization
+    private static final long serialVersionUID = -5082265416420931870L;
+
+    /**
+     * Returns an immutable empty range map. Each call to this method will
+     * return the same empty range map.
+     *
+     * @param <K> the type of the range bounds
+     * @param <V> the type of mapped values
+     * @return an immutable empty range map
+     */
+    @SuppressWarnings("unchecked")
+    public static <K,V> ImmutableRangeMap<K,V> emptyMap() {
+        return (ImmutableRangeMap<K,V>) EMPTY;
+    }
+
+    ImmutableRangeMap(Object[] lower, Object[] upper, Object[] values,
+                      boolean upperExclusive, Comparator<? super K> comparator) {
+        this.m_Lower = Objects.requireNonNull(lower, "lower bounds must not be null");
+        this.m_Upper = Objects.requireNonNull(upper, "upper bounds must not be null");
+        this.m_Values = Objects.requireNonNull(values, "values must not be null");
+        if((upper.length != lower.length) || (values.length != lower.length)) {
+            throw new IllegalArgumentException("bounds and values must be the same length");
+        }
+        this.m_UpperExclusive = upperExclusive;
+        this.m_Comparator = comparator;
+        this.m_BoundComparator = boundComparator(comparator);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Comparator boundComparator(Comparator<?> comparator) {
+        return (comparator == null) ? Comparator.naturalOrder() : comparator;
+    }
+
+    /**
+     * Returns the number of ranges in this map.
+     *
+     * @return the number of ranges in this map
+     */
+    public int size() {
+        return m_Lower.length;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no ranges.
+     *
+     * @return {@code true} if this map contains no ranges
+     */
+    public boolean isEmpty() {
+        return m_Lower.length == 0;
+    }
+
+    /**
+     * Returns the comparator used to order the range bounds, or {@code null}
+     * if this map uses the natural ordering of its bounds.
+     *
+     * @return the comparator used to order the bounds, or {@code null} for
+     * natural ordering
+     */
+    public Comparator<? super K> comparator() {
+        return m_Comparator;
+    }
+
+    /**
+     * Returns {@code true} if the upper bounds of the ranges in this map are
+     * exclusive, otherwise {@code false} if they are inclusive.
+     *
+     * @return {@code true} if the upper bounds are exclusive
+     */
+    public boolean isUpperBoundExclusive() {
+        return m_UpperExclusive;
+    }
+
+    /**
+     * Returns the index of the range containing the given point.
+     * This operation requires time log(n) in the number of ranges.
+     *
+     * @param point the point to be found
+     * @return the index of the range containing the point, otherwise
+     * {@code -1} if no range contains the point
+     * @throws NullPointerException if the point is {@code null}
+     */
+    public int indexOf(K point) {
+        Objects.requireNonNull(point, "point must not be null");
+        final int idx = floorIndex(point);
+        if((idx >= 0) && isBelowUpper(point, idx)) {
+            return idx;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns {@code true} if a range in this map contains the given point.
+     *
+     * @param point the point to be found
+     * @return {@code true} if the point is within a range, otherwise
+     * {@code false}
+     * @throws NullPointerException if the point is {@code null}
+     */
+    public boolean contains(K point) {
+        return indexOf(point) >= 0;
+    }
+
+    /**
+     * Returns the value of the range containing the given point, or
+     * {@code null} if no range contains the point.
+     *
+     * @param point the point to be found
+     * @return the value of the range containing the point, or {@code null}
+     * @throws NullPointerException if the point is {@code null}
+     */
+    public V get(K point) {
+        return getOrDefault(point, null);
+    }
+
+    /**
+     * Returns the value of the range containing the given point, or
+     * the default value if no range contains the point.
+     *
+     * @param point the point to be found
+     * @param defaultValue the value to be returned if no range contains
+     * the point
+     * @return the value of the range containing the point, or the default
+     * value
+     * @throws NullPointerException if the point is {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(K point, V defaultValue) {
+        final int idx = indexOf(point);
+        return (idx >= 0) ? (V) m_Values[idx] : defaultValue;
+    }
+
+    /**
+     * Returns the index of the last range whose lower bound is less than or
+     * equal to the given point. The range may or may not contain the point.
+     *
+     * @param point the point to be found
+     * @return the index of the last range starting at or before the point,
+     * otherwise {@code -1} if every range starts after the point
+     * @throws NullPointerException if the point is {@code null}
+     */
+    public int floorIndex(K point) {
+        Objects.requireNonNull(point, "point must not be null");
+        final int idx = search(m_Lower, point);
+        return (idx >= 0) ? idx : -idx - 2;
+    }
+
+    /**
+     * Returns the index of the first range that contains the given point,
+     * or that lies wholly after the point.
+     * <p>
+     * The ranges overlapping a span of points from {@code a} to {@code b}
+     * inclusive are those from {@code ceilingIndex(a)} to
+     * {@code floorIndex(b)} inclusive, or none if the former is greater than
+     * the latter.
+     * </p>
+     *
+     * @param point the point to be found
+     * @return the index of the first range ending at or after the point,
+     * otherwise {@link #size()} if every range ends before the point
+     * @throws NullPointerException if the point is {@code null}
+     */
+    public int ceilingIndex(K point) {
+        Objects.requireNonNull(point, "point must not be null");
+        final int idx = search(m_Upper, point);
+        if(idx >= 0) {
+            // The range ending at an exclusive upper bound excludes the point
+            return m_UpperExclusive ? idx + 1 : idx;
+        }
+        return -idx - 1;
+    }
+
+    /**
+     * Binary search the given bounds for the given point, as for
+     * {@link BinarySearchUtils#indexedSearch(IntFunction, int, Object, Comparator)},
+     * but directly over the array so that no indexer is allocated.
+     */
+    @SuppressWarnings("unchecked")
+    private int search(Object[] bounds, Object point) {
+        int low = 0;
+        int high = bounds.length - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = m_BoundComparator.compare(bounds[mid], point);
+
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid; // point found
+            }
+        }
+        return -(low + 1);  // point not found.
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean isBelowUpper(K point, int idx) {
+        final int cmp = m_BoundComparator.compare(point, m_Upper[idx]);
+        return m_UpperExclusive ? (cmp < 0) : (cmp <= 0);
+    }
+
+    /**
+     * Returns the lower bound of the range at the given index.
+     *
+     * @param index the index of the range
+     * @return the lower bound of the range
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * greater than or equal to the number of ranges
+     */
+    @SuppressWarnings("unchecked")
+    public K lowerAt(int index) {
+        if((index < 0) || (index >= m_Lower.length)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return (K) m_Lower[index];
+    }
+
+    /**
+     * Returns the upper bound of the range at the given index.
+     *
+     * @param index the index of the range
+     * @return the upper bound of the range
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * greater than or equal to the number of ranges
+     */
+    @SuppressWarnings("unchecked")
+    public K upperAt(int index) {
+        if((index < 0) || (index >= m_Upper.length)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return (K) m_Upper[index];
+    }
+
+    /**
+     * Returns the value of the range at the given index.
+     *
+     * @param index the index of the range
+     * @return the value of the range
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * greater than or equal to the number of ranges
+     */
+    @SuppressWarnings("unchecked")
+    public V valueAt(int index) {
+        if((index < 0) || (index >= m_Values.length)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return (V) m_Values[index];
+    }
+
+    /**
+     * Returns an {@link ArrayBackedCollection} view of the values of this
+     * map, in range order.
+     *
+     * @return an array-backed collection view of the values of this map
+     */
+    public ArrayBackedCollection<V> values() {
+        return Views.collectionView(
+                new ArrayBackedImmutableList<>(new ArrayIndexer<>(m_Values), m_Values.length));
+    }
+
+    /**
+     * Compares the specified object with this range map for equality.
+     * Range maps are equal if they have equal bounds of the same kind,
+     * mapped to equal values.
+     *
+     * @param o object to be compared for equality with this range map
+     * @return {@code true} if the specified object is equal to this range map
+     */
+    @Override
+    public boolean equals(Object o) {
+        if(o == this) {
+            return true;
+        }
+        if(!(o instanceof ImmutableRangeMap)) {
+            return false;
+        }
+        final ImmutableRangeMap<?,?> other = (ImmutableRangeMap<?,?>) o;
+        return (m_UpperExclusive == other.m_UpperExclusive) &&
+                Arrays.equals(m_Lower, other.m_Lower) &&
+                Arrays.equals(m_Upper, other.m_Upper) &&
+                Arrays.equals(m_Values, other.m_Values);
+    }
+
+    /**
+     * Returns the hash code value for this range map.
+     *
+     * @return the hash code value for this range map
+     */
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for(int i = 0; i < m_Lower.length; i++) {
+            h += (31 * m_Lower[i].hashCode() + m_Upper[i].hashCode()) ^ Objects.hashCode(m_Values[i]);
+        }
+        return h;
+    }
+
+    /**
+     * Returns a string representation of this range map, with each range
+     * shown in interval notation followed by its value.
+     *
+     * @return a string representation of this range map
+     */
+    @Override
+    public String toString() {
+        if(m_Lower.length == 0) {
+            return "{}";
+        }
+        final char close = m_UpperExclusive ? ')' : ']';
+        final StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        for(int i = 0; i < m_Lower.length; i++) {
+            if(i > 0) {
+                sb.append(',').append(' ');
+            }
+            sb.append('[').append(m_Lower[i]).append("..").append(m_Upper[i]).append(close)
+                    .append('=').append(m_Values[i]);
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Create a builder object for this immutable range map.
+     *
+     * @param <K> the type of the range bounds in the resulting map
+     * @param <V> the type of values in the resulting map
+     * @return a new builder object
+     */
+    public static <K,V> ImmutableRangeMapBuilder<K,V> builder() {
+        return new ImmutableRangeMapBuilder<>();
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @param stream the object stream to be deserialized
+     * @throws ClassNotFoundException the class or descendants could not be found
+     * @throws IOException there was a problem reading the object stream
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream stream) throws ClassNotFoundException, IOException {
+        stream.defaultReadObject();
+
+        // Perform validation
+        if((m_Lower == null) || (m_Upper == null) || (m_Values == null)) {
+            throw new InvalidObjectException("range map must have bounds and values");
+        }
+        if((m_Upper.length != m_Lower.length) || (m_Values.length != m_Lower.length)) {
+            throw new InvalidObjectException("bounds and values must be the same length");
+        }
+
+        // Regenerate the bound comparator
+        m_BoundComparator = boundComparator(m_Comparator);
+
+        // Scan the bounds to ensure the ranges are ordered and disjoint
+        for(int i = 0; i < m_Lower.length; i++) {
+            if((m_Lower[i] == null) || (m_Upper[i] == null)) {
+                throw new InvalidObjectException("range bounds must not be null");
+            }
+            final int cmp = m_BoundComparator.compare(m_Lower[i], m_Upper[i]);
+            if(m_UpperExclusive ? (cmp >= 0) : (cmp > 0)) {
+                throw new InvalidObjectException("empty or inverted range");
+            }
+            if(i > 0) {
+                final int prev = m_BoundComparator.compare(m_Lower[i], m_Upper[i - 1]);
+                if(m_UpperExclusive ? (prev < 0) : (prev <= 0)) {
+                    throw new InvalidObjectException("ranges not ordered and disjoint");
+                }
+            }
+        }
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @return the resolved object
+     */
+    private Object readResolve() {
+        if(m_Lower.length == 0) {
+            // optimization only
+            return EMPTY;
+        }
+        return this;
+    }
+
+    /**
+     * Indexes an array of values.
+     */
+    private static final class ArrayIndexer<E> implements IntFunction<E>, Serializable {
+        private final Object[] m_Array;
+
+        // Serialization
+        private static final long serialVersionUID = 6019350268472416163L;
+
+        ArrayIndexer(Object[] array) {
+            this.m_Array = array;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public E apply(int idx) {
+            return (E) m_Array[idx];
+        }
+
+        /**
+         * Deserialization.
+         */
+        private void readObject(ObjectInputStream stream) throws ClassNotFoundException, IOException {
+            stream.defaultReadObject();
+
+            // Perform validation
+            if(m_Array == null) {
+                throw new InvalidObjectException("array must not be null");
+            }
+        }
+    }
+}
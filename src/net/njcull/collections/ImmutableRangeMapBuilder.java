@@ -0,0 +1,208 @@
+package net.njcull.collections;
+
+import java.util.*;
+
+/**
+ * Builder for the {@link ImmutableRangeMap} class.
+ *
+ * @param <K> the type of the range bounds
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableRangeMapBuilder<K,V> {
+    private Comparator<? super K> m_Comparator;
+    private boolean m_UpperExclusive;
+    private Object[] m_Lower = EMPTY_ELEMENTS;
+    private Object[] m_Upper = EMPTY_ELEMENTS;
+    private Object[] m_Values = EMPTY_ELEMENTS;
+    private int m_Size = 0;
+
+    private static final Object[] EMPTY_ELEMENTS = new Object[0];
+
+    /**
+     * Create a new builder instance that builds a new immutable range map,
+     * with bounds in their natural order.
+     *
+     * @param <K> the type of the range bounds
+     * @param <V> the value type of the map
+     * @return a new builder for building a new range map
+     */
+    public static <K,V> ImmutableRangeMapBuilder<K,V> newMap() {
+        return new ImmutableRangeMapBuilder<>();
+    }
+
+    /**
+     * Create a new builder instance that builds a new immutable range map,
+     * using the supplied comparator for ordering the bounds.
+     *
+     * @param <K> the type of the range bounds
+     * @param <V> the value type of the map
+     * @param cmp the comparator for ordering the bounds
+     * @return a new builder for building a new range map
+     */
+    public static <K,V> ImmutableRangeMapBuilder<K,V> newMapComparing(Comparator<? super K> cmp) {
+        ImmutableRangeMapBuilder<K,V> builder = new ImmutableRangeMapBuilder<>();
+        return builder.byComparing(cmp);
+    }
+
+    /**
+     * Create a new builder instance for constructing a new immutable
+     * range map.
+     */
+    public ImmutableRangeMapBuilder() {
+    }
+
+    /**
+     * Use the supplied comparator to order the bounds in the resulting map.
+     *
+     * @param cmp the comparator for ordering the bounds in the map
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableRangeMapBuilder<K,V> byComparing(Comparator<? super K> cmp) {
+        this.m_Comparator = cmp;
+        return this;
+    }
+
+    /**
+     * Order the bounds for the resulting map using the bounds' natural order.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableRangeMapBuilder<K,V> byNaturalOrder() {
+        this.m_Comparator = null;
+        return this;
+    }
+
+    /**
+     * Treat the upper bound of every range in the resulting map as
+     * exclusive, rather than the default of inclusive.
+     *
+     * @param exclusive {@code true} if upper bounds are to be exclusive
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableRangeMapBuilder<K,V> upperBoundExclusive(boolean exclusive) {
+        this.m_UpperExclusive = exclusive;
+        return this;
+    }
+
+    /**
+     * Add the given range and value to the resulting map.
+     *
+     * @param lower the lower bound of the range, inclusive
+     * @param upper the upper bound of the range
+     * @param value the value of the range
+     * @return this builder, for chaining purposes
+     * @throws NullPointerException if either bound is {@code null}
+     */
+    public ImmutableRangeMapBuilder<K,V> with(K lower, K upper, V value) {
+        Objects.requireNonNull(lower, "lower bound must not be null");
+        Objects.requireNonNull(upper, "upper bound must not be null");
+        ensureCapacity(1);
+        m_Lower[m_Size] = lower;
+        m_Upper[m_Size] = upper;
+        m_Values[m_Size++] = value;
+        return this;
+    }
+
+    /**
+     * For the stream combiner, merge the ranges from the supplied builder
+     * to this builder.
+     *
+     * @param ranges the builder containing the ranges to be merged into
+     * this builder
+     * @return this builder containing the merged items
+     */
+    public ImmutableRangeMapBuilder<K,V> merge(ImmutableRangeMapBuilder<? extends K, ? extends V> ranges) {
+        int len = ranges.m_Size;
+        ensureCapacity(len);
+        System.arraycopy(ranges.m_Lower, 0, m_Lower, m_Size, len);
+        System.arraycopy(ranges.m_Upper, 0, m_Upper, m_Size, len);
+        System.arraycopy(ranges.m_Values, 0, m_Values, m_Size, len);
+        m_Size += len;
+        return this;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if(m_Lower.length - m_Size < capacity) {
+            int newLength = Math.max(m_Size + capacity, m_Lower.length + (m_Lower.length >> 1));
+            // round up to divisible by 8
+            newLength += (8 - (newLength % 8)) % 8;
+            m_Lower = Arrays.copyOf(m_Lower, newLength);
+            m_Upper = Arrays.copyOf(m_Upper, newLength);
+            m_Values = Arrays.copyOf(m_Values, newLength);
+        }
+    }
+
+    /**
+     * Returns the number of ranges in this builder.
+     *
+     * @return the number of ranges in this builder
+     */
+    public int size() {
+        return m_Size;
+    }
+
+    /**
+     * Build the immutable range map. Ranges are sorted by their bounds.
+     * <p>
+     * Repeated calls to a builder containing a non-zero number of ranges
+     * will return distinct map instances.
+     *
+     * @return an ImmutableRangeMap containing the ranges in the builder
+     * @throws IllegalStateException a range is empty or inverted, or two
+     * ranges overlap
+     */
+    @SuppressWarnings("unchecked")
+    public ImmutableRangeMap<K,V> build() {
+        if(m_Size == 0) {
+            return ImmutableRangeMap.<K,V>emptyMap();
+        }
+
+        final Object[] lower = m_Lower;
+        final Comparator cmp = ImmutableRangeMap.boundComparator(m_Comparator);
+        final int[] order = new int[m_Size];
+        for(int i = 0; i < m_Size; i++) {
+            order[i] = i;
+        }
+        SortUtils.sortIndexes(order, (a, b) -> cmp.compare(lower[a], lower[b]));
+
+        final Object[] resultLower = new Object[m_Size];
+        final Object[] resultUpper = new Object[m_Size];
+        final Object[] values = new Object[m_Size];
+        for(int i = 0; i < m_Size; i++) {
+            final int j = order[i];
+            resultLower[i] = lower[j];
+            resultUpper[i] = m_Upper[j];
+            values[i] = m_Values[j];
+
+            final int c = cmp.compare(resultLower[i], resultUpper[i]);
+            if(m_UpperExclusive ? (c >= 0) : (c > 0)) {
+                throw new IllegalStateException("empty or inverted range");
+            }
+            if(i > 0) {
+                final int prev = cmp.compare(resultLower[i], resultUpper[i - 1]);
+                if(m_UpperExclusive ? (prev < 0) : (prev <= 0)) {
+                    throw new IllegalStateException("overlapping ranges");
+                }
+            }
+        }
+
+        return new ImmutableRangeMap<>(resultLower, resultUpper, values, m_UpperExclusive, m_Comparator);
+    }
+
+    /**
+     * Reset this builder to its initial state.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableRangeMapBuilder<K,V> clear() {
+        m_Lower = EMPTY_ELEMENTS;
+        m_Upper = EMPTY_ELEMENTS;
+        m_Values = EMPTY_ELEMENTS;
+        m_Comparator = null;
+        m_UpperExclusive = false;
+        m_Size = 0;
+        return this;
+    }
+}
@@ -0,0 +1,633 @@
+package net.njcull.collections;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An immutable sorted map held on disk as a series of segments, each
+ * covering a contiguous range of keys, and loaded on demand. The map is
+ * written by an {@link ImmutableSegmentedSortedMapBuilder}. Each segment is
+ * a serialized {@link ImmutableUniSortedArrayMap} of a fixed number of
+ * entries, in a file of its own.
+ * <p>
+ * The first key of each segment, its fence key, is held on the heap. A
+ * lookup finds the segment for its key by binary search of the fence
+ * keys, then searches the segment. Loaded segments are kept in a
+ * least-recently-used cache, bounded by the total number of entries in the
+ * cached segments, so the map may be much larger than the heap while
+ * lookups with locality are served from memory.
+ * </p>
+ * <p>
+ * Iteration over a range of keys loads each segment in turn, and starts
+ * loading the following segment in the background as it enters each one.
+ * Background loads run on a single daemon thread belonging to the map,
+ * which exits when the map is idle.
+ * The cache counts hits, misses, loads, evictions and the time spent
+ * loading, to help in choosing the segment and cache sizes.
+ * </p>
+ * <p>
+ * The segment files should be on a local disk. Keys must not be
+ * {@code null}. Since the map is backed by files, it is not serializable.
+ * </p>
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableSegmentedSortedMap<K,V> extends AbstractMap<K,V> {
+
+    static final int VERSION = 1;
+    static final String INDEX_FILE = "index.ser";
+
+    /**
+     * The number of seconds the prefetch thread waits for more work before
+     * exiting.
+     */
+    private static final long PREFETCH_KEEP_ALIVE_SECONDS = 10L;
+
+    private final Path m_Directory;
+    private final Comparator<? super K> m_KeyComparator;
+    private final Comparator<Object> m_Comparator;
+    private final Object[] m_FenceKeys;
+    private final Object m_LastKey;
+    private final int[] m_SegmentSizes;
+    private final long m_Size;
+    private final long m_MaxCachedEntries;
+    private final ThreadPoolExecutor m_Prefetcher;
+
+    // Guarded by m_Cache
+    private final LinkedHashMap<Integer, CompletableFuture<ImmutableUniSortedArrayMap<K,V>>> m_Cache =
+            new LinkedHashMap<>(16, 0.75f, true);
+    private long m_CachedEntries = 0L;
+
+    private final AtomicLong m_Hits = new AtomicLong();
+    private final AtomicLong m_Misses = new AtomicLong();
+    private final AtomicLong m_Loads = new AtomicLong();
+    private final AtomicLong m_LoadNanos = new AtomicLong();
+    private final AtomicLong m_Evictions = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    private ImmutableSegmentedSortedMap(Path directory, Comparator<? super K> keyComparator, Object[] fenceKeys,
+                                        Object lastKey, int[] segmentSizes, long maxCachedEntries) {
+        this.m_Directory = directory;
+        this.m_KeyComparator = keyComparator;
+        this.m_Comparator = (Comparator<Object>) ((keyComparator == null) ? Comparator.naturalOrder() : keyComparator);
+        this.m_FenceKeys = fenceKeys;
+        this.m_LastKey = lastKey;
+        this.m_SegmentSizes = segmentSizes;
+        long size = 0L;
+        for(int segmentSize : segmentSizes) {
+            size += segmentSize;
+        }
+        this.m_Size = size;
+        this.m_MaxCachedEntries = maxCachedEntries;
+        this.m_Prefetcher = new ThreadPoolExecutor(1, 1, PREFETCH_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), ImmutableSegmentedSortedMap::newPrefetchThread);
+        this.m_Prefetcher.allowCoreThreadTimeOut(true);
+    }
+
+    private static Thread newPrefetchThread(Runnable task) {
+        final Thread thread = new Thread(task, "segmented-map-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Open a segmented map written to the given directory.
+     *
+     * @param <K> the type of keys maintained by the map
+     * @param <V> the type of mapped values
+     * @param directory the directory holding the index and segment files
+     * @param maxCachedEntries the maximum total number of entries in the
+     *                         segments held in the cache, though the most
+     *                         recently used segment is always held
+     * @return the map held in the directory
+     * @throws IOException the index could not be read, or is corrupt
+     * @throws IllegalArgumentException if the cache size is not positive
+     */
+    @SuppressWarnings("unchecked")
+    public static <K,V> ImmutableSegmentedSortedMap<K,V> open(Path directory, long maxCachedEntries) throws IOException {
+        if(maxCachedEntries <= 0L) {
+            throw new IllegalArgumentException("cache size must be positive");
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(
+                Files.newInputStream(directory.resolve(INDEX_FILE))))) {
+            if(in.readInt() != VERSION) {
+                throw new IOException("unsupported segment index version");
+            }
+            final Comparator<? super K> keyComparator = (Comparator<? super K>) in.readObject();
+            final Object[] fenceKeys = (Object[]) in.readObject();
+            final Object lastKey = in.readObject();
+            final int[] segmentSizes = (int[]) in.readObject();
+            if((fenceKeys == null) || (segmentSizes == null) || (fenceKeys.length != segmentSizes.length) ||
+                    ((lastKey == null) != (fenceKeys.length == 0))) {
+                throw new IOException("corrupt segment index");
+            }
+            for(int segmentSize : segmentSizes) {
+                if(segmentSize <= 0) {
+                    throw new IOException("corrupt segment index");
+                }
+            }
+            return new ImmutableSegmentedSortedMap<>(directory, keyComparator, fenceKeys, lastKey,
+                    segmentSizes, maxCachedEntries);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("corrupt segment index", e);
+        }
+    }
+
+    /**
+     * Write the index of a segmented map.
+     */
+    static void writeIndex(Path directory, Comparator<?> keyComparator, Object[] fenceKeys,
+                           Object lastKey, int[] segmentSizes) throws IOException {
+        try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(directory.resolve(INDEX_FILE))))) {
+            out.writeInt(VERSION);
+            out.writeObject(keyComparator);
+            out.writeObject(fenceKeys);
+            out.writeObject(lastKey);
+            out.writeObject(segmentSizes);
+        }
+    }
+
+    /**
+     * Returns the path of the file holding the given segment.
+     */
+    static Path segmentFile(Path directory, int segment) {
+        return directory.resolve(String.format(Locale.ROOT, "segment-%06d.ser", segment));
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map, or
+     * {@code Integer.MAX_VALUE} if it contains more mappings than that.
+     *
+     * @return the number of key-value mappings in this map, saturated to
+     * an {@code int}
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(m_Size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the exact number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public long longSize() {
+        return m_Size;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     *
+     * @return {@code true} if this map contains no key-value mappings
+     */
+    @Override
+    public boolean isEmpty() {
+        return m_Size == 0L;
+    }
+
+    /**
+     * Returns the number of segments in this map.
+     *
+     * @return the number of segments in this map
+     */
+    public int segmentCount() {
+        return m_FenceKeys.length;
+    }
+
+    /**
+     * Returns the comparator used to order the keys in this map, or
+     * {@code null} if this map uses the natural ordering of its keys.
+     *
+     * @return the comparator used to order the keys in this map
+     */
+    public Comparator<? super K> comparator() {
+        return m_KeyComparator;
+    }
+
+    /**
+     * Returns the first (lowest) key currently in this map, without
+     * loading a segment.
+     *
+     * @return the first (lowest) key currently in this map
+     * @throws NoSuchElementException if this map is empty
+     */
+    @SuppressWarnings("unchecked")
+    public K firstKey() {
+        if(m_FenceKeys.length == 0) {
+            throw new NoSuchElementException("Empty map");
+        }
+        return (K) m_FenceKeys[0];
+    }
+
+    /**
+     * Returns the last (highest) key currently in this map, without
+     * loading a segment.
+     *
+     * @return the last (highest) key currently in this map
+     * @throws NoSuchElementException if this map is empty
+     */
+    @SuppressWarnings("unchecked")
+    public K lastKey() {
+        if(m_FenceKeys.length == 0) {
+            throw new NoSuchElementException("Empty map");
+        }
+        return (K) m_LastKey;
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the specified
+     * key. This loads at most one segment.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the specified
+     *         key, otherwise {@code false}
+     * @throws ClassCastException if the key cannot be compared with the
+     *         keys in the map
+     * @throws UncheckedIOException if the segment could not be loaded
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        final int segment = segmentOf(key);
+        return (segment >= 0) && segment(segment).containsKey(key);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code null} if this map contains no mapping for the key. This loads
+     * at most one segment.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@code null} if this map contains no mapping for the key
+     * @throws ClassCastException if the key cannot be compared with the
+     *         keys in the map
+     * @throws UncheckedIOException if the segment could not be loaded
+     */
+    @Override
+    public V get(Object key) {
+        final int segment = segmentOf(key);
+        return (segment < 0) ? null : segment(segment).get(key);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the value to which the specified key is mapped, or
+     *         {@code defaultValue} if this map contains no mapping for the key
+     * @throws UncheckedIOException if the segment could not be loaded
+     */
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        final int segment = segmentOf(key);
+        return (segment < 0) ? defaultValue : segment(segment).getOrDefault(key, defaultValue);
+    }
+
+    /**
+     * Find the segment whose range covers the given key, being the last
+     * segment whose fence key is not greater than the key.
+     *
+     * @return the index of the segment, or {@code -1} if the key is
+     * {@code null}, or less than the first key or greater than the last
+     */
+    private int segmentOf(Object key) {
+        if((key == null) || (m_FenceKeys.length == 0) || (m_Comparator.compare(key, m_LastKey) > 0)) {
+            return -1;
+        }
+        final int index = BinarySearchUtils.arraySearch(m_FenceKeys, 0, m_FenceKeys.length, key, m_Comparator);
+        return (index >= 0) ? index : -(index + 1) - 1;
+    }
+
+    /**
+     * Returns the given segment, loading it if it is not cached.
+     */
+    private ImmutableUniSortedArrayMap<K,V> segment(int segment) {
+        final CompletableFuture<ImmutableUniSortedArrayMap<K,V>> future = cached(segment, false);
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if(cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Start loading the given segment in the background, unless it is
+     * already cached.
+     */
+    private void prefetch(int segment) {
+        cached(segment, true);
+    }
+
+    private CompletableFuture<ImmutableUniSortedArrayMap<K,V>> cached(int segment, boolean prefetch) {
+        final CompletableFuture<ImmutableUniSortedArrayMap<K,V>> future;
+        final boolean load;
+        synchronized (m_Cache) {
+            final CompletableFuture<ImmutableUniSortedArrayMap<K,V>> existing = m_Cache.get(segment);
+            load = (existing == null);
+            if(load) {
+                future = new CompletableFuture<>();
+                m_Cache.put(segment, future);
+                m_CachedEntries += m_SegmentSizes[segment];
+                evict();
+            } else {
+                future = existing;
+            }
+        }
+        if(!prefetch) {
+            (load ? m_Misses : m_Hits).incrementAndGet();
+        }
+        if(load) {
+            if(prefetch) {
+                m_Prefetcher.execute(() -> load(segment, future));
+            } else {
+                load(segment, future);
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Evict the least recently used segments until the cache is within its
+     * bound, always keeping the most recently used segment.
+     */
+    private void evict() {
+        final Iterator<Map.Entry<Integer, CompletableFuture<ImmutableUniSortedArrayMap<K,V>>>> it =
+                m_Cache.entrySet().iterator();
+        while((m_CachedEntries > m_MaxCachedEntries) && (m_Cache.size() > 1)) {
+            final int segment = it.next().getKey();
+            it.remove();
+            m_CachedEntries -= m_SegmentSizes[segment];
+            m_Evictions.incrementAndGet();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void load(int segment, CompletableFuture<ImmutableUniSortedArrayMap<K,V>> future) {
+        final long start = System.nanoTime();
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(
+                Files.newInputStream(segmentFile(m_Directory, segment))))) {
+            final ImmutableUniSortedArrayMap<K,V> map = (ImmutableUniSortedArrayMap<K,V>) in.readObject();
+            if(map.size() != m_SegmentSizes[segment]) {
+                throw new IOException("segment " + segment + " does not match the index");
+            }
+            future.complete(map);
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            failed(segment, future, new UncheckedIOException(
+                    (e instanceof IOException) ? (IOException) e : new IOException("corrupt segment " + segment, e)));
+        } catch (Throwable t) {
+            // Anything else thrown while reading, such as by a value's
+            // readObject method, must still complete the future
+            failed(segment, future, t);
+        } finally {
+            m_Loads.incrementAndGet();
+            m_LoadNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Remove a segment that failed to load from the cache, so that the next
+     * lookup tries again, and fail any lookups waiting for it.
+     */
+    private void failed(int segment, CompletableFuture<ImmutableUniSortedArrayMap<K,V>> future, Throwable cause) {
+        synchronized (m_Cache) {
+            if(m_Cache.remove(segment, future)) {
+                m_CachedEntries -= m_SegmentSizes[segment];
+            }
+        }
+        future.completeExceptionally(cause);
+    }
+
+    /**
+     * Returns a set view of the mappings contained in this map, in
+     * ascending key order. Iterating the set loads every segment in turn.
+     *
+     * @return a set view of the mappings contained in this map
+     */
+    @Override
+    public Set<Entry<K,V>> entrySet() {
+        return new AbstractSet<Entry<K,V>>() {
+            @Override
+            public Iterator<Entry<K,V>> iterator() {
+                return new RangeIterator(0, 0, null);
+            }
+
+            @Override
+            public int size() {
+                return ImmutableSegmentedSortedMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Returns an iterator over the mappings whose keys range from
+     * {@code fromKey}, inclusive, to {@code toKey}, exclusive, in ascending
+     * key order. As the iterator enters each segment, the following segment
+     * is loaded in the background.
+     *
+     * @param fromKey low endpoint (inclusive) of the range
+     * @param toKey high endpoint (exclusive) of the range
+     * @return an iterator over the mappings in the range
+     * @throws NullPointerException if either key is {@code null}
+     * @throws IllegalArgumentException if {@code fromKey} is greater than
+     *         {@code toKey}
+     * @throws UncheckedIOException if the first segment could not be loaded
+     */
+    @SuppressWarnings("unchecked")
+    public Iterator<Entry<K,V>> entryIterator(K fromKey, K toKey) {
+        if((fromKey == null) || (toKey == null)) {
+            throw new NullPointerException("range keys must not be null");
+        }
+        if(m_Comparator.compare(fromKey, toKey) > 0) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        if(m_FenceKeys.length == 0) {
+            return new RangeIterator(0, 0, toKey);
+        }
+        final int segment = segmentOf(fromKey);
+        if(segment < 0) {
+            // Either before the first key, or after the last
+            return (m_Comparator.compare(fromKey, m_LastKey) > 0) ?
+                    new RangeIterator(m_FenceKeys.length, 0, toKey) :
+                    new RangeIterator(0, 0, toKey);
+        }
+        return new RangeIterator(segment, segment(segment).rank(fromKey), toKey);
+    }
+
+    /**
+     * Returns the number of lookups and iterations that found their segment
+     * in the cache, including segments loaded in the background.
+     *
+     * @return the number of cache hits
+     */
+    public long cacheHitCount() {
+        return m_Hits.get();
+    }
+
+    /**
+     * Returns the number of lookups and iterations that had to load their
+     * segment.
+     *
+     * @return the number of cache misses
+     */
+    public long cacheMissCount() {
+        return m_Misses.get();
+    }
+
+    /**
+     * Returns the number of segments loaded, whether on demand or in the
+     * background.
+     *
+     * @return the number of segment loads
+     */
+    public long loadCount() {
+        return m_Loads.get();
+    }
+
+    /**
+     * Returns the total time spent loading segments, in nanoseconds.
+     *
+     * @return the total load time in nanoseconds
+     */
+    public long totalLoadTimeNanos() {
+        return m_LoadNanos.get();
+    }
+
+    /**
+     * Returns the number of segments evicted from the cache.
+     *
+     * @return the number of evictions
+     */
+    public long evictionCount() {
+        return m_Evictions.get();
+    }
+
+    /**
+     * Returns the number of segments currently cached, including any still
+     * being loaded.
+     *
+     * @return the number of cached segments
+     */
+    public int cachedSegmentCount() {
+        synchronized (m_Cache) {
+            return m_Cache.size();
+        }
+    }
+
+    /**
+     * Discard every cached segment. The statistics are not reset.
+     */
+    public void clearCache() {
+        synchronized (m_Cache) {
+            m_Cache.clear();
+            m_CachedEntries = 0L;
+        }
+    }
+
+    /**
+     * Iterator over the entries from a position in a segment up to an
+     * optional exclusive upper key, prefetching the following segment.
+     */
+    private final class RangeIterator implements Iterator<Entry<K,V>> {
+        private final Object m_ToKey;
+        private int m_Segment;
+        private int m_Index;
+        private ImmutableUniSortedArrayMap<K,V> m_Current;
+        private Entry<K,V> m_Next;
+
+        RangeIterator(int segment, int index, Object toKey) {
+            this.m_Segment = segment;
+            this.m_Index = index;
+            this.m_ToKey = toKey;
+            advance();
+        }
+
+        private void advance() {
+            m_Next = null;
+            while(m_Segment < m_FenceKeys.length) {
+                if(m_Current == null) {
+                    if((m_ToKey != null) && (m_Comparator.compare(m_FenceKeys[m_Segment], m_ToKey) >= 0)) {
+                        break;
+                    }
+                    m_Current = segment(m_Segment);
+                    if(m_Segment + 1 < m_FenceKeys.length) {
+                        prefetch(m_Segment + 1);
+                    }
+                }
+                if(m_Index < m_Current.size()) {
+                    final Entry<K,V> entry = m_Current.entryAt(m_Index++);
+                    if((m_ToKey == null) || (m_Comparator.compare(entry.getKey(), m_ToKey) < 0)) {
+                        m_Next = entry;
+                    } else {
+                        m_Segment = m_FenceKeys.length;
+                    }
+                    return;
+                }
+                m_Segment++;
+                m_Index = 0;
+                m_Current = null;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return m_Next != null;
+        }
+
+        @Override
+        public Entry<K,V> next() {
+            final Entry<K,V> next = m_Next;
+            if(next == null) {
+                throw new NoSuchElementException();
+            }
+            advance();
+            return next;
+        }
+    }
+
+    /**
+     * Create a new builder for writing a segmented map to the given
+     * directory.
+     *
+     * @param <K> the type of keys maintained by the map
+     * @param <V> the type of mapped values
+     * @param directory the directory for the index and segment files
+     * @return a new builder for writing a segmented map
+     */
+    public static <K,V> ImmutableSegmentedSortedMapBuilder<K,V> builder(Path directory) {
+        return ImmutableSegmentedSortedMapBuilder.newMap(directory);
+    }
+}
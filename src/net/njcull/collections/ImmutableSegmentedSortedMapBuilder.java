@@ -0,0 +1,309 @@
+package net.njcull.collections;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Builder for the {@link ImmutableSegmentedSortedMap} class. Entries must
+ * be added in ascending key order, such as from a sorted map or from an
+ * {@link ImmutableMappedSortedMap} written by an
+ * {@link ExternalSortedMapBuilder}. Each time a segment's worth of entries
+ * has been added, they are written to a segment file, so that only one
+ * segment is held on the heap while building.
+ * <p>
+ * The directory should be on a local disk, and should hold only the one
+ * map. Keys, values, and any comparator must be serializable. Since the
+ * built map reads its segment files from the directory as it needs them,
+ * a builder writes only one map; another map needs a new builder and a
+ * new directory.
+ * </p>
+ *
+ * @param <K> the type of keys maintained by the map
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableSegmentedSortedMapBuilder<K,V> {
+    private final Path m_Directory;
+    private Comparator<? super K> m_KeyComparator;
+    private int m_SegmentSize = DEFAULT_SEGMENT_SIZE;
+    private long m_MaxCachedEntries = DEFAULT_SEGMENT_SIZE * 16L;
+    private Object[] m_Elements = EMPTY_ELEMENTS;
+    private int m_Count = 0;
+    private final List<Object> m_FenceKeys = new ArrayList<>();
+    private final List<Integer> m_SegmentSizes = new ArrayList<>();
+    private Object m_LastKey;
+    private boolean m_Built;
+
+    private static final int DEFAULT_SEGMENT_SIZE = 1 << 16;
+    private static final Object[] EMPTY_ELEMENTS = new Object[0];
+
+    /**
+     * Create a new builder instance that writes a segmented map to the
+     * given directory, ordering keys by their natural order.
+     *
+     * @param <K> the key type of the map
+     * @param <V> the value type of the map
+     * @param directory the directory for the index and segment files
+     * @return a new builder for writing a segmented map
+     */
+    public static <K,V> ImmutableSegmentedSortedMapBuilder<K,V> newMap(Path directory) {
+        return new ImmutableSegmentedSortedMapBuilder<>(directory);
+    }
+
+    /**
+     * Create a new builder instance that writes a segmented map to the
+     * given directory, ordering keys by the given comparator.
+     *
+     * @param <K> the key type of the map
+     * @param <V> the value type of the map
+     * @param directory the directory for the index and segment files
+     * @param cmp the comparator for ordering the keys, which must be
+     *            serializable
+     * @return a new builder for writing a segmented map
+     */
+    public static <K,V> ImmutableSegmentedSortedMapBuilder<K,V> newMapComparing(Path directory, Comparator<? super K> cmp) {
+        return new ImmutableSegmentedSortedMapBuilder<K,V>(directory).byComparing(cmp);
+    }
+
+    /**
+     * Create a new builder instance for writing a segmented map to the
+     * given directory. The directory is created if it does not exist.
+     *
+     * @param directory the directory for the index and segment files
+     */
+    public ImmutableSegmentedSortedMapBuilder(Path directory) {
+        this.m_Directory = Objects.requireNonNull(directory, "directory must not be null");
+    }
+
+    /**
+     * Order keys by the supplied comparator, which must be serializable.
+     * Entries must not yet have been added.
+     *
+     * @param cmp the comparator for ordering the keys in the map
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSegmentedSortedMapBuilder<K,V> byComparing(Comparator<? super K> cmp) {
+        checkNotStarted();
+        this.m_KeyComparator = cmp;
+        return this;
+    }
+
+    /**
+     * Order keys by their natural order. Entries must not yet have been
+     * added.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSegmentedSortedMapBuilder<K,V> byNaturalOrder() {
+        checkNotStarted();
+        this.m_KeyComparator = null;
+        return this;
+    }
+
+    /**
+     * The number of entries in each segment, except the last. Entries must
+     * not yet have been added.
+     *
+     * @param entries the number of entries in each segment
+     * @return this builder, for chaining purposes
+     * @throws IllegalArgumentException if the size is not positive
+     */
+    public ImmutableSegmentedSortedMapBuilder<K,V> segmentSize(int entries) {
+        if(entries <= 0) {
+            throw new IllegalArgumentException("segment size must be positive");
+        }
+        checkNotStarted();
+        this.m_SegmentSize = entries;
+        return this;
+    }
+
+    /**
+     * The maximum total number of entries in the segments cached by the
+     * built map.
+     *
+     * @param entries the maximum number of cached entries
+     * @return this builder, for chaining purposes
+     * @throws IllegalArgumentException if the size is not positive
+     */
+    public ImmutableSegmentedSortedMapBuilder<K,V> cacheSize(long entries) {
+        if(entries <= 0L) {
+            throw new IllegalArgumentException("cache size must be positive");
+        }
+        this.m_MaxCachedEntries = entries;
+        return this;
+    }
+
+    private void checkNotBuilt() {
+        if(m_Built) {
+            throw new IllegalStateException("map has already been built");
+        }
+    }
+
+    private void checkNotStarted() {
+        if(m_LastKey != null) {
+            throw new IllegalStateException("entries have already been added");
+        }
+    }
+
+    /**
+     * Add the given key and value pair to the resulting map. The key must
+     * be greater than every key already added.
+     *
+     * @param key the key to be added
+     * @param value the value to be added
+     * @return this builder, for chaining purposes
+     * @throws NullPointerException if the key is {@code null}
+     * @throws IllegalStateException if the key is equal to the last key
+     * added, or out of order, or the map has already been built
+     * @throws UncheckedIOException if a segment could not be written
+     */
+    @SuppressWarnings("unchecked")
+    public ImmutableSegmentedSortedMapBuilder<K,V> with(K key, V value) {
+        Objects.requireNonNull(key, "key must not be null");
+        checkNotBuilt();
+        if(m_LastKey != null) {
+            final Comparator<Object> cmp = (Comparator<Object>) ((m_KeyComparator == null) ?
+                    Comparator.naturalOrder() : m_KeyComparator);
+            final int c = cmp.compare(key, m_LastKey);
+            if(c == 0) {
+                throw new IllegalStateException("duplicate key");
+            }
+            if(c < 0) {
+                throw new IllegalStateException("keys must be added in ascending order");
+            }
+        }
+        if(m_Elements.length == 0) {
+            m_Elements = new Object[m_SegmentSize * 2];
+        }
+        m_Elements[m_Count] = key;
+        m_Elements[m_SegmentSize + m_Count++] = value;
+        m_LastKey = key;
+        if(m_Count == m_SegmentSize) {
+            try {
+                writeSegment();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Add the given key and value pair to the resulting map.
+     *
+     * @param entry the key and value pair to be added
+     * @return this builder, for chaining purposes
+     * @throws NullPointerException if the key is {@code null}
+     * @throws IllegalStateException if the key is equal to the last key
+     * added, or out of order, or the map has already been built
+     * @throws UncheckedIOException if a segment could not be written
+     */
+    public ImmutableSegmentedSortedMapBuilder<K,V> with(Map.Entry<? extends K, ? extends V> entry) {
+        return with(entry.getKey(), entry.getValue());
+    }
+
+    /**
+     * All the key and value pairs of the supplied map will be added to the
+     * resulting map, in the iteration order of the map.
+     *
+     * @param map the map of keys and values to be added
+     * @return this builder, for chaining purposes
+     * @throws IllegalStateException if a key is repeated, or out of order,
+     * or the map has already been built
+     * @throws UncheckedIOException if a segment could not be written
+     */
+    public ImmutableSegmentedSortedMapBuilder<K,V> with(Map<? extends K, ? extends V> map) {
+        map.forEach(this::with);
+        return this;
+    }
+
+    /**
+     * Returns the number of entries in this builder.
+     *
+     * @return the number of entries in this builder
+     */
+    public long size() {
+        long size = m_Count;
+        for(Integer segmentSize : m_SegmentSizes) {
+            size += segmentSize;
+        }
+        return size;
+    }
+
+    private void writeSegment() throws IOException {
+        final Object[] elements;
+        if(m_Count == m_SegmentSize) {
+            elements = m_Elements;
+        } else {
+            elements = Arrays.copyOf(m_Elements, m_Count * 2);
+            System.arraycopy(m_Elements, m_SegmentSize, elements, m_Count, m_Count);
+        }
+        final ImmutableUniSortedArrayMap<K,V> segment = new ImmutableUniSortedArrayMap<>(elements, m_KeyComparator, false);
+        if(m_SegmentSizes.isEmpty()) {
+            Files.createDirectories(m_Directory);
+        }
+        final Path file = ImmutableSegmentedSortedMap.segmentFile(m_Directory, m_SegmentSizes.size());
+        try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeObject(segment);
+        }
+        m_FenceKeys.add(elements[0]);
+        m_SegmentSizes.add(m_Count);
+        m_Elements = EMPTY_ELEMENTS;
+        m_Count = 0;
+    }
+
+    /**
+     * Write any remaining entries as the last segment, write the index of
+     * the segments, and open the map. The builder is cleared afterward,
+     * and cannot be used to build another map, since that would overwrite
+     * the segment files of the map already opened on the directory.
+     *
+     * @return the segmented map held in the directory
+     * @throws IOException the segment or index could not be written
+     * @throws IllegalStateException if the map has already been built
+     */
+    public ImmutableSegmentedSortedMap<K,V> build() throws IOException {
+        checkNotBuilt();
+        if(m_Count > 0) {
+            writeSegment();
+        }
+        Files.createDirectories(m_Directory);
+        final int[] segmentSizes = new int[m_SegmentSizes.size()];
+        for(int i = 0; i < segmentSizes.length; i++) {
+            segmentSizes[i] = m_SegmentSizes.get(i);
+        }
+        ImmutableSegmentedSortedMap.writeIndex(m_Directory, m_KeyComparator, m_FenceKeys.toArray(),
+                m_LastKey, segmentSizes);
+        final long maxCachedEntries = m_MaxCachedEntries;
+        clear();
+        m_Built = true;
+        return ImmutableSegmentedSortedMap.open(m_Directory, maxCachedEntries);
+    }
+
+    /**
+     * Discard the entries in this builder. Segment files already written
+     * are left in the directory, to be replaced as entries are added
+     * again. The comparator and sizes are kept.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSegmentedSortedMapBuilder<K,V> clear() {
+        m_Elements = EMPTY_ELEMENTS;
+        m_Count = 0;
+        m_FenceKeys.clear();
+        m_SegmentSizes.clear();
+        m_LastKey = null;
+        return this;
+    }
+}
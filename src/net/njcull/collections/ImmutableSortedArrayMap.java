@@ -16,6 +16,19 @@ import java.util.function.IntFunction;
  * Keys and values are stored together in sorted key order. In addition,
  * there is an index referring to the elements in sorted value order.
  * <p>
+ * A map that is not a bi-map may also be built with its values dictionary
+ * encoded. Each distinct value is stored once, and each entry holds a byte,
+ * short, or int code for its value, depending on the number of distinct
+ * values. Testing whether a value is present then requires only a search of
+ * the distinct values.
+ * </p>
+ * <p>
+ * The builder holds the arrays of a large map in fixed-size chunks, so that
+ * the G1 collector need not allocate them as humongous objects. Keys and
+ * values are then found by index arithmetic over the chunks, behind the
+ * same methods.
+ * </p>
+ * <p>
  * Keys and values are tested using a binary search implementation.
  * The map's keyset and entryset views may also be viewed as a {@link List}.
  * </p>
@@ -29,13 +42,20 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
         implements ArrayBackedMap<K,V>, SortedMap<K,V>, Serializable {
 
     private final Object[] m_Map;
+    private final Object[][] m_MapChunks;
+    private final ValueDictionary m_Dictionary;
     private final int[] m_SortedValues;
+    private final int[][] m_SortedValueChunks;
     private final Comparator<? super K> m_KeyComparator;
     private transient Comparator m_NullsKeyComparator;
     private final Comparator<? super V> m_ValueComparator;
     private transient Comparator m_NullsValueComparator;
     private final boolean m_BiMap;
 
+    // Placeholders for the flat arrays of a chunked map
+    private static final Object[] EMPTY_ELEMENTS = new Object[0];
+    private static final int[] EMPTY_INDEXES = new int[0];
+
     // Singleton, as an optimization only
     private static final ImmutableSortedArrayMap<?,?> EMPTY = new ImmutableSortedArrayMap<>(new Object[0], new int[0], null, null, true);
 
@@ -58,12 +78,41 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
     ImmutableSortedArrayMap(Object[] map, int[] sortedValues,
                 Comparator<? super K> keyComparator, Comparator<? super V> valueComparator,
                 boolean biMap) {
+        this(map, null, sortedValues, keyComparator, valueComparator, biMap);
+    }
+
+    ImmutableSortedArrayMap(Object[] map, ValueDictionary dictionary, int[] sortedValues,
+                Comparator<? super K> keyComparator, Comparator<? super V> valueComparator,
+                boolean biMap) {
+        this(map, null, dictionary, sortedValues, null, keyComparator, valueComparator, biMap);
+    }
+
+    ImmutableSortedArrayMap(Object[][] mapChunks, ValueDictionary dictionary, int[][] sortedValueChunks,
+                Comparator<? super K> keyComparator, Comparator<? super V> valueComparator,
+                boolean biMap) {
+        this(EMPTY_ELEMENTS, Objects.requireNonNull(mapChunks, "map must not be null"), dictionary,
+                EMPTY_INDEXES, Objects.requireNonNull(sortedValueChunks, "sorted values must not be null"),
+                keyComparator, valueComparator, biMap);
+    }
+
+    private ImmutableSortedArrayMap(Object[] map, Object[][] mapChunks, ValueDictionary dictionary,
+                int[] sortedValues, int[][] sortedValueChunks,
+                Comparator<? super K> keyComparator, Comparator<? super V> valueComparator,
+                boolean biMap) {
         this.m_Map = Objects.requireNonNull(map, "map must not be null");
+        this.m_MapChunks = mapChunks;
+        this.m_Dictionary = dictionary;
         this.m_SortedValues = Objects.requireNonNull(sortedValues, "sorted values must not be null");
-        if((map.length % 2) != 0) {
+        this.m_SortedValueChunks = sortedValueChunks;
+        final int length = mapLength();
+        if(dictionary == null) {
+            if((length % 2) != 0) {
+                throw new IllegalArgumentException("map must contain same number of keys and values");
+            }
+        } else if(length != dictionary.size()) {
             throw new IllegalArgumentException("map must contain same number of keys and values");
         }
-        if((map.length / 2) != sortedValues.length) {
+        if(size() != sortedValuesLength()) {
             throw new IllegalArgumentException("sorted values must be half the map");
         }
         this.m_KeyComparator = keyComparator;
@@ -77,6 +126,21 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
         this.m_BiMap = biMap;
     }
 
+    /**
+     * Create a map over the given chunks, keeping them as chunks if they
+     * are long enough that a single array would be allocated as a humongous
+     * object, and otherwise joining them into single arrays.
+     */
+    static <K,V> ImmutableSortedArrayMap<K,V> fromChunks(Object[][] map, ValueDictionary dictionary, int[][] sortedValues,
+                Comparator<? super K> keyComparator, Comparator<? super V> valueComparator,
+                boolean biMap) {
+        if(ChunkedArrays.length(map) >= ChunkedArrays.MIN_CHUNKED_LENGTH) {
+            return new ImmutableSortedArrayMap<>(map, dictionary, sortedValues, keyComparator, valueComparator, biMap);
+        }
+        return new ImmutableSortedArrayMap<>(ChunkedArrays.join(map), dictionary,
+                ChunkedArrays.join(sortedValues), keyComparator, valueComparator, biMap);
+    }
+
     /**
      * Returns the number of key-value mappings in this map.
      *
@@ -84,7 +148,7 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
      */
     @Override
     public int size() {
-        return m_Map.length / 2;
+        return (m_Dictionary == null) ? mapLength() / 2 : mapLength();
     }
 
     /**
@@ -94,7 +158,7 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
      */
     @Override
     public boolean isEmpty() {
-        return m_Map.length == 0;
+        return mapLength() == 0;
     }
 
     /**
@@ -119,7 +183,8 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
      * specified value.  More formally, returns {@code true} if and only if
      * this map contains at least one mapping to a value {@code v} such that
      * {@code (value==null ? v==null : value.equals(v))}.  This operation
-     * requires time log(n) in the map size for this implementation.
+     * requires time log(n) in the map size for this implementation, or
+     * constant time if the map has a value dictionary.
      *
      * @param value value whose presence in this map is to be tested
      * @return {@code true} if this map maps one or more keys to the
@@ -127,6 +192,9 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
      */
     @Override
     public boolean containsValue(Object value) {
+        if(m_Dictionary != null) {
+            return m_Dictionary.containsValue(value);
+        }
         int idx = indexOfValueSorted(value); // avoid one indirection...
         return idx >= 0;
     }
@@ -149,8 +217,7 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
     public V get(Object key) {
         int idx = indexOfKey(key);
         if(idx >= 0) {
-            final int size = m_Map.length / 2;
-            return(V) m_Map[size + idx];
+            return(V) value(idx);
         }
         return null;
     }
@@ -167,12 +234,12 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
     @Override
     @SuppressWarnings("unchecked")
     public Entry<K,V> entryAt(int index) {
-        final int size = m_Map.length / 2;
+        final int size = size();
         if((index < 0) || (index >= size)) {
             throw new IndexOutOfBoundsException("index: " + index);
         }
-        K key = (K) m_Map[index];
-        V value = (V) m_Map[size + index];
+        K key = (K) element(index);
+        V value = (V) value(index);
         return new SimpleImmutableEntry<K, V>(key, value);
     }
 
@@ -187,10 +254,10 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
     @Override
     @SuppressWarnings("unchecked")
     public K keyAt(int index) {
-        if((index < 0) || (index >= m_Map.length / 2)) {
+        if((index < 0) || (index >= size())) {
             throw new IndexOutOfBoundsException("index: " + index);
         }
-        K key = (K) m_Map[index];
+        K key = (K) element(index);
         return key;
     }
 
@@ -205,11 +272,11 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
     @Override
     @SuppressWarnings("unchecked")
     public V valueAt(int index) {
-        final int size = m_Map.length / 2;
+        final int size = size();
         if((index < 0) || (index >= size)) {
             throw new IndexOutOfBoundsException("index: " + index);
         }
-        V value = (V) m_Map[size + index];
+        V value = (V) value(index);
         return value;
     }
 
@@ -224,11 +291,11 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
      */
     @SuppressWarnings("unchecked")
     public V sortedValueAt(int index) {
-        final int size = m_Map.length / 2;
+        final int size = size();
         if((index < 0) || (index >= size)) {
             throw new IndexOutOfBoundsException("index: " + index);
         }
-        V value = (V) m_Map[size + m_SortedValues[index]];
+        V value = (V) value(sortedValue(index));
         return value;
     }
 
@@ -245,6 +312,64 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
         return this.entryAt(this.sortedValueIndex(index));
     }
 
+    /**
+     * Returns {@code true} if the values of this map are dictionary encoded,
+     * where each distinct value is stored once, and each entry holds a code
+     * for its value.
+     *
+     * @return {@code true} if this map has a value dictionary, otherwise
+     * {@code false}
+     */
+    public boolean hasValueDictionary() {
+        return m_Dictionary != null;
+    }
+
+    /**
+     * Returns {@code true} if this map holds its arrays in fixed-size
+     * chunks, as the builder does for large maps, rather than in single
+     * arrays.
+     *
+     * @return {@code true} if this map is held in chunks, otherwise
+     * {@code false}
+     */
+    public boolean isChunked() {
+        return m_MapChunks != null;
+    }
+
+    /**
+     * Returns the value at the given index, from the dictionary if present,
+     * otherwise from the second half of the map array.
+     */
+    private Object value(int index) {
+        return (m_Dictionary == null) ? element(size() + index) : m_Dictionary.get(index);
+    }
+
+    // Accessors hiding whether the arrays are held flat or in chunks
+
+    private int mapLength() {
+        return (m_MapChunks == null) ? m_Map.length : ChunkedArrays.length(m_MapChunks);
+    }
+
+    private Object element(int index) {
+        return (m_MapChunks == null) ? m_Map[index] : ChunkedArrays.get(m_MapChunks, index);
+    }
+
+    private int sortedValuesLength() {
+        return (m_SortedValueChunks == null) ? m_SortedValues.length : ChunkedArrays.length(m_SortedValueChunks);
+    }
+
+    private int sortedValue(int index) {
+        return (m_SortedValueChunks == null) ? m_SortedValues[index] : ChunkedArrays.get(m_SortedValueChunks, index);
+    }
+
+    private void copyElements(int srcPos, Object[][] dest, int destPos, int length) {
+        if(m_MapChunks == null) {
+            ChunkedArrays.copy(m_Map, srcPos, dest, destPos, length);
+        } else {
+            ChunkedArrays.copy(m_MapChunks, srcPos, dest, destPos, length);
+        }
+    }
+
     /**
      * Returns the array index of the given key in the map.
      *
@@ -260,7 +385,129 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
 
     @SuppressWarnings("unchecked")
     private int indexOfKeyInternal(Object key) {
-        return BinarySearchUtils.indexedSearch(this::keyAt, m_Map.length / 2, key, m_NullsKeyComparator);
+        if(m_MapChunks != null) {
+            return ChunkedArrays.arraySearch(m_MapChunks, 0, size(), key, m_NullsKeyComparator);
+        }
+        return BinarySearchUtils.arraySearch(m_Map, 0, size(), key, m_NullsKeyComparator);
+    }
+
+    /**
+     * Finds the array index of each of the given keys in a single batch.
+     * <p>
+     * The keys are probed in ascending order as a merge-join against the
+     * sorted keys of this map, each search galloping forward from the
+     * position of the previous key. This turns many independent binary
+     * searches into a mostly sequential pass over the backing array. If the
+     * keys are not already sorted, an ordering of the keys is sorted first;
+     * the keys array itself is not modified.
+     * </p>
+     *
+     * @param keys the keys to be found in the map
+     * @param out receives, at the position of each key, its index in the
+     * map, or {@code -1} if the key is absent
+     * @return the number of keys found in the map
+     * @throws IllegalArgumentException if {@code out} is shorter than
+     * {@code keys}
+     * @throws ClassCastException if a key cannot be compared with the keys
+     * of this map
+     */
+    @SuppressWarnings("unchecked")
+    public int indexOfKeys(Object[] keys, int[] out) {
+        final int count = keys.length;
+        if(out.length < count) {
+            throw new IllegalArgumentException("output array is shorter than keys");
+        }
+        final Comparator cmp = m_NullsKeyComparator;
+        int[] order = null;
+        for(int i = 1; i < count; i++) {
+            if(cmp.compare(keys[i - 1], keys[i]) > 0) {
+                order = new int[count];
+                for(int j = 0; j < count; j++) {
+                    order[j] = j;
+                }
+                SortUtils.sortIndexes(order, (a, b) -> cmp.compare(keys[a], keys[b]));
+                break;
+            }
+        }
+
+        final int size = size();
+        int found = 0;
+        int low = 0;
+        for(int i = 0; i < count; i++) {
+            final int k = (order == null) ? i : order[i];
+            final int idx = (m_MapChunks == null) ?
+                    BinarySearchUtils.gallopingSearch(m_Map, low, size, keys[k], cmp) :
+                    ChunkedArrays.gallopingSearch(m_MapChunks, low, size, keys[k], cmp);
+            if(idx >= 0) {
+                out[k] = idx;
+                low = idx;
+                found++;
+            } else {
+                out[k] = -1;
+                low = -(idx + 1);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns a map of the given keys that are present in this map to their
+     * values, looked up in a single batch as for
+     * {@link #indexOfKeys(Object[], int[])}. The returned map has the same
+     * ordering as this map.
+     *
+     * @param keys the keys to be found in the map
+     * @return a map of the keys present in this map to their values
+     * @throws ClassCastException if a key cannot be compared with the keys
+     * of this map
+     */
+    public ImmutableSortedArrayMap<K,V> getAll(Collection<?> keys) {
+        final Object[] probes = keys.toArray();
+        final int[] indexes = new int[probes.length];
+        if(indexOfKeys(probes, indexes) == 0) {
+            return emptyMap();
+        }
+
+        // The distinct indexes found, in index order, are also in key order
+        Arrays.sort(indexes);
+        int count = 0;
+        int previous = -1;
+        for(int idx : indexes) {
+            if(idx > previous) {
+                indexes[count++] = idx;
+                previous = idx;
+            }
+        }
+
+        final int size = size();
+        final Object[][] subMap;
+        final ValueDictionary subDictionary;
+        if(m_Dictionary == null) {
+            subMap = ChunkedArrays.newObjectChunks(count * 2);
+            for(int i = 0; i < count; i++) {
+                ChunkedArrays.set(subMap, i, element(indexes[i]));
+                ChunkedArrays.set(subMap, count + i, element(size + indexes[i]));
+            }
+            subDictionary = null;
+        } else {
+            subMap = ChunkedArrays.newObjectChunks(count);
+            for(int i = 0; i < count; i++) {
+                ChunkedArrays.set(subMap, i, element(indexes[i]));
+            }
+            subDictionary = m_Dictionary.select(indexes, count);
+        }
+
+        // The entries found keep their order by value from this map
+        final int[][] subSortedValues = ChunkedArrays.newIntChunks(count);
+        int valIndex = 0;
+        for(int i = 0; (i < size) && (valIndex < count); i++) {
+            final int pos = Arrays.binarySearch(indexes, 0, count, sortedValue(i));
+            if(pos >= 0) {
+                ChunkedArrays.set(subSortedValues, valIndex++, pos);
+            }
+        }
+
+        return fromChunks(subMap, subDictionary, subSortedValues, m_KeyComparator, m_ValueComparator, m_BiMap);
     }
 
     /**
@@ -275,8 +522,8 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
     @SuppressWarnings("unchecked")
     @Override
     public int indexOfValue(Object value) {
-        int idx = BinarySearchUtils.indexedSearch(this::sortedValueAt, m_Map.length / 2, value, m_NullsValueComparator);
-        return idx >= 0 ? m_SortedValues[idx] : -1;
+        int idx = BinarySearchUtils.indexedSearch(this::sortedValueAt, size(), value, m_NullsValueComparator);
+        return idx >= 0 ? sortedValue(idx) : -1;
     }
 
     /**
@@ -291,15 +538,41 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
      */
     @SuppressWarnings("unchecked")
     public int indexOfValueSorted(Object value) {
-        int idx = BinarySearchUtils.indexedSearch(this::sortedValueAt, m_Map.length / 2, value, m_NullsValueComparator);
+        int idx = BinarySearchUtils.indexedSearch(this::sortedValueAt, size(), value, m_NullsValueComparator);
         return idx >= 0 ? idx : -1;
     }
 
     private int sortedValueIndex(int idx) {
-        if(idx < 0 || idx > m_SortedValues.length) {
+        if(idx < 0 || idx >= sortedValuesLength()) {
             throw new IndexOutOfBoundsException("index: " + idx);
         }
-        return m_SortedValues[idx];
+        return sortedValue(idx);
+    }
+
+    /**
+     * Returns {@code true} if this map was built as a bi-map, where both
+     * keys and values are unique.
+     *
+     * @return {@code true} if this map is a bi-map, otherwise {@code false}
+     */
+    public boolean isBiMap() {
+        return m_BiMap;
+    }
+
+    /**
+     * Returns an inverse view of this bi-map, which maps each value of this
+     * map to its associated key. The view shares the arrays of this map, so
+     * no data is copied. Searches by key in the inverse view use the sorted
+     * value index of this map.
+     *
+     * @return an inverse view of this bi-map
+     * @throws UnsupportedOperationException this map is not a bi-map
+     */
+    public ArrayBackedMap<V,K> inverse() {
+        if(!m_BiMap) {
+            throw new UnsupportedOperationException("not a bi-map");
+        }
+        return new ArrayBackedInverseMap<>(this);
     }
 
     /**
@@ -471,7 +744,7 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
     @Override
     public ImmutableSortedArrayMap<K, V> tailMap(K fromKey) {
         int fromIndex = insertionPointToIndex(indexOfKeyInternal(fromKey));
-        int toIndex = m_Map.length / 2;
+        int toIndex = size();
         return subMapByIndex(fromIndex, toIndex);
     }
 
@@ -480,7 +753,7 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
             throw new IllegalArgumentException("toKey is less than fromKey");
         }
 
-        final int size = m_Map.length / 2;
+        final int size = size();
         if((fromIndex == 0) && (toIndex == size)) {
             return this;
         } else if(fromIndex == toIndex) {
@@ -488,20 +761,30 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
         }
 
         int subSize = toIndex - fromIndex;
-        Object[] subMap = new Object[subSize * 2];
-        int[] subSortedValues = new int[subSize];
-
-        // copy keys
-        System.arraycopy(m_Map, fromIndex, subMap, 0, subSize);
-        // copy values
-        System.arraycopy(m_Map, size, subMap, subSize, subSize);
+        int[][] subSortedValues = ChunkedArrays.newIntChunks(subSize);
+
+        final Object[][] subMap;
+        final ValueDictionary subDictionary;
+        if(m_Dictionary == null) {
+            subMap = ChunkedArrays.newObjectChunks(subSize * 2);
+            subDictionary = null;
+            // copy keys
+            copyElements(fromIndex, subMap, 0, subSize);
+            // copy values
+            copyElements(size + fromIndex, subMap, subSize, subSize);
+        } else {
+            // copy keys, and re-encode the values in range
+            subMap = ChunkedArrays.newObjectChunks(subSize);
+            copyElements(fromIndex, subMap, 0, subSize);
+            subDictionary = m_Dictionary.range(fromIndex, toIndex);
+        }
 
         // copy and reindex sorted value indexes
         int valIndex = 0;
         for(int i = 0; i < size; i++) {
-            int idx = m_SortedValues[i];
+            int idx = sortedValue(i);
             if((idx >= fromIndex) && (idx < toIndex)) {
-                subSortedValues[valIndex++] = (idx - fromIndex);
+                ChunkedArrays.set(subSortedValues, valIndex++, idx - fromIndex);
             }
         }
 
@@ -509,7 +792,135 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
             throw new IllegalStateException("sorted value index does not compute!");
         }
 
-        return new ImmutableSortedArrayMap<K,V>(subMap, subSortedValues, m_KeyComparator, m_ValueComparator, m_BiMap);
+        return fromChunks(subMap, subDictionary, subSortedValues, m_KeyComparator, m_ValueComparator, m_BiMap);
+    }
+
+    /**
+     * Returns the index of the first key starting with the given prefix,
+     * using a binary search. Keys must be {@code CharSequence}s in their
+     * natural order, such as {@code String}s.
+     * <p>
+     * The keys starting with the prefix are those from
+     * {@code prefixFromIndex(prefix)} inclusive to
+     * {@code prefixToIndex(prefix)} exclusive.
+     * </p>
+     *
+     * @param prefix the prefix of the keys to be found
+     * @return the index of the first key starting with the prefix, otherwise
+     * the index at which such a key would be inserted
+     * @throws IllegalStateException if this map has a key comparator
+     * @throws ClassCastException if the keys are not {@code CharSequence}s
+     * @throws NullPointerException if the prefix is {@code null}
+     */
+    public int prefixFromIndex(CharSequence prefix) {
+        checkPrefixOrdering();
+        return BinarySearchUtils.prefixStart(i -> (CharSequence) keyAt(i), 0, size(), prefix);
+    }
+
+    /**
+     * Returns the index following the last key starting with the given
+     * prefix, using a binary search. Keys must be {@code CharSequence}s in
+     * their natural order, such as {@code String}s.
+     *
+     * @param prefix the prefix of the keys to be found
+     * @return the index following the last key starting with the prefix,
+     * otherwise the index at which such a key would be inserted
+     * @throws IllegalStateException if this map has a key comparator
+     * @throws ClassCastException if the keys are not {@code CharSequence}s
+     * @throws NullPointerException if the prefix is {@code null}
+     */
+    public int prefixToIndex(CharSequence prefix) {
+        checkPrefixOrdering();
+        return BinarySearchUtils.prefixEnd(i -> (CharSequence) keyAt(i), 0, size(), prefix);
+    }
+
+    /**
+     * Returns a view of the portion of this map whose keys start with the
+     * given prefix. The range is found with two binary searches, and the
+     * entries are not copied. Keys must be {@code CharSequence}s in their
+     * natural order, such as {@code String}s.
+     *
+     * @param prefix the prefix of the keys in the returned map
+     * @return a view of the portion of this map whose keys start with the
+     * prefix
+     * @throws IllegalStateException if this map has a key comparator
+     * @throws ClassCastException if the keys are not {@code CharSequence}s
+     * @throws NullPointerException if the prefix is {@code null}
+     */
+    public ArrayBackedMap<K,V> prefixMap(CharSequence prefix) {
+        final int fromIndex = prefixFromIndex(prefix);
+        final int toIndex = BinarySearchUtils.prefixEnd(i -> (CharSequence) keyAt(i), fromIndex, size(), prefix);
+        if((fromIndex == 0) && (toIndex == size())) {
+            return this;
+        }
+        return new ArrayBackedSubMap<>(this, fromIndex, toIndex);
+    }
+
+    private void checkPrefixOrdering() {
+        if((m_KeyComparator != null) && (m_KeyComparator != Comparator.naturalOrder())) {
+            throw new IllegalStateException("prefix search requires natural key ordering");
+        }
+    }
+
+    /**
+     * Returns the rank of the given key, being the number of keys in
+     * this map that are strictly less than it. If the key is present,
+     * this is its index; otherwise it is the index at which it would be
+     * inserted. This is a single binary search, and does not allocate.
+     *
+     * @param key the key to be ranked
+     * @return the number of keys in this map less than the given key
+     * @throws ClassCastException if the key cannot be compared using this
+     *         map's comparator (or, if the map has no comparator, using
+     *         natural ordering)
+     */
+    public int rank(K key) {
+        return BinarySearchUtils.boundaryIndex(indexOfKeyInternal(key), false);
+    }
+
+    /**
+     * Returns the number of keys in this map that lie within the
+     * given range, without creating a sub-map. This requires two binary
+     * searches, and does not allocate.
+     *
+     * @param fromKey low endpoint of the range
+     * @param fromInclusive {@code true} if the low endpoint is to be
+     *        included in the count
+     * @param toKey high endpoint of the range
+     * @param toInclusive {@code true} if the high endpoint is to be
+     *        included in the count
+     * @return the number of keys within the range
+     * @throws ClassCastException if the endpoints cannot be compared to one
+     *         another using this map's comparator (or, if the map has no
+     *         comparator, using natural ordering)
+     * @throws IllegalArgumentException if {@code fromKey} is greater
+     *         than {@code toKey}
+     */
+    @SuppressWarnings("unchecked")
+    public int countInRange(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+        final int fromIndex = BinarySearchUtils.boundaryIndex(indexOfKeyInternal(fromKey), !fromInclusive);
+        final int toIndex = BinarySearchUtils.boundaryIndex(indexOfKeyInternal(toKey), toInclusive);
+        if(toIndex < fromIndex) {
+            if(m_NullsKeyComparator.compare(fromKey, toKey) > 0) {
+                throw new IllegalArgumentException("toKey is less than fromKey");
+            }
+            return 0;
+        }
+        return toIndex - fromIndex;
+    }
+
+    /**
+     * Returns the key of the given rank, being the key with exactly
+     * {@code rank} keys less than it in this map. This is the inverse
+     * of {@link #rank}.
+     *
+     * @param rank the rank of the key to be returned
+     * @return the key of the given rank
+     * @throws IndexOutOfBoundsException if the rank is less than zero or
+     * greater than or equal to the map size
+     */
+    public K select(int rank) {
+        return keyAt(rank);
     }
 
     private static int insertionPointToIndex(int idx) {
@@ -525,10 +936,10 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
     @SuppressWarnings("unchecked")
     @Override
     public K firstKey() {
-        if(m_Map.length == 0) {
+        if(mapLength() == 0) {
             throw new NoSuchElementException();
         }
-        return (K)m_Map[0];
+        return (K)element(0);
     }
 
     /**
@@ -540,11 +951,11 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
     @SuppressWarnings("unchecked")
     @Override
     public K lastKey() {
-        int size = m_Map.length / 2;
+        int size = size();
         if(size == 0) {
             throw new NoSuchElementException();
         }
-        return (K)m_Map[size - 1];
+        return (K)element(size - 1);
     }
 
     /**
@@ -816,7 +1227,23 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
         if (m_SortedValues == null) {
             throw new InvalidObjectException("sorted values must be present");
         }
-        if(m_SortedValues.length != (m_Map.length / 2)) {
+        if((m_MapChunks == null) != (m_SortedValueChunks == null)) {
+            throw new InvalidObjectException("map and sorted values must both be chunked");
+        }
+        if((m_MapChunks != null) && ((m_Map.length != 0) || !ChunkedArrays.isWellFormed(m_MapChunks))) {
+            throw new InvalidObjectException("map chunks must be well formed");
+        }
+        if((m_SortedValueChunks != null) &&
+                ((m_SortedValues.length != 0) || !ChunkedArrays.isWellFormed(m_SortedValueChunks))) {
+            throw new InvalidObjectException("sorted value chunks must be well formed");
+        }
+        if((m_Dictionary == null) && ((mapLength() % 2) != 0)) {
+            throw new InvalidObjectException("map must be an equal number of keys and values");
+        }
+        if((m_Dictionary != null) && (m_BiMap || (m_Dictionary.size() != mapLength()))) {
+            throw new InvalidObjectException("map must be an equal number of keys and dictionary codes");
+        }
+        if(sortedValuesLength() != size()) {
             throw new InvalidObjectException("sorted values must be of value length");
         }
 
@@ -828,14 +1255,14 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
                 Comparator.nullsFirst(Comparator.naturalOrder()) :
                 Comparator.nullsFirst(m_ValueComparator);
 
-        final int sz = m_Map.length / 2;
+        final int sz = size();
 
         if(sz > 0) {
             {
                 // Scan keys to ensure ordering is consistent, using the key comparator
-                K prev = (K) m_Map[0];
+                K prev = (K) element(0);
                 for (int i = 1; i < sz; i++) {
-                    K o = (K) m_Map[i];
+                    K o = (K) element(i);
                     int cmp = m_NullsKeyComparator.compare(o, prev);
                     if (cmp < 0) {
                         throw new InvalidObjectException("map keys not ordered by the comparator");
@@ -846,9 +1273,9 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
 
             {
                 // Scan values to ensure ordering is consistent, using the value comparator
-                V prev = (V) m_Map[sz + m_SortedValues[0]];
+                V prev = (V) value(sortedValue(0));
                 for (int i = 1; i < sz; i++) {
-                    V o = (V) m_Map[sz + m_SortedValues[i]];
+                    V o = (V) value(sortedValue(i));
                     int cmp = m_NullsValueComparator.compare(o, prev);
                     if (cmp < 0) {
                         throw new InvalidObjectException("map values not ordered by the comparator");
@@ -865,7 +1292,7 @@ public final class ImmutableSortedArrayMap<K,V> extends AbstractMap<K,V>
      * @return the resolved object
      */
     private Object readResolve() {
-        if(m_Map.length == 0) {
+        if(mapLength() == 0) {
             // optimization only
             return EMPTY;
         }
@@ -17,6 +17,7 @@ public final class ImmutableSortedArrayMapBuilder<K,V> {
     private Object[] m_Values = EMPTY_ELEMENTS;
     private int m_Size = 0;
     private boolean m_Bimap = false;
+    private boolean m_ValueDictionary = false;
 
     private static final Object[] EMPTY_ELEMENTS = new Object[0];
     @SuppressWarnings("unchecked")
@@ -184,6 +185,27 @@ public final class ImmutableSortedArrayMapBuilder<K,V> {
         return this;
     }
 
+    /**
+     * Build the map with its values dictionary encoded. Each distinct value
+     * is stored once, and each entry holds a byte, short, or int code for
+     * its value, depending on the number of distinct values.
+     * <p>
+     * This is useful for large maps where many keys share a small number of
+     * distinct values, such as enumerated states or categories. Testing
+     * whether a value is present then searches only the distinct values.
+     * This option is ignored when building a bi-map, since every value is
+     * distinct.
+     * </p>
+     *
+     * @param valueDictionary {@code true} if the map values are to be
+     *                        dictionary encoded, otherwise {@code false}
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedArrayMapBuilder<K,V> valueDictionary(boolean valueDictionary) {
+        this.m_ValueDictionary = valueDictionary;
+        return this;
+    }
+
     /**
      * The builder will build the resulting map as a map, not a bi-map.
      *
@@ -398,8 +420,13 @@ public final class ImmutableSortedArrayMapBuilder<K,V> {
      * sorting the keys and values, and checking for duplicate keys and values
      * as necessary.
      * <p>
+     * A large map is held in fixed-size chunks rather than in single arrays,
+     * so that the G1 collector need not allocate it as humongous objects.
+     * </p>
+     * <p>
      * Repeated calls to a builder containing a non-zero number of entries
      * will return distinct map instances.
+     * </p>
      *
      * @return an ImmutableSortedArrayMap containing the elements in the builder
      * @throws IllegalStateException there was a duplicate key or value
@@ -426,15 +453,18 @@ public final class ImmutableSortedArrayMapBuilder<K,V> {
         // Sort keys by index, insert sorted keys and values into result array
         Arrays.sort(sortedKeys, 0, m_Size, new ArrayComparator(m_Keys, 0, nullsKeyComparator));
 
-        Object[] elements = new Object[m_Size * 2];
+        final boolean dictionaryEncoded = m_ValueDictionary && !m_Bimap;
+        final Object[][] elements = ChunkedArrays.newObjectChunks(dictionaryEncoded ? m_Size : m_Size * 2);
         for(int i = 0; i < sortedKeys.length; i++) {
-            elements[i] = m_Keys[sortedKeys[i]];
-            elements[m_Size + i] = m_Values[sortedKeys[i]];
+            ChunkedArrays.set(elements, i, m_Keys[sortedKeys[i]]);
+            if(!dictionaryEncoded) {
+                ChunkedArrays.set(elements, m_Size + i, m_Values[sortedKeys[i]]);
+            }
         }
 
-        Object prev = elements[0];
+        Object prev = m_Keys[sortedKeys[0]];
         for (int i = 1; i < m_Size; i++) {
-            Object o = elements[i];
+            Object o = m_Keys[sortedKeys[i]];
             int cmp = nullsKeyComparator.compare(o, prev);
             if(cmp == 0) {
                 throw new IllegalStateException("duplicate key");
@@ -445,17 +475,18 @@ public final class ImmutableSortedArrayMapBuilder<K,V> {
         // Sort keys by index, insert sorted keys and values into result array
         Comparator<? super V> valueComparator = m_ValueComparator;
         Comparator nullsValueComparator = (valueComparator == null) ? naturalOrder : Comparator.nullsFirst(valueComparator);
-        Arrays.sort(sortedValues, 0, m_Size, new ArrayComparator(elements, m_Size, nullsValueComparator));
+        Arrays.sort(sortedValues, 0, m_Size,
+                (a, b) -> nullsValueComparator.compare(m_Values[sortedKeys[a]], m_Values[sortedKeys[b]]));
 
-        int[] intSortedValues = new int[sortedValues.length];
+        int[][] intSortedValues = ChunkedArrays.newIntChunks(sortedValues.length);
         for(int i = 0; i < sortedValues.length; i++) {
-            intSortedValues[i] = sortedValues[i].intValue();
+            ChunkedArrays.set(intSortedValues, i, sortedValues[i].intValue());
         }
 
         if(m_Bimap) {
-            prev = elements[m_Size + intSortedValues[0]];
+            prev = m_Values[sortedKeys[sortedValues[0]]];
             for(int i = 1; i < m_Size; i++) {
-                Object o = elements[m_Size + intSortedValues[i]];
+                Object o = m_Values[sortedKeys[sortedValues[i]]];
                 int cmp = nullsValueComparator.compare(o, prev);
                 if(cmp == 0) {
                     throw new IllegalStateException("duplicate value");
@@ -464,7 +495,11 @@ public final class ImmutableSortedArrayMapBuilder<K,V> {
             }
         }
 
-        return new ImmutableSortedArrayMap<>(elements, intSortedValues, keyComparator, valueComparator, m_Bimap);
+        if(dictionaryEncoded) {
+            ValueDictionary dictionary = ValueDictionary.encode(i -> m_Values[sortedKeys[i]], m_Size);
+            return ImmutableSortedArrayMap.fromChunks(elements, dictionary, intSortedValues, keyComparator, valueComparator, false);
+        }
+        return ImmutableSortedArrayMap.fromChunks(elements, null, intSortedValues, keyComparator, valueComparator, m_Bimap);
     }
 
     /**
@@ -479,6 +514,7 @@ public final class ImmutableSortedArrayMapBuilder<K,V> {
         m_ValueComparator = null;
         m_Size = 0;
         m_Bimap = false;
+        m_ValueDictionary = false;
         return this;
     }
 
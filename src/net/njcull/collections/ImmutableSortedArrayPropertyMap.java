@@ -20,6 +20,10 @@ import java.util.function.Function;
  * in sorted key order.
  * <p>
  * Keys are calculated on demand by the given key supplier function.
+ * Optionally, the keys may be materialized when the map is built, so that
+ * searches compare precomputed keys rather than calling the key supplier
+ * on every probe of the binary search. Materialized keys are held in a
+ * parallel array, at the cost of one extra reference per entry.
  * <p>
  * Keys are tested using a binary search implementation. The map's keyset
  * and entryset views may also be viewed as a {@link List}.
@@ -37,9 +41,12 @@ public final class ImmutableSortedArrayPropertyMap<K,V> extends AbstractMap<K,V>
     private final Comparator<? super K> m_KeyComparator;
     private transient Comparator m_NullsKeyComparator;
     private final Function<? super V, ? extends K> m_KeySupplier;
+    private final boolean m_MaterializedKeys;
+    private transient Object[] m_Keys;
+    private transient Class<?> m_ValueClass;
 
     // Singleton, as an optimization only
-    private static final ImmutableSortedArrayPropertyMap<?,?> EMPTY = new ImmutableSortedArrayPropertyMap<>(new Object[0], null, null);
+    private static final ImmutableSortedArrayPropertyMap<?,?> EMPTY = new ImmutableSortedArrayPropertyMap<>(new Object[0], null, null, null);
 
     // Serialization
     private static final long serialVersionUID = -3952070973008751043L;
@@ -57,8 +64,13 @@ public final class ImmutableSortedArrayPropertyMap<K,V> extends AbstractMap<K,V>
         return (ImmutableSortedArrayPropertyMap<K,V>) EMPTY;
     }
 
-    ImmutableSortedArrayPropertyMap(Object[] map, Comparator<? super K> keyComparator, Function<? super V, ? extends K> keySupplier) {
+    ImmutableSortedArrayPropertyMap(Object[] map, Object[] keys, Comparator<? super K> keyComparator, Function<? super V, ? extends K> keySupplier) {
         this.m_Map = Objects.requireNonNull(map, "map must not be null");
+        if((keys != null) && (keys.length != map.length)) {
+            throw new IllegalArgumentException("keys must be the same length as the map");
+        }
+        this.m_Keys = keys;
+        this.m_MaterializedKeys = (keys != null);
         this.m_KeyComparator = keyComparator;
         this.m_NullsKeyComparator = (keyComparator == null) ?
                 Comparator.nullsFirst(Comparator.naturalOrder()) :
@@ -108,7 +120,8 @@ public final class ImmutableSortedArrayPropertyMap<K,V> extends AbstractMap<K,V>
      * specified value.  More formally, returns {@code true} if and only if
      * this map contains at least one mapping to a value {@code v} such that
      * {@code (value==null ? v==null : value.equals(v))}.  This operation
-     * requires time linear in the map size for this implementation.
+     * requires time log(n) in the map size for this implementation, since
+     * each value determines its own key.
      *
      * @param value value whose presence in this map is to be tested
      * @return {@code true} if this map maps one or more keys to the
@@ -158,7 +171,7 @@ public final class ImmutableSortedArrayPropertyMap<K,V> extends AbstractMap<K,V>
         if((index < 0) || (index >= m_Map.length)) {
             throw new IndexOutOfBoundsException("index: " + index);
         }
-        K key = m_KeySupplier.apply((V) m_Map[index]);
+        K key = (m_Keys == null) ? m_KeySupplier.apply((V) m_Map[index]) : (K) m_Keys[index];
         V value = (V) m_Map[index];
         return new SimpleImmutableEntry<K, V>(key, value);
     }
@@ -177,6 +190,9 @@ public final class ImmutableSortedArrayPropertyMap<K,V> extends AbstractMap<K,V>
         if((index < 0) || (index >= m_Map.length)) {
             throw new IndexOutOfBoundsException("index: " + index);
         }
+        if(m_Keys != null) {
+            return (K) m_Keys[index];
+        }
         K key = m_KeySupplier.apply((V) m_Map[index]);
         return key;
     }
@@ -214,19 +230,91 @@ public final class ImmutableSortedArrayPropertyMap<K,V> extends AbstractMap<K,V>
 
     @SuppressWarnings("unchecked")
     private int indexOfKeyInternal(Object key) {
+        final Object[] keys = m_Keys;
+        if(keys != null) {
+            return BinarySearchUtils.arraySearch(keys, 0, m_Map.length, key, m_NullsKeyComparator);
+        }
         return BinarySearchUtils.indexedSearch(this::keyAt, m_Map.length, key, m_NullsKeyComparator);
     }
 
     /**
-     * Returns the array index of the given value in the map. If there are
-     * multiple values that match the given value, the first index is returned.
+     * Returns {@code true} if the keys of this map have been materialized
+     * into a separate array when the map was built, otherwise {@code false}
+     * if keys are calculated on demand by the key supplier function.
+     *
+     * @return {@code true} if the keys of this map are materialized,
+     * otherwise {@code false}
+     */
+    public boolean hasMaterializedKeys() {
+        return m_MaterializedKeys;
+    }
+
+    /**
+     * Returns the array index of the given value in the map. The key of the
+     * value is calculated by the key supplier, and found using a binary
+     * search. If the given value is {@code null}, or is not an instance of
+     * the class common to the values of this map, the key supplier is not
+     * called, and the values are scanned linearly instead. Values of
+     * unrelated classes may share only an interface, so the key supplier
+     * may still reject the value with a {@code ClassCastException}, which
+     * also results in a linear scan.
      *
      * @param value the value to be found in the map
      * @return a zero or positive integer if the value is in the
      * backing array, otherwise less than zero to indicate its absence
      */
+    @SuppressWarnings("unchecked")
     @Override
     public int indexOfValue(Object value) {
+        final int size = m_Map.length;
+        if(size == 0) {
+            return -1;
+        }
+
+        if((value == null) || !valueClass().isInstance(value)) {
+            return indexOfValueLinear(value);
+        }
+        final K key;
+        try {
+            key = m_KeySupplier.apply((V) value);
+        } catch (ClassCastException e) {
+            return indexOfValueLinear(value);
+        }
+        int idx = indexOfKeyInternal(key);
+        if((idx >= 0) && Objects.equals(value, m_Map[idx])) {
+            return idx;
+        }
+        return -1;
+    }
+
+    /**
+     * The most specific class of which every non-null value of this map is
+     * an instance. Calculated on first use.
+     *
+     * @return the class common to the values of this map
+     */
+    private Class<?> valueClass() {
+        Class<?> valueClass = m_ValueClass;
+        if(valueClass == null) {
+            for(Object o : m_Map) {
+                if(o != null) {
+                    if(valueClass == null) {
+                        valueClass = o.getClass();
+                    }
+                    while(!valueClass.isInstance(o)) {
+                        valueClass = valueClass.getSuperclass();
+                    }
+                }
+            }
+            if(valueClass == null) {
+                valueClass = Object.class;
+            }
+            m_ValueClass = valueClass;
+        }
+        return valueClass;
+    }
+
+    private int indexOfValueLinear(Object value) {
         final int size = m_Map.length;
         if(value == null) {
             for(int i = 0; i < size; i++) {
@@ -244,6 +332,18 @@ public final class ImmutableSortedArrayPropertyMap<K,V> extends AbstractMap<K,V>
         return -1;
     }
 
+    /**
+     * Returns an inverse view of this map, which maps each value of this
+     * map to its associated key. Since each value determines its own key,
+     * values are unique, and the inverse view is always available. The view
+     * shares the array of this map, so no data is copied.
+     *
+     * @return an inverse view of this map
+     */
+    public ArrayBackedMap<V,K> inverse() {
+        return new ArrayBackedInverseMap<>(this);
+    }
+
     /**
      * Returns an {@link ArrayBackedSet} view of the mappings contained in this
      * map. The set is backed by the map.
@@ -398,7 +498,75 @@ public final class ImmutableSortedArrayPropertyMap<K,V> extends AbstractMap<K,V>
         // copy values
         System.arraycopy(m_Map, fromIndex, subMap, 0, subSize);
 
-        return new ImmutableSortedArrayPropertyMap<K,V>(subMap, m_KeyComparator, m_KeySupplier);
+        // copy keys, if materialized
+        Object[] subKeys = null;
+        if(m_Keys != null) {
+            subKeys = new Object[subSize];
+            System.arraycopy(m_Keys, fromIndex, subKeys, 0, subSize);
+        }
+
+        return new ImmutableSortedArrayPropertyMap<K,V>(subMap, subKeys, m_KeyComparator, m_KeySupplier);
+    }
+
+    /**
+     * Returns the rank of the given key, being the number of keys in
+     * this map that are strictly less than it. If the key is present,
+     * this is its index; otherwise it is the index at which it would be
+     * inserted. This is a single binary search, and does not allocate.
+     *
+     * @param key the key to be ranked
+     * @return the number of keys in this map less than the given key
+     * @throws ClassCastException if the key cannot be compared using this
+     *         map's comparator (or, if the map has no comparator, using
+     *         natural ordering)
+     */
+    public int rank(K key) {
+        return BinarySearchUtils.boundaryIndex(indexOfKeyInternal(key), false);
+    }
+
+    /**
+     * Returns the number of keys in this map that lie within the
+     * given range, without creating a sub-map. This requires two binary
+     * searches, and does not allocate.
+     *
+     * @param fromKey low endpoint of the range
+     * @param fromInclusive {@code true} if the low endpoint is to be
+     *        included in the count
+     * @param toKey high endpoint of the range
+     * @param toInclusive {@code true} if the high endpoint is to be
+     *        included in the count
+     * @return the number of keys within the range
+     * @throws ClassCastException if the endpoints cannot be compared to one
+     *         another using this map's comparator (or, if the map has no
+     *         comparator, using natural ordering)
+     * @throws IllegalArgumentException if {@code fromKey} is greater
+     *         than {@code toKey}
+     */
+    @SuppressWarnings("unchecked")
+    public int countInRange(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+        final int fromIndex = BinarySearchUtils.boundaryIndex(indexOfKeyInternal(fromKey), !fromInclusive);
+        final int toIndex = BinarySearchUtils.boundaryIndex(indexOfKeyInternal(toKey), toInclusive);
+        if(toIndex < fromIndex) {
+            if(m_NullsKeyComparator.compare(fromKey, toKey) > 0) {
+                throw new IllegalArgumentException("toKey is less than fromKey");
+            }
+            return 0;
+        }
+        return toIndex - fromIndex;
+    }
+
+    /**
+     * Returns the key of the given rank, being the key with exactly
+     * {@code rank} keys less than it in this map. This is the inverse
+     * of {@link #rank}.
+     *
+     * @param rank the rank of the key to be returned
+     * @return the key of the given rank
+     * @throws IndexOutOfBoundsException if the rank is less than zero or
+     * greater than or equal to the map size
+     */
+    public K select(int rank) {
+        return keyAt(rank);
     }
 
     private static int insertionPointToIndex(int idx) {
@@ -411,13 +579,12 @@ public final class ImmutableSortedArrayPropertyMap<K,V> extends AbstractMap<K,V>
      * @return the first (lowest) key currently in this map
      * @throws NoSuchElementException if this map is empty
      */
-    @SuppressWarnings("unchecked")
     @Override
     public K firstKey() {
         if(m_Map.length == 0) {
             throw new NoSuchElementException();
         }
-        return m_KeySupplier.apply((V) m_Map[0]);
+        return keyAt(0);
     }
 
     /**
@@ -426,14 +593,13 @@ public final class ImmutableSortedArrayPropertyMap<K,V> extends AbstractMap<K,V>
      * @return the last (highest) key currently in this map
      * @throws NoSuchElementException if this map is empty
      */
-    @SuppressWarnings("unchecked")
     @Override
     public K lastKey() {
         int size = m_Map.length;
         if(size == 0) {
             throw new NoSuchElementException();
         }
-        return m_KeySupplier.apply((V) m_Map[size - 1]);
+        return keyAt(size - 1);
     }
 
     /**
@@ -573,8 +739,14 @@ public final class ImmutableSortedArrayPropertyMap<K,V> extends AbstractMap<K,V>
                 Comparator.nullsFirst(Comparator.naturalOrder()) :
                 Comparator.nullsFirst(m_KeyComparator);
 
+        // Regenerate the materialized keys, if required
+        final Object[] keys = m_MaterializedKeys ? new Object[sz] : null;
+
         if(sz > 0) {
             K prev = m_KeySupplier.apply((V) m_Map[0]);
+            if(keys != null) {
+                keys[0] = prev;
+            }
 
             for (int i = 1; i < sz; i++) {
                 K key = m_KeySupplier.apply((V) m_Map[i]);
@@ -582,9 +754,13 @@ public final class ImmutableSortedArrayPropertyMap<K,V> extends AbstractMap<K,V>
                 if (cmp < 0) {
                     throw new InvalidObjectException("map is not ordered by the comparator");
                 }
+                if(keys != null) {
+                    keys[i] = key;
+                }
                 prev = key;
             }
         }
+        this.m_Keys = keys;
     }
 
     /**
@@ -20,6 +20,7 @@ public final class ImmutableSortedArrayPropertyMapBuilder<K,V> {
     private Comparator<? super K> m_KeyComparator;
     private Object[] m_Values = EMPTY_ELEMENTS;
     private int m_Size = 0;
+    private boolean m_MaterializeKeys = false;
 
     private static final Object[] EMPTY_ELEMENTS = new Object[0];
     @SuppressWarnings("unchecked")
@@ -107,6 +108,26 @@ public final class ImmutableSortedArrayPropertyMapBuilder<K,V> {
         return this;
     }
 
+    /**
+     * Determine whether the keys of the resulting map are materialized when
+     * the map is built. Materialized keys are stored in an array parallel
+     * to the values, so that searches compare precomputed keys rather than
+     * calling the key supplier for every comparison.
+     * <p>
+     * This is useful where the key supplier is expensive, such as a method
+     * that composes a new key object on each call. The trade-off is one
+     * extra reference per entry, plus the memory required by the keys.
+     *
+     * @param materialize {@code true} if the keys are to be materialized,
+     *                    otherwise {@code false} if keys are to be calculated
+     *                    on demand
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedArrayPropertyMapBuilder<K,V> materializeKeys(boolean materialize) {
+        this.m_MaterializeKeys = materialize;
+        return this;
+    }
+
     /**
      * All the values from the supplied iterable will be added to the
      * resulting map.
@@ -278,30 +299,34 @@ public final class ImmutableSortedArrayPropertyMapBuilder<K,V> {
             return ImmutableSortedArrayPropertyMap.<K,V>emptyMap();
         }
 
-        Function<? super V, ? extends K> keySupplier = m_KeySupplier;
+        Function<? super V, ? extends K> keySupplier = Objects.requireNonNull(m_KeySupplier, "key supplier cannot be null");
         Comparator<? super K> keyComparator = m_KeyComparator;
         Comparator nullsKeyComparator = (keyComparator == null) ? naturalOrder : Comparator.nullsFirst(keyComparator);
 
         Integer[] sortedKeys = new Integer[m_Size];
-        Object[] values = Arrays.copyOf(m_Values, m_Size);
+        Object[] keys = new Object[m_Size];
 
+        // Calculate each key once only, rather than on every comparison
         for(int i = 0; i < m_Size; i++) {
             Integer iVal = i;
             sortedKeys[i] = iVal;
+            keys[i] = keySupplier.apply((V)m_Values[i]);
         }
 
         // Sort keys by index, insert sorted values into result array
-        ArrayComparator<? extends K, ? super V> arrayComparator = new ArrayComparator<>(values, keySupplier, nullsKeyComparator);
+        ArrayComparator arrayComparator = new ArrayComparator(keys, nullsKeyComparator);
         Arrays.sort(sortedKeys, 0, m_Size, arrayComparator);
 
         Object[] elements = new Object[m_Size];
+        Object[] elementKeys = new Object[m_Size];
         for(int i = 0; i < sortedKeys.length; i++) {
             elements[i] = m_Values[sortedKeys[i]];
+            elementKeys[i] = keys[sortedKeys[i]];
         }
 
-        Object prev = keySupplier.apply((V)elements[0]);
+        Object prev = elementKeys[0];
         for (int i = 1; i < m_Size; i++) {
-            Object o = keySupplier.apply((V)elements[i]);
+            Object o = elementKeys[i];
             int cmp = nullsKeyComparator.compare(o, prev);
             if(cmp == 0) {
                 throw new IllegalStateException("duplicate key " + o);
@@ -309,7 +334,8 @@ public final class ImmutableSortedArrayPropertyMapBuilder<K,V> {
             prev = o;
         }
 
-        return new ImmutableSortedArrayPropertyMap<>(elements, keyComparator, keySupplier);
+        return new ImmutableSortedArrayPropertyMap<>(elements,
+                m_MaterializeKeys ? elementKeys : null, keyComparator, keySupplier);
     }
 
     /**
@@ -322,27 +348,26 @@ public final class ImmutableSortedArrayPropertyMapBuilder<K,V> {
         m_KeyComparator = null;
         m_KeySupplier = null;
         m_Size = 0;
+        m_MaterializeKeys = false;
         return this;
     }
 
     /**
      * Comparator for creating sorted indexes into the key array.
      */
-    private static final class ArrayComparator <K,V> implements Comparator<Integer> {
-        private final Object[] m_Values;
-        private final Function<V, K> m_Supplier;
-        private final Comparator<K> m_Delegate;
-
-        public ArrayComparator(Object[] values, Function<V, K> supplier, Comparator<K> delegate) {
-            this.m_Values = Objects.requireNonNull(values, "values cannot be null");
-            this.m_Supplier = Objects.requireNonNull(supplier, "key supplier cannot be null");
+    private static final class ArrayComparator implements Comparator<Integer> {
+        private final Object[] m_Keys;
+        private final Comparator m_Delegate;
+
+        public ArrayComparator(Object[] keys, Comparator delegate) {
+            this.m_Keys = Objects.requireNonNull(keys, "keys cannot be null");
             this.m_Delegate = Objects.requireNonNull(delegate, "delegate cannot be null");
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public int compare(Integer o1, Integer o2) {
-            return m_Delegate.compare(m_Supplier.apply((V)m_Values[o1]), m_Supplier.apply((V)m_Values[o2]));
+            return m_Delegate.compare(m_Keys[o1], m_Keys[o2]);
         }
     }
 }
@@ -23,6 +23,7 @@ public final class ImmutableSortedArraySet<E> extends AbstractSet<E>
     private final Object[] m_Elements;
     private final Comparator<? super E> m_Comparator;
     private transient Comparator m_NullsComparator;
+    private transient int m_HashCode;
 
     // Singleton, as an optimization only
     private static final ImmutableSortedArraySet<?> EMPTY = new ImmutableSortedArraySet<>(new Object[0], null);
@@ -271,9 +272,36 @@ public final class ImmutableSortedArraySet<E> extends AbstractSet<E>
         return idx >= 0 ? idx : -1;
     }
 
+    /**
+     * Determine the index of each of the given elements in a single batch.
+     * The elements need not be sorted; a group of binary searches over the
+     * backing array is advanced in lock-step, so that the cache misses of
+     * the searches overlap, rather than each search waiting on its own.
+     *
+     * @param elements the elements to be found
+     * @param out receives, at the position of each element, its index in
+     * this set, or {@code -1} if the element is absent
+     * @return the number of elements found in this set
+     * @throws IllegalArgumentException if {@code out} is shorter than
+     * {@code elements}
+     * @throws ClassCastException if an element cannot be compared with the
+     * elements of this set
+     */
+    @SuppressWarnings("unchecked")
+    public int indexOfElements(Object[] elements, int[] out) {
+        final int found = BinarySearchUtils.interleavedSearch(m_Elements, 0, m_Elements.length,
+                elements, out, m_NullsComparator);
+        for(int i = 0; i < elements.length; i++) {
+            if(out[i] < 0) {
+                out[i] = -1;
+            }
+        }
+        return found;
+    }
+
     @SuppressWarnings("unchecked")
     private int indexOfInternal(E element, int fromIndex, int toIndex) {
-        int idx = BinarySearchUtils.indexedSearch(this::getAtIndex, fromIndex, toIndex, element, m_NullsComparator);
+        int idx = BinarySearchUtils.arraySearch(m_Elements, fromIndex, toIndex, element, m_NullsComparator);
         return idx;
     }
 
@@ -508,6 +536,67 @@ public final class ImmutableSortedArraySet<E> extends AbstractSet<E>
         return new ImmutableSortedArraySet<E>(m_Elements, firstIndex, lastIndex, m_Comparator);
     }
 
+    /**
+     * Returns the rank of the given element, being the number of elements in
+     * this set that are strictly less than it. If the element is present,
+     * this is its index; otherwise it is the index at which it would be
+     * inserted. This is a single binary search, and does not allocate.
+     *
+     * @param element the element to be ranked
+     * @return the number of elements in this set less than the given element
+     * @throws ClassCastException if the element cannot be compared using this
+     *         set's comparator (or, if the set has no comparator, using
+     *         natural ordering)
+     */
+    public int rank(E element) {
+        return BinarySearchUtils.boundaryIndex(indexOfInternal(element, 0, m_Elements.length), false);
+    }
+
+    /**
+     * Returns the number of elements in this set that lie within the
+     * given range, without creating a sub-set. This requires two binary
+     * searches, and does not allocate.
+     *
+     * @param fromElement low endpoint of the range
+     * @param fromInclusive {@code true} if the low endpoint is to be
+     *        included in the count
+     * @param toElement high endpoint of the range
+     * @param toInclusive {@code true} if the high endpoint is to be
+     *        included in the count
+     * @return the number of elements within the range
+     * @throws ClassCastException if the endpoints cannot be compared to one
+     *         another using this set's comparator (or, if the set has no
+     *         comparator, using natural ordering)
+     * @throws IllegalArgumentException if {@code fromElement} is greater
+     *         than {@code toElement}
+     */
+    @SuppressWarnings("unchecked")
+    public int countInRange(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) {
+        final int fromIndex = BinarySearchUtils.boundaryIndex(indexOfInternal(fromElement, 0, m_Elements.length), !fromInclusive);
+        final int toIndex = BinarySearchUtils.boundaryIndex(indexOfInternal(toElement, 0, m_Elements.length), toInclusive);
+        if(toIndex < fromIndex) {
+            if(m_NullsComparator.compare(fromElement, toElement) > 0) {
+                throw new IllegalArgumentException("toElement is less than fromElement");
+            }
+            return 0;
+        }
+        return toIndex - fromIndex;
+    }
+
+    /**
+     * Returns the element of the given rank, being the element with exactly
+     * {@code rank} elements less than it in this set. This is the inverse
+     * of {@link #rank}.
+     *
+     * @param rank the rank of the element to be returned
+     * @return the element of the given rank
+     * @throws IndexOutOfBoundsException if the rank is less than zero or
+     * greater than or equal to the set size
+     */
+    public E select(int rank) {
+        return getAtIndex(rank);
+    }
+
     /**
      * Creates a {@code Spliterator} over the elements in this set.
      *
@@ -549,12 +638,20 @@ public final class ImmutableSortedArraySet<E> extends AbstractSet<E>
      * {@code s1.hashCode()==s2.hashCode()} for any two sets {@code s1}
      * and {@code s2}, as required by the general contract of
      * {@link Object#hashCode}.
+     * <p>
+     * The hash code is calculated on first use, and remembered thereafter.
+     * </p>
      *
      * @return the hash code value for the given set
      */
     @Override
     public int hashCode() {
-        return ArrayBackedSet.hashCode(this);
+        int h = m_HashCode;
+        if((h == 0) && (m_Elements.length > 0)) {
+            h = ArrayBackedSet.hashCode(this);
+            m_HashCode = h;
+        }
+        return h;
     }
 
     /**
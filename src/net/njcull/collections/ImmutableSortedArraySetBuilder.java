@@ -13,6 +13,7 @@ public final class ImmutableSortedArraySetBuilder<E> {
     private Comparator<? super E> m_Comparator;
     private Object[] m_Elements = EMPTY_ELEMENTS;
     private int m_Size = 0;
+    private ImmutableCollectionInterner<? super ImmutableSortedArraySet<E>> m_Interner;
 
     private static final Object[] EMPTY_ELEMENTS = new Object[0];
     @SuppressWarnings("unchecked")
@@ -213,13 +214,28 @@ public final class ImmutableSortedArraySetBuilder<E> {
         return m_Size;
     }
 
+    /**
+     * Use the supplied interner to return a canonical instance from
+     * {@link #build()}. Where an equivalent set has already been interned,
+     * that set is returned in place of the newly built set, which may then
+     * be garbage collected.
+     *
+     * @param interner the interner for canonicalising built sets, or
+     *                 {@code null} to return each set as built
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedArraySetBuilder<E> interner(ImmutableCollectionInterner<? super ImmutableSortedArraySet<E>> interner) {
+        this.m_Interner = interner;
+        return this;
+    }
+
     /**
      * Build the immutable set. Validates all elements added, including
      * sorting the elements, and checking and removing duplicate elements as
      * necessary.
      * <p>
      * Repeated calls to a builder containing a non-zero number of elements
-     * will return distinct set instances.
+     * will return distinct set instances, unless an interner is in use.
      *
      * @return an ImmutableSortedArraySet containing the elements in the builder
      */
@@ -233,7 +249,7 @@ public final class ImmutableSortedArraySetBuilder<E> {
         Comparator<? super E> comparator = m_Comparator;
 
         if (elements.length == 1) {
-            return new ImmutableSortedArraySet<E>(elements, comparator);
+            return intern(new ImmutableSortedArraySet<E>(elements, comparator));
         }
 
         Comparator nullsComparator = (comparator == null) ? naturalOrder : Comparator.nullsFirst(comparator);
@@ -257,7 +273,12 @@ public final class ImmutableSortedArraySetBuilder<E> {
         if(prev + 1 < elements.length) {
             Arrays.fill(elements, prev + 1, elements.length, null);
         }
-        return new ImmutableSortedArraySet<E>(elements, 0, prev + 1, comparator);
+        return intern(new ImmutableSortedArraySet<E>(elements, 0, prev + 1, comparator));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ImmutableSortedArraySet<E> intern(ImmutableSortedArraySet<E> set) {
+        return (m_Interner == null) ? set : (ImmutableSortedArraySet<E>) m_Interner.intern(set);
     }
 
     /**
@@ -269,6 +290,7 @@ public final class ImmutableSortedArraySetBuilder<E> {
         m_Comparator = null;
         m_Elements = EMPTY_ELEMENTS;
         m_Size = 0;
+        m_Interner = null;
         return this;
     }
 }
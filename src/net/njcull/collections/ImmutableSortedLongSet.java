@@ -0,0 +1,867 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A {@link SortedSet} of {@code long} values, compressed by Elias-Fano
+ * encoding. Values are held in ascending order, and occupy close to
+ * {@code 2 + log2(universe / size)} bits each, where the universe is the
+ * difference between the largest and smallest values.
+ * <p>
+ * Each value is stored as an offset from the smallest value, split into low
+ * and high bits. The low bits are packed into one array of fixed width
+ * fields. The high bits are stored in unary, as the position of a set bit in
+ * a second array, where each bucket of equal high bits is terminated by a
+ * clear bit. Samples of every 256th set bit and clear bit allow both arrays
+ * to be randomly accessed.
+ * </p>
+ * <p>
+ * The {@code getLong(int)} method finds the set bit for the index in constant
+ * time. The {@code indexOf(long)} and {@code ceilingIndex(long)} methods find
+ * the bucket for the high bits in constant time, then perform a binary search
+ * of the low bits within the bucket. Iteration scans both arrays
+ * sequentially. Values are boxed only by the {@code Set} methods. The set may
+ * also be viewed as a {@link List}.
+ * </p>
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableSortedLongSet extends AbstractSet<Long>
+        implements SortedSet<Long>, ArrayBackedSet<Long>, Serializable {
+
+    // Number of set or clear bits between samples
+    private static final int SAMPLE_RATE = 256;
+
+    private final int m_Size;
+    private final long m_Min;
+    private final int m_LowBits;
+    private final long[] m_Lower;
+    private final long[] m_Upper;
+    private transient long m_Max;
+    private transient long[] m_OneSamples;
+    private transient long[] m_ZeroSamples;
+
+    // Singleton, as an optimization only
+    private static final ImmutableSortedLongSet EMPTY = new ImmutableSortedLongSet(0, 0L, 0, new long[0], new long[0]);
+
+    // Serializable
+    private static final long serialVersionUID = -7023885412963371904L;
+
+    /**
+     * Returns an immutable empty sorted long set. Each call to this method
+     * will return the same empty set.
+     *
+     * @return an immutable empty sorted long set
+     */
+    public static ImmutableSortedLongSet emptySet() {
+        return EMPTY;
+    }
+
+    private ImmutableSortedLongSet(int size, long min, int lowBits, long[] lower, long[] upper) {
+        this.m_Size = size;
+        this.m_Min = min;
+        this.m_LowBits = lowBits;
+        this.m_Lower = lower;
+        this.m_Upper = upper;
+        buildSamples();
+    }
+
+    /**
+     * Encode the given values, which must be sorted in ascending order
+     * without duplicates.
+     *
+     * @param values the sorted, distinct values to be encoded
+     * @param size the number of values to be encoded
+     * @return a set containing the given values
+     */
+    static ImmutableSortedLongSet encode(long[] values, int size) {
+        if(size == 0) {
+            return EMPTY;
+        }
+        final long min = values[0];
+        final long universe = values[size - 1] - min;
+        final long quotient = Long.divideUnsigned(universe, size);
+        final int lowBits = (quotient == 0L) ? 0 : 63 - Long.numberOfLeadingZeros(quotient);
+        final long lowMask = (1L << lowBits) - 1L;
+
+        // One set bit per value, and one clear bit to terminate each bucket
+        final long upperBits = size + (universe >>> lowBits) + 1L;
+        final long[] upper = new long[(int) ((upperBits + 63L) >>> 6)];
+        final long[] lower = new long[(int) (((long) size * lowBits + 63L) >>> 6)];
+
+        for(int i = 0; i < size; i++) {
+            final long offset = values[i] - min;
+            final long pos = (offset >>> lowBits) + i;
+            upper[(int) (pos >>> 6)] |= 1L << pos;
+            if(lowBits > 0) {
+                final long low = offset & lowMask;
+                final long bitPos = (long) i * lowBits;
+                final int word = (int) (bitPos >>> 6);
+                final int shift = (int) (bitPos & 63L);
+                lower[word] |= low << shift;
+                if(shift + lowBits > 64) {
+                    lower[word + 1] |= low >>> (64 - shift);
+                }
+            }
+        }
+        return new ImmutableSortedLongSet(size, min, lowBits, lower, upper);
+    }
+
+    /**
+     * Build the samples of set and clear bits in the upper bits, and find
+     * the largest value.
+     */
+    private void buildSamples() {
+        final long[] upper = m_Upper;
+        final long zeroCount = ((long) upper.length << 6) - m_Size;
+        final long[] ones = new long[(m_Size + SAMPLE_RATE - 1) / SAMPLE_RATE];
+        final long[] zeros = new long[(int) ((zeroCount + SAMPLE_RATE - 1) / SAMPLE_RATE)];
+
+        long oneRank = 0L;
+        long zeroRank = 0L;
+        for(int w = 0; w < upper.length; w++) {
+            final long word = upper[w];
+            final int oneBits = Long.bitCount(word);
+            long target = (oneRank + SAMPLE_RATE - 1) / SAMPLE_RATE * SAMPLE_RATE;
+            while(target < oneRank + oneBits) {
+                ones[(int) (target / SAMPLE_RATE)] = ((long) w << 6) + selectInWord(word, (int) (target - oneRank));
+                target += SAMPLE_RATE;
+            }
+            target = (zeroRank + SAMPLE_RATE - 1) / SAMPLE_RATE * SAMPLE_RATE;
+            while(target < zeroRank + 64 - oneBits) {
+                zeros[(int) (target / SAMPLE_RATE)] = ((long) w << 6) + selectInWord(~word, (int) (target - zeroRank));
+                target += SAMPLE_RATE;
+            }
+            oneRank += oneBits;
+            zeroRank += 64 - oneBits;
+        }
+        m_OneSamples = ones;
+        m_ZeroSamples = zeros;
+        m_Max = (m_Size == 0) ? 0L : getLong(m_Size - 1);
+    }
+
+    /**
+     * Returns the position of the set bit of the given rank.
+     */
+    private long select1(int rank) {
+        final int sample = rank / SAMPLE_RATE;
+        final long pos = m_OneSamples[sample];
+        int remaining = rank - sample * SAMPLE_RATE;
+        int w = (int) (pos >>> 6);
+        long word = m_Upper[w] & (-1L << pos);
+        int count;
+        while(remaining >= (count = Long.bitCount(word))) {
+            remaining -= count;
+            word = m_Upper[++w];
+        }
+        return ((long) w << 6) + selectInWord(word, remaining);
+    }
+
+    /**
+     * Returns the position of the clear bit of the given rank.
+     */
+    private long select0(long rank) {
+        final int sample = (int) (rank / SAMPLE_RATE);
+        final long pos = m_ZeroSamples[sample];
+        int remaining = (int) (rank - (long) sample * SAMPLE_RATE);
+        int w = (int) (pos >>> 6);
+        long word = ~m_Upper[w] & (-1L << pos);
+        int count;
+        while(remaining >= (count = Long.bitCount(word))) {
+            remaining -= count;
+            word = ~m_Upper[++w];
+        }
+        return ((long) w << 6) + selectInWord(word, remaining);
+    }
+
+    private static int selectInWord(long word, int rank) {
+        for(int i = 0; i < rank; i++) {
+            word &= word - 1L;
+        }
+        return Long.numberOfTrailingZeros(word);
+    }
+
+    private long lowerBits(int index) {
+        final int lowBits = m_LowBits;
+        if(lowBits == 0) {
+            return 0L;
+        }
+        final long bitPos = (long) index * lowBits;
+        final int word = (int) (bitPos >>> 6);
+        final int shift = (int) (bitPos & 63L);
+        long low = m_Lower[word] >>> shift;
+        if(shift + lowBits > 64) {
+            low |= m_Lower[word + 1] << (64 - shift);
+        }
+        return low & ((1L << lowBits) - 1L);
+    }
+
+    /**
+     * Search for the given value. The bucket for the high bits is found from
+     * the samples of clear bits, then the low bits of the bucket are searched.
+     *
+     * @param value the value to be found
+     * @return the index of the value, if found, otherwise
+     * {@code (-(insertion point) - 1)}
+     */
+    private int search(long value) {
+        if((m_Size == 0) || (value < m_Min)) {
+            return -1;
+        }
+        if(value > m_Max) {
+            return -m_Size - 1;
+        }
+        final long offset = value - m_Min;
+        final long high = offset >>> m_LowBits;
+        final long low = offset & ((1L << m_LowBits) - 1L);
+
+        // Values with smaller high bits precede the clear bit ending the previous bucket
+        int from = (high == 0L) ? 0 : (int) (select0(high - 1L) - (high - 1L));
+        int to = (int) (select0(high) - high);
+        while(from < to) {
+            final int mid = (from + to) >>> 1;
+            final long midLow = lowerBits(mid);
+            if(midLow < low) {
+                from = mid + 1;
+            } else if(midLow > low) {
+                to = mid;
+            } else {
+                return mid;
+            }
+        }
+        return -(from + 1);
+    }
+
+    /**
+     * Adds all of the elements in the specified collection to this set.
+     *
+     * @param c collection containing elements to be added to this set
+     * @return {@code false} this set is not changed as a result of the call
+     * @throws UnsupportedOperationException the {@code addAll} operation
+     *         is not supported by this set
+     */
+    @Override
+    public boolean addAll(Collection<? extends Long> c) {
+        if(!c.isEmpty()) {
+            throw new UnsupportedOperationException("No adding");
+        }
+        return false;
+    }
+
+    /**
+     * Retains only the elements in this set that are contained in the
+     * specified collection (optional operation).
+     *
+     * @param  c collection containing elements to be retained in this set
+     * @return {@code false} this set is not changed as a result of the call
+     * @throws UnsupportedOperationException the retainAll operation
+     *         is not supported by this set
+     */
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        for(Long e : this) {
+            if(!c.contains(e)) {
+                throw new UnsupportedOperationException("No removals");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes from this set all of its elements that are contained in the
+     * specified collection (optional operation).
+     *
+     * @param  c collection containing elements to be removed from this set
+     * @return {@code false} this set is not changed as a result of the call
+     * @throws UnsupportedOperationException the {@code removeAll} operation
+     *         is not supported by this set
+     */
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        if(!c.isEmpty()) {
+            for(Object o : c) {
+                if(contains(o)) {
+                    throw new UnsupportedOperationException("No removals");
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all of the elements of this set that satisfy the given
+     * predicate.  Errors or runtime exceptions thrown during iteration or by
+     * the predicate are relayed to the caller.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be
+     *        removed
+     * @return {@code false} no elements were removed
+     * @throws NullPointerException if the specified filter is null
+     * @throws UnsupportedOperationException elements cannot be removed
+     *         from this set.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Long> filter) {
+        Objects.requireNonNull(filter);
+
+        for(Long e : this) {
+            if(filter.test(e)) {
+                throw new UnsupportedOperationException("No removals");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all of the elements from this set (optional operation).
+     * The set will be empty after this call returns.
+     *
+     * @throws UnsupportedOperationException the {@code clear} method
+     *         is not supported by this set
+     */
+    @Override
+    public void clear() {
+        if(m_Size > 0) {
+            throw new UnsupportedOperationException("No removals");
+        }
+    }
+
+    /**
+     * Returns the number of elements in this set (its cardinality).
+     *
+     * @return the number of elements in this set (its cardinality)
+     */
+    @Override
+    public int size() {
+        return m_Size;
+    }
+
+    /**
+     * Returns {@code true} if this set contains no elements.
+     *
+     * @return {@code true} if this set contains no elements
+     */
+    @Override
+    public boolean isEmpty() {
+        return m_Size == 0;
+    }
+
+    /**
+     * Returns {@code true} if this set contains the specified element.
+     *
+     * @param element the element whose presence in this set is to be tested
+     * @return {@code true} if this set contains the specified element,
+     * otherwise {@code false}
+     */
+    @Override
+    public boolean contains(Object element) {
+        return (element instanceof Long) && (search((Long) element) >= 0);
+    }
+
+    /**
+     * Returns {@code true} if this set contains the specified value.
+     *
+     * @param value the value whose presence in this set is to be tested
+     * @return {@code true} if this set contains the specified value,
+     * otherwise {@code false}
+     */
+    public boolean contains(long value) {
+        return search(value) >= 0;
+    }
+
+    /**
+     * Get the element at the specified index.
+     *
+     * @param index the index of the item to be retrieved
+     * @return the item at the specified index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    @Override
+    public Long getAtIndex(int index) {
+        return getLong(index);
+    }
+
+    /**
+     * Get the value at the specified index, without boxing. This operation
+     * requires constant time.
+     *
+     * @param index the index of the value to be retrieved
+     * @return the value at the specified index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public long getLong(int index) {
+        if((index < 0) || (index >= m_Size)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        final long high = select1(index) - index;
+        return m_Min + ((high << m_LowBits) | lowerBits(index));
+    }
+
+    /**
+     * Determine the index of the given element, if it exists in this
+     * set.
+     *
+     * @param element the element to be found
+     * @return a zero or positive integer if the element is in the
+     * set, otherwise less than zero to indicate its absence
+     */
+    @Override
+    public int indexOf(Long element) {
+        if(element == null) {
+            return -1;
+        }
+        return indexOf(element.longValue());
+    }
+
+    /**
+     * Determine the index of the given value, if it exists in this set.
+     * This operation requires time log(n) in the set size.
+     *
+     * @param value the value to be found
+     * @return a zero or positive integer if the value is in the
+     * set, otherwise less than zero to indicate its absence
+     */
+    public int indexOf(long value) {
+        int idx = search(value);
+        return idx >= 0 ? idx : -1;
+    }
+
+    /**
+     * Determine the index of the given element, if it exists within the
+     * specified range in this set.
+     *
+     * @param element the element to be found
+     * @param fromIndex the start index, must be zero or greater
+     * @param toIndex the exclusive end index, must be greater than or equal to
+     *                the start index
+     * @return a zero or positive integer if the element is in the specified
+     * range of the set, otherwise less than zero to indicate its absence
+     * @throws IndexOutOfBoundsException if fromIndex or toIndex is out of range
+     *         ({@code index < 0 || index >= size()}), or toIndex
+     *         is less than fromIndex
+     */
+    @Override
+    public int indexOfRange(Long element, int fromIndex, int toIndex) {
+        if(fromIndex < 0 || fromIndex >= m_Size) {
+            throw new IndexOutOfBoundsException("fromIndex: "+ fromIndex);
+        }
+        if(toIndex < fromIndex || toIndex > m_Size) {
+            throw new IndexOutOfBoundsException("toIndex: " + toIndex);
+        }
+        int idx = indexOf(element);
+        return ((idx >= fromIndex) && (idx < toIndex)) ? idx : -1;
+    }
+
+    /**
+     * Returns the index of the least value in this set greater than or
+     * equal to the given value, or {@code size()} if there is no such
+     * value. This is also the number of values in this set strictly less
+     * than the given value. This operation requires time log(n) in the
+     * set size.
+     *
+     * @param value the value to be found
+     * @return the index of the least value greater than or equal to the
+     * given value, otherwise {@code size()}
+     */
+    public int ceilingIndex(long value) {
+        int idx = search(value);
+        return (idx >= 0) ? idx : -(idx + 1);
+    }
+
+    /**
+     * Returns an iterator over the elements in this set, in ascending order.
+     *
+     * @return an iterator over the elements in this set
+     */
+    @Override
+    public Iterator<Long> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Returns an iterator over the values in this set, in ascending order,
+     * without boxing.
+     *
+     * @return an iterator over the values in this set
+     */
+    public PrimitiveIterator.OfLong longIterator() {
+        return new Itr();
+    }
+
+    /**
+     * Performs the given action for each element of the set, in ascending
+     * order.
+     *
+     * @param action The action to be performed for each element
+     * @throws NullPointerException if the specified action is null
+     */
+    @Override
+    public void forEach(Consumer<? super Long> action) {
+        Objects.requireNonNull(action);
+        Itr it = new Itr();
+        while(it.hasNext()) {
+            action.accept(it.nextLong());
+        }
+    }
+
+    /**
+     * Returns an array containing all of the values in this set, in
+     * ascending order.
+     *
+     * @return an array containing all the values in this set
+     */
+    public long[] toLongArray() {
+        long[] result = new long[m_Size];
+        Itr it = new Itr();
+        for(int i = 0; i < m_Size; i++) {
+            result[i] = it.nextLong();
+        }
+        return result;
+    }
+
+    /**
+     * Returns an array containing all of the elements in this set, in
+     * ascending order.
+     *
+     * @return an array containing all the elements in this set
+     */
+    @Override
+    public Object[] toArray() {
+        Object[] result = new Object[m_Size];
+        Itr it = new Itr();
+        for(int i = 0; i < m_Size; i++) {
+            result[i] = it.next();
+        }
+        return result;
+    }
+
+    /**
+     * Returns an array containing all of the elements in this set, in
+     * ascending order. The runtime type of the returned array is that of
+     * the specified array.
+     *
+     * @param a the array into which the elements of this set are to be
+     *        stored, if it is big enough; otherwise, a new array of the same
+     *        runtime type is allocated for this purpose.
+     * @param <T> the runtime type of the array to contain the collection
+     * @return an array containing all the elements in this set
+     */
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return ArrayBackedCollection.toArray(this, a);
+    }
+
+    /**
+     * Returns {@code null}, since this set uses the natural ordering of its
+     * elements.
+     *
+     * @return {@code null}
+     */
+    @Override
+    public Comparator<? super Long> comparator() {
+        return null;
+    }
+
+    /**
+     * Returns the first (lowest) element currently in this set.
+     *
+     * @return the first (lowest) element currently in this set
+     * @throws NoSuchElementException if this set is empty
+     */
+    @Override
+    public Long first() {
+        if(m_Size == 0) {
+            throw new NoSuchElementException("Empty set");
+        }
+        return m_Min;
+    }
+
+    /**
+     * Returns the last (highest) element currently in this set.
+     *
+     * @return the last (highest) element currently in this set
+     * @throws NoSuchElementException if this set is empty
+     */
+    @Override
+    public Long last() {
+        if(m_Size == 0) {
+            throw new NoSuchElementException("Empty set");
+        }
+        return m_Max;
+    }
+
+    /**
+     * Returns the portion of this set whose elements are strictly less
+     * than {@code toElement}, as a new set.
+     *
+     * @param toElement high endpoint (exclusive) of the returned set
+     * @return the portion of this set whose elements are strictly less than
+     *         {@code toElement}
+     * @throws NullPointerException if {@code toElement} is null
+     */
+    @Override
+    public ImmutableSortedLongSet headSet(Long toElement) {
+        return range(0, ceilingIndex(toElement));
+    }
+
+    /**
+     * Returns the portion of this set whose elements are greater than or
+     * equal to {@code fromElement}, as a new set.
+     *
+     * @param fromElement low endpoint (inclusive) of the returned set
+     * @return the portion of this set whose elements are greater than or
+     *         equal to {@code fromElement}
+     * @throws NullPointerException if {@code fromElement} is null
+     */
+    @Override
+    public ImmutableSortedLongSet tailSet(Long fromElement) {
+        return range(ceilingIndex(fromElement), m_Size);
+    }
+
+    /**
+     * Returns the portion of this set whose elements range from
+     * {@code fromElement}, inclusive, to {@code toElement}, exclusive, as a
+     * new set. If {@code fromElement} and {@code toElement} are equal, the
+     * returned set is empty.
+     *
+     * @param fromElement low endpoint (inclusive) of the returned set
+     * @param toElement high endpoint (exclusive) of the returned set
+     * @return the portion of this set whose elements range from
+     *         {@code fromElement}, inclusive, to {@code toElement}, exclusive
+     * @throws NullPointerException if {@code fromElement} or
+     *         {@code toElement} is null
+     * @throws IllegalArgumentException if {@code fromElement} is greater
+     *         than {@code toElement}
+     */
+    @Override
+    public ImmutableSortedLongSet subSet(Long fromElement, Long toElement) {
+        if(fromElement > toElement) {
+            throw new IllegalArgumentException("fromElement is greater than toElement");
+        }
+        return range(ceilingIndex(fromElement), ceilingIndex(toElement));
+    }
+
+    /**
+     * Returns the values from the given index range, re-encoded as a new set.
+     */
+    private ImmutableSortedLongSet range(int fromIndex, int toIndex) {
+        if(fromIndex >= toIndex) {
+            return EMPTY;
+        }
+        if((fromIndex == 0) && (toIndex == m_Size)) {
+            return this;
+        }
+        long[] values = new long[toIndex - fromIndex];
+        for(int i = fromIndex; i < toIndex; i++) {
+            values[i - fromIndex] = getLong(i);
+        }
+        return encode(values, values.length);
+    }
+
+    /**
+     * Creates a {@code Spliterator} over the elements in this set.
+     *
+     * <p>The {@code Spliterator} reports {@code Spliterator.DISTINCT},
+     * {@code Spliterator.ORDERED}, {@code Spliterator.IMMUTABLE},
+     * {@code Spliterator.SIZED}, {@code Spliterator.SUBSIZED},
+     * {@code Spliterator.NONNULL}, and {@code Spliterator.SORTED}.
+     *
+     * @return a {@code Spliterator} over the elements in this set
+     */
+    @Override
+    public Spliterator<Long> spliterator() {
+        return new ImmutableIndexerSpliterator<Long>(this::getAtIndex, 0, m_Size, null,
+                Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.SORTED);
+    }
+
+    /**
+     * Returns a string representation of this set, with elements in
+     * ascending order.
+     *
+     * @return a string representation of this set
+     */
+    @Override
+    public String toString() {
+        if(m_Size == 0) {
+            return "[]";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        Itr it = new Itr();
+        while(it.hasNext()) {
+            sb.append(it.nextLong());
+            if(it.hasNext()) {
+                sb.append(',').append(' ');
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Returns the hash code value for this set, being the sum of the hash
+     * codes of the elements in the set.
+     *
+     * @return the hash code value for this set
+     */
+    @Override
+    public int hashCode() {
+        int h = 0;
+        Itr it = new Itr();
+        while(it.hasNext()) {
+            h += Long.hashCode(it.nextLong());
+        }
+        return h;
+    }
+
+    /**
+     * Return a backing list view for this set.
+     *
+     * @return a list view containing all the elements of this {@code Set}
+     */
+    @Override
+    public List<Long> asList() {
+        return Views.listView(this);
+    }
+
+    /**
+     * Create a builder object for this immutable sorted long set.
+     *
+     * @return a new builder object
+     */
+    public static ImmutableSortedLongSetBuilder builder() {
+        return new ImmutableSortedLongSetBuilder();
+    }
+
+    /**
+     * Returns an {@code ImmutableSortedLongSet} that contains the elements
+     * supplied by the given {@code Iterable}.
+     * <p>
+     * If the given iterable is itself an immutable sorted long set, then
+     * it will be returned.
+     * </p>
+     *
+     * @param it the elements to be copied
+     * @return an {@code ImmutableSortedLongSet} containing the elements
+     * from the given {@code Iterable}
+     * @throws NullPointerException the iterable contains a null element
+     */
+    public static ImmutableSortedLongSet copyOf(Iterable<Long> it) {
+        if(it instanceof ImmutableSortedLongSet) {
+            return (ImmutableSortedLongSet) it;
+        }
+        return new ImmutableSortedLongSetBuilder().with(it).build();
+    }
+
+    /**
+     * Returns an {@code ImmutableSortedLongSet} that contains the values
+     * in the given array.
+     *
+     * @param values the values to be copied
+     * @return an {@code ImmutableSortedLongSet} containing the values
+     * from the given array
+     */
+    public static ImmutableSortedLongSet copyOf(long[] values) {
+        return new ImmutableSortedLongSetBuilder().with(values).build();
+    }
+
+    /**
+     * An iterator that scans the upper and lower bits sequentially.
+     */
+    private final class Itr implements PrimitiveIterator.OfLong {
+        private int m_Index;
+        private int m_WordIndex;
+        private long m_Word = (m_Upper.length > 0) ? m_Upper[0] : 0L;
+
+        @Override
+        public boolean hasNext() {
+            return m_Index < m_Size;
+        }
+
+        @Override
+        public long nextLong() {
+            if(m_Index >= m_Size) {
+                throw new NoSuchElementException();
+            }
+            while(m_Word == 0L) {
+                m_Word = m_Upper[++m_WordIndex];
+            }
+            final long pos = ((long) m_WordIndex << 6) + Long.numberOfTrailingZeros(m_Word);
+            m_Word &= m_Word - 1L;
+            final long high = pos - m_Index;
+            return m_Min + ((high << m_LowBits) | lowerBits(m_Index++));
+        }
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @param stream the object stream to be deserialized
+     * @throws ClassNotFoundException the class or descendants could not be found
+     * @throws IOException there was a problem reading the object stream
+     */
+    private void readObject(ObjectInputStream stream) throws ClassNotFoundException, IOException {
+        stream.defaultReadObject();
+
+        // Perform validation
+        if((m_Lower == null) || (m_Upper == null) || (m_Size < 0) ||
+                (m_LowBits < 0) || (m_LowBits > 63) ||
+                (m_Lower.length != (int) (((long) m_Size * m_LowBits + 63L) >>> 6))) {
+            throw new InvalidObjectException("set must have consistent upper and lower bits");
+        }
+        long ones = 0L;
+        int lastWord = -1;
+        for(int w = 0; w < m_Upper.length; w++) {
+            ones += Long.bitCount(m_Upper[w]);
+            if(m_Upper[w] != 0L) {
+                lastWord = w;
+            }
+        }
+        if(ones != m_Size) {
+            throw new InvalidObjectException("set must have one upper bit per element");
+        }
+        // A clear bit must terminate the last bucket
+        if((lastWord >= 0) && (lastWord == m_Upper.length - 1) && (m_Upper[lastWord] < 0L)) {
+            throw new InvalidObjectException("set upper bits are not terminated");
+        }
+
+        buildSamples();
+
+        // Ensure values are strictly ascending
+        if(m_Size > 0) {
+            Itr it = new Itr();
+            long prev = it.nextLong();
+            if(prev != m_Min) {
+                throw new InvalidObjectException("set minimum is inconsistent");
+            }
+            while(it.hasNext()) {
+                long curr = it.nextLong();
+                if(curr <= prev) {
+                    throw new InvalidObjectException("set is not ordered");
+                }
+                prev = curr;
+            }
+        }
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @return the resolved object
+     */
+    private Object readResolve() {
+        if(m_Size == 0) {
+            // optimization only
+            return EMPTY;
+        }
+        return this;
+    }
+}
@@ -0,0 +1,179 @@
+package net.njcull.collections;
+
+import java.util.*;
+
+/**
+ * Builder for the {@link ImmutableSortedLongSet} class.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableSortedLongSetBuilder {
+    private long[] m_Elements = EMPTY_ELEMENTS;
+    private int m_Size = 0;
+
+    private static final long[] EMPTY_ELEMENTS = new long[0];
+
+    /**
+     * Create a new builder instance for constructing a new immutable
+     * sorted long set.
+     */
+    public ImmutableSortedLongSetBuilder() {
+    }
+
+    /**
+     * All the elements from the supplied iterable will be added to the
+     * resulting set.
+     *
+     * @param it the iterable containing elements to be added
+     * @return this builder, for chaining purposes
+     * @throws NullPointerException the iterable contains a null element
+     */
+    public ImmutableSortedLongSetBuilder with(Iterable<Long> it) {
+        int count = 0;
+
+        for(Iterator<Long> iIt = it.iterator(); iIt.hasNext(); count++) {
+            if((count % 8) == 0) {
+                ensureCapacity(8);
+            }
+            m_Elements[m_Size++] = iIt.next();
+        }
+
+        return this;
+    }
+
+    /**
+     * All the elements from the supplied collection will be added to the
+     * resulting set.
+     *
+     * @param coll the collection containing elements to be added
+     * @return this builder, for chaining purposes
+     * @throws NullPointerException the collection contains a null element
+     */
+    public ImmutableSortedLongSetBuilder with(Collection<Long> coll) {
+        if(coll instanceof ImmutableSortedLongSet) {
+            return with(((ImmutableSortedLongSet) coll).toLongArray());
+        }
+        int size = coll.size();
+        ensureCapacity(size);
+        int count = 0;
+        for(Iterator<Long> iColl = coll.iterator(); iColl.hasNext() && count < size; count++) {
+            m_Elements[m_Size++] = iColl.next();
+        }
+        return this;
+    }
+
+    /**
+     * Add the given element to the resulting set.
+     *
+     * @param elem the element to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedLongSetBuilder with(long elem) {
+        ensureCapacity(1);
+        m_Elements[m_Size++] = elem;
+        return this;
+    }
+
+    /**
+     * Add the given elements to the resulting set.
+     *
+     * @param e1 the first element to be added
+     * @param e2 the second element to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedLongSetBuilder with(long e1, long e2) {
+        ensureCapacity(2);
+        m_Elements[m_Size++] = e1;
+        m_Elements[m_Size++] = e2;
+        return this;
+    }
+
+    /**
+     * Add the given elements to the resulting set.
+     *
+     * @param elements the elements to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedLongSetBuilder with(long... elements) {
+        int len = elements.length;
+        ensureCapacity(len);
+        System.arraycopy(elements, 0, m_Elements, m_Size, len);
+        m_Size += len;
+        return this;
+    }
+
+    /**
+     * For the stream combiner, merge the elements from the supplied builder
+     * to this builder.
+     *
+     * @param elements the builder containing the elements to be merged into
+     * this builder
+     * @return this builder containing the merged items
+     */
+    public ImmutableSortedLongSetBuilder merge(ImmutableSortedLongSetBuilder elements) {
+        int len = elements.m_Size;
+        ensureCapacity(len);
+        System.arraycopy(elements.m_Elements, 0, m_Elements, m_Size, len);
+        m_Size += len;
+        return this;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if(m_Elements.length - m_Size < capacity) {
+            // grow geometrically, since long sets are expected to be large
+            int newLength = Math.max(m_Size + capacity, m_Elements.length + (m_Elements.length >> 1));
+            // round up to divisible by 8
+            newLength += (8 - (newLength % 8)) % 8;
+            m_Elements = Arrays.copyOf(m_Elements, newLength);
+        }
+    }
+
+    /**
+     * Returns the number of elements in this builder.
+     *
+     * @return the number of elements in this builder
+     */
+    public int size() {
+        return m_Size;
+    }
+
+    /**
+     * Build the immutable set. Sorts the elements, and removes duplicate
+     * elements as necessary. The sorted elements are then Elias-Fano
+     * encoded.
+     * <p>
+     * Repeated calls to a builder containing a non-zero number of elements
+     * will return distinct set instances.
+     *
+     * @return an ImmutableSortedLongSet containing the elements in the builder
+     */
+    public ImmutableSortedLongSet build() {
+        if(m_Size == 0) {
+            return ImmutableSortedLongSet.emptySet();
+        }
+
+        long[] elements = Arrays.copyOf(m_Elements, m_Size);
+        Arrays.sort(elements);
+
+        // Remove duplicates, which are adjacent once sorted
+        int size = 1;
+        for(int i = 1; i < elements.length; i++) {
+            if(elements[i] != elements[size - 1]) {
+                elements[size++] = elements[i];
+            }
+        }
+        return ImmutableSortedLongSet.encode(elements, size);
+    }
+
+    /**
+     * Reset this builder to its initial state.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedLongSetBuilder clear() {
+        m_Elements = EMPTY_ELEMENTS;
+        m_Size = 0;
+        return this;
+    }
+}
@@ -0,0 +1,194 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Spliterator;
+
+/**
+ * An immutable multimap in compressed sparse row layout, where each key
+ * maps to a sorted set of values. Keys are held in a single sorted array,
+ * and the values of every key are held together in a single array, with
+ * an array of offsets marking where the values of each key start. This
+ * avoids a set object and array for every key, as would be needed for a
+ * map of keys to sorted sets.
+ * <p>
+ * The values of each key are sorted and distinct. Getting the values of a
+ * key returns a view over its range of the value array, without copying.
+ * Keys, and the values of a key, are searched using a binary search
+ * implementation.
+ * </p>
+ *
+ * @param <K> the type of keys maintained by this multimap
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableSortedSetMultimap<K,V> extends CsrMultimap<K,V> {
+
+    private final Comparator<? super V> m_ValueComparator;
+    private transient Comparator m_NullsValueComparator;
+
+    // Singleton, as an optimization only
+    private static final ImmutableSortedSetMultimap<?,?> EMPTY =
+            new ImmutableSortedSetMultimap<>(new Object[0], new int[1], new Object[0], null, null);
+
+    // Serialization
+    private static final long serialVersionUID = 3046651092370474522L;
+
+    /**
+     * Returns an immutable empty multimap. Each call to this method will
+     * return the same empty multimap.
+     *
+     * @param <K> the type of keys maintained by this multimap
+     * @param <V> the type of mapped values
+     * @return an immutable empty multimap
+     */
+    @SuppressWarnings("unchecked")
+    public static <K,V> ImmutableSortedSetMultimap<K,V> emptyMultimap() {
+        return (ImmutableSortedSetMultimap<K,V>) EMPTY;
+    }
+
+    ImmutableSortedSetMultimap(Object[] keys, int[] offsets, Object[] values,
+                Comparator<? super K> keyComparator, Comparator<? super V> valueComparator) {
+        super(keys, offsets, values, keyComparator);
+        this.m_ValueComparator = valueComparator;
+        this.m_NullsValueComparator = nullsComparator(valueComparator);
+    }
+
+    /**
+     * Returns the comparator used to order the values of each key, or
+     * {@code null} if this multimap uses the natural ordering of its values.
+     *
+     * @return the comparator used to order the values, or {@code null} for
+     * natural ordering
+     */
+    public Comparator<? super V> valueComparator() {
+        return m_ValueComparator;
+    }
+
+    /**
+     * Returns the sorted values of the key at the given index, as a view
+     * over the value array.
+     *
+     * @param index the index of the key
+     * @return a view of the values of the key
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * greater than or equal to the number of keys
+     */
+    @Override
+    public ArrayBackedSet<V> valuesAt(int index) {
+        if((index < 0) || (index >= m_Keys.length)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return sortedSlice(index);
+    }
+
+    /**
+     * Returns the sorted values mapped to the given key, as a view over the
+     * value array. If the key is not present, the view is empty.
+     *
+     * @param key the key whose values are to be returned
+     * @return a view of the values of the key
+     */
+    @Override
+    public ArrayBackedSet<V> get(Object key) {
+        final int idx = indexOfKey(key);
+        if(idx < 0) {
+            return ImmutableSortedArraySet.emptySet();
+        }
+        return sortedSlice(idx);
+    }
+
+    private ArrayBackedSet<V> sortedSlice(int keyIndex) {
+        return Views.setView(slice(keyIndex, Spliterator.DISTINCT | Spliterator.SORTED, m_ValueComparator));
+    }
+
+    /**
+     * Returns the position of the given value among the values of the key
+     * at the given index, using a binary search.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    int indexOfValueAt(int keyIndex, Object value) {
+        final int start = m_Offsets[keyIndex];
+        final int size = m_Offsets[keyIndex + 1] - start;
+        return BinarySearchUtils.indexedSearch(i -> (V) m_Values[start + i], size, (V) value, m_NullsValueComparator);
+    }
+
+    @Override
+    boolean valuesEqual(int keyIndex, CsrMultimap<?,?> other, int otherIndex) {
+        final int start = m_Offsets[keyIndex];
+        final int end = m_Offsets[keyIndex + 1];
+        if(other.m_Offsets[otherIndex + 1] - other.m_Offsets[otherIndex] != end - start) {
+            return false;
+        }
+        for(int i = start; i < end; i++) {
+            final int idx = other.indexOfValueAt(otherIndex, m_Values[i]);
+            if((idx < 0) || !Objects.equals(m_Values[i], other.m_Values[other.m_Offsets[otherIndex] + idx])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    int valuesHashCode(int keyIndex) {
+        // As for Set.hashCode()
+        int h = 0;
+        for(int i = m_Offsets[keyIndex]; i < m_Offsets[keyIndex + 1]; i++) {
+            h += Objects.hashCode(m_Values[i]);
+        }
+        return h;
+    }
+
+    /**
+     * Create a builder object for this immutable multimap.
+     *
+     * @param <K> the type of keys in the resulting multimap
+     * @param <V> the type of values in the resulting multimap
+     * @return a new builder object
+     */
+    public static <K,V> ImmutableSortedSetMultimapBuilder<K,V> builder() {
+        return new ImmutableSortedSetMultimapBuilder<>();
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @param stream the object stream to be deserialized
+     * @throws ClassNotFoundException the class or descendants could not be found
+     * @throws IOException there was a problem reading the object stream
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream stream) throws ClassNotFoundException, IOException {
+        stream.defaultReadObject();
+
+        // Regenerate the nulls comparator
+        m_NullsValueComparator = nullsComparator(m_ValueComparator);
+
+        // Scan the values of each key to ensure ordering is consistent
+        for(int k = 0; k < m_Keys.length; k++) {
+            for(int i = m_Offsets[k] + 1; i < m_Offsets[k + 1]; i++) {
+                if(m_NullsValueComparator.compare(m_Values[i], m_Values[i - 1]) <= 0) {
+                    throw new InvalidObjectException("multimap values not ordered by the comparator");
+                }
+            }
+        }
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @return the resolved object
+     */
+    private Object readResolve() {
+        if(m_Keys.length == 0) {
+            // optimization only
+            return EMPTY;
+        }
+        return this;
+    }
+}
@@ -0,0 +1,269 @@
+package net.njcull.collections;
+
+import java.util.*;
+
+/**
+ * Builder for the {@link ImmutableSortedSetMultimap} class.
+ *
+ * @param <K> the type of keys maintained by the resulting multimap
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableSortedSetMultimapBuilder<K,V> {
+    private Comparator<? super K> m_KeyComparator;
+    private Comparator<? super V> m_ValueComparator;
+    private Object[] m_Keys = EMPTY_ELEMENTS;
+    private Object[] m_Values = EMPTY_ELEMENTS;
+    private int m_Size = 0;
+
+    private static final Object[] EMPTY_ELEMENTS = new Object[0];
+
+    /**
+     * Create a new builder instance that builds a new immutable multimap,
+     * with keys and values in their natural order.
+     *
+     * @param <K> the key type of the multimap
+     * @param <V> the value type of the multimap
+     * @return a new builder for building a new multimap
+     */
+    public static <K,V> ImmutableSortedSetMultimapBuilder<K,V> newMultimap() {
+        return new ImmutableSortedSetMultimapBuilder<>();
+    }
+
+    /**
+     * Create a new builder instance that builds a new immutable multimap,
+     * using the supplied comparators for sorting the keys and values.
+     *
+     * @param <K> the key type of the multimap
+     * @param <V> the value type of the multimap
+     * @param keyCmp the comparator for sorting the keys
+     * @param valCmp the comparator for sorting the values
+     * @return a new builder for building a new multimap
+     */
+    public static <K,V> ImmutableSortedSetMultimapBuilder<K,V> newMultimapComparing(Comparator<? super K> keyCmp, Comparator<? super V> valCmp) {
+        ImmutableSortedSetMultimapBuilder<K,V> builder = new ImmutableSortedSetMultimapBuilder<>();
+        return builder.byComparingKeys(keyCmp).byComparingValues(valCmp);
+    }
+
+    /**
+     * Create a new builder instance for constructing a new immutable
+     * sorted set multimap.
+     */
+    public ImmutableSortedSetMultimapBuilder() {
+    }
+
+    /**
+     * Use the supplied comparator to sort the keys in the resulting multimap.
+     *
+     * @param cmp the comparator for sorting the keys in the multimap
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedSetMultimapBuilder<K,V> byComparingKeys(Comparator<? super K> cmp) {
+        this.m_KeyComparator = cmp;
+        return this;
+    }
+
+    /**
+     * Sort the keys for the resulting multimap using the keys' natural order.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedSetMultimapBuilder<K,V> byNaturalKeyOrder() {
+        this.m_KeyComparator = null;
+        return this;
+    }
+
+    /**
+     * Use the supplied comparator to sort the values of each key in the
+     * resulting multimap.
+     *
+     * @param cmp the comparator for sorting the values in the multimap
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedSetMultimapBuilder<K,V> byComparingValues(Comparator<? super V> cmp) {
+        this.m_ValueComparator = cmp;
+        return this;
+    }
+
+    /**
+     * Sort the values for the resulting multimap using the values' natural
+     * order.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedSetMultimapBuilder<K,V> byNaturalValueOrder() {
+        this.m_ValueComparator = null;
+        return this;
+    }
+
+    /**
+     * Add the given key and value pair to the resulting multimap.
+     *
+     * @param key the key to be added
+     * @param val the value to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedSetMultimapBuilder<K,V> with(K key, V val) {
+        ensureCapacity(1);
+        m_Keys[m_Size] = key;
+        m_Values[m_Size++] = val;
+        return this;
+    }
+
+    /**
+     * Add the given key and value pair to the resulting multimap.
+     *
+     * @param entry the key and value pair to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedSetMultimapBuilder<K,V> with(Map.Entry<? extends K, ? extends V> entry) {
+        return with(entry.getKey(), entry.getValue());
+    }
+
+    /**
+     * Add the given key with each of the given values to the resulting
+     * multimap.
+     *
+     * @param key the key to be added
+     * @param values the values to be added for the key
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedSetMultimapBuilder<K,V> withAll(K key, Iterable<? extends V> values) {
+        if(values instanceof Collection) {
+            ensureCapacity(((Collection<?>) values).size());
+        }
+        for(V val : values) {
+            with(key, val);
+        }
+        return this;
+    }
+
+    /**
+     * All the key and value pairs of the supplied map of collections will be
+     * added to the resulting multimap.
+     *
+     * @param map the map of keys to the collections of values to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedSetMultimapBuilder<K,V> withAll(Map<? extends K, ? extends Iterable<? extends V>> map) {
+        for(Map.Entry<? extends K, ? extends Iterable<? extends V>> entry : map.entrySet()) {
+            withAll(entry.getKey(), entry.getValue());
+        }
+        return this;
+    }
+
+    /**
+     * For the stream combiner, merge the entries from the supplied builder
+     * to this builder.
+     *
+     * @param entries the builder containing the entries to be merged into
+     * this builder
+     * @return this builder containing the merged items
+     */
+    public ImmutableSortedSetMultimapBuilder<K,V> merge(ImmutableSortedSetMultimapBuilder<? extends K, ? extends V> entries) {
+        int len = entries.m_Size;
+        ensureCapacity(len);
+        System.arraycopy(entries.m_Keys, 0, m_Keys, m_Size, len);
+        System.arraycopy(entries.m_Values, 0, m_Values, m_Size, len);
+        m_Size += len;
+        return this;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if(m_Keys.length - m_Size < capacity) {
+            // grow geometrically, since multimaps often have many entries
+            int newLength = Math.max(m_Size + capacity, m_Keys.length + (m_Keys.length >> 1));
+            // round up to divisible by 8
+            newLength += (8 - (newLength % 8)) % 8;
+            m_Keys = Arrays.copyOf(m_Keys, newLength);
+            m_Values = Arrays.copyOf(m_Values, newLength);
+        }
+    }
+
+    /**
+     * Returns the number of key and value pairs in this builder.
+     *
+     * @return the number of key and value pairs in this builder
+     */
+    public int size() {
+        return m_Size;
+    }
+
+    /**
+     * Build the immutable multimap. Keys are sorted, and the values of each
+     * key are sorted, with duplicate values removed.
+     * <p>
+     * Repeated calls to a builder containing a non-zero number of entries
+     * will return distinct multimap instances.
+     *
+     * @return an ImmutableSortedSetMultimap containing the entries in the
+     * builder
+     */
+    @SuppressWarnings("unchecked")
+    public ImmutableSortedSetMultimap<K,V> build() {
+        if(m_Size == 0) {
+            return ImmutableSortedSetMultimap.<K,V>emptyMultimap();
+        }
+
+        final Object[] keys = m_Keys;
+        final Object[] vals = m_Values;
+        final Comparator nullsKeyComparator = CsrMultimap.nullsComparator(m_KeyComparator);
+        final Comparator nullsValueComparator = CsrMultimap.nullsComparator(m_ValueComparator);
+
+        final int[] order = new int[m_Size];
+        for(int i = 0; i < m_Size; i++) {
+            order[i] = i;
+        }
+        SortUtils.sortIndexes(order, (a, b) -> {
+            int cmp = nullsKeyComparator.compare(keys[a], keys[b]);
+            return (cmp != 0) ? cmp : nullsValueComparator.compare(vals[a], vals[b]);
+        });
+
+        // Count distinct keys and distinct values within each key
+        int keyCount = 1;
+        int valueCount = 1;
+        for(int i = 1; i < m_Size; i++) {
+            if(nullsKeyComparator.compare(keys[order[i]], keys[order[i - 1]]) != 0) {
+                keyCount++;
+                valueCount++;
+            } else if(nullsValueComparator.compare(vals[order[i]], vals[order[i - 1]]) != 0) {
+                valueCount++;
+            }
+        }
+
+        final Object[] resultKeys = new Object[keyCount];
+        final int[] offsets = new int[keyCount + 1];
+        final Object[] values = new Object[valueCount];
+        int k = 0;
+        int v = 0;
+        resultKeys[0] = keys[order[0]];
+        values[v++] = vals[order[0]];
+        for(int i = 1; i < m_Size; i++) {
+            if(nullsKeyComparator.compare(keys[order[i]], keys[order[i - 1]]) != 0) {
+                offsets[++k] = v;
+                resultKeys[k] = keys[order[i]];
+                values[v++] = vals[order[i]];
+            } else if(nullsValueComparator.compare(vals[order[i]], vals[order[i - 1]]) != 0) {
+                values[v++] = vals[order[i]];
+            }
+        }
+        offsets[keyCount] = valueCount;
+
+        return new ImmutableSortedSetMultimap<>(resultKeys, offsets, values, m_KeyComparator, m_ValueComparator);
+    }
+
+    /**
+     * Reset this builder to its initial state.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedSetMultimapBuilder<K,V> clear() {
+        m_Keys = EMPTY_ELEMENTS;
+        m_Values = EMPTY_ELEMENTS;
+        m_KeyComparator = null;
+        m_ValueComparator = null;
+        m_Size = 0;
+        return this;
+    }
+}
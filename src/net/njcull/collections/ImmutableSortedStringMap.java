@@ -0,0 +1,477 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link SortedMap} with {@code String} keys, where the keys are compressed
+ * by front coding into an {@link ImmutableSortedStringSet}. Values are held
+ * in an array in the same order as the keys.
+ * <p>
+ * Keys are held in their natural order, and are tested by a binary search of
+ * the front-coded blocks. Keys are decoded on demand, so repeated calls
+ * to the {@code keyAt(int)} method create new {@code String} instances.
+ * The map's keyset and entryset views may also be viewed as a {@link List}.
+ * Null keys are not permitted.
+ * </p>
+ *
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableSortedStringMap<V> extends AbstractMap<String,V>
+        implements ArrayBackedMap<String,V>, SortedMap<String,V>, Serializable {
+
+    private final ImmutableSortedStringSet m_Keys;
+    private final Object[] m_Values;
+
+    // Singleton, as an optimization only
+    private static final ImmutableSortedStringMap<?> EMPTY = new ImmutableSortedStringMap<>(ImmutableSortedStringSet.emptySet(), new Object[0]);
+
+    // Serializable
+    private static final long serialVersionUID = 4930617784124457412L;
+
+    /**
+     * Returns an immutable empty sorted string map. Each call to this method
+     * will return the same empty map.
+     *
+     * @param <V> the type of mapped values
+     * @return an immutable empty sorted string map
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> ImmutableSortedStringMap<V> emptyMap() {
+        return (ImmutableSortedStringMap<V>) EMPTY;
+    }
+
+    ImmutableSortedStringMap(ImmutableSortedStringSet keys, Object[] values) {
+        this.m_Keys = Objects.requireNonNull(keys, "keys must not be null");
+        this.m_Values = Objects.requireNonNull(values, "values must not be null");
+        if(keys.size() != values.length) {
+            throw new IllegalArgumentException("map must contain same number of keys and values");
+        }
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    @Override
+    public int size() {
+        return m_Values.length;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     *
+     * @return {@code true} if this map contains no key-value mappings
+     */
+    @Override
+    public boolean isEmpty() {
+        return m_Values.length == 0;
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the specified
+     * key.  This operation requires time log(n) in the map size for this
+     * implementation.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the specified
+     *         key, otherwise {@code false}
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return m_Keys.contains(key);
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value.  This operation requires time linear in the map size
+     * for this implementation.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if this map maps one or more keys to the
+     *         specified value, otherwise {@code false}
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        return indexOfValue(value) >= 0;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@code null} if this map contains no mapping for the key
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(Object key) {
+        int idx = indexOfKey(key);
+        if(idx >= 0) {
+            return (V) m_Values[idx];
+        }
+        return null;
+    }
+
+    /**
+     * Returns an {@code Entry} object for the map entry at the given array
+     * index.
+     *
+     * @param index the index in the array of the entry to be retrieved
+     * @return an {@code Entry} object corresponding to the given array index
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * index is greater than or equal to the map size
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Entry<String,V> entryAt(int index) {
+        String key = m_Keys.getAtIndex(index);
+        return new SimpleImmutableEntry<String, V>(key, (V) m_Values[index]);
+    }
+
+    /**
+     * Returns the key of the map entry at the given array index.
+     *
+     * @param index the index in the array of the key to be retrieved
+     * @return the key at the given array index
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * index is greater than or equal to the map size
+     */
+    @Override
+    public String keyAt(int index) {
+        return m_Keys.getAtIndex(index);
+    }
+
+    /**
+     * Returns the value of the map entry at the given array index.
+     *
+     * @param index the index in the array of the value to be retrieved
+     * @return the value at the given array index
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * index is greater than or equal to the map size
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V valueAt(int index) {
+        if((index < 0) || (index >= m_Values.length)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return (V) m_Values[index];
+    }
+
+    /**
+     * Returns the array index of the given key in the map.
+     *
+     * @param key the key to be found in the map
+     * @return a zero or positive integer if the key is in the
+     * backing array, otherwise less than zero to indicate its absence
+     */
+    @Override
+    public int indexOfKey(Object key) {
+        if(!(key instanceof String)) {
+            return -1;
+        }
+        return m_Keys.indexOf((String) key);
+    }
+
+    /**
+     * Returns the array index of the given value in the map. If there are
+     * multiple values that match the given value, the first index is returned.
+     *
+     * @param value the value to be found in the map
+     * @return a zero or positive integer if the value is in the
+     * backing array, otherwise less than zero to indicate its absence
+     */
+    @Override
+    public int indexOfValue(Object value) {
+        if(value == null) {
+            for(int i = 0; i < m_Values.length; i++) {
+                if(m_Values[i] == null) {
+                    return i;
+                }
+            }
+        } else {
+            for(int i = 0; i < m_Values.length; i++) {
+                if(value.equals(m_Values[i])) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns an {@link ArrayBackedSet} view of the mappings contained in this
+     * map. The set is backed by the map.
+     *
+     * @return an array-backed set view of the mappings contained in this map
+     */
+    @Override
+    public ArrayBackedSet<Entry<String, V>> entrySet() {
+        return Views.setView(
+                new ArrayBackedImmutableList<>(
+                        Views.mapEntryIndexer(this), size(),
+                        Spliterator.DISTINCT | Spliterator.NONNULL));
+    }
+
+    /**
+     * Returns the front-coded set of keys contained in this map. The
+     * set is shared with the map.
+     *
+     * @return the set of keys contained in this map
+     */
+    @Override
+    public ImmutableSortedStringSet keySet() {
+        return m_Keys;
+    }
+
+    /**
+     * Returns an {@link ArrayBackedCollection} view of the values contained
+     * in this map. The collection is backed by the map.
+     *
+     * @return an array-backed collection view of the values contained in this
+     * map
+     */
+    @Override
+    public ArrayBackedCollection<V> values() {
+        return Views.collectionView(
+                new ArrayBackedImmutableList<>(
+                        Views.mapValueIndexer(this), size()));
+    }
+
+    // Implement SortedMap
+
+    /**
+     * Returns {@code null}, since this map uses the natural ordering of its
+     * keys.
+     *
+     * @return {@code null}
+     */
+    @Override
+    public Comparator<? super String> comparator() {
+        return null;
+    }
+
+    /**
+     * Returns the portion of this map whose keys range from
+     * {@code fromKey}, inclusive, to {@code toKey}, exclusive, as a new
+     * map. The keys are re-encoded without being decoded to strings.
+     *
+     * @param fromKey low endpoint (inclusive) of the keys in the returned map
+     * @param toKey high endpoint (exclusive) of the keys in the returned map
+     * @return the portion of this map whose keys range from
+     *         {@code fromKey}, inclusive, to {@code toKey}, exclusive
+     * @throws NullPointerException if {@code fromKey} or {@code toKey}
+     *         is null
+     * @throws IllegalArgumentException if {@code fromKey} is greater than
+     *         {@code toKey}
+     */
+    @Override
+    public ImmutableSortedStringMap<V> subMap(String fromKey, String toKey) {
+        return subMapByIndex(m_Keys.insertionPoint(fromKey), m_Keys.insertionPoint(toKey));
+    }
+
+    /**
+     * Returns the portion of this map whose keys are strictly less than
+     * {@code toKey}, as a new map.
+     *
+     * @param toKey high endpoint (exclusive) of the keys in the returned map
+     * @return the portion of this map whose keys are strictly
+     *         less than {@code toKey}
+     * @throws NullPointerException if {@code toKey} is null
+     */
+    @Override
+    public ImmutableSortedStringMap<V> headMap(String toKey) {
+        return subMapByIndex(0, m_Keys.insertionPoint(toKey));
+    }
+
+    /**
+     * Returns the portion of this map whose keys are greater than or equal
+     * to {@code fromKey}, as a new map.
+     *
+     * @param fromKey low endpoint (inclusive) of the keys in the returned map
+     * @return the portion of this map whose keys are greater
+     *         than or equal to {@code fromKey}
+     * @throws NullPointerException if {@code fromKey} is null
+     */
+    @Override
+    public ImmutableSortedStringMap<V> tailMap(String fromKey) {
+        return subMapByIndex(m_Keys.insertionPoint(fromKey), m_Values.length);
+    }
+
+    private ImmutableSortedStringMap<V> subMapByIndex(int fromIndex, int toIndex) {
+        if(toIndex < fromIndex) {
+            throw new IllegalArgumentException("toKey is less than fromKey");
+        }
+
+        if((fromIndex == 0) && (toIndex == m_Values.length)) {
+            return this;
+        } else if(fromIndex == toIndex) {
+            return emptyMap();
+        }
+
+        return new ImmutableSortedStringMap<V>(m_Keys.range(fromIndex, toIndex),
+                Arrays.copyOfRange(m_Values, fromIndex, toIndex));
+    }
+
+    /**
+     * Returns the first (lowest) key currently in this map.
+     *
+     * @return the first (lowest) key currently in this map
+     * @throws NoSuchElementException if this map is empty
+     */
+    @Override
+    public String firstKey() {
+        return m_Keys.first();
+    }
+
+    /**
+     * Returns the last (highest) key currently in this map.
+     *
+     * @return the last (highest) key currently in this map
+     * @throws NoSuchElementException if this map is empty
+     */
+    @Override
+    public String lastKey() {
+        return m_Keys.last();
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key
+     */
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        return ArrayBackedMap.getOrDefault(this, key, defaultValue);
+    }
+
+    /**
+     * Performs the given action for each entry in this map until all entries
+     * have been processed or the action throws an exception. Actions are
+     * performed in key order. Exceptions thrown by the action are relayed to
+     * the caller.
+     *
+     * @param action The action to be performed for each entry
+     * @throws NullPointerException if the specified action is null
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super String, ? super V> action) {
+        Objects.requireNonNull(action);
+        int i = 0;
+        for(String key : m_Keys) {
+            action.accept(key, (V) m_Values[i++]);
+        }
+    }
+
+    /**
+     * Returns a string representation of this map.  The string representation
+     * consists of a list of key-value mappings in key order, enclosed in
+     * braces ({@code "{}"}).
+     *
+     * @return a string representation of this map
+     */
+    @Override
+    public String toString() {
+        return ArrayBackedMap.toString(this);
+    }
+
+    /**
+     * Returns the hash code value for this map.  The hash code of a map is
+     * defined to be the sum of the hash codes of each entry in the map's
+     * {@code entrySet()} view.
+     *
+     * @return the hash code value for this map
+     */
+    @Override
+    public int hashCode() {
+        int h = 0;
+        int i = 0;
+        for(String key : m_Keys) {
+            h += key.hashCode() ^ Objects.hashCode(m_Values[i++]);
+        }
+        return h;
+    }
+
+    /**
+     * Create a builder object for this immutable sorted string map.
+     *
+     * @param <V> the type of values in the resulting map
+     * @return a new builder object
+     */
+    public static <V> ImmutableSortedStringMapBuilder<V> builder() {
+        return new ImmutableSortedStringMapBuilder<V>();
+    }
+
+    /**
+     * Returns an {@code ImmutableSortedStringMap} that contains the data
+     * supplied by the given map. If the supplier map is itself an
+     * {@code ImmutableSortedStringMap}, it will be returned.
+     *
+     * @param map the map to be copied
+     * @param <V> the value type of the map
+     * @return an {@code ImmutableSortedStringMap} containing the data from
+     * the given map
+     * @throws NullPointerException the map contains a null key
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> ImmutableSortedStringMap<V> copyOf(Map<String, ? extends V> map) {
+        if(map instanceof ImmutableSortedStringMap) {
+            return (ImmutableSortedStringMap<V>) map;
+        }
+        return new ImmutableSortedStringMapBuilder<V>().with(map).build();
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @param stream the object stream to be deserialized
+     * @throws ClassNotFoundException the class or descendants could not be found
+     * @throws IOException there was a problem reading the object stream
+     */
+    private void readObject(ObjectInputStream stream) throws ClassNotFoundException, IOException {
+        stream.defaultReadObject();
+
+        // Perform validation
+        if((m_Keys == null) || (m_Values == null)) {
+            throw new InvalidObjectException("map must have keys and values");
+        }
+        if(m_Keys.size() != m_Values.length) {
+            throw new InvalidObjectException("map must contain same number of keys and values");
+        }
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @return the resolved object
+     */
+    private Object readResolve() {
+        if(m_Values.length == 0) {
+            // optimization only
+            return EMPTY;
+        }
+        return this;
+    }
+}
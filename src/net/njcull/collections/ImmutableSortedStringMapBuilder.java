@@ -0,0 +1,236 @@
+package net.njcull.collections;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builder for the {@link ImmutableSortedStringMap} class.
+ *
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableSortedStringMapBuilder<V> {
+    private String[] m_Keys = EMPTY_KEYS;
+    private Object[] m_Values = EMPTY_ELEMENTS;
+    private int m_Size = 0;
+
+    private static final String[] EMPTY_KEYS = new String[0];
+    private static final Object[] EMPTY_ELEMENTS = new Object[0];
+
+    /**
+     * Create a new builder instance for constructing a new immutable
+     * sorted string map.
+     */
+    public ImmutableSortedStringMapBuilder() {
+    }
+
+    /**
+     * All the map entries from the supplied iterable will be added to the
+     * resulting map.
+     *
+     * @param it the iterable containing elements to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedStringMapBuilder<V> with(Iterable<Map.Entry<String,V>> it) {
+        int count = 0;
+
+        for(Iterator<Map.Entry<String,V>> iIt = it.iterator(); iIt.hasNext(); count++) {
+            if((count % 8) == 0) {
+                ensureCapacity(8);
+            }
+            Map.Entry<String, ? extends V> entry = iIt.next();
+            m_Keys[m_Size] = entry.getKey();
+            m_Values[m_Size++] = entry.getValue();
+        }
+
+        return this;
+    }
+
+    /**
+     * All the map entries from the supplied map will be added to the
+     * resulting map.
+     *
+     * @param map the map containing elements to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedStringMapBuilder<V> with(Map<String, ? extends V> map) {
+        Set<? extends Map.Entry<String, ? extends V>> entries = map.entrySet();
+        int size = entries.size();
+        ensureCapacity(size);
+
+        for(Map.Entry<String, ? extends V> entry : entries) {
+            m_Keys[m_Size] = entry.getKey();
+            m_Values[m_Size++] = entry.getValue();
+        }
+
+        return this;
+    }
+
+    /**
+     * Add the given key and value pair to the resulting map.
+     *
+     * @param key the key to be added
+     * @param val the value to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedStringMapBuilder<V> with(String key, V val) {
+        ensureCapacity(1);
+        m_Keys[m_Size] = key;
+        m_Values[m_Size++] = val;
+        return this;
+    }
+
+    /**
+     * Add the given key and value pairs to the resulting map.
+     *
+     * @param k1 the first key to be added
+     * @param v1 the first value to be added
+     * @param k2 the second key to be added
+     * @param v2 the second value to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedStringMapBuilder<V> with(String k1, V v1, String k2, V v2) {
+        ensureCapacity(2);
+        m_Keys[m_Size] = k1;
+        m_Values[m_Size++] = v1;
+        m_Keys[m_Size] = k2;
+        m_Values[m_Size++] = v2;
+        return this;
+    }
+
+    /**
+     * Add the given key and value pairs to the resulting map.
+     *
+     * @param k1 the first key to be added
+     * @param v1 the first value to be added
+     * @param k2 the second key to be added
+     * @param v2 the second value to be added
+     * @param k3 the third key to be added
+     * @param v3 the third value to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedStringMapBuilder<V> with(String k1, V v1, String k2, V v2, String k3, V v3) {
+        ensureCapacity(3);
+        m_Keys[m_Size] = k1;
+        m_Values[m_Size++] = v1;
+        m_Keys[m_Size] = k2;
+        m_Values[m_Size++] = v2;
+        m_Keys[m_Size] = k3;
+        m_Values[m_Size++] = v3;
+        return this;
+    }
+
+    /**
+     * Add the values from the supplied map entry to the resulting map.
+     *
+     * @param entry the entry containing the key and value to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedStringMapBuilder<V> with(Map.Entry<? extends String,? extends V> entry) {
+        ensureCapacity(1);
+        m_Keys[m_Size] = entry.getKey();
+        m_Values[m_Size++] = entry.getValue();
+        return this;
+    }
+
+    /**
+     * For the stream combiner, merge the entries from the supplied builder
+     * to this builder.
+     *
+     * @param entries the builder containing the entries to be merged into
+     * this builder
+     * @return this builder containing the merged items
+     */
+    public ImmutableSortedStringMapBuilder<V> merge(ImmutableSortedStringMapBuilder<? extends V> entries) {
+        int len = entries.m_Size;
+        ensureCapacity(len);
+        System.arraycopy(entries.m_Keys, 0, m_Keys, m_Size, len);
+        System.arraycopy(entries.m_Values, 0, m_Values, m_Size, len);
+        m_Size += len;
+        return this;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if(m_Keys.length - m_Size < capacity) {
+            // grow geometrically, since string maps are expected to be large
+            int newLength = Math.max(m_Size + capacity, m_Keys.length + (m_Keys.length >> 1));
+            // round up to divisible by 8
+            newLength += (8 - (newLength % 8)) % 8;
+            m_Keys = Arrays.copyOf(m_Keys, newLength);
+            m_Values = Arrays.copyOf(m_Values, newLength);
+        }
+    }
+
+    /**
+     * Returns the number of entries in this builder.
+     *
+     * @return the number of entries in this builder
+     */
+    public int size() {
+        return m_Size;
+    }
+
+    /**
+     * Build the immutable map. Validates all keys added, including sorting
+     * the keys and values, and checking for duplicate keys. The sorted keys
+     * are then front coded.
+     * <p>
+     * Repeated calls to a builder containing a non-zero number of entries
+     * will return distinct map instances.
+     *
+     * @return an ImmutableSortedStringMap containing the elements in the
+     * builder
+     * @throws IllegalStateException there was a duplicate key specified in
+     * the builder
+     * @throws NullPointerException a null key was added to the builder
+     */
+    public ImmutableSortedStringMap<V> build() {
+        if(m_Size == 0) {
+            return ImmutableSortedStringMap.<V>emptyMap();
+        }
+
+        Integer[] sortedKeys = new Integer[m_Size];
+
+        for(int i = 0; i < m_Size; i++) {
+            if(m_Keys[i] == null) {
+                throw new NullPointerException("null key");
+            }
+            sortedKeys[i] = i;
+        }
+
+        // Sort keys by index, insert sorted keys and values into result arrays
+        final String[] keys = m_Keys;
+        Arrays.sort(sortedKeys, 0, m_Size, (o1, o2) -> keys[o1].compareTo(keys[o2]));
+
+        ImmutableSortedStringSet.Encoder encoder = new ImmutableSortedStringSet.Encoder(m_Size * 8);
+        Object[] values = new Object[m_Size];
+        String prev = null;
+        for(int i = 0; i < m_Size; i++) {
+            String key = keys[sortedKeys[i]];
+            if(key.equals(prev)) {
+                throw new IllegalStateException("duplicate key");
+            }
+            byte[] bytes = ImmutableSortedStringSet.encode(key);
+            encoder.add(bytes, bytes.length);
+            values[i] = m_Values[sortedKeys[i]];
+            prev = key;
+        }
+
+        return new ImmutableSortedStringMap<>(encoder.build(), values);
+    }
+
+    /**
+     * Reset this builder to its initial state.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedStringMapBuilder<V> clear() {
+        m_Keys = EMPTY_KEYS;
+        m_Values = EMPTY_ELEMENTS;
+        m_Size = 0;
+        return this;
+    }
+}
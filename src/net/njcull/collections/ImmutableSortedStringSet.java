@@ -0,0 +1,892 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A {@link SortedSet} of strings, compressed by front coding into a single
+ * array of bytes. Strings are held in their natural order, in blocks of
+ * sixteen. The first string of each block is stored in full, and each
+ * subsequent string is stored as the length of the prefix it shares with the
+ * previous string, followed by the remaining suffix.
+ * <p>
+ * Each character is encoded separately into one to three bytes, in the same
+ * manner as UTF-8 encodes characters of the basic multilingual plane. This
+ * preserves the natural ordering of strings, so that encoded strings are
+ * compared directly as unsigned bytes. Searches perform a binary search of
+ * the first string of each block, followed by a linear scan within the block.
+ * </p>
+ * <p>
+ * Strings are decoded on demand by the {@code getAtIndex(int)} method, so
+ * repeated calls create new {@code String} instances. The trade-off is a
+ * large memory saving for sets of strings with common prefixes, such as
+ * URLs or product codes. The set may also be viewed as a {@link List}.
+ * Null elements are not permitted.
+ * </p>
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableSortedStringSet extends AbstractSet<String>
+        implements SortedSet<String>, ArrayBackedSet<String>, Serializable {
+
+    /**
+     * The number of strings in each front-coded block.
+     */
+    static final int BLOCK_SIZE = 16;
+
+    private final byte[] m_Data;
+    private final int[] m_BlockOffsets;
+    private final int m_Size;
+
+    // Singleton, as an optimization only
+    private static final ImmutableSortedStringSet EMPTY = new ImmutableSortedStringSet(new byte[0], new int[0], 0);
+
+    // Serializable
+    private static final long serialVersionUID = -2718358420146374119L;
+
+    /**
+     * Returns an immutable empty sorted string set. Each call to this method
+     * will return the same empty set.
+     *
+     * @return an immutable empty sorted string set
+     */
+    public static ImmutableSortedStringSet emptySet() {
+        return EMPTY;
+    }
+
+    ImmutableSortedStringSet(byte[] data, int[] blockOffsets, int size) {
+        this.m_Data = Objects.requireNonNull(data, "data must not be null");
+        this.m_BlockOffsets = Objects.requireNonNull(blockOffsets, "block offsets must not be null");
+        if(blockOffsets.length != (size + BLOCK_SIZE - 1) / BLOCK_SIZE) {
+            throw new IllegalArgumentException("block offsets do not match size");
+        }
+        this.m_Size = size;
+    }
+
+    /**
+     * Adds all of the elements in the specified collection to this set.
+     *
+     * @param c collection containing elements to be added to this set
+     * @return {@code false} this set is not changed as a result of the call
+     * @throws UnsupportedOperationException the {@code addAll} operation
+     *         is not supported by this set
+     */
+    @Override
+    public boolean addAll(Collection<? extends String> c) {
+        if(!c.isEmpty()) {
+            throw new UnsupportedOperationException("No adding");
+        }
+        return false;
+    }
+
+    /**
+     * Retains only the elements in this set that are contained in the
+     * specified collection (optional operation).
+     *
+     * @param  c collection containing elements to be retained in this set
+     * @return {@code false} this set is not changed as a result of the call
+     * @throws UnsupportedOperationException the retainAll operation
+     *         is not supported by this set
+     */
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        for(String s : this) {
+            if(!c.contains(s)) {
+                throw new UnsupportedOperationException("No removals");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes from this set all of its elements that are contained in the
+     * specified collection (optional operation).
+     *
+     * @param  c collection containing elements to be removed from this set
+     * @return {@code false} this set is not changed as a result of the call
+     * @throws UnsupportedOperationException the {@code removeAll} operation
+     *         is not supported by this set
+     */
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        if(!c.isEmpty()) {
+            for(String s : this) {
+                if(c.contains(s)) {
+                    throw new UnsupportedOperationException("No removals");
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all of the elements of this set that satisfy the given
+     * predicate.  Errors or runtime exceptions thrown during iteration or by
+     * the predicate are relayed to the caller.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be
+     *        removed
+     * @return {@code false} no elements were removed
+     * @throws NullPointerException if the specified filter is null
+     * @throws UnsupportedOperationException elements cannot be removed
+     *         from this set.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super String> filter) {
+        Objects.requireNonNull(filter);
+
+        for(String s : this) {
+            if(filter.test(s)) {
+                throw new UnsupportedOperationException("No removals");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all of the elements from this set (optional operation).
+     * The set will be empty after this call returns.
+     *
+     * @throws UnsupportedOperationException the {@code clear} method
+     *         is not supported by this set
+     */
+    @Override
+    public void clear() {
+        if(m_Size > 0) {
+            throw new UnsupportedOperationException("No removals");
+        }
+    }
+
+    /**
+     * Returns the number of elements in this set (its cardinality).
+     *
+     * @return the number of elements in this set (its cardinality)
+     */
+    @Override
+    public int size() {
+        return m_Size;
+    }
+
+    /**
+     * Returns {@code true} if this set contains no elements.
+     *
+     * @return {@code true} if this set contains no elements, otherwise
+     * {@code false}
+     */
+    @Override
+    public boolean isEmpty() {
+        return m_Size == 0;
+    }
+
+    /**
+     * Returns {@code true} if this set contains the specified element.
+     *
+     * @param element the element whose presence in this set is to be tested
+     * @return {@code true} if this set contains the specified element,
+     * otherwise {@code false}
+     */
+    @Override
+    public boolean contains(Object element) {
+        return (element instanceof String) && (indexOf((String) element) >= 0);
+    }
+
+    /**
+     * Get the element at the specified index. The element is decoded from
+     * the front-coded block that contains it.
+     *
+     * @param index the index of the item to be retrieved
+     * @return the item at the specified index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    @Override
+    public String getAtIndex(int index) {
+        if((index < 0) || (index >= m_Size)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        Cursor cursor = new Cursor();
+        seek(cursor, index);
+        return decode(cursor.m_Bytes, cursor.m_Length);
+    }
+
+    /**
+     * Determine the index of the given element, if it exists in this
+     * set.
+     *
+     * @param element the element to be found
+     * @return a zero or positive integer if the element is in the
+     * set, otherwise less than zero to indicate its absence
+     */
+    @Override
+    public int indexOf(String element) {
+        if(element == null) {
+            return -1;
+        }
+        int idx = search(encode(element));
+        return idx >= 0 ? idx : -1;
+    }
+
+    /**
+     * Determine the index of the given element, if it exists within the
+     * specified range in this set.
+     *
+     * @param element the element to be found
+     * @param fromIndex the start index, must be zero or greater
+     * @param toIndex the exclusive end index, must be greater than or equal to
+     *                the start index
+     * @return a zero or positive integer if the element is in the specified
+     * range of the set, otherwise less than zero to indicate its absence
+     * @throws IndexOutOfBoundsException if fromIndex or toIndex is out of range
+     *         ({@code index < 0 || index >= size()}), or toIndex
+     *         is less than fromIndex
+     */
+    @Override
+    public int indexOfRange(String element, int fromIndex, int toIndex) {
+        if(fromIndex < 0 || fromIndex >= m_Size) {
+            throw new IndexOutOfBoundsException("fromIndex: "+ fromIndex);
+        }
+        if(toIndex < fromIndex || toIndex > m_Size) {
+            throw new IndexOutOfBoundsException("toIndex: " + toIndex);
+        }
+        int idx = indexOf(element);
+        return ((idx >= fromIndex) && (idx < toIndex)) ? idx : -1;
+    }
+
+    /**
+     * Search for the given encoded string. The block is found by a binary
+     * search of the first string of each block, then the block is scanned.
+     *
+     * @param key the encoded string to be found
+     * @return the index of the string, if found, otherwise
+     * {@code (-(insertion point) - 1)}
+     */
+    int search(byte[] key) {
+        int low = 0;
+        int high = m_BlockOffsets.length - 1;
+
+        // Find the last block whose first string is less than or equal to the key
+        while(low <= high) {
+            final int mid = (low + high) >>> 1;
+            int pos = m_BlockOffsets[mid];
+            final int len = readVarInt(m_Data, pos);
+            pos += varIntLength(len);
+            final int cmp = compare(m_Data, pos, len, key, 0, key.length);
+            if(cmp < 0) {
+                low = mid + 1;
+            } else if(cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid * BLOCK_SIZE;
+            }
+        }
+        if(high < 0) {
+            return -1;
+        }
+
+        final Cursor cursor = new Cursor();
+        int index = high * BLOCK_SIZE;
+        final int end = Math.min(m_Size, index + BLOCK_SIZE);
+        seekBlock(cursor, high);
+        for(index++; index < end; index++) {
+            next(cursor);
+            final int cmp = compare(cursor.m_Bytes, 0, cursor.m_Length, key, 0, key.length);
+            if(cmp == 0) {
+                return index;
+            }
+            if(cmp > 0) {
+                return -(index + 1);
+            }
+        }
+        return -(end + 1);
+    }
+
+    /**
+     * Returns an iterator over the elements contained in this set, in
+     * ascending order. The iterator decodes each block sequentially.
+     *
+     * @return an iterator over the elements contained in this set
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Performs the given action for each element of the set, in ascending
+     * order, until all elements have been processed or the action throws an
+     * exception.
+     *
+     * @param action The action to be performed for each element
+     * @throws NullPointerException if the specified action is null
+     */
+    @Override
+    public void forEach(Consumer<? super String> action) {
+        Objects.requireNonNull(action);
+        Itr it = new Itr();
+        while(it.hasNext()) {
+            action.accept(it.next());
+        }
+    }
+
+    /**
+     * Returns an array containing all of the elements in this set, in
+     * ascending order.
+     *
+     * @return an array containing all the elements in this set
+     */
+    @Override
+    public Object[] toArray() {
+        Object[] arr = new Object[m_Size];
+        Itr it = new Itr();
+        for(int i = 0; i < m_Size; i++) {
+            arr[i] = it.next();
+        }
+        return arr;
+    }
+
+    /**
+     * Returns an array containing all of the elements in this set, in
+     * ascending order; the runtime type of the returned array is that of
+     * the specified array.
+     *
+     * @param a the array into which the elements of this set are to be
+     *        stored, if it is big enough; otherwise, a new array of the same
+     *        runtime type is allocated for this purpose.
+     * @return an array containing all the elements in this set
+     * @throws ArrayStoreException if the runtime type of the specified array
+     *         is not a supertype of {@code String}
+     * @throws NullPointerException if the specified array is null
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T[] toArray(T[] a) {
+        if(a.length < m_Size) {
+            a = (T[])java.lang.reflect.Array.newInstance(
+                    a.getClass().getComponentType(), m_Size);
+        }
+        Itr it = new Itr();
+        for(int i = 0; i < m_Size; i++) {
+            a[i] = (T) it.next();
+        }
+        if(a.length > m_Size) {
+            a[m_Size] = null;
+        }
+        return a;
+    }
+
+    /**
+     * Returns {@code null}, since the elements of this set are held in
+     * their natural order.
+     *
+     * @return {@code null}, the natural ordering of strings
+     */
+    @Override
+    public Comparator<? super String> comparator() {
+        return null;
+    }
+
+    /**
+     * Returns the first (lowest) element currently in this set.
+     *
+     * @return the first (lowest) element currently in this set
+     * @throws NoSuchElementException if this set is empty
+     */
+    @Override
+    public String first() {
+        if(m_Size == 0) {
+            throw new NoSuchElementException("Empty set");
+        }
+        return getAtIndex(0);
+    }
+
+    /**
+     * Returns the last (highest) element currently in this set.
+     *
+     * @return the last (highest) element currently in this set
+     * @throws NoSuchElementException if this set is empty
+     */
+    @Override
+    public String last() {
+        if(m_Size == 0) {
+            throw new NoSuchElementException("Empty set");
+        }
+        return getAtIndex(m_Size - 1);
+    }
+
+    /**
+     * Returns the portion of this set whose elements are strictly less
+     * than {@code toElement}, as a new front-coded set.
+     *
+     * @param toElement high endpoint (exclusive) of the returned set
+     * @return the portion of this set whose elements are strictly less than
+     *         {@code toElement}
+     * @throws NullPointerException if {@code toElement} is null
+     */
+    @Override
+    public ImmutableSortedStringSet headSet(String toElement) {
+        return range(0, insertionPoint(toElement));
+    }
+
+    /**
+     * Returns the portion of this set whose elements are greater than or
+     * equal to {@code fromElement}, as a new front-coded set.
+     *
+     * @param fromElement low endpoint (inclusive) of the returned set
+     * @return the portion of this set whose elements are greater than or
+     *         equal to {@code fromElement}
+     * @throws NullPointerException if {@code fromElement} is null
+     */
+    @Override
+    public ImmutableSortedStringSet tailSet(String fromElement) {
+        return range(insertionPoint(fromElement), m_Size);
+    }
+
+    /**
+     * Returns the portion of this set whose elements range from
+     * {@code fromElement}, inclusive, to {@code toElement}, exclusive, as a
+     * new front-coded set. If {@code fromElement} and {@code toElement} are
+     * equal, the returned set is empty.
+     *
+     * @param fromElement low endpoint (inclusive) of the returned set
+     * @param toElement high endpoint (exclusive) of the returned set
+     * @return the portion of this set whose elements range from
+     *         {@code fromElement}, inclusive, to {@code toElement}, exclusive
+     * @throws NullPointerException if {@code fromElement} or
+     *         {@code toElement} is null
+     */
+    @Override
+    public ImmutableSortedStringSet subSet(String fromElement, String toElement) {
+        return range(insertionPoint(fromElement), insertionPoint(toElement));
+    }
+
+    /**
+     * Returns the index of the given element, or the index at which it
+     * would be inserted if absent.
+     */
+    int insertionPoint(String element) {
+        int idx = search(encode(Objects.requireNonNull(element, "element must not be null")));
+        return (idx >= 0) ? idx : -(idx + 1);
+    }
+
+    /**
+     * Returns the elements from the given index range as a new set,
+     * re-encoding them without decoding to strings.
+     */
+    ImmutableSortedStringSet range(int fromIndex, int toIndex) {
+        if(fromIndex >= toIndex) {
+            return EMPTY;
+        }
+        if((fromIndex == 0) && (toIndex == m_Size)) {
+            return this;
+        }
+        Encoder encoder = new Encoder(Math.max(16, m_Data.length / m_Size * (toIndex - fromIndex)));
+        Cursor cursor = new Cursor();
+        seek(cursor, fromIndex);
+        encoder.add(cursor.m_Bytes, cursor.m_Length);
+        for(int i = fromIndex + 1; i < toIndex; i++) {
+            advance(cursor, i);
+            encoder.add(cursor.m_Bytes, cursor.m_Length);
+        }
+        return encoder.build();
+    }
+
+    /**
+     * Creates a {@code Spliterator} over the elements in this set.
+     *
+     * <p>The {@code Spliterator} reports {@code Spliterator.DISTINCT},
+     * {@code Spliterator.ORDERED}, {@code Spliterator.IMMUTABLE},
+     * {@code Spliterator.SIZED}, {@code Spliterator.SUBSIZED},
+     * {@code Spliterator.NONNULL}, and {@code Spliterator.SORTED}.
+     *
+     * @return a {@code Spliterator} over the elements in this set
+     */
+    @Override
+    public Spliterator<String> spliterator() {
+        return new ImmutableIndexerSpliterator<String>(this::getAtIndex, 0, m_Size, null,
+                Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.SORTED);
+    }
+
+    /**
+     * Returns a string representation of this set, with elements in
+     * ascending order.
+     *
+     * @return a string representation of this set
+     */
+    @Override
+    public String toString() {
+        if(m_Size == 0) {
+            return "[]";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        Itr it = new Itr();
+        while(it.hasNext()) {
+            sb.append(it.next());
+            if(it.hasNext()) {
+                sb.append(',').append(' ');
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Returns the hash code value for this set, being the sum of the hash
+     * codes of the elements in the set.
+     *
+     * @return the hash code value for this set
+     */
+    @Override
+    public int hashCode() {
+        int h = 0;
+        Itr it = new Itr();
+        while(it.hasNext()) {
+            h += it.next().hashCode();
+        }
+        return h;
+    }
+
+    /**
+     * Return a backing list view for this set.
+     *
+     * @return a list view containing all the elements of this {@code Set}
+     */
+    @Override
+    public List<String> asList() {
+        return Views.listView(this);
+    }
+
+    /**
+     * Create a builder object for this immutable sorted string set.
+     *
+     * @return a new builder object
+     */
+    public static ImmutableSortedStringSetBuilder builder() {
+        return new ImmutableSortedStringSetBuilder();
+    }
+
+    /**
+     * Returns an {@code ImmutableSortedStringSet} that contains the elements
+     * supplied by the given {@code Iterable}.
+     * <p>
+     * If the given iterable is itself an immutable sorted string set, then
+     * it will be returned.
+     * </p>
+     *
+     * @param it the elements to be copied
+     * @return an {@code ImmutableSortedStringSet} containing the elements
+     * from the given {@code Iterable}
+     * @throws NullPointerException the iterable contains a null element
+     */
+    public static ImmutableSortedStringSet copyOf(Iterable<String> it) {
+        if(it instanceof ImmutableSortedStringSet) {
+            return (ImmutableSortedStringSet) it;
+        }
+        return new ImmutableSortedStringSetBuilder().with(it).build();
+    }
+
+    // Front coding
+
+    /**
+     * Holds the encoded bytes of the current string while scanning a block.
+     */
+    static final class Cursor {
+        byte[] m_Bytes = new byte[32];
+        int m_Length;
+        int m_Position;
+
+        void ensureCapacity(int capacity) {
+            if(capacity > m_Bytes.length) {
+                m_Bytes = Arrays.copyOf(m_Bytes, Math.max(capacity, m_Bytes.length * 2));
+            }
+        }
+    }
+
+    /**
+     * Position the cursor at the given index, decoding from the start of
+     * its block.
+     */
+    void seek(Cursor cursor, int index) {
+        seekBlock(cursor, index / BLOCK_SIZE);
+        final int count = index % BLOCK_SIZE;
+        for(int i = 0; i < count; i++) {
+            next(cursor);
+        }
+    }
+
+    /**
+     * Advance the cursor to the given index, which is the index following
+     * the current position of the cursor.
+     */
+    void advance(Cursor cursor, int index) {
+        if((index % BLOCK_SIZE) == 0) {
+            seekBlock(cursor, index / BLOCK_SIZE);
+        } else {
+            next(cursor);
+        }
+    }
+
+    private void seekBlock(Cursor cursor, int block) {
+        int pos = m_BlockOffsets[block];
+        final int len = readVarInt(m_Data, pos);
+        pos += varIntLength(len);
+        cursor.ensureCapacity(len);
+        System.arraycopy(m_Data, pos, cursor.m_Bytes, 0, len);
+        cursor.m_Length = len;
+        cursor.m_Position = pos + len;
+    }
+
+    private void next(Cursor cursor) {
+        int pos = cursor.m_Position;
+        final int prefix = readVarInt(m_Data, pos);
+        pos += varIntLength(prefix);
+        final int suffix = readVarInt(m_Data, pos);
+        pos += varIntLength(suffix);
+        cursor.ensureCapacity(prefix + suffix);
+        System.arraycopy(m_Data, pos, cursor.m_Bytes, prefix, suffix);
+        cursor.m_Length = prefix + suffix;
+        cursor.m_Position = pos + suffix;
+    }
+
+    /**
+     * Accumulates encoded strings, in ascending order, into front-coded
+     * blocks.
+     */
+    static final class Encoder {
+        private byte[] m_Data;
+        private int m_Length;
+        private int[] m_BlockOffsets = new int[4];
+        private int m_Count;
+        private byte[] m_Previous = new byte[32];
+        private int m_PreviousLength;
+
+        Encoder(int capacity) {
+            m_Data = new byte[Math.max(capacity, 16)];
+        }
+
+        /**
+         * Add the next encoded string, which must be greater than the
+         * previous string.
+         */
+        void add(byte[] bytes, int length) {
+            if((m_Count % BLOCK_SIZE) == 0) {
+                final int block = m_Count / BLOCK_SIZE;
+                if(block == m_BlockOffsets.length) {
+                    m_BlockOffsets = Arrays.copyOf(m_BlockOffsets, block * 2);
+                }
+                m_BlockOffsets[block] = m_Length;
+                writeVarInt(length);
+                write(bytes, 0, length);
+            } else {
+                final int max = Math.min(length, m_PreviousLength);
+                int prefix = 0;
+                while((prefix < max) && (bytes[prefix] == m_Previous[prefix])) {
+                    prefix++;
+                }
+                writeVarInt(prefix);
+                writeVarInt(length - prefix);
+                write(bytes, prefix, length - prefix);
+            }
+            if(length > m_Previous.length) {
+                m_Previous = Arrays.copyOf(m_Previous, Math.max(length, m_Previous.length * 2));
+            }
+            System.arraycopy(bytes, 0, m_Previous, 0, length);
+            m_PreviousLength = length;
+            m_Count++;
+        }
+
+        ImmutableSortedStringSet build() {
+            if(m_Count == 0) {
+                return EMPTY;
+            }
+            final int blocks = (m_Count + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            return new ImmutableSortedStringSet(Arrays.copyOf(m_Data, m_Length),
+                    Arrays.copyOf(m_BlockOffsets, blocks), m_Count);
+        }
+
+        private void writeVarInt(int value) {
+            ensureCapacity(5);
+            while((value & ~0x7F) != 0) {
+                m_Data[m_Length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            m_Data[m_Length++] = (byte) value;
+        }
+
+        private void write(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, m_Data, m_Length, length);
+            m_Length += length;
+        }
+
+        private void ensureCapacity(int extra) {
+            if(m_Length + extra > m_Data.length) {
+                m_Data = Arrays.copyOf(m_Data, Math.max(m_Length + extra, m_Data.length + (m_Data.length >> 1)));
+            }
+        }
+    }
+
+    /**
+     * Encode a string, one to three bytes per character. Unsigned byte
+     * order of encoded strings is the same as the natural order of strings.
+     */
+    static byte[] encode(String s) {
+        final int len = s.length();
+        int count = 0;
+        for(int i = 0; i < len; i++) {
+            final char c = s.charAt(i);
+            count += (c < 0x80) ? 1 : (c < 0x800) ? 2 : 3;
+        }
+        final byte[] bytes = new byte[count];
+        int pos = 0;
+        for(int i = 0; i < len; i++) {
+            final char c = s.charAt(i);
+            if(c < 0x80) {
+                bytes[pos++] = (byte) c;
+            } else if(c < 0x800) {
+                bytes[pos++] = (byte) (0xC0 | (c >> 6));
+                bytes[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else {
+                bytes[pos++] = (byte) (0xE0 | (c >> 12));
+                bytes[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Decode a string previously encoded by {@link #encode(String)}.
+     */
+    static String decode(byte[] bytes, int length) {
+        final char[] chars = new char[length];
+        int count = 0;
+        int pos = 0;
+        while(pos < length) {
+            final int b = bytes[pos++] & 0xFF;
+            if(b < 0x80) {
+                chars[count++] = (char) b;
+            } else if(b < 0xE0) {
+                chars[count++] = (char) (((b & 0x1F) << 6) | (bytes[pos++] & 0x3F));
+            } else {
+                chars[count++] = (char) (((b & 0x0F) << 12) | ((bytes[pos++] & 0x3F) << 6) | (bytes[pos++] & 0x3F));
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    static int compare(byte[] a, int aOffset, int aLength, byte[] b, int bOffset, int bLength) {
+        final int len = Math.min(aLength, bLength);
+        for(int i = 0; i < len; i++) {
+            final int cmp = (a[aOffset + i] & 0xFF) - (b[bOffset + i] & 0xFF);
+            if(cmp != 0) {
+                return cmp;
+            }
+        }
+        return aLength - bLength;
+    }
+
+    private static int readVarInt(byte[] data, int pos) {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = data[pos++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while((b & 0x80) != 0);
+        return value;
+    }
+
+    private static int varIntLength(int value) {
+        int len = 1;
+        while((value & ~0x7F) != 0) {
+            value >>>= 7;
+            len++;
+        }
+        return len;
+    }
+
+    /**
+     * An iterator that decodes strings sequentially through each block.
+     */
+    private final class Itr implements Iterator<String> {
+        private final Cursor m_Cursor = new Cursor();
+        private int m_Index;
+
+        @Override
+        public boolean hasNext() {
+            return m_Index < m_Size;
+        }
+
+        @Override
+        public String next() {
+            if(m_Index >= m_Size) {
+                throw new NoSuchElementException();
+            }
+            advance(m_Cursor, m_Index);
+            m_Index++;
+            return decode(m_Cursor.m_Bytes, m_Cursor.m_Length);
+        }
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @param stream the object stream to be deserialized
+     * @throws ClassNotFoundException the class or descendants could not be found
+     * @throws IOException there was a problem reading the object stream
+     */
+    private void readObject(ObjectInputStream stream) throws ClassNotFoundException, IOException {
+        stream.defaultReadObject();
+
+        // Perform validation
+        if((m_Data == null) || (m_BlockOffsets == null) || (m_Size < 0) ||
+                (m_BlockOffsets.length != (m_Size + BLOCK_SIZE - 1) / BLOCK_SIZE)) {
+            throw new InvalidObjectException("set must have consistent data and blocks");
+        }
+
+        // Scan to ensure the blocks are well formed, and strings are ordered
+        try {
+            Cursor cursor = new Cursor();
+            Cursor prev = new Cursor();
+            for(int i = 0; i < m_Size; i++) {
+                if((i % BLOCK_SIZE) == 0) {
+                    if(m_BlockOffsets[i / BLOCK_SIZE] != cursor.m_Position) {
+                        throw new InvalidObjectException("set block offsets are inconsistent");
+                    }
+                }
+                advance(cursor, i);
+                if((i > 0) && (compare(prev.m_Bytes, 0, prev.m_Length, cursor.m_Bytes, 0, cursor.m_Length) >= 0)) {
+                    throw new InvalidObjectException("set is not ordered");
+                }
+                prev.ensureCapacity(cursor.m_Length);
+                System.arraycopy(cursor.m_Bytes, 0, prev.m_Bytes, 0, cursor.m_Length);
+                prev.m_Length = cursor.m_Length;
+            }
+            if(cursor.m_Position != m_Data.length) {
+                throw new InvalidObjectException("set has trailing data");
+            }
+        } catch (ArrayIndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new InvalidObjectException("set data is malformed");
+        }
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @return the resolved object
+     */
+    private Object readResolve() {
+        if(m_Size == 0) {
+            // optimization only
+            return EMPTY;
+        }
+        return this;
+    }
+}
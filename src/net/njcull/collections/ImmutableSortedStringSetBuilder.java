@@ -0,0 +1,225 @@
+package net.njcull.collections;
+
+import java.util.*;
+
+/**
+ * Builder for the {@link ImmutableSortedStringSet} class.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ImmutableSortedStringSetBuilder {
+    private String[] m_Elements = EMPTY_ELEMENTS;
+    private int m_Size = 0;
+
+    private static final String[] EMPTY_ELEMENTS = new String[0];
+
+    /**
+     * Create a new builder instance for constructing a new immutable
+     * sorted string set.
+     */
+    public ImmutableSortedStringSetBuilder() {
+    }
+
+    /**
+     * All the elements from the supplied iterable will be added to the
+     * resulting set.
+     *
+     * @param it the iterable containing elements to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedStringSetBuilder with(Iterable<String> it) {
+        int count = 0;
+
+        for(Iterator<String> iIt = it.iterator(); iIt.hasNext(); count++) {
+            if((count % 8) == 0) {
+                ensureCapacity(8);
+            }
+            m_Elements[m_Size++] = iIt.next();
+        }
+
+        return this;
+    }
+
+    /**
+     * All the elements from the supplied collection will be added to the
+     * resulting set.
+     *
+     * @param coll the collection containing elements to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedStringSetBuilder with(Collection<String> coll) {
+        int size = coll.size();
+        ensureCapacity(size);
+        if((coll instanceof List) && (coll instanceof RandomAccess) && (size < Integer.MAX_VALUE)) {
+            List<String> list = (List<String>) coll;
+            for(int i = 0; i < size; i++) {
+                m_Elements[m_Size++] = list.get(i);
+            }
+        } else {
+            int count = 0;
+            for(Iterator<String> iColl = coll.iterator(); iColl.hasNext() && count < size; count++) {
+                m_Elements[m_Size++] = iColl.next();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Add the given element to the resulting set.
+     *
+     * @param elem the element to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedStringSetBuilder with(String elem) {
+        ensureCapacity(1);
+        m_Elements[m_Size++] = elem;
+        return this;
+    }
+
+    /**
+     * Add the given elements to the resulting set.
+     *
+     * @param e1 the first element to be added
+     * @param e2 the second element to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedStringSetBuilder with(String e1, String e2) {
+        ensureCapacity(2);
+        m_Elements[m_Size++] = e1;
+        m_Elements[m_Size++] = e2;
+        return this;
+    }
+
+    /**
+     * Add the given elements to the resulting set.
+     *
+     * @param e1 the first element to be added
+     * @param e2 the second element to be added
+     * @param e3 the third element to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedStringSetBuilder with(String e1, String e2, String e3) {
+        ensureCapacity(3);
+        m_Elements[m_Size++] = e1;
+        m_Elements[m_Size++] = e2;
+        m_Elements[m_Size++] = e3;
+        return this;
+    }
+
+    /**
+     * Add the given elements to the resulting set.
+     *
+     * @param e1 the first element to be added
+     * @param e2 the second element to be added
+     * @param e3 the third element to be added
+     * @param e4 the fourth element to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedStringSetBuilder with(String e1, String e2, String e3, String e4) {
+        ensureCapacity(4);
+        m_Elements[m_Size++] = e1;
+        m_Elements[m_Size++] = e2;
+        m_Elements[m_Size++] = e3;
+        m_Elements[m_Size++] = e4;
+        return this;
+    }
+
+    /**
+     * Add the given elements to the resulting set.
+     *
+     * @param elements the elements to be added
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedStringSetBuilder with(String... elements) {
+        int len = elements.length;
+        ensureCapacity(len);
+        System.arraycopy(elements, 0, m_Elements, m_Size, len);
+        m_Size += len;
+        return this;
+    }
+
+    /**
+     * For the stream combiner, merge the elements from the supplied builder
+     * to this builder.
+     *
+     * @param elements the builder containing the elements to be merged into
+     * this builder
+     * @return this builder containing the merged items
+     */
+    public ImmutableSortedStringSetBuilder merge(ImmutableSortedStringSetBuilder elements) {
+        int len = elements.m_Size;
+        ensureCapacity(len);
+        System.arraycopy(elements.m_Elements, 0, m_Elements, m_Size, len);
+        m_Size += len;
+        return this;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if(m_Elements.length - m_Size < capacity) {
+            // grow geometrically, since string sets are expected to be large
+            int newLength = Math.max(m_Size + capacity, m_Elements.length + (m_Elements.length >> 1));
+            // round up to divisible by 8
+            newLength += (8 - (newLength % 8)) % 8;
+            m_Elements = Arrays.copyOf(m_Elements, newLength);
+        }
+    }
+
+    /**
+     * Returns the number of elements in this builder.
+     *
+     * @return the number of elements in this builder
+     */
+    public int size() {
+        return m_Size;
+    }
+
+    /**
+     * Build the immutable set. Validates all elements added, including
+     * sorting the elements, and removing duplicate elements as necessary.
+     * The sorted elements are then front coded.
+     * <p>
+     * Repeated calls to a builder containing a non-zero number of elements
+     * will return distinct set instances.
+     *
+     * @return an ImmutableSortedStringSet containing the elements in the builder
+     * @throws NullPointerException a null element was added to the builder
+     */
+    public ImmutableSortedStringSet build() {
+        if(m_Size == 0) {
+            return ImmutableSortedStringSet.emptySet();
+        }
+
+        String[] elements = Arrays.copyOf(m_Elements, m_Size);
+        for(int i = 0; i < elements.length; i++) {
+            if(elements[i] == null) {
+                throw new NullPointerException("null element");
+            }
+        }
+        Arrays.sort(elements);
+
+        ImmutableSortedStringSet.Encoder encoder = new ImmutableSortedStringSet.Encoder(elements.length * 8);
+        String prevElem = null;
+        for(int i = 0; i < elements.length; i++) {
+            String currElem = elements[i];
+            // Skip duplicates, which are adjacent once sorted
+            if(!currElem.equals(prevElem)) {
+                byte[] bytes = ImmutableSortedStringSet.encode(currElem);
+                encoder.add(bytes, bytes.length);
+                prevElem = currElem;
+            }
+        }
+        return encoder.build();
+    }
+
+    /**
+     * Reset this builder to its initial state.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public ImmutableSortedStringSetBuilder clear() {
+        m_Elements = EMPTY_ELEMENTS;
+        m_Size = 0;
+        return this;
+    }
+}
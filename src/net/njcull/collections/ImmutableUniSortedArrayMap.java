@@ -20,7 +20,8 @@ import java.util.function.BiConsumer;
  * <p>
  * Keys and values are stored together in sorted key order.
  * <p>
- * Keys are tested using a binary search implementation.
+ * Keys are tested using a binary search implementation. For a bi-map, values
+ * are tested using a hash index, built on first use.
  * The map's keyset and entryset views may also be viewed as a {@link List}.
  * </p>
  *
@@ -36,6 +37,7 @@ public final class ImmutableUniSortedArrayMap<K,V> extends AbstractMap<K,V>
     private final Comparator<? super K> m_KeyComparator;
     private transient Comparator m_NullsKeyComparator;
     private final boolean m_BiMap;
+    private transient volatile int[] m_ValueIndex;
 
     // Singleton, as an optimization only
     private static final ImmutableUniSortedArrayMap<?,?> EMPTY = new ImmutableUniSortedArrayMap<>(new Object[0], null, true);
@@ -111,7 +113,8 @@ public final class ImmutableUniSortedArrayMap<K,V> extends AbstractMap<K,V>
      * specified value.  More formally, returns {@code true} if and only if
      * this map contains at least one mapping to a value {@code v} such that
      * {@code (value==null ? v==null : value.equals(v))}.  This operation
-     * requires time linear in the map size for this implementation.
+     * requires time linear in the map size for this implementation, unless
+     * the map is a bi-map, when it requires constant time.
      *
      * @param value value whose presence in this map is to be tested
      * @return {@code true} if this map maps one or more keys to the
@@ -220,7 +223,7 @@ public final class ImmutableUniSortedArrayMap<K,V> extends AbstractMap<K,V>
 
     @SuppressWarnings("unchecked")
     private int indexOfKeyInternal(Object key) {
-        return BinarySearchUtils.indexedSearch(this::keyAt, m_Map.length / 2, key, m_NullsKeyComparator);
+        return BinarySearchUtils.arraySearch(m_Map, 0, m_Map.length / 2, key, m_NullsKeyComparator);
     }
 
     /**
@@ -234,6 +237,9 @@ public final class ImmutableUniSortedArrayMap<K,V> extends AbstractMap<K,V>
     @Override
     public int indexOfValue(Object value) {
         final int size = m_Map.length / 2;
+        if(m_BiMap && (size >= ArrayHashIndex.MIN_INDEXED_SIZE)) {
+            return ArrayHashIndex.indexOf(valueIndex(), m_Map, size, value);
+        }
         if(value == null) {
             for(int i = 0; i < size; i++) {
                 if(value == m_Map[size + i]) {
@@ -250,6 +256,47 @@ public final class ImmutableUniSortedArrayMap<K,V> extends AbstractMap<K,V>
         return -1;
     }
 
+    /**
+     * Returns {@code true} if this map was built as a bi-map, where both
+     * keys and values are unique.
+     *
+     * @return {@code true} if this map is a bi-map, otherwise {@code false}
+     */
+    public boolean isBiMap() {
+        return m_BiMap;
+    }
+
+    /**
+     * Returns an inverse view of this bi-map, which maps each value of this
+     * map to its associated key. The view shares the arrays of this map, so
+     * no data is copied. Searches by key in the inverse view use a hash
+     * index over the values of this map, built on first use.
+     *
+     * @return an inverse view of this bi-map
+     * @throws UnsupportedOperationException this map is not a bi-map
+     */
+    public ArrayBackedMap<V,K> inverse() {
+        if(!m_BiMap) {
+            throw new UnsupportedOperationException("not a bi-map");
+        }
+        return new ArrayBackedInverseMap<>(this);
+    }
+
+    /**
+     * Returns the hash index over the values of this bi-map, building it
+     * if required. Races to build the index are benign, since any thread
+     * builds an identical index.
+     */
+    private int[] valueIndex() {
+        int[] index = m_ValueIndex;
+        if(index == null) {
+            final int size = m_Map.length / 2;
+            index = ArrayHashIndex.build(m_Map, size, size);
+            m_ValueIndex = index;
+        }
+        return index;
+    }
+
     /**
      * Returns an {@link ArrayBackedSet} view of the mappings contained in this
      * map. The set is backed by the map.
@@ -417,6 +464,67 @@ public final class ImmutableUniSortedArrayMap<K,V> extends AbstractMap<K,V>
         return new ImmutableUniSortedArrayMap<K,V>(subMap, m_KeyComparator, m_BiMap);
     }
 
+    /**
+     * Returns the rank of the given key, being the number of keys in
+     * this map that are strictly less than it. If the key is present,
+     * this is its index; otherwise it is the index at which it would be
+     * inserted. This is a single binary search, and does not allocate.
+     *
+     * @param key the key to be ranked
+     * @return the number of keys in this map less than the given key
+     * @throws ClassCastException if the key cannot be compared using this
+     *         map's comparator (or, if the map has no comparator, using
+     *         natural ordering)
+     */
+    public int rank(K key) {
+        return BinarySearchUtils.boundaryIndex(indexOfKeyInternal(key), false);
+    }
+
+    /**
+     * Returns the number of keys in this map that lie within the
+     * given range, without creating a sub-map. This requires two binary
+     * searches, and does not allocate.
+     *
+     * @param fromKey low endpoint of the range
+     * @param fromInclusive {@code true} if the low endpoint is to be
+     *        included in the count
+     * @param toKey high endpoint of the range
+     * @param toInclusive {@code true} if the high endpoint is to be
+     *        included in the count
+     * @return the number of keys within the range
+     * @throws ClassCastException if the endpoints cannot be compared to one
+     *         another using this map's comparator (or, if the map has no
+     *         comparator, using natural ordering)
+     * @throws IllegalArgumentException if {@code fromKey} is greater
+     *         than {@code toKey}
+     */
+    @SuppressWarnings("unchecked")
+    public int countInRange(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+        final int fromIndex = BinarySearchUtils.boundaryIndex(indexOfKeyInternal(fromKey), !fromInclusive);
+        final int toIndex = BinarySearchUtils.boundaryIndex(indexOfKeyInternal(toKey), toInclusive);
+        if(toIndex < fromIndex) {
+            if(m_NullsKeyComparator.compare(fromKey, toKey) > 0) {
+                throw new IllegalArgumentException("toKey is less than fromKey");
+            }
+            return 0;
+        }
+        return toIndex - fromIndex;
+    }
+
+    /**
+     * Returns the key of the given rank, being the key with exactly
+     * {@code rank} keys less than it in this map. This is the inverse
+     * of {@link #rank}.
+     *
+     * @param rank the rank of the key to be returned
+     * @return the key of the given rank
+     * @throws IndexOutOfBoundsException if the rank is less than zero or
+     * greater than or equal to the map size
+     */
+    public K select(int rank) {
+        return keyAt(rank);
+    }
+
     private static int insertionPointToIndex(int idx) {
         return (idx >= 0) ? idx : 0 - (idx + 1);
     }
@@ -0,0 +1,633 @@
+package net.njcull.collections;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Containers for the low sixteen bits of the values in an
+ * {@link ImmutableIntSet}, one container for each chunk of 65536 values.
+ * <p>
+ * There are three implementations. An array container holds up to 4096
+ * sorted values. A bitmap container holds one bit for each value in the
+ * chunk. A run container holds sorted runs of consecutive values, as pairs
+ * of the start of the run and its length less one. Each container is created
+ * with whichever implementation is smallest, so the choice is made only by
+ * the {@link #ofSorted(int[], int, int)} and {@link #ofWords(long[])}
+ * methods.
+ * </p>
+ * <p>
+ * Containers are combined a word at a time where both are bitmaps, by
+ * filtering where either is an array, and otherwise by expanding runs to
+ * bitmaps.
+ * </p>
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+abstract class IntSetContainer implements Serializable {
+
+    /**
+     * The number of values in each chunk.
+     */
+    static final int CHUNK_SIZE = 1 << 16;
+
+    /**
+     * The largest number of values held by an array container.
+     */
+    static final int MAX_ARRAY_SIZE = 4096;
+
+    // Number of 64-bit words in a bitmap container
+    private static final int BITMAP_WORDS = CHUNK_SIZE / 64;
+
+    // Serialization
+    private static final long serialVersionUID = 6410237286540925163L;
+
+    /**
+     * Returns the number of values in this container.
+     *
+     * @return the number of values in this container
+     */
+    abstract int cardinality();
+
+    /**
+     * Returns {@code true} if this container contains the given value.
+     *
+     * @param low the value to be found, from 0 to 65535
+     * @return {@code true} if this container contains the value
+     */
+    abstract boolean contains(int low);
+
+    /**
+     * Returns the value at the given rank within this container.
+     *
+     * @param rank the rank of the value, less than the cardinality
+     * @return the value of the given rank
+     */
+    abstract int select(int rank);
+
+    /**
+     * Returns the number of values in this container less than the given
+     * value.
+     *
+     * @param low the value to be ranked, from 0 to 65536
+     * @return the number of values less than the given value
+     */
+    abstract int rank(int low);
+
+    /**
+     * Returns the least value in this container greater than or equal to
+     * the given value.
+     *
+     * @param low the value to be found, from 0 to 65536
+     * @return the least value greater than or equal to the given value,
+     * otherwise {@code -1}
+     */
+    abstract int nextValue(int low);
+
+    /**
+     * Sets the bits for each value in this container.
+     *
+     * @param words a bitmap of 1024 words
+     */
+    abstract void fill(long[] words);
+
+    /**
+     * Returns {@code true} if this container is well formed, as required
+     * for deserialization.
+     *
+     * @return {@code true} if this container is well formed
+     */
+    abstract boolean isValid();
+
+    /**
+     * Returns a bitmap of the values in this container, which may be
+     * modified by the caller.
+     */
+    long[] toWords() {
+        long[] words = new long[BITMAP_WORDS];
+        fill(words);
+        return words;
+    }
+
+    /**
+     * Create a container for the low sixteen bits of the given sorted,
+     * distinct values.
+     *
+     * @param values the array containing the values
+     * @param from the index of the first value
+     * @param to the index after the last value
+     * @return a container holding the values
+     */
+    static IntSetContainer ofSorted(int[] values, int from, int to) {
+        final int card = to - from;
+        int runs = 0;
+        int prev = -2;
+        for(int i = from; i < to; i++) {
+            final int low = values[i] & 0xFFFF;
+            if(low != prev + 1) {
+                runs++;
+            }
+            prev = low;
+        }
+
+        if(runSmallest(card, runs)) {
+            final char[] result = new char[runs * 2];
+            int r = -1;
+            prev = -2;
+            for(int i = from; i < to; i++) {
+                final int low = values[i] & 0xFFFF;
+                if(low != prev + 1) {
+                    result[++r] = (char) low;
+                    r++;
+                } else {
+                    result[r]++;
+                }
+                prev = low;
+            }
+            return new RunContainer(result, card);
+        }
+        if(card <= MAX_ARRAY_SIZE) {
+            final char[] result = new char[card];
+            for(int i = from; i < to; i++) {
+                result[i - from] = (char) values[i];
+            }
+            return new ArrayContainer(result);
+        }
+        final long[] words = new long[BITMAP_WORDS];
+        for(int i = from; i < to; i++) {
+            words[(values[i] & 0xFFFF) >>> 6] |= 1L << values[i];
+        }
+        return new BitmapContainer(words, card);
+    }
+
+    /**
+     * Create a container for the values in the given bitmap.
+     *
+     * @param words a bitmap of 1024 words, which may be retained by the
+     * resulting container
+     * @return a container holding the values, otherwise {@code null} if the
+     * bitmap is empty
+     */
+    static IntSetContainer ofWords(long[] words) {
+        int card = 0;
+        int runs = 0;
+        long carry = 0L;
+        for(long word : words) {
+            card += Long.bitCount(word);
+            // A run starts at each set bit whose preceding bit is clear
+            runs += Long.bitCount(word & ~((word << 1) | carry));
+            carry = word >>> 63;
+        }
+        if(card == 0) {
+            return null;
+        }
+
+        if(runSmallest(card, runs)) {
+            final char[] result = new char[runs * 2];
+            int r = 0;
+            int pos = 0;
+            while((pos = nextSetBit(words, pos)) >= 0) {
+                final int end = nextClearBit(words, pos);
+                result[r++] = (char) pos;
+                result[r++] = (char) (end - pos - 1);
+                pos = end;
+            }
+            return new RunContainer(result, card);
+        }
+        if(card <= MAX_ARRAY_SIZE) {
+            final char[] result = new char[card];
+            int r = 0;
+            for(int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while(word != 0L) {
+                    result[r++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1L;
+                }
+            }
+            return new ArrayContainer(result);
+        }
+        return new BitmapContainer(words, card);
+    }
+
+    private static boolean runSmallest(int card, int runs) {
+        // Sizes in bytes: run containers use 4 per run, arrays 2 per value
+        final int runBytes = runs * 4;
+        return (runBytes < BITMAP_WORDS * 8) && (runBytes < card * 2);
+    }
+
+    private static int nextSetBit(long[] words, int pos) {
+        if(pos >= CHUNK_SIZE) {
+            return -1;
+        }
+        int w = pos >>> 6;
+        long word = words[w] & (-1L << pos);
+        while(word == 0L) {
+            if(++w == words.length) {
+                return -1;
+            }
+            word = words[w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    private static int nextClearBit(long[] words, int pos) {
+        int w = pos >>> 6;
+        long word = ~words[w] & (-1L << pos);
+        while(word == 0L) {
+            if(++w == words.length) {
+                return CHUNK_SIZE;
+            }
+            word = ~words[w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Returns the intersection of the given containers.
+     *
+     * @return the intersection, otherwise {@code null} if it is empty
+     */
+    static IntSetContainer and(IntSetContainer a, IntSetContainer b) {
+        if(b instanceof ArrayContainer) {
+            return ((ArrayContainer) b).filter(a, true);
+        }
+        if(a instanceof ArrayContainer) {
+            return ((ArrayContainer) a).filter(b, true);
+        }
+        final long[] words = a.toWords();
+        if(b instanceof BitmapContainer) {
+            final long[] other = ((BitmapContainer) b).m_Words;
+            for(int w = 0; w < BITMAP_WORDS; w++) {
+                words[w] &= other[w];
+            }
+        } else {
+            final long[] other = b.toWords();
+            for(int w = 0; w < BITMAP_WORDS; w++) {
+                words[w] &= other[w];
+            }
+        }
+        return ofWords(words);
+    }
+
+    /**
+     * Returns the union of the given containers.
+     */
+    static IntSetContainer or(IntSetContainer a, IntSetContainer b) {
+        if((a instanceof ArrayContainer) && (b instanceof ArrayContainer) &&
+                (a.cardinality() + b.cardinality() <= MAX_ARRAY_SIZE)) {
+            return ((ArrayContainer) a).merge((ArrayContainer) b);
+        }
+        final long[] words = a.toWords();
+        b.fill(words);
+        return ofWords(words);
+    }
+
+    /**
+     * Returns the values of the first container that are not in the second.
+     *
+     * @return the difference, otherwise {@code null} if it is empty
+     */
+    static IntSetContainer andNot(IntSetContainer a, IntSetContainer b) {
+        if(a instanceof ArrayContainer) {
+            return ((ArrayContainer) a).filter(b, false);
+        }
+        final long[] words = a.toWords();
+        final long[] other = (b instanceof BitmapContainer) ? ((BitmapContainer) b).m_Words : b.toWords();
+        for(int w = 0; w < BITMAP_WORDS; w++) {
+            words[w] &= ~other[w];
+        }
+        return ofWords(words);
+    }
+
+    /**
+     * Returns the number of values in both of the given containers,
+     * without creating the intersection.
+     */
+    static int andCardinality(IntSetContainer a, IntSetContainer b) {
+        if(b instanceof ArrayContainer) {
+            return ((ArrayContainer) b).countIn(a);
+        }
+        if(a instanceof ArrayContainer) {
+            return ((ArrayContainer) a).countIn(b);
+        }
+        final long[] words = (a instanceof BitmapContainer) ? ((BitmapContainer) a).m_Words : a.toWords();
+        final long[] other = (b instanceof BitmapContainer) ? ((BitmapContainer) b).m_Words : b.toWords();
+        int count = 0;
+        for(int w = 0; w < BITMAP_WORDS; w++) {
+            count += Long.bitCount(words[w] & other[w]);
+        }
+        return count;
+    }
+
+    /**
+     * A container holding up to 4096 sorted values.
+     */
+    static final class ArrayContainer extends IntSetContainer {
+        private final char[] m_Values;
+
+        private static final long serialVersionUID = -1815476409138244021L;
+
+        ArrayContainer(char[] values) {
+            this.m_Values = values;
+        }
+
+        @Override
+        int cardinality() {
+            return m_Values.length;
+        }
+
+        @Override
+        boolean contains(int low) {
+            return Arrays.binarySearch(m_Values, (char) low) >= 0;
+        }
+
+        @Override
+        int select(int rank) {
+            return m_Values[rank];
+        }
+
+        @Override
+        int rank(int low) {
+            if(low >= CHUNK_SIZE) {
+                return m_Values.length;
+            }
+            int idx = Arrays.binarySearch(m_Values, (char) low);
+            return (idx >= 0) ? idx : -(idx + 1);
+        }
+
+        @Override
+        int nextValue(int low) {
+            int idx = rank(low);
+            return (idx < m_Values.length) ? m_Values[idx] : -1;
+        }
+
+        @Override
+        void fill(long[] words) {
+            for(char value : m_Values) {
+                words[value >>> 6] |= 1L << value;
+            }
+        }
+
+        @Override
+        boolean isValid() {
+            if((m_Values == null) || (m_Values.length == 0) || (m_Values.length > MAX_ARRAY_SIZE)) {
+                return false;
+            }
+            for(int i = 1; i < m_Values.length; i++) {
+                if(m_Values[i - 1] >= m_Values[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        IntSetContainer filter(IntSetContainer other, boolean keep) {
+            final char[] result = new char[m_Values.length];
+            int count = 0;
+            for(char value : m_Values) {
+                if(other.contains(value) == keep) {
+                    result[count++] = value;
+                }
+            }
+            if(count == 0) {
+                return null;
+            }
+            return new ArrayContainer((count == result.length) ? result : Arrays.copyOf(result, count));
+        }
+
+        int countIn(IntSetContainer other) {
+            int count = 0;
+            for(char value : m_Values) {
+                if(other.contains(value)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        IntSetContainer merge(ArrayContainer other) {
+            final char[] a = m_Values;
+            final char[] b = other.m_Values;
+            final char[] result = new char[a.length + b.length];
+            int i = 0, j = 0, count = 0;
+            while((i < a.length) && (j < b.length)) {
+                if(a[i] < b[j]) {
+                    result[count++] = a[i++];
+                } else if(a[i] > b[j]) {
+                    result[count++] = b[j++];
+                } else {
+                    result[count++] = a[i++];
+                    j++;
+                }
+            }
+            while(i < a.length) {
+                result[count++] = a[i++];
+            }
+            while(j < b.length) {
+                result[count++] = b[j++];
+            }
+            return new ArrayContainer((count == result.length) ? result : Arrays.copyOf(result, count));
+        }
+    }
+
+    /**
+     * A container holding one bit for each value in the chunk.
+     */
+    static final class BitmapContainer extends IntSetContainer {
+        private final long[] m_Words;
+        private final int m_Cardinality;
+
+        private static final long serialVersionUID = 2876402374011958306L;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.m_Words = words;
+            this.m_Cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return m_Cardinality;
+        }
+
+        @Override
+        boolean contains(int low) {
+            return (m_Words[low >>> 6] & (1L << low)) != 0L;
+        }
+
+        @Override
+        int select(int rank) {
+            int w = 0;
+            int count;
+            while(rank >= (count = Long.bitCount(m_Words[w]))) {
+                rank -= count;
+                w++;
+            }
+            long word = m_Words[w];
+            for(int i = 0; i < rank; i++) {
+                word &= word - 1L;
+            }
+            return (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+
+        @Override
+        int rank(int low) {
+            if(low >= CHUNK_SIZE) {
+                return m_Cardinality;
+            }
+            final int word = low >>> 6;
+            int count = 0;
+            for(int w = 0; w < word; w++) {
+                count += Long.bitCount(m_Words[w]);
+            }
+            return count + Long.bitCount(m_Words[word] & ((1L << low) - 1L));
+        }
+
+        @Override
+        int nextValue(int low) {
+            return nextSetBit(m_Words, low);
+        }
+
+        @Override
+        void fill(long[] words) {
+            for(int w = 0; w < BITMAP_WORDS; w++) {
+                words[w] |= m_Words[w];
+            }
+        }
+
+        @Override
+        long[] toWords() {
+            return m_Words.clone();
+        }
+
+        @Override
+        boolean isValid() {
+            if((m_Words == null) || (m_Words.length != BITMAP_WORDS)) {
+                return false;
+            }
+            int count = 0;
+            for(long word : m_Words) {
+                count += Long.bitCount(word);
+            }
+            return (count > 0) && (count == m_Cardinality);
+        }
+    }
+
+    /**
+     * A container holding runs of consecutive values, as pairs of the start
+     * of each run and its length less one.
+     */
+    static final class RunContainer extends IntSetContainer {
+        private final char[] m_Runs;
+        private final int m_Cardinality;
+
+        private static final long serialVersionUID = -5046307218860591417L;
+
+        RunContainer(char[] runs, int cardinality) {
+            this.m_Runs = runs;
+            this.m_Cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return m_Cardinality;
+        }
+
+        @Override
+        boolean contains(int low) {
+            int run = runAtOrBefore(low);
+            return (run >= 0) && (low <= m_Runs[run * 2] + m_Runs[run * 2 + 1]);
+        }
+
+        /**
+         * Returns the index of the last run starting at or before the given
+         * value, otherwise {@code -1}.
+         */
+        private int runAtOrBefore(int low) {
+            int lo = 0;
+            int hi = (m_Runs.length / 2) - 1;
+            while(lo <= hi) {
+                final int mid = (lo + hi) >>> 1;
+                if(m_Runs[mid * 2] <= low) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return hi;
+        }
+
+        @Override
+        int select(int rank) {
+            for(int r = 0; r < m_Runs.length; r += 2) {
+                final int length = m_Runs[r + 1] + 1;
+                if(rank < length) {
+                    return m_Runs[r] + rank;
+                }
+                rank -= length;
+            }
+            throw new IndexOutOfBoundsException("rank: " + rank);
+        }
+
+        @Override
+        int rank(int low) {
+            int count = 0;
+            for(int r = 0; r < m_Runs.length; r += 2) {
+                final int start = m_Runs[r];
+                if(low <= start) {
+                    break;
+                }
+                count += Math.min(low - start, m_Runs[r + 1] + 1);
+            }
+            return count;
+        }
+
+        @Override
+        int nextValue(int low) {
+            int run = runAtOrBefore(low);
+            if((run >= 0) && (low <= m_Runs[run * 2] + m_Runs[run * 2 + 1])) {
+                return low;
+            }
+            run++;
+            return (run * 2 < m_Runs.length) ? m_Runs[run * 2] : -1;
+        }
+
+        @Override
+        void fill(long[] words) {
+            for(int r = 0; r < m_Runs.length; r += 2) {
+                final int start = m_Runs[r];
+                final int end = start + m_Runs[r + 1] + 1;
+                final int startWord = start >>> 6;
+                final int endWord = (end - 1) >>> 6;
+                if(startWord == endWord) {
+                    words[startWord] |= (-1L << start) & (-1L >>> -end);
+                } else {
+                    words[startWord] |= -1L << start;
+                    for(int w = startWord + 1; w < endWord; w++) {
+                        words[w] = -1L;
+                    }
+                    words[endWord] |= -1L >>> -end;
+                }
+            }
+        }
+
+        @Override
+        boolean isValid() {
+            if((m_Runs == null) || (m_Runs.length == 0) || ((m_Runs.length % 2) != 0)) {
+                return false;
+            }
+            int count = 0;
+            int prevEnd = -2;
+            for(int r = 0; r < m_Runs.length; r += 2) {
+                final int start = m_Runs[r];
+                final int end = start + m_Runs[r + 1];
+                // Runs must be ascending, not adjacent, and within the chunk
+                if((start <= prevEnd + 1) || (end >= CHUNK_SIZE)) {
+                    return false;
+                }
+                count += m_Runs[r + 1] + 1;
+                prevEnd = end;
+            }
+            return count == m_Cardinality;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only file mapped into memory, addressed by byte offset. Values
+ * are read in big-endian order.
+ * <p>
+ * Mapping is lazy, so opening a file of any size is immediate, and only
+ * the pages that are read are loaded by the operating system. The file is
+ * mapped as a series of buffers of at most 1 GiB each. Unlike
+ * {@link OffHeapRegion}, values need not be aligned, and a value spanning
+ * two buffers is read a byte at a time.
+ * </p>
+ * <p>
+ * Releasing the region drops the buffers, so that any further access
+ * fails, but the mapping itself is removed only when the buffers are
+ * collected. The file should be on a local disk, since a mapped file
+ * truncated or changed by another process may fail unpredictably.
+ * </p>
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+final class MappedFileRegion {
+
+    // Each buffer maps 1 GiB of the file
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1L;
+
+    private final long m_ByteSize;
+    private MappedByteBuffer[] m_Chunks;
+
+    private MappedFileRegion(long byteSize, MappedByteBuffer[] chunks) {
+        this.m_ByteSize = byteSize;
+        this.m_Chunks = chunks;
+    }
+
+    /**
+     * Map the whole of the given file into memory, read-only.
+     *
+     * @param file the file to be mapped
+     * @return a new region mapping the file
+     * @throws IOException the file could not be opened or mapped
+     */
+    static MappedFileRegion map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long byteSize = channel.size();
+            final int count = (int) ((byteSize + CHUNK_MASK) >>> CHUNK_SHIFT);
+            final MappedByteBuffer[] chunks = new MappedByteBuffer[count];
+            for(int i = 0; i < count; i++) {
+                final long position = (long) i << CHUNK_SHIFT;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(byteSize - position, 1L << CHUNK_SHIFT));
+            }
+            return new MappedFileRegion(byteSize, chunks);
+        }
+    }
+
+    /**
+     * Returns the size of the mapped file in bytes.
+     *
+     * @return the size of the mapped file in bytes
+     */
+    long byteSize() {
+        return m_ByteSize;
+    }
+
+    byte getByte(long offset) {
+        return chunks()[(int) (offset >>> CHUNK_SHIFT)].get((int) (offset & CHUNK_MASK));
+    }
+
+    int getInt(long offset) {
+        final MappedByteBuffer[] chunks = chunks();
+        final int index = (int) (offset & CHUNK_MASK);
+        final MappedByteBuffer chunk = chunks[(int) (offset >>> CHUNK_SHIFT)];
+        if(index <= chunk.limit() - Integer.BYTES) {
+            return chunk.getInt(index);
+        }
+        int value = 0;
+        for(int i = 0; i < Integer.BYTES; i++) {
+            value = (value << 8) | (getByte(offset + i) & 0xFF);
+        }
+        return value;
+    }
+
+    long getLong(long offset) {
+        final MappedByteBuffer[] chunks = chunks();
+        final int index = (int) (offset & CHUNK_MASK);
+        final MappedByteBuffer chunk = chunks[(int) (offset >>> CHUNK_SHIFT)];
+        if(index <= chunk.limit() - Long.BYTES) {
+            return chunk.getLong(index);
+        }
+        long value = 0L;
+        for(int i = 0; i < Long.BYTES; i++) {
+            value = (value << 8) | (getByte(offset + i) & 0xFFL);
+        }
+        return value;
+    }
+
+    /**
+     * Copy a range of the file into a new array of bytes.
+     *
+     * @param offset the offset of the first byte to be copied
+     * @param length the number of bytes to be copied
+     * @return a new array holding the bytes
+     */
+    byte[] getBytes(long offset, int length) {
+        final MappedByteBuffer[] chunks = chunks();
+        final byte[] bytes = new byte[length];
+        int done = 0;
+        while(done < length) {
+            final long position = offset + done;
+            final ByteBuffer chunk = chunks[(int) (position >>> CHUNK_SHIFT)].duplicate();
+            chunk.position((int) (position & CHUNK_MASK));
+            final int len = Math.min(length - done, chunk.remaining());
+            chunk.get(bytes, done, len);
+            done += len;
+        }
+        return bytes;
+    }
+
+    private MappedByteBuffer[] chunks() {
+        final MappedByteBuffer[] chunks = m_Chunks;
+        if(chunks == null) {
+            throw new IllegalStateException("mapped file has been released");
+        }
+        return chunks;
+    }
+
+    /**
+     * Returns {@code true} if this region has been released.
+     *
+     * @return {@code true} if this region has been released, otherwise
+     * {@code false}
+     */
+    synchronized boolean isReleased() {
+        return m_Chunks == null;
+    }
+
+    /**
+     * Release this region. Any further access fails with an
+     * {@code IllegalStateException}. Releasing a region more than once has
+     * no further effect.
+     */
+    synchronized void release() {
+        m_Chunks = null;
+    }
+}
@@ -0,0 +1,161 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Writes the file read by {@link ImmutableMappedHashedMap}, in a single
+ * sequential pass over the records. The slot tables are built on the heap
+ * as the records are written, then written after them.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+final class MappedHashedMapWriter {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private MappedHashedMapWriter() {
+    }
+
+    /**
+     * Write the given keys and values to a new hashed map file, replacing
+     * any existing file. The map is written to a new file beside the given
+     * file, then moved over it, so an existing file is left unchanged if
+     * the map cannot be written, and a map still open on it keeps its
+     * contents.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     * @param file the file to be written
+     * @param keys the keys, in insertion order
+     * @param values the values, in the same order as the keys
+     * @param size the number of keys and values
+     * @param biMap {@code true} if the values must be distinct, and are to
+     *              be indexed
+     * @param keyCodec the codec for encoding the keys
+     * @param valueCodec the codec for encoding the values
+     * @throws IOException the file could not be written
+     * @throws IllegalStateException there was a duplicate key or value
+     * @throws NullPointerException if a key or value is {@code null}
+     */
+    static <K,V> void write(Path file, Object[] keys, Object[] values, int size, boolean biMap,
+                            Codec<K> keyCodec, Codec<V> valueCodec) throws IOException {
+        checkDistinct(keys, size, "duplicate key");
+        if(biMap) {
+            checkDistinct(values, size, "duplicate value");
+        }
+
+        final Path temp = ChannelWriter.createSibling(file);
+        boolean written = false;
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                writeMap(channel, keys, values, size, biMap, keyCodec, valueCodec);
+            }
+            ChannelWriter.replace(temp, file);
+            written = true;
+        } finally {
+            if(!written) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K,V> void writeMap(FileChannel channel, Object[] keys, Object[] values, int size, boolean biMap,
+                                       Codec<K> keyCodec, Codec<V> valueCodec) throws IOException {
+        final int capacity = ImmutableMappedHashedMap.slotCapacity(size);
+        final long slotsOffset = ImmutableMappedHashedMap.HEADER_SIZE + (long) size * Long.BYTES;
+        final long slotsLength = (long) capacity * ImmutableMappedHashedMap.SLOT_SIZE;
+        final long recordsOffset = slotsOffset + (biMap ? slotsLength * 2L : slotsLength);
+        final SlotTable keySlots = new SlotTable(capacity);
+        final SlotTable valueSlots = biMap ? new SlotTable(capacity) : null;
+
+        final ChannelWriter offsets = new ChannelWriter(channel, ImmutableMappedHashedMap.HEADER_SIZE, BUFFER_SIZE);
+        final ChannelWriter records = new ChannelWriter(channel, recordsOffset, BUFFER_SIZE);
+        for(int i = 0; i < size; i++) {
+            final byte[] keyBytes = keyCodec.encode((K) Objects.requireNonNull(keys[i], "key must not be null"));
+            final byte[] valueBytes = valueCodec.encode((V) Objects.requireNonNull(values[i], "value must not be null"));
+            final long position = records.position();
+            offsets.putLong(position);
+            records.putInt(keyBytes.length);
+            records.putInt(valueBytes.length);
+            records.put(keyBytes);
+            records.put(valueBytes);
+            keySlots.insert(ImmutableMappedHashedMap.hash(keyBytes), i, position);
+            if(valueSlots != null) {
+                valueSlots.insert(ImmutableMappedHashedMap.hash(valueBytes), i, position);
+            }
+        }
+        offsets.flush();
+        records.flush();
+
+        final ChannelWriter slots = new ChannelWriter(channel, slotsOffset, BUFFER_SIZE);
+        keySlots.writeTo(slots);
+        if(valueSlots != null) {
+            valueSlots.writeTo(slots);
+        }
+        slots.flush();
+
+        final ChannelWriter header = new ChannelWriter(channel, 0L, ImmutableMappedHashedMap.HEADER_SIZE);
+        header.putInt(ImmutableMappedHashedMap.MAGIC);
+        header.putInt(ImmutableMappedHashedMap.VERSION);
+        header.putInt(biMap ? ImmutableMappedHashedMap.FLAG_BIMAP : 0);
+        header.putInt(size);
+        header.putInt(capacity);
+        header.putInt(0);
+        header.putLong(slotsOffset);
+        header.flush();
+        channel.force(true);
+    }
+
+    private static void checkDistinct(Object[] elements, int size, String message) {
+        final Set<Object> dups = new HashSet<>(size);
+        for(int i = 0; i < size; i++) {
+            if(!dups.add(elements[i])) {
+                throw new IllegalStateException(message);
+            }
+        }
+    }
+
+    /**
+     * An open-addressed table of slots with linear probing, each slot
+     * holding a hash, the entry index plus one, and the record offset.
+     */
+    private static final class SlotTable {
+        private final int[] m_Hashes;
+        private final int[] m_Indexes;
+        private final long[] m_Offsets;
+
+        SlotTable(int capacity) {
+            m_Hashes = new int[capacity];
+            m_Indexes = new int[capacity];
+            m_Offsets = new long[capacity];
+        }
+
+        void insert(int hash, int index, long offset) {
+            final int mask = m_Indexes.length - 1;
+            int slot = hash & mask;
+            while(m_Indexes[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            m_Hashes[slot] = hash;
+            m_Indexes[slot] = index + 1;
+            m_Offsets[slot] = offset;
+        }
+
+        void writeTo(ChannelWriter writer) throws IOException {
+            for(int i = 0; i < m_Indexes.length; i++) {
+                writer.putInt(m_Hashes[i]);
+                writer.putInt(m_Indexes[i]);
+                writer.putLong(m_Offsets[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package net.njcull.collections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A minimal perfect hash function over a fixed set of hash codes, in the
+ * style of BBHash. Each distinct hash code in the set is mapped to a unique
+ * position between zero and the number of hash codes, with no gaps.
+ * <p>
+ * The function is a cascade of bit arrays, one per level. At each level,
+ * hash codes are mixed with the level number and mapped to a bit. Bits hit by
+ * exactly one hash code are set, and that hash code is placed; colliding hash
+ * codes fall through to the next level. The position of a placed hash code
+ * is the rank of its bit, that is, the number of set bits before it, which
+ * is found using precomputed counts for each block of bits. Each level is
+ * the same size as the number of hash codes it receives, giving about three
+ * bits per hash code in total.
+ * </p>
+ * <p>
+ * Hash codes that are never placed, such as equal hash codes for unequal
+ * keys, are assigned the overflow positions following all placed positions.
+ * Overflow positions are ordered by hash code, and the overflow hash codes
+ * are kept, so that they can be found with a binary search. Since bits are
+ * only set for a single hash code, overflow hash codes never encounter a set
+ * bit.
+ * </p>
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+final class MinimalPerfectHash {
+
+    private static final int MAX_LEVELS = 40;
+
+    // Number of 64-bit words per rank block
+    private static final int BLOCK_WORDS = 8;
+
+    private final long[] m_Bits;
+    private final int[] m_LevelOffsets;
+    private final int[] m_Ranks;
+    private final int m_PlacedCount;
+    private final int[] m_OverflowHashCodes;
+
+    private MinimalPerfectHash(long[] bits, int[] levelOffsets, int[] overflowHashCodes) {
+        this.m_Bits = bits;
+        this.m_LevelOffsets = levelOffsets;
+        this.m_OverflowHashCodes = overflowHashCodes;
+        this.m_Ranks = new int[(bits.length + BLOCK_WORDS - 1) / BLOCK_WORDS];
+
+        int count = 0;
+        for(int w = 0; w < bits.length; w++) {
+            if((w % BLOCK_WORDS) == 0) {
+                m_Ranks[w / BLOCK_WORDS] = count;
+            }
+            count += Long.bitCount(bits[w]);
+        }
+        this.m_PlacedCount = count;
+    }
+
+    /**
+     * Build a minimal perfect hash function over the given hash codes,
+     * held in chunks.
+     *
+     * @param hashCodes the hash codes of the keys to be hashed
+     * @return a minimal perfect hash function over the given hash codes
+     */
+    static MinimalPerfectHash build(int[][] hashCodes) {
+        final int size = ChunkedArrays.length(hashCodes);
+        final int[][] remaining = ChunkedArrays.newIntChunks(size);
+        for(int c = 0; c < hashCodes.length; c++) {
+            System.arraycopy(hashCodes[c], 0, remaining[c], 0, hashCodes[c].length);
+        }
+        int remainingCount = size;
+
+        final List<long[]> levels = new ArrayList<>();
+        while((remainingCount > 0) && (levels.size() < MAX_LEVELS)) {
+            final int level = levels.size();
+            final int bits = levelSize(remainingCount);
+            final long[] seen = new long[bits >>> 6];
+            final long[] collisions = new long[bits >>> 6];
+
+            for(int i = 0; i < remainingCount; i++) {
+                final int slot = slot(ChunkedArrays.get(remaining, i), level, bits);
+                final long mask = 1L << slot;
+                if((seen[slot >>> 6] & mask) != 0) {
+                    collisions[slot >>> 6] |= mask;
+                } else {
+                    seen[slot >>> 6] |= mask;
+                }
+            }
+            for(int w = 0; w < seen.length; w++) {
+                seen[w] &= ~collisions[w];
+            }
+
+            // Keep only the hash codes that were not placed at this level
+            int count = 0;
+            for(int i = 0; i < remainingCount; i++) {
+                final int hashCode = ChunkedArrays.get(remaining, i);
+                final int slot = slot(hashCode, level, bits);
+                if((seen[slot >>> 6] & (1L << slot)) == 0) {
+                    ChunkedArrays.set(remaining, count++, hashCode);
+                }
+            }
+            levels.add(seen);
+            if(count == remainingCount) {
+                // No progress, such as where all remaining hash codes are equal
+                break;
+            }
+            remainingCount = count;
+        }
+
+        int words = 0;
+        for(long[] level : levels) {
+            words += level.length;
+        }
+        final long[] bits = new long[words];
+        final int[] levelOffsets = new int[levels.size() + 1];
+        int offset = 0;
+        for(int i = 0; i < levels.size(); i++) {
+            final long[] level = levels.get(i);
+            System.arraycopy(level, 0, bits, offset, level.length);
+            levelOffsets[i] = offset << 6;
+            offset += level.length;
+        }
+        levelOffsets[levels.size()] = offset << 6;
+
+        final int[] overflowHashCodes = new int[remainingCount];
+        for(int i = 0; i < remainingCount; i++) {
+            overflowHashCodes[i] = ChunkedArrays.get(remaining, i);
+        }
+        Arrays.sort(overflowHashCodes);
+
+        return new MinimalPerfectHash(bits, levelOffsets, overflowHashCodes);
+    }
+
+    /**
+     * Returns the position of the given hash code, if it was placed by this
+     * function. A hash code that was not in the original set may return any
+     * position, so the key at the position must be tested for equality.
+     *
+     * @param hashCode the hash code to be found
+     * @return the position of the hash code, otherwise {@code -1} if the
+     * hash code was not placed, and the overflow positions must be searched
+     */
+    int positionOf(int hashCode) {
+        final int levels = m_LevelOffsets.length - 1;
+        for(int level = 0; level < levels; level++) {
+            final int offset = m_LevelOffsets[level];
+            final int bit = offset + slot(hashCode, level, m_LevelOffsets[level + 1] - offset);
+            if((m_Bits[bit >>> 6] & (1L << bit)) != 0) {
+                return rank(bit);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the first overflow position holding the given hash code. Any
+     * further overflow positions holding the same hash code follow it.
+     *
+     * @param hashCode the hash code to be found
+     * @return the first overflow position of the hash code, otherwise
+     * {@code -1} if no overflow position holds the hash code
+     */
+    int overflowPositionOf(int hashCode) {
+        final int idx = firstOverflowIndexOf(hashCode);
+        return (idx >= 0) ? m_PlacedCount + idx : -1;
+    }
+
+    /**
+     * Returns the hash code held at the given overflow position.
+     *
+     * @param position an overflow position, between the first overflow
+     *                 position and the number of hash codes
+     * @return the hash code at the overflow position
+     */
+    int overflowHashCodeAt(int position) {
+        return m_OverflowHashCodes[position - m_PlacedCount];
+    }
+
+    private int firstOverflowIndexOf(int hashCode) {
+        final int[] overflow = m_OverflowHashCodes;
+        int low = 0;
+        int high = overflow.length;
+        while(low < high) {
+            final int mid = (low + high) >>> 1;
+            if(overflow[mid] < hashCode) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return ((low < overflow.length) && (overflow[low] == hashCode)) ? low : -1;
+    }
+
+    /**
+     * Returns the positions of each of the hash codes this function was built
+     * from. Hash codes that were not placed are assigned overflow positions
+     * in hash code order, and equal hash codes in the order given.
+     *
+     * @param hashCodes the hash codes this function was built from, in
+     *                  chunks
+     * @return the position of each hash code, in chunks
+     */
+    int[][] positions(int[][] hashCodes) {
+        final int size = ChunkedArrays.length(hashCodes);
+        final int[][] positions = ChunkedArrays.newIntChunks(size);
+        // The number of entries already assigned each run of equal overflow
+        // hash codes, indexed by the start of the run
+        final int[] assigned = new int[m_OverflowHashCodes.length];
+        for(int i = 0; i < size; i++) {
+            final int hashCode = ChunkedArrays.get(hashCodes, i);
+            int pos = positionOf(hashCode);
+            if(pos < 0) {
+                final int idx = firstOverflowIndexOf(hashCode);
+                pos = m_PlacedCount + idx + assigned[idx]++;
+            }
+            ChunkedArrays.set(positions, i, pos);
+        }
+        return positions;
+    }
+
+    /**
+     * Reorder the keys and values of a map in place, so that each entry is
+     * moved to its position. Keys are stored in the first half of the array,
+     * and values in the second half.
+     *
+     * @param map the array of keys followed by values to be reordered
+     * @param positions the position of each entry, in chunks, which is also
+     *                  reordered
+     */
+    static void permute(Object[] map, int[][] positions) {
+        final int size = ChunkedArrays.length(positions);
+        for(int i = 0; i < size; i++) {
+            int target;
+            while((target = ChunkedArrays.get(positions, i)) != i) {
+                swap(map, i, target);
+                swap(map, size + i, size + target);
+                settle(positions, i, target);
+            }
+        }
+    }
+
+    /**
+     * Reorder the keys of a map in place, along with the codes of its
+     * dictionary encoded values, so that each entry is moved to its position.
+     *
+     * @param keys the array of keys to be reordered
+     * @param values the dictionary encoded values to be reordered
+     * @param positions the position of each entry, in chunks, which is also
+     *                  reordered
+     */
+    static void permute(Object[] keys, ValueDictionary values, int[][] positions) {
+        final int size = ChunkedArrays.length(positions);
+        for(int i = 0; i < size; i++) {
+            int target;
+            while((target = ChunkedArrays.get(positions, i)) != i) {
+                swap(keys, i, target);
+                values.swap(i, target);
+                settle(positions, i, target);
+            }
+        }
+    }
+
+    /**
+     * Reorder the keys and values of a map held in chunks in place, as for
+     * {@link #permute(Object[], int[][])}.
+     *
+     * @param map the chunks of keys followed by values to be reordered
+     * @param positions the position of each entry, in chunks, which is also
+     *                  reordered
+     */
+    static void permute(Object[][] map, int[][] positions) {
+        final int size = ChunkedArrays.length(positions);
+        for(int i = 0; i < size; i++) {
+            int target;
+            while((target = ChunkedArrays.get(positions, i)) != i) {
+                ChunkedArrays.swap(map, i, target);
+                ChunkedArrays.swap(map, size + i, size + target);
+                settle(positions, i, target);
+            }
+        }
+    }
+
+    /**
+     * Reorder the keys of a map held in chunks in place, along with the
+     * codes of its dictionary encoded values, as for
+     * {@link #permute(Object[], ValueDictionary, int[][])}.
+     *
+     * @param keys the chunks of keys to be reordered
+     * @param values the dictionary encoded values to be reordered
+     * @param positions the position of each entry, in chunks, which is also
+     *                  reordered
+     */
+    static void permute(Object[][] keys, ValueDictionary values, int[][] positions) {
+        final int size = ChunkedArrays.length(positions);
+        for(int i = 0; i < size; i++) {
+            int target;
+            while((target = ChunkedArrays.get(positions, i)) != i) {
+                ChunkedArrays.swap(keys, i, target);
+                values.swap(i, target);
+                settle(positions, i, target);
+            }
+        }
+    }
+
+    /**
+     * After the entry at index {@code i} has been swapped with its target,
+     * take over the target's position, and mark the target as settled.
+     */
+    private static void settle(int[][] positions, int i, int target) {
+        ChunkedArrays.set(positions, i, ChunkedArrays.get(positions, target));
+        ChunkedArrays.set(positions, target, target);
+    }
+
+    private static void swap(Object[] arr, int i, int j) {
+        final Object tmp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = tmp;
+    }
+
+    private int rank(int bit) {
+        final int word = bit >>> 6;
+        final int block = word / BLOCK_WORDS;
+        int rank = m_Ranks[block];
+        for(int w = block * BLOCK_WORDS; w < word; w++) {
+            rank += Long.bitCount(m_Bits[w]);
+        }
+        return rank + Long.bitCount(m_Bits[word] & ((1L << bit) - 1L));
+    }
+
+    private static int levelSize(int count) {
+        // At least one word, rounded up to a whole number of words
+        return Math.max(64, (count + 63) & ~63);
+    }
+
+    private static int slot(int hashCode, int level, int bits) {
+        long h = (hashCode & 0xFFFFFFFFL) + (level + 1) * 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        h ^= (h >>> 33);
+        return (int) (((h >>> 32) * bits) >>> 32);
+    }
+}
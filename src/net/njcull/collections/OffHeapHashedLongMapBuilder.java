@@ -0,0 +1,156 @@
+package net.njcull.collections;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Builder for the {@link OffHeapHashedLongMap} class. Keys and values are
+ * gathered on the heap, and copied outside the heap when the map is built.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class OffHeapHashedLongMapBuilder {
+    private long[] m_Keys = EMPTY_LONGS;
+    private long[] m_Values = EMPTY_LONGS;
+    private int m_Size = 0;
+
+    private static final long[] EMPTY_LONGS = new long[0];
+
+    /**
+     * Create a new builder instance that builds a new off-heap hashed long
+     * map.
+     *
+     * @return a new builder for building a new map
+     */
+    public static OffHeapHashedLongMapBuilder newMap() {
+        return new OffHeapHashedLongMapBuilder();
+    }
+
+    /**
+     * Create a new builder instance for constructing a new off-heap hashed
+     * long map.
+     */
+    public OffHeapHashedLongMapBuilder() {
+    }
+
+    /**
+     * Add the given key and value pair to the resulting map.
+     *
+     * @param key the key to be added
+     * @param value the value to be added
+     * @return this builder, for chaining purposes
+     */
+    public OffHeapHashedLongMapBuilder with(long key, long value) {
+        ensureCapacity(1);
+        m_Keys[m_Size] = key;
+        m_Values[m_Size++] = value;
+        return this;
+    }
+
+    /**
+     * Add the given key and value pair to the resulting map.
+     *
+     * @param entry the key and value pair to be added
+     * @return this builder, for chaining purposes
+     * @throws NullPointerException if the key or value is {@code null}
+     */
+    public OffHeapHashedLongMapBuilder with(Map.Entry<? extends Long, ? extends Long> entry) {
+        return with(Objects.requireNonNull(entry.getKey(), "key must not be null").longValue(),
+                Objects.requireNonNull(entry.getValue(), "value must not be null").longValue());
+    }
+
+    /**
+     * All the key and value pairs of the supplied map will be added to the
+     * resulting map. An {@code ArrayBackedMap} is read by index, without
+     * creating entry objects.
+     *
+     * @param map the map of keys and values to be added
+     * @return this builder, for chaining purposes
+     * @throws NullPointerException if a key or value is {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public OffHeapHashedLongMapBuilder with(Map<? extends Long, ? extends Long> map) {
+        final int size = map.size();
+        ensureCapacity(size);
+        if(map instanceof ArrayBackedMap) {
+            final ArrayBackedMap<? extends Long, ? extends Long> abm = (ArrayBackedMap<? extends Long, ? extends Long>) map;
+            for(int i = 0; i < size; i++) {
+                with(Objects.requireNonNull(abm.keyAt(i), "key must not be null").longValue(),
+                        Objects.requireNonNull(abm.valueAt(i), "value must not be null").longValue());
+            }
+        } else {
+            for(Map.Entry<? extends Long, ? extends Long> entry : map.entrySet()) {
+                with(entry);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * For the stream combiner, merge the entries from the supplied builder
+     * to this builder.
+     *
+     * @param entries the builder containing the entries to be merged into
+     * this builder
+     * @return this builder containing the merged items
+     */
+    public OffHeapHashedLongMapBuilder merge(OffHeapHashedLongMapBuilder entries) {
+        int len = entries.m_Size;
+        ensureCapacity(len);
+        System.arraycopy(entries.m_Keys, 0, m_Keys, m_Size, len);
+        System.arraycopy(entries.m_Values, 0, m_Values, m_Size, len);
+        m_Size += len;
+        return this;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if(m_Keys.length - m_Size < capacity) {
+            int newLength = Math.max(m_Size + capacity, m_Keys.length + (m_Keys.length >> 1));
+            // round up to divisible by 8
+            newLength += (8 - (newLength % 8)) % 8;
+            m_Keys = Arrays.copyOf(m_Keys, newLength);
+            m_Values = Arrays.copyOf(m_Values, newLength);
+        }
+    }
+
+    /**
+     * Returns the number of key and value pairs in this builder.
+     *
+     * @return the number of key and value pairs in this builder
+     */
+    public int size() {
+        return m_Size;
+    }
+
+    /**
+     * Build the off-heap hashed long map. Entries are kept in the order they
+     * were added.
+     * <p>
+     * Each call returns a distinct map, each of which must be closed
+     * separately.
+     *
+     * @return an OffHeapHashedLongMap containing the entries in the builder
+     * @throws IllegalStateException a key was added more than once
+     * @throws IllegalArgumentException too many keys were added for the
+     * hash table
+     * @throws OutOfMemoryError the memory outside the heap could not be
+     * allocated
+     */
+    public OffHeapHashedLongMap build() {
+        return OffHeapHashedLongMap.fromEntries(m_Keys, m_Values, m_Size);
+    }
+
+    /**
+     * Reset this builder to its initial state.
+     *
+     * @return this builder, for chaining purposes
+     */
+    public OffHeapHashedLongMapBuilder clear() {
+        m_Keys = EMPTY_LONGS;
+        m_Values = EMPTY_LONGS;
+        m_Size = 0;
+        return this;
+    }
+}
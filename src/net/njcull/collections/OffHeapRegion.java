@@ -0,0 +1,119 @@
+package net.njcull.collections;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A fixed-size region of memory outside the Java heap, addressed by byte
+ * offset, holding {@code long} and {@code int} values in native byte order.
+ * Memory outside the heap is never scanned or copied by the garbage
+ * collector.
+ * <p>
+ * This is the Java 8 implementation, a series of direct byte buffers of at
+ * most 1 GiB each. Releasing the region drops the buffers, so that any
+ * further access fails, but the memory itself is returned only when the
+ * buffers are collected. Direct buffers are also limited in total by the
+ * {@code -XX:MaxDirectMemorySize} option. The library is packaged as a
+ * multi-release JAR, and on Java 22 and later this class is replaced by
+ * one backed by a {@code MemorySegment}, released immediately by closing
+ * its {@code Arena}.
+ * </p>
+ * <p>
+ * Offsets of {@code long} values must be multiples of 8, and offsets of
+ * {@code int} values multiples of 4, so that no value spans two buffers.
+ * </p>
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+final class OffHeapRegion {
+
+    // Each buffer holds 1 GiB, a multiple of 8 bytes
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1L;
+
+    private final long m_ByteSize;
+    // Volatile so that a release on one thread is seen by readers on others
+    private volatile ByteBuffer[] m_Chunks;
+
+    private OffHeapRegion(long byteSize, ByteBuffer[] chunks) {
+        this.m_ByteSize = byteSize;
+        this.m_Chunks = chunks;
+    }
+
+    /**
+     * Allocate a new region of zeroed memory outside the Java heap.
+     *
+     * @param byteSize the size of the region in bytes
+     * @return a new region of the given size
+     * @throws IllegalArgumentException if the size is negative
+     * @throws OutOfMemoryError if the memory could not be allocated
+     */
+    static OffHeapRegion allocate(long byteSize) {
+        if(byteSize < 0L) {
+            throw new IllegalArgumentException("byteSize must not be negative");
+        }
+        final int count = (int) ((byteSize + CHUNK_MASK) >>> CHUNK_SHIFT);
+        final ByteBuffer[] chunks = new ByteBuffer[count];
+        for(int i = 0; i < count; i++) {
+            final long remaining = byteSize - ((long) i << CHUNK_SHIFT);
+            chunks[i] = ByteBuffer.allocateDirect((int) Math.min(remaining, 1L << CHUNK_SHIFT))
+                    .order(ByteOrder.nativeOrder());
+        }
+        return new OffHeapRegion(byteSize, chunks);
+    }
+
+    /**
+     * Returns the size of this region in bytes.
+     *
+     * @return the size of this region in bytes
+     */
+    long byteSize() {
+        return m_ByteSize;
+    }
+
+    // Accessors by byte offset, which must be aligned to the value size
+
+    long getLong(long offset) {
+        return chunk(offset).getLong((int) (offset & CHUNK_MASK));
+    }
+
+    void putLong(long offset, long value) {
+        chunk(offset).putLong((int) (offset & CHUNK_MASK), value);
+    }
+
+    int getInt(long offset) {
+        return chunk(offset).getInt((int) (offset & CHUNK_MASK));
+    }
+
+    void putInt(long offset, int value) {
+        chunk(offset).putInt((int) (offset & CHUNK_MASK), value);
+    }
+
+    private ByteBuffer chunk(long offset) {
+        final ByteBuffer[] chunks = m_Chunks;
+        if(chunks == null) {
+            throw new IllegalStateException("off-heap memory has been released");
+        }
+        return chunks[(int) (offset >>> CHUNK_SHIFT)];
+    }
+
+    /**
+     * Returns {@code true} if this region has been released.
+     *
+     * @return {@code true} if this region has been released, otherwise
+     * {@code false}
+     */
+    synchronized boolean isReleased() {
+        return m_Chunks == null;
+    }
+
+    /**
+     * Release this region. Any further access fails with an
+     * {@code IllegalStateException}. Releasing a region more than once has
+     * no further effect.
+     */
+    synchronized void release() {
+        m_Chunks = null;
+    }
+}
@@ -0,0 +1,434 @@
+package net.njcull.collections;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable map of {@code long} keys to {@code long} values, held
+ * outside the Java heap, with keys in ascending order. Very large tables
+ * held this way add nothing to the work of the garbage collector, since
+ * the collector never scans or copies them.
+ * <p>
+ * Keys are held in one array of longs, and values in a second array
+ * following it, in the same way as {@link ImmutableSortedArrayMap}. Keys
+ * are found by binary search. The primitive methods {@link #indexOfKey(long)},
+ * {@link #getLong(long, long)}, {@link #longKeyAt(int)} and
+ * {@link #longValueAt(int)} do not box; the {@code Map} methods box their
+ * keys and values.
+ * </p>
+ * <p>
+ * The memory of the map must be released explicitly, by calling
+ * {@link #close()}, after which any access to the map fails with an
+ * {@code IllegalStateException}. On Java 22 and later, the memory is
+ * allocated from a shared {@code Arena}, and is freed as soon as the map is
+ * closed. On earlier versions it is held in direct byte buffers, and is
+ * freed when they are collected. Since the map has an explicit lifetime, it
+ * is not serializable.
+ * </p>
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class OffHeapSortedLongMap extends AbstractMap<Long,Long>
+        implements ArrayBackedMap<Long,Long>, AutoCloseable {
+
+    private final OffHeapRegion m_Region;
+    private final int m_Size;
+
+    private OffHeapSortedLongMap(OffHeapRegion region, int size) {
+        this.m_Region = region;
+        this.m_Size = size;
+    }
+
+    /**
+     * Copy the given keys and values into a new map outside the heap,
+     * sorting them by key if they are not already sorted.
+     *
+     * @param keys the keys of the map
+     * @param values the values of the map, in the same order as the keys
+     * @param size the number of keys and values to be copied
+     * @return a new map containing the keys and values
+     * @throws IllegalStateException if a key is repeated
+     */
+    static OffHeapSortedLongMap fromEntries(long[] keys, long[] values, int size) {
+        int[] order = null;
+        for(int i = 1; i < size; i++) {
+            if(keys[i - 1] >= keys[i]) {
+                order = new int[size];
+                for(int j = 0; j < size; j++) {
+                    order[j] = j;
+                }
+                SortUtils.sortIndexes(order, (a, b) -> Long.compare(keys[a], keys[b]));
+                break;
+            }
+        }
+
+        final OffHeapRegion region = OffHeapRegion.allocate((long) size * (Long.BYTES * 2));
+        try {
+            for(int i = 0; i < size; i++) {
+                final int j = (order == null) ? i : order[i];
+                if((i > 0) && (keys[j] == region.getLong((long) (i - 1) * Long.BYTES))) {
+                    throw new IllegalStateException("duplicate key");
+                }
+                region.putLong((long) i * Long.BYTES, keys[j]);
+                region.putLong(((long) size + i) * Long.BYTES, values[j]);
+            }
+        } catch (RuntimeException e) {
+            region.release();
+            throw e;
+        }
+        return new OffHeapSortedLongMap(region, size);
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    @Override
+    public int size() {
+        return m_Size;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     *
+     * @return {@code true} if this map contains no key-value mappings
+     */
+    @Override
+    public boolean isEmpty() {
+        return m_Size == 0;
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the specified
+     * key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the specified
+     *         key, otherwise {@code false}
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOfKey(key) >= 0;
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the specified
+     * key, without boxing.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the specified
+     *         key, otherwise {@code false}
+     */
+    public boolean containsKey(long key) {
+        return indexOfKey(key) >= 0;
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value. This operation requires time linear in the map size.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if this map maps one or more keys to the
+     *         specified value, otherwise {@code false}
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        return indexOfValue(value) >= 0;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@code null} if this map contains no mapping for the key
+     */
+    @Override
+    public Long get(Object key) {
+        final int idx = indexOfKey(key);
+        return (idx >= 0) ? Long.valueOf(longValueAt(idx)) : null;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key
+     */
+    @Override
+    public Long getOrDefault(Object key, Long defaultValue) {
+        return ArrayBackedMap.getOrDefault(this, key, defaultValue);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key,
+     * without boxing.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key
+     */
+    public long getLong(long key, long defaultValue) {
+        final int idx = indexOfKey(key);
+        return (idx >= 0) ? m_Region.getLong(valueOffset(idx)) : defaultValue;
+    }
+
+    /**
+     * Returns the array index of the given key in the map.
+     *
+     * @param key the key to be found in the map
+     * @return a zero or positive integer if the key is in the map,
+     * otherwise {@code -1} to indicate its absence
+     */
+    @Override
+    public int indexOfKey(Object key) {
+        return (key instanceof Long) ? indexOfKey(((Long) key).longValue()) : -1;
+    }
+
+    /**
+     * Returns the array index of the given key in the map, using a binary
+     * search, without boxing.
+     *
+     * @param key the key to be found in the map
+     * @return a zero or positive integer if the key is in the map,
+     * otherwise {@code -1} to indicate its absence
+     */
+    public int indexOfKey(long key) {
+        final OffHeapRegion region = m_Region;
+        int low = 0;
+        int high = m_Size - 1;
+
+        while(low <= high) {
+            final int mid = (low + high) >>> 1;
+            final long midKey = region.getLong((long) mid * Long.BYTES);
+
+            if(midKey < key) {
+                low = mid + 1;
+            } else if(midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the array index of the first occurrence of the given value
+     * in the map. This operation requires time linear in the map size.
+     *
+     * @param value the value to be found in the map
+     * @return a zero or positive integer if the value is in the map,
+     * otherwise {@code -1} to indicate its absence
+     */
+    @Override
+    public int indexOfValue(Object value) {
+        if(!(value instanceof Long)) {
+            return -1;
+        }
+        final long v = (Long) value;
+        for(int i = 0; i < m_Size; i++) {
+            if(m_Region.getLong(valueOffset(i)) == v) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns an {@code Entry} object for the map entry at the given array
+     * index.
+     *
+     * @param index the index in the array of the entry to be retrieved
+     * @return an immutable entry for the given array index
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * index is greater than or equal to the map size
+     */
+    @Override
+    public Entry<Long,Long> entryAt(int index) {
+        return new AbstractMap.SimpleImmutableEntry<>(keyAt(index), valueAt(index));
+    }
+
+    /**
+     * Returns the key of the map entry at the given array index.
+     *
+     * @param index the index in the array of the key to be retrieved
+     * @return the key at the given array index
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * index is greater than or equal to the map size
+     */
+    @Override
+    public Long keyAt(int index) {
+        return longKeyAt(index);
+    }
+
+    /**
+     * Returns the value of the map entry at the given array index.
+     *
+     * @param index the index in the array of the value to be retrieved
+     * @return the value at the given array index
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * index is greater than or equal to the map size
+     */
+    @Override
+    public Long valueAt(int index) {
+        return longValueAt(index);
+    }
+
+    /**
+     * Returns the key of the map entry at the given array index, without
+     * boxing.
+     *
+     * @param index the index in the array of the key to be retrieved
+     * @return the key at the given array index
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * index is greater than or equal to the map size
+     */
+    public long longKeyAt(int index) {
+        if((index < 0) || (index >= m_Size)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return m_Region.getLong((long) index * Long.BYTES);
+    }
+
+    /**
+     * Returns the value of the map entry at the given array index, without
+     * boxing.
+     *
+     * @param index the index in the array of the value to be retrieved
+     * @return the value at the given array index
+     * @throws IndexOutOfBoundsException if the index is less than zero or
+     * index is greater than or equal to the map size
+     */
+    public long longValueAt(int index) {
+        if((index < 0) || (index >= m_Size)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return m_Region.getLong(valueOffset(index));
+    }
+
+    private long valueOffset(int index) {
+        return ((long) m_Size + index) * Long.BYTES;
+    }
+
+    /**
+     * Returns a {@link ArrayBackedSet} view of the mappings contained in
+     * this map, in ascending key order.
+     *
+     * @return a set view of the mappings contained in this map
+     */
+    @Override
+    public ArrayBackedSet<Entry<Long,Long>> entrySet() {
+        return Views.setView(
+                new ArrayBackedImmutableList<>(
+                        Views.mapEntryIndexer(this), size(),
+                        Spliterator.DISTINCT | Spliterator.NONNULL));
+    }
+
+    /**
+     * Returns a {@link ArrayBackedSet} view of the keys contained in this
+     * map, in ascending order.
+     *
+     * @return a set view of the keys contained in this map
+     */
+    @Override
+    public ArrayBackedSet<Long> keySet() {
+        return Views.setView(
+                new ArrayBackedImmutableList<Long>(
+                        Views.mapKeyIndexer(this), size(),
+                        Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.SORTED,
+                        null));
+    }
+
+    /**
+     * Returns a {@link ArrayBackedCollection} view of the values contained
+     * in this map, in ascending order of their keys.
+     *
+     * @return a collection view of the values contained in this map
+     */
+    @Override
+    public ArrayBackedCollection<Long> values() {
+        return Views.collectionView(
+                new ArrayBackedImmutableList<>(
+                        Views.mapValueIndexer(this), size(), Spliterator.NONNULL));
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super Long, ? super Long> action) {
+        ArrayBackedMap.forEach(this, action);
+    }
+
+    /**
+     * Returns the hash code value for this map. The hash code of a map is
+     * defined to be the sum of the hash codes of each entry in the map.
+     *
+     * @return the hash code value for this map
+     */
+    @Override
+    public int hashCode() {
+        return ArrayBackedMap.hashCode(this);
+    }
+
+    /**
+     * Returns a string representation of this map, in ascending key order.
+     *
+     * @return a string representation of this map
+     */
+    @Override
+    public String toString() {
+        return ArrayBackedMap.toString(this);
+    }
+
+    /**
+     * Returns {@code true} if this map has been closed, and its memory
+     * released.
+     *
+     * @return {@code true} if this map has been closed, otherwise
+     * {@code false}
+     */
+    public boolean isClosed() {
+        return m_Region.isReleased();
+    }
+
+    /**
+     * Close this map, releasing its memory. Any further access to the map
+     * fails with an {@code IllegalStateException}. Closing a map more than
+     * once has no further effect.
+     */
+    @Override
+    public void close() {
+        m_Region.release();
+    }
+
+    /**
+     * Create a new builder for constructing an off-heap sorted long map.
+     *
+     * @return a new builder for constructing a map
+     */
+    public static OffHeapSortedLongMapBuilder builder() {
+        return new OffHeapSortedLongMapBuilder();
+    }
+
+    /**
+     * Copy the given map into a new off-heap sorted long map. Copying an
+     * {@code ArrayBackedMap} such as {@link ImmutableSortedArrayMap} reads
+     * its entries by index, without creating entry objects.
+     *
+     * @param map the map of keys and values to be copied
+     * @return a new off-heap map containing the keys and values of the map
+     * @throws NullPointerException if a key or value is {@code null}
+     */
+    public static OffHeapSortedLongMap copyOf(Map<? extends Long, ? extends Long> map) {
+        return new OffHeapSortedLongMapBuilder().with(map).build();
+    }
+}
@@ -0,0 +1,535 @@
+package net.njcull.collections;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+
+/**
+ * A concurrent map of keys to values, partitioned by key hash code into a
+ * number of shards. Each shard is an {@link ImmutableHashedArrayMap},
+ * published through its own {@link ImmutableMapRef}.
+ * <p>
+ * An update rebuilds only the shard holding the updated key, so the cost of
+ * each update is reduced by the number of shards, and updates to different
+ * shards proceed independently. Concurrent updates to the same shard are
+ * combined into batches, as for {@code ImmutableMapRef}. Reads select the
+ * shard from the key hash code, then search that shard, and never block.
+ * </p>
+ * <p>
+ * A {@link Snapshot} captures the current map of every shard, and presents
+ * them as a single {@link ArrayBackedMap}, without copying. Each shard in a
+ * snapshot is consistent, but updates to different shards made while the
+ * snapshot is captured may or may not be visible.
+ * </p>
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class ShardedImmutableMap<K,V> {
+
+    private static final int MAX_SHARDS = 1 << 16;
+
+    private final ImmutableMapRef<K,V,ImmutableHashedArrayMap<K,V>>[] m_Shards;
+    private final int m_Mask;
+
+    @SuppressWarnings("unchecked")
+    private ShardedImmutableMap(int shardCount) {
+        if((shardCount <= 0) || (shardCount > MAX_SHARDS)) {
+            throw new IllegalArgumentException("shard count must be between 1 and " + MAX_SHARDS);
+        }
+        // Round up to a power of two, so shards are selected by a mask
+        final int count = (shardCount == 1) ? 1 : Integer.highestOneBit(shardCount - 1) << 1;
+        this.m_Shards = new ImmutableMapRef[count];
+        this.m_Mask = count - 1;
+        for(int i = 0; i < count; i++) {
+            m_Shards[i] = ImmutableMapRef.of(ImmutableHashedArrayMap.<K,V>emptyMap(),
+                    map -> ImmutableHashedArrayMap.<K,V>builder().with(map).build());
+        }
+    }
+
+    /**
+     * Create a new, empty sharded map. The number of shards is rounded up
+     * to a power of two.
+     *
+     * @param shardCount the minimum number of shards
+     * @param <K> the type of keys maintained by this map
+     * @param <V> the type of mapped values
+     * @return a new, empty sharded map
+     * @throws IllegalArgumentException the shard count is less than one,
+     * or greater than 65536
+     */
+    public static <K,V> ShardedImmutableMap<K,V> newMap(int shardCount) {
+        return new ShardedImmutableMap<>(shardCount);
+    }
+
+    /**
+     * Create a new sharded map containing the mappings of the given map.
+     * Each shard is built once.
+     *
+     * @param map the mappings to be placed in the new map
+     * @param shardCount the minimum number of shards
+     * @param <K> the type of keys maintained by this map
+     * @param <V> the type of mapped values
+     * @return a new sharded map containing the given mappings
+     * @throws IllegalArgumentException the shard count is less than one,
+     * or greater than 65536
+     */
+    public static <K,V> ShardedImmutableMap<K,V> copyOf(Map<? extends K, ? extends V> map, int shardCount) {
+        ShardedImmutableMap<K,V> result = new ShardedImmutableMap<>(shardCount);
+        result.putAll(map);
+        return result;
+    }
+
+    /**
+     * Returns the shard index of the given key, using the spread hash code
+     * of the key.
+     */
+    static int shardIndex(Object key, int mask) {
+        int h = Objects.hashCode(key) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the number of shards in this map.
+     *
+     * @return the number of shards
+     */
+    public int shardCount() {
+        return m_Shards.length;
+    }
+
+    /**
+     * Returns the current map of the given shard.
+     *
+     * @param index the index of the shard
+     * @return the current map of the shard
+     */
+    public ImmutableHashedArrayMap<K,V> shard(int index) {
+        return m_Shards[index].get();
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@code null} if this map contains no mapping for the key
+     */
+    public V get(Object key) {
+        return m_Shards[shardIndex(key, m_Mask)].get().get(key);
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the specified
+     * key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the specified
+     *         key, otherwise {@code false}
+     */
+    public boolean containsKey(Object key) {
+        return m_Shards[shardIndex(key, m_Mask)].get().containsKey(key);
+    }
+
+    /**
+     * Returns the number of mappings in this map, summed over the current
+     * map of each shard.
+     *
+     * @return the number of mappings in this map
+     */
+    public int size() {
+        int size = 0;
+        for(ImmutableMapRef<K,V,ImmutableHashedArrayMap<K,V>> shard : m_Shards) {
+            size += shard.get().size();
+        }
+        return size;
+    }
+
+    /**
+     * Associate the given value with the given key, rebuilding only the
+     * shard containing the key.
+     *
+     * @param key the key with which the value is to be associated
+     * @param value the value to be associated with the key
+     */
+    public void put(K key, V value) {
+        m_Shards[shardIndex(key, m_Mask)].put(key, value);
+    }
+
+    /**
+     * Copy all the mappings from the given map. Mappings are grouped by
+     * shard, and each affected shard is rebuilt once.
+     *
+     * @param map the mappings to be copied
+     */
+    @SuppressWarnings("unchecked")
+    public void putAll(Map<? extends K, ? extends V> map) {
+        final Map<K,V>[] groups = new Map[m_Shards.length];
+        for(Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            final int index = shardIndex(entry.getKey(), m_Mask);
+            if(groups[index] == null) {
+                groups[index] = new LinkedHashMap<>();
+            }
+            groups[index].put(entry.getKey(), entry.getValue());
+        }
+        for(int i = 0; i < groups.length; i++) {
+            if(groups[i] != null) {
+                m_Shards[i].putAll(groups[i]);
+            }
+        }
+    }
+
+    /**
+     * Remove the mapping for the given key, if present, rebuilding only the
+     * shard containing the key.
+     *
+     * @param key the key whose mapping is to be removed
+     */
+    public void remove(Object key) {
+        m_Shards[shardIndex(key, m_Mask)].remove(key);
+    }
+
+    /**
+     * Remove the mappings for all the given keys, where present. Keys are
+     * grouped by shard, and each affected shard is rebuilt once.
+     *
+     * @param keys the keys whose mappings are to be removed
+     */
+    @SuppressWarnings("unchecked")
+    public void removeAll(Collection<?> keys) {
+        final List<Object>[] groups = new List[m_Shards.length];
+        for(Object key : keys) {
+            final int index = shardIndex(key, m_Mask);
+            if(groups[index] == null) {
+                groups[index] = new ArrayList<>();
+            }
+            groups[index].add(key);
+        }
+        for(int i = 0; i < groups.length; i++) {
+            if(groups[i] != null) {
+                m_Shards[i].removeAll(groups[i]);
+            }
+        }
+    }
+
+    /**
+     * Capture the current map of every shard as a single immutable map.
+     *
+     * @return a snapshot of this map
+     */
+    @SuppressWarnings("unchecked")
+    public Snapshot<K,V> snapshot() {
+        final ImmutableHashedArrayMap<K,V>[] shards = new ImmutableHashedArrayMap[m_Shards.length];
+        for(int i = 0; i < shards.length; i++) {
+            shards[i] = m_Shards[i].get();
+        }
+        return new Snapshot<>(shards);
+    }
+
+    /**
+     * An immutable view over the shard maps captured from a
+     * {@code ShardedImmutableMap}. Searching by key selects the shard, then
+     * searches that shard. Entries are indexed in shard order.
+     *
+     * @param <K> the type of keys maintained by this map
+     * @param <V> the type of mapped values
+     */
+    public static final class Snapshot<K,V> extends AbstractMap<K,V> implements ArrayBackedMap<K,V> {
+        private final ImmutableHashedArrayMap<K,V>[] m_Shards;
+        private final int[] m_Offsets;
+        private final int m_Mask;
+
+        Snapshot(ImmutableHashedArrayMap<K,V>[] shards) {
+            this.m_Shards = shards;
+            this.m_Mask = shards.length - 1;
+            this.m_Offsets = new int[shards.length + 1];
+            for(int i = 0; i < shards.length; i++) {
+                m_Offsets[i + 1] = m_Offsets[i] + shards[i].size();
+            }
+        }
+
+        /**
+         * Returns the number of shards in this snapshot.
+         *
+         * @return the number of shards
+         */
+        public int shardCount() {
+            return m_Shards.length;
+        }
+
+        /**
+         * Returns the map of the given shard.
+         *
+         * @param index the index of the shard
+         * @return the map of the shard
+         */
+        public ImmutableHashedArrayMap<K,V> shard(int index) {
+            return m_Shards[index];
+        }
+
+        /**
+         * Returns the number of key-value mappings in this map.
+         *
+         * @return the number of key-value mappings in this map
+         */
+        @Override
+        public int size() {
+            return m_Offsets[m_Shards.length];
+        }
+
+        /**
+         * Returns {@code true} if this map contains no key-value mappings.
+         *
+         * @return {@code true} if this map contains no key-value mappings
+         */
+        @Override
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+
+        /**
+         * Returns {@code true} if this map contains a mapping for the
+         * specified key. Only the shard selected by the key is searched.
+         *
+         * @param key key whose presence in this map is to be tested
+         * @return {@code true} if this map contains a mapping for the specified
+         *         key, otherwise {@code false}
+         */
+        @Override
+        public boolean containsKey(Object key) {
+            return m_Shards[shardIndex(key, m_Mask)].containsKey(key);
+        }
+
+        /**
+         * Returns {@code true} if this map maps one or more keys to the
+         * specified value. Every shard is searched.
+         *
+         * @param value value whose presence in this map is to be tested
+         * @return {@code true} if this map maps one or more keys to the
+         *         specified value, otherwise {@code false}
+         */
+        @Override
+        public boolean containsValue(Object value) {
+            for(ImmutableHashedArrayMap<K,V> shard : m_Shards) {
+                if(shard.containsValue(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns the value to which the specified key is mapped,
+         * or {@code null} if this map contains no mapping for the key.
+         * Only the shard selected by the key is searched.
+         *
+         * @param key the key whose associated value is to be returned
+         * @return the value to which the specified key is mapped, or
+         *         {@code null} if this map contains no mapping for the key
+         */
+        @Override
+        public V get(Object key) {
+            return m_Shards[shardIndex(key, m_Mask)].get(key);
+        }
+
+        private int shardOf(int index) {
+            if((index < 0) || (index >= size())) {
+                throw new IndexOutOfBoundsException("index: " + index);
+            }
+            int shard = Arrays.binarySearch(m_Offsets, index);
+            if(shard < 0) {
+                return -(shard + 1) - 1;
+            }
+            // Skip past any empty shards at this offset
+            while(m_Offsets[shard + 1] == index) {
+                shard++;
+            }
+            return shard;
+        }
+
+        /**
+         * Returns an {@code Entry} object for the map entry at the given
+         * index.
+         *
+         * @param index the index of the entry to be retrieved
+         * @return an {@code Entry} object corresponding to the given index
+         * @throws IndexOutOfBoundsException if the index is less than zero or
+         * index is greater than or equal to the map size
+         */
+        @Override
+        public Entry<K,V> entryAt(int index) {
+            final int shard = shardOf(index);
+            return m_Shards[shard].entryAt(index - m_Offsets[shard]);
+        }
+
+        /**
+         * Returns the key of the map entry at the given index.
+         *
+         * @param index the index of the key to be retrieved
+         * @return the key at the given index
+         * @throws IndexOutOfBoundsException if the index is less than zero or
+         * index is greater than or equal to the map size
+         */
+        @Override
+        public K keyAt(int index) {
+            final int shard = shardOf(index);
+            return m_Shards[shard].keyAt(index - m_Offsets[shard]);
+        }
+
+        /**
+         * Returns the value of the map entry at the given index.
+         *
+         * @param index the index of the value to be retrieved
+         * @return the value at the given index
+         * @throws IndexOutOfBoundsException if the index is less than zero or
+         * index is greater than or equal to the map size
+         */
+        @Override
+        public V valueAt(int index) {
+            final int shard = shardOf(index);
+            return m_Shards[shard].valueAt(index - m_Offsets[shard]);
+        }
+
+        /**
+         * Returns the index of the given key in the map. Only the shard
+         * selected by the key is searched.
+         *
+         * @param key the key to be found in the map
+         * @return a zero or positive integer if the key is in the map,
+         * otherwise {@code -1} to indicate its absence
+         */
+        @Override
+        public int indexOfKey(Object key) {
+            final int shard = shardIndex(key, m_Mask);
+            final int idx = m_Shards[shard].indexOfKey(key);
+            return (idx >= 0) ? m_Offsets[shard] + idx : -1;
+        }
+
+        /**
+         * Returns the index of the first occurrence of the given value in
+         * the map. Every shard is searched in order.
+         *
+         * @param value the value to be found in the map
+         * @return a zero or positive integer if the value is in the map,
+         * otherwise {@code -1} to indicate its absence
+         */
+        @Override
+        public int indexOfValue(Object value) {
+            for(int i = 0; i < m_Shards.length; i++) {
+                final int idx = m_Shards[i].indexOfValue(value);
+                if(idx >= 0) {
+                    return m_Offsets[i] + idx;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Returns an {@link ArrayBackedSet} view of the mappings contained in
+         * this map.
+         *
+         * @return an array-backed set view of the mappings contained in this map
+         */
+        @Override
+        public ArrayBackedSet<Entry<K,V>> entrySet() {
+            return Views.setView(
+                    new ArrayBackedImmutableList<>(
+                            Views.mapEntryIndexer(this), size(),
+                            Spliterator.DISTINCT | Spliterator.NONNULL));
+        }
+
+        /**
+         * Returns an {@link ArrayBackedSet} view of the keys contained in
+         * this map.
+         *
+         * @return an array-backed set view of the keys contained in this map
+         */
+        @Override
+        public ArrayBackedSet<K> keySet() {
+            return Views.setView(
+                    new ArrayBackedImmutableList<>(
+                            Views.mapKeyIndexer(this), size(), Spliterator.DISTINCT));
+        }
+
+        /**
+         * Returns an {@link ArrayBackedCollection} view of the values
+         * contained in this map.
+         *
+         * @return an array-backed collection view of the values contained in
+         * this map
+         */
+        @Override
+        public ArrayBackedCollection<V> values() {
+            return Views.collectionView(
+                    new ArrayBackedImmutableList<>(
+                            Views.mapValueIndexer(this), size()));
+        }
+
+        /**
+         * Returns the value to which the specified key is mapped, or
+         * {@code defaultValue} if this map contains no mapping for the key.
+         *
+         * @param key the key whose associated value is to be returned
+         * @param defaultValue the default mapping of the key
+         * @return the value to which the specified key is mapped, or
+         * {@code defaultValue} if this map contains no mapping for the key
+         */
+        @Override
+        public V getOrDefault(Object key, V defaultValue) {
+            final ImmutableHashedArrayMap<K,V> shard = m_Shards[shardIndex(key, m_Mask)];
+            return shard.getOrDefault(key, defaultValue);
+        }
+
+        /**
+         * Performs the given action for each entry in this map, in shard
+         * order, until all entries have been processed or the action throws
+         * an exception.
+         *
+         * @param action The action to be performed for each entry
+         * @throws NullPointerException if the specified action is null
+         */
+        @Override
+        public void forEach(BiConsumer<? super K, ? super V> action) {
+            Objects.requireNonNull(action);
+            for(ImmutableHashedArrayMap<K,V> shard : m_Shards) {
+                shard.forEach(action);
+            }
+        }
+
+        /**
+         * Returns a string representation of this map, with mappings in
+         * shard order.
+         *
+         * @return a string representation of this map
+         */
+        @Override
+        public String toString() {
+            return ArrayBackedMap.toString(this);
+        }
+
+        /**
+         * Returns the hash code value for this map, being the sum of the
+         * hash codes of each shard.
+         *
+         * @return the hash code value for this map
+         */
+        @Override
+        public int hashCode() {
+            int h = 0;
+            for(ImmutableHashedArrayMap<K,V> shard : m_Shards) {
+                h += shard.hashCode();
+            }
+            return h;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package net.njcull.collections;
+
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Utility methods for sorting. These sort arrays of indexes into other
+ * arrays or array-like structures, using a comparator over the indexes.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+final class SortUtils {
+
+    private SortUtils() {
+    }
+
+    /**
+     * Sort the given indexes in place using a stable merge sort, so that
+     * indexes that compare equal remain in their original order.
+     *
+     * @param indexes the indexes to be sorted
+     * @param cmp compares the items at two indexes
+     */
+    static void sortIndexes(int[] indexes, IntBinaryOperator cmp) {
+        final int size = indexes.length;
+        // Insertion sort runs of up to 16 indexes
+        final int run = 16;
+        for(int lo = 0; lo < size; lo += run) {
+            final int hi = Math.min(lo + run, size);
+            for(int i = lo + 1; i < hi; i++) {
+                final int x = indexes[i];
+                int j = i - 1;
+                while((j >= lo) && (cmp.applyAsInt(indexes[j], x) > 0)) {
+                    indexes[j + 1] = indexes[j];
+                    j--;
+                }
+                indexes[j + 1] = x;
+            }
+        }
+
+        // Merge runs of doubling width
+        int[] src = indexes;
+        int[] dst = new int[size];
+        for(int width = run; width < size; width *= 2) {
+            for(int lo = 0; lo < size; lo += 2 * width) {
+                final int mid = Math.min(lo + width, size);
+                final int hi = Math.min(lo + 2 * width, size);
+                int i = lo, j = mid, k = lo;
+                while((i < mid) && (j < hi)) {
+                    dst[k++] = (cmp.applyAsInt(src[j], src[i]) < 0) ? src[j++] : src[i++];
+                }
+                while(i < mid) {
+                    dst[k++] = src[i++];
+                }
+                while(j < hi) {
+                    dst[k++] = src[j++];
+                }
+            }
+            final int[] tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+        if(src != indexes) {
+            System.arraycopy(src, 0, indexes, 0, size);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package net.njcull.collections;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The codecs returned by the static methods of {@link Codec}.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+final class StandardCodecs {
+
+    static final Codec<String> UTF8 = new Utf8Codec();
+    static final Codec<Long> LONGS = new LongCodec();
+    static final Codec<Integer> INTS = new IntCodec();
+
+    private StandardCodecs() {
+    }
+
+    private static final class Utf8Codec implements Codec<String> {
+        @Override
+        public byte[] encode(String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(byte[] bytes, int offset, int length) {
+            return new String(bytes, offset, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class LongCodec implements Codec<Long> {
+        @Override
+        public byte[] encode(Long value) {
+            final long v = value.longValue();
+            final byte[] bytes = new byte[Long.BYTES];
+            for(int i = Long.BYTES - 1; i >= 0; i--) {
+                bytes[Long.BYTES - 1 - i] = (byte) (v >>> (i << 3));
+            }
+            return bytes;
+        }
+
+        @Override
+        public Long decode(byte[] bytes, int offset, int length) {
+            if(length != Long.BYTES) {
+                throw new IllegalArgumentException("expected " + Long.BYTES + " bytes, found " + length);
+            }
+            long v = 0L;
+            for(int i = 0; i < Long.BYTES; i++) {
+                v = (v << 8) | (bytes[offset + i] & 0xFFL);
+            }
+            return v;
+        }
+    }
+
+    private static final class IntCodec implements Codec<Integer> {
+        @Override
+        public byte[] encode(Integer value) {
+            final int v = value.intValue();
+            return new byte[] { (byte) (v >>> 24), (byte) (v >>> 16), (byte) (v >>> 8), (byte) v };
+        }
+
+        @Override
+        public Integer decode(byte[] bytes, int offset, int length) {
+            if(length != Integer.BYTES) {
+                throw new IllegalArgumentException("expected " + Integer.BYTES + " bytes, found " + length);
+            }
+            return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16) |
+                    ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * Dictionary encoded storage for the values of a map, where many keys share
+ * a small number of distinct values. Each distinct value is stored once in
+ * the dictionary, and each entry holds only the code of its value.
+ * <p>
+ * Codes are held in an array of bytes where there are up to 256 distinct
+ * values, an array of shorts where there are up to 65536 distinct values,
+ * and otherwise an array of ints. Every value in the dictionary is used by
+ * at least one entry, so testing whether a value is present requires only
+ * a search of the dictionary.
+ * </p>
+ * <p>
+ * The codes are held in chunks, as described by {@link ChunkedArrays}, so
+ * that the codes of a large map are not allocated as a humongous object.
+ * </p>
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+final class ValueDictionary implements Serializable {
+
+    private final Object[] m_Values;
+    private final byte[][] m_ByteCodes;
+    private final short[][] m_ShortCodes;
+    private final int[][] m_IntCodes;
+    private final int m_Size;
+    private transient int[] m_Index;
+
+    // Serialization
+    private static final long serialVersionUID = 2263017498820517336L;
+
+    private ValueDictionary(Object[] values, int[][] codes, int size) {
+        this.m_Values = values;
+        this.m_Size = size;
+        if(values.length <= 256) {
+            m_ByteCodes = ChunkedArrays.newByteChunks(size);
+            for(int c = 0; c < codes.length; c++) {
+                for(int i = 0; i < codes[c].length; i++) {
+                    m_ByteCodes[c][i] = (byte) codes[c][i];
+                }
+            }
+            m_ShortCodes = null;
+            m_IntCodes = null;
+        } else if(values.length <= 65536) {
+            m_ByteCodes = null;
+            m_ShortCodes = ChunkedArrays.newShortChunks(size);
+            for(int c = 0; c < codes.length; c++) {
+                for(int i = 0; i < codes[c].length; i++) {
+                    m_ShortCodes[c][i] = (short) codes[c][i];
+                }
+            }
+            m_IntCodes = null;
+        } else {
+            m_ByteCodes = null;
+            m_ShortCodes = null;
+            m_IntCodes = codes;
+        }
+        buildIndex();
+    }
+
+    /**
+     * Encode the given values.
+     *
+     * @param values returns the value of each entry, by its index
+     * @param size the number of values
+     * @return a dictionary of the given values
+     */
+    static ValueDictionary encode(IntFunction<?> values, int size) {
+        final Map<Object, Integer> codeMap = new HashMap<>();
+        final int[][] codes = ChunkedArrays.newIntChunks(size);
+        Object[] dictionary = new Object[16];
+        for(int i = 0; i < size; i++) {
+            final Object value = values.apply(i);
+            Integer code = codeMap.get(value);
+            if(code == null) {
+                code = codeMap.size();
+                codeMap.put(value, code);
+                if(code == dictionary.length) {
+                    dictionary = Arrays.copyOf(dictionary, code * 2);
+                }
+                dictionary[code] = value;
+            }
+            ChunkedArrays.set(codes, i, code);
+        }
+        return new ValueDictionary(Arrays.copyOf(dictionary, codeMap.size()), codes, size);
+    }
+
+    private void buildIndex() {
+        m_Index = (m_Values.length >= ArrayHashIndex.MIN_INDEXED_SIZE) ?
+                ArrayHashIndex.build(m_Values, 0, m_Values.length) : null;
+    }
+
+    /**
+     * Returns the number of entries, each holding a code.
+     *
+     * @return the number of entries
+     */
+    int size() {
+        return m_Size;
+    }
+
+    /**
+     * Returns the number of distinct values in the dictionary.
+     *
+     * @return the number of distinct values
+     */
+    int distinctCount() {
+        return m_Values.length;
+    }
+
+    private int code(int index) {
+        final int c = index >>> ChunkedArrays.CHUNK_SHIFT;
+        final int i = index & ChunkedArrays.CHUNK_MASK;
+        if(m_ByteCodes != null) {
+            return m_ByteCodes[c][i] & 0xFF;
+        }
+        if(m_ShortCodes != null) {
+            return m_ShortCodes[c][i] & 0xFFFF;
+        }
+        return m_IntCodes[c][i];
+    }
+
+    /**
+     * Returns the value of the entry at the given index.
+     *
+     * @param index the index of the entry
+     * @return the value of the entry
+     */
+    Object get(int index) {
+        return m_Values[code(index)];
+    }
+
+    /**
+     * Returns the code of the given value, or {@code -1} if the value is not
+     * in the dictionary.
+     */
+    private int codeOf(Object value) {
+        if(m_Index != null) {
+            return ArrayHashIndex.indexOf(m_Index, m_Values, 0, value);
+        }
+        for(int c = 0; c < m_Values.length; c++) {
+            if(Objects.equals(value, m_Values[c])) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns {@code true} if any entry has the given value. Only the
+     * dictionary is searched.
+     *
+     * @param value the value to be found
+     * @return {@code true} if the value is present
+     */
+    boolean containsValue(Object value) {
+        return codeOf(value) >= 0;
+    }
+
+    /**
+     * Returns the index of the first entry with the given value. The
+     * dictionary is searched for the code of the value, then the codes are
+     * scanned.
+     *
+     * @param value the value to be found
+     * @return the index of the first entry with the value, otherwise
+     * {@code -1}
+     */
+    int indexOf(Object value) {
+        final int code = codeOf(value);
+        if(code >= 0) {
+            for(int i = 0; i < m_Size; i++) {
+                if(code(i) == code) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the last entry with the given value.
+     *
+     * @param value the value to be found
+     * @return the index of the last entry with the value, otherwise
+     * {@code -1}
+     */
+    int lastIndexOf(Object value) {
+        final int code = codeOf(value);
+        if(code >= 0) {
+            for(int i = m_Size - 1; i >= 0; i--) {
+                if(code(i) == code) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a dictionary of the entries in the given range, containing
+     * only the values used by those entries.
+     *
+     * @param fromIndex the index of the first entry
+     * @param toIndex the index after the last entry
+     * @return a dictionary of the entries in the range
+     */
+    ValueDictionary range(int fromIndex, int toIndex) {
+        return encode(i -> get(fromIndex + i), toIndex - fromIndex);
+    }
+
+    /**
+     * Returns a dictionary of the entries at the given indexes, containing
+     * only the values used by those entries.
+     *
+     * @param indexes the indexes of the entries, in their new order
+     * @param count the number of indexes
+     * @return a dictionary of the selected entries
+     */
+    ValueDictionary select(int[] indexes, int count) {
+        return encode(i -> get(indexes[i]), count);
+    }
+
+    /**
+     * Exchange the codes of the entries at the given indexes, for moving
+     * entries into their hashed positions.
+     */
+    void swap(int i, int j) {
+        final int ci = i >>> ChunkedArrays.CHUNK_SHIFT;
+        final int cj = j >>> ChunkedArrays.CHUNK_SHIFT;
+        i &= ChunkedArrays.CHUNK_MASK;
+        j &= ChunkedArrays.CHUNK_MASK;
+        if(m_ByteCodes != null) {
+            final byte tmp = m_ByteCodes[ci][i];
+            m_ByteCodes[ci][i] = m_ByteCodes[cj][j];
+            m_ByteCodes[cj][j] = tmp;
+        } else if(m_ShortCodes != null) {
+            final short tmp = m_ShortCodes[ci][i];
+            m_ShortCodes[ci][i] = m_ShortCodes[cj][j];
+            m_ShortCodes[cj][j] = tmp;
+        } else {
+            final int tmp = m_IntCodes[ci][i];
+            m_IntCodes[ci][i] = m_IntCodes[cj][j];
+            m_IntCodes[cj][j] = tmp;
+        }
+    }
+
+    /**
+     * Deserialization.
+     *
+     * @param stream the object stream to be deserialized
+     * @throws ClassNotFoundException the class or descendants could not be found
+     * @throws IOException there was a problem reading the object stream
+     */
+    private void readObject(ObjectInputStream stream) throws ClassNotFoundException, IOException {
+        stream.defaultReadObject();
+
+        // Perform validation
+        if((m_Values == null) || (m_Size < 0)) {
+            throw new InvalidObjectException("dictionary must have values");
+        }
+        final int length;
+        final boolean wellFormed;
+        if((m_ByteCodes != null) && (m_ShortCodes == null) && (m_IntCodes == null)) {
+            wellFormed = ChunkedArrays.isWellFormed(m_ByteCodes);
+            length = wellFormed ? ChunkedArrays.length(m_ByteCodes) : -1;
+        } else if((m_ByteCodes == null) && (m_ShortCodes != null) && (m_IntCodes == null)) {
+            wellFormed = ChunkedArrays.isWellFormed(m_ShortCodes);
+            length = wellFormed ? ChunkedArrays.length(m_ShortCodes) : -1;
+        } else if((m_ByteCodes == null) && (m_ShortCodes == null) && (m_IntCodes != null)) {
+            wellFormed = ChunkedArrays.isWellFormed(m_IntCodes);
+            length = wellFormed ? ChunkedArrays.length(m_IntCodes) : -1;
+        } else {
+            throw new InvalidObjectException("dictionary must have one array of codes");
+        }
+        if(!wellFormed) {
+            throw new InvalidObjectException("dictionary code chunks must be well formed");
+        }
+        if(length != m_Size) {
+            throw new InvalidObjectException("dictionary codes must match size");
+        }
+
+        // Every code must refer to a value, and every value must be used once
+        final boolean[] used = new boolean[m_Values.length];
+        int usedCount = 0;
+        for(int i = 0; i < m_Size; i++) {
+            final int code = code(i);
+            if((code < 0) || (code >= m_Values.length)) {
+                throw new InvalidObjectException("dictionary code out of range");
+            }
+            if(!used[code]) {
+                used[code] = true;
+                usedCount++;
+            }
+        }
+        if(usedCount != m_Values.length) {
+            throw new InvalidObjectException("dictionary contains unused values");
+        }
+
+        buildIndex();
+        for(int c = 0; c < m_Values.length; c++) {
+            if(codeOf(m_Values[c]) != c) {
+                throw new InvalidObjectException("dictionary contains duplicate values");
+            }
+        }
+    }
+}
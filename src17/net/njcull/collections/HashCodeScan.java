@@ -0,0 +1,51 @@
+package net.njcull.collections;
+
+/**
+ * Scans an array of hash codes for a given hash code. The hashed array
+ * collections keep the hash codes of their elements in a separate array of
+ * ints, and test candidate elements for equality only where the hash codes
+ * match.
+ * <p>
+ * This is the Java 17 implementation from the multi-release JAR. Where the
+ * incubating {@code jdk.incubator.vector} module has been added to the
+ * runtime, with {@code --add-modules jdk.incubator.vector}, ranges of at
+ * least one vector in length are compared several hash codes per
+ * instruction. Otherwise the scan falls back to comparing one int at a
+ * time, and the vector classes are never loaded.
+ * </p>
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+final class HashCodeScan {
+
+    private static final boolean VECTORIZED =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private HashCodeScan() {
+    }
+
+    /**
+     * Returns the index of the first occurrence of the hash code within the
+     * given range of the array.
+     *
+     * @param hashCodes the array of hash codes to be scanned
+     * @param fromIndex the index of the first hash code (inclusive) to be
+     *          scanned
+     * @param toIndex the index of the last hash code (exclusive) to be scanned
+     * @param hashCode the hash code to be found
+     * @return the index of the first matching hash code in the range,
+     * otherwise {@code -1}
+     */
+    static int indexOf(int[] hashCodes, int fromIndex, int toIndex, int hashCode) {
+        if(VECTORIZED && (toIndex - fromIndex >= VectorHashCodeScan.MIN_LENGTH)) {
+            return VectorHashCodeScan.indexOf(hashCodes, fromIndex, toIndex, hashCode);
+        }
+        for(int i = fromIndex; i < toIndex; i++) {
+            if(hashCodes[i] == hashCode) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
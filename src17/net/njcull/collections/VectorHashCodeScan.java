@@ -0,0 +1,58 @@
+package net.njcull.collections;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vectorized scan of an array of hash codes, using the incubating Vector
+ * API. This class is only loaded by {@link HashCodeScan} once the
+ * {@code jdk.incubator.vector} module is known to be present.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+final class VectorHashCodeScan {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    /**
+     * Ranges shorter than this are scanned one int at a time. A constant,
+     * so that testing it does not load this class.
+     */
+    static final int MIN_LENGTH = 8;
+
+    private VectorHashCodeScan() {
+    }
+
+    /**
+     * Returns the index of the first occurrence of the hash code within the
+     * given range of the array, comparing a whole vector of hash codes at
+     * a time, with a scalar loop for the tail of the range.
+     *
+     * @param hashCodes the array of hash codes to be scanned
+     * @param fromIndex the index of the first hash code (inclusive) to be
+     *          scanned
+     * @param toIndex the index of the last hash code (exclusive) to be scanned
+     * @param hashCode the hash code to be found
+     * @return the index of the first matching hash code in the range,
+     * otherwise {@code -1}
+     */
+    static int indexOf(int[] hashCodes, int fromIndex, int toIndex, int hashCode) {
+        final int step = SPECIES.length();
+        final int bound = fromIndex + SPECIES.loopBound(toIndex - fromIndex);
+        int i = fromIndex;
+        for(; i < bound; i += step) {
+            final VectorMask<Integer> matches = IntVector.fromArray(SPECIES, hashCodes, i).eq(hashCode);
+            if(matches.anyTrue()) {
+                return i + matches.firstTrue();
+            }
+        }
+        for(; i < toIndex; i++) {
+            if(hashCodes[i] == hashCode) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
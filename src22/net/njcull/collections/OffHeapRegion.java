@@ -0,0 +1,105 @@
+package net.njcull.collections;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * A fixed-size region of memory outside the Java heap, addressed by byte
+ * offset, holding {@code long} and {@code int} values in native byte order.
+ * Memory outside the heap is never scanned or copied by the garbage
+ * collector.
+ * <p>
+ * This is the Java 22 implementation from the multi-release JAR, a single
+ * {@link MemorySegment} allocated from a shared {@link Arena}. Releasing the
+ * region closes the arena, which frees the memory immediately, and causes
+ * any further access from any thread to fail.
+ * </p>
+ * <p>
+ * Offsets of {@code long} values must be multiples of 8, and offsets of
+ * {@code int} values multiples of 4, matching the alignment of the value
+ * layouts.
+ * </p>
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+final class OffHeapRegion {
+
+    private final Arena m_Arena;
+    private final MemorySegment m_Segment;
+
+    private OffHeapRegion(Arena arena, MemorySegment segment) {
+        this.m_Arena = arena;
+        this.m_Segment = segment;
+    }
+
+    /**
+     * Allocate a new region of zeroed memory outside the Java heap.
+     *
+     * @param byteSize the size of the region in bytes
+     * @return a new region of the given size
+     * @throws IllegalArgumentException if the size is negative
+     * @throws OutOfMemoryError if the memory could not be allocated
+     */
+    static OffHeapRegion allocate(long byteSize) {
+        if(byteSize < 0L) {
+            throw new IllegalArgumentException("byteSize must not be negative");
+        }
+        final Arena arena = Arena.ofShared();
+        try {
+            return new OffHeapRegion(arena, arena.allocate(byteSize, Long.BYTES));
+        } catch (RuntimeException | Error e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the size of this region in bytes.
+     *
+     * @return the size of this region in bytes
+     */
+    long byteSize() {
+        return m_Segment.byteSize();
+    }
+
+    // Accessors by byte offset, which must be aligned to the value size
+
+    long getLong(long offset) {
+        return m_Segment.get(ValueLayout.JAVA_LONG, offset);
+    }
+
+    void putLong(long offset, long value) {
+        m_Segment.set(ValueLayout.JAVA_LONG, offset, value);
+    }
+
+    int getInt(long offset) {
+        return m_Segment.get(ValueLayout.JAVA_INT, offset);
+    }
+
+    void putInt(long offset, int value) {
+        m_Segment.set(ValueLayout.JAVA_INT, offset, value);
+    }
+
+    /**
+     * Returns {@code true} if this region has been released.
+     *
+     * @return {@code true} if this region has been released, otherwise
+     * {@code false}
+     */
+    synchronized boolean isReleased() {
+        return !m_Arena.scope().isAlive();
+    }
+
+    /**
+     * Release this region, freeing its memory. Any further access fails
+     * with an {@code IllegalStateException}. Releasing a region more than
+     * once has no further effect.
+     */
+    synchronized void release() {
+        if(m_Arena.scope().isAlive()) {
+            m_Arena.close();
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.junit.runners.Suite;
         TestImmutableArrayMap.class,
         TestImmutableArrayBiMap.class,
         TestImmutableArraySet.class,
+        TestCompactArrayMap.class,
         TestImmutableHashedArrayMap.class,
         TestImmutableHashedArrayBiMap.class,
         TestImmutableHashedArraySet.class,
@@ -18,6 +19,23 @@ import org.junit.runners.Suite;
         TestImmutableSortedArrayBiMap.class,
         TestImmutableSortedArraySet.class,
         TestImmutableSortedArrayPropertyMap.class,
+        TestImmutableSortedStringSet.class,
+        TestImmutableSortedLongSet.class,
+        TestImmutableIntSet.class,
+        TestImmutableCollectionInterner.class,
+        TestImmutableMapRef.class,
+        TestShardedImmutableMap.class,
+        TestImmutableArrayListMultimap.class,
+        TestImmutableSortedSetMultimap.class,
+        TestImmutableRangeMap.class,
+        TestImmutableIntervalIndex.class,
+        TestImmutableRadixTreeMap.class,
+        TestOffHeapSortedLongMap.class,
+        TestOffHeapHashedLongMap.class,
+        TestImmutableBigSortedLongSet.class,
+        TestImmutableMappedSortedMap.class,
+        TestImmutableMappedHashedMap.class,
+        TestImmutableSegmentedSortedMap.class,
         TestImmutableUniSortedArrayMap.class,
         TestImmutableUniSortedArrayBiMap.class
 })
@@ -0,0 +1,273 @@
+package net.njcull.collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tests for the compact array maps and sets.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class TestCompactArrayMap {
+
+    @Test
+    public void testEmptyMap() throws Exception {
+        ArrayBackedMap<String, Integer> map = ImmutableArrayMap.<String, Integer>builder().buildCompact();
+        Assert.assertSame(ImmutableArrayMap.emptyMap(), map);
+
+        map = ImmutableHashedArrayMap.<String, Integer>builder().buildCompact();
+        Assert.assertSame(ImmutableArrayMap.emptyMap(), map);
+    }
+
+    @Test
+    public void testAllSizes() throws Exception {
+        for(int size = 1; size <= CompactArrayMap.MAX_SIZE + 1; size++) {
+            ImmutableArrayMapBuilder<String, Integer> builder = ImmutableArrayMap.builder();
+            Map<String, Integer> expected = new LinkedHashMap<>();
+            for(int i = 0; i < size; i++) {
+                builder.with("k" + i, i * 10);
+                expected.put("k" + i, i * 10);
+            }
+            ArrayBackedMap<String, Integer> map = builder.buildCompact();
+
+            if(size <= CompactArrayMap.MAX_SIZE) {
+                Assert.assertTrue(map instanceof CompactArrayMap);
+            } else {
+                Assert.assertTrue(map instanceof ImmutableArrayMap);
+            }
+            Assert.assertEquals(size, map.size());
+            Assert.assertFalse(map.isEmpty());
+            Assert.assertEquals(expected, map);
+            Assert.assertEquals(map, expected);
+            Assert.assertEquals(expected.hashCode(), map.hashCode());
+            Assert.assertEquals(expected.toString(), map.toString());
+
+            for(int i = 0; i < size; i++) {
+                Assert.assertEquals("k" + i, map.keyAt(i));
+                Assert.assertEquals(Integer.valueOf(i * 10), map.valueAt(i));
+                Assert.assertEquals(i, map.indexOfKey("k" + i));
+                Assert.assertEquals(i, map.indexOfValue(i * 10));
+                Assert.assertEquals(Integer.valueOf(i * 10), map.get("k" + i));
+                Assert.assertTrue(map.containsKey("k" + i));
+                Assert.assertTrue(map.containsValue(i * 10));
+            }
+            Assert.assertEquals(-1, map.indexOfKey("k" + size));
+            Assert.assertEquals(-1, map.indexOfValue(-1));
+            Assert.assertNull(map.get("x"));
+            Assert.assertEquals(Integer.valueOf(-5), map.getOrDefault("x", -5));
+
+            try {
+                map.keyAt(size);
+                Assert.fail("Expected IndexOutOfBoundsException");
+            } catch (IndexOutOfBoundsException e) {
+                // expected
+            }
+            try {
+                map.valueAt(-1);
+                Assert.fail("Expected IndexOutOfBoundsException");
+            } catch (IndexOutOfBoundsException e) {
+                // expected
+            }
+
+            Assert.assertEquals(expected.keySet(), map.keySet());
+            Assert.assertEquals("k0", map.keySet().getAtIndex(0));
+            Assert.assertEquals(expected.entrySet(), map.entrySet());
+        }
+    }
+
+    @Test
+    public void testNulls() throws Exception {
+        ArrayBackedMap<String, Integer> map = ImmutableHashedArrayMap.<String, Integer>builder()
+                .with("a", 1, null, 2, "c", null).buildCompact();
+
+        Assert.assertEquals(3, map.size());
+        Assert.assertEquals(1, map.indexOfKey(null));
+        Assert.assertEquals(2, map.indexOfValue(null));
+        Assert.assertEquals(Integer.valueOf(2), map.get(null));
+        Assert.assertTrue(map.containsKey("c"));
+        Assert.assertNull(map.get("c"));
+        Assert.assertEquals("{a=1, null=2, c=null}", map.toString());
+    }
+
+    @Test
+    public void testDuplicates() throws Exception {
+        try {
+            ImmutableArrayMap.<String, Integer>builder()
+                    .with("a", 1, "b", 2, "a", 3).buildCompact();
+            Assert.fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("duplicate key", e.getMessage());
+        }
+
+        ArrayBackedMap<String, Integer> map = ImmutableArrayMapBuilder.<String, Integer>newMap()
+                .with("a", 1, "b", 1).buildCompact();
+        Assert.assertEquals(2, map.size());
+        Assert.assertEquals(2, map.values().size());
+
+        try {
+            ImmutableArrayMapBuilder.<String, Integer>newBiMap()
+                    .with("a", 1, "b", 1).buildCompact();
+            Assert.fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("duplicate value", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testImmutable() throws Exception {
+        ArrayBackedMap<String, Integer> map = ImmutableArrayMap.<String, Integer>builder()
+                .with("a", 1, "b", 2).buildCompact();
+
+        try {
+            map.put("c", 3);
+            Assert.fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        try {
+            map.remove("a");
+            Assert.fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        try {
+            map.clear();
+            Assert.fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        Assert.assertEquals(2, map.size());
+    }
+
+    @Test
+    public void testCopyOf() throws Exception {
+        Map<String, Integer> source = new LinkedHashMap<>();
+        source.put("x", 24);
+        source.put("y", 25);
+
+        ArrayBackedMap<String, Integer> map = ImmutableArrayMap.copyOfCompact(source);
+        Assert.assertTrue(map instanceof CompactArrayMap);
+        Assert.assertEquals(source, map);
+        Assert.assertSame(map, ImmutableArrayMap.copyOfCompact(map));
+
+        for(int i = 0; i < CompactArrayMap.MAX_SIZE; i++) {
+            source.put("z" + i, i);
+        }
+        map = ImmutableArrayMap.copyOfCompact(source);
+        Assert.assertTrue(map instanceof ImmutableArrayMap);
+        Assert.assertEquals(source, map);
+    }
+
+    @Test
+    public void testHashedCopyOf() throws Exception {
+        Map<String, Integer> source = new LinkedHashMap<>();
+        source.put("x", 24);
+        source.put("y", 25);
+
+        ArrayBackedMap<String, Integer> map = ImmutableHashedArrayMap.copyOfCompact(source);
+        Assert.assertTrue(map instanceof CompactArrayMap);
+        Assert.assertEquals(source, map);
+        Assert.assertSame(map, ImmutableHashedArrayMap.copyOfCompact(map));
+
+        for(int i = 0; i < CompactArrayMap.MAX_SIZE; i++) {
+            source.put("z" + i, i);
+        }
+        map = ImmutableHashedArrayMap.copyOfCompact(source);
+        Assert.assertTrue(map instanceof ImmutableHashedArrayMap);
+        Assert.assertEquals(source, map);
+        Assert.assertSame(map, ImmutableHashedArrayMap.copyOfCompact(map));
+    }
+
+    @Test
+    public void testSets() throws Exception {
+        for(int size = 1; size <= CompactArraySet.MAX_SIZE; size++) {
+            ImmutableHashedArraySetBuilder<String> builder = ImmutableHashedArraySet.builder();
+            for(int i = 0; i < size; i++) {
+                builder.with("e" + i);
+            }
+            // duplicates are removed
+            builder.with("e0");
+
+            ArrayBackedSet<String> set = builder.buildCompact();
+            Assert.assertTrue(set instanceof CompactArraySet);
+            Assert.assertEquals(size, set.size());
+            for(int i = 0; i < size; i++) {
+                Assert.assertEquals("e" + i, set.getAtIndex(i));
+                Assert.assertEquals(i, set.indexOf("e" + i));
+                Assert.assertTrue(set.contains("e" + i));
+            }
+            Assert.assertFalse(set.contains("e" + size));
+            Assert.assertEquals(-1, set.indexOf(null));
+            Assert.assertEquals(set, ImmutableArraySet.copyOf(set));
+            Assert.assertEquals(ImmutableArraySet.copyOf(set).hashCode(), set.hashCode());
+            Assert.assertEquals(size, set.asList().size());
+            Assert.assertEquals(size, set.toArray().length);
+            Assert.assertEquals(size, set.stream().count());
+
+            try {
+                set.add("x");
+                Assert.fail("Expected UnsupportedOperationException");
+            } catch (UnsupportedOperationException e) {
+                // expected
+            }
+            try {
+                set.clear();
+                Assert.fail("Expected UnsupportedOperationException");
+            } catch (UnsupportedOperationException e) {
+                // expected
+            }
+        }
+
+        ArrayBackedSet<String> set = ImmutableArraySet.copyOfCompact(ImmutableArraySet.<String>emptySet());
+        Assert.assertSame(ImmutableArraySet.emptySet(), set);
+
+        set = ImmutableArraySet.<String>builder().with("a", null, "b").buildCompact();
+        Assert.assertEquals(1, set.indexOf(null));
+        Assert.assertEquals("[a, null, b]", set.toString());
+        Assert.assertSame(set, ImmutableHashedArraySet.copyOfCompact(set));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSerialization() throws Exception {
+        ArrayBackedMap<String, Integer> map = ImmutableArrayMapBuilder.<String, Integer>newBiMap()
+                .with("c", 5, "d", 4, "e", 3).buildCompact();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+
+        oos.writeObject(map);
+
+        ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
+        ObjectInputStream ois = new ObjectInputStream(bais);
+
+        ArrayBackedMap<String, Integer> map2 = (ArrayBackedMap<String, Integer>) ois.readObject();
+
+        Assert.assertEquals(map, map2);
+        Assert.assertEquals("{c=5, d=4, e=3}", map2.toString());
+        Assert.assertTrue(((CompactArrayMap<String, Integer>) map2).isBiMap());
+
+        ArrayBackedSet<String> set = ImmutableArraySet.<String>builder()
+                .with("a", "b", "c").buildCompact();
+
+        baos = new ByteArrayOutputStream();
+        oos = new ObjectOutputStream(baos);
+
+        oos.writeObject(set);
+
+        bais = new ByteArrayInputStream(baos.toByteArray());
+        ois = new ObjectInputStream(bais);
+
+        ArrayBackedSet<String> set2 = (ArrayBackedSet<String>) ois.readObject();
+        Assert.assertEquals(set, set2);
+        Assert.assertEquals("[a, b, c]", set2.toString());
+    }
+}
@@ -704,6 +704,70 @@ public final class TestImmutableArrayBiMap {
 
     }
 
+    @Test
+    public void testInverse() throws Exception {
+        ImmutableArrayMapBuilder<String, Integer> builder = ImmutableArrayMapBuilder.newBiMap();
+        for(int i = 11; i >= 0; i--) {
+            builder.with(String.valueOf((char) ('a' + i)), i * 10);
+        }
+        ImmutableArrayMap<String, Integer> map = builder.build();
+        Assert.assertTrue(map.isBiMap());
+
+        ArrayBackedMap<Integer, String> inverse = map.inverse();
+        Assert.assertEquals(12, inverse.size());
+        Assert.assertEquals("a", inverse.get(0));
+        Assert.assertEquals("l", inverse.get(110));
+        Assert.assertNull(inverse.get(5));
+        Assert.assertTrue(inverse.containsKey(50));
+        Assert.assertFalse(inverse.containsKey(55));
+        Assert.assertTrue(inverse.containsValue("c"));
+        Assert.assertFalse(inverse.containsValue("z"));
+        Assert.assertEquals(map.indexOfKey("h"), inverse.indexOfKey(70));
+        Assert.assertEquals(map.indexOfKey("h"), map.indexOfValue(70));
+        Assert.assertEquals(-1, map.indexOfValue(75));
+        Assert.assertTrue(map.containsValue(110));
+        Assert.assertFalse(map.containsValue(null));
+        Assert.assertEquals(map.indexOfKey("h"), map.lastIndexOfValue(70));
+        for(int i = 0; i < inverse.size(); i++) {
+            Assert.assertEquals(map.valueAt(i), inverse.keyAt(i));
+            Assert.assertEquals(map.keyAt(i), inverse.valueAt(i));
+            Assert.assertEquals(map.keyAt(i), inverse.entryAt(i).getValue());
+        }
+
+        Map<Integer, String> expected = new HashMap<>();
+        map.forEach((k, v) -> expected.put(v, k));
+        Assert.assertEquals(expected, inverse);
+        Assert.assertEquals(expected.hashCode(), inverse.hashCode());
+        Assert.assertEquals(expected.keySet(), inverse.keySet());
+        Assert.assertSame(map, ((ArrayBackedInverseMap<Integer, String>) inverse).inverse());
+
+        // Small bi-maps are not indexed, but still invertible
+        ImmutableArrayMap<String, Integer> small = ImmutableArrayMapBuilder.<String, Integer>newBiMap()
+                .with("a", 1, "b", 2).build();
+        Assert.assertEquals("b", small.inverse().get(2));
+        Assert.assertEquals(0, small.inverse().indexOfKey(1));
+
+        ImmutableArrayMap<String, Integer> notBiMap = ImmutableArrayMapBuilder.<String, Integer>newMap()
+                .with("a", 1, "b", 1).build();
+        Assert.assertFalse(notBiMap.isBiMap());
+        try {
+            notBiMap.inverse();
+            Assert.fail("Inverse of a map that is not a bi-map should fail");
+        } catch (UnsupportedOperationException e) {
+            Assert.assertNotNull(e);
+        }
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(inverse);
+
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        @SuppressWarnings("unchecked")
+        ArrayBackedMap<Integer, String> inverse2 = (ArrayBackedMap<Integer, String>) ois.readObject();
+        Assert.assertEquals(inverse, inverse2);
+        Assert.assertEquals("f", inverse2.get(50));
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     public void testSerialization() throws Exception {
@@ -0,0 +1,189 @@
+package net.njcull.collections;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.*;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for ImmutableArrayListMultimap.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class TestImmutableArrayListMultimap {
+
+    @Test
+    public void testBuilder() {
+        ImmutableArrayListMultimap<String, Integer> map = ImmutableArrayListMultimap.<String, Integer>builder()
+                .with("c", 3).with("a", 1).with("b", 2).with("a", 11).with("c", 3)
+                .withAll("d", Arrays.asList(4, 40, 4))
+                .build();
+
+        Assert.assertEquals(8, map.size());
+        Assert.assertEquals(4, map.keyCount());
+        Assert.assertFalse(map.isEmpty());
+        Assert.assertEquals("{a=[1, 11], b=[2], c=[3, 3], d=[4, 40, 4]}", map.toString());
+        Assert.assertEquals(Arrays.asList("a", "b", "c", "d"), new ArrayList<>(map.keySet()));
+
+        // Values keep insertion order, duplicates included
+        Assert.assertEquals(Arrays.asList(1, 11), map.get("a").asList());
+        Assert.assertEquals(Arrays.asList(3, 3), map.get("c").asList());
+        Assert.assertEquals(Arrays.asList(4, 40, 4), map.valuesAt(3).asList());
+        Assert.assertEquals(Integer.valueOf(40), map.get("d").getAtIndex(1));
+        Assert.assertTrue(map.get("x").isEmpty());
+
+        Assert.assertEquals(2, map.indexOfKey("c"));
+        Assert.assertEquals(-1, map.indexOfKey("x"));
+        Assert.assertEquals("b", map.keyAt(1));
+        Assert.assertEquals(3, map.valueCountAt(3));
+        Assert.assertTrue(map.containsKey("b"));
+        Assert.assertFalse(map.containsKey("e"));
+        Assert.assertTrue(map.containsValue(40));
+        Assert.assertFalse(map.containsValue(5));
+        Assert.assertTrue(map.containsEntry("a", 11));
+        Assert.assertFalse(map.containsEntry("b", 11));
+        Assert.assertEquals(Arrays.asList(1, 11, 2, 3, 3, 4, 40, 4), map.values().asList());
+
+        List<String> pairs = new ArrayList<>();
+        map.forEach((k, v) -> pairs.add(k + v));
+        Assert.assertEquals(Arrays.asList("a1", "a11", "b2", "c3", "c3", "d4", "d40", "d4"), pairs);
+
+        try {
+            map.valuesAt(4);
+            Assert.fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testComparatorAndNulls() {
+        ImmutableArrayListMultimap<String, String> map = ImmutableArrayListMultimapBuilder.<String, String>newMultimapComparingKeys(Comparator.reverseOrder())
+                .with("a", "x").with("b", null).with(null, "n").with("a", "y")
+                .build();
+
+        Assert.assertEquals(Arrays.asList(null, "b", "a"), new ArrayList<>(map.keySet()));
+        Assert.assertEquals(Arrays.asList("x", "y"), map.get("a").asList());
+        Assert.assertEquals(Collections.singletonList("n"), map.get(null).asList());
+        Assert.assertTrue(map.containsEntry("b", null));
+        Assert.assertTrue(map.containsValue(null));
+        Assert.assertNotNull(map.comparator());
+    }
+
+    @Test
+    public void testEmpty() {
+        ImmutableArrayListMultimap<String, String> map = ImmutableArrayListMultimap.<String, String>builder().build();
+        Assert.assertSame(ImmutableArrayListMultimap.emptyMultimap(), map);
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertEquals(0, map.keyCount());
+        Assert.assertEquals("{}", map.toString());
+        Assert.assertTrue(map.get("a").isEmpty());
+        Assert.assertFalse(map.containsKey("a"));
+    }
+
+    @Test
+    public void testEqualsHashCode() {
+        ImmutableArrayListMultimap<String, Integer> map1 = ImmutableArrayListMultimap.<String, Integer>builder()
+                .with("a", 1).with("b", 2).with("a", 3).build();
+        ImmutableArrayListMultimap<String, Integer> map2 = ImmutableArrayListMultimap.<String, Integer>builder()
+                .with("b", 2).with("a", 1).with("a", 3).build();
+        ImmutableArrayListMultimap<String, Integer> map3 = ImmutableArrayListMultimap.<String, Integer>builder()
+                .with("a", 3).with("a", 1).with("b", 2).build();
+
+        Assert.assertEquals(map1, map2);
+        Assert.assertEquals(map1.hashCode(), map2.hashCode());
+        // Value order is significant
+        Assert.assertNotEquals(map1, map3);
+
+        ImmutableSortedSetMultimap<String, Integer> setMap = ImmutableSortedSetMultimap.<String, Integer>builder()
+                .with("a", 1).with("b", 2).with("a", 3).build();
+        Assert.assertNotEquals(map1, setMap);
+    }
+
+    @Test
+    public void testViewIsNotCopied() {
+        ImmutableArrayListMultimap<String, Integer> map = ImmutableArrayListMultimap.<String, Integer>builder()
+                .with("a", 1).with("a", 2).build();
+        ArrayBackedCollection<Integer> values = map.get("a");
+        try {
+            values.add(3);
+            Assert.fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        Assert.assertEquals(2, values.size());
+    }
+
+    @Test
+    public void testCollector() {
+        ImmutableArrayListMultimap<Integer, String> map = Stream.of("one", "two", "three", "four", "five", "six")
+                .collect(Collectors.toImmutableArrayListMultimap(String::length, s -> s));
+        Assert.assertEquals("{3=[one, two, six], 4=[four, five], 5=[three]}", map.toString());
+
+        map = Stream.of("one", "two", "three", "four", "five", "six")
+                .parallel()
+                .collect(Collectors.toImmutableArrayListMultimapComparingKeys(String::length, s -> s, Comparator.reverseOrder()));
+        Assert.assertEquals("{5=[three], 4=[four, five], 3=[one, two, six]}", map.toString());
+    }
+
+    @Test
+    public void testMergeAndClear() {
+        ImmutableArrayListMultimapBuilder<String, Integer> b1 = ImmutableArrayListMultimapBuilder.newMultimap();
+        ImmutableArrayListMultimapBuilder<String, Integer> b2 = ImmutableArrayListMultimapBuilder.newMultimap();
+        b1.with("a", 1).with("b", 2);
+        b2.with("a", 3);
+        b1.merge(b2);
+        Assert.assertEquals(3, b1.size());
+        Assert.assertEquals("{a=[1, 3], b=[2]}", b1.build().toString());
+
+        Map<String, List<Integer>> source = new LinkedHashMap<>();
+        for(int i = 0; i < 100; i++) {
+            source.computeIfAbsent("k" + (i % 7), k -> new ArrayList<>()).add(i);
+        }
+        b1.clear().withAll(source);
+        ImmutableArrayListMultimap<String, Integer> map = b1.build();
+        Assert.assertEquals(100, map.size());
+        Assert.assertEquals(7, map.keyCount());
+        for(Map.Entry<String, List<Integer>> entry : source.entrySet()) {
+            Assert.assertEquals(entry.getValue(), map.get(entry.getKey()).asList());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSerialization() throws Exception {
+        ImmutableArrayListMultimap<String, Integer> map = ImmutableArrayListMultimap.<String, Integer>builder()
+                .with("b", 2).with("a", 1).with("a", 3).build();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+
+        oos.writeObject(map);
+
+        ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
+        ObjectInputStream ois = new ObjectInputStream(bais);
+
+        ImmutableArrayListMultimap<String, Integer> map2 = (ImmutableArrayListMultimap<String, Integer>) ois.readObject();
+        Assert.assertEquals("{a=[1, 3], b=[2]}", map2.toString());
+        Assert.assertEquals(map, map2);
+        Assert.assertNotSame(map, map2);
+        Assert.assertEquals(1, map2.indexOfKey("b"));
+
+        baos = new ByteArrayOutputStream();
+        oos = new ObjectOutputStream(baos);
+
+        oos.writeObject(ImmutableArrayListMultimap.emptyMultimap());
+
+        bais = new ByteArrayInputStream(baos.toByteArray());
+        ois = new ObjectInputStream(bais);
+
+        map2 = (ImmutableArrayListMultimap<String, Integer>) ois.readObject();
+        Assert.assertSame(ImmutableArrayListMultimap.emptyMultimap(), map2);
+    }
+}
@@ -0,0 +1,236 @@
+package net.njcull.collections;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.*;
+import java.util.stream.LongStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for ImmutableBigSortedLongSet.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class TestImmutableBigSortedLongSet {
+
+    @Test
+    public void testEmptySet() throws Exception {
+        ImmutableBigSortedLongSet test = ImmutableBigSortedLongSet.builder().build();
+        Assert.assertSame(test, ImmutableBigSortedLongSet.emptySet());
+        Assert.assertTrue(test.isEmpty());
+        Assert.assertEquals(0, test.size());
+        Assert.assertEquals(0L, test.longSize());
+        Assert.assertFalse(test.contains(3L));
+        Assert.assertEquals(-1L, test.indexOf(3L));
+        Assert.assertEquals(0L, test.rank(3L));
+        Assert.assertFalse(test.iterator().hasNext());
+        Assert.assertEquals(0L, test.spliterator().estimateSize());
+        Assert.assertEquals("[]", test.toString());
+        Assert.assertEquals(Collections.emptySet(), test);
+        Assert.assertEquals(0, test.hashCode());
+
+        try {
+            test.first();
+            Assert.fail("Empty set first() should fail");
+        } catch (NoSuchElementException e) {
+            Assert.assertEquals("Empty set", e.getMessage());
+        }
+        try {
+            test.getAtIndex(0L);
+            Assert.fail("Empty set getAtIndex() should fail");
+        } catch (IndexOutOfBoundsException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testSmallSet() {
+        ImmutableBigSortedLongSet test = ImmutableBigSortedLongSet.builder()
+                .with(30L, -10L, 20L, 30L, Long.MAX_VALUE, Long.MIN_VALUE, 20L)
+                .build();
+
+        Assert.assertEquals(5, test.size());
+        Assert.assertEquals(5L, test.longSize());
+        Assert.assertEquals("[" + Long.MIN_VALUE + ", -10, 20, 30, " + Long.MAX_VALUE + "]", test.toString());
+        Assert.assertEquals(Long.valueOf(Long.MIN_VALUE), test.first());
+        Assert.assertEquals(Long.valueOf(Long.MAX_VALUE), test.last());
+        Assert.assertTrue(test.contains(20L));
+        Assert.assertTrue(test.contains((Object) 20L));
+        Assert.assertFalse(test.contains((Object) 20));
+        Assert.assertFalse(test.contains(null));
+        Assert.assertEquals(2L, test.indexOf(20L));
+        Assert.assertEquals(-1L, test.indexOf(21L));
+        Assert.assertEquals(3L, test.rank(21L));
+        Assert.assertEquals(3L, test.countInRange(-10L, true, 30L, true));
+        Assert.assertEquals(1L, test.countInRange(-10L, false, 30L, false));
+        Assert.assertEquals(0L, test.countInRange(21L, true, 29L, true));
+        Assert.assertNull(test.comparator());
+
+        TreeSet<Long> expected = new TreeSet<>(Arrays.asList(30L, -10L, 20L, Long.MAX_VALUE, Long.MIN_VALUE));
+        Assert.assertEquals(expected, test);
+        Assert.assertEquals(test, expected);
+        Assert.assertEquals(expected.hashCode(), test.hashCode());
+        Assert.assertSame(test, ImmutableBigSortedLongSet.copyOf(test));
+        Assert.assertEquals(test, ImmutableBigSortedLongSet.copyOf(expected));
+
+        try {
+            test.countInRange(30L, true, 20L, true);
+            Assert.fail("Reversed range should fail");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("toValue is less than fromValue", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testSubSets() {
+        ImmutableBigSortedLongSet test = ImmutableBigSortedLongSet.builder()
+                .with(10L, 20L, 30L, 40L, 50L)
+                .build();
+
+        ImmutableBigSortedLongSet sub = test.subSet(15L, 40L);
+        Assert.assertEquals("[20, 30]", sub.toString());
+        Assert.assertEquals(0L, sub.indexOf(20L));
+        Assert.assertEquals(-1L, sub.indexOf(40L));
+        Assert.assertEquals(Long.valueOf(30L), sub.last());
+        Assert.assertEquals(30L, sub.getAtIndex(1L));
+        Assert.assertEquals("[10, 20]", test.headSet(30L).toString());
+        Assert.assertEquals("[30, 40, 50]", test.tailSet(30L).toString());
+        Assert.assertEquals("[30]", test.tailSet(30L).headSet(31L).toString());
+        Assert.assertSame(test, test.headSet(60L));
+        Assert.assertSame(ImmutableBigSortedLongSet.emptySet(), test.subSet(21L, 29L));
+        Assert.assertEquals("[40]", test.subSetByIndex(3L, 4L).toString());
+
+        try {
+            test.subSet(40L, 20L);
+            Assert.fail("Reversed subSet should fail");
+        } catch (IllegalArgumentException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testLargeSet() {
+        Random random = new Random(47L);
+        TreeSet<Long> expected = new TreeSet<>();
+        ImmutableBigSortedLongSetBuilder builder = ImmutableBigSortedLongSet.builder();
+        for(int i = 0; i < 200000; i++) {
+            // a narrow range, so that there are duplicates to collapse
+            long value = random.nextInt(150000) - 75000L;
+            expected.add(value);
+            builder.with(value);
+        }
+        Assert.assertEquals(200000L, builder.size());
+        ImmutableBigSortedLongSet test = builder.build();
+
+        Assert.assertEquals(expected.size(), test.longSize());
+        Assert.assertEquals(expected.hashCode(), test.hashCode());
+        long index = 0L;
+        for(Long value : expected) {
+            Assert.assertEquals(value.longValue(), test.getAtIndex(index));
+            Assert.assertEquals(index, test.indexOf(value));
+            index++;
+        }
+        Assert.assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(),
+                test.longStream().toArray());
+        Assert.assertEquals(expected.subSet(-1000L, 1000L).size(), test.countInRange(-1000L, true, 1000L, false));
+        Assert.assertEquals(expected.subSet(-1000L, 1000L).size(), test.subSet(-1000L, 1000L).longSize());
+
+        // The builder may be reused after building
+        Assert.assertEquals(test, builder.build());
+        builder.with(75001L);
+        expected.add(75001L);
+        Assert.assertEquals(expected, builder.build());
+        Assert.assertSame(builder, builder.clear());
+        Assert.assertEquals(0L, builder.size());
+    }
+
+    @Test
+    public void testBuildMergesRuns() {
+        // Runs holding disjoint ranges, runs spanning the whole range, and
+        // runs all holding the same few values
+        final int size = 300000;
+        ImmutableBigSortedLongSetBuilder ascending = ImmutableBigSortedLongSet.builder();
+        ImmutableBigSortedLongSetBuilder descending = ImmutableBigSortedLongSet.builder();
+        ImmutableBigSortedLongSetBuilder interleaved = ImmutableBigSortedLongSet.builder();
+        ImmutableBigSortedLongSetBuilder repeated = ImmutableBigSortedLongSet.builder();
+        for(int i = 0; i < size; i++) {
+            ascending.with(i);
+            descending.with(size - 1L - i);
+            interleaved.with((i % 10L) * 30000L + (i / 10L));
+            repeated.with(i % 7L);
+        }
+
+        for(ImmutableBigSortedLongSetBuilder builder : Arrays.asList(ascending, descending, interleaved)) {
+            ImmutableBigSortedLongSet test = builder.build();
+            Assert.assertEquals(size, test.longSize());
+            Assert.assertEquals(0L, test.first().longValue());
+            Assert.assertEquals(size - 1L, test.last().longValue());
+            for(long i = 0L; i < size; i += 1009L) {
+                Assert.assertEquals(i, test.getAtIndex(i));
+            }
+            Assert.assertArrayEquals(LongStream.range(0L, size).toArray(), test.longStream().toArray());
+        }
+        Assert.assertArrayEquals(new long[] { 0L, 1L, 2L, 3L, 4L, 5L, 6L },
+                repeated.build().longStream().toArray());
+    }
+
+    @Test
+    public void testSpliterator() {
+        ImmutableBigSortedLongSetBuilder builder = ImmutableBigSortedLongSet.builder();
+        for(long i = 0L; i < 100000L; i++) {
+            builder.with(99999L - i);
+        }
+        ImmutableBigSortedLongSet test = builder.build();
+
+        Spliterator.OfLong spliterator = test.spliterator();
+        Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.SORTED));
+        Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+        Assert.assertNull(spliterator.getComparator());
+        Assert.assertEquals(100000L, spliterator.getExactSizeIfKnown());
+
+        Spliterator.OfLong prefix = spliterator.trySplit();
+        Assert.assertNotNull(prefix);
+        Assert.assertEquals(50000L, prefix.estimateSize());
+        Assert.assertEquals(50000L, spliterator.estimateSize());
+        long[] first = new long[1];
+        Assert.assertTrue(prefix.tryAdvance((long value) -> first[0] = value));
+        Assert.assertEquals(0L, first[0]);
+        Assert.assertTrue(spliterator.tryAdvance((long value) -> first[0] = value));
+        Assert.assertEquals(50000L, first[0]);
+
+        Assert.assertEquals(4999950000L, test.longStream().parallel().sum());
+        Assert.assertEquals(100000L, test.longStream().parallel().distinct().count());
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        ImmutableBigSortedLongSet set = ImmutableBigSortedLongSet.builder()
+                .with(1L, 2L, 3L, 4L, 5L)
+                .build()
+                .subSet(2L, 5L);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(set);
+
+        ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
+        ObjectInputStream ois = new ObjectInputStream(bais);
+        ImmutableBigSortedLongSet set2 = (ImmutableBigSortedLongSet) ois.readObject();
+        Assert.assertNotSame(set, set2);
+        Assert.assertEquals("[2, 3, 4]", set2.toString());
+        Assert.assertEquals(1L, set2.indexOf(3L));
+
+        baos = new ByteArrayOutputStream();
+        oos = new ObjectOutputStream(baos);
+        oos.writeObject(ImmutableBigSortedLongSet.emptySet());
+
+        bais = new ByteArrayInputStream(baos.toByteArray());
+        ois = new ObjectInputStream(bais);
+        Assert.assertSame(ImmutableBigSortedLongSet.emptySet(), ois.readObject());
+    }
+}
@@ -0,0 +1,168 @@
+package net.njcull.collections;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for ImmutableCollectionInterner.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class TestImmutableCollectionInterner {
+
+    @Test
+    public void testIntern() throws Exception {
+        ImmutableCollectionInterner<ImmutableArraySet<String>> interner = ImmutableCollectionInterner.newInterner();
+
+        ImmutableArraySet<String> set1 = ImmutableArraySet.<String>builder().with("a", "b", "c").build();
+        ImmutableArraySet<String> set2 = ImmutableArraySet.<String>builder().with("a", "b", "c").build();
+        Assert.assertNotSame(set1, set2);
+
+        Assert.assertSame(set1, interner.intern(set1));
+        Assert.assertSame(set1, interner.intern(set2));
+        Assert.assertSame(set1, interner.intern(set1));
+        Assert.assertEquals(1, interner.size());
+
+        // Equal as sets, but in a different order, so not interchangeable
+        ImmutableArraySet<String> set3 = ImmutableArraySet.<String>builder().with("c", "b", "a").build();
+        Assert.assertEquals(set1, set3);
+        Assert.assertSame(set3, interner.intern(set3));
+        Assert.assertEquals(2, interner.size());
+
+        ImmutableArraySet<String> set4 = ImmutableArraySet.<String>builder().with("d").build();
+        Assert.assertSame(set4, interner.intern(set4));
+        Assert.assertEquals(3, interner.size());
+
+        interner.clear();
+        Assert.assertEquals(0, interner.size());
+        Assert.assertSame(set2, interner.intern(set2));
+
+        try {
+            interner.intern(null);
+            Assert.fail();
+        } catch (NullPointerException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testMixedClasses() throws Exception {
+        ImmutableCollectionInterner<Set<String>> interner = ImmutableCollectionInterner.newInterner();
+
+        ImmutableArraySet<String> arraySet = ImmutableArraySet.<String>builder().with("a", "b").build();
+        ImmutableSortedArraySet<String> sortedSet = ImmutableSortedArraySet.<String>builder().with("a", "b").build();
+        ImmutableSortedArraySet<String> reverseSet = ImmutableSortedArraySetBuilder.<String>newComparing(Comparator.reverseOrder())
+                .with("a", "b").build();
+        ImmutableHashedArraySet<String> hashedSet = ImmutableHashedArraySet.<String>builder().with("a", "b").build();
+
+        Assert.assertEquals(arraySet, sortedSet);
+        Assert.assertEquals(arraySet, reverseSet);
+        Assert.assertEquals(arraySet, hashedSet);
+
+        // Equal sets of different classes or comparators are kept apart
+        Assert.assertSame(arraySet, interner.intern(arraySet));
+        Assert.assertSame(sortedSet, interner.intern(sortedSet));
+        Assert.assertSame(reverseSet, interner.intern(reverseSet));
+        Assert.assertSame(hashedSet, interner.intern(hashedSet));
+        Assert.assertEquals(4, interner.size());
+
+        Assert.assertSame(sortedSet, interner.intern(ImmutableSortedArraySet.<String>builder().with("b", "a").build()));
+    }
+
+    @Test
+    public void testBuilders() throws Exception {
+        ImmutableCollectionInterner<Set<String>> interner = ImmutableCollectionInterner.newInterner();
+
+        ImmutableArraySetBuilder<String> arrayBuilder = ImmutableArraySet.<String>builder().interner(interner);
+        ImmutableArraySet<String> set1 = arrayBuilder.with("x", "y", "y").build();
+        ImmutableArraySet<String> set2 = arrayBuilder.clear().interner(interner).with("x", "y").build();
+        Assert.assertSame(set1, set2);
+        Assert.assertSame(set1, arrayBuilder.build());
+
+        // Clearing the builder removes the interner
+        Assert.assertNotSame(set1, arrayBuilder.clear().with("x", "y").build());
+
+        ImmutableSortedArraySetBuilder<String> sortedBuilder = ImmutableSortedArraySet.<String>builder().interner(interner);
+        ImmutableSortedArraySet<String> sorted1 = sortedBuilder.with("y", "x").build();
+        Assert.assertSame(sorted1, sortedBuilder.build());
+        Assert.assertEquals(Arrays.asList("x", "y"), sorted1.asList());
+
+        ImmutableHashedArraySetBuilder<String> hashedBuilder = ImmutableHashedArraySet.<String>builder().interner(interner);
+        ImmutableHashedArraySet<String> hashed1 = hashedBuilder.with("x").build();
+        Assert.assertSame(hashed1, hashedBuilder.build());
+
+        // Empty sets are already canonical
+        Assert.assertSame(ImmutableArraySet.emptySet(), arrayBuilder.clear().interner(interner).build());
+        Assert.assertEquals(3, interner.size());
+    }
+
+    @Test
+    public void testWeakValues() throws Exception {
+        ImmutableCollectionInterner<ImmutableArraySet<Integer>> interner = ImmutableCollectionInterner.newInterner();
+
+        ImmutableArraySet<Integer> set = ImmutableArraySet.<Integer>builder().with(1, 2, 3).build();
+        WeakReference<ImmutableArraySet<Integer>> ref = new WeakReference<>(interner.intern(set));
+        Assert.assertEquals(1, interner.size());
+        set = null;
+
+        for(int i = 0; (i < 50) && (ref.get() != null); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull(ref.get());
+
+        ImmutableArraySet<Integer> set2 = ImmutableArraySet.<Integer>builder().with(1, 2, 3).build();
+        Assert.assertSame(set2, interner.intern(set2));
+        Assert.assertEquals(1, interner.size());
+    }
+
+    @Test
+    public void testConcurrentIntern() throws Exception {
+        final ImmutableCollectionInterner<ImmutableArraySet<Integer>> interner = ImmutableCollectionInterner.newInterner();
+        final int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<ImmutableArraySet<Integer>>>> futures = new ArrayList<>();
+            for(int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    List<ImmutableArraySet<Integer>> result = new ArrayList<>();
+                    for(int i = 0; i < 1000; i++) {
+                        result.add(interner.intern(ImmutableArraySet.<Integer>builder().with(i % 100, -1).build()));
+                    }
+                    return result;
+                }));
+            }
+
+            List<ImmutableArraySet<Integer>> first = futures.get(0).get(30, TimeUnit.SECONDS);
+            for(Future<List<ImmutableArraySet<Integer>>> future : futures) {
+                List<ImmutableArraySet<Integer>> result = future.get(30, TimeUnit.SECONDS);
+                for(int i = 0; i < 1000; i++) {
+                    Assert.assertSame(first.get(i % 100), result.get(i));
+                }
+            }
+            Assert.assertEquals(100, interner.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testMemoisedHashCode() throws Exception {
+        ImmutableArraySet<String> set = ImmutableArraySet.<String>builder().with("a", null, "b").build();
+        int expected = new HashSet<>(Arrays.asList("a", null, "b")).hashCode();
+        Assert.assertEquals(expected, set.hashCode());
+        Assert.assertEquals(expected, set.hashCode());
+
+        ImmutableSortedArraySet<String> sorted = ImmutableSortedArraySet.<String>builder().with("a", "b").build();
+        Assert.assertEquals("a".hashCode() + "b".hashCode(), sorted.hashCode());
+        Assert.assertEquals(0, ImmutableHashedArraySet.emptySet().hashCode());
+    }
+}
@@ -14,6 +14,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
@@ -928,6 +929,237 @@ public final class TestImmutableHashedArrayMap {
 
     }
 
+    @Test
+    public void testValueSearch() throws Exception {
+        ImmutableHashedArrayMap<String, Integer> map =
+                ImmutableHashedArrayMap.<String, Integer>builder()
+                        .with("a", 1, "b", 2, "c", 1)
+                        .with("d", null, "e", 3).build();
+
+        Assert.assertEquals(5, map.size());
+        Assert.assertTrue(map.containsKey("c"));
+        Assert.assertEquals(Integer.valueOf(3), map.get("e"));
+
+        // Value hash codes are calculated on the first value search
+        Assert.assertTrue(map.containsValue(1));
+        Assert.assertTrue(map.containsValue(null));
+        Assert.assertFalse(map.containsValue(4));
+        Assert.assertFalse(map.containsValue("1"));
+
+        Assert.assertEquals(0, map.indexOfValue(1));
+        Assert.assertEquals(2, map.lastIndexOfValue(1));
+        Assert.assertEquals(3, map.indexOfValue(null));
+        Assert.assertEquals(3, map.lastIndexOfValue(null));
+        Assert.assertEquals(-1, map.indexOfValue(4));
+        Assert.assertEquals(-1, map.lastIndexOfValue(4));
+
+        Assert.assertTrue(map.values().contains(2));
+        Assert.assertEquals(1, map.values().indexOf(2));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testPerfectHash() throws Exception {
+        ImmutableHashedArrayMapBuilder<String, Integer> builder =
+                ImmutableHashedArrayMap.<String, Integer>builder().perfectHash(true);
+        for(int i = 0; i < 5000; i++) {
+            builder.with("key" + i, i);
+        }
+        // "Aa" and "BB" have the same hash code, as do "AaAa" and "BBBB"
+        builder.with("Aa", -1, "BB", -2, "AaAa", -3, "BBBB", -4);
+        builder.with(null, -5);
+
+        ImmutableHashedArrayMap<String, Integer> map = builder.build();
+        Assert.assertTrue(map.hasPerfectHash());
+        Assert.assertEquals(5005, map.size());
+
+        for(int i = 0; i < 5000; i++) {
+            int idx = map.indexOfKey("key" + i);
+            Assert.assertTrue(idx >= 0);
+            Assert.assertEquals("key" + i, map.keyAt(idx));
+            Assert.assertEquals(Integer.valueOf(i), map.get("key" + i));
+            Assert.assertTrue(map.containsKey("key" + i));
+        }
+        Assert.assertEquals(Integer.valueOf(-1), map.get("Aa"));
+        Assert.assertEquals(Integer.valueOf(-2), map.get("BB"));
+        Assert.assertEquals(Integer.valueOf(-3), map.get("AaAa"));
+        Assert.assertEquals(Integer.valueOf(-4), map.get("BBBB"));
+        Assert.assertEquals(Integer.valueOf(-5), map.get(null));
+        Assert.assertTrue(map.containsKey(null));
+
+        for(int i = 5000; i < 6000; i++) {
+            Assert.assertFalse(map.containsKey("key" + i));
+            Assert.assertNull(map.get("key" + i));
+            Assert.assertEquals(-1, map.indexOfKey("key" + i));
+        }
+        Assert.assertFalse(map.containsKey("AaBB"));
+        Assert.assertFalse(map.containsKey(5));
+
+        // Values remain with their keys
+        Assert.assertEquals(map.indexOfKey("key42"), map.indexOfValue(42));
+        Assert.assertTrue(map.containsValue(-5));
+
+        // Clearing the builder resets the perfect hash mode
+        map = builder.clear().with("a", 1).build();
+        Assert.assertFalse(map.hasPerfectHash());
+
+        // Serialization rebuilds the hash function
+        map = ImmutableHashedArrayMapBuilder.<String, Integer>newBiMap().perfectHash(true)
+                .with("c", 5, "d", 4, "e", 3)
+                .with("a", 7, "b", 96).build();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(map);
+
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        ImmutableHashedArrayMap<String, Integer> map2 = (ImmutableHashedArrayMap<String, Integer>) ois.readObject();
+
+        Assert.assertTrue(map2.hasPerfectHash());
+        Assert.assertEquals(map, map2);
+        Assert.assertEquals(Integer.valueOf(96), map2.get("b"));
+        Assert.assertEquals("b", map2.inverse().get(96));
+        Assert.assertNull(map2.get("f"));
+    }
+
+    private static String collidingKey(int group, int bits) {
+        // "Aa" and "BB" have the same hash code, so every key in a group
+        // shares one hash code, whatever its bits
+        StringBuilder sb = new StringBuilder("g").append(group).append('-');
+        for(int b = 0; b < 5; b++) {
+            sb.append(((bits >>> b) & 1) == 0 ? "Aa" : "BB");
+        }
+        return sb.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testPerfectHashCollisions() throws Exception {
+        ImmutableHashedArrayMapBuilder<String, Integer> builder =
+                ImmutableHashedArrayMap.<String, Integer>builder().perfectHash(true);
+        for(int i = 0; i < 2000; i++) {
+            builder.with("key" + i, i);
+        }
+        // All but the last key of each group, which has the same hash code
+        for(int group = 0; group < 200; group++) {
+            for(int bits = 0; bits < 31; bits++) {
+                builder.with(collidingKey(group, bits), -(group * 32 + bits) - 1);
+            }
+        }
+        Assert.assertEquals(collidingKey(0, 0).hashCode(), collidingKey(0, 31).hashCode());
+
+        ImmutableHashedArrayMap<String, Integer> map = builder.build();
+        Assert.assertTrue(map.hasPerfectHash());
+        Assert.assertEquals(8200, map.size());
+
+        for(int pass = 0; pass < 2; pass++) {
+            for(int group = 0; group < 200; group++) {
+                for(int bits = 0; bits < 31; bits++) {
+                    String key = collidingKey(group, bits);
+                    int idx = map.indexOfKey(key);
+                    Assert.assertEquals(key, map.keyAt(idx));
+                    Assert.assertEquals(Integer.valueOf(-(group * 32 + bits) - 1), map.get(key));
+                }
+                Assert.assertFalse(map.containsKey(collidingKey(group, 31)));
+                Assert.assertFalse(map.containsKey(collidingKey(group + 200, 0)));
+            }
+            for(int i = 0; i < 2000; i++) {
+                Assert.assertEquals(Integer.valueOf(i), map.get("key" + i));
+            }
+
+            String[] probes = { collidingKey(7, 3), collidingKey(7, 31), "key7", collidingKey(199, 30) };
+            int[] out = new int[probes.length];
+            Assert.assertEquals(3, map.indexOfKeys(probes, out));
+            Assert.assertEquals(map.indexOfKey(probes[0]), out[0]);
+            Assert.assertEquals(-1, out[1]);
+            Assert.assertEquals(map.indexOfKey(probes[3]), out[3]);
+
+            // Serialization rebuilds the hash function, and reorders the overflow
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            ObjectOutputStream oos = new ObjectOutputStream(baos);
+            oos.writeObject(map);
+            ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+            ImmutableHashedArrayMap<String, Integer> map2 = (ImmutableHashedArrayMap<String, Integer>) ois.readObject();
+            Assert.assertEquals(map, map2);
+            map = map2;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testValueDictionary() throws Exception {
+        ImmutableHashedArrayMapBuilder<String, String> builder =
+                ImmutableHashedArrayMap.<String, String>builder().valueDictionary(true);
+        for(int i = 0; i < 1000; i++) {
+            builder.with("key" + i, "state" + (i % 3));
+        }
+        builder.with("nullValue", null);
+
+        ImmutableHashedArrayMap<String, String> map = builder.build();
+        Assert.assertTrue(map.hasValueDictionary());
+        Assert.assertEquals(1001, map.size());
+        Assert.assertEquals("state1", map.get("key4"));
+        Assert.assertEquals("state1", map.valueAt(4));
+        Assert.assertEquals("key4", map.keyAt(4));
+        Assert.assertNull(map.get("nullValue"));
+        Assert.assertTrue(map.containsKey("nullValue"));
+        Assert.assertTrue(map.containsValue("state2"));
+        Assert.assertTrue(map.containsValue(null));
+        Assert.assertFalse(map.containsValue("state3"));
+        Assert.assertEquals(1, map.indexOfValue("state1"));
+        Assert.assertEquals(997, map.lastIndexOfValue("state1"));
+        Assert.assertEquals(-1, map.indexOfValue("state3"));
+        Assert.assertEquals(-1, map.lastIndexOfValue("state3"));
+        Assert.assertEquals(1001, map.values().size());
+        Assert.assertEquals("state0", map.entrySet().iterator().next().getValue());
+
+        HashMap<String, String> expected = new HashMap<>(map);
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(expected.hashCode(), map.hashCode());
+
+        // More than 256 distinct values
+        ImmutableHashedArrayMapBuilder<Integer, String> wideBuilder =
+                ImmutableHashedArrayMap.<Integer, String>builder().valueDictionary(true);
+        for(int i = 0; i < 1000; i++) {
+            wideBuilder.with(i, "v" + (i % 500));
+        }
+        ImmutableHashedArrayMap<Integer, String> wide = wideBuilder.build();
+        Assert.assertTrue(wide.hasValueDictionary());
+        Assert.assertEquals("v499", wide.get(999));
+        Assert.assertEquals(499, wide.indexOfValue("v499"));
+        Assert.assertEquals(999, wide.lastIndexOfValue("v499"));
+
+        // Combined with a perfect hash, values remain with their keys
+        map = ImmutableHashedArrayMap.<String, String>builder().valueDictionary(true).perfectHash(true)
+                .with("a", "x", "b", "y", "c", "x")
+                .with("d", "z", "e", "x").build();
+        Assert.assertTrue(map.hasValueDictionary());
+        Assert.assertTrue(map.hasPerfectHash());
+        Assert.assertEquals("y", map.get("b"));
+        Assert.assertEquals("z", map.get("d"));
+        Assert.assertEquals("x", map.get("e"));
+        Assert.assertEquals(map.indexOfKey("b"), map.indexOfValue("y"));
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(map);
+
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        ImmutableHashedArrayMap<String, String> map2 = (ImmutableHashedArrayMap<String, String>) ois.readObject();
+        Assert.assertTrue(map2.hasValueDictionary());
+        Assert.assertEquals(map, map2);
+        Assert.assertEquals("y", map2.get("b"));
+        Assert.assertEquals("z", map2.get("d"));
+        Assert.assertFalse(map2.containsValue("w"));
+
+        // Bi-maps ignore the option, and clearing resets it
+        map = ImmutableHashedArrayMapBuilder.<String, String>newBiMap().valueDictionary(true)
+                .with("a", "x", "b", "y").build();
+        Assert.assertFalse(map.hasValueDictionary());
+        map = builder.clear().with("a", "x").build();
+        Assert.assertFalse(map.hasValueDictionary());
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     public void testSerialization() throws Exception {
@@ -952,6 +1184,8 @@ public final class TestImmutableHashedArrayMap {
 
         Assert.assertEquals(Integer.valueOf(4), map2.get("d"));
         Assert.assertEquals(Integer.valueOf(1), map2.get("g"));
+        Assert.assertTrue(map2.containsValue(96));
+        Assert.assertEquals(4, map2.indexOfValue(96));
 
         // Keysets
         baos = new ByteArrayOutputStream();
@@ -1019,4 +1253,167 @@ public final class TestImmutableHashedArrayMap {
         Assert.assertSame(ImmutableHashedArrayMap.emptyMap(), map2);
 
     }
+
+    @Test
+    public void testIndexOfKeys() throws Exception {
+        ImmutableHashedArrayMapBuilder<String, Integer> builder = ImmutableHashedArrayMapBuilder.newMap();
+        for(int i = 0; i < 500; i++) {
+            builder.with("k" + i, i);
+        }
+
+        // Linear scan and perfect hash maps answer the same
+        for(boolean perfect : new boolean[] { false, true }) {
+            ImmutableHashedArrayMap<String, Integer> map = builder.perfectHash(perfect).build();
+            Random random = new Random(42L);
+            Object[] probes = new Object[300];
+            for(int i = 0; i < probes.length; i++) {
+                probes[i] = "k" + random.nextInt(700);
+            }
+            probes[7] = null;
+            probes[8] = probes[3];
+            int[] out = new int[probes.length];
+            int found = map.indexOfKeys(probes, out);
+            int expectedFound = 0;
+            for(int i = 0; i < probes.length; i++) {
+                Assert.assertEquals(map.indexOfKey(probes[i]), out[i]);
+                if(out[i] >= 0) {
+                    expectedFound++;
+                }
+            }
+            Assert.assertEquals(expectedFound, found);
+
+            // Small batches are searched one at a time
+            out = new int[3];
+            Assert.assertEquals(2, map.indexOfKeys(new Object[] { "k5", "x", "k499" }, out));
+            Assert.assertEquals(-1, out[1]);
+            Assert.assertEquals(Integer.valueOf(499), map.valueAt(out[2]));
+
+            ImmutableHashedArrayMap<String, Integer> all = map.getAll(Arrays.asList("k9", "k1", "zz", "k9"));
+            Map<String, Integer> expected = new HashMap<>();
+            expected.put("k1", 1);
+            expected.put("k9", 9);
+            Assert.assertEquals(expected, all);
+            Assert.assertEquals(perfect, all.hasPerfectHash());
+        }
+
+        // Entries are copied directly, with or without a value dictionary
+        for(int kind = 0; kind < 4; kind++) {
+            boolean perfect = (kind & 1) != 0;
+            boolean dictionary = (kind & 2) != 0;
+            ImmutableHashedArrayMapBuilder<String, Integer> source = dictionary
+                    ? ImmutableHashedArrayMapBuilder.<String, Integer>newMap().valueDictionary(true)
+                    : ImmutableHashedArrayMapBuilder.<String, Integer>newBiMap();
+            source.perfectHash(perfect);
+            Map<String, Integer> expected = new HashMap<>();
+            List<String> wanted = new ArrayList<>();
+            for(int i = 0; i < 300; i++) {
+                Integer value = dictionary ? Integer.valueOf(i % 5) : Integer.valueOf(i);
+                source.with("k" + i, value);
+                if(i % 4 == 1) {
+                    expected.put("k" + i, value);
+                    wanted.add("k" + i);
+                    wanted.add("missing" + i);
+                }
+            }
+            ImmutableHashedArrayMap<String, Integer> all = source.build().getAll(wanted);
+            Assert.assertEquals(expected, all);
+            Assert.assertEquals(perfect, all.hasPerfectHash());
+            Assert.assertEquals(dictionary, all.hasValueDictionary());
+            Assert.assertEquals(!dictionary, all.isBiMap());
+            for(Map.Entry<String, Integer> entry : expected.entrySet()) {
+                Assert.assertEquals(entry.getValue(), all.valueAt(all.indexOfKey(entry.getKey())));
+                if(!dictionary) {
+                    Assert.assertEquals(entry.getKey(), all.inverse().get(entry.getValue()));
+                }
+            }
+            Assert.assertFalse(all.containsKey("k0"));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testChunked() throws Exception {
+        // Large enough that the keys, values and hash codes are held in chunks
+        final int size = 70000;
+        ImmutableHashedArrayMapBuilder<String, Integer> builder = ImmutableHashedArrayMapBuilder.<String, Integer>newBiMap();
+        for(int i = 0; i < size; i++) {
+            builder.with("k" + i, i);
+        }
+        Assert.assertFalse(ImmutableHashedArrayMap.<String, Integer>builder().with("a", 1).build().isChunked());
+
+        for(boolean perfect : new boolean[] { false, true }) {
+            ImmutableHashedArrayMap<String, Integer> map = builder.perfectHash(perfect).build();
+            Assert.assertTrue(map.isChunked());
+            Assert.assertEquals(size, map.size());
+            for(int i = 0; i < size; i += 997) {
+                Assert.assertEquals(Integer.valueOf(i), map.get("k" + i));
+                Assert.assertTrue(map.containsValue(i));
+                Assert.assertEquals("k" + i, map.keyAt(map.indexOfValue(i)));
+                Assert.assertEquals("k" + i, map.inverse().get(i));
+            }
+            Assert.assertNull(map.get("k" + size));
+            Assert.assertFalse(map.containsKey(null));
+            Assert.assertFalse(map.containsValue(-1));
+
+            Object[] probes = new Object[20];
+            for(int i = 0; i < probes.length; i++) {
+                probes[i] = "k" + (i * 5000);
+            }
+            int[] out = new int[probes.length];
+            Assert.assertEquals(14, map.indexOfKeys(probes, out));
+            for(int i = 0; i < probes.length; i++) {
+                Assert.assertEquals(map.indexOfKey(probes[i]), out[i]);
+            }
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            ObjectOutputStream oos = new ObjectOutputStream(baos);
+            oos.writeObject(map);
+
+            ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+            ImmutableHashedArrayMap<String, Integer> map2 = (ImmutableHashedArrayMap<String, Integer>) ois.readObject();
+            Assert.assertTrue(map2.isChunked());
+            Assert.assertEquals(perfect, map2.hasPerfectHash());
+            Assert.assertEquals(Integer.valueOf(65432), map2.get("k65432"));
+            Assert.assertEquals("k12345", map2.inverse().get(12345));
+            Assert.assertEquals(map.hashCode(), map2.hashCode());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testChunkedValueDictionary() throws Exception {
+        // Large enough that the keys, hash codes and dictionary codes are held in chunks
+        final int size = 140000;
+        ImmutableHashedArrayMapBuilder<String, String> builder =
+                ImmutableHashedArrayMap.<String, String>builder().valueDictionary(true);
+        for(int i = 0; i < size; i++) {
+            builder.with("k" + i, "v" + (i % 300));
+        }
+
+        for(boolean perfect : new boolean[] { false, true }) {
+            ImmutableHashedArrayMap<String, String> map = builder.perfectHash(perfect).build();
+            Assert.assertTrue(map.isChunked());
+            Assert.assertTrue(map.hasValueDictionary());
+            Assert.assertEquals(size, map.size());
+            for(int i = 0; i < size; i += 997) {
+                Assert.assertEquals("v" + (i % 300), map.get("k" + i));
+            }
+            Assert.assertNull(map.get("k" + size));
+            Assert.assertTrue(map.containsValue("v299"));
+            Assert.assertFalse(map.containsValue("v300"));
+            Assert.assertEquals("v123", map.valueAt(map.indexOfValue("v123")));
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            ObjectOutputStream oos = new ObjectOutputStream(baos);
+            oos.writeObject(map);
+
+            ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+            ImmutableHashedArrayMap<String, String> map2 = (ImmutableHashedArrayMap<String, String>) ois.readObject();
+            Assert.assertTrue(map2.isChunked());
+            Assert.assertTrue(map2.hasValueDictionary());
+            Assert.assertEquals(perfect, map2.hasPerfectHash());
+            Assert.assertEquals(map, map2);
+            Assert.assertEquals("v45", map2.get("k123345"));
+        }
+    }
 }
@@ -0,0 +1,212 @@
+package net.njcull.collections;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for ImmutableIntSet.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class TestImmutableIntSet {
+
+    private static void assertSameSet(TreeSet<Integer> expected, ImmutableIntSet set) {
+        Assert.assertEquals(expected.size(), set.size());
+        Assert.assertEquals(new ArrayList<>(expected), new ArrayList<>(set));
+        Assert.assertEquals(expected, set);
+        Assert.assertEquals(set, expected);
+        Assert.assertEquals(expected.hashCode(), set.hashCode());
+
+        int i = 0;
+        for(int value : expected) {
+            Assert.assertEquals(value, set.getInt(i));
+            Assert.assertEquals(i, set.indexOf(value));
+            Assert.assertTrue(set.contains(value));
+            if((value != Integer.MAX_VALUE) && !expected.contains(value + 1)) {
+                Assert.assertFalse(set.contains(value + 1));
+                Assert.assertEquals(-1, set.indexOf(value + 1));
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Sample containing array, bitmap and run containers.
+     */
+    private static TreeSet<Integer> sample(long seed, int offset) {
+        Random random = new Random(seed);
+        TreeSet<Integer> expected = new TreeSet<>();
+        // Sparse chunk, as an array
+        for(int i = 0; i < 500; i++) {
+            expected.add(offset + random.nextInt(65536));
+        }
+        // Dense chunk, as a bitmap
+        for(int i = 0; i < 30000; i++) {
+            expected.add(offset + 65536 + random.nextInt(65536));
+        }
+        // Runs
+        for(int i = 0; i < 20; i++) {
+            int start = offset + 3 * 65536 + random.nextInt(60000);
+            for(int j = 0; j < 1000; j++) {
+                expected.add(start + j);
+            }
+        }
+        // Spread across many chunks
+        for(int i = 0; i < 2000; i++) {
+            expected.add(offset + random.nextInt(50_000_000));
+        }
+        return expected;
+    }
+
+    @Test
+    public void testEmptySet() throws Exception {
+        ImmutableIntSet test = ImmutableIntSet.builder().build();
+        Assert.assertFalse(test.contains(3));
+        Assert.assertSame(test, ImmutableIntSet.emptySet());
+        Assert.assertTrue(test.isEmpty());
+        Assert.assertEquals(0, test.size());
+        Assert.assertEquals("[]", test.toString());
+        Assert.assertEquals(0, test.hashCode());
+        Assert.assertFalse(test.intIterator().hasNext());
+    }
+
+    @Test
+    public void testBuildMerge() throws Exception {
+        ImmutableIntSetBuilder builder = new ImmutableIntSetBuilder();
+        ImmutableIntSetBuilder builder2 = new ImmutableIntSetBuilder();
+
+        builder.with(Arrays.asList(3, 2, 1));
+        builder2.with(7, 6).with(5, 4, 1);
+        builder.merge(builder2);
+
+        ImmutableIntSet set = builder.build();
+        Assert.assertEquals(5, builder2.size());
+        builder2.clear();
+        Assert.assertEquals(0, builder2.size());
+
+        Assert.assertEquals(7, set.size());
+        Assert.assertEquals("[1, 2, 3, 4, 5, 6, 7]", set.toString());
+        Assert.assertArrayEquals(new int[] { 1, 2, 3, 4, 5, 6, 7 }, set.toIntArray());
+    }
+
+    @Test
+    public void testContainers() throws Exception {
+        TreeSet<Integer> expected = sample(42L, 0);
+        assertSameSet(expected, ImmutableIntSet.copyOf(expected));
+
+        // Negative values are ordered before positive values
+        TreeSet<Integer> signed = new TreeSet<>(Arrays.asList(
+                Integer.MIN_VALUE, -65537, -65536, -1, 0, 1, 65535, 65536, Integer.MAX_VALUE));
+        assertSameSet(signed, ImmutableIntSet.copyOf(signed));
+
+        // A full chunk is a single run
+        ImmutableIntSet full = ImmutableIntSet.copyOf(IntStream.range(65536, 131072).toArray());
+        Assert.assertEquals(65536, full.size());
+        Assert.assertEquals(131071, full.getInt(65535));
+        Assert.assertEquals(65535, full.indexOf(131071));
+        Assert.assertFalse(full.contains(131072));
+    }
+
+    @Test
+    public void testSetOperations() throws Exception {
+        TreeSet<Integer> a = sample(1L, 0);
+        TreeSet<Integer> b = sample(2L, 32768);
+        ImmutableIntSet setA = ImmutableIntSet.copyOf(a);
+        ImmutableIntSet setB = ImmutableIntSet.copyOf(b);
+
+        TreeSet<Integer> and = new TreeSet<>(a);
+        and.retainAll(b);
+        TreeSet<Integer> or = new TreeSet<>(a);
+        or.addAll(b);
+        TreeSet<Integer> andNot = new TreeSet<>(a);
+        andNot.removeAll(b);
+
+        assertSameSet(and, setA.and(setB));
+        assertSameSet(or, setA.or(setB));
+        assertSameSet(andNot, setA.andNot(setB));
+        Assert.assertEquals(and.size(), setA.andCardinality(setB));
+        Assert.assertEquals(and.size(), setB.andCardinality(setA));
+        Assert.assertEquals(or.size(), setA.orCardinality(setB));
+        Assert.assertEquals(andNot.size(), setA.andNotCardinality(setB));
+
+        Assert.assertEquals(setA, setA.and(setA));
+        Assert.assertEquals(setA, setA.or(setA));
+        Assert.assertSame(ImmutableIntSet.emptySet(), setA.andNot(setA));
+        Assert.assertSame(setA, setA.or(ImmutableIntSet.emptySet()));
+        Assert.assertSame(ImmutableIntSet.emptySet(), setA.and(ImmutableIntSet.emptySet()));
+        Assert.assertNotEquals(setA, setB);
+    }
+
+    @Test
+    public void testCollector() throws Exception {
+        ImmutableIntSet set = Stream.of(4, 2, 3, 1, 2)
+                .collect(Collectors.toImmutableIntSet());
+        Assert.assertEquals("[1, 2, 3, 4]", set.toString());
+
+        set = IntStream.range(0, 100_000).map(i -> i * 37 % 100_003).boxed().parallel()
+                .collect(Collectors.toImmutableIntSet());
+        Assert.assertEquals(100_000, set.size());
+        Assert.assertEquals(100_000, set.stream().count());
+        Assert.assertEquals(set.asList(), Arrays.asList(set.parallelStream().toArray()));
+    }
+
+    @Test
+    public void testExceptions() throws Exception {
+        ImmutableIntSet set = ImmutableIntSet.builder().with(1, 2).with(3).build();
+        try {
+            set.add(4);
+            Assert.fail("add should fail");
+        } catch (UnsupportedOperationException e) {
+            Assert.assertNotNull(e);
+        }
+        try {
+            set.clear();
+            Assert.fail("clear should fail");
+        } catch (UnsupportedOperationException e) {
+            Assert.assertEquals("No removals", e.getMessage());
+        }
+        try {
+            set.getInt(3);
+            Assert.fail("getInt should fail");
+        } catch (IndexOutOfBoundsException e) {
+            Assert.assertEquals("index: 3", e.getMessage());
+        }
+        Assert.assertFalse(set.contains((Object) "1"));
+        Assert.assertFalse(set.contains((Object) null));
+        Assert.assertEquals(-1, set.indexOf((Integer) null));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        TreeSet<Integer> expected = sample(7L, 1000);
+        ImmutableIntSet set = ImmutableIntSet.copyOf(expected);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(set);
+
+        ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
+        ObjectInputStream ois = new ObjectInputStream(bais);
+
+        ImmutableIntSet set2 = (ImmutableIntSet) ois.readObject();
+        Assert.assertNotSame(set, set2);
+        assertSameSet(expected, set2);
+
+        baos = new ByteArrayOutputStream();
+        oos = new ObjectOutputStream(baos);
+        oos.writeObject(ImmutableIntSet.emptySet());
+
+        bais = new ByteArrayInputStream(baos.toByteArray());
+        ois = new ObjectInputStream(bais);
+        Assert.assertSame(ImmutableIntSet.emptySet(), ois.readObject());
+    }
+}
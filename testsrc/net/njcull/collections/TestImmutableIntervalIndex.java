@@ -0,0 +1,174 @@
+package net.njcull.collections;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.*;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for ImmutableIntervalIndex.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class TestImmutableIntervalIndex {
+
+    private static ImmutableIntervalIndex<Integer, String> sample() {
+        return ImmutableIntervalIndex.<Integer, String>builder()
+                .with(5, 20, "b")
+                .with(1, 3, "a")
+                .with(10, 12, "d")
+                .with(6, 8, "c")
+                .with(15, 40, "e")
+                .with(30, 35, "f")
+                .build();
+    }
+
+    @Test
+    public void testStabbing() {
+        ImmutableIntervalIndex<Integer, String> index = sample();
+
+        Assert.assertEquals(6, index.size());
+        Assert.assertEquals("{[1..3]=a, [5..20]=b, [6..8]=c, [10..12]=d, [15..40]=e, [30..35]=f}", index.toString());
+
+        Assert.assertEquals(Arrays.asList("a"), index.valuesStabbing(1).asList());
+        Assert.assertEquals(Collections.emptyList(), index.valuesStabbing(4).asList());
+        Assert.assertEquals(Arrays.asList("b", "c"), index.valuesStabbing(7).asList());
+        Assert.assertEquals(Arrays.asList("b", "d"), index.valuesStabbing(12).asList());
+        Assert.assertEquals(Arrays.asList("b", "e"), index.valuesStabbing(20).asList());
+        Assert.assertEquals(Arrays.asList("e", "f"), index.valuesStabbing(30).asList());
+        Assert.assertEquals(Collections.emptyList(), index.valuesStabbing(41).asList());
+
+        Assert.assertEquals(2, index.countStabbing(7));
+        Assert.assertEquals(0, index.countStabbing(0));
+        Assert.assertTrue(index.anyStabbing(40));
+        Assert.assertFalse(index.anyStabbing(4));
+
+        List<Integer> found = new ArrayList<>();
+        index.forEachStabbing(16, found::add);
+        Assert.assertEquals(Arrays.asList(1, 4), found);
+        Assert.assertEquals(Integer.valueOf(15), index.lowerAt(4));
+        Assert.assertEquals(Integer.valueOf(40), index.upperAt(4));
+        Assert.assertEquals("e", index.valueAt(4));
+    }
+
+    @Test
+    public void testOverlapping() {
+        ImmutableIntervalIndex<Integer, String> index = sample();
+
+        Assert.assertEquals(Arrays.asList("a", "b"), index.valuesOverlapping(2, 5).asList());
+        Assert.assertEquals(Arrays.asList("b", "c", "d"), index.valuesOverlapping(8, 10).asList());
+        Assert.assertEquals(Collections.emptyList(), index.valuesOverlapping(41, 50).asList());
+        Assert.assertEquals(6, index.countOverlapping(0, 100));
+        Assert.assertTrue(index.anyOverlapping(36, 50));
+        Assert.assertFalse(index.anyOverlapping(-10, 0));
+
+        try {
+            index.countOverlapping(10, 5);
+            Assert.fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testAgainstLinearScan() {
+        Random random = new Random(1234L);
+        ImmutableIntervalIndexBuilder<Integer, Integer> builder = ImmutableIntervalIndexBuilder.newIndex();
+        int[][] intervals = new int[2000][];
+        for(int i = 0; i < intervals.length; i++) {
+            int lower = random.nextInt(10000);
+            int upper = lower + random.nextInt((i % 10 == 0) ? 2000 : 50);
+            intervals[i] = new int[] { lower, upper };
+            builder.with(lower, upper, i);
+        }
+        ImmutableIntervalIndex<Integer, Integer> index = builder.build();
+
+        for(int q = 0; q < 500; q++) {
+            int from = random.nextInt(12000);
+            int to = from + random.nextInt(100);
+            Set<Integer> expected = new HashSet<>();
+            for(int i = 0; i < intervals.length; i++) {
+                if((intervals[i][0] <= to) && (intervals[i][1] >= from)) {
+                    expected.add(i);
+                }
+            }
+            Assert.assertEquals(expected, new HashSet<>(index.valuesOverlapping(from, to)));
+            Assert.assertEquals(expected.size(), index.countOverlapping(from, to));
+            Assert.assertEquals(!expected.isEmpty(), index.anyOverlapping(from, to));
+        }
+    }
+
+    @Test
+    public void testDuplicatesAndComparator() {
+        ImmutableIntervalIndex<String, Integer> index = ImmutableIntervalIndexBuilder.<String, Integer>newIndexComparing(String.CASE_INSENSITIVE_ORDER)
+                .with("a", "c", 1).with("A", "C", 2).with("b", "z", 3)
+                .build();
+        Assert.assertEquals(Arrays.asList(1, 2, 3), index.valuesStabbing("B").asList());
+        Assert.assertSame(String.CASE_INSENSITIVE_ORDER, index.comparator());
+
+        try {
+            ImmutableIntervalIndex.<Integer, String>builder().with(5, 4, "a").build();
+            Assert.fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("inverted interval", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        ImmutableIntervalIndex<Integer, String> index = ImmutableIntervalIndex.<Integer, String>builder().build();
+        Assert.assertSame(ImmutableIntervalIndex.emptyIndex(), index);
+        Assert.assertTrue(index.isEmpty());
+        Assert.assertEquals(0, index.countStabbing(1));
+        Assert.assertTrue(index.valuesStabbing(1).isEmpty());
+    }
+
+    @Test
+    public void testCollector() {
+        ImmutableIntervalIndex<Integer, String> index = Stream.of("aaa", "b", "cc")
+                .collect(Collectors.toImmutableIntervalIndex(s -> 0, String::length, s -> s));
+        Assert.assertEquals("{[0..1]=b, [0..2]=cc, [0..3]=aaa}", index.toString());
+        Assert.assertEquals(Arrays.asList("cc", "aaa"), index.valuesStabbing(2).asList());
+
+        index = Stream.of("aaa", "b", "cc")
+                .parallel()
+                .collect(Collectors.toImmutableIntervalIndexComparing(String::length, s -> 0, s -> s, Comparator.reverseOrder()));
+        Assert.assertEquals("{[3..0]=aaa, [2..0]=cc, [1..0]=b}", index.toString());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSerialization() throws Exception {
+        ImmutableIntervalIndex<Integer, String> index = sample();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+
+        oos.writeObject(index);
+
+        ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
+        ObjectInputStream ois = new ObjectInputStream(bais);
+
+        ImmutableIntervalIndex<Integer, String> index2 = (ImmutableIntervalIndex<Integer, String>) ois.readObject();
+        Assert.assertEquals(index, index2);
+        Assert.assertEquals(index.hashCode(), index2.hashCode());
+        Assert.assertEquals(Arrays.asList("b", "c"), index2.valuesStabbing(7).asList());
+
+        baos = new ByteArrayOutputStream();
+        oos = new ObjectOutputStream(baos);
+
+        oos.writeObject(ImmutableIntervalIndex.emptyIndex());
+
+        bais = new ByteArrayInputStream(baos.toByteArray());
+        ois = new ObjectInputStream(bais);
+
+        index2 = (ImmutableIntervalIndex<Integer, String>) ois.readObject();
+        Assert.assertSame(ImmutableIntervalIndex.emptyIndex(), index2);
+    }
+}
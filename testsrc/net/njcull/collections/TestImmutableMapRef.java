@@ -0,0 +1,186 @@
+package net.njcull.collections;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for ImmutableMapRef.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class TestImmutableMapRef {
+
+    @Test
+    public void testHashedUpdates() throws Exception {
+        ImmutableHashedArrayMap<String, Integer> initial = ImmutableHashedArrayMap.<String, Integer>builder()
+                .with("a", 1, "b", 2).build();
+        ImmutableMapRef<String, Integer, ImmutableHashedArrayMap<String, Integer>> ref = ImmutableMapRef.of(initial);
+        Assert.assertSame(initial, ref.get());
+        Assert.assertEquals(0L, ref.rebuildCount());
+
+        ImmutableHashedArrayMap<String, Integer> map = ref.put("c", 3);
+        Assert.assertSame(map, ref.get());
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<>(map.keySet()));
+        Assert.assertEquals(2, initial.size());
+
+        map = ref.put("a", 10);
+        Assert.assertEquals(Integer.valueOf(10), map.get("a"));
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<>(map.keySet()));
+
+        map = ref.remove("b");
+        Assert.assertEquals(Arrays.asList("a", "c"), new ArrayList<>(map.keySet()));
+
+        Map<String, Integer> more = new LinkedHashMap<>();
+        more.put("d", 4);
+        more.put("e", 5);
+        map = ref.putAll(more);
+        Assert.assertEquals(Arrays.asList("a", "c", "d", "e"), new ArrayList<>(map.keySet()));
+
+        map = ref.removeAll(Arrays.asList("a", "e", "z"));
+        Assert.assertEquals(Arrays.asList("c", "d"), new ArrayList<>(map.keySet()));
+        Assert.assertEquals(5L, ref.rebuildCount());
+    }
+
+    @Test
+    public void testOptionsPreserved() throws Exception {
+        ImmutableHashedArrayMap<String, String> hashed = ImmutableHashedArrayMap.<String, String>builder()
+                .perfectHash(true).valueDictionary(true).with("a", "x").build();
+        ImmutableHashedArrayMap<String, String> hashed2 = ImmutableMapRef.of(hashed).put("b", "x");
+        Assert.assertTrue(hashed2.hasPerfectHash());
+        Assert.assertTrue(hashed2.hasValueDictionary());
+        Assert.assertEquals("x", hashed2.get("b"));
+
+        ImmutableSortedArrayMap<String, Integer> sorted = ImmutableSortedArrayMapBuilder.<String, Integer>newBiMap()
+                .byComparingKeys(Comparator.reverseOrder()).with("a", 1, "b", 2).build();
+        ImmutableMapRef<String, Integer, ImmutableSortedArrayMap<String, Integer>> ref = ImmutableMapRef.of(sorted);
+        ImmutableSortedArrayMap<String, Integer> sorted2 = ref.put("c", 3);
+        Assert.assertTrue(sorted2.isBiMap());
+        Assert.assertEquals(Arrays.asList("c", "b", "a"), new ArrayList<>(sorted2.keySet()));
+
+        // A failing update leaves the snapshot unchanged
+        try {
+            ref.put("d", 3);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("duplicate value", e.getMessage());
+        }
+        Assert.assertSame(sorted2, ref.get());
+    }
+
+    @Test
+    public void testCustomBuilder() throws Exception {
+        ImmutableMapRef<String, Integer, ImmutableArrayMap<String, Integer>> ref = ImmutableMapRef.of(
+                ImmutableArrayMap.<String, Integer>emptyMap(),
+                map -> ImmutableArrayMap.<String, Integer>builder().with(map).build());
+        Assert.assertEquals(Integer.valueOf(1), ref.put("a", 1).get("a"));
+
+        try {
+            ImmutableMapRef.<String, Integer, ImmutableArrayMap<String, Integer>>of(null, map -> ImmutableArrayMap.<String, Integer>emptyMap());
+            Assert.fail();
+        } catch (NullPointerException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+        final ImmutableMapRef<Integer, Integer, ImmutableHashedArrayMap<Integer, Integer>> ref =
+                ImmutableMapRef.of(ImmutableHashedArrayMap.<Integer, Integer>emptyMap());
+        final int threads = 4;
+        final int updates = 500;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for(int t = 0; t < threads; t++) {
+                final int base = t * updates;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for(int i = 0; i < updates; i++) {
+                        ImmutableHashedArrayMap<Integer, Integer> map = ref.put(base + i, i);
+                        Assert.assertEquals(Integer.valueOf(i), map.get(base + i));
+                        // Updates from one writer are applied in order
+                        if(i > 0) {
+                            Assert.assertEquals(Integer.valueOf(i - 1), map.get(base + i - 1));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for(Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        ImmutableHashedArrayMap<Integer, Integer> map = ref.get();
+        Assert.assertEquals(threads * updates, map.size());
+        for(int i = 0; i < threads * updates; i++) {
+            Assert.assertEquals(Integer.valueOf(i % updates), map.get(i));
+        }
+        Assert.assertTrue(ref.rebuildCount() <= threads * updates);
+    }
+
+    @Test
+    public void testConcurrentErrors() throws Exception {
+        // Building any snapshot holding the poison key throws an error
+        final ImmutableMapRef<Integer, Integer, ImmutableHashedArrayMap<Integer, Integer>> ref =
+                ImmutableMapRef.of(ImmutableHashedArrayMap.<Integer, Integer>emptyMap(), map -> {
+                    if(map.containsKey(-1)) {
+                        throw new OutOfMemoryError("poison");
+                    }
+                    return ImmutableHashedArrayMap.<Integer, Integer>builder().with(map).build();
+                });
+        final int threads = 4;
+        final int updates = 500;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for(int t = 0; t < threads; t++) {
+                final int base = t * updates;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for(int i = 0; i < updates; i++) {
+                        if((base == 0) && (i % 50 == 0)) {
+                            try {
+                                ref.put(-1, i);
+                                Assert.fail("Poison key should fail");
+                            } catch (OutOfMemoryError e) {
+                                Assert.assertEquals("poison", e.getMessage());
+                            }
+                        }
+                        // Every update either completes or throws the error,
+                        // none is lost
+                        try {
+                            ImmutableHashedArrayMap<Integer, Integer> map = ref.put(base + i, i);
+                            Assert.assertNotNull(map);
+                            Assert.assertEquals(Integer.valueOf(i), map.get(base + i));
+                        } catch (OutOfMemoryError e) {
+                            Assert.assertEquals("poison", e.getMessage());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for(Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertFalse(ref.get().containsKey(-1));
+        Assert.assertEquals(Integer.valueOf(1), ref.put(1, 1).get(1));
+    }
+}
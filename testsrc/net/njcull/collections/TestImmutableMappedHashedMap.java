@@ -0,0 +1,181 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for ImmutableMappedHashedMap.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class TestImmutableMappedHashedMap {
+
+    @Rule
+    public TemporaryFolder m_Folder = new TemporaryFolder();
+
+    @Test
+    public void testSmallMap() throws Exception {
+        Path file = m_Folder.getRoot().toPath().resolve("small.cdb");
+        ImmutableHashedArrayMapBuilder<String, Integer> builder = ImmutableHashedArrayMapBuilder.<String, Integer>newMap()
+                .with("c", 3, "a", 1, "b", 2)
+                .with("d", 1);
+        try (ImmutableMappedHashedMap<String, Integer> map = builder.buildMapped(file, Codec.utf8(), Codec.ints())) {
+            Assert.assertEquals(4, map.size());
+            Assert.assertFalse(map.isBiMap());
+            Assert.assertEquals("{c=3, a=1, b=2, d=1}", map.toString());
+            Assert.assertEquals(Integer.valueOf(2), map.get("b"));
+            Assert.assertNull(map.get("e"));
+            Assert.assertNull(map.get(null));
+            Assert.assertEquals(Integer.valueOf(-1), map.getOrDefault("e", -1));
+            Assert.assertTrue(map.containsKey("d"));
+            Assert.assertTrue(map.containsValue(3));
+            Assert.assertFalse(map.containsValue(4));
+            Assert.assertEquals(1, map.indexOfKey("a"));
+            Assert.assertEquals(1, map.indexOfValue(1));
+            Assert.assertEquals("c", map.keyAt(0));
+            Assert.assertEquals(Integer.valueOf(1), map.valueAt(3));
+            Assert.assertEquals(Arrays.asList("c", "a", "b", "d"), new ArrayList<>(map.keySet()));
+            Assert.assertEquals(Arrays.asList(3, 1, 2, 1), new ArrayList<>(map.values()));
+
+            Map<String, Integer> expected = builder.build();
+            Assert.assertEquals(expected, map);
+            Assert.assertEquals(map, expected);
+            Assert.assertEquals(expected.hashCode(), map.hashCode());
+        }
+
+        // Reopening the file reads the same map
+        try (ImmutableMappedHashedMap<String, Integer> map = ImmutableMappedHashedMap.open(file, Codec.utf8(), Codec.ints())) {
+            Assert.assertEquals("{c=3, a=1, b=2, d=1}", map.toString());
+            map.close();
+            Assert.assertTrue(map.isClosed());
+            try {
+                map.get("a");
+                Assert.fail("closed map should fail");
+            } catch (IllegalStateException e) {
+                Assert.assertEquals("mapped file has been released", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyMap() throws Exception {
+        Path file = m_Folder.getRoot().toPath().resolve("empty.cdb");
+        try (ImmutableMappedHashedMap<String, String> map = ImmutableHashedArrayMapBuilder.<String, String>newBiMap()
+                .buildMapped(file, Codec.utf8(), Codec.utf8())) {
+            Assert.assertTrue(map.isEmpty());
+            Assert.assertTrue(map.isBiMap());
+            Assert.assertEquals("{}", map.toString());
+            Assert.assertNull(map.get("a"));
+            Assert.assertFalse(map.containsValue("a"));
+        }
+    }
+
+    @Test
+    public void testLargeBiMap() throws Exception {
+        Path file = m_Folder.getRoot().toPath().resolve("large.cdb");
+        ImmutableHashedArrayMapBuilder<Long, String> builder = ImmutableHashedArrayMapBuilder.newBiMap();
+        Random random = new Random(17L);
+        LinkedHashMap<Long, String> expected = new LinkedHashMap<>();
+        while(expected.size() < 50000) {
+            long key = random.nextLong();
+            if(!expected.containsKey(key)) {
+                expected.put(key, Long.toHexString(key));
+                builder.with(key, Long.toHexString(key));
+            }
+        }
+
+        try (ImmutableMappedHashedMap<Long, String> map = builder.buildMapped(file, Codec.longs(), Codec.utf8())) {
+            Assert.assertEquals(expected.size(), map.size());
+            int index = 0;
+            for(Map.Entry<Long, String> entry : expected.entrySet()) {
+                Assert.assertEquals(entry.getKey(), map.keyAt(index));
+                Assert.assertEquals(entry.getValue(), map.valueAt(index));
+                Assert.assertEquals(index, map.indexOfKey(entry.getKey()));
+                Assert.assertEquals(index, map.indexOfValue(entry.getValue()));
+                index++;
+            }
+            for(int i = 0; i < 1000; i++) {
+                long key = random.nextLong();
+                Assert.assertEquals(expected.get(key), map.get(key));
+            }
+            Assert.assertEquals(-1, map.indexOfValue("not hex"));
+        }
+    }
+
+    @Test
+    public void testDuplicates() throws Exception {
+        Path file = m_Folder.getRoot().toPath().resolve("dups.cdb");
+        try {
+            ImmutableHashedArrayMapBuilder.<String, String>newBiMap()
+                    .with("a", "x", "b", "x")
+                    .buildMapped(file, Codec.utf8(), Codec.utf8());
+            Assert.fail("Duplicate value should fail");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("duplicate value", e.getMessage());
+        }
+        Assert.assertFalse(Files.exists(file));
+
+        try {
+            ImmutableHashedArrayMapBuilder.<String, String>newMap()
+                    .with("a", null)
+                    .buildMapped(file, Codec.utf8(), Codec.utf8());
+            Assert.fail("Null value should fail");
+        } catch (NullPointerException e) {
+            Assert.assertEquals("value must not be null", e.getMessage());
+        }
+        Assert.assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void testRebuildOverOpenMap() throws Exception {
+        Path file = m_Folder.getRoot().toPath().resolve("rebuilt.cdb");
+        try (ImmutableMappedHashedMap<String, Integer> first = ImmutableHashedArrayMapBuilder.<String, Integer>newMap()
+                .with("a", 1, "b", 2).buildMapped(file, Codec.utf8(), Codec.ints())) {
+            // Rebuilding replaces the file, without truncating it under the
+            // map still open on it
+            try (ImmutableMappedHashedMap<String, Integer> second = ImmutableHashedArrayMapBuilder.<String, Integer>newMap()
+                    .with("c", 3).buildMapped(file, Codec.utf8(), Codec.ints())) {
+                Assert.assertEquals("{c=3}", second.toString());
+                Assert.assertEquals("{a=1, b=2}", first.toString());
+                Assert.assertEquals(Integer.valueOf(2), first.get("b"));
+            }
+
+            // A failed build leaves the existing file unchanged
+            try {
+                ImmutableHashedArrayMapBuilder.<String, Integer>newMap()
+                        .with("d", null)
+                        .buildMapped(file, Codec.utf8(), Codec.ints());
+                Assert.fail("Null value should fail");
+            } catch (NullPointerException e) {
+                Assert.assertEquals("value must not be null", e.getMessage());
+            }
+            try (java.util.stream.Stream<Path> files = Files.list(m_Folder.getRoot().toPath())) {
+                Assert.assertEquals(1L, files.count());
+            }
+            try (ImmutableMappedHashedMap<String, Integer> reopened = ImmutableMappedHashedMap.open(file,
+                    Codec.utf8(), Codec.ints())) {
+                Assert.assertEquals("{c=3}", reopened.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testNotAMapFile() throws Exception {
+        Path file = m_Folder.newFile("other.cdb").toPath();
+        Files.write(file, new byte[64]);
+        try {
+            ImmutableMappedHashedMap.open(file, Codec.utf8(), Codec.utf8());
+            Assert.fail("Opening a file of zeroes should fail");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage().startsWith("not a hashed map file"));
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for ImmutableMappedSortedMap and ExternalSortedMapBuilder.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class TestImmutableMappedSortedMap {
+
+    @Rule
+    public TemporaryFolder m_Folder = new TemporaryFolder();
+
+    @Test
+    public void testSmallMap() throws Exception {
+        Path file = m_Folder.getRoot().toPath().resolve("small.map");
+        try (ImmutableMappedSortedMap<String, Long> map = ImmutableMappedSortedMap.builder(Codec.utf8(), Codec.longs())
+                .with("c", 3L)
+                .with("a", 1L)
+                .with("b", 2L)
+                .build(file)) {
+
+            Assert.assertEquals(3, map.size());
+            Assert.assertFalse(map.isBiMap());
+            Assert.assertNull(map.comparator());
+            Assert.assertEquals("{a=1, b=2, c=3}", map.toString());
+            Assert.assertEquals(Long.valueOf(2L), map.get("b"));
+            Assert.assertNull(map.get("d"));
+            Assert.assertNull(map.get(null));
+            Assert.assertEquals(Long.valueOf(-1L), map.getOrDefault("d", -1L));
+            Assert.assertTrue(map.containsKey("a"));
+            Assert.assertTrue(map.containsValue(3L));
+            Assert.assertFalse(map.containsValue(4L));
+            Assert.assertEquals(2, map.indexOfKey("c"));
+            Assert.assertEquals(1, map.indexOfValue(2L));
+            Assert.assertEquals("a", map.keyAt(0));
+            Assert.assertEquals(Long.valueOf(3L), map.valueAt(2));
+            Assert.assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<>(map.keySet()));
+            Assert.assertEquals(Arrays.asList(1L, 2L, 3L), new ArrayList<>(map.values()));
+
+            TreeMap<String, Long> expected = new TreeMap<>();
+            map.forEach(expected::put);
+            Assert.assertEquals(expected, map);
+            Assert.assertEquals(map, expected);
+            Assert.assertEquals(expected.hashCode(), map.hashCode());
+
+            try {
+                map.keyAt(3);
+                Assert.fail("keyAt(3) should fail");
+            } catch (IndexOutOfBoundsException e) {
+                Assert.assertEquals("index: 3", e.getMessage());
+            }
+        }
+
+        // Reopening the file reads the same map
+        try (ImmutableMappedSortedMap<String, Long> map = ImmutableMappedSortedMap.open(file, Codec.utf8(), Codec.longs())) {
+            Assert.assertEquals("{a=1, b=2, c=3}", map.toString());
+            map.close();
+            Assert.assertTrue(map.isClosed());
+            try {
+                map.get("a");
+                Assert.fail("closed map should fail");
+            } catch (IllegalStateException e) {
+                Assert.assertEquals("mapped file has been released", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyMap() throws Exception {
+        Path file = m_Folder.getRoot().toPath().resolve("empty.map");
+        try (ImmutableMappedSortedMap<String, String> map = ExternalSortedMapBuilder.newBiMap(Codec.utf8(), Codec.utf8())
+                .build(file)) {
+            Assert.assertTrue(map.isEmpty());
+            Assert.assertTrue(map.isBiMap());
+            Assert.assertEquals("{}", map.toString());
+            Assert.assertNull(map.get("a"));
+            Assert.assertFalse(map.containsValue("a"));
+        }
+    }
+
+    @Test
+    public void testSpilledRuns() throws Exception {
+        Path file = m_Folder.getRoot().toPath().resolve("large.map");
+        Path temp = m_Folder.newFolder("temp").toPath();
+        Random random = new Random(31L);
+        TreeMap<Long, String> expected = new TreeMap<>();
+        ExternalSortedMapBuilder<Long, String> builder = ExternalSortedMapBuilder.newBiMap(Codec.longs(), Codec.utf8())
+                .byComparingKeys(Comparator.reverseOrder())
+                .memoryBudget(64 * 1024)
+                .tempDirectory(temp);
+        while(expected.size() < 20000) {
+            long key = random.nextLong();
+            if(!expected.containsKey(key)) {
+                String value = "v" + key;
+                expected.put(key, value);
+                builder.with(key, value);
+            }
+        }
+        Assert.assertEquals(20000L, builder.size());
+        Assert.assertTrue(countFiles(temp) > 1);
+
+        try (ImmutableMappedSortedMap<Long, String> map = builder.build(file)) {
+            Assert.assertEquals(0, countFiles(temp));
+            Assert.assertEquals(0L, builder.size());
+            Assert.assertEquals(expected.size(), map.size());
+            int index = 0;
+            for(Map.Entry<Long, String> entry : expected.descendingMap().entrySet()) {
+                Assert.assertEquals(entry.getKey(), map.keyAt(index));
+                Assert.assertEquals(entry.getValue(), map.valueAt(index));
+                Assert.assertEquals(index, map.indexOfKey(entry.getKey()));
+                Assert.assertEquals(index, map.indexOfValue(entry.getValue()));
+                index++;
+            }
+            Assert.assertEquals(-1, map.indexOfKey(0L));
+            Assert.assertEquals(-1, map.indexOfValue("x"));
+        }
+    }
+
+    @Test
+    public void testIntermediateMerges() throws Exception {
+        // A tiny budget spills every entry as a run of its own, far more runs
+        // than are merged at once
+        Path file = m_Folder.getRoot().toPath().resolve("merged.map");
+        Path temp = m_Folder.newFolder("temp").toPath();
+        ExternalSortedMapBuilder<Integer, Integer> builder = ExternalSortedMapBuilder.newMap(Codec.ints(), Codec.ints())
+                .memoryBudget(1)
+                .tempDirectory(temp);
+        for(int i = 0; i < 3000; i++) {
+            builder.with((i * 7919) % 3000, i);
+        }
+        Assert.assertEquals(3000, countFiles(temp));
+
+        try (ImmutableMappedSortedMap<Integer, Integer> map = builder.build(file)) {
+            Assert.assertEquals(0, countFiles(temp));
+            Assert.assertEquals(3000, map.size());
+            for(int i = 0; i < 3000; i++) {
+                Assert.assertEquals(Integer.valueOf(i), map.keyAt(i));
+                Assert.assertEquals(Integer.valueOf(i), map.get((i * 7919) % 3000));
+            }
+        }
+
+        // Duplicates are still found across merged runs
+        for(int i = 0; i < 3000; i++) {
+            builder.with(i, i);
+        }
+        builder.with(1234, 0);
+        try {
+            builder.build(file);
+            Assert.fail("Duplicate key should fail");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("duplicate key", e.getMessage());
+        }
+        Assert.assertEquals(0, countFiles(temp));
+    }
+
+    @Test
+    public void testDuplicates() throws Exception {
+        Path file = m_Folder.getRoot().toPath().resolve("dups.map");
+        Path temp = m_Folder.newFolder("temp").toPath();
+        ExternalSortedMapBuilder<Integer, Integer> builder = ExternalSortedMapBuilder.newMap(Codec.ints(), Codec.ints())
+                .memoryBudget(1024)
+                .tempDirectory(temp);
+        for(int i = 0; i < 1000; i++) {
+            builder.with(i, i % 10);
+        }
+        builder.with(500, 0);
+        try {
+            builder.build(file);
+            Assert.fail("Duplicate key should fail");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("duplicate key", e.getMessage());
+        }
+        Assert.assertFalse(Files.exists(file));
+        Assert.assertEquals(0, countFiles(temp));
+
+        // Repeated values are allowed in a map, but not a bi-map
+        for(int i = 0; i < 1000; i++) {
+            builder.with(i, i % 10);
+        }
+        try (ImmutableMappedSortedMap<Integer, Integer> map = builder.build(file)) {
+            Assert.assertEquals(1000, map.size());
+            Assert.assertEquals(3, map.indexOfValue(3));
+        }
+        builder.asBiMap();
+        for(int i = 0; i < 1000; i++) {
+            builder.with(i, i % 10);
+        }
+        try {
+            builder.build(file);
+            Assert.fail("Duplicate value should fail");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("duplicate value", e.getMessage());
+        }
+        Assert.assertEquals(0, countFiles(temp));
+    }
+
+    @Test
+    public void testRebuildOverOpenMap() throws Exception {
+        Path file = m_Folder.getRoot().toPath().resolve("rebuilt.map");
+        ExternalSortedMapBuilder<String, Integer> builder = ExternalSortedMapBuilder.newMap(Codec.utf8(), Codec.ints());
+        try (ImmutableMappedSortedMap<String, Integer> first = builder.with("a", 1).with("b", 2).build(file)) {
+            // Rebuilding replaces the file, without truncating it under the
+            // map still open on it
+            try (ImmutableMappedSortedMap<String, Integer> second = builder.with("c", 3).build(file)) {
+                Assert.assertEquals("{c=3}", second.toString());
+                Assert.assertEquals("{a=1, b=2}", first.toString());
+                Assert.assertEquals(Integer.valueOf(2), first.get("b"));
+            }
+
+            // A failed build leaves the existing file unchanged
+            builder.with("d", 4).with("d", 5);
+            try {
+                builder.build(file);
+                Assert.fail("Duplicate key should fail");
+            } catch (IllegalStateException e) {
+                Assert.assertEquals("duplicate key", e.getMessage());
+            }
+            Assert.assertEquals(1, countFiles(m_Folder.getRoot().toPath()));
+            try (ImmutableMappedSortedMap<String, Integer> reopened = ImmutableMappedSortedMap.open(file,
+                    Codec.utf8(), Codec.ints())) {
+                Assert.assertEquals("{c=3}", reopened.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testNotAMapFile() throws Exception {
+        Path file = m_Folder.newFile("other.map").toPath();
+        Files.write(file, new byte[64]);
+        try {
+            ImmutableMappedSortedMap.open(file, Codec.utf8(), Codec.utf8());
+            Assert.fail("Opening a file of zeroes should fail");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage().startsWith("not a sorted map file"));
+        }
+    }
+
+    @Test
+    public void testNullKey() throws Exception {
+        ExternalSortedMapBuilder<String, String> builder = ExternalSortedMapBuilder.newMap(Codec.utf8(), Codec.utf8());
+        try {
+            builder.with(null, "a");
+            Assert.fail("Null key should fail");
+        } catch (NullPointerException e) {
+            Assert.assertEquals("key must not be null", e.getMessage());
+        }
+    }
+
+    private static int countFiles(Path directory) throws IOException {
+        try (java.util.stream.Stream<Path> files = Files.list(directory)) {
+            return (int) files.count();
+        }
+    }
+}
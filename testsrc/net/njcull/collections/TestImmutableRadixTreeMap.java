@@ -0,0 +1,235 @@
+package net.njcull.collections;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.*;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for ImmutableRadixTreeMap.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class TestImmutableRadixTreeMap {
+
+    @Test
+    public void testLookup() {
+        ImmutableRadixTreeMap<Integer> map = ImmutableRadixTreeMap.<Integer>builder()
+                .with("romane", 1)
+                .with("romanus", 2)
+                .with("romulus", 3)
+                .with("rubens", 4)
+                .with("ruber", 5)
+                .with("rubicon", 6)
+                .with("rubicundus", 7)
+                .with("rom", null)
+                .build();
+
+        Assert.assertEquals(8, map.size());
+        Assert.assertFalse(map.isEmpty());
+        Assert.assertEquals(Integer.valueOf(1), map.get("romane"));
+        Assert.assertEquals(Integer.valueOf(7), map.get("rubicundus"));
+        Assert.assertNull(map.get("rom"));
+        Assert.assertTrue(map.containsKey("rom"));
+        Assert.assertFalse(map.containsKey("ro"));
+        Assert.assertFalse(map.containsKey("roman"));
+        Assert.assertFalse(map.containsKey("rubiconx"));
+        Assert.assertFalse(map.containsKey(new StringBuilder("romane")));
+        Assert.assertEquals(Integer.valueOf(-1), map.getOrDefault("r", -1));
+        Assert.assertTrue(map.containsValue(null));
+        Assert.assertEquals(7, map.indexOfValue(7));
+
+        Assert.assertEquals(Arrays.asList("rom", "romane", "romanus", "romulus",
+                "rubens", "ruber", "rubicon", "rubicundus"), new ArrayList<>(map.keySet()));
+        for(int i = 0; i < map.size(); i++) {
+            Assert.assertEquals(i, map.indexOfKey(map.keyAt(i)));
+        }
+
+        TreeMap<String, Integer> expected = new TreeMap<>();
+        map.forEach(expected::put);
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(map, expected);
+        Assert.assertEquals(expected.hashCode(), map.hashCode());
+        Assert.assertEquals(expected.toString(), map.toString());
+
+        // Shared prefixes are stored only once
+        Assert.assertEquals(27, map.labelLength());
+    }
+
+    @Test
+    public void testLongestPrefix() {
+        ImmutableRadixTreeMap<String> map = ImmutableRadixTreeMap.<String>builder()
+                .with("", "root")
+                .with("10.", "ten")
+                .with("10.1.", "ten-one")
+                .with("10.1.2.", "ten-one-two")
+                .with("192.168.", "private")
+                .build();
+
+        Assert.assertEquals("root", map.get(""));
+        Assert.assertEquals("10.1.", map.longestPrefixOf("10.1.3.4"));
+        Assert.assertEquals("10.1.2.", map.longestPrefixOf("10.1.2.4"));
+        Assert.assertEquals("10.", map.longestPrefixOf("10.10.1.1"));
+        Assert.assertEquals("192.168.", map.longestPrefixOf("192.168.0.1"));
+        Assert.assertEquals("", map.longestPrefixOf("192.169.0.1"));
+        Assert.assertEquals("", map.longestPrefixOf(""));
+        Assert.assertEquals("ten-one", map.valueAt(map.indexOfLongestPrefix(new StringBuilder("10.1.9"))));
+
+        ImmutableRadixTreeMap<String> noRoot = ImmutableRadixTreeMap.<String>builder()
+                .with("abc", "x").build();
+        Assert.assertEquals(-1, noRoot.indexOfLongestPrefix("ab"));
+        Assert.assertNull(noRoot.longestPrefixOf("xyz"));
+        Assert.assertEquals("abc", noRoot.longestPrefixOf("abcd"));
+    }
+
+    @Test
+    public void testPrefixMap() {
+        ImmutableRadixTreeMap<Integer> map = ImmutableRadixTreeMap.<Integer>builder()
+                .with("apple", 1)
+                .with("apply", 2)
+                .with("apt", 3)
+                .with("banana", 4)
+                .with("band", 5)
+                .build();
+
+        Assert.assertEquals(0, map.prefixFromIndex("ap"));
+        Assert.assertEquals(3, map.prefixToIndex("ap"));
+        // Prefix ending part way along an edge
+        Assert.assertEquals(0, map.prefixFromIndex("appl"));
+        Assert.assertEquals(2, map.prefixToIndex("appl"));
+        Assert.assertEquals(3, map.prefixFromIndex("b"));
+        Assert.assertEquals(5, map.prefixToIndex("b"));
+
+        // Absent prefix gives an empty range at the insertion point
+        Assert.assertEquals(3, map.prefixFromIndex("az"));
+        Assert.assertEquals(3, map.prefixToIndex("az"));
+        Assert.assertEquals(2, map.prefixFromIndex("applz"));
+        Assert.assertEquals(2, map.prefixToIndex("applz"));
+        Assert.assertEquals(0, map.prefixFromIndex("a0"));
+        Assert.assertEquals(5, map.prefixFromIndex("c"));
+        Assert.assertEquals(3, map.prefixFromIndex("apu"));
+        Assert.assertTrue(map.prefixMap("bandana").isEmpty());
+
+        ArrayBackedMap<String, Integer> sub = map.prefixMap("ban");
+        Assert.assertEquals(2, sub.size());
+        Assert.assertEquals("banana", sub.keyAt(0));
+        Assert.assertEquals(Integer.valueOf(5), sub.get("band"));
+        Assert.assertNull(sub.get("apple"));
+        Assert.assertEquals("{banana=4, band=5}", sub.toString());
+        Assert.assertSame(map, map.prefixMap(""));
+    }
+
+    @Test
+    public void testRandomDictionary() {
+        Random random = new Random(40L);
+        TreeMap<String, Integer> expected = new TreeMap<>();
+        ImmutableRadixTreeMapBuilder<Integer> builder = ImmutableRadixTreeMapBuilder.newMap();
+        for(int i = 0; i < 2000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int len = random.nextInt(8);
+            for(int j = 0; j < len; j++) {
+                sb.append((char) ('a' + random.nextInt(4)));
+            }
+            String key = sb.toString();
+            if(expected.putIfAbsent(key, i) == null) {
+                builder.with(key, i);
+            }
+        }
+        ImmutableRadixTreeMap<Integer> map = builder.build();
+        Assert.assertEquals(expected.size(), map.size());
+        Assert.assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+        Assert.assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(map.values()));
+
+        for(int i = 0; i < 200; i++) {
+            StringBuilder sb = new StringBuilder();
+            int len = random.nextInt(5);
+            for(int j = 0; j < len; j++) {
+                sb.append((char) ('a' + random.nextInt(5)));
+            }
+            String prefix = sb.toString();
+            SortedMap<String, Integer> tail = expected.tailMap(prefix);
+            int from = expected.headMap(prefix).size();
+            int to = from;
+            for(String key : tail.keySet()) {
+                if(!key.startsWith(prefix)) {
+                    break;
+                }
+                to++;
+            }
+            Assert.assertEquals(prefix, from, map.prefixFromIndex(prefix));
+            Assert.assertEquals(prefix, to, map.prefixToIndex(prefix));
+            Assert.assertEquals(expected.get(prefix), map.get(prefix));
+        }
+    }
+
+    @Test
+    public void testDuplicateKey() {
+        ImmutableRadixTreeMapBuilder<Integer> builder = ImmutableRadixTreeMapBuilder.<Integer>newMap()
+                .with("a", 1).with("b", 2).with("a", 3);
+        try {
+            builder.build();
+            Assert.fail("duplicate key should fail");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("duplicate key", e.getMessage());
+        }
+        try {
+            builder.with(null, 4);
+            Assert.fail("null key should fail");
+        } catch (NullPointerException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        ImmutableRadixTreeMap<Integer> map = ImmutableRadixTreeMap.emptyMap();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.get(""));
+        Assert.assertEquals(-1, map.indexOfLongestPrefix("abc"));
+        Assert.assertEquals(0, map.prefixToIndex("a"));
+        Assert.assertEquals("{}", map.toString());
+        Assert.assertSame(map, ImmutableRadixTreeMapBuilder.<Integer>newMap().build());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSerialization() throws Exception {
+        ImmutableRadixTreeMap<Integer> map = ImmutableRadixTreeMap.copyOf(
+                Collections.singletonMap("test", 1));
+        map = ImmutableRadixTreeMap.<Integer>builder().with(map)
+                .with("tester", 2).with("team", 3).build();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(map);
+        oos.writeObject(ImmutableRadixTreeMap.emptyMap());
+
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        ImmutableRadixTreeMap<Integer> map2 = (ImmutableRadixTreeMap<Integer>) ois.readObject();
+        Assert.assertEquals(map, map2);
+        Assert.assertEquals("tester", map2.longestPrefixOf("testers"));
+        Assert.assertSame(ImmutableRadixTreeMap.emptyMap(), ois.readObject());
+    }
+
+    @Test
+    public void testCollector() {
+        Map<String, Integer> source = new HashMap<>();
+        source.put("one", 1);
+        source.put("only", 2);
+        source.put("two", 3);
+        ImmutableRadixTreeMap<Integer> map = source.entrySet().parallelStream()
+                .collect(Collectors.toImmutableRadixTreeMap());
+        Assert.assertEquals(source, map);
+        Assert.assertEquals("one", map.keyAt(0));
+
+        ImmutableRadixTreeMap<Integer> empty = Stream.<Map.Entry<String, Integer>>empty()
+                .collect(Collectors.toImmutableRadixTreeMap());
+        Assert.assertTrue(empty.isEmpty());
+    }
+}
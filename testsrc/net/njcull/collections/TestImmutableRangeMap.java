@@ -0,0 +1,234 @@
+package net.njcull.collections;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.*;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for ImmutableRangeMap.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class TestImmutableRangeMap {
+
+    @Test
+    public void testClosedRanges() {
+        ImmutableRangeMap<Integer, String> map = ImmutableRangeMap.<Integer, String>builder()
+                .with(20, 29, "twenties")
+                .with(0, 9, "units")
+                .with(10, 10, "ten")
+                .with(40, 49, null)
+                .build();
+
+        Assert.assertEquals(4, map.size());
+        Assert.assertFalse(map.isUpperBoundExclusive());
+        Assert.assertEquals("{[0..9]=units, [10..10]=ten, [20..29]=twenties, [40..49]=null}", map.toString());
+
+        Assert.assertEquals("units", map.get(0));
+        Assert.assertEquals("units", map.get(9));
+        Assert.assertEquals("ten", map.get(10));
+        Assert.assertNull(map.get(11));
+        Assert.assertEquals("twenties", map.get(29));
+        Assert.assertNull(map.get(30));
+        Assert.assertNull(map.get(-1));
+        Assert.assertNull(map.get(100));
+        Assert.assertEquals("none", map.getOrDefault(35, "none"));
+        Assert.assertNull(map.getOrDefault(45, "none"));
+        Assert.assertTrue(map.contains(45));
+        Assert.assertFalse(map.contains(50));
+
+        Assert.assertEquals(2, map.indexOf(25));
+        Assert.assertEquals(-1, map.indexOf(15));
+        Assert.assertEquals(Integer.valueOf(20), map.lowerAt(2));
+        Assert.assertEquals(Integer.valueOf(29), map.upperAt(2));
+        Assert.assertEquals("ten", map.valueAt(1));
+        Assert.assertEquals(Arrays.asList("units", "ten", "twenties", null), map.values().asList());
+    }
+
+    @Test
+    public void testFloorAndCeiling() {
+        ImmutableRangeMap<Integer, String> map = ImmutableRangeMap.<Integer, String>builder()
+                .with(0, 9, "a").with(20, 29, "b").with(40, 49, "c")
+                .build();
+
+        Assert.assertEquals(-1, map.floorIndex(-5));
+        Assert.assertEquals(0, map.floorIndex(0));
+        Assert.assertEquals(0, map.floorIndex(15));
+        Assert.assertEquals(2, map.floorIndex(100));
+        Assert.assertEquals(0, map.ceilingIndex(-5));
+        Assert.assertEquals(0, map.ceilingIndex(9));
+        Assert.assertEquals(1, map.ceilingIndex(10));
+        Assert.assertEquals(3, map.ceilingIndex(50));
+
+        // Ranges overlapping the span 5 to 25
+        Assert.assertEquals(0, map.ceilingIndex(5));
+        Assert.assertEquals(1, map.floorIndex(25));
+        // No ranges overlap the span 30 to 35
+        Assert.assertTrue(map.ceilingIndex(30) > map.floorIndex(35));
+    }
+
+    @Test
+    public void testExclusiveUpperBounds() {
+        ImmutableRangeMap<String, String> map = ImmutableRangeMapBuilder.<String, String>newMap()
+                .upperBoundExclusive(true)
+                .with("1.0", "2.0", "one")
+                .with("2.0", "3.0", "two")
+                .build();
+
+        Assert.assertTrue(map.isUpperBoundExclusive());
+        Assert.assertEquals("{[1.0..2.0)=one, [2.0..3.0)=two}", map.toString());
+        Assert.assertEquals("one", map.get("1.0"));
+        Assert.assertEquals("one", map.get("1.9.9"));
+        Assert.assertEquals("two", map.get("2.0"));
+        Assert.assertNull(map.get("3.0"));
+        Assert.assertEquals(1, map.ceilingIndex("2.0"));
+        Assert.assertEquals(2, map.ceilingIndex("3.0"));
+    }
+
+    @Test
+    public void testInvalidRanges() {
+        try {
+            ImmutableRangeMap.<Integer, String>builder().with(0, 10, "a").with(10, 20, "b").build();
+            Assert.fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("overlapping ranges", e.getMessage());
+        }
+
+        // Adjacent ranges are fine when upper bounds are exclusive
+        ImmutableRangeMap<Integer, String> map = ImmutableRangeMap.<Integer, String>builder()
+                .upperBoundExclusive(true).with(0, 10, "a").with(10, 20, "b").build();
+        Assert.assertEquals("b", map.get(10));
+
+        try {
+            ImmutableRangeMap.<Integer, String>builder().with(5, 4, "a").build();
+            Assert.fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("empty or inverted range", e.getMessage());
+        }
+
+        try {
+            ImmutableRangeMap.<Integer, String>builder().upperBoundExclusive(true).with(5, 5, "a").build();
+            Assert.fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("empty or inverted range", e.getMessage());
+        }
+
+        try {
+            ImmutableRangeMap.<Integer, String>builder().with(null, 5, "a");
+            Assert.fail("Expected NullPointerException");
+        } catch (NullPointerException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testComparator() {
+        ImmutableRangeMap<Integer, String> map = ImmutableRangeMapBuilder.<Integer, String>newMapComparing(Comparator.reverseOrder())
+                .with(9, 0, "low").with(99, 10, "high")
+                .build();
+        Assert.assertEquals("{[99..10]=high, [9..0]=low}", map.toString());
+        Assert.assertEquals("low", map.get(5));
+        Assert.assertEquals("high", map.get(50));
+        Assert.assertNull(map.get(100));
+    }
+
+    @Test
+    public void testEmpty() {
+        ImmutableRangeMap<Integer, String> map = ImmutableRangeMap.<Integer, String>builder().build();
+        Assert.assertSame(ImmutableRangeMap.emptyMap(), map);
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.get(1));
+        Assert.assertEquals(-1, map.floorIndex(1));
+        Assert.assertEquals(0, map.ceilingIndex(1));
+        Assert.assertEquals("{}", map.toString());
+    }
+
+    @Test
+    public void testLarge() {
+        ImmutableRangeMapBuilder<Long, Integer> builder = ImmutableRangeMapBuilder.newMap();
+        // Shuffled class C style blocks, with gaps every third block
+        List<Integer> blocks = new ArrayList<>();
+        for(int i = 0; i < 3000; i++) {
+            if(i % 3 != 2) {
+                blocks.add(i);
+            }
+        }
+        Collections.shuffle(blocks, new Random(7L));
+        for(int block : blocks) {
+            builder.with(block * 256L, block * 256L + 255L, block);
+        }
+        ImmutableRangeMap<Long, Integer> map = builder.build();
+        Assert.assertEquals(2000, map.size());
+        Random random = new Random(11L);
+        for(int i = 0; i < 10000; i++) {
+            long address = (long) (random.nextDouble() * 3000 * 256);
+            int block = (int) (address / 256);
+            Integer expected = (block % 3 != 2) ? block : null;
+            Assert.assertEquals(expected, map.get(address));
+        }
+    }
+
+    @Test
+    public void testEqualsHashCode() {
+        ImmutableRangeMap<Integer, String> map1 = ImmutableRangeMap.<Integer, String>builder()
+                .with(0, 5, "a").with(6, 9, "b").build();
+        ImmutableRangeMap<Integer, String> map2 = ImmutableRangeMap.<Integer, String>builder()
+                .with(6, 9, "b").with(0, 5, "a").build();
+        ImmutableRangeMap<Integer, String> map3 = ImmutableRangeMap.<Integer, String>builder()
+                .upperBoundExclusive(true).with(6, 9, "b").with(0, 5, "a").build();
+        Assert.assertEquals(map1, map2);
+        Assert.assertEquals(map1.hashCode(), map2.hashCode());
+        Assert.assertNotEquals(map1, map3);
+    }
+
+    @Test
+    public void testCollector() {
+        ImmutableRangeMap<Integer, String> map = Stream.of("a", "bbb", "cc")
+                .collect(Collectors.toImmutableRangeMap(s -> s.length() * 10, s -> s.length() * 10 + 9, s -> s));
+        Assert.assertEquals("{[10..19]=a, [20..29]=cc, [30..39]=bbb}", map.toString());
+
+        map = Stream.of("a", "bbb", "cc")
+                .parallel()
+                .collect(Collectors.toImmutableRangeMapComparing(s -> s.length() * 10 + 9, s -> s.length() * 10, s -> s,
+                        Comparator.reverseOrder()));
+        Assert.assertEquals("{[39..30]=bbb, [29..20]=cc, [19..10]=a}", map.toString());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSerialization() throws Exception {
+        ImmutableRangeMap<Integer, String> map = ImmutableRangeMap.<Integer, String>builder()
+                .upperBoundExclusive(true).with(0, 5, "a").with(5, 9, "b").build();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+
+        oos.writeObject(map);
+
+        ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
+        ObjectInputStream ois = new ObjectInputStream(bais);
+
+        ImmutableRangeMap<Integer, String> map2 = (ImmutableRangeMap<Integer, String>) ois.readObject();
+        Assert.assertEquals(map, map2);
+        Assert.assertNotSame(map, map2);
+        Assert.assertEquals("b", map2.get(5));
+
+        baos = new ByteArrayOutputStream();
+        oos = new ObjectOutputStream(baos);
+
+        oos.writeObject(ImmutableRangeMap.emptyMap());
+
+        bais = new ByteArrayInputStream(baos.toByteArray());
+        ois = new ObjectInputStream(bais);
+
+        map2 = (ImmutableRangeMap<Integer, String>) ois.readObject();
+        Assert.assertSame(ImmutableRangeMap.emptyMap(), map2);
+    }
+}
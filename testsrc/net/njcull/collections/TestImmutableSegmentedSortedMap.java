@@ -0,0 +1,267 @@
+package net.njcull.collections;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for ImmutableSegmentedSortedMap.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class TestImmutableSegmentedSortedMap {
+
+    @Rule
+    public TemporaryFolder m_Folder = new TemporaryFolder();
+
+    private ImmutableSegmentedSortedMap<Integer, String> buildMap(Path directory, long cacheSize) throws Exception {
+        ImmutableSegmentedSortedMapBuilder<Integer, String> builder = ImmutableSegmentedSortedMap.<Integer, String>builder(directory)
+                .segmentSize(100)
+                .cacheSize(cacheSize);
+        // Even keys from 0 to 998, in five segments
+        for(int i = 0; i < 1000; i += 2) {
+            builder.with(i, "v" + i);
+        }
+        Assert.assertEquals(500L, builder.size());
+        return builder.build();
+    }
+
+    @Test
+    public void testLookup() throws Exception {
+        Path directory = m_Folder.getRoot().toPath().resolve("map");
+        ImmutableSegmentedSortedMap<Integer, String> map = buildMap(directory, 300L);
+
+        Assert.assertEquals(500, map.size());
+        Assert.assertEquals(500L, map.longSize());
+        Assert.assertEquals(5, map.segmentCount());
+        Assert.assertNull(map.comparator());
+        Assert.assertEquals(Integer.valueOf(0), map.firstKey());
+        Assert.assertEquals(Integer.valueOf(998), map.lastKey());
+        Assert.assertEquals(0L, map.loadCount());
+
+        Assert.assertEquals("v0", map.get(0));
+        Assert.assertEquals("v198", map.get(198));
+        Assert.assertEquals("v200", map.get(200));
+        Assert.assertEquals("v998", map.get(998));
+        Assert.assertNull(map.get(199));
+        Assert.assertNull(map.get(-1));
+        Assert.assertNull(map.get(1000));
+        Assert.assertNull(map.get(null));
+        Assert.assertEquals("x", map.getOrDefault(1, "x"));
+        Assert.assertTrue(map.containsKey(500));
+        Assert.assertFalse(map.containsKey(501));
+
+        // Keys outside the range of the map load nothing
+        Assert.assertEquals(4L, map.cacheMissCount());
+        Assert.assertEquals(4L, map.loadCount());
+        Assert.assertTrue(map.totalLoadTimeNanos() > 0L);
+        Assert.assertEquals(3, map.cachedSegmentCount());
+        Assert.assertEquals(1L, map.evictionCount());
+
+        TreeMap<Integer, String> expected = new TreeMap<>();
+        for(int i = 0; i < 1000; i += 2) {
+            expected.put(i, "v" + i);
+        }
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(expected.hashCode(), map.hashCode());
+        Assert.assertEquals(expected.toString(), map.toString());
+
+        // Reopening the directory reads the same map
+        ImmutableSegmentedSortedMap<Integer, String> reopened = ImmutableSegmentedSortedMap.open(directory, 100L);
+        Assert.assertEquals(expected, reopened);
+        Assert.assertEquals(1, reopened.cachedSegmentCount());
+        reopened.clearCache();
+        Assert.assertEquals(0, reopened.cachedSegmentCount());
+    }
+
+    @Test
+    public void testCacheHits() throws Exception {
+        ImmutableSegmentedSortedMap<Integer, String> map = buildMap(m_Folder.getRoot().toPath(), 100L);
+        for(int i = 0; i < 10; i++) {
+            Assert.assertEquals("v10", map.get(10));
+        }
+        Assert.assertEquals(1L, map.cacheMissCount());
+        Assert.assertEquals(9L, map.cacheHitCount());
+        Assert.assertEquals(1L, map.loadCount());
+
+        Assert.assertEquals("v310", map.get(310));
+        Assert.assertEquals(1, map.cachedSegmentCount());
+        Assert.assertEquals(1L, map.evictionCount());
+    }
+
+    @Test
+    public void testRangeIteration() throws Exception {
+        ImmutableSegmentedSortedMap<Integer, String> map = buildMap(m_Folder.getRoot().toPath(), 1000L);
+
+        List<Integer> keys = new ArrayList<>();
+        Iterator<Map.Entry<Integer, String>> it = map.entryIterator(195, 405);
+        while(it.hasNext()) {
+            Map.Entry<Integer, String> entry = it.next();
+            Assert.assertEquals("v" + entry.getKey(), entry.getValue());
+            keys.add(entry.getKey());
+        }
+        Assert.assertEquals(105, keys.size());
+        Assert.assertEquals(Integer.valueOf(196), keys.get(0));
+        Assert.assertEquals(Integer.valueOf(404), keys.get(keys.size() - 1));
+
+        // Segments 0 to 2 are read; only the first is loaded on demand,
+        // and the segment following each is prefetched
+        Assert.assertEquals(1L, map.cacheMissCount());
+        Assert.assertEquals(3L, map.cacheHitCount());
+        Assert.assertEquals(4, map.cachedSegmentCount());
+
+        Assert.assertFalse(map.entryIterator(1000, 2000).hasNext());
+        Assert.assertFalse(map.entryIterator(197, 197).hasNext());
+        Assert.assertEquals(Integer.valueOf(0), map.entryIterator(-10, 1).next().getKey());
+
+        try {
+            map.entryIterator(10, 5);
+            Assert.fail("Reversed range should fail");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("fromKey > toKey", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testBuilderChecks() throws Exception {
+        ImmutableSegmentedSortedMapBuilder<String, String> builder = ImmutableSegmentedSortedMapBuilder
+                .<String, String>newMapComparing(m_Folder.getRoot().toPath(), Comparator.reverseOrder())
+                .with("c", "3")
+                .with("b", "2");
+        try {
+            builder.with("b", "x");
+            Assert.fail("Duplicate key should fail");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("duplicate key", e.getMessage());
+        }
+        try {
+            builder.with("d", "4");
+            Assert.fail("Out of order key should fail");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("keys must be added in ascending order", e.getMessage());
+        }
+        ImmutableSegmentedSortedMap<String, String> map = builder.with("a", "1").build();
+        Assert.assertEquals("{c=3, b=2, a=1}", map.toString());
+        Assert.assertEquals("c", map.firstKey());
+        Assert.assertEquals("a", map.lastKey());
+        Assert.assertEquals("2", map.get("b"));
+        Assert.assertEquals(0L, builder.size());
+
+        // The segments of the map just built must not be overwritten
+        try {
+            builder.with("z", "26");
+            Assert.fail("Adding after build should fail");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("map has already been built", e.getMessage());
+        }
+        try {
+            builder.build();
+            Assert.fail("Building twice should fail");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("map has already been built", e.getMessage());
+        }
+        Assert.assertEquals("{c=3, b=2, a=1}", map.toString());
+    }
+
+    @Test
+    public void testEmptyMap() throws Exception {
+        ImmutableSegmentedSortedMap<Integer, String> map = ImmutableSegmentedSortedMap.<Integer, String>builder(
+                m_Folder.getRoot().toPath().resolve("empty")).build();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertEquals(0, map.segmentCount());
+        Assert.assertNull(map.get(1));
+        Assert.assertEquals("{}", map.toString());
+        Assert.assertFalse(map.entryIterator(0, 10).hasNext());
+        try {
+            map.firstKey();
+            Assert.fail("Empty map firstKey() should fail");
+        } catch (NoSuchElementException e) {
+            Assert.assertEquals("Empty map", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testMissingSegment() throws Exception {
+        Path directory = m_Folder.getRoot().toPath();
+        ImmutableSegmentedSortedMap<Integer, String> map = buildMap(directory, 1000L);
+        Files.delete(ImmutableSegmentedSortedMap.segmentFile(directory, 2));
+        Assert.assertEquals("v0", map.get(0));
+        try {
+            map.get(400);
+            Assert.fail("Missing segment should fail");
+        } catch (UncheckedIOException e) {
+            Assert.assertNotNull(e.getCause());
+        }
+        // A failed load is not cached
+        Assert.assertEquals(1, map.cachedSegmentCount());
+    }
+
+    /**
+     * A value that fails to deserialize when asked to.
+     */
+    private static final class FailingValue implements Serializable {
+        static final AtomicBoolean FAIL_NEXT = new AtomicBoolean();
+
+        private static final long serialVersionUID = 1L;
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            if(FAIL_NEXT.getAndSet(false)) {
+                throw new IllegalStateException("failed once");
+            }
+        }
+    }
+
+    // A future left incomplete by a failed load would hang later lookups
+    @Test(timeout = 60000L)
+    public void testFailedLoad() throws Exception {
+        ImmutableSegmentedSortedMapBuilder<Integer, FailingValue> builder =
+                ImmutableSegmentedSortedMap.<Integer, FailingValue>builder(m_Folder.getRoot().toPath())
+                        .segmentSize(100)
+                        .cacheSize(1000L);
+        for(int i = 0; i < 1000; i += 2) {
+            builder.with(i, new FailingValue());
+        }
+        ImmutableSegmentedSortedMap<Integer, FailingValue> map = builder.build();
+
+        FailingValue.FAIL_NEXT.set(true);
+        try {
+            map.get(0);
+            Assert.fail("Failed load should fail");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("failed once", e.getMessage());
+        }
+        // The failed load is not cached, and the next lookup loads it again
+        Assert.assertEquals(0, map.cachedSegmentCount());
+        Assert.assertNotNull(map.get(0));
+        Assert.assertEquals(1, map.cachedSegmentCount());
+
+        // A failed prefetch is not cached either
+        FailingValue.FAIL_NEXT.set(true);
+        Iterator<Map.Entry<Integer, FailingValue>> it = map.entryIterator(0, 1000);
+        final long deadline = System.nanoTime() + 10_000_000_000L;
+        while((map.loadCount() < 3L) && (System.nanoTime() < deadline)) {
+            Thread.sleep(1L);
+        }
+        Assert.assertEquals(3L, map.loadCount());
+        Assert.assertFalse(FailingValue.FAIL_NEXT.get());
+        int count = 0;
+        while(it.hasNext()) {
+            Assert.assertNotNull(it.next().getValue());
+            count++;
+        }
+        Assert.assertEquals(500, count);
+        Assert.assertEquals(5, map.cachedSegmentCount());
+    }
+}
@@ -10,10 +10,12 @@ import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 
 /**
@@ -1350,4 +1352,342 @@ public final class TestImmutableSortedArrayMap {
         Assert.assertSame(ImmutableSortedArrayMap.emptyMap(), map2);
 
     }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testValueDictionary() throws Exception {
+        ImmutableSortedArrayMapBuilder<Integer, String> builder =
+                ImmutableSortedArrayMap.<Integer, String>builder().valueDictionary(true);
+        for(int i = 999; i >= 0; i--) {
+            builder.with(i, "state" + (i % 3));
+        }
+
+        ImmutableSortedArrayMap<Integer, String> map = builder.build();
+        Assert.assertTrue(map.hasValueDictionary());
+        Assert.assertEquals(1000, map.size());
+        Assert.assertEquals("state1", map.get(4));
+        Assert.assertEquals("state1", map.valueAt(4));
+        Assert.assertEquals(Integer.valueOf(4), map.keyAt(4));
+        Assert.assertEquals("state0", map.sortedValueAt(0));
+        Assert.assertEquals("state2", map.sortedValueAt(999));
+        Assert.assertTrue(map.containsValue("state2"));
+        Assert.assertFalse(map.containsValue("state3"));
+        Assert.assertEquals(-1, map.indexOfValue("state3"));
+        Assert.assertEquals("state1", map.valueAt(map.indexOfValue("state1")));
+
+        // Sub maps keep only the values in range, at the right offset
+        ImmutableSortedArrayMap<Integer, String> sub = map.subMap(10, 12);
+        Assert.assertTrue(sub.hasValueDictionary());
+        Assert.assertEquals(2, sub.size());
+        Assert.assertEquals("state1", sub.get(10));
+        Assert.assertEquals("state2", sub.get(11));
+        Assert.assertFalse(sub.containsValue("state0"));
+        Assert.assertEquals("state1", map.tailMap(997).get(997));
+
+        // More than 256 distinct values
+        builder.clear().valueDictionary(true);
+        for(int i = 0; i < 1000; i++) {
+            builder.with(i, "v" + (i % 500));
+        }
+        map = builder.build();
+        Assert.assertEquals("v499", map.get(999));
+        Assert.assertTrue(map.containsValue("v250"));
+        Assert.assertEquals("v100", map.headMap(101).get(100));
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(map);
+
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        ImmutableSortedArrayMap<Integer, String> map2 = (ImmutableSortedArrayMap<Integer, String>) ois.readObject();
+        Assert.assertTrue(map2.hasValueDictionary());
+        Assert.assertEquals(map, map2);
+        Assert.assertEquals("v499", map2.get(999));
+
+        // Bi-maps ignore the option, and clearing resets it
+        map = ImmutableSortedArrayMapBuilder.<Integer, String>newBiMap().valueDictionary(true)
+                .with(1, "x", 2, "y").build();
+        Assert.assertFalse(map.hasValueDictionary());
+        map = builder.clear().with(1, "x").build();
+        Assert.assertFalse(map.hasValueDictionary());
+    }
+
+    @Test
+    public void testSubMapValues() throws Exception {
+        ImmutableSortedArrayMap<String, Integer> map = ImmutableSortedArrayMap.<String, Integer>builder()
+                .with("a", 1, "b", 2, "c", 3)
+                .with("d", 4, "e", 5).build();
+        ImmutableSortedArrayMap<String, Integer> sub = map.subMap("c", "e");
+        Assert.assertEquals(Integer.valueOf(3), sub.get("c"));
+        Assert.assertEquals(Integer.valueOf(4), sub.get("d"));
+        Assert.assertEquals(Integer.valueOf(5), map.tailMap("e").get("e"));
+    }
+
+    @Test
+    public void testPrefixMap() throws Exception {
+        ImmutableSortedArrayMap<String, Integer> map = ImmutableSortedArrayMap.<String, Integer>builder()
+                .with("apple", 1, "apply", 2, "apt", 3)
+                .with("banana", 4, "band", 5).build();
+
+        Assert.assertEquals(0, map.prefixFromIndex("ap"));
+        Assert.assertEquals(3, map.prefixToIndex("ap"));
+        Assert.assertEquals(0, map.prefixFromIndex("appl"));
+        Assert.assertEquals(2, map.prefixToIndex("appl"));
+        Assert.assertEquals(3, map.prefixFromIndex("ban"));
+        Assert.assertEquals(5, map.prefixToIndex("ban"));
+
+        // Absent prefix gives an empty range at the insertion point
+        Assert.assertEquals(3, map.prefixFromIndex("b"));
+        Assert.assertEquals(3, map.prefixFromIndex("az"));
+        Assert.assertEquals(3, map.prefixToIndex("az"));
+        Assert.assertTrue(map.prefixMap("az").isEmpty());
+
+        ArrayBackedMap<String, Integer> sub = map.prefixMap("app");
+        Assert.assertEquals(2, sub.size());
+        Assert.assertEquals("apple", sub.keyAt(0));
+        Assert.assertEquals(Integer.valueOf(2), sub.valueAt(1));
+        Assert.assertEquals(Integer.valueOf(1), sub.get("apple"));
+        Assert.assertNull(sub.get("apt"));
+        Assert.assertEquals(1, sub.indexOfKey("apply"));
+        Assert.assertEquals(-1, sub.indexOfKey("band"));
+        Assert.assertEquals("{apple=1, apply=2}", sub.toString());
+        Assert.assertEquals(Arrays.asList("apple", "apply"), new ArrayList<>(sub.keySet()));
+
+        Map<String, Integer> expected = new HashMap<>();
+        expected.put("apple", 1);
+        expected.put("apply", 2);
+        Assert.assertEquals(expected, sub);
+        Assert.assertEquals(expected.hashCode(), sub.hashCode());
+        Assert.assertSame(map, map.prefixMap(""));
+
+        try {
+            sub.keyAt(2);
+            Assert.fail("index out of range should fail");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+
+        ImmutableSortedArrayMap<String, Integer> reversed = ImmutableSortedArrayMapBuilder.<String, Integer>newMapComparingKeys(Comparator.reverseOrder())
+                .with("apple", 1, "apt", 2).build();
+        try {
+            reversed.prefixMap("ap");
+            Assert.fail("prefix search on custom ordering should fail");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testRankAndCount() throws Exception {
+        ImmutableSortedArrayMap<String, Integer> map = ImmutableSortedArrayMap.<String, Integer>builder()
+                .with("b", 1, "d", 2, "f", 3)
+                .with("h", 4, "j", 5).build();
+
+        Assert.assertEquals(0, map.rank("a"));
+        Assert.assertEquals(1, map.rank("d"));
+        Assert.assertEquals(2, map.rank("e"));
+        Assert.assertEquals(5, map.rank("z"));
+        Assert.assertEquals(3, map.countInRange("d", true, "h", true));
+        Assert.assertEquals(1, map.countInRange("d", false, "h", false));
+        Assert.assertEquals(map.subMap("c", "i").size(), map.countInRange("c", true, "i", false));
+        Assert.assertEquals(0, map.countInRange("d", false, "d", true));
+        Assert.assertEquals("h", map.select(3));
+
+        // Dictionary encoded values keep the keys in the same place
+        ImmutableSortedArrayMap<String, Integer> dict = ImmutableSortedArrayMapBuilder.<String, Integer>newMap()
+                .valueDictionary(true)
+                .with("b", 1, "d", 1, "f", 2).build();
+        Assert.assertEquals(2, dict.rank("e"));
+        Assert.assertEquals(2, dict.countInRange("a", true, "d", true));
+        Assert.assertEquals("f", dict.select(2));
+
+        try {
+            map.countInRange("h", true, "d", true);
+            Assert.fail("inverted range should fail");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testIndexOfKeys() throws Exception {
+        ImmutableSortedArrayMapBuilder<Integer, String> builder = ImmutableSortedArrayMapBuilder.newMap();
+        for(int i = 0; i < 1000; i++) {
+            builder.with(i * 3, "v" + i);
+        }
+        ImmutableSortedArrayMap<Integer, String> map = builder.build();
+
+        // Sorted probes, with repeats and keys beyond either end
+        Integer[] sorted = { -5, 0, 3, 3, 4, 30, 31, 2997, 2998, 5000 };
+        int[] out = new int[sorted.length];
+        Assert.assertEquals(5, map.indexOfKeys(sorted, out));
+        Assert.assertArrayEquals(new int[] { -1, 0, 1, 1, -1, 10, -1, 999, -1, -1 }, out);
+
+        // Unsorted probes are answered in their original positions
+        Random random = new Random(42L);
+        Integer[] probes = new Integer[500];
+        for(int i = 0; i < probes.length; i++) {
+            probes[i] = random.nextInt(3100) - 50;
+        }
+        Integer[] copy = probes.clone();
+        out = new int[probes.length];
+        int found = map.indexOfKeys(probes, out);
+        int expectedFound = 0;
+        for(int i = 0; i < probes.length; i++) {
+            Assert.assertEquals(map.indexOfKey(probes[i]), out[i]);
+            if(out[i] >= 0) {
+                expectedFound++;
+            }
+        }
+        Assert.assertEquals(expectedFound, found);
+        Assert.assertArrayEquals(copy, probes);
+
+        ImmutableSortedArrayMap<Integer, String> all = map.getAll(Arrays.asList(9, 7, 3, 9, 2997));
+        Assert.assertEquals(3, all.size());
+        Assert.assertEquals(Arrays.asList(3, 9, 2997), new ArrayList<>(all.keySet()));
+        Assert.assertEquals("v3", all.get(9));
+        Assert.assertTrue(map.getAll(Arrays.asList(1, 2)).isEmpty());
+
+        // Entries are copied directly, keeping their order by value
+        for(int kind = 0; kind < 2; kind++) {
+            ImmutableSortedArrayMapBuilder<Integer, String> source = (kind == 0)
+                    ? ImmutableSortedArrayMapBuilder.<Integer, String>newBiMap()
+                    : ImmutableSortedArrayMapBuilder.<Integer, String>newMap().valueDictionary(true);
+            ImmutableSortedArrayMapBuilder<Integer, String> expected = (kind == 0)
+                    ? ImmutableSortedArrayMapBuilder.<Integer, String>newBiMap()
+                    : ImmutableSortedArrayMapBuilder.<Integer, String>newMap().valueDictionary(true);
+            for(int i = 0; i < 200; i++) {
+                String value = (kind == 0) ? "v" + (199 - i) : "v" + (i % 7);
+                source.with(i, value);
+                if(i % 3 == 0) {
+                    expected.with(i, value);
+                }
+            }
+            ImmutableSortedArrayMap<Integer, String> parent = source.build();
+            List<Integer> wanted = new ArrayList<>();
+            for(int i = 198; i >= 0; i -= 3) {
+                wanted.add(i);
+                wanted.add(i + 1000);
+            }
+            ImmutableSortedArrayMap<Integer, String> subset = parent.getAll(wanted);
+            ImmutableSortedArrayMap<Integer, String> built = expected.build();
+            Assert.assertEquals(built, subset);
+            Assert.assertEquals(new ArrayList<>(built.entrySetByValue()), new ArrayList<>(subset.entrySetByValue()));
+            Assert.assertEquals(built.hasValueDictionary(), subset.hasValueDictionary());
+            Assert.assertEquals(built.isBiMap(), subset.isBiMap());
+            for(int i = 0; i < subset.size(); i++) {
+                Assert.assertEquals(subset.valueAt(i), subset.valueAt(subset.indexOfValue(subset.valueAt(i))));
+            }
+            if(kind == 0) {
+                Assert.assertEquals(built.inverse(), subset.inverse());
+                Assert.assertEquals(Integer.valueOf(99), subset.inverse().get("v100"));
+            }
+        }
+
+        try {
+            map.indexOfKeys(sorted, new int[2]);
+            Assert.fail("short output array should fail");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testChunked() throws Exception {
+        // Large enough that the keys and values are held in chunks
+        final int size = 70000;
+        ImmutableSortedArrayMapBuilder<Integer, Integer> builder = ImmutableSortedArrayMap.<Integer, Integer>builder().asBiMap();
+        for(int i = size - 1; i >= 0; i--) {
+            builder.with(i * 2, -i);
+        }
+        ImmutableSortedArrayMap<Integer, Integer> map = builder.build();
+        Assert.assertTrue(map.isChunked());
+        Assert.assertFalse(ImmutableSortedArrayMap.<Integer, Integer>builder().with(1, 2).build().isChunked());
+
+        Assert.assertEquals(size, map.size());
+        Assert.assertFalse(map.isEmpty());
+        Assert.assertEquals(Integer.valueOf(0), map.firstKey());
+        Assert.assertEquals(Integer.valueOf((size - 1) * 2), map.lastKey());
+        for(int i = 0; i < size; i += 97) {
+            Assert.assertEquals(Integer.valueOf(-i), map.get(i * 2));
+            Assert.assertNull(map.get(i * 2 + 1));
+            Assert.assertEquals(i, map.indexOfKey(i * 2));
+            Assert.assertEquals(i, map.indexOfValue(-i));
+            Assert.assertEquals(Integer.valueOf(i * 2), map.keyAt(i));
+            Assert.assertEquals(Integer.valueOf(-i), map.valueAt(i));
+        }
+        Assert.assertEquals(Integer.valueOf(1 - size), map.sortedValueAt(0));
+        Assert.assertEquals(Integer.valueOf(0), map.inverse().get(0));
+        Assert.assertEquals(Integer.valueOf(200), map.inverse().get(-100));
+
+        int[] out = new int[3];
+        Assert.assertEquals(2, map.indexOfKeys(new Object[] { 100000, 3, 40000 }, out));
+        Assert.assertEquals(50000, out[0]);
+        Assert.assertEquals(-1, out[1]);
+        Assert.assertEquals(20000, out[2]);
+
+        // Small sub-maps are held flat, large ones in chunks
+        ImmutableSortedArrayMap<Integer, Integer> small = map.subMap(1000, 1010);
+        Assert.assertFalse(small.isChunked());
+        Assert.assertEquals(Arrays.asList(1000, 1002, 1004, 1006, 1008), new ArrayList<>(small.keySet()));
+        Assert.assertEquals(Arrays.asList(-504, -503, -502, -501, -500), new ArrayList<>(small.values()));
+        ImmutableSortedArrayMap<Integer, Integer> tail = map.tailMap(4000);
+        Assert.assertTrue(tail.isChunked());
+        Assert.assertEquals(size - 2000, tail.size());
+        Assert.assertEquals(Integer.valueOf(-2000), tail.get(4000));
+        Assert.assertEquals(Integer.valueOf(1 - size), tail.sortedValueAt(0));
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(map);
+
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        ImmutableSortedArrayMap<Integer, Integer> map2 = (ImmutableSortedArrayMap<Integer, Integer>) ois.readObject();
+        Assert.assertTrue(map2.isChunked());
+        Assert.assertEquals(map, map2);
+        Assert.assertEquals(Integer.valueOf(-12345), map2.get(24690));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testChunkedValueDictionary() throws Exception {
+        // Large enough that the keys and dictionary codes are held in chunks
+        final int size = 140000;
+        ImmutableSortedArrayMapBuilder<Integer, String> builder =
+                ImmutableSortedArrayMap.<Integer, String>builder().valueDictionary(true);
+        for(int i = size - 1; i >= 0; i--) {
+            builder.with(i, "v" + (i % 300));
+        }
+        ImmutableSortedArrayMap<Integer, String> map = builder.build();
+        Assert.assertTrue(map.isChunked());
+        Assert.assertTrue(map.hasValueDictionary());
+        Assert.assertEquals(size, map.size());
+        for(int i = 0; i < size; i += 997) {
+            Assert.assertEquals("v" + (i % 300), map.get(i));
+            Assert.assertEquals("v" + (i % 300), map.valueAt(i));
+        }
+        Assert.assertTrue(map.containsValue("v299"));
+        Assert.assertFalse(map.containsValue("v300"));
+        Assert.assertEquals("v123", map.valueAt(map.indexOfValue("v123")));
+        Assert.assertEquals("v0", map.sortedValueAt(0));
+        Assert.assertEquals("v99", map.sortedValueAt(size - 1));
+
+        ImmutableSortedArrayMap<Integer, String> tail = map.tailMap(1000);
+        Assert.assertTrue(tail.isChunked());
+        Assert.assertTrue(tail.hasValueDictionary());
+        Assert.assertEquals("v100", tail.get(1000));
+        Assert.assertEquals("v0", tail.valueAt(tail.indexOfValue("v0")));
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(map);
+
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        ImmutableSortedArrayMap<Integer, String> map2 = (ImmutableSortedArrayMap<Integer, String>) ois.readObject();
+        Assert.assertTrue(map2.isChunked());
+        Assert.assertTrue(map2.hasValueDictionary());
+        Assert.assertEquals(map, map2);
+        Assert.assertEquals("v45", map2.get(123345));
+    }
 }
@@ -1470,6 +1470,165 @@ public class TestImmutableSortedArrayPropertyMap {
 
     }
 
+    @Test
+    public void testMaterializedKeys() throws Exception {
+        CountingKeyExtractor extractor = new CountingKeyExtractor();
+        ImmutableSortedArrayPropertyMap<String, TestClassWithProperty<String>> map =
+                ImmutableSortedArrayPropertyMapBuilder.newMapWithKeys(extractor)
+                        .materializeKeys(true)
+                        .with(new TestClassWithProperty<>("f", "ac"))
+                        .with(new TestClassWithProperty<>("b", "bc"))
+                        .with(new TestClassWithProperty<>("c", "cc"))
+                        .with(new TestClassWithProperty<>("d", "dx"))
+                        .with(new TestClassWithProperty<>("e", "ec"))
+                        .with(new TestClassWithProperty<>("a", "fc"))
+                        .with(new TestClassWithProperty<>("g", "gc"))
+                        .build();
+
+        // Each key calculated exactly once, when the map is built
+        Assert.assertEquals(7, extractor.count);
+        Assert.assertTrue(map.hasMaterializedKeys());
+
+        Assert.assertEquals(7, map.size());
+        Assert.assertEquals("{a=fc, b=bc, c=cc, d=dx, e=ec, f=ac, g=gc}", map.toString());
+        Assert.assertEquals("fc", map.get("a").toString());
+        Assert.assertEquals("gc", map.get("g").toString());
+        Assert.assertNull(map.get("h"));
+        Assert.assertTrue(map.containsKey("d"));
+        Assert.assertFalse(map.containsKey("0"));
+        Assert.assertEquals("a", map.firstKey());
+        Assert.assertEquals("g", map.lastKey());
+        Assert.assertEquals("[a, b, c, d, e, f, g]", map.keySet().toString());
+        Assert.assertEquals(3, map.indexOfKey("d"));
+
+        ImmutableSortedArrayPropertyMap<String, TestClassWithProperty<String>> subMap = map.subMap("b", "e");
+        Assert.assertTrue(subMap.hasMaterializedKeys());
+        Assert.assertEquals("{b=bc, c=cc, d=dx}", subMap.toString());
+        Assert.assertEquals("b", subMap.firstKey());
+        Assert.assertEquals("d", subMap.lastKey());
+
+        // No further key calculation after the map is built
+        Assert.assertEquals(7, extractor.count);
+
+        // Default is to calculate keys on demand
+        extractor.count = 0;
+        ImmutableSortedArrayPropertyMap<String, TestClassWithProperty<String>> map2 =
+                ImmutableSortedArrayPropertyMapBuilder.newMapWithKeys(extractor)
+                        .with(new TestClassWithProperty<>("f", "ac"))
+                        .with(new TestClassWithProperty<>("b", "bc"))
+                        .with(new TestClassWithProperty<>("a", "fc"))
+                        .build();
+        Assert.assertFalse(map2.hasMaterializedKeys());
+        int count = extractor.count;
+        Assert.assertEquals("fc", map2.get("a").toString());
+        Assert.assertTrue(extractor.count > count);
+        Assert.assertEquals(map.headMap("c").get("b"), map2.get("b"));
+
+        // Serialization regenerates the materialized keys
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+
+        oos.writeObject(map);
+
+        ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
+        ObjectInputStream ois = new ObjectInputStream(bais);
+
+        @SuppressWarnings("unchecked")
+        ImmutableSortedArrayPropertyMap<String, TestClassWithProperty<String>> map3 =
+                (ImmutableSortedArrayPropertyMap<String, TestClassWithProperty<String>>) ois.readObject();
+        Assert.assertTrue(map3.hasMaterializedKeys());
+        Assert.assertEquals(map, map3);
+        Assert.assertEquals("dx", map3.get("d").toString());
+    }
+
+    @Test
+    public void testInverse() throws Exception {
+        TestClassWithProperty<String> f = new TestClassWithProperty<>("f", "ac");
+        TestClassWithProperty<String> b = new TestClassWithProperty<>("b", "bc");
+        TestClassWithProperty<String> a = new TestClassWithProperty<>("a", "fc");
+        ImmutableSortedArrayPropertyMap<String, TestClassWithProperty<String>> map =
+                ImmutableSortedArrayPropertyMapBuilder.newMapWithKeys(TestClassWithProperty<String>::getName)
+                        .with(f, b, a)
+                        .build();
+
+        Assert.assertEquals(0, map.indexOfValue(a));
+        Assert.assertEquals(2, map.indexOfValue(new TestClassWithProperty<>("f", "ac")));
+        Assert.assertEquals(-1, map.indexOfValue(new TestClassWithProperty<>("f", "xx")));
+        Assert.assertEquals(-1, map.indexOfValue(null));
+        Assert.assertEquals(-1, map.indexOfValue("not a value"));
+        Assert.assertTrue(map.containsValue(b));
+        Assert.assertFalse(map.containsValue(new TestClassWithProperty<>("g", "gc")));
+
+        ArrayBackedMap<TestClassWithProperty<String>, String> inverse = map.inverse();
+        Assert.assertEquals(3, inverse.size());
+        Assert.assertEquals("a", inverse.get(a));
+        Assert.assertEquals("f", inverse.get(f));
+        Assert.assertNull(inverse.get(new TestClassWithProperty<>("q", "qc")));
+        Assert.assertTrue(inverse.containsValue("b"));
+        Assert.assertFalse(inverse.containsValue("c"));
+        Assert.assertEquals("{fc=a, bc=b, ac=f}", inverse.toString());
+    }
+
+    @Test
+    public void testIndexOfValueSupplierFailure() throws Exception {
+        TestClassWithProperty<String> a = new TestClassWithProperty<>("a", "ac");
+        TestClassWithProperty<String> b = new TestClassWithProperty<>("b", "bc");
+        ImmutableSortedArrayPropertyMap<String, TestClassWithProperty<String>> map =
+                ImmutableSortedArrayPropertyMapBuilder.<String, TestClassWithProperty<String>>newMapWithKeys(
+                        v -> Objects.requireNonNull(v.getName(), "name"))
+                        .with(b, a)
+                        .build();
+
+        // Values of another type, and null, never reach the key supplier
+        Assert.assertEquals(-1, map.indexOfValue("a"));
+        Assert.assertEquals(-1, map.indexOfValue(null));
+        Assert.assertEquals(1, map.indexOfValue(b));
+
+        // A failure in the key supplier itself is not hidden
+        try {
+            map.indexOfValue(new TestClassWithProperty<>(null, "nc"));
+            Assert.fail("Key supplier failure should propagate");
+        } catch (NullPointerException e) {
+            Assert.assertEquals("name", e.getMessage());
+        }
+    }
+
+    private interface Named {
+        String name();
+    }
+
+    private static final class NamedA implements Named {
+        @Override
+        public String name() {
+            return "a";
+        }
+    }
+
+    private static final class NamedB implements Named {
+        @Override
+        public String name() {
+            return "b";
+        }
+    }
+
+    @Test
+    public void testIndexOfValueHeterogeneous() throws Exception {
+        // The values share only an interface, so any object passes the
+        // class check, and the key supplier rejects the string
+        NamedA a = new NamedA();
+        NamedB b = new NamedB();
+        ImmutableSortedArrayPropertyMap<String, Named> map =
+                ImmutableSortedArrayPropertyMapBuilder.<String, Named>newMapWithKeys(Named::name)
+                        .with(b, a)
+                        .build();
+
+        Assert.assertFalse(map.containsValue("zzz"));
+        Assert.assertEquals(-1, map.indexOfValue("zzz"));
+        Assert.assertTrue(map.containsValue(a));
+        Assert.assertEquals(1, map.indexOfValue(b));
+        Assert.assertFalse(map.containsValue(new NamedA()));
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     public void testSerialization() throws Exception {
@@ -1578,6 +1737,17 @@ public class TestImmutableSortedArrayPropertyMap {
         }
     }
 
+    private static final class CountingKeyExtractor implements Function<TestClassWithProperty<String>, String>,
+            Serializable {
+        private int count;
+
+        @Override
+        public String apply(TestClassWithProperty<String> stringTestClassWithProperty) {
+            count++;
+            return stringTestClassWithProperty.getName();
+        }
+    }
+
     /**
      * A static method that fits the Function definition for extracting a
      * key from the given test class.
@@ -1638,4 +1808,26 @@ public class TestImmutableSortedArrayPropertyMap {
         }
     }
 
+    @Test
+    public void testRankAndCount() throws Exception {
+        ImmutableSortedArrayPropertyMapBuilder<String, TestClassWithProperty<String>> builder =
+                ImmutableSortedArrayPropertyMapBuilder.<String, TestClassWithProperty<String>>newMapWithKeys(TestClassWithProperty::getName)
+                        .with(new TestClassWithProperty<>("c", "5"), new TestClassWithProperty<>("e", "3"), new TestClassWithProperty<>("g", "1"))
+                        .with(new TestClassWithProperty<>("a", "7"));
+
+        // Both computed and materialized keys
+        for(boolean materialize : new boolean[] { false, true }) {
+            ImmutableSortedArrayPropertyMap<String, TestClassWithProperty<String>> map =
+                    builder.materializeKeys(materialize).build();
+            Assert.assertEquals(materialize, map.hasMaterializedKeys());
+
+            Assert.assertEquals(0, map.rank("a"));
+            Assert.assertEquals(2, map.rank("d"));
+            Assert.assertEquals(4, map.rank("h"));
+            Assert.assertEquals(2, map.countInRange("b", true, "f", true));
+            Assert.assertEquals(3, map.countInRange("a", true, "e", true));
+            Assert.assertEquals(1, map.countInRange("a", false, "e", false));
+            Assert.assertEquals("e", map.select(2));
+        }
+    }
 }
@@ -492,4 +492,82 @@ public final class TestImmutableSortedArraySet {
         Assert.assertEquals(0, set2.size());
         Assert.assertSame(ImmutableSortedArraySet.emptySet(), set2);
     }
+
+    @Test
+    public void testRankAndCount() throws Exception {
+        ImmutableSortedArraySet<Integer> set = ImmutableSortedArraySet.<Integer>builder()
+                .with(10, 20, 30, 40, 50).build();
+
+        Assert.assertEquals(0, set.rank(5));
+        Assert.assertEquals(0, set.rank(10));
+        Assert.assertEquals(1, set.rank(15));
+        Assert.assertEquals(4, set.rank(50));
+        Assert.assertEquals(5, set.rank(60));
+
+        Assert.assertEquals(3, set.countInRange(20, true, 40, true));
+        Assert.assertEquals(2, set.countInRange(20, true, 40, false));
+        Assert.assertEquals(2, set.countInRange(20, false, 40, true));
+        Assert.assertEquals(1, set.countInRange(20, false, 40, false));
+        Assert.assertEquals(set.subSet(15, 45).size(), set.countInRange(15, true, 45, false));
+        Assert.assertEquals(1, set.countInRange(30, true, 30, true));
+        Assert.assertEquals(0, set.countInRange(30, true, 30, false));
+        Assert.assertEquals(0, set.countInRange(31, true, 39, true));
+        Assert.assertEquals(5, set.countInRange(0, true, 100, true));
+
+        for(int i = 0; i < set.size(); i++) {
+            Assert.assertEquals(i, set.rank(set.select(i)));
+        }
+        Assert.assertEquals(Integer.valueOf(30), set.select(2));
+
+        try {
+            set.countInRange(40, true, 20, true);
+            Assert.fail("inverted range should fail");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            set.select(5);
+            Assert.fail("rank out of range should fail");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testIndexOfElements() throws Exception {
+        ImmutableSortedArraySetBuilder<Integer> builder = ImmutableSortedArraySetBuilder.newComparing(null);
+        for(int i = 0; i < 1000; i++) {
+            builder.with(i * 2);
+        }
+        ImmutableSortedArraySet<Integer> set = builder.build();
+
+        Random random = new Random(43L);
+        Object[] probes = new Object[203];
+        for(int i = 0; i < probes.length; i++) {
+            probes[i] = random.nextInt(2100) - 50;
+        }
+        probes[0] = 0;
+        probes[1] = 1998;
+        int[] out = new int[probes.length];
+        int found = set.indexOfElements(probes, out);
+        int expectedFound = 0;
+        for(int i = 0; i < probes.length; i++) {
+            Assert.assertEquals(set.indexOf(probes[i]), out[i]);
+            if(out[i] >= 0) {
+                expectedFound++;
+            }
+        }
+        Assert.assertEquals(expectedFound, found);
+        Assert.assertEquals(999, out[1]);
+
+        // Insertion points from the underlying search
+        int[] points = new int[3];
+        Assert.assertEquals(1, BinarySearchUtils.interleavedSearch(new Object[] { 10, 20, 30 }, 0, 3,
+                new Object[] { 5, 20, 35 }, points, Comparator.naturalOrder()));
+        Assert.assertArrayEquals(new int[] { -1, 1, -4 }, points);
+
+        ImmutableSortedArraySet<Integer> empty = ImmutableSortedArraySet.emptySet();
+        Assert.assertEquals(0, empty.indexOfElements(new Object[] { 1, 2 }, points));
+        Assert.assertEquals(-1, points[1]);
+    }
 }
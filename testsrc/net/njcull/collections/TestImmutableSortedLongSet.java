@@ -0,0 +1,243 @@
+package net.njcull.collections;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.*;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for ImmutableSortedLongSet.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class TestImmutableSortedLongSet {
+
+    private static void assertSameSet(TreeSet<Long> expected, ImmutableSortedLongSet set) {
+        Assert.assertEquals(expected.size(), set.size());
+        Assert.assertEquals(new ArrayList<>(expected), new ArrayList<>(set));
+        Assert.assertEquals(expected, set);
+        Assert.assertEquals(expected.hashCode(), set.hashCode());
+        Assert.assertEquals(expected.toString(), set.toString());
+
+        int i = 0;
+        for(long value : expected) {
+            Assert.assertEquals(value, set.getLong(i));
+            Assert.assertEquals(i, set.indexOf(value));
+            Assert.assertTrue(set.contains(value));
+            Assert.assertEquals(i, set.ceilingIndex(value));
+            Long higher = expected.higher(value);
+            if((value != Long.MAX_VALUE) && ((higher == null) || (higher != value + 1))) {
+                Assert.assertFalse(set.contains(value + 1));
+                Assert.assertEquals(-1, set.indexOf(value + 1));
+                Assert.assertEquals(i + 1, set.ceilingIndex(value + 1));
+            }
+            i++;
+        }
+    }
+
+    @Test
+    public void testEmptySet() throws Exception {
+        ImmutableSortedLongSet test = ImmutableSortedLongSet.builder().build();
+        Assert.assertFalse(test.contains(3L));
+        Assert.assertSame(test, ImmutableSortedLongSet.emptySet());
+        Assert.assertTrue(test.isEmpty());
+        Assert.assertEquals(0, test.size());
+        Assert.assertEquals(0, test.ceilingIndex(3L));
+        Assert.assertEquals("[]", test.toString());
+        Assert.assertEquals(0, test.hashCode());
+        Assert.assertFalse(test.longIterator().hasNext());
+    }
+
+    @Test
+    public void testBuildMerge() throws Exception {
+        ImmutableSortedLongSetBuilder builder = new ImmutableSortedLongSetBuilder();
+        ImmutableSortedLongSetBuilder builder2 = new ImmutableSortedLongSetBuilder();
+
+        builder.with(Arrays.asList(3L, 2L, 1L));
+        builder2.with(7L, 6L).with(5L, 4L, 1L);
+        builder.merge(builder2);
+
+        ImmutableSortedLongSet set = builder.build();
+        Assert.assertEquals(5, builder2.size());
+        builder2.clear();
+        Assert.assertEquals(0, builder2.size());
+
+        Assert.assertEquals(7, set.size());
+        Assert.assertEquals("[1, 2, 3, 4, 5, 6, 7]", set.toString());
+        Assert.assertArrayEquals(new long[] { 1, 2, 3, 4, 5, 6, 7 }, set.toLongArray());
+        Assert.assertEquals(Long.valueOf(1L), set.first());
+        Assert.assertEquals(Long.valueOf(7L), set.last());
+    }
+
+    @Test
+    public void testDenseAndSparse() throws Exception {
+        Random random = new Random(42L);
+
+        // Dense, with no low bits
+        TreeSet<Long> dense = new TreeSet<>();
+        for(long i = 100; i < 1100; i++) {
+            if(random.nextInt(4) != 0) {
+                dense.add(i);
+            }
+        }
+        assertSameSet(dense, ImmutableSortedLongSet.copyOf(dense));
+
+        // Sparse timestamps
+        TreeSet<Long> sparse = new TreeSet<>();
+        long t = 1_700_000_000_000L;
+        for(int i = 0; i < 5000; i++) {
+            t += 1 + random.nextInt(100_000);
+            sparse.add(t);
+        }
+        assertSameSet(sparse, ImmutableSortedLongSet.copyOf(sparse));
+
+        // Clustered, with large buckets and gaps
+        TreeSet<Long> clustered = new TreeSet<>();
+        for(int i = 0; i < 3000; i++) {
+            clustered.add((long) (random.nextInt(3) * 1_000_000_000) + random.nextInt(10_000));
+        }
+        assertSameSet(clustered, ImmutableSortedLongSet.copyOf(clustered));
+    }
+
+    @Test
+    public void testExtremes() throws Exception {
+        TreeSet<Long> expected = new TreeSet<>(Arrays.asList(
+                Long.MIN_VALUE, Long.MIN_VALUE + 1, -1L, 0L, 1L, Long.MAX_VALUE - 1, Long.MAX_VALUE));
+        ImmutableSortedLongSet set = ImmutableSortedLongSet.copyOf(expected);
+        assertSameSet(expected, set);
+        Assert.assertFalse(set.contains(2L));
+        Assert.assertEquals(4, set.ceilingIndex(1L));
+        Assert.assertEquals(5, set.ceilingIndex(2L));
+
+        set = ImmutableSortedLongSet.copyOf(new long[] { 42L });
+        Assert.assertEquals(1, set.size());
+        Assert.assertEquals(0, set.indexOf(42L));
+        Assert.assertEquals(0, set.ceilingIndex(41L));
+        Assert.assertEquals(1, set.ceilingIndex(43L));
+    }
+
+    @Test
+    public void testCompression() throws Exception {
+        long[] values = LongStream.range(0, 100_000).map(i -> i * 1000 + (i % 7)).toArray();
+        ImmutableSortedLongSet set = ImmutableSortedLongSet.copyOf(values);
+        Assert.assertEquals(100_000, set.size());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(set);
+        oos.close();
+
+        // log2(1000) + 2 bits is about 12 bits per element, versus 64
+        Assert.assertTrue(baos.size() < 100_000 * 12 / 8 + 1000);
+        Assert.assertArrayEquals(values, set.toLongArray());
+    }
+
+    @Test
+    public void testSubSets() throws Exception {
+        TreeSet<Long> expected = new TreeSet<>();
+        for(long i = 0; i < 2000; i += 3) {
+            expected.add(i * i);
+        }
+        ImmutableSortedLongSet set = ImmutableSortedLongSet.copyOf(expected);
+
+        long[] bounds = { -5L, 0L, 1L, 9L, 10L, 250_000L, 3_000_000L, 5_000_000L };
+        for(long from : bounds) {
+            Assert.assertEquals(expected.tailSet(from), set.tailSet(from));
+            Assert.assertEquals(expected.headSet(from), set.headSet(from));
+            for(long to : bounds) {
+                if(from <= to) {
+                    Assert.assertEquals(new ArrayList<>(expected.subSet(from, to)), new ArrayList<>(set.subSet(from, to)));
+                }
+            }
+        }
+        Assert.assertSame(set, set.tailSet(0L));
+        Assert.assertSame(ImmutableSortedLongSet.emptySet(), set.headSet(0L));
+    }
+
+    @Test
+    public void testCollector() throws Exception {
+        ImmutableSortedLongSet set = Stream.of(4L, 2L, 3L, 1L, 2L)
+                .collect(Collectors.toImmutableSortedLongSet());
+        Assert.assertEquals("[1, 2, 3, 4]", set.toString());
+
+        set = LongStream.range(0, 10_000).map(i -> i * 37 % 10_007).boxed().parallel()
+                .collect(Collectors.toImmutableSortedLongSet());
+        Assert.assertEquals(10_000, set.size());
+        Assert.assertEquals(10_000, set.stream().count());
+        Assert.assertEquals(set.asList(), Arrays.asList(set.parallelStream().toArray()));
+    }
+
+    @Test
+    public void testExceptions() throws Exception {
+        ImmutableSortedLongSet set = ImmutableSortedLongSet.builder().with(1L, 2L).with(3L).build();
+        try {
+            set.add(4L);
+            Assert.fail("add should fail");
+        } catch (UnsupportedOperationException e) {
+            Assert.assertNotNull(e);
+        }
+        try {
+            set.clear();
+            Assert.fail("clear should fail");
+        } catch (UnsupportedOperationException e) {
+            Assert.assertEquals("No removals", e.getMessage());
+        }
+        try {
+            set.getLong(3);
+            Assert.fail("getLong should fail");
+        } catch (IndexOutOfBoundsException e) {
+            Assert.assertEquals("index: 3", e.getMessage());
+        }
+        try {
+            set.subSet(3L, 1L);
+            Assert.fail("subSet should fail");
+        } catch (IllegalArgumentException e) {
+            Assert.assertNotNull(e);
+        }
+        try {
+            ImmutableSortedLongSet.emptySet().first();
+            Assert.fail("first should fail");
+        } catch (NoSuchElementException e) {
+            Assert.assertEquals("Empty set", e.getMessage());
+        }
+        Assert.assertFalse(set.contains((Object) "1"));
+        Assert.assertFalse(set.contains((Object) null));
+        Assert.assertEquals(-1, set.indexOf((Long) null));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        TreeSet<Long> expected = new TreeSet<>();
+        Random random = new Random(7L);
+        for(int i = 0; i < 1000; i++) {
+            expected.add(random.nextLong() >> 20);
+        }
+        ImmutableSortedLongSet set = ImmutableSortedLongSet.copyOf(expected);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(set);
+
+        ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
+        ObjectInputStream ois = new ObjectInputStream(bais);
+
+        ImmutableSortedLongSet set2 = (ImmutableSortedLongSet) ois.readObject();
+        Assert.assertNotSame(set, set2);
+        assertSameSet(expected, set2);
+
+        baos = new ByteArrayOutputStream();
+        oos = new ObjectOutputStream(baos);
+        oos.writeObject(ImmutableSortedLongSet.emptySet());
+
+        bais = new ByteArrayInputStream(baos.toByteArray());
+        ois = new ObjectInputStream(bais);
+        Assert.assertSame(ImmutableSortedLongSet.emptySet(), ois.readObject());
+    }
+}
@@ -0,0 +1,146 @@
+package net.njcull.collections;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.*;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for ImmutableSortedSetMultimap.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class TestImmutableSortedSetMultimap {
+
+    @Test
+    public void testBuilder() {
+        ImmutableSortedSetMultimap<String, Integer> map = ImmutableSortedSetMultimap.<String, Integer>builder()
+                .with("c", 3).with("a", 11).with("b", 2).with("a", 1).with("c", 3)
+                .withAll("d", Arrays.asList(40, 4, 4))
+                .build();
+
+        // Duplicate values within a key are removed
+        Assert.assertEquals(6, map.size());
+        Assert.assertEquals(4, map.keyCount());
+        Assert.assertEquals("{a=[1, 11], b=[2], c=[3], d=[4, 40]}", map.toString());
+
+        ArrayBackedSet<Integer> values = map.get("a");
+        Assert.assertEquals(Arrays.asList(1, 11), values.asList());
+        Assert.assertTrue(values.contains(11));
+        Assert.assertEquals(new HashSet<>(Arrays.asList(1, 11)), values);
+        Assert.assertEquals(Arrays.asList(4, 40), map.valuesAt(3).asList());
+        Assert.assertTrue(map.get("x").isEmpty());
+
+        Assert.assertTrue(map.containsEntry("d", 40));
+        Assert.assertFalse(map.containsEntry("d", 41));
+        Assert.assertFalse(map.containsEntry("x", 40));
+        Assert.assertTrue(map.containsValue(2));
+        Assert.assertNull(map.valueComparator());
+    }
+
+    @Test
+    public void testComparators() {
+        ImmutableSortedSetMultimap<String, String> map = ImmutableSortedSetMultimapBuilder.<String, String>newMultimapComparing(
+                    Comparator.reverseOrder(), String.CASE_INSENSITIVE_ORDER)
+                .with("a", "b").with("a", "A").with("a", "B").with("z", "q").with("a", null)
+                .build();
+
+        Assert.assertEquals(Arrays.asList("z", "a"), new ArrayList<>(map.keySet()));
+        // "B" compares equal to "b", so only the first is kept
+        Assert.assertEquals(Arrays.asList(null, "A", "b"), map.get("a").asList());
+        Assert.assertTrue(map.containsEntry("a", "B"));
+        Assert.assertTrue(map.containsEntry("a", null));
+        Assert.assertSame(String.CASE_INSENSITIVE_ORDER, map.valueComparator());
+    }
+
+    @Test
+    public void testEmpty() {
+        ImmutableSortedSetMultimap<String, String> map = ImmutableSortedSetMultimap.<String, String>builder().build();
+        Assert.assertSame(ImmutableSortedSetMultimap.emptyMultimap(), map);
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertEquals("{}", map.toString());
+        Assert.assertTrue(map.get("a").isEmpty());
+    }
+
+    @Test
+    public void testEqualsHashCode() {
+        ImmutableSortedSetMultimap<String, Integer> map1 = ImmutableSortedSetMultimap.<String, Integer>builder()
+                .with("a", 1).with("b", 2).with("a", 3).build();
+        ImmutableSortedSetMultimap<String, Integer> map2 = ImmutableSortedSetMultimap.<String, Integer>builder()
+                .with("a", 3).with("b", 2).with("a", 1).with("a", 1).build();
+        ImmutableSortedSetMultimap<String, Integer> map3 = ImmutableSortedSetMultimap.<String, Integer>builder()
+                .with("a", 3).with("b", 2).build();
+
+        Assert.assertEquals(map1, map2);
+        Assert.assertEquals(map1.hashCode(), map2.hashCode());
+        Assert.assertNotEquals(map1, map3);
+    }
+
+    @Test
+    public void testCollector() {
+        ImmutableSortedSetMultimap<Integer, String> map = Stream.of("one", "two", "three", "four", "five", "six", "two")
+                .collect(Collectors.toImmutableSortedSetMultimap(String::length, s -> s));
+        Assert.assertEquals("{3=[one, six, two], 4=[five, four], 5=[three]}", map.toString());
+
+        map = Stream.of("one", "two", "three", "four", "five", "six")
+                .parallel()
+                .collect(Collectors.toImmutableSortedSetMultimapComparing(String::length, s -> s,
+                        Comparator.reverseOrder(), Comparator.reverseOrder()));
+        Assert.assertEquals("{5=[three], 4=[four, five], 3=[two, six, one]}", map.toString());
+    }
+
+    @Test
+    public void testLarge() {
+        ImmutableSortedSetMultimapBuilder<Integer, Integer> builder = ImmutableSortedSetMultimapBuilder.newMultimap();
+        Random random = new Random(42L);
+        Map<Integer, TreeSet<Integer>> expected = new HashMap<>();
+        for(int i = 0; i < 5000; i++) {
+            int key = random.nextInt(50);
+            int value = random.nextInt(200);
+            builder.with(key, value);
+            expected.computeIfAbsent(key, k -> new TreeSet<>()).add(value);
+        }
+        ImmutableSortedSetMultimap<Integer, Integer> map = builder.build();
+        Assert.assertEquals(expected.size(), map.keyCount());
+        for(Map.Entry<Integer, TreeSet<Integer>> entry : expected.entrySet()) {
+            Assert.assertEquals(new ArrayList<>(entry.getValue()), map.get(entry.getKey()).asList());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSerialization() throws Exception {
+        ImmutableSortedSetMultimap<String, Integer> map = ImmutableSortedSetMultimap.<String, Integer>builder()
+                .with("b", 2).with("a", 3).with("a", 1).build();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+
+        oos.writeObject(map);
+
+        ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
+        ObjectInputStream ois = new ObjectInputStream(bais);
+
+        ImmutableSortedSetMultimap<String, Integer> map2 = (ImmutableSortedSetMultimap<String, Integer>) ois.readObject();
+        Assert.assertEquals("{a=[1, 3], b=[2]}", map2.toString());
+        Assert.assertEquals(map, map2);
+        Assert.assertTrue(map2.containsEntry("a", 3));
+
+        baos = new ByteArrayOutputStream();
+        oos = new ObjectOutputStream(baos);
+
+        oos.writeObject(ImmutableSortedSetMultimap.emptyMultimap());
+
+        bais = new ByteArrayInputStream(baos.toByteArray());
+        ois = new ObjectInputStream(bais);
+
+        map2 = (ImmutableSortedSetMultimap<String, Integer>) ois.readObject();
+        Assert.assertSame(ImmutableSortedSetMultimap.emptyMultimap(), map2);
+    }
+}
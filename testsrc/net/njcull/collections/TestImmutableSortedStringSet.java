@@ -0,0 +1,260 @@
+package net.njcull.collections;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.*;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for ImmutableSortedStringSet and ImmutableSortedStringMap.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class TestImmutableSortedStringSet {
+
+    private static TreeSet<String> sampleStrings() {
+        TreeSet<String> expected = new TreeSet<>();
+        for(int i = 0; i < 500; i++) {
+            expected.add("http://example.com/products/" + (i % 7) + "/item-" + i);
+        }
+        expected.add("");
+        expected.add("a");
+        expected.add("\u00e9t\u00e9");
+        expected.add("\u0000nul");
+        expected.add("\u4e2d\u6587");
+        expected.add("\ud83d\ude00 smile");
+        expected.add("\uffff");
+        return expected;
+    }
+
+    @Test
+    public void testEmptySet() throws Exception {
+        ImmutableSortedStringSet test = ImmutableSortedStringSet.builder().build();
+        Assert.assertFalse(test.contains("3"));
+        Assert.assertSame(test, ImmutableSortedStringSet.emptySet());
+        Assert.assertTrue(test.isEmpty());
+        Assert.assertEquals(0, test.size());
+        Assert.assertEquals("[]", test.toString());
+        Assert.assertEquals(0, test.hashCode());
+    }
+
+    @Test
+    public void testBuildMerge() throws Exception {
+        ImmutableSortedStringSetBuilder builder = new ImmutableSortedStringSetBuilder();
+        ImmutableSortedStringSetBuilder builder2 = new ImmutableSortedStringSetBuilder();
+
+        builder.with(Arrays.asList("c", "b", "a"));
+        builder2.with("g", "f", "e", "d").with("a");
+        builder.merge(builder2);
+
+        ImmutableSortedStringSet set = builder.build();
+        Assert.assertEquals(5, builder2.size());
+        builder2.clear();
+        Assert.assertEquals(0, builder2.size());
+
+        Assert.assertEquals(7, set.size());
+        Assert.assertEquals("[a, b, c, d, e, f, g]", set.toString());
+    }
+
+    @Test
+    public void testOrderingAndSearch() throws Exception {
+        TreeSet<String> expected = sampleStrings();
+        ImmutableSortedStringSet set = ImmutableSortedStringSet.copyOf(expected);
+
+        Assert.assertEquals(expected.size(), set.size());
+        Assert.assertEquals(new ArrayList<>(expected), new ArrayList<>(set));
+        Assert.assertEquals(new ArrayList<>(expected), set.asList());
+        Assert.assertEquals(expected, set);
+        Assert.assertEquals(set, expected);
+        Assert.assertEquals(expected.hashCode(), set.hashCode());
+        Assert.assertEquals(expected.toString(), set.toString());
+        Assert.assertEquals(expected.first(), set.first());
+        Assert.assertEquals(expected.last(), set.last());
+        Assert.assertNull(set.comparator());
+
+        int i = 0;
+        for(String s : expected) {
+            Assert.assertEquals(i, set.indexOf(s));
+            Assert.assertEquals(s, set.getAtIndex(i));
+            Assert.assertTrue(set.contains(s));
+            Assert.assertFalse(set.contains(s + "!"));
+            i++;
+        }
+        Assert.assertFalse(set.contains(null));
+        Assert.assertFalse(set.contains(Integer.valueOf(1)));
+        Assert.assertEquals(-1, set.indexOf(null));
+        Assert.assertEquals(-1, set.indexOf("http://example.com/products/"));
+
+        Assert.assertArrayEquals(expected.toArray(), set.toArray());
+        Assert.assertArrayEquals(expected.toArray(new String[0]), set.toArray(new String[0]));
+        Assert.assertEquals(expected.size(), set.stream().count());
+        Assert.assertEquals(new ArrayList<>(expected), Arrays.asList(set.parallelStream().toArray()));
+    }
+
+    @Test
+    public void testSubSets() throws Exception {
+        TreeSet<String> expected = sampleStrings();
+        ImmutableSortedStringSet set = ImmutableSortedStringSet.copyOf(expected);
+
+        String[] bounds = { "", "a", "http://example.com/products/3", "http://example.com/products/3/item-52",
+                "http://example.com/products/4", "zzz", "\u4e2d", "\uffff" };
+        for(String from : bounds) {
+            Assert.assertEquals(expected.tailSet(from), set.tailSet(from));
+            Assert.assertEquals(expected.headSet(from), set.headSet(from));
+            for(String to : bounds) {
+                if(from.compareTo(to) <= 0) {
+                    SortedSet<String> sub = set.subSet(from, to);
+                    Assert.assertEquals(new ArrayList<>(expected.subSet(from, to)), new ArrayList<>(sub));
+                }
+            }
+        }
+        Assert.assertSame(set, set.tailSet(""));
+        Assert.assertSame(ImmutableSortedStringSet.emptySet(), set.headSet(""));
+    }
+
+    @Test
+    public void testCollector() throws Exception {
+        ImmutableSortedStringSet set = Stream.of("d", "b", "c", "a", "b")
+                .collect(Collectors.toImmutableSortedStringSet());
+        Assert.assertEquals("[a, b, c, d]", set.toString());
+
+        TreeSet<String> expected = sampleStrings();
+        set = expected.parallelStream().collect(Collectors.toImmutableSortedStringSet());
+        Assert.assertEquals(expected, set);
+    }
+
+    @Test
+    public void testExceptions() throws Exception {
+        ImmutableSortedStringSet set = ImmutableSortedStringSet.builder().with("a", "b", "c").build();
+        try {
+            set.add("d");
+            Assert.fail("add should fail");
+        } catch (UnsupportedOperationException e) {
+            Assert.assertNotNull(e);
+        }
+        try {
+            set.remove("a");
+            Assert.fail("remove should fail");
+        } catch (UnsupportedOperationException e) {
+            Assert.assertNotNull(e);
+        }
+        try {
+            set.clear();
+            Assert.fail("clear should fail");
+        } catch (UnsupportedOperationException e) {
+            Assert.assertEquals("No removals", e.getMessage());
+        }
+        try {
+            set.getAtIndex(3);
+            Assert.fail("getAtIndex should fail");
+        } catch (IndexOutOfBoundsException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+        try {
+            ImmutableSortedStringSet.builder().with("a", null).build();
+            Assert.fail("null element should fail");
+        } catch (NullPointerException e) {
+            Assert.assertEquals("null element", e.getMessage());
+        }
+        try {
+            ImmutableSortedStringSet.emptySet().first();
+            Assert.fail("first should fail");
+        } catch (NoSuchElementException e) {
+            Assert.assertEquals("Empty set", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testStringMap() throws Exception {
+        TreeSet<String> keys = sampleStrings();
+        TreeMap<String, Integer> expected = new TreeMap<>();
+        ImmutableSortedStringMapBuilder<Integer> builder = ImmutableSortedStringMap.builder();
+        int n = 0;
+        for(String key : keys.descendingSet()) {
+            expected.put(key, n);
+            builder.with(key, n++);
+        }
+        ImmutableSortedStringMap<Integer> map = builder.build();
+
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(map, expected);
+        Assert.assertEquals(expected.hashCode(), map.hashCode());
+        Assert.assertEquals(expected.toString(), map.toString());
+        Assert.assertEquals(expected.firstKey(), map.firstKey());
+        Assert.assertEquals(expected.lastKey(), map.lastKey());
+        Assert.assertEquals(keys, map.keySet());
+        Assert.assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(map.values()));
+
+        for(Map.Entry<String, Integer> entry : expected.entrySet()) {
+            Assert.assertEquals(entry.getValue(), map.get(entry.getKey()));
+            Assert.assertTrue(map.containsKey(entry.getKey()));
+        }
+        Assert.assertNull(map.get("missing"));
+        Assert.assertNull(map.get(null));
+        Assert.assertEquals(Integer.valueOf(-1), map.getOrDefault("missing", -1));
+        Assert.assertTrue(map.containsValue(17));
+        Assert.assertFalse(map.containsValue(-17));
+
+        String from = "http://example.com/products/2";
+        String to = "http://example.com/products/5";
+        Assert.assertEquals(expected.subMap(from, to), map.subMap(from, to));
+        Assert.assertEquals(expected.headMap(from), map.headMap(from));
+        Assert.assertEquals(expected.tailMap(to), map.tailMap(to));
+        Assert.assertSame(ImmutableSortedStringMap.emptyMap(), map.subMap(from, from));
+
+        try {
+            map.subMap(to, from);
+            Assert.fail("subMap should fail");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("toKey is less than fromKey", e.getMessage());
+        }
+        try {
+            ImmutableSortedStringMap.<Integer>builder().with("a", 1, "a", 2).build();
+            Assert.fail("duplicate key should fail");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("duplicate key", e.getMessage());
+        }
+
+        ImmutableSortedStringMap<Integer> collected = expected.entrySet().parallelStream()
+                .collect(Collectors.toImmutableSortedStringMap());
+        Assert.assertEquals(expected, collected);
+        Assert.assertSame(map, ImmutableSortedStringMap.copyOf(map));
+        Assert.assertEquals(expected, ImmutableSortedStringMap.copyOf(expected));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSerialization() throws Exception {
+        TreeSet<String> expected = sampleStrings();
+        ImmutableSortedStringSet set = ImmutableSortedStringSet.copyOf(expected);
+
+        ImmutableSortedStringSet set2 = (ImmutableSortedStringSet) roundTrip(set);
+        Assert.assertNotSame(set, set2);
+        Assert.assertEquals(expected, set2);
+        Assert.assertEquals(3, set2.indexOf(set.getAtIndex(3)));
+        Assert.assertSame(ImmutableSortedStringSet.emptySet(), roundTrip(ImmutableSortedStringSet.emptySet()));
+
+        ImmutableSortedStringMap<String> map = ImmutableSortedStringMap.<String>builder()
+                .with("b", "2", "a", "1").with("c", "3").build();
+        ImmutableSortedStringMap<String> map2 = (ImmutableSortedStringMap<String>) roundTrip(map);
+        Assert.assertNotSame(map, map2);
+        Assert.assertEquals("{a=1, b=2, c=3}", map2.toString());
+        Assert.assertSame(ImmutableSortedStringMap.emptyMap(), roundTrip(ImmutableSortedStringMap.emptyMap()));
+    }
+
+    private static Object roundTrip(Object obj) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(obj);
+
+        ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
+        ObjectInputStream ois = new ObjectInputStream(bais);
+        return ois.readObject();
+    }
+}
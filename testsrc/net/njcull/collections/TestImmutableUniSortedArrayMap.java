@@ -1160,4 +1160,29 @@ public final class TestImmutableUniSortedArrayMap {
         Assert.assertSame(ImmutableUniSortedArrayMap.emptyMap(), map2);
 
     }
+
+    @Test
+    public void testRankAndCount() throws Exception {
+        ImmutableUniSortedArrayMap<String, String> map = ImmutableUniSortedArrayMap.<String, String>builder()
+                .with("c", "5", "d", "4", "e", "3")
+                .with("a", "7", "b", "96").build();
+
+        Assert.assertEquals(0, map.rank("a"));
+        Assert.assertEquals(3, map.rank("cc"));
+        Assert.assertEquals(5, map.rank("f"));
+        Assert.assertEquals(3, map.countInRange("b", true, "d", true));
+        Assert.assertEquals(2, map.countInRange("b", false, "e", false));
+        Assert.assertEquals(5, map.countInRange("0", true, "z", false));
+        Assert.assertEquals("c", map.select(2));
+        for(int i = 0; i < map.size(); i++) {
+            Assert.assertEquals(i, map.rank(map.select(i)));
+        }
+
+        try {
+            map.countInRange("d", false, "b", false);
+            Assert.fail("inverted range should fail");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
 }
@@ -0,0 +1,188 @@
+package net.njcull.collections;
+
+import java.util.*;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for OffHeapHashedLongMap.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class TestOffHeapHashedLongMap {
+
+    @Test
+    public void testLookup() {
+        try (OffHeapHashedLongMap map = OffHeapHashedLongMap.builder()
+                .with(30L, 300L)
+                .with(-10L, -100L)
+                .with(20L, 200L)
+                .with(Long.MAX_VALUE, 1L)
+                .with(Long.MIN_VALUE, 2L)
+                .build()) {
+
+            Assert.assertEquals(5, map.size());
+            Assert.assertFalse(map.isEmpty());
+            Assert.assertEquals(Long.valueOf(300L), map.get(30L));
+            Assert.assertEquals(Long.valueOf(-100L), map.get(-10L));
+            Assert.assertNull(map.get(31L));
+            Assert.assertNull(map.get(30));
+            Assert.assertNull(map.get(null));
+            Assert.assertEquals(200L, map.getLong(20L, -1L));
+            Assert.assertEquals(-1L, map.getLong(21L, -1L));
+            Assert.assertEquals(Long.valueOf(-1L), map.getOrDefault(21L, -1L));
+            Assert.assertTrue(map.containsKey(Long.MIN_VALUE));
+            Assert.assertTrue(map.containsKey((Object) Long.MAX_VALUE));
+            Assert.assertFalse(map.containsKey(0L));
+            Assert.assertTrue(map.containsValue(200L));
+            Assert.assertFalse(map.containsValue(201L));
+            Assert.assertEquals(3, map.indexOfValue(1L));
+
+            Assert.assertEquals(Arrays.asList(30L, -10L, 20L, Long.MAX_VALUE, Long.MIN_VALUE),
+                    new ArrayList<>(map.keySet()));
+            Assert.assertEquals(Arrays.asList(300L, -100L, 200L, 1L, 2L),
+                    new ArrayList<>(map.values()));
+            for(int i = 0; i < map.size(); i++) {
+                Assert.assertEquals(i, map.indexOfKey(map.longKeyAt(i)));
+                Assert.assertEquals(map.longValueAt(i), map.valueAt(i).longValue());
+                Assert.assertEquals(map.keyAt(i), map.entryAt(i).getKey());
+            }
+
+            LinkedHashMap<Long, Long> expected = new LinkedHashMap<>();
+            map.forEach(expected::put);
+            Assert.assertEquals(expected, map);
+            Assert.assertEquals(map, expected);
+            Assert.assertEquals(expected.hashCode(), map.hashCode());
+            Assert.assertEquals(expected.toString(), map.toString());
+        }
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(46L);
+        LinkedHashMap<Long, Long> expected = new LinkedHashMap<>();
+        OffHeapHashedLongMapBuilder builder = OffHeapHashedLongMapBuilder.newMap();
+        for(int i = 0; i < 1000; i++) {
+            long key = random.nextInt(5000) - 2500L;
+            if(expected.putIfAbsent(key, (long) i) == null) {
+                builder.with(key, i);
+            }
+        }
+
+        try (OffHeapHashedLongMap map = builder.build()) {
+            Assert.assertEquals(expected.size(), map.size());
+            Assert.assertEquals(expected, map);
+            Assert.assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+            for(long key = -2600L; key < 2600L; key++) {
+                Long value = expected.get(key);
+                Assert.assertEquals(value, map.get(key));
+                Assert.assertEquals((value == null) ? -1L : value.longValue(), map.getLong(key, -1L));
+            }
+        }
+    }
+
+    @Test
+    public void testCopyOf() {
+        ImmutableHashedArrayMap<Long, Long> source = ImmutableHashedArrayMap.<Long, Long>builder()
+                .with(3L, 9L).with(1L, 1L).with(2L, 4L).build();
+        try (OffHeapHashedLongMap map = OffHeapHashedLongMap.copyOf(source)) {
+            Assert.assertEquals(source, map);
+            Assert.assertEquals(new ArrayList<>(source.keySet()), new ArrayList<>(map.keySet()));
+        }
+
+        TreeMap<Long, Long> sorted = new TreeMap<>();
+        sorted.put(5L, 25L);
+        sorted.put(4L, 16L);
+        try (OffHeapHashedLongMap map = OffHeapHashedLongMap.copyOf(sorted)) {
+            Assert.assertEquals(sorted, map);
+            Assert.assertEquals(Long.valueOf(4L), map.keyAt(0));
+        }
+
+        HashMap<Long, Long> nulls = new HashMap<>();
+        nulls.put(1L, null);
+        try {
+            OffHeapHashedLongMap.copyOf(nulls);
+            Assert.fail("Null value should fail");
+        } catch (NullPointerException e) {
+            Assert.assertEquals("value must not be null", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        try (OffHeapHashedLongMap map = OffHeapHashedLongMap.builder().build()) {
+            Assert.assertEquals(0, map.size());
+            Assert.assertTrue(map.isEmpty());
+            Assert.assertNull(map.get(0L));
+            Assert.assertEquals(-1, map.indexOfKey(0L));
+            Assert.assertEquals(Collections.emptyMap(), map);
+            Assert.assertEquals("{}", map.toString());
+        }
+    }
+
+    @Test
+    public void testDuplicateKey() {
+        OffHeapHashedLongMapBuilder builder = OffHeapHashedLongMap.builder()
+                .with(1L, 1L).with(2L, 2L).with(1L, 3L);
+        try {
+            builder.build();
+            Assert.fail("Duplicate key should fail");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("duplicate key", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testMergeAndClear() {
+        OffHeapHashedLongMapBuilder left = OffHeapHashedLongMap.builder().with(1L, 10L);
+        OffHeapHashedLongMapBuilder right = OffHeapHashedLongMap.builder().with(0L, 0L).with(2L, 20L);
+        left.merge(right);
+        Assert.assertEquals(3, left.size());
+        try (OffHeapHashedLongMap map = left.build()) {
+            Assert.assertEquals(Arrays.asList(1L, 0L, 2L), new ArrayList<>(map.keySet()));
+        }
+        left.clear();
+        Assert.assertEquals(0, left.size());
+    }
+
+    @Test
+    public void testClose() {
+        OffHeapHashedLongMap map = OffHeapHashedLongMap.builder().with(1L, 2L).build();
+        Assert.assertFalse(map.isClosed());
+        map.close();
+        Assert.assertTrue(map.isClosed());
+        map.close();
+        Assert.assertEquals(1, map.size());
+        try {
+            map.get(1L);
+            Assert.fail("Closed map should fail");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            map.longValueAt(0);
+            Assert.fail("Closed map should fail");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCollidingKeys() {
+        // Keys that differ only in their high bits must still spread
+        OffHeapHashedLongMapBuilder builder = OffHeapHashedLongMap.builder();
+        for(long i = 0; i < 500; i++) {
+            builder.with(i << 40, i);
+        }
+        try (OffHeapHashedLongMap map = builder.build()) {
+            for(long i = 0; i < 500; i++) {
+                Assert.assertEquals((int) i, map.indexOfKey(i << 40));
+                Assert.assertEquals(i, map.getLong(i << 40, -1L));
+            }
+            Assert.assertEquals(-1, map.indexOfKey(500L << 40));
+            Assert.assertEquals(-1, map.indexOfKey(1L));
+        }
+    }
+}
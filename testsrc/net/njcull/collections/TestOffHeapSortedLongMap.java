@@ -0,0 +1,171 @@
+package net.njcull.collections;
+
+import java.util.*;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for OffHeapSortedLongMap.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class TestOffHeapSortedLongMap {
+
+    @Test
+    public void testLookup() {
+        try (OffHeapSortedLongMap map = OffHeapSortedLongMap.builder()
+                .with(30L, 300L)
+                .with(-10L, -100L)
+                .with(20L, 200L)
+                .with(Long.MAX_VALUE, 1L)
+                .with(Long.MIN_VALUE, 2L)
+                .build()) {
+
+            Assert.assertEquals(5, map.size());
+            Assert.assertFalse(map.isEmpty());
+            Assert.assertEquals(Long.valueOf(300L), map.get(30L));
+            Assert.assertEquals(Long.valueOf(-100L), map.get(-10L));
+            Assert.assertNull(map.get(31L));
+            Assert.assertNull(map.get(30));
+            Assert.assertNull(map.get(null));
+            Assert.assertEquals(200L, map.getLong(20L, -1L));
+            Assert.assertEquals(-1L, map.getLong(21L, -1L));
+            Assert.assertEquals(Long.valueOf(-1L), map.getOrDefault(21L, -1L));
+            Assert.assertTrue(map.containsKey(Long.MIN_VALUE));
+            Assert.assertTrue(map.containsKey((Object) Long.MAX_VALUE));
+            Assert.assertFalse(map.containsKey(0L));
+            Assert.assertTrue(map.containsValue(200L));
+            Assert.assertFalse(map.containsValue(201L));
+            Assert.assertEquals(4, map.indexOfValue(1L));
+
+            Assert.assertEquals(Arrays.asList(Long.MIN_VALUE, -10L, 20L, 30L, Long.MAX_VALUE),
+                    new ArrayList<>(map.keySet()));
+            Assert.assertEquals(Arrays.asList(2L, -100L, 200L, 300L, 1L),
+                    new ArrayList<>(map.values()));
+            for(int i = 0; i < map.size(); i++) {
+                Assert.assertEquals(i, map.indexOfKey(map.longKeyAt(i)));
+                Assert.assertEquals(map.longValueAt(i), map.valueAt(i).longValue());
+                Assert.assertEquals(map.keyAt(i), map.entryAt(i).getKey());
+            }
+
+            TreeMap<Long, Long> expected = new TreeMap<>();
+            map.forEach(expected::put);
+            Assert.assertEquals(expected, map);
+            Assert.assertEquals(map, expected);
+            Assert.assertEquals(expected.hashCode(), map.hashCode());
+            Assert.assertEquals(expected.toString(), map.toString());
+        }
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(45L);
+        TreeMap<Long, Long> expected = new TreeMap<>();
+        OffHeapSortedLongMapBuilder builder = OffHeapSortedLongMapBuilder.newMap();
+        for(int i = 0; i < 1000; i++) {
+            long key = random.nextInt(5000) - 2500L;
+            if(expected.putIfAbsent(key, (long) i) == null) {
+                builder.with(key, i);
+            }
+        }
+
+        try (OffHeapSortedLongMap map = builder.build()) {
+            Assert.assertEquals(expected.size(), map.size());
+            Assert.assertEquals(expected, map);
+            Assert.assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+            for(long key = -2600L; key < 2600L; key++) {
+                Long value = expected.get(key);
+                Assert.assertEquals(value, map.get(key));
+                Assert.assertEquals((value == null) ? -1L : value.longValue(), map.getLong(key, -1L));
+            }
+        }
+    }
+
+    @Test
+    public void testCopyOf() {
+        ImmutableSortedArrayMap<Long, Long> source = ImmutableSortedArrayMap.<Long, Long>builder()
+                .with(3L, 9L).with(1L, 1L).with(2L, 4L).build();
+        try (OffHeapSortedLongMap map = OffHeapSortedLongMap.copyOf(source)) {
+            Assert.assertEquals(source, map);
+            Assert.assertEquals(Arrays.asList(1L, 2L, 3L), new ArrayList<>(map.keySet()));
+        }
+
+        HashMap<Long, Long> hashed = new HashMap<>();
+        hashed.put(5L, 25L);
+        hashed.put(4L, 16L);
+        try (OffHeapSortedLongMap map = OffHeapSortedLongMap.copyOf(hashed)) {
+            Assert.assertEquals(hashed, map);
+            Assert.assertEquals(Long.valueOf(4L), map.keyAt(0));
+        }
+
+        HashMap<Long, Long> nulls = new HashMap<>();
+        nulls.put(1L, null);
+        try {
+            OffHeapSortedLongMap.copyOf(nulls);
+            Assert.fail("Null value should fail");
+        } catch (NullPointerException e) {
+            Assert.assertEquals("value must not be null", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        try (OffHeapSortedLongMap map = OffHeapSortedLongMap.builder().build()) {
+            Assert.assertEquals(0, map.size());
+            Assert.assertTrue(map.isEmpty());
+            Assert.assertNull(map.get(0L));
+            Assert.assertEquals(-1, map.indexOfKey(0L));
+            Assert.assertEquals(Collections.emptyMap(), map);
+            Assert.assertEquals("{}", map.toString());
+        }
+    }
+
+    @Test
+    public void testDuplicateKey() {
+        OffHeapSortedLongMapBuilder builder = OffHeapSortedLongMap.builder()
+                .with(1L, 1L).with(2L, 2L).with(1L, 3L);
+        try {
+            builder.build();
+            Assert.fail("Duplicate key should fail");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("duplicate key", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testMergeAndClear() {
+        OffHeapSortedLongMapBuilder left = OffHeapSortedLongMap.builder().with(1L, 10L);
+        OffHeapSortedLongMapBuilder right = OffHeapSortedLongMap.builder().with(0L, 0L).with(2L, 20L);
+        left.merge(right);
+        Assert.assertEquals(3, left.size());
+        try (OffHeapSortedLongMap map = left.build()) {
+            Assert.assertEquals(Arrays.asList(0L, 1L, 2L), new ArrayList<>(map.keySet()));
+        }
+        left.clear();
+        Assert.assertEquals(0, left.size());
+    }
+
+    @Test
+    public void testClose() {
+        OffHeapSortedLongMap map = OffHeapSortedLongMap.builder().with(1L, 2L).build();
+        Assert.assertFalse(map.isClosed());
+        map.close();
+        Assert.assertTrue(map.isClosed());
+        map.close();
+        Assert.assertEquals(1, map.size());
+        try {
+            map.get(1L);
+            Assert.fail("Closed map should fail");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            map.longValueAt(0);
+            Assert.fail("Closed map should fail");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package net.njcull.collections;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for ShardedImmutableMap.
+ *
+ * @author run2000
+ * @version 19/10/2026.
+ */
+public final class TestShardedImmutableMap {
+
+    @Test
+    public void testUpdates() throws Exception {
+        ShardedImmutableMap<String, Integer> map = ShardedImmutableMap.newMap(6);
+        Assert.assertEquals(8, map.shardCount());
+        Assert.assertEquals(0, map.size());
+        Assert.assertNull(map.get("a"));
+
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put(null, 3);
+        Assert.assertEquals(3, map.size());
+        Assert.assertEquals(Integer.valueOf(1), map.get("a"));
+        Assert.assertEquals(Integer.valueOf(3), map.get(null));
+        Assert.assertTrue(map.containsKey("b"));
+        Assert.assertFalse(map.containsKey("c"));
+
+        map.remove("a");
+        Assert.assertFalse(map.containsKey("a"));
+        Assert.assertEquals(2, map.size());
+
+        Map<String, Integer> more = new HashMap<>();
+        for(int i = 0; i < 100; i++) {
+            more.put("k" + i, i);
+        }
+        map.putAll(more);
+        Assert.assertEquals(102, map.size());
+        Assert.assertEquals(Integer.valueOf(42), map.get("k42"));
+
+        int total = 0;
+        for(int i = 0; i < map.shardCount(); i++) {
+            total += map.shard(i).size();
+        }
+        Assert.assertEquals(102, total);
+
+        map.removeAll(more.keySet());
+        Assert.assertEquals(2, map.size());
+
+        Assert.assertEquals(1, ShardedImmutableMap.newMap(1).shardCount());
+        Assert.assertEquals(16, ShardedImmutableMap.newMap(16).shardCount());
+        try {
+            ShardedImmutableMap.newMap(0);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testSingleShardRebuilt() throws Exception {
+        Map<Integer, Integer> source = new HashMap<>();
+        for(int i = 0; i < 1000; i++) {
+            source.put(i, i * 2);
+        }
+        ShardedImmutableMap<Integer, Integer> map = ShardedImmutableMap.copyOf(source, 4);
+
+        List<ImmutableHashedArrayMap<Integer, Integer>> before = new ArrayList<>();
+        for(int i = 0; i < map.shardCount(); i++) {
+            before.add(map.shard(i));
+        }
+        map.put(5, -5);
+        int changed = 0;
+        for(int i = 0; i < map.shardCount(); i++) {
+            if(before.get(i) != map.shard(i)) {
+                changed++;
+            }
+        }
+        Assert.assertEquals(1, changed);
+        Assert.assertEquals(Integer.valueOf(-5), map.get(5));
+    }
+
+    @Test
+    public void testSnapshot() throws Exception {
+        Map<String, Integer> source = new HashMap<>();
+        for(int i = 0; i < 50; i++) {
+            source.put("k" + i, i % 7);
+        }
+        ShardedImmutableMap<String, Integer> map = ShardedImmutableMap.copyOf(source, 16);
+        ShardedImmutableMap.Snapshot<String, Integer> snapshot = map.snapshot();
+
+        Assert.assertEquals(source, snapshot);
+        Assert.assertEquals(snapshot, source);
+        Assert.assertEquals(source.hashCode(), snapshot.hashCode());
+        Assert.assertEquals(50, snapshot.size());
+        Assert.assertEquals(16, snapshot.shardCount());
+        Assert.assertTrue(snapshot.containsValue(6));
+        Assert.assertFalse(snapshot.containsValue(7));
+        Assert.assertEquals(Integer.valueOf(3), snapshot.getOrDefault("k3", -1));
+        Assert.assertEquals(Integer.valueOf(-1), snapshot.getOrDefault("z", -1));
+
+        // Indexed access spans the shards, including any empty shards
+        Set<String> keys = new HashSet<>();
+        for(int i = 0; i < snapshot.size(); i++) {
+            String key = snapshot.keyAt(i);
+            Assert.assertTrue(keys.add(key));
+            Assert.assertEquals(i, snapshot.indexOfKey(key));
+            Assert.assertEquals(source.get(key), snapshot.valueAt(i));
+            Assert.assertEquals(key, snapshot.entryAt(i).getKey());
+        }
+        Assert.assertEquals(source.keySet(), keys);
+        Assert.assertEquals(-1, snapshot.indexOfKey("z"));
+        Assert.assertEquals(snapshot.valueAt(snapshot.indexOfValue(5)), Integer.valueOf(5));
+        Assert.assertEquals(source.keySet(), snapshot.keySet());
+        Assert.assertEquals(50, snapshot.values().size());
+        Assert.assertEquals(source.entrySet(), snapshot.entrySet());
+
+        try {
+            snapshot.keyAt(50);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+
+        // Snapshots are unaffected by later updates
+        map.put("k0", 100);
+        Assert.assertEquals(Integer.valueOf(0), snapshot.get("k0"));
+        Assert.assertEquals(Integer.valueOf(100), map.snapshot().get("k0"));
+
+        Map<String, Integer> visited = new HashMap<>();
+        snapshot.forEach(visited::put);
+        Assert.assertEquals(source, visited);
+
+        ShardedImmutableMap.Snapshot<String, Integer> empty = ShardedImmutableMap.<String, Integer>newMap(4).snapshot();
+        Assert.assertTrue(empty.isEmpty());
+        Assert.assertEquals("{}", empty.toString());
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+        final ShardedImmutableMap<Integer, Integer> map = ShardedImmutableMap.newMap(8);
+        final int threads = 4;
+        final int updates = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for(int t = 0; t < threads; t++) {
+                final int base = t * updates;
+                futures.add(executor.submit(() -> {
+                    for(int i = 0; i < updates; i++) {
+                        map.put(base + i, i);
+                    }
+                    return null;
+                }));
+            }
+            for(Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        ShardedImmutableMap.Snapshot<Integer, Integer> snapshot = map.snapshot();
+        Assert.assertEquals(threads * updates, snapshot.size());
+        for(int i = 0; i < threads * updates; i++) {
+            Assert.assertEquals(Integer.valueOf(i % updates), snapshot.get(i));
+        }
+    }
+}